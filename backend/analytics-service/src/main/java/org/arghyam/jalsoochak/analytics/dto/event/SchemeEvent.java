@@ -13,8 +13,8 @@ public class SchemeEvent {
     private Integer schemeId;
     private Integer tenantId;
     private String schemeName;
-    private Integer stateSchemeId;
-    private Integer centreSchemeId;
+    private String stateSchemeId;
+    private String centreSchemeId;
     private Double longitude;
     private Double latitude;
 
@@ -30,10 +30,10 @@ public class DimScheme {
     private String schemeName;
 
     @Column(name = "state_scheme_id", nullable = false)
-    private Integer stateSchemeId;
+    private String stateSchemeId;
 
     @Column(name = "centre_scheme_id", nullable = false)
-    private Integer centreSchemeId;
+    private String centreSchemeId;
 
     private Double longitude;
     private Double latitude;
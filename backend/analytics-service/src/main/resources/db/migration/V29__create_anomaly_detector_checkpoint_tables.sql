@@ -0,0 +1,33 @@
+-- Checkpoints of anomaly-service's streaming anomaly detector.
+--
+-- anomaly_detector_state_table holds the rolling statistics the detector keeps per scheme:
+-- the last confirmed meter reading, an exponentially weighted mean and variance of daily
+-- consumption, and the flags that keep a stuck meter or a silent scheme from being
+-- reported twice. anomaly_detector_offset_table holds, per partition of
+-- telemetry-service-topic, the offset of the first event not yet reflected in that state.
+-- Both are written in one transaction, so after a restart the detector reloads its state
+-- and resumes consuming exactly where the state ends, without rescanning reading history.
+
+CREATE TABLE IF NOT EXISTS analytics_schema.anomaly_detector_state_table (
+    tenant_id           INTEGER           NOT NULL,
+    scheme_id           INTEGER           NOT NULL,
+    last_reading        NUMERIC,
+    last_reading_date   DATE,
+    last_seen_date      DATE,                                 -- last reading or outage report
+    mean_daily_usage    DOUBLE PRECISION  NOT NULL DEFAULT 0,  -- EWMA of daily consumption
+    usage_variance      DOUBLE PRECISION  NOT NULL DEFAULT 0,  -- EW variance of daily consumption
+    samples             INTEGER           NOT NULL DEFAULT 0,
+    flat_days           INTEGER           NOT NULL DEFAULT 0,  -- days without consumption so far
+    stuck_reported      BOOLEAN           NOT NULL DEFAULT FALSE,
+    silence_reported    BOOLEAN           NOT NULL DEFAULT FALSE,
+    updated_at          TIMESTAMPTZ       NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (tenant_id, scheme_id)
+);
+
+CREATE TABLE IF NOT EXISTS analytics_schema.anomaly_detector_offset_table (
+    topic         TEXT         NOT NULL,
+    partition_no  INTEGER      NOT NULL,
+    next_offset   BIGINT       NOT NULL,
+    updated_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (topic, partition_no)
+);
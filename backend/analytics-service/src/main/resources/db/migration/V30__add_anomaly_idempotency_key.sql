@@ -0,0 +1,15 @@
+-- Idempotency key for anomalies stored by anomaly-service.
+--
+-- anomaly-service inserts anomalies in batches with ON CONFLICT DO NOTHING. A Kafka
+-- redelivery of the same event (e.g. after a rebalance) must not create a second row, even
+-- when the event carries no uuid. source_event_id identifies the event an anomaly came from
+-- (its topic, partition and offset, or the detector's anomaly uuid) and reading_date the day
+-- it refers to. Rows written without a source event (analytics-service) are not constrained.
+
+ALTER TABLE analytics_schema.anomaly_table
+    ADD COLUMN IF NOT EXISTS reading_date    DATE,
+    ADD COLUMN IF NOT EXISTS source_event_id TEXT;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_anomaly_source_event
+    ON analytics_schema.anomaly_table (tenant_id, scheme_id, type, reading_date, source_event_id)
+    WHERE source_event_id IS NOT NULL;
@@ -0,0 +1,7 @@
+-- State and centre scheme IDs are free-text codes in scheme-service (VARCHAR(255) in
+-- scheme_master_table, e.g. "SS-1"), and SCHEME_CREATED/SCHEME_UPDATED events carry them as
+-- strings. Store them as text so non-numeric codes reach the dimension.
+
+ALTER TABLE analytics_schema.dim_scheme_table
+    ALTER COLUMN state_scheme_id  TYPE VARCHAR(255) USING state_scheme_id::VARCHAR(255),
+    ALTER COLUMN centre_scheme_id TYPE VARCHAR(255) USING centre_scheme_id::VARCHAR(255);
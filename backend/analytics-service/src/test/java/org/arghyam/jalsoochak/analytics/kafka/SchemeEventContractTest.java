@@ -0,0 +1,54 @@
+package org.arghyam.jalsoochak.analytics.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.arghyam.jalsoochak.analytics.dto.event.SchemeEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payloads as scheme-service's outbox queues them ({@code SchemeEventOutboxRepository}, a
+ * {@code jsonb_build_object} over scheme_master_table plus the relay's {@code eventId}) must
+ * deserialize into {@link SchemeEvent}. Keep the JSON below in step with that query.
+ */
+class SchemeEventContractTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void outboxPayload_withAlphanumericSchemeCodes_deserializes() throws Exception {
+        String payload = """
+                {"status": 1, "eventId": 42, "latitude": 12.9, "schemeId": 7, "tenantId": 3,
+                 "eventType": "SCHEME_CREATED", "longitude": 77.5, "level1LgdId": 100,
+                 "level2LgdId": 101, "level3LgdId": null, "level4LgdId": null, "level5LgdId": null,
+                 "level6LgdId": null, "schemeName": "Hosur Road", "level1DeptId": 200,
+                 "level2DeptId": 201, "level3DeptId": null, "level4DeptId": null,
+                 "level5DeptId": null, "level6DeptId": null, "stateSchemeId": "SS-1",
+                 "centreSchemeId": "C-1", "parentLgdLocationId": 101,
+                 "parentDepartmentLocationId": 201}
+                """;
+
+        SchemeEvent event = objectMapper.readValue(payload, SchemeEvent.class);
+
+        assertThat(event.getEventType()).isEqualTo("SCHEME_CREATED");
+        assertThat(event.getSchemeId()).isEqualTo(7);
+        assertThat(event.getTenantId()).isEqualTo(3);
+        assertThat(event.getStateSchemeId()).isEqualTo("SS-1");
+        assertThat(event.getCentreSchemeId()).isEqualTo("C-1");
+        assertThat(event.getLongitude()).isEqualTo(77.5);
+        assertThat(event.getParentLgdLocationId()).isEqualTo(101);
+        assertThat(event.getLevel2DeptId()).isEqualTo(201);
+        assertThat(event.getLevel3LgdId()).isNull();
+        assertThat(event.getStatus()).isEqualTo(1);
+    }
+
+    @Test
+    void outboxPayload_withNumericSchemeCodes_deserializes() throws Exception {
+        SchemeEvent event = objectMapper.readValue(
+                "{\"eventType\": \"SCHEME_UPDATED\", \"schemeId\": 8, \"stateSchemeId\": \"1003\", \"centreSchemeId\": \"2003\"}",
+                SchemeEvent.class);
+
+        assertThat(event.getStateSchemeId()).isEqualTo("1003");
+        assertThat(event.getCentreSchemeId()).isEqualTo("2003");
+    }
+}
@@ -90,8 +90,8 @@ class DimensionServiceImplTest {
         event.setSchemeId(1001);
         event.setTenantId(1);
         event.setSchemeName("Scheme-A");
-        event.setStateSchemeId(10);
-        event.setCentreSchemeId(20);
+        event.setStateSchemeId("SS-10");
+        event.setCentreSchemeId("C-20");
         event.setParentLgdLocationId(100);
         event.setLevel1LgdId(100);
         event.setLevel2LgdId(101);
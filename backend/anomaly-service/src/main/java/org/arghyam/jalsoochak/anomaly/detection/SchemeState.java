@@ -0,0 +1,38 @@
+package org.arghyam.jalsoochak.anomaly.detection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Rolling statistics of one scheme, as kept by {@link StreamingAnomalyDetector} and
+ * checkpointed to {@code analytics_schema.anomaly_detector_state_table}.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemeState {
+
+    private int tenantId;
+    private int schemeId;
+
+    /** Last confirmed meter reading; meaningful only when {@link #lastReadingDate} is set. */
+    private long lastReading;
+    private LocalDate lastReadingDate;
+    /** Last day the scheme reported anything: a reading or an outage. */
+    private LocalDate lastSeenDate;
+
+    /** Exponentially weighted mean and variance of daily consumption. */
+    private double meanDailyUsage;
+    private double usageVariance;
+    private int samples;
+
+    /** Consecutive days without consumption. */
+    private int flatDays;
+    private boolean stuckReported;
+    private boolean silenceReported;
+}
@@ -0,0 +1,335 @@
+package org.arghyam.jalsoochak.anomaly.detection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.anomaly.dto.event.MeterReadingEvent;
+import org.arghyam.jalsoochak.anomaly.dto.event.WaterQuantityEvent;
+import org.arghyam.jalsoochak.anomaly.service.AnomalyConstants;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Detects anomalies on the stream of confirmed meter readings, one scheme at a time.
+ *
+ * <p>For every scheme it keeps a {@link SchemeState}: the last reading, and an exponentially
+ * weighted mean and variance of daily consumption (the difference between consecutive
+ * readings, spread over the days between them). Each reading is compared with that state
+ * only, so the cost per event is constant and no history is read back. It reports:</p>
+ * <ul>
+ *   <li>a <b>consumption spike</b> when daily consumption exceeds the mean by more than
+ *       {@code spikeThreshold} standard deviations, once the scheme has
+ *       {@code warmupDays} of history;</li>
+ *   <li>a <b>stuck meter</b> when a scheme that used to consume water shows the same reading
+ *       for {@code stuckDays} days (once per episode);</li>
+ *   <li>a <b>reversal</b> when a reading is lower than the previous one; the new reading
+ *       becomes the baseline. Telemetry accepts a lower reading only as the first reading of a
+ *       replacement meter, which it flags ({@code meterReplaced}); a flagged reading resets the
+ *       baseline silently, whether it is lower or higher;</li>
+ *   <li>a <b>silent scheme</b> when a scheme has reported neither a reading nor an outage for
+ *       {@code silentDays} whole days (see {@link #findSilentSchemes}; once per episode).</li>
+ * </ul>
+ *
+ * <p>Readings dated on or before the scheme's last reading are ignored, so replaying events
+ * that are already reflected in the state changes nothing. Reported anomalies get a UUID
+ * derived from scheme, type and date, so a replay reports them under the same UUID.</p>
+ *
+ * <p>Changes made between {@link #begin()} and {@link #rollback()} are undone, so a caller
+ * that fails to store the anomalies of an event can apply the event again later.</p>
+ *
+ * <p>Not thread-safe: the caller serialises access.</p>
+ */
+@Slf4j
+public class StreamingAnomalyDetector {
+
+    /**
+     * @param smoothing      weight of the newest day in the mean and variance (0–1)
+     * @param spikeThreshold standard deviations above the mean that make a spike
+     * @param warmupDays     days of consumption needed before spikes and stuck meters are reported
+     * @param stuckDays      days with an unchanged reading that make a stuck meter
+     * @param silentDays     days without a report that make a silent scheme
+     */
+    public record Settings(double smoothing, double spikeThreshold, int warmupDays, int stuckDays, int silentDays) {
+    }
+
+    private record SchemeKey(int tenantId, int schemeId) {
+    }
+
+    private final Settings settings;
+    private final Map<SchemeKey, SchemeState> states = new HashMap<>();
+    private final Set<SchemeKey> dirty = new HashSet<>();
+    /** States as they were at {@link #begin()}, by scheme; {@code null} if not tracked then. */
+    private final Map<SchemeKey, SchemeState> undo = new HashMap<>();
+    private final Set<SchemeKey> undoDirty = new HashSet<>();
+    private boolean recording;
+
+    public StreamingAnomalyDetector(Settings settings) {
+        this.settings = settings;
+    }
+
+    /** Replaces the state of the given schemes, e.g. with a checkpoint. */
+    public void restore(Collection<SchemeState> checkpoint) {
+        for (SchemeState state : checkpoint) {
+            states.put(new SchemeKey(state.getTenantId(), state.getSchemeId()), state);
+        }
+    }
+
+    /** Number of schemes tracked. */
+    public int size() {
+        return states.size();
+    }
+
+    /** States changed since the last {@link #clearDirty()}. */
+    public List<SchemeState> dirtyStates() {
+        return dirty.stream().map(states::get).toList();
+    }
+
+    public void clearDirty() {
+        dirty.clear();
+    }
+
+    /** Forgets every scheme, as before the first {@link #restore}. */
+    public void reset() {
+        states.clear();
+        dirty.clear();
+        commit();
+    }
+
+    /** Starts recording changes, so they can be undone with {@link #rollback()}. */
+    public void begin() {
+        undo.clear();
+        undoDirty.clear();
+        recording = true;
+    }
+
+    /** Keeps the changes made since {@link #begin()}. */
+    public void commit() {
+        undo.clear();
+        undoDirty.clear();
+        recording = false;
+    }
+
+    /** Undoes the changes made since {@link #begin()}. */
+    public void rollback() {
+        for (Map.Entry<SchemeKey, SchemeState> entry : undo.entrySet()) {
+            if (entry.getValue() != null) {
+                states.put(entry.getKey(), entry.getValue());
+            } else {
+                states.remove(entry.getKey());
+            }
+        }
+        dirty.removeAll(undoDirty);
+        commit();
+    }
+
+    /** Applies a confirmed meter reading and returns the anomalies it reveals. */
+    public List<AnomalyEvent> onReading(MeterReadingEvent event) {
+        LocalDate date = readingDate(event);
+        if (event.getTenantId() == null || event.getSchemeId() == null
+                || event.getConfirmedReading() == null || date == null) {
+            return List.of();
+        }
+        SchemeKey key = new SchemeKey(event.getTenantId(), event.getSchemeId());
+        remember(key);
+        SchemeState state = states.computeIfAbsent(key, k -> SchemeState.builder()
+                .tenantId(k.tenantId())
+                .schemeId(k.schemeId())
+                .build());
+        long reading = event.getConfirmedReading();
+        LocalDate lastDate = state.getLastReadingDate();
+        if (lastDate != null && !date.isAfter(lastDate)) {
+            return List.of();
+        }
+        dirty.add(key);
+        markSeen(state, date);
+        if (lastDate == null) {
+            state.setLastReading(reading);
+            state.setLastReadingDate(date);
+            return List.of();
+        }
+
+        if (Boolean.TRUE.equals(event.getMeterReplaced())) {
+            // A new meter: neither a reversal nor consumption. Learned usage carries over.
+            state.setLastReading(reading);
+            state.setLastReadingDate(date);
+            state.setFlatDays(0);
+            state.setStuckReported(false);
+            return List.of();
+        }
+
+        List<AnomalyEvent> anomalies = new ArrayList<>(1);
+        long previous = state.getLastReading();
+        long days = ChronoUnit.DAYS.between(lastDate, date);
+        state.setLastReading(reading);
+        state.setLastReadingDate(date);
+
+        if (reading < previous) {
+            state.setFlatDays(0);
+            state.setStuckReported(false);
+            anomalies.add(anomaly(state, AnomalyConstants.TYPE_READING_LESS_THAN_PREVIOUS, date, event.getUserId(),
+                    reading, previous, lastDate,
+                    "Meter reading went down from " + previous + " to " + reading
+                            + " without a meter replacement."));
+            return anomalies;
+        }
+
+        if (reading == previous) {
+            state.setFlatDays(state.getFlatDays() + (int) days);
+            if (!state.isStuckReported() && state.getFlatDays() >= settings.stuckDays()
+                    && state.getSamples() >= settings.warmupDays() && state.getMeanDailyUsage() >= 1) {
+                state.setStuckReported(true);
+                anomalies.add(anomaly(state, AnomalyConstants.TYPE_STUCK_METER, date, event.getUserId(),
+                        reading, previous, lastDate,
+                        "Meter reading unchanged at " + reading + " for " + state.getFlatDays() + " days."));
+            }
+            return anomalies;
+        }
+
+        state.setFlatDays(0);
+        state.setStuckReported(false);
+        double usage = (double) (reading - previous) / days;
+        double mean = state.getMeanDailyUsage();
+        double deviation = Math.max(Math.sqrt(state.getUsageVariance()), Math.max(0.1 * mean, 1.0));
+        double ceiling = mean + settings.spikeThreshold() * deviation;
+        if (state.getSamples() >= settings.warmupDays() && usage > ceiling) {
+            anomalies.add(anomaly(state, AnomalyConstants.TYPE_CONSUMPTION_SPIKE, date, event.getUserId(),
+                    reading, previous, lastDate,
+                    "Daily consumption of " + Math.round(usage) + " is far above the usual "
+                            + Math.round(mean) + "."));
+            // Learn from a capped value, so a single spike does not mask the next one.
+            usage = ceiling;
+        }
+        learn(state, usage);
+        return anomalies;
+    }
+
+    /** Notes that a scheme reported an outage or a missed submission instead of a reading. */
+    public void onOutageReport(WaterQuantityEvent event) {
+        LocalDate date = parseDate(event.getDate());
+        if (event.getTenantId() == null || event.getSchemeId() == null || date == null) {
+            return;
+        }
+        SchemeKey key = new SchemeKey(event.getTenantId(), event.getSchemeId());
+        SchemeState state = states.get(key);
+        if (state != null && (state.getLastSeenDate() == null || date.isAfter(state.getLastSeenDate()))) {
+            remember(key);
+            markSeen(state, date);
+            dirty.add(key);
+        }
+    }
+
+    /** Reports schemes that have been silent for {@code silentDays} days before {@code today}. */
+    public List<AnomalyEvent> findSilentSchemes(LocalDate today) {
+        List<AnomalyEvent> anomalies = new ArrayList<>();
+        for (Map.Entry<SchemeKey, SchemeState> entry : states.entrySet()) {
+            SchemeState state = entry.getValue();
+            LocalDate lastSeen = state.getLastSeenDate();
+            if (state.isSilenceReported() || lastSeen == null) {
+                continue;
+            }
+            // Days wholly without a report; today is still open.
+            long silentDays = ChronoUnit.DAYS.between(lastSeen, today) - 1;
+            if (silentDays < settings.silentDays()) {
+                continue;
+            }
+            remember(entry.getKey());
+            state.setSilenceReported(true);
+            dirty.add(entry.getKey());
+            AnomalyEvent anomaly = anomaly(state, AnomalyConstants.TYPE_SILENT_SCHEME, lastSeen, null,
+                    null, state.getLastReadingDate() != null ? state.getLastReading() : null,
+                    state.getLastReadingDate(),
+                    "No reading or outage report for " + silentDays + " days.");
+            anomaly.setConsecutiveDaysMissed((int) silentDays);
+            anomalies.add(anomaly);
+        }
+        return anomalies;
+    }
+
+    /** Records the scheme's state before its first change since {@link #begin()}. */
+    private void remember(SchemeKey key) {
+        if (!recording || undo.containsKey(key)) {
+            return;
+        }
+        SchemeState state = states.get(key);
+        undo.put(key, state != null ? state.toBuilder().build() : null);
+        if (!dirty.contains(key)) {
+            undoDirty.add(key);
+        }
+    }
+
+    private void learn(SchemeState state, double usage) {
+        // Plain running mean and variance until there are 1/smoothing samples, so the first
+        // days do not leave the variance understated.
+        double alpha = Math.max(settings.smoothing(), 1.0 / (state.getSamples() + 1));
+        double diff = usage - state.getMeanDailyUsage();
+        double increment = alpha * diff;
+        state.setMeanDailyUsage(state.getMeanDailyUsage() + increment);
+        state.setUsageVariance((1 - alpha) * (state.getUsageVariance() + diff * increment));
+        state.setSamples(state.getSamples() + 1);
+    }
+
+    private static void markSeen(SchemeState state, LocalDate date) {
+        if (state.getLastSeenDate() == null || date.isAfter(state.getLastSeenDate())) {
+            state.setLastSeenDate(date);
+        }
+        state.setSilenceReported(false);
+    }
+
+    private static AnomalyEvent anomaly(SchemeState state, int type, LocalDate date, Integer userId,
+                                        Long reading, Long previousReading, LocalDate previousReadingDate,
+                                        String reason) {
+        String identity = "detector:" + state.getTenantId() + ":" + state.getSchemeId() + ":" + type + ":" + date;
+        return AnomalyEvent.builder()
+                .uuid(UUID.nameUUIDFromBytes(identity.getBytes(StandardCharsets.UTF_8)).toString())
+                .tenantId(state.getTenantId())
+                .schemeId(state.getSchemeId())
+                .userId(userId)
+                .type(type)
+                .overriddenReading(reading != null ? BigDecimal.valueOf(reading) : null)
+                .previousReading(previousReading != null ? BigDecimal.valueOf(previousReading) : null)
+                .previousReadingDate(previousReadingDate)
+                .retries(0)
+                .consecutiveDaysMissed(0)
+                .reason(reason)
+                .status(AnomalyConstants.STATUS_OPEN)
+                .readingDate(date)
+                .build();
+    }
+
+    private static LocalDate readingDate(MeterReadingEvent event) {
+        LocalDate date = parseDate(event.getReadingDate());
+        if (date != null || event.getReadingAt() == null || event.getReadingAt().isBlank()) {
+            return date;
+        }
+        try {
+            return LocalDateTime.parse(event.getReadingAt()).toLocalDate();
+        } catch (DateTimeParseException e) {
+            log.warn("Could not parse readingAt '{}', skipping reading", event.getReadingAt());
+            return null;
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            log.warn("Could not parse date '{}', skipping event", value);
+            return null;
+        }
+    }
+}
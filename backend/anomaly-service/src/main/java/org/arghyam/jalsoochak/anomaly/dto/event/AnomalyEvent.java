@@ -30,4 +30,8 @@ public class AnomalyEvent {
     private String reason;
     private Integer status;
     private String correlationId;
+    /** Day the anomaly refers to; set by anomaly-service, not by telemetry. */
+    private LocalDate readingDate;
+    /** Event the anomaly came from, for idempotent inserts; set by anomaly-service. */
+    private String sourceEventId;
 }
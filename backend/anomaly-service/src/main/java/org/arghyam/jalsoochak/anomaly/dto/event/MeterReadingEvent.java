@@ -0,0 +1,29 @@
+package org.arghyam.jalsoochak.anomaly.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MeterReadingEvent {
+
+    private String eventType;
+    private Integer tenantId;
+    private Integer schemeId;
+    private Integer userId;
+    private Integer extractedReading;
+    private Integer confirmedReading;
+    private Integer confidence;
+    private String imageUrl;
+    private String readingAt;
+    private Integer channel;
+    private String readingDate;
+    /** The reading is the first from a replacement meter and starts a new baseline. */
+    private Boolean meterReplaced;
+}
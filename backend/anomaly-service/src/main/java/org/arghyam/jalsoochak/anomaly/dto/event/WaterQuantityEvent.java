@@ -0,0 +1,25 @@
+package org.arghyam.jalsoochak.anomaly.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WaterQuantityEvent {
+
+    private String eventType;
+    private Integer tenantId;
+    private Integer schemeId;
+    private Integer userId;
+    private Integer waterQuantity;
+    private Integer submissionStatus;
+    private String outageReason;
+    private String nonSubmissionReason;
+    private String date;
+}
@@ -75,6 +75,12 @@ public class Anomaly {
     @Column(name = "correlation_id")
     private String correlationId;
 
+    @Column(name = "reading_date")
+    private LocalDate readingDate;
+
+    @Column(name = "source_event_id")
+    private String sourceEventId;
+
     @Column(name = "resolved_by")
     private Integer resolvedBy;
 
@@ -0,0 +1,166 @@
+package org.arghyam.jalsoochak.anomaly.kafka;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.anomaly.service.AnomalyDetectionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Runs the streaming detector on one instance only.
+ *
+ * <p>Each instance tries to take a session-level Postgres advisory lock every
+ * {@code anomaly.detection.leader-check-interval-ms}. The instance that gets it keeps a
+ * connection open to hold the lock and starts {@link TelemetryStreamListener}'s container;
+ * the others leave it stopped. If the lock connection fails, the lock is gone and another
+ * instance may take over. The container is then stopped and the detector's state dropped
+ * without a checkpoint. Another instance can start before this one notices, for up to one
+ * check interval; events it handles in that window are deduplicated on insert by UUID.</p>
+ *
+ * <p>Checkpoints are fenced: each one checks, in its own transaction, that the lock session
+ * whose backend pid was handed to {@link AnomalyDetectionService#lead} still holds the lock, so
+ * an instance that has lost the lock cannot overwrite the new leader's checkpoint. Checkpoints
+ * hold {@code anomaly-detection-checkpoint} shared while they run; a new leader takes it
+ * exclusively once before starting, so a checkpoint that passed the check just before the
+ * lock was lost commits before the new leader loads the state.</p>
+ */
+@Component
+@Slf4j
+public class DetectorLeadership {
+
+    static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('anomaly-detection'))";
+    static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('anomaly-detection'))";
+    static final String PID_SQL = "SELECT pg_backend_pid()";
+    static final String CHECKPOINT_BARRIER_SQL = "SELECT pg_advisory_unlock(hashtext('anomaly-detection-checkpoint')) "
+            + "FROM (SELECT pg_advisory_lock(hashtext('anomaly-detection-checkpoint'))) waited";
+
+    private final DataSource dataSource;
+    private final KafkaListenerEndpointRegistry registry;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final boolean enabled;
+
+    private Connection lockConnection;
+
+    public DetectorLeadership(DataSource dataSource,
+                              KafkaListenerEndpointRegistry registry,
+                              AnomalyDetectionService anomalyDetectionService,
+                              @Value("${anomaly.detection.enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.registry = registry;
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${anomaly.detection.leader-check-interval-ms:15000}")
+    public synchronized void checkLeadership() {
+        if (!enabled) {
+            return;
+        }
+        if (lockConnection != null) {
+            if (!isValid(lockConnection)) {
+                log.warn("[anomaly-detection] lost the detector lock, stopping the detector");
+                container().stop();
+                anomalyDetectionService.release();
+                unlockAndClose();
+            }
+            return;
+        }
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            log.error("[anomaly-detection] could not check the detector lock: {}", e.getMessage());
+            return;
+        }
+        int pid;
+        try {
+            if (!query(connection, LOCK_SQL)) {
+                connection.close();
+                return;
+            }
+            // Waits for checkpoints a previous leader started while it still held the lock.
+            query(connection, CHECKPOINT_BARRIER_SQL);
+            pid = queryInt(connection, PID_SQL);
+        } catch (SQLException e) {
+            log.error("[anomaly-detection] could not check the detector lock: {}", e.getMessage());
+            closeQuietly(connection);
+            return;
+        }
+        lockConnection = connection;
+        log.info("[anomaly-detection] acquired the detector lock, starting the detector");
+        anomalyDetectionService.lead(pid);
+        container().start();
+    }
+
+    /**
+     * Writes the final checkpoint while the lock is still held, then releases it. Spring stops
+     * the listener container before destroying beans, so no event arrives after the checkpoint.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (lockConnection != null) {
+            anomalyDetectionService.checkpoint();
+            unlockAndClose();
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return registry.getListenerContainer(TelemetryStreamListener.LISTENER_ID);
+    }
+
+    /**
+     * The lock belongs to the database session, and closing a pooled connection keeps the session
+     * open, so the lock is released explicitly before the connection goes back to the pool.
+     */
+    private void unlockAndClose() {
+        try {
+            query(lockConnection, UNLOCK_SQL);
+        } catch (SQLException e) {
+            log.debug("[anomaly-detection] releasing the detector lock failed: {}", e.getMessage());
+        }
+        closeQuietly(lockConnection);
+        lockConnection = null;
+    }
+
+    private static boolean query(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static int queryInt(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            if (!rs.next()) {
+                throw new SQLException("No result for " + sql);
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("[anomaly-detection] closing the lock connection failed: {}", e.getMessage());
+        }
+    }
+}
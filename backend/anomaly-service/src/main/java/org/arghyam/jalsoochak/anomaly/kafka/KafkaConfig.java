@@ -13,6 +13,9 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +29,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${anomaly.ingest.max-poll-records:500}")
+    private int ingestMaxPollRecords;
+
     @Bean
     public ProducerFactory<String, String> producerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -58,4 +64,45 @@ public class KafkaConfig {
         factory.setConsumerFactory(consumerFactory());
         return factory;
     }
+
+    /**
+     * For the anomaly detector's record listener: a record whose anomalies cannot be stored
+     * is retried, with backoff, until it succeeds instead of being skipped, so the detector
+     * never moves past an event it has not reported.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> detectionListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(retryUntilSuccess()));
+        return factory;
+    }
+
+    /**
+     * Batch listeners get every record of a poll at once. Offsets are committed only after the
+     * listener returns, i.e. after the batch's transaction has committed. A failed batch is
+     * retried whole, with backoff, until it succeeds; listeners must therefore write
+     * idempotently and skip records they cannot parse rather than throw.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> batchListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, ingestMaxPollRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        factory.setCommonErrorHandler(new DefaultErrorHandler(retryUntilSuccess()));
+        return factory;
+    }
+
+    private static ExponentialBackOff retryUntilSuccess() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1_000L, 2.0);
+        backOff.setMaxInterval(60_000L);
+        return backOff;
+    }
 }
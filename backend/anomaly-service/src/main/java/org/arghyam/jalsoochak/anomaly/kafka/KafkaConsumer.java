@@ -5,15 +5,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.arghyam.jalsoochak.anomaly.service.AnomalyIngestService;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumer {
 
+    /** Zone of the reading dates analytics-service reports by; a record's timestamp is dated in it. */
+    private static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
+
     private final ObjectMapper objectMapper;
     private final AnomalyIngestService anomalyIngestService;
 
@@ -22,37 +32,51 @@ public class KafkaConsumer {
         log.info("[anomaly-service] Received message from common-topic: {}", message);
     }
 
-    @KafkaListener(topics = "telemetry-service-topic", groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeTelemetryEvents(String message) {
-        log.info("[anomaly-service] Received message from telemetry-service-topic");
-        System.out.println("[anomaly-service] telemetry-service-topic raw=" + message);
-        try {
-            String eventType = extractEventType(message);
-            if ("ANOMALY_RECORDED".equals(eventType)) {
-                AnomalyEvent event = objectMapper.readValue(message, AnomalyEvent.class);
-                System.out.println("[anomaly-service] ANOMALY_RECORDED uuid=" + event.getUuid()
-                        + " type=" + event.getType()
-                        + " tenantId=" + event.getTenantId()
-                        + " schemeId=" + event.getSchemeId()
-                        + " userId=" + event.getUserId());
-                anomalyIngestService.ingest(event);
-            } else {
-                log.debug("[anomaly-service] Ignoring telemetry event type: {}", eventType);
+    /**
+     * Stores the ANOMALY_RECORDED events of a poll in one transaction; offsets are committed
+     * once it has committed (see {@link KafkaConfig#batchListenerContainerFactory()}).
+     * Each anomaly's source event is its record's topic, partition and offset, so a
+     * redelivered batch inserts nothing twice. An anomaly without a reading date is dated by its
+     * record's timestamp in IST. Unreadable records are logged and skipped.
+     */
+    @KafkaListener(topics = "telemetry-service-topic", groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchListenerContainerFactory")
+    public void consumeTelemetryEvents(List<ConsumerRecord<String, String>> records) {
+        List<AnomalyEvent> anomalies = new ArrayList<>();
+        for (ConsumerRecord<String, String> record : records) {
+            AnomalyEvent event = readAnomaly(record);
+            if (event != null) {
+                anomalies.add(event);
             }
-        } catch (Exception e) {
-            log.error("Failed to process telemetry event: {}", e.getMessage(), e);
-            throw new RuntimeException(e.getMessage(), e);
         }
+        if (anomalies.isEmpty()) {
+            return;
+        }
+        int inserted = anomalyIngestService.ingestAll(anomalies);
+        log.info("[anomaly-service] ANOMALY_RECORDED batch records={} anomalies={} inserted={}",
+                records.size(), anomalies.size(), inserted);
     }
 
-    private String extractEventType(String json) {
+    private AnomalyEvent readAnomaly(ConsumerRecord<String, String> record) {
         try {
-            JsonNode node = objectMapper.readTree(json);
-            JsonNode eventTypeNode = node.get("eventType");
-            return eventTypeNode != null ? eventTypeNode.asText() : "UNKNOWN";
+            JsonNode node = objectMapper.readTree(record.value());
+            String eventType = node.path("eventType").asText("UNKNOWN");
+            if (!"ANOMALY_RECORDED".equals(eventType)) {
+                log.debug("[anomaly-service] Ignoring telemetry event type: {}", eventType);
+                return null;
+            }
+            AnomalyEvent event = objectMapper.treeToValue(node, AnomalyEvent.class);
+            log.debug("[anomaly-service] ANOMALY_RECORDED uuid={} type={} tenantId={} schemeId={} userId={}",
+                    event.getUuid(), event.getType(), event.getTenantId(), event.getSchemeId(), event.getUserId());
+            event.setSourceEventId(record.topic() + "-" + record.partition() + "@" + record.offset());
+            if (event.getReadingDate() == null && record.timestamp() >= 0) {
+                event.setReadingDate(LocalDate.ofInstant(Instant.ofEpochMilli(record.timestamp()), IST_ZONE));
+            }
+            return event;
         } catch (Exception e) {
-            log.warn("Could not extract eventType from message, treating as UNKNOWN");
-            return "UNKNOWN";
+            log.error("Skipping unreadable telemetry event partition={} offset={}: {}",
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
         }
     }
 }
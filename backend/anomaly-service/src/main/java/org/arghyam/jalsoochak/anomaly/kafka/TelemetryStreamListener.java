@@ -0,0 +1,53 @@
+package org.arghyam.jalsoochak.anomaly.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.arghyam.jalsoochak.anomaly.service.AnomalyDetectionService;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Feeds {@code telemetry-service-topic} to the streaming anomaly detector, in its own consumer
+ * group so it does not share partitions with {@link KafkaConsumer}.
+ *
+ * <p>The container is started by {@link DetectorLeadership} on one instance only, so that
+ * instance reads every partition and holds the state of every scheme.</p>
+ *
+ * <p>A single consumer thread keeps the events of a scheme in partition order. When partitions
+ * are assigned, each is moved to the offset the detector's state was checkpointed at, rather
+ * than the group's committed offset, so state and position always match.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetryStreamListener extends AbstractConsumerSeekAware {
+
+    static final String LISTENER_ID = "anomaly-detection";
+
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    @KafkaListener(id = LISTENER_ID, topics = AnomalyDetectionService.TOPIC,
+            groupId = "${anomaly.detection.group-id:anomaly-detection-group}", concurrency = "1",
+            containerFactory = "detectionListenerContainerFactory", autoStartup = "false")
+    public void consume(ConsumerRecord<String, String> record) {
+        anomalyDetectionService.process(record.value(), record.partition(), record.offset());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        Map<Integer, Long> resumeOffsets = anomalyDetectionService.resumeOffsets();
+        for (TopicPartition partition : assignments.keySet()) {
+            Long offset = resumeOffsets.get(partition.partition());
+            if (offset != null) {
+                log.info("[anomaly-detection] resuming {} at offset {}", partition, offset);
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        }
+    }
+}
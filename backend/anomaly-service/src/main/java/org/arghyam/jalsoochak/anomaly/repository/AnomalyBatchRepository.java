@@ -0,0 +1,78 @@
+package org.arghyam.jalsoochak.anomaly.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.arghyam.jalsoochak.anomaly.entity.Anomaly;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi-row inserts into {@code analytics_schema.anomaly_table} that skip anomalies already
+ * stored, by uuid or by source event (see {@code uq_anomaly_source_event}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnomalyBatchRepository {
+
+    /** Rows per statement; 19 parameters each, well below the driver's limit of 32767. */
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_PREFIX = """
+            INSERT INTO analytics_schema.anomaly_table
+                (uuid, type, user_id, scheme_id, tenant_id, ai_reading, ai_confidence_percentage,
+                 overridden_reading, retries, previous_reading, previous_reading_date,
+                 consecutive_days_missed, reason, status, correlation_id, reading_date,
+                 source_event_id, created_at, updated_at)
+            VALUES
+            """;
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] ROW_TYPES = {
+            Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.NUMERIC,
+            Types.NUMERIC, Types.NUMERIC, Types.INTEGER, Types.NUMERIC, Types.DATE, Types.INTEGER,
+            Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.DATE, Types.VARCHAR,
+            Types.TIMESTAMP_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Inserts the anomalies, skipping duplicates. Returns the number of rows inserted. */
+    public int insertIgnoringDuplicates(List<Anomaly> anomalies) {
+        int inserted = 0;
+        for (int from = 0; from < anomalies.size(); from += ROWS_PER_STATEMENT) {
+            List<Anomaly> chunk = anomalies.subList(from, Math.min(from + ROWS_PER_STATEMENT, anomalies.size()));
+            String sql = INSERT_PREFIX + String.join(",\n", Collections.nCopies(chunk.size(), ROW))
+                    + "\nON CONFLICT DO NOTHING";
+            List<Object> args = new ArrayList<>(chunk.size() * ROW_TYPES.length);
+            int[] types = new int[chunk.size() * ROW_TYPES.length];
+            for (Anomaly a : chunk) {
+                args.add(a.getUuid());
+                args.add(a.getType());
+                args.add(a.getUserId());
+                args.add(a.getSchemeId());
+                args.add(a.getTenantId());
+                args.add(a.getAiReading());
+                args.add(a.getAiConfidencePercentage());
+                args.add(a.getOverriddenReading());
+                args.add(a.getRetries());
+                args.add(a.getPreviousReading());
+                args.add(a.getPreviousReadingDate());
+                args.add(a.getConsecutiveDaysMissed());
+                args.add(a.getReason());
+                args.add(a.getStatus());
+                args.add(a.getCorrelationId());
+                args.add(a.getReadingDate());
+                args.add(a.getSourceEventId());
+                args.add(a.getCreatedAt());
+                args.add(a.getUpdatedAt());
+            }
+            for (int i = 0; i < types.length; i += ROW_TYPES.length) {
+                System.arraycopy(ROW_TYPES, 0, types, i, ROW_TYPES.length);
+            }
+            inserted += jdbcTemplate.update(sql, args.toArray(), types);
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,130 @@
+package org.arghyam.jalsoochak.anomaly.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.arghyam.jalsoochak.anomaly.detection.SchemeState;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkpoints of the streaming anomaly detector: per-scheme state
+ * ({@code analytics_schema.anomaly_detector_state_table}) and the consumer position it
+ * corresponds to ({@code analytics_schema.anomaly_detector_offset_table}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class DetectorCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<SchemeState> loadStates() {
+        return jdbcTemplate.query("""
+                SELECT tenant_id, scheme_id, last_reading, last_reading_date, last_seen_date,
+                       mean_daily_usage, usage_variance, samples, flat_days,
+                       stuck_reported, silence_reported
+                FROM analytics_schema.anomaly_detector_state_table
+                """, (rs, rowNum) -> {
+            BigDecimal lastReading = rs.getBigDecimal("last_reading");
+            Date lastReadingDate = rs.getDate("last_reading_date");
+            Date lastSeenDate = rs.getDate("last_seen_date");
+            return SchemeState.builder()
+                    .tenantId(rs.getInt("tenant_id"))
+                    .schemeId(rs.getInt("scheme_id"))
+                    .lastReading(lastReading != null ? lastReading.longValue() : 0)
+                    .lastReadingDate(lastReadingDate != null ? lastReadingDate.toLocalDate() : null)
+                    .lastSeenDate(lastSeenDate != null ? lastSeenDate.toLocalDate() : null)
+                    .meanDailyUsage(rs.getDouble("mean_daily_usage"))
+                    .usageVariance(rs.getDouble("usage_variance"))
+                    .samples(rs.getInt("samples"))
+                    .flatDays(rs.getInt("flat_days"))
+                    .stuckReported(rs.getBoolean("stuck_reported"))
+                    .silenceReported(rs.getBoolean("silence_reported"))
+                    .build();
+        });
+    }
+
+    /** Next offset to consume, by partition, for partitions of {@code topic} with a checkpoint. */
+    public Map<Integer, Long> loadOffsets(String topic) {
+        Map<Integer, Long> offsets = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT partition_no, next_offset
+                FROM analytics_schema.anomaly_detector_offset_table
+                WHERE topic = ?
+                """, rs -> {
+            offsets.put(rs.getInt("partition_no"), rs.getLong("next_offset"));
+        }, topic);
+        return offsets;
+    }
+
+    /**
+     * Saves changed scheme states and the consumer position they reflect, atomically, if the
+     * database session {@code lockHolderPid} still holds the detector lock (see
+     * {@link org.arghyam.jalsoochak.anomaly.kafka.DetectorLeadership}).
+     *
+     * @return false, without saving, if that session no longer holds the lock
+     */
+    @Transactional
+    public boolean save(int lockHolderPid, List<SchemeState> states, String topic, Map<Integer, Long> nextOffsets) {
+        // Held until commit; a new leader waits for it before loading the state.
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock_shared(hashtext('anomaly-detection-checkpoint'))");
+        // The lock connection holds no other advisory lock.
+        Boolean held = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_locks
+                               WHERE locktype = 'advisory' AND pid = ? AND granted)
+                """, Boolean.class, lockHolderPid);
+        if (!Boolean.TRUE.equals(held)) {
+            return false;
+        }
+        if (!states.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(states.size());
+            for (SchemeState s : states) {
+                args.add(new Object[]{
+                        s.getTenantId(), s.getSchemeId(),
+                        s.getLastReadingDate() != null ? s.getLastReading() : null,
+                        s.getLastReadingDate() != null ? Date.valueOf(s.getLastReadingDate()) : null,
+                        s.getLastSeenDate() != null ? Date.valueOf(s.getLastSeenDate()) : null,
+                        s.getMeanDailyUsage(), s.getUsageVariance(), s.getSamples(), s.getFlatDays(),
+                        s.isStuckReported(), s.isSilenceReported()
+                });
+            }
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO analytics_schema.anomaly_detector_state_table
+                        (tenant_id, scheme_id, last_reading, last_reading_date, last_seen_date,
+                         mean_daily_usage, usage_variance, samples, flat_days,
+                         stuck_reported, silence_reported, updated_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())
+                    ON CONFLICT (tenant_id, scheme_id) DO UPDATE SET
+                        last_reading      = EXCLUDED.last_reading,
+                        last_reading_date = EXCLUDED.last_reading_date,
+                        last_seen_date    = EXCLUDED.last_seen_date,
+                        mean_daily_usage  = EXCLUDED.mean_daily_usage,
+                        usage_variance    = EXCLUDED.usage_variance,
+                        samples           = EXCLUDED.samples,
+                        flat_days         = EXCLUDED.flat_days,
+                        stuck_reported    = EXCLUDED.stuck_reported,
+                        silence_reported  = EXCLUDED.silence_reported,
+                        updated_at        = NOW()
+                    """, args);
+        }
+        if (!nextOffsets.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(nextOffsets.size());
+            nextOffsets.forEach((partition, offset) -> args.add(new Object[]{topic, partition, offset}));
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO analytics_schema.anomaly_detector_offset_table
+                        (topic, partition_no, next_offset, updated_at)
+                    VALUES (?, ?, ?, NOW())
+                    ON CONFLICT (topic, partition_no) DO UPDATE SET
+                        next_offset = EXCLUDED.next_offset,
+                        updated_at  = NOW()
+                    """, args);
+        }
+        return true;
+    }
+}
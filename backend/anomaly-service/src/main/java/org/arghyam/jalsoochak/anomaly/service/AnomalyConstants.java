@@ -0,0 +1,16 @@
+package org.arghyam.jalsoochak.anomaly.service;
+
+/** Mirrors AnomalyConstants in telemetry-service, which lists every code. Integer codes must stay in sync. */
+public final class AnomalyConstants {
+
+    private AnomalyConstants() {
+    }
+
+    public static final int TYPE_READING_LESS_THAN_PREVIOUS = 5;
+    // Detected on the reading stream by StreamingAnomalyDetector.
+    public static final int TYPE_CONSUMPTION_SPIKE = 10;
+    public static final int TYPE_STUCK_METER = 11;
+    public static final int TYPE_SILENT_SCHEME = 12;
+
+    public static final int STATUS_OPEN = 1;
+}
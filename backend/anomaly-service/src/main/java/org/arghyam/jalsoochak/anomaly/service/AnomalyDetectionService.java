@@ -0,0 +1,205 @@
+package org.arghyam.jalsoochak.anomaly.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.anomaly.detection.SchemeState;
+import org.arghyam.jalsoochak.anomaly.detection.StreamingAnomalyDetector;
+import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.anomaly.dto.event.MeterReadingEvent;
+import org.arghyam.jalsoochak.anomaly.dto.event.WaterQuantityEvent;
+import org.arghyam.jalsoochak.anomaly.repository.DetectorCheckpointRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the {@link StreamingAnomalyDetector} over {@code telemetry-service-topic} and stores
+ * the anomalies it finds.
+ *
+ * <p>The detector's state and the consumer position it reflects are checkpointed together
+ * every {@code anomaly.detection.checkpoint-interval-ms}. On start-up the state is reloaded
+ * and {@link org.arghyam.jalsoochak.anomaly.kafka.TelemetryStreamListener} resumes each
+ * partition at the checkpointed offset, so every event is applied to the state exactly once
+ * and no reading history is rescanned. Anomalies found after the last checkpoint are found
+ * again after a crash, under the same UUID and source event, and skipped as duplicates on
+ * insert. An event whose anomalies cannot be stored is undone in the detector and rethrown,
+ * so the listener retries it.</p>
+ *
+ * <p>Only one instance may run the detector, because its state covers every scheme and every
+ * partition. {@link org.arghyam.jalsoochak.anomaly.kafka.DetectorLeadership} starts the listener
+ * on the instance that holds the detector lock and passes the lock session's pid to
+ * {@link #lead}; each checkpoint is saved only while that session still holds the lock.
+ * {@link #release()} drops the state when the lock is lost. Until the state is loaded,
+ * checkpoints and the silent-scheme check do nothing.</p>
+ *
+ * <p>Methods are synchronized: events, checkpoints and the silent-scheme check run on
+ * different threads but share one detector.</p>
+ */
+@Service
+@Slf4j
+public class AnomalyDetectionService {
+
+    public static final String TOPIC = "telemetry-service-topic";
+    private static final String EVENT_METER_READING_RECORDED = "METER_READING_RECORDED";
+    private static final String EVENT_WATER_QUANTITY_RECORDED = "WATER_QUANTITY_RECORDED";
+
+    private final ObjectMapper objectMapper;
+    private final DetectorCheckpointRepository checkpointRepository;
+    private final AnomalyIngestService anomalyIngestService;
+    private final StreamingAnomalyDetector detector;
+
+    /** Next offset to consume, by partition, as reflected in the detector's state. */
+    private final Map<Integer, Long> nextOffsets = new HashMap<>();
+    private boolean restored;
+    private boolean changedSinceCheckpoint;
+    /** Backend pid of the session holding the detector lock for this instance; null when not leading. */
+    private Integer lockHolderPid;
+
+    public AnomalyDetectionService(ObjectMapper objectMapper,
+                                   DetectorCheckpointRepository checkpointRepository,
+                                   AnomalyIngestService anomalyIngestService,
+                                   @Value("${anomaly.detection.smoothing:0.05}") double smoothing,
+                                   @Value("${anomaly.detection.spike-threshold:5.0}") double spikeThreshold,
+                                   @Value("${anomaly.detection.warmup-days:14}") int warmupDays,
+                                   @Value("${anomaly.detection.stuck-days:5}") int stuckDays,
+                                   @Value("${anomaly.detection.silent-days:3}") int silentDays) {
+        this.objectMapper = objectMapper;
+        this.checkpointRepository = checkpointRepository;
+        this.anomalyIngestService = anomalyIngestService;
+        this.detector = new StreamingAnomalyDetector(new StreamingAnomalyDetector.Settings(
+                smoothing, spikeThreshold, warmupDays, stuckDays, silentDays));
+    }
+
+    /** Next offset to consume, by partition, for the detector's state; loads the checkpoint on first use. */
+    public synchronized Map<Integer, Long> resumeOffsets() {
+        ensureRestored();
+        return Map.copyOf(nextOffsets);
+    }
+
+    /** Applies one event from {@code partition} of {@link #TOPIC}. */
+    public synchronized void process(String message, int partition, long offset) {
+        ensureRestored();
+        Long next = nextOffsets.get(partition);
+        if (next != null && offset < next) {
+            return;
+        }
+        List<AnomalyEvent> anomalies = List.of();
+        detector.begin();
+        try {
+            JsonNode node = objectMapper.readTree(message);
+            String eventType = node.path("eventType").asText();
+            if (EVENT_METER_READING_RECORDED.equals(eventType)) {
+                anomalies = detector.onReading(objectMapper.treeToValue(node, MeterReadingEvent.class));
+            } else if (EVENT_WATER_QUANTITY_RECORDED.equals(eventType)) {
+                detector.onOutageReport(objectMapper.treeToValue(node, WaterQuantityEvent.class));
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("[anomaly-detection] skipping unreadable event partition={} offset={}: {}",
+                    partition, offset, e.getOriginalMessage());
+        }
+        if (!anomalies.isEmpty()) {
+            String sourceEventId = TOPIC + "-" + partition + "@" + offset;
+            anomalies.forEach(anomaly -> anomaly.setSourceEventId(sourceEventId));
+            try {
+                store(anomalies);
+            } catch (RuntimeException e) {
+                // Undo the event, so the listener's retry applies it again and finds the same anomalies.
+                detector.rollback();
+                throw e;
+            }
+        }
+        detector.commit();
+        nextOffsets.put(partition, offset + 1);
+        changedSinceCheckpoint = true;
+    }
+
+    @Scheduled(fixedDelayString = "${anomaly.detection.checkpoint-interval-ms:10000}")
+    public synchronized void checkpoint() {
+        if (!restored || !changedSinceCheckpoint || lockHolderPid == null) {
+            return;
+        }
+        List<SchemeState> changed = detector.dirtyStates();
+        try {
+            if (!checkpointRepository.save(lockHolderPid, changed, TOPIC, nextOffsets)) {
+                log.warn("[anomaly-detection] the detector lock is no longer held, skipping the checkpoint");
+                return;
+            }
+            detector.clearDirty();
+            changedSinceCheckpoint = false;
+            log.debug("[anomaly-detection] checkpoint schemes={} partitions={}", changed.size(), nextOffsets.size());
+        } catch (Exception e) {
+            log.error("[anomaly-detection] checkpoint failed — will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${anomaly.detection.silence-check-cron:0 15 * * * *}")
+    public synchronized void findSilentSchemes() {
+        if (!restored) {
+            return;
+        }
+        detector.begin();
+        List<AnomalyEvent> anomalies = detector.findSilentSchemes(LocalDate.now());
+        if (!anomalies.isEmpty()) {
+            try {
+                store(anomalies);
+            } catch (RuntimeException e) {
+                detector.rollback();
+                log.error("[anomaly-detection] storing silent schemes failed — will retry at the next check: {}",
+                        e.getMessage(), e);
+                return;
+            }
+            detector.commit();
+            changedSinceCheckpoint = true;
+            log.info("[anomaly-detection] silent_schemes={} tracked={}", anomalies.size(), detector.size());
+        }
+    }
+
+    /** Records that this instance leads, through the lock held by database session {@code lockHolderPid}. */
+    public synchronized void lead(int lockHolderPid) {
+        this.lockHolderPid = lockHolderPid;
+    }
+
+    /**
+     * Drops the detector's state and positions without checkpointing them, once another instance
+     * may have taken over; they are loaded again if this instance becomes the leader again.
+     */
+    public synchronized void release() {
+        lockHolderPid = null;
+        detector.reset();
+        nextOffsets.clear();
+        restored = false;
+        changedSinceCheckpoint = false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private void ensureRestored() {
+        if (restored) {
+            return;
+        }
+        List<SchemeState> states = checkpointRepository.loadStates();
+        detector.restore(states);
+        nextOffsets.putAll(checkpointRepository.loadOffsets(TOPIC));
+        restored = true;
+        log.info("[anomaly-detection] restored schemes={} partitions={}", states.size(), nextOffsets.size());
+    }
+
+    private void store(List<AnomalyEvent> anomalies) {
+        for (AnomalyEvent anomaly : anomalies) {
+            log.info("[anomaly-detection] type={} tenantId={} schemeId={} reason={}",
+                    anomaly.getType(), anomaly.getTenantId(), anomaly.getSchemeId(), anomaly.getReason());
+        }
+        anomalyIngestService.ingestAll(anomalies);
+    }
+}
@@ -4,29 +4,61 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
 import org.arghyam.jalsoochak.anomaly.entity.Anomaly;
-import org.arghyam.jalsoochak.anomaly.repository.AnomalyRepository;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.arghyam.jalsoochak.anomaly.repository.AnomalyBatchRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Stores anomalies in {@code analytics_schema.anomaly_table}.
+ *
+ * <p>A batch is written with multi-row inserts in one transaction. Anomalies already stored,
+ * by uuid or by (tenant, scheme, type, reading date, source event), are skipped, so a Kafka
+ * redelivery of a batch inserts nothing twice.</p>
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AnomalyIngestService {
 
-    private final AnomalyRepository anomalyRepository;
+    private final AnomalyBatchRepository anomalyBatchRepository;
 
-    public void ingest(AnomalyEvent event) {
-        if (event == null) {
-            return;
-        }
+    /** Stores the anomalies and returns how many were new. */
+    @Transactional
+    public int ingestAll(List<AnomalyEvent> events) {
         OffsetDateTime now = OffsetDateTime.now();
-        Anomaly anomaly = Anomaly.builder()
+        List<Anomaly> anomalies = new ArrayList<>(events.size());
+        for (AnomalyEvent event : events) {
+            if (event == null) {
+                continue;
+            }
+            if (event.getType() == null) {
+                log.warn("Skipping anomaly without a type, source={}", event.getSourceEventId());
+                continue;
+            }
+            anomalies.add(toAnomaly(event, now));
+        }
+        if (anomalies.isEmpty()) {
+            return 0;
+        }
+        int inserted = anomalyBatchRepository.insertIgnoringDuplicates(anomalies);
+        if (inserted < anomalies.size()) {
+            log.debug("Skipped {} duplicate anomalies of {}", anomalies.size() - inserted, anomalies.size());
+        }
+        return inserted;
+    }
+
+    private static Anomaly toAnomaly(AnomalyEvent event, OffsetDateTime now) {
+        String sourceEventId = event.getSourceEventId() != null ? event.getSourceEventId() : event.getUuid();
+        return Anomaly.builder()
                 .uuid(event.getUuid() != null && !event.getUuid().isBlank()
                         ? event.getUuid()
-                        : UUID.randomUUID().toString())
+                        : uuidOf(sourceEventId))
                 .type(event.getType())
                 .userId(event.getUserId())
                 .schemeId(event.getSchemeId())
@@ -39,15 +71,19 @@ public class AnomalyIngestService {
                 .previousReadingDate(event.getPreviousReadingDate())
                 .consecutiveDaysMissed(event.getConsecutiveDaysMissed())
                 .reason(event.getReason())
-                .status(event.getStatus())
+                .status(event.getStatus() != null ? event.getStatus() : AnomalyConstants.STATUS_OPEN)
                 .correlationId(event.getCorrelationId())
+                .readingDate(event.getReadingDate())
+                .sourceEventId(sourceEventId)
                 .createdAt(now)
                 .updatedAt(now)
                 .build();
-        try {
-            anomalyRepository.save(anomaly);
-        } catch (DataIntegrityViolationException e) {
-            log.debug("Skipping duplicate anomaly for uuid={}", anomaly.getUuid());
-        }
+    }
+
+    /** A uuid for an event that came without one: derived from its source, so stable on redelivery. */
+    private static String uuidOf(String sourceEventId) {
+        return sourceEventId != null
+                ? UUID.nameUUIDFromBytes(sourceEventId.getBytes(StandardCharsets.UTF_8)).toString()
+                : UUID.randomUUID().toString();
     }
 }
@@ -0,0 +1,153 @@
+package org.arghyam.jalsoochak.anomaly.detection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.anomaly.dto.event.MeterReadingEvent;
+import org.arghyam.jalsoochak.anomaly.service.AnomalyConstants;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Replays a synthetic year of daily meter readings through {@link StreamingAnomalyDetector}
+ * and reports throughput and what was detected.
+ *
+ * <p>Each scheme has its own base consumption with day-to-day noise and lower weekend use.
+ * Some schemes get a spike, a stuck meter, a meter replacement or a silent week, and a few
+ * readings are skipped. Events are serialized to JSON up front and fed in day order, as
+ * the consumer would see them; the timed part parses each event and applies it, and checks
+ * for silent schemes once per day. The replay runs twice and the second run is reported.</p>
+ *
+ * <pre>
+ * mvn -q -o test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat /tmp/cp.txt) \
+ *     org.arghyam.jalsoochak.anomaly.detection.AnomalyReplayHarness [schemes] [seed]
+ * </pre>
+ */
+public final class AnomalyReplayHarness {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final int DAYS = 365;
+
+    private AnomalyReplayHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int schemes = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Map<String, Integer> injected = new TreeMap<>();
+        List<List<String>> days = generate(schemes, seed, objectMapper, injected);
+        long events = days.stream().mapToLong(List::size).sum();
+        System.out.printf("schemes=%d days=%d events=%d injected=%s%n", schemes, DAYS, events, injected);
+
+        replay(days, objectMapper);
+        Result result = replay(days, objectMapper);
+
+        double seconds = result.elapsedNanos() / 1e9;
+        System.out.printf("elapsed=%.2fs events_per_sec=%.0f us_per_event=%.2f tracked=%d%n",
+                seconds, events / seconds, result.elapsedNanos() / 1e3 / events, result.tracked());
+        System.out.printf("detected=%s%n", result.detected());
+    }
+
+    private record Result(long elapsedNanos, int tracked, Map<String, Integer> detected) {
+    }
+
+    private static Result replay(List<List<String>> days, ObjectMapper objectMapper) throws Exception {
+        StreamingAnomalyDetector detector =
+                new StreamingAnomalyDetector(new StreamingAnomalyDetector.Settings(0.05, 5.0, 14, 5, 3));
+        Map<String, Integer> detected = new TreeMap<>();
+        long start = System.nanoTime();
+        for (int day = 0; day < days.size(); day++) {
+            for (String message : days.get(day)) {
+                JsonNode node = objectMapper.readTree(message);
+                if ("METER_READING_RECORDED".equals(node.path("eventType").asText())) {
+                    count(detected, detector.onReading(objectMapper.treeToValue(node, MeterReadingEvent.class)));
+                }
+            }
+            count(detected, detector.findSilentSchemes(START.plusDays(day + 1)));
+            detector.clearDirty();
+        }
+        return new Result(System.nanoTime() - start, detector.size(), detected);
+    }
+
+    private static List<List<String>> generate(int schemes, long seed, ObjectMapper objectMapper,
+                                               Map<String, Integer> injected) throws Exception {
+        Random random = new Random(seed);
+        List<List<String>> days = new ArrayList<>(DAYS);
+        for (int day = 0; day < DAYS; day++) {
+            days.add(new ArrayList<>(schemes));
+        }
+        for (int scheme = 1; scheme <= schemes; scheme++) {
+            double base = 50 + random.nextDouble() * 4_950;
+            int spikeDay = random.nextDouble() < 0.3 ? 30 + random.nextInt(DAYS - 30) : -1;
+            int stuckFrom = random.nextDouble() < 0.2 ? 30 + random.nextInt(DAYS - 40) : -1;
+            int replacedOn = random.nextDouble() < 0.1 ? 30 + random.nextInt(DAYS - 30) : -1;
+            int silentFrom = random.nextDouble() < 0.2 ? 30 + random.nextInt(DAYS - 40) : -1;
+            mark(injected, "spike", spikeDay);
+            mark(injected, "stuck", stuckFrom);
+            mark(injected, "replaced", replacedOn);
+            mark(injected, "silent", silentFrom);
+
+            long meter = random.nextInt(100_000);
+            for (int day = 0; day < DAYS; day++) {
+                LocalDate date = START.plusDays(day);
+                double usage = base * (1 + 0.15 * random.nextGaussian());
+                if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    usage *= 0.9;
+                }
+                if (day == spikeDay) {
+                    usage = base * 8;
+                }
+                if (stuckFrom >= 0 && day >= stuckFrom && day < stuckFrom + 7) {
+                    usage = 0;
+                }
+                meter += Math.max(0, Math.round(usage));
+                if (day == replacedOn) {
+                    meter = random.nextInt(100);
+                }
+                boolean silent = silentFrom >= 0 && day >= silentFrom && day < silentFrom + 7;
+                if (silent || random.nextDouble() < 0.02) {
+                    continue;
+                }
+                days.get(day).add(objectMapper.writeValueAsString(MeterReadingEvent.builder()
+                        .eventType("METER_READING_RECORDED")
+                        .tenantId(1 + scheme % 20)
+                        .schemeId(scheme)
+                        .userId(scheme)
+                        .confirmedReading((int) meter)
+                        .readingDate(date.toString())
+                        .readingAt(date.atTime(8, 0).toString())
+                        .meterReplaced(day == replacedOn ? true : null)
+                        .build()));
+            }
+        }
+        return days;
+    }
+
+    private static void mark(Map<String, Integer> injected, String kind, int day) {
+        if (day >= 0) {
+            injected.merge(kind, 1, Integer::sum);
+        }
+    }
+
+    private static void count(Map<String, Integer> detected, List<AnomalyEvent> anomalies) {
+        for (AnomalyEvent anomaly : anomalies) {
+            String kind = switch (anomaly.getType()) {
+                case AnomalyConstants.TYPE_CONSUMPTION_SPIKE -> "spike";
+                case AnomalyConstants.TYPE_STUCK_METER -> "stuck";
+                case AnomalyConstants.TYPE_READING_LESS_THAN_PREVIOUS -> "reversal";
+                case AnomalyConstants.TYPE_SILENT_SCHEME -> "silent";
+                default -> "other";
+            };
+            detected.merge(kind, 1, Integer::sum);
+        }
+    }
+}
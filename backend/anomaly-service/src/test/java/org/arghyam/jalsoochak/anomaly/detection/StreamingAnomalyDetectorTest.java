@@ -0,0 +1,194 @@
+package org.arghyam.jalsoochak.anomaly.detection;
+
+import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.anomaly.dto.event.MeterReadingEvent;
+import org.arghyam.jalsoochak.anomaly.dto.event.WaterQuantityEvent;
+import org.arghyam.jalsoochak.anomaly.service.AnomalyConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingAnomalyDetectorTest {
+
+    private static final LocalDate DAY_0 = LocalDate.of(2025, 1, 1);
+
+    private StreamingAnomalyDetector detector;
+    private long meter;
+
+    @BeforeEach
+    void setUp() {
+        detector = new StreamingAnomalyDetector(new StreamingAnomalyDetector.Settings(0.1, 4.0, 7, 5, 3));
+        meter = 10_000;
+    }
+
+    @Test
+    void steadyConsumption_reportsNothing() {
+        assertThat(feedDays(0, 60, 100)).isEmpty();
+    }
+
+    @Test
+    void consumptionSpike_isReportedOnceWarmedUp() {
+        feedDays(0, 30, 100);
+
+        List<AnomalyEvent> anomalies = reading(30, meter += 900);
+
+        assertThat(anomalies).singleElement().satisfies(a -> {
+            assertThat(a.getType()).isEqualTo(AnomalyConstants.TYPE_CONSUMPTION_SPIKE);
+            assertThat(a.getOverriddenReading()).isEqualByComparingTo(BigDecimal.valueOf(meter));
+            assertThat(a.getPreviousReading()).isEqualByComparingTo(BigDecimal.valueOf(meter - 900));
+            assertThat(a.getStatus()).isEqualTo(AnomalyConstants.STATUS_OPEN);
+        });
+        assertThat(feedDays(31, 40, 100)).isEmpty();
+    }
+
+    @Test
+    void largeUsage_beforeWarmUp_isNotASpike() {
+        feedDays(0, 3, 100);
+
+        assertThat(reading(3, meter += 900)).isEmpty();
+    }
+
+    @Test
+    void unchangedReading_isReportedOnceAsAStuckMeter() {
+        feedDays(0, 20, 100);
+
+        List<AnomalyEvent> anomalies = new ArrayList<>();
+        for (int day = 20; day < 30; day++) {
+            anomalies.addAll(reading(day, meter));
+        }
+
+        assertThat(anomalies).singleElement().satisfies(a -> {
+            assertThat(a.getType()).isEqualTo(AnomalyConstants.TYPE_STUCK_METER);
+            assertThat(a.getReason()).contains("5 days");
+        });
+    }
+
+    @Test
+    void lowerReading_isAReversal_andBecomesTheBaseline() {
+        feedDays(0, 10, 100);
+
+        List<AnomalyEvent> anomalies = reading(10, 50);
+
+        assertThat(anomalies).singleElement()
+                .extracting(AnomalyEvent::getType).isEqualTo(AnomalyConstants.TYPE_READING_LESS_THAN_PREVIOUS);
+        meter = 50;
+        assertThat(feedDays(11, 20, 100)).isEmpty();
+    }
+
+    @Test
+    void replacedMeter_resetsTheBaselineSilently_whetherLowerOrHigher() {
+        feedDays(0, 30, 100);
+
+        assertThat(detector.onReading(replacement(30, 50))).isEmpty();
+        meter = 50;
+        assertThat(feedDays(31, 40, 100)).isEmpty();
+
+        assertThat(detector.onReading(replacement(40, 90_000))).isEmpty();
+        meter = 90_000;
+        assertThat(feedDays(41, 50, 100)).isEmpty();
+    }
+
+    @Test
+    void silentScheme_isReportedOncePerEpisode() {
+        feedDays(0, 10, 100);
+        LocalDate lastSeen = DAY_0.plusDays(9);
+
+        assertThat(detector.findSilentSchemes(lastSeen.plusDays(3))).isEmpty();
+        assertThat(detector.findSilentSchemes(lastSeen.plusDays(4))).singleElement().satisfies(a -> {
+            assertThat(a.getType()).isEqualTo(AnomalyConstants.TYPE_SILENT_SCHEME);
+            assertThat(a.getConsecutiveDaysMissed()).isEqualTo(3);
+        });
+        assertThat(detector.findSilentSchemes(lastSeen.plusDays(5))).isEmpty();
+    }
+
+    @Test
+    void outageReport_keepsASchemeFromBeingSilent() {
+        feedDays(0, 10, 100);
+        detector.onOutageReport(WaterQuantityEvent.builder()
+                .eventType("WATER_QUANTITY_RECORDED").tenantId(1).schemeId(7)
+                .date(DAY_0.plusDays(11).toString()).build());
+
+        assertThat(detector.findSilentSchemes(DAY_0.plusDays(14))).isEmpty();
+    }
+
+    @Test
+    void replayedReadings_leaveTheStateUnchanged_andAnomaliesKeepTheirUuid() {
+        feedDays(0, 30, 100);
+        SchemeState checkpoint = detector.dirtyStates().get(0).toBuilder().build();
+        List<AnomalyEvent> first = reading(30, meter + 900);
+        SchemeState afterSpike = detector.dirtyStates().get(0).toBuilder().build();
+
+        for (int day = 25; day <= 30; day++) {
+            assertThat(reading(day, day == 30 ? meter + 900 : 10_000 + 100L * (day + 1))).isEmpty();
+        }
+        assertThat(detector.dirtyStates().get(0)).isEqualTo(afterSpike);
+
+        StreamingAnomalyDetector restarted =
+                new StreamingAnomalyDetector(new StreamingAnomalyDetector.Settings(0.1, 4.0, 7, 5, 3));
+        restarted.restore(List.of(checkpoint));
+        List<AnomalyEvent> again = restarted.onReading(event(30, meter + 900));
+        assertThat(again).extracting(AnomalyEvent::getUuid).containsExactly(first.get(0).getUuid());
+    }
+
+    @Test
+    void dirtyStates_listSchemesChangedSinceTheLastCheckpoint() {
+        reading(0, 100);
+        assertThat(detector.dirtyStates()).extracting(SchemeState::getSchemeId).containsExactly(7);
+
+        detector.clearDirty();
+        assertThat(detector.dirtyStates()).isEmpty();
+    }
+
+    @Test
+    void rollback_undoesChangesSinceBegin() {
+        feedDays(0, 10, 100);
+        detector.clearDirty();
+
+        detector.begin();
+        assertThat(reading(10, 50)).hasSize(1);
+        detector.onReading(MeterReadingEvent.builder()
+                .tenantId(1).schemeId(8).confirmedReading(10).readingDate(DAY_0.toString()).build());
+        detector.rollback();
+
+        assertThat(detector.size()).isEqualTo(1);
+        assertThat(detector.dirtyStates()).isEmpty();
+        assertThat(reading(10, 50)).singleElement()
+                .extracting(AnomalyEvent::getType).isEqualTo(AnomalyConstants.TYPE_READING_LESS_THAN_PREVIOUS);
+    }
+
+    /** Feeds one reading a day, for days {@code [from, to)}, with {@code usage} consumed per day. */
+    private List<AnomalyEvent> feedDays(int from, int to, int usage) {
+        List<AnomalyEvent> anomalies = new ArrayList<>();
+        for (int day = from; day < to; day++) {
+            anomalies.addAll(reading(day, meter += usage));
+        }
+        return anomalies;
+    }
+
+    private List<AnomalyEvent> reading(int day, long value) {
+        return detector.onReading(event(day, value));
+    }
+
+    private static MeterReadingEvent replacement(int day, long value) {
+        MeterReadingEvent event = event(day, value);
+        event.setMeterReplaced(true);
+        return event;
+    }
+
+    private static MeterReadingEvent event(int day, long value) {
+        return MeterReadingEvent.builder()
+                .eventType("METER_READING_RECORDED")
+                .tenantId(1)
+                .schemeId(7)
+                .userId(3)
+                .confirmedReading((int) value)
+                .readingDate(DAY_0.plusDays(day).toString())
+                .build();
+    }
+}
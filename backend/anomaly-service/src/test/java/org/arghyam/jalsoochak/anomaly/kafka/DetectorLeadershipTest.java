@@ -0,0 +1,109 @@
+package org.arghyam.jalsoochak.anomaly.kafka;
+
+import org.arghyam.jalsoochak.anomaly.service.AnomalyDetectionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DetectorLeadershipTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private ResultSet lockResult;
+    private MessageListenerContainer container;
+    private AnomalyDetectionService anomalyDetectionService;
+    private DetectorLeadership leadership;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        lockResult = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(DetectorLeadership.LOCK_SQL)).thenReturn(lockResult);
+        when(statement.executeQuery(DetectorLeadership.UNLOCK_SQL)).thenReturn(mock(ResultSet.class));
+        when(statement.executeQuery(DetectorLeadership.CHECKPOINT_BARRIER_SQL)).thenReturn(mock(ResultSet.class));
+        ResultSet pidResult = mock(ResultSet.class);
+        when(statement.executeQuery(DetectorLeadership.PID_SQL)).thenReturn(pidResult);
+        when(pidResult.next()).thenReturn(true);
+        when(pidResult.getInt(1)).thenReturn(4242);
+        when(lockResult.next()).thenReturn(true);
+
+        container = mock(MessageListenerContainer.class);
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(TelemetryStreamListener.LISTENER_ID)).thenReturn(container);
+        anomalyDetectionService = mock(AnomalyDetectionService.class);
+        leadership = new DetectorLeadership(dataSource, registry, anomalyDetectionService, true);
+    }
+
+    @Test
+    void instanceThatGetsTheLock_startsTheDetector_andKeepsTheConnection() throws SQLException {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(connection.isValid(anyInt())).thenReturn(true);
+
+        leadership.checkLeadership();
+        leadership.checkLeadership();
+
+        InOrder order = inOrder(anomalyDetectionService, container);
+        order.verify(anomalyDetectionService).lead(4242);
+        order.verify(container).start();
+        verify(container, times(1)).start();
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    void instanceWithoutTheLock_leavesTheDetectorStopped() throws SQLException {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        leadership.checkLeadership();
+
+        verify(container, never()).start();
+        verify(anomalyDetectionService, never()).lead(anyInt());
+        verify(connection).close();
+    }
+
+    @Test
+    void lostLockConnection_stopsTheDetector_andDropsItsStateWithoutCheckpointing() throws SQLException {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        leadership.checkLeadership();
+        when(connection.isValid(anyInt())).thenReturn(false);
+
+        leadership.checkLeadership();
+
+        verify(container).stop();
+        verify(anomalyDetectionService).release();
+        verify(anomalyDetectionService, never()).checkpoint();
+        verify(connection).close();
+    }
+
+    @Test
+    void shutdown_checkpointsBeforeReleasingTheLock() throws SQLException {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        leadership.checkLeadership();
+
+        leadership.shutdown();
+
+        InOrder order = inOrder(anomalyDetectionService, connection);
+        order.verify(anomalyDetectionService).checkpoint();
+        order.verify(connection).close();
+    }
+}
@@ -0,0 +1,75 @@
+package org.arghyam.jalsoochak.anomaly.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.anomaly.service.AnomalyIngestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaConsumerTest {
+
+    private static final String TOPIC = "telemetry-service-topic";
+
+    private AnomalyIngestService anomalyIngestService;
+    private KafkaConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        anomalyIngestService = mock(AnomalyIngestService.class);
+        consumer = new KafkaConsumer(new ObjectMapper().registerModule(new JavaTimeModule()), anomalyIngestService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batch_storesAnomaliesOfPollInOneCall_keyedBySourceRecord() {
+        // 2025-03-03 20:00 UTC is already 4 March in IST.
+        long timestamp = LocalDate.of(2025, 3, 3).atTime(20, 0).atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
+        when(anomalyIngestService.ingestAll(anyList())).thenReturn(2);
+
+        consumer.consumeTelemetryEvents(List.of(
+                record(3, 10, timestamp, "{\"eventType\":\"ANOMALY_RECORDED\",\"type\":1,\"tenantId\":2,\"schemeId\":7}"),
+                record(3, 11, timestamp, "{\"eventType\":\"METER_READING_RECORDED\",\"schemeId\":7}"),
+                record(3, 12, timestamp, "not json"),
+                record(3, 13, timestamp, "{\"eventType\":\"ANOMALY_RECORDED\",\"type\":2,\"tenantId\":2,"
+                        + "\"schemeId\":8,\"readingDate\":\"2025-03-01\"}")));
+
+        ArgumentCaptor<List<AnomalyEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(anomalyIngestService, times(1)).ingestAll(captor.capture());
+        List<AnomalyEvent> stored = captor.getValue();
+        assertThat(stored).extracting(AnomalyEvent::getSourceEventId)
+                .containsExactly(TOPIC + "-3@10", TOPIC + "-3@13");
+        assertThat(stored).extracting(AnomalyEvent::getReadingDate)
+                .containsExactly(LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 1));
+    }
+
+    @Test
+    void batchWithoutAnomalies_storesNothing() {
+        consumer.consumeTelemetryEvents(List.of(
+                record(0, 1, 0L, "{\"eventType\":\"METER_READING_RECORDED\"}")));
+
+        verify(anomalyIngestService, never()).ingestAll(anyList());
+    }
+
+    private static ConsumerRecord<String, String> record(int partition, long offset, long timestamp, String value) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, timestamp, TimestampType.CREATE_TIME,
+                -1, -1, null, value, new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,110 @@
+package org.arghyam.jalsoochak.anomaly.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.anomaly.repository.DetectorCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnomalyDetectionServiceTest {
+
+    private DetectorCheckpointRepository checkpointRepository;
+    private AnomalyIngestService anomalyIngestService;
+    private AnomalyDetectionService service;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository = mock(DetectorCheckpointRepository.class);
+        when(checkpointRepository.loadStates()).thenReturn(List.of());
+        when(checkpointRepository.loadOffsets(anyString())).thenReturn(Map.of());
+        anomalyIngestService = mock(AnomalyIngestService.class);
+        service = new AnomalyDetectionService(new ObjectMapper(), checkpointRepository, anomalyIngestService,
+                0.1, 4.0, 7, 5, 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedStore_undoesTheEvent_soTheRetryReportsItAgain() {
+        when(anomalyIngestService.ingestAll(anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+        service.process(reading("2025-01-01", 100), 0, 0);
+
+        assertThatThrownBy(() -> service.process(reading("2025-01-02", 50), 0, 1))
+                .isInstanceOf(IllegalStateException.class);
+        service.process(reading("2025-01-02", 50), 0, 1);
+
+        ArgumentCaptor<List<AnomalyEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(anomalyIngestService, times(2)).ingestAll(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(anomalies -> assertThat(anomalies).singleElement()
+                .satisfies(a -> {
+                    assertThat(a.getType()).isEqualTo(AnomalyConstants.TYPE_READING_LESS_THAN_PREVIOUS);
+                    assertThat(a.getSourceEventId()).isEqualTo(AnomalyDetectionService.TOPIC + "-0@1");
+                }));
+        assertThat(service.resumeOffsets()).containsEntry(0, 2L);
+    }
+
+    @Test
+    void failedStore_ofSilentSchemes_isRetriedAtTheNextCheck() {
+        when(anomalyIngestService.ingestAll(anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+        service.process(reading(LocalDate.now().minusDays(10).toString(), 100), 0, 0);
+
+        service.findSilentSchemes();
+        service.findSilentSchemes();
+        service.findSilentSchemes();
+
+        verify(anomalyIngestService, times(2)).ingestAll(anyList());
+    }
+
+    @Test
+    void checkpoint_isSkipped_unlessLeading() {
+        service.process(reading("2025-01-01", 100), 0, 0);
+
+        service.checkpoint();
+        verify(checkpointRepository, never()).save(anyInt(), anyList(), anyString(), anyMap());
+
+        service.lead(4242);
+        when(checkpointRepository.save(eq(4242), anyList(), anyString(), anyMap())).thenReturn(true);
+        service.checkpoint();
+        verify(checkpointRepository).save(eq(4242), anyList(), eq(AnomalyDetectionService.TOPIC), eq(Map.of(0, 1L)));
+    }
+
+    @Test
+    void checkpoint_refusedByTheFence_keepsTheChangesForTheNextCheckpoint() {
+        service.lead(4242);
+        service.process(reading("2025-01-01", 100), 0, 0);
+        when(checkpointRepository.save(eq(4242), anyList(), anyString(), anyMap())).thenReturn(false, true);
+
+        service.checkpoint();
+        service.checkpoint();
+
+        verify(checkpointRepository, times(2)).save(eq(4242),
+                argThat(states -> states.size() == 1), anyString(), anyMap());
+    }
+
+    private static String reading(String date, int value) {
+        return "{\"eventType\":\"METER_READING_RECORDED\",\"tenantId\":1,\"schemeId\":7,\"userId\":3,"
+                + "\"confirmedReading\":" + value + ",\"readingDate\":\"" + date + "\"}";
+    }
+}
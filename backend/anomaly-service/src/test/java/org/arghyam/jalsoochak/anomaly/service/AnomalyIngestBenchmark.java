@@ -0,0 +1,113 @@
+package org.arghyam.jalsoochak.anomaly.service;
+
+import org.arghyam.jalsoochak.anomaly.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.anomaly.repository.AnomalyBatchRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures {@link AnomalyIngestService#ingestAll} on poll-sized batches against a scratch
+ * database with the analytics-service migrations applied.
+ *
+ * <p>After the timed run the first batch is replayed, to check that a redelivery inserts
+ * nothing. Rows are written under a tenant id that real data does not use and are deleted
+ * afterwards.</p>
+ *
+ * <pre>
+ * mvn -q -o test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat /tmp/cp.txt) \
+ *     org.arghyam.jalsoochak.anomaly.service.AnomalyIngestBenchmark jdbc-url user password [anomalies] [batch]
+ * </pre>
+ */
+public final class AnomalyIngestBenchmark {
+
+    private static final int TENANT_ID = -4242;
+
+    private AnomalyIngestBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("usage: AnomalyIngestBenchmark jdbc-url user password [anomalies] [batch]");
+            System.exit(2);
+        }
+        int anomalies = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+        int batch = args.length > 4 ? Integer.parseInt(args[4]) : 500;
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(args[0], args[1], args[2]);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        AnomalyIngestService ingestService = new AnomalyIngestService(new AnomalyBatchRepository(jdbcTemplate));
+
+        try {
+            cleanUp(jdbcTemplate);
+            batched(ingestService, transactionTemplate, events(2_000, "warmup"), batch);
+            cleanUp(jdbcTemplate);
+
+            List<AnomalyEvent> batchEvents = events(anomalies, "batch");
+            long start = System.nanoTime();
+            int batchInserted = batched(ingestService, transactionTemplate, batchEvents, batch);
+            report("batch-" + batch, batchInserted, System.nanoTime() - start);
+
+            List<AnomalyEvent> redelivered = batchEvents.subList(0, Math.min(batch, batchEvents.size()));
+            int again = batched(ingestService, transactionTemplate, redelivered, batch);
+            System.out.printf("redelivered=%d inserted_again=%d%n", redelivered.size(), again);
+        } finally {
+            cleanUp(jdbcTemplate);
+        }
+    }
+
+    private static int batched(AnomalyIngestService ingestService, TransactionTemplate transactionTemplate,
+                               List<AnomalyEvent> events, int batch) {
+        int inserted = 0;
+        for (int from = 0; from < events.size(); from += batch) {
+            List<AnomalyEvent> poll = events.subList(from, Math.min(from + batch, events.size()));
+            inserted += transactionTemplate.execute(status -> ingestService.ingestAll(poll));
+        }
+        return inserted;
+    }
+
+    private static List<AnomalyEvent> events(int count, String run) {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        List<AnomalyEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String source = "benchmark-" + run + "@" + i;
+            events.add(AnomalyEvent.builder()
+                    .eventType("ANOMALY_RECORDED")
+                    .tenantId(TENANT_ID)
+                    .type(1 + i % 9)
+                    .userId(i % 1_000)
+                    .schemeId(i % 5_000)
+                    .aiReading(BigDecimal.valueOf(1_000 + i))
+                    .aiConfidencePercentage(BigDecimal.valueOf(87.5))
+                    .previousReading(BigDecimal.valueOf(900 + i))
+                    .previousReadingDate(start.plusDays(i % 365))
+                    .retries(i % 3)
+                    .reason("benchmark")
+                    .correlationId(UUID.randomUUID().toString())
+                    .readingDate(start.plusDays(1 + i % 365))
+                    .sourceEventId(source)
+                    .build());
+        }
+        return events;
+    }
+
+    private static void report(String path, int inserted, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%s inserted=%d elapsed=%.2fs rows_per_sec=%.0f%n",
+                path, inserted, seconds, inserted / seconds);
+    }
+
+    private static void cleanUp(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM analytics_schema.anomaly_table WHERE tenant_id = ?", TENANT_ID);
+    }
+}
@@ -0,0 +1,46 @@
+-- V26: Bookkeeping for per-tenant schema migrations and asynchronous tenant onboarding.
+--
+-- Flyway only versions common_schema. Changes to tenant_<code> schemas have so far been
+-- applied with DO-block loops over pg_namespace plus a patch to create_tenant_schema(),
+-- which leaves no record of which schema has which change. Tenant migrations now live in
+-- database/tenant/T<version>__<description>.sql and are applied by tenant-service to every
+-- tenant schema; each applied version is recorded here.
+
+CREATE TABLE common_schema.tenant_schema_migration_table (
+    id           BIGSERIAL     PRIMARY KEY,
+    schema_name  VARCHAR(63)   NOT NULL,
+    version      INTEGER       NOT NULL,
+    description  VARCHAR(255)  NOT NULL,
+    checksum     VARCHAR(64)   NOT NULL,            -- SHA-256 hex of the migration script
+    execution_ms BIGINT        NOT NULL,
+    applied_at   TIMESTAMPTZ   NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT uq_tenant_schema_migration UNIQUE (schema_name, version)
+);
+
+-- Onboarding jobs: tenant creation (record, schema, migrations, default configs) run in the
+-- background and are polled by the admin UI.
+
+CREATE TABLE common_schema.tenant_onboarding_job_table (
+    id             BIGSERIAL     PRIMARY KEY,
+    uuid           VARCHAR(36)   NOT NULL DEFAULT gen_random_uuid()::TEXT,
+    state_code     VARCHAR(10)   NOT NULL,
+    tenant_id      INTEGER,                          -- set once the tenant record exists
+    status         VARCHAR(20)   NOT NULL,
+    schema_version INTEGER,                          -- tenant migration version after onboarding
+    error_message  TEXT,
+    requested_by   VARCHAR(36),                      -- Keycloak subject of the requesting user
+    created_at     TIMESTAMPTZ   NOT NULL DEFAULT NOW(),
+    started_at     TIMESTAMPTZ,
+    completed_at   TIMESTAMPTZ,
+    updated_at     TIMESTAMPTZ   NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT uq_tenant_onboarding_job_uuid UNIQUE (uuid),
+    CONSTRAINT chk_tenant_onboarding_job_status
+        CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- At most one in-flight onboarding job per state code.
+CREATE UNIQUE INDEX uq_tenant_onboarding_job_active
+    ON common_schema.tenant_onboarding_job_table(state_code)
+    WHERE status IN ('PENDING', 'RUNNING');
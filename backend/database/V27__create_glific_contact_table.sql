@@ -0,0 +1,14 @@
+-- V27: Glific opt-in cache for message-service.
+--
+-- message-service opts a phone number in to Glific before its first WhatsApp message and
+-- records the resulting contact ID here, so later nudges skip the optinContact call.
+-- Rows are keyed by HMAC-SHA256 of the phone number (PII_HMAC_KEY, as phone_number_hash);
+-- the phone number itself is never stored. Expired rows are ignored on read and
+-- overwritten by the next opt-in of the same phone.
+
+CREATE TABLE IF NOT EXISTS common_schema.glific_contact_table (
+    phone_hash   VARCHAR(64)  PRIMARY KEY,            -- hex HMAC-SHA256 of the phone number
+    contact_id   BIGINT       NOT NULL,               -- Glific contact ID
+    opted_in_at  TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    expires_at   TIMESTAMPTZ  NOT NULL
+);
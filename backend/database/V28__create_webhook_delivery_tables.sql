@@ -0,0 +1,31 @@
+-- V28: Persistent retry queue and dead-letter table for message-service webhooks.
+--
+-- WebhookDispatcher sends notifications to each endpoint in batches. Notifications of a
+-- batch that failed are stored in webhook_delivery_table, one row each, and re-sent once
+-- next_attempt_at is reached; a sender claims due rows by moving next_attempt_at forward
+-- (FOR UPDATE SKIP LOCKED), so several instances can share the queue. Notifications that
+-- exhaust webhook.dispatch.max-attempts, or are rejected by the endpoint with a
+-- non-retryable status, are moved to webhook_dead_letter_table for investigation and replay.
+
+CREATE TABLE IF NOT EXISTS common_schema.webhook_delivery_table (
+    id               BIGSERIAL    PRIMARY KEY,
+    endpoint         TEXT         NOT NULL,
+    payload          TEXT         NOT NULL,            -- JSON of a single notification
+    attempts         INTEGER      NOT NULL,            -- delivery attempts made so far
+    next_attempt_at  TIMESTAMPTZ  NOT NULL,
+    last_error       TEXT,
+    created_at       TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_delivery_next_attempt
+    ON common_schema.webhook_delivery_table (next_attempt_at);
+
+CREATE TABLE IF NOT EXISTS common_schema.webhook_dead_letter_table (
+    id           BIGSERIAL    PRIMARY KEY,
+    endpoint     TEXT         NOT NULL,
+    payload      TEXT         NOT NULL,
+    attempts     INTEGER      NOT NULL,
+    last_error   TEXT,
+    created_at   TIMESTAMPTZ  NOT NULL,               -- when the notification was first queued
+    failed_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,7 @@
+-- V29: pg_trgm for substring search.
+--
+-- Scheme listings filter with ILIKE '%term%', which a B-tree index cannot serve. Tenant
+-- migration T3 adds trigram GIN indexes for those columns; the extension is database-wide,
+-- so it is created here, before tenant migrations run.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
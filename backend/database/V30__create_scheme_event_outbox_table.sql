@@ -0,0 +1,24 @@
+-- V30: Transactional outbox for scheme-service lifecycle events.
+--
+-- Scheme changes (uploads today) insert one row per affected scheme in the same transaction
+-- as the change, so an event is queued if and only if the change commits. payload is the
+-- complete SCHEME_CREATED / SCHEME_UPDATED event: analytics replaces the whole dimension
+-- row on every event, so each one carries the scheme's current name, location hierarchy
+-- and status rather than only the fields that changed.
+--
+-- SchemeEventRelay publishes rows to scheme-service-topic in id order, keyed by event_key
+-- ("<tenant id>:<scheme id>") so events of a scheme stay ordered on one partition, and
+-- deletes them once the broker has acknowledged them. A single relay instance runs at a
+-- time (advisory lock). Rows that failed to publish stay queued; attempts and last_error
+-- record why.
+
+CREATE TABLE IF NOT EXISTS common_schema.scheme_event_outbox_table (
+    id           BIGSERIAL    PRIMARY KEY,
+    tenant_id    INTEGER      NOT NULL,
+    event_key    TEXT         NOT NULL,            -- Kafka record key
+    event_type   VARCHAR(50)  NOT NULL,
+    payload      JSONB        NOT NULL,
+    attempts     INTEGER      NOT NULL DEFAULT 0,  -- failed publish attempts so far
+    last_error   TEXT,
+    created_at   TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,23 @@
+-- V31: Transactional outbox for user-service messaging events.
+--
+-- Pump operator onboarding queues its UPDATE_USER_LANGUAGE and SEND_WELCOME_MESSAGE events
+-- (one pair per 1000 phones) in the same transaction as the upload chunk, so events are
+-- queued if and only if the operators were saved, and survive a restart of the service.
+-- Welcome message re-sends requested by admins are queued here as well. payload is the
+-- complete event JSON, encrypted with the PII key because it lists phone numbers.
+--
+-- UserEventRelay publishes rows to notification-priority-topic in id order, keyed by
+-- event_key (the tenant code) so the language update of a batch reaches message-service
+-- before its welcome message, and deletes them once the broker has acknowledged them.
+-- A single relay instance runs at a time (advisory lock). Rows that failed to publish stay
+-- queued; attempts and last_error record why.
+
+CREATE TABLE IF NOT EXISTS common_schema.user_event_outbox_table (
+    id           BIGSERIAL    PRIMARY KEY,
+    event_key    TEXT         NOT NULL,            -- Kafka record key
+    event_type   VARCHAR(50)  NOT NULL,
+    payload      TEXT         NOT NULL,            -- encrypted event JSON
+    attempts     INTEGER      NOT NULL DEFAULT 0,  -- failed publish attempts so far
+    last_error   TEXT,
+    created_at   TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,13 @@
+-- V32: Back off user event keys whose publish failed.
+--
+-- UserEventRelay sends the events of a key (tenant code) one after another and stops at the
+-- first failure, so a tenant's welcome message is never sent before its language update.
+-- The failed row gets retry_at, growing with its attempts; until then the relay skips every
+-- row of that key, so a tenant whose events keep failing does not hold up the others.
+
+ALTER TABLE common_schema.user_event_outbox_table
+    ADD COLUMN IF NOT EXISTS retry_at TIMESTAMPTZ;   -- key is skipped until then
+
+CREATE INDEX IF NOT EXISTS idx_user_event_outbox_retry
+    ON common_schema.user_event_outbox_table (event_key, retry_at)
+    WHERE retry_at IS NOT NULL;
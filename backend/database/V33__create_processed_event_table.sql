@@ -0,0 +1,14 @@
+-- V33: Events message-service has already handled, by type and upstream eventId.
+--
+-- Outbox relays publish at least once: after a crash, or when a batch is retried, an event
+-- the broker already has is sent again under the same eventId (the outbox row ID).
+-- message-service records the eventId of a non-idempotent event (SEND_WELCOME_MESSAGE)
+-- before acting on it and drops a redelivery it has seen. One row per event, a few hundred
+-- bytes per thousand onboarded operators; rows can be pruned by processed_at.
+
+CREATE TABLE IF NOT EXISTS common_schema.processed_event_table (
+    event_type    VARCHAR(50)  NOT NULL,
+    event_id      BIGINT       NOT NULL,              -- eventId of the upstream outbox
+    processed_at  TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (event_type, event_id)
+);
@@ -0,0 +1,15 @@
+-- T1: Indexes used by paginated list endpoints (schemes, scheme mappings, tenant staff).
+--
+-- V20 created these for the tenant schemas that existed at the time but did not patch
+-- create_tenant_schema(), so tenants onboarded later are missing them.
+--
+-- Tenant migrations run once per tenant schema; ${schema} is replaced with the schema name.
+-- Keep them idempotent: newly provisioned schemas run every migration from T1.
+
+CREATE INDEX IF NOT EXISTS idx_${schema}_user_title        ON ${schema}.user_table(title);
+CREATE INDEX IF NOT EXISTS idx_${schema}_user_created_at   ON ${schema}.user_table(created_at);
+
+CREATE INDEX IF NOT EXISTS idx_${schema}_scheme_name       ON ${schema}.scheme_master_table(scheme_name);
+CREATE INDEX IF NOT EXISTS idx_${schema}_scheme_created_at ON ${schema}.scheme_master_table(created_at);
+
+CREATE INDEX IF NOT EXISTS idx_${schema}_dept_title        ON ${schema}.department_location_master_table(title);
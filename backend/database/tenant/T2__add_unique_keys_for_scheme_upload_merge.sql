@@ -0,0 +1,55 @@
+-- T2: Unique keys and lookup indexes for staged scheme uploads.
+--
+-- Scheme and mapping uploads are merged from a staging table with INSERT ... ON CONFLICT,
+-- which needs a unique index on each conflict key. Uploads used to append rows without
+-- checking the database, so re-uploading a file could leave duplicate active rows.
+
+-- Duplicate mappings carry no data of their own: keep the oldest active row of each.
+UPDATE ${schema}.scheme_lgd_mapping_table m
+SET deleted_at = NOW(), updated_at = NOW()
+WHERE m.deleted_at IS NULL
+  AND EXISTS (
+      SELECT 1 FROM ${schema}.scheme_lgd_mapping_table d
+      WHERE d.deleted_at IS NULL
+        AND d.scheme_id = m.scheme_id
+        AND d.parent_lgd_id = m.parent_lgd_id
+        AND d.id < m.id
+  );
+
+UPDATE ${schema}.scheme_department_mapping_table m
+SET deleted_at = NOW(), updated_at = NOW()
+WHERE m.deleted_at IS NULL
+  AND EXISTS (
+      SELECT 1 FROM ${schema}.scheme_department_mapping_table d
+      WHERE d.deleted_at IS NULL
+        AND d.scheme_id = m.scheme_id
+        AND d.parent_department_id = m.parent_department_id
+        AND d.id < m.id
+  );
+
+-- Duplicate schemes are referenced by readings and mappings, so they must be resolved by hand.
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM ${schema}.scheme_master_table
+        WHERE deleted_at IS NULL
+        GROUP BY lower(state_scheme_id)
+        HAVING COUNT(*) > 1
+    ) THEN
+        RAISE EXCEPTION '${schema}.scheme_master_table has active schemes sharing a state_scheme_id; resolve them, then re-run tenant migrations';
+    END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_${schema}_scheme_state_scheme_id
+    ON ${schema}.scheme_master_table (lower(state_scheme_id)) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_${schema}_scheme_lgd_mapping
+    ON ${schema}.scheme_lgd_mapping_table (scheme_id, parent_lgd_id) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_${schema}_scheme_dept_mapping
+    ON ${schema}.scheme_department_mapping_table (scheme_id, parent_department_id) WHERE deleted_at IS NULL;
+
+-- Case-insensitive lookups of upload references.
+CREATE INDEX IF NOT EXISTS idx_${schema}_lgd_code_lower
+    ON ${schema}.lgd_location_master_table (lower(lgd_code));
+CREATE INDEX IF NOT EXISTS idx_${schema}_dept_title_lower
+    ON ${schema}.department_location_master_table (lower(title));
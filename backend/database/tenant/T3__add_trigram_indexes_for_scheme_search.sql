@@ -0,0 +1,14 @@
+-- T3: Trigram indexes for the substring filters of scheme listings.
+--
+-- GET /schemes and /schemes/mappings filter with ILIKE '%term%' (name, village and
+-- sub-division searches), which otherwise scans the whole table on every page. A pg_trgm
+-- GIN index answers ILIKE for terms of three or more characters. pg_trgm is created by V29.
+
+CREATE INDEX IF NOT EXISTS idx_${schema}_scheme_name_trgm
+    ON ${schema}.scheme_master_table USING gin (scheme_name public.gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_${schema}_state_scheme_id_trgm
+    ON ${schema}.scheme_master_table USING gin (state_scheme_id public.gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_${schema}_lgd_code_trgm
+    ON ${schema}.lgd_location_master_table USING gin (lgd_code public.gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_${schema}_dept_title_trgm
+    ON ${schema}.department_location_master_table USING gin (title public.gin_trgm_ops);
@@ -0,0 +1,23 @@
+-- T4: Blind index for searching users by name.
+--
+-- user_table.title is AES-GCM encrypted with a random IV, so it cannot be filtered in SQL.
+-- user-service stores keyed HMACs of name fragments here instead: the one- and
+-- two-character prefix of every word and every three-character substring (trigram) of
+-- every word, each truncated to 64 bits. A search term is turned into the same tokens
+-- and matched with the (token, user_id) index. Rows are written whenever a user is
+-- created or renamed; user-service backfills users created before this table existed.
+--
+-- Leakage: tokens are deterministic, so anyone who can read this table learns which
+-- users share a prefix or trigram, how common each token is and roughly how long each
+-- name is. Frequency analysis against a list of common names can therefore reveal
+-- likely names without the key; with the key (derived from PII_HMAC_KEY) every name can
+-- be recovered by dictionary search. Treat this table like the ciphertext it indexes.
+
+CREATE TABLE IF NOT EXISTS ${schema}.user_name_index_table (
+    user_id INTEGER NOT NULL REFERENCES ${schema}.user_table(id) ON DELETE CASCADE,
+    token   BIGINT  NOT NULL,
+    PRIMARY KEY (user_id, token)
+);
+
+CREATE INDEX IF NOT EXISTS idx_${schema}_user_name_index_token
+    ON ${schema}.user_name_index_table(token, user_id);
@@ -0,0 +1,210 @@
+-- T5: Per-operator reading activity summary.
+--
+-- The public pump operator endpoints of user-service used to aggregate flow_reading_table
+-- for every listed operator (last reading, days submitted, first reading date). This keeps
+-- one row per operator with those figures instead, maintained by a trigger on
+-- flow_reading_table so that every writer (telemetry-service, imports, manual fixes) keeps
+-- it current:
+--
+--   * a reading inserted for the operator's latest reporting date or later is folded into
+--     the row in O(1);
+--   * anything else (a back-dated insert, an update of a counted column, a soft or hard
+--     delete) recomputes the operator's row from their readings.
+--
+-- recent_days is a bitmap of the 60 reporting days ending at last_reading_date: bit i is set
+-- when the operator submitted on last_reading_date - i. Readers derive the days submitted
+-- in a rolling window of up to 60 days from it. current_streak is the run of consecutive
+-- reporting days ending at last_reading_date; readers treat it as broken once that date is
+-- more than a day old.
+--
+-- Writers of one operator are serialised with a transaction-scoped advisory lock, and the
+-- recompute runs as a fresh statement after taking it, so under READ COMMITTED it sees every
+-- reading committed by an earlier holder.
+--
+-- The time column of flow_reading_table is observation_time or, in older schemas,
+-- reading_at; the functions are generated for whichever this schema has.
+
+CREATE TABLE IF NOT EXISTS ${schema}.operator_activity_table (
+    user_id                 INTEGER     PRIMARY KEY REFERENCES ${schema}.user_table(id) ON DELETE CASCADE,
+    last_reading_id         INTEGER     NOT NULL,
+    last_reading_at         TIMESTAMP   NOT NULL,
+    last_confirmed_reading  NUMERIC,
+    first_reading_date      DATE        NOT NULL,
+    last_reading_date       DATE        NOT NULL,
+    submitted_days          INTEGER     NOT NULL,
+    current_streak          INTEGER     NOT NULL,
+    longest_streak          INTEGER     NOT NULL,
+    recent_days             BIGINT      NOT NULL,
+    updated_at              TIMESTAMP   NOT NULL DEFAULT NOW()
+);
+
+-- Used by the recompute and by the per-operator missed-days listing.
+CREATE INDEX IF NOT EXISTS idx_${schema}_flow_creator_date
+    ON ${schema}.flow_reading_table (created_by, reading_date)
+    WHERE deleted_at IS NULL;
+
+DO $migration$
+DECLARE
+    time_column TEXT;
+BEGIN
+    time_column := CASE
+        WHEN EXISTS (
+            SELECT 1
+            FROM information_schema.columns
+            WHERE table_schema = '${schema}'
+              AND table_name = 'flow_reading_table'
+              AND column_name = 'observation_time'
+        ) THEN 'observation_time'
+        ELSE 'reading_at'
+    END;
+
+    -- Rebuilds one operator's row from their readings. Callers hold the operator's lock.
+    EXECUTE format($fn$
+        CREATE OR REPLACE FUNCTION ${schema}.recompute_operator_activity(p_user_id INTEGER)
+        RETURNS VOID
+        LANGUAGE plpgsql
+        AS $body$
+        BEGIN
+            IF NOT EXISTS (
+                SELECT 1 FROM ${schema}.flow_reading_table
+                WHERE created_by = p_user_id AND deleted_at IS NULL
+            ) THEN
+                DELETE FROM ${schema}.operator_activity_table WHERE user_id = p_user_id;
+                RETURN;
+            END IF;
+
+            INSERT INTO ${schema}.operator_activity_table AS a
+                (user_id, last_reading_id, last_reading_at, last_confirmed_reading,
+                 first_reading_date, last_reading_date, submitted_days,
+                 current_streak, longest_streak, recent_days, updated_at)
+            WITH days AS (
+                SELECT DISTINCT reading_date AS d
+                FROM ${schema}.flow_reading_table
+                WHERE created_by = p_user_id AND deleted_at IS NULL
+            ),
+            runs AS (
+                SELECT MAX(d) AS run_end, COUNT(*)::integer AS len
+                FROM (SELECT d, d - (ROW_NUMBER() OVER (ORDER BY d))::integer AS grp FROM days) islands
+                GROUP BY grp
+            ),
+            bounds AS (
+                SELECT MIN(d) AS first_d, MAX(d) AS last_d, COUNT(*)::integer AS n FROM days
+            ),
+            last_reading AS (
+                SELECT id, %1$I AS at, confirmed_reading
+                FROM ${schema}.flow_reading_table
+                WHERE created_by = p_user_id AND deleted_at IS NULL
+                ORDER BY %1$I DESC, id DESC
+                LIMIT 1
+            )
+            SELECT p_user_id, lr.id, lr.at, lr.confirmed_reading,
+                   b.first_d, b.last_d, b.n,
+                   (SELECT len FROM runs WHERE run_end = b.last_d),
+                   (SELECT MAX(len) FROM runs),
+                   (SELECT bit_or(1::bigint << (b.last_d - d)) FROM days WHERE b.last_d - d < 60),
+                   NOW()
+            FROM bounds b, last_reading lr
+            ON CONFLICT (user_id) DO UPDATE SET
+                last_reading_id        = EXCLUDED.last_reading_id,
+                last_reading_at        = EXCLUDED.last_reading_at,
+                last_confirmed_reading = EXCLUDED.last_confirmed_reading,
+                first_reading_date     = EXCLUDED.first_reading_date,
+                last_reading_date      = EXCLUDED.last_reading_date,
+                submitted_days         = EXCLUDED.submitted_days,
+                current_streak         = EXCLUDED.current_streak,
+                longest_streak         = EXCLUDED.longest_streak,
+                recent_days            = EXCLUDED.recent_days,
+                updated_at             = EXCLUDED.updated_at;
+        END;
+        $body$
+    $fn$, time_column);
+
+    EXECUTE format($fn$
+        CREATE OR REPLACE FUNCTION ${schema}.operator_activity_on_reading()
+        RETURNS TRIGGER
+        LANGUAGE plpgsql
+        AS $body$
+        DECLARE
+            applied INTEGER;
+        BEGIN
+            IF TG_OP = 'INSERT' THEN
+                IF NEW.deleted_at IS NOT NULL THEN
+                    RETURN NULL;
+                END IF;
+                PERFORM pg_advisory_xact_lock(hashtext('${schema}.operator_activity'), NEW.created_by);
+                -- Fold in a reading for the latest reporting date or later; gap is the
+                -- number of days it moves last_reading_date forward.
+                INSERT INTO ${schema}.operator_activity_table AS a
+                    (user_id, last_reading_id, last_reading_at, last_confirmed_reading,
+                     first_reading_date, last_reading_date, submitted_days,
+                     current_streak, longest_streak, recent_days)
+                VALUES (NEW.created_by, NEW.id, NEW.%1$I, NEW.confirmed_reading,
+                        NEW.reading_date, NEW.reading_date, 1, 1, 1, 1)
+                ON CONFLICT (user_id) DO UPDATE SET
+                    submitted_days = a.submitted_days
+                        + (EXCLUDED.last_reading_date > a.last_reading_date)::integer,
+                    current_streak = CASE EXCLUDED.last_reading_date - a.last_reading_date
+                        WHEN 0 THEN a.current_streak
+                        WHEN 1 THEN a.current_streak + 1
+                        ELSE 1
+                    END,
+                    longest_streak = GREATEST(a.longest_streak, CASE EXCLUDED.last_reading_date - a.last_reading_date
+                        WHEN 0 THEN a.current_streak
+                        WHEN 1 THEN a.current_streak + 1
+                        ELSE 1
+                    END),
+                    recent_days = CASE
+                        WHEN EXCLUDED.last_reading_date = a.last_reading_date THEN a.recent_days
+                        WHEN EXCLUDED.last_reading_date - a.last_reading_date >= 60 THEN 1
+                        ELSE ((a.recent_days & ((1::bigint << (60 - (EXCLUDED.last_reading_date - a.last_reading_date))) - 1))
+                                << (EXCLUDED.last_reading_date - a.last_reading_date)) | 1
+                    END,
+                    last_reading_date = EXCLUDED.last_reading_date,
+                    last_reading_id = CASE WHEN (EXCLUDED.last_reading_at, EXCLUDED.last_reading_id)
+                            > (a.last_reading_at, a.last_reading_id)
+                        THEN EXCLUDED.last_reading_id ELSE a.last_reading_id END,
+                    last_confirmed_reading = CASE WHEN (EXCLUDED.last_reading_at, EXCLUDED.last_reading_id)
+                            > (a.last_reading_at, a.last_reading_id)
+                        THEN EXCLUDED.last_confirmed_reading ELSE a.last_confirmed_reading END,
+                    last_reading_at = GREATEST(a.last_reading_at, EXCLUDED.last_reading_at),
+                    updated_at = NOW()
+                WHERE EXCLUDED.last_reading_date >= a.last_reading_date;
+                GET DIAGNOSTICS applied = ROW_COUNT;
+                IF applied = 0 THEN
+                    PERFORM ${schema}.recompute_operator_activity(NEW.created_by);
+                END IF;
+                RETURN NULL;
+            END IF;
+
+            IF TG_OP = 'UPDATE'
+                    AND (NEW.created_by, NEW.reading_date, NEW.%1$I, NEW.confirmed_reading, NEW.deleted_at IS NULL)
+                        IS NOT DISTINCT FROM
+                        (OLD.created_by, OLD.reading_date, OLD.%1$I, OLD.confirmed_reading, OLD.deleted_at IS NULL) THEN
+                RETURN NULL;
+            END IF;
+
+            PERFORM pg_advisory_xact_lock(hashtext('${schema}.operator_activity'), OLD.created_by);
+            PERFORM ${schema}.recompute_operator_activity(OLD.created_by);
+            IF TG_OP = 'UPDATE' AND NEW.created_by <> OLD.created_by THEN
+                PERFORM pg_advisory_xact_lock(hashtext('${schema}.operator_activity'), NEW.created_by);
+                PERFORM ${schema}.recompute_operator_activity(NEW.created_by);
+            END IF;
+            RETURN NULL;
+        END;
+        $body$
+    $fn$, time_column);
+END
+$migration$;
+
+DROP TRIGGER IF EXISTS trg_${schema}_operator_activity ON ${schema}.flow_reading_table;
+CREATE TRIGGER trg_${schema}_operator_activity
+    AFTER INSERT OR UPDATE OR DELETE ON ${schema}.flow_reading_table
+    FOR EACH ROW EXECUTE FUNCTION ${schema}.operator_activity_on_reading();
+
+-- Existing readings. CREATE TRIGGER holds off concurrent writers until this commits.
+SELECT ${schema}.recompute_operator_activity(created_by)
+FROM (
+    SELECT DISTINCT created_by
+    FROM ${schema}.flow_reading_table
+    WHERE deleted_at IS NULL
+) operators;
@@ -1,11 +1,19 @@
 package org.arghyam.jalsoochak.message;
 
+import org.arghyam.jalsoochak.message.config.properties.GlificContactCacheProperties;
+import org.arghyam.jalsoochak.message.config.properties.GlificDispatchProperties;
+import org.arghyam.jalsoochak.message.config.properties.NotificationListenerProperties;
+import org.arghyam.jalsoochak.message.config.properties.SmtpPoolProperties;
+import org.arghyam.jalsoochak.message.config.properties.WebhookDispatchProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableConfigurationProperties({GlificDispatchProperties.class, GlificContactCacheProperties.class,
+        NotificationListenerProperties.class, SmtpPoolProperties.class, WebhookDispatchProperties.class})
 public class MessageServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,46 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import java.time.Duration;
+
+/**
+ * Failure of a Glific GraphQL call.
+ *
+ * <p>{@link #isRetryable()} is true for transient failures (rate limiting, 5xx
+ * responses, timeouts and connection errors), where the same request may succeed
+ * later. {@link #getRetryAfter()} carries the delay requested by Glific through a
+ * {@code Retry-After} header, or {@code null} when none was sent.</p>
+ */
+public class GlificApiException extends RuntimeException {
+
+    private final boolean retryable;
+    private final Duration retryAfter;
+    private final int status;
+
+    public GlificApiException(String message) {
+        this(message, null, false, null);
+    }
+
+    public GlificApiException(String message, Throwable cause, boolean retryable, Duration retryAfter) {
+        this(message, cause, retryable, retryAfter, 0);
+    }
+
+    public GlificApiException(String message, Throwable cause, boolean retryable, Duration retryAfter, int status) {
+        super(message, cause);
+        this.retryable = retryable;
+        this.retryAfter = retryAfter;
+        this.status = status;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /** HTTP status of the failed call (401 for an unauthenticated GraphQL error), or {@code 0} if none was received. */
+    public int getStatus() {
+        return status;
+    }
+}
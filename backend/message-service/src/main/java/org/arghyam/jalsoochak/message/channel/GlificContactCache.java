@@ -0,0 +1,134 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.message.config.properties.GlificContactCacheProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Remembers which phone numbers have been opted in to Glific, and under which contact ID,
+ * in {@code common_schema.glific_contact_table}.
+ *
+ * <p>Rows are keyed by the phone number's {@link PhoneHashService#hmac HMAC} (the same key
+ * the other services use for {@code phone_number_hash}), so no phone number is stored.
+ * An entry is trusted for {@code glific.contact-cache.ttl}; after that the contact is opted
+ * in again and the entry refreshed.</p>
+ *
+ * <p>Lookups are counted in {@code glific.contact.cache.lookups}, tagged
+ * {@code result=hit|miss}. Every hit is an {@code optinContact} GraphQL call that was not made.</p>
+ *
+ * <p>The cache is an optimisation only: database errors are logged and treated as misses.</p>
+ */
+@Component
+@Slf4j
+public class GlificContactCache {
+
+    private static final String FIND_SQL =
+            "SELECT phone_hash, contact_id FROM common_schema.glific_contact_table "
+                    + "WHERE phone_hash = ANY(?) AND expires_at > NOW()";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO common_schema.glific_contact_table (phone_hash, contact_id, opted_in_at, expires_at) "
+                    + "VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (phone_hash) DO UPDATE SET contact_id = EXCLUDED.contact_id, "
+                    + "opted_in_at = EXCLUDED.opted_in_at, expires_at = EXCLUDED.expires_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GlificContactCacheProperties properties;
+    private final PhoneHashService phoneHashService;
+    private final Counter hits;
+    private final Counter misses;
+
+    public GlificContactCache(JdbcTemplate jdbcTemplate,
+                              GlificContactCacheProperties properties,
+                              MeterRegistry meterRegistry,
+                              PhoneHashService phoneHashService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.phoneHashService = phoneHashService;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Returns the cached Glific contact ID for {@code phone}, or empty if the phone
+     * has not been opted in within the TTL.
+     */
+    public OptionalLong find(String phone) {
+        Long contactId = findAll(List.of(phone)).get(phone);
+        return contactId != null ? OptionalLong.of(contactId) : OptionalLong.empty();
+    }
+
+    /**
+     * Looks up many phones in one query.
+     *
+     * @return contact IDs of the phones that are cached, keyed by phone
+     */
+    public Map<String, Long> findAll(Collection<String> phones) {
+        if (phones.isEmpty()) {
+            return Map.of();
+        }
+        if (!properties.isEnabled()) {
+            misses.increment(phones.size());
+            return Map.of();
+        }
+        Map<String, String> phonesByHash = new LinkedHashMap<>();
+        for (String phone : phones) {
+            phonesByHash.put(phoneHashService.hmac(phone), phone);
+        }
+        Map<String, Long> found = new HashMap<>();
+        try {
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(FIND_SQL);
+                Array hashes = con.createArrayOf("text", phonesByHash.keySet().toArray());
+                ps.setArray(1, hashes);
+                return ps;
+            }, rs -> {
+                found.put(phonesByHash.get(rs.getString("phone_hash")), rs.getLong("contact_id"));
+            });
+        } catch (DataAccessException e) {
+            log.warn("[GlificContactCache] Lookup failed, treating {} phone(s) as not opted in: {}",
+                    phonesByHash.size(), e.getMessage());
+            found.clear();
+        }
+        hits.increment(found.size());
+        misses.increment(phonesByHash.size() - found.size());
+        return found;
+    }
+
+    /**
+     * Records that {@code phone} was opted in as {@code contactId}, restarting its TTL.
+     */
+    public void put(String phone, long contactId) {
+        if (!properties.isEnabled() || contactId <= 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            jdbcTemplate.update(UPSERT_SQL, phoneHashService.hmac(phone), contactId,
+                    Timestamp.from(now), Timestamp.from(now.plus(properties.getTtl())));
+        } catch (DataAccessException e) {
+            log.warn("[GlificContactCache] Could not store contactId={}: {}", contactId, e.getMessage());
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String result) {
+        return Counter.builder("glific.contact.cache.lookups")
+                .description("Glific opt-in cache lookups; hits are optinContact calls saved")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,219 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.message.config.properties.GlificDispatchProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous, rate-limited dispatch of Glific sends.
+ *
+ * <p>Submitted sends run on a pool of {@code glific.dispatch.max-in-flight} workers, which
+ * bounds the number of concurrent requests against Glific. A send waits for its tenant's
+ * token bucket (when per-tenant limits are enabled) and for any account-wide
+ * {@code Retry-After} pause on the scheduler rather than on a worker, so a throttled tenant
+ * does not hold up the others. Transient failures ({@link GlificApiException#isRetryable()})
+ * are re-scheduled with exponential back-off, honouring the server's {@code Retry-After};
+ * permanent failures and exhausted retries are handed to the submitter's failure callback.</p>
+ *
+ * <p>At most {@code glific.dispatch.queue-capacity} sends are accepted at once. When full,
+ * {@link #submit} rejects at once rather than blocking the Reactor thread calling it; the Kafka
+ * consumer holds the record and retries it.</p>
+ */
+@Component
+@Slf4j
+public class GlificDispatcher {
+
+    private final GlificDispatchProperties properties;
+    private final GlificRateLimiter rateLimiter;
+    private final Semaphore capacity;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private final Set<Dispatch> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean shuttingDown;
+
+    public GlificDispatcher(GlificDispatchProperties properties, GlificRateLimiter rateLimiter) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.capacity = new Semaphore(Math.max(1, properties.getQueueCapacity()));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getMaxInFlight()),
+                Thread.ofPlatform().name("glific-dispatch-", 1).daemon().factory());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("glific-dispatch-scheduler").daemon().factory());
+    }
+
+    /**
+     * Queues a send. Returns once the send is accepted; it runs asynchronously.
+     *
+     * @param tenantSchema tenant the send belongs to, used for the per-tenant rate limit; may be blank
+     * @param description  short label for logs, must not contain PII
+     * @param send         the Glific call(s); must be safe to repeat when it fails with a retryable error
+     * @param onFailure    invoked once if the send fails permanently or runs out of attempts
+     * @return completes once the send has succeeded or {@code onFailure} has run; never completes exceptionally
+     * @throws RejectedExecutionException if the dispatcher is shutting down or full
+     */
+    public CompletableFuture<Void> submit(String tenantSchema, String description, Runnable send,
+                                          Consumer<Exception> onFailure) {
+        if (shuttingDown) {
+            throw new RejectedExecutionException("Glific dispatcher is shutting down");
+        }
+        if (!capacity.tryAcquire()) {
+            throw new RejectedExecutionException("Glific dispatch queue is full ("
+                    + properties.getQueueCapacity() + " pending sends)");
+        }
+        String tenantKey = tenantSchema == null || tenantSchema.isBlank()
+                ? null : GlificRateLimiter.tenantKey(tenantSchema);
+        Dispatch dispatch = new Dispatch(tenantKey, description, send, onFailure);
+        pending.add(dispatch);
+        schedule(dispatch, 0);
+        return dispatch.done;
+    }
+
+    /** Sends accepted and not yet finished, including those waiting to retry. */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /** Sends currently executing against Glific. */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Stops accepting sends and waits up to {@code glific.dispatch.shutdown-timeout-ms} for
+     * pending ones. Sends still pending afterwards are reported through their failure callback.
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getShutdownTimeoutMs());
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        for (Dispatch dispatch : pending) {
+            fail(dispatch, new RejectedExecutionException("Glific dispatcher shut down before the send completed"));
+        }
+    }
+
+    private void schedule(Dispatch dispatch, long delayNanos) {
+        try {
+            if (delayNanos <= 0) {
+                workers.execute(() -> run(dispatch));
+            } else {
+                scheduler.schedule(() -> schedule(dispatch, 0), delayNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            fail(dispatch, e);
+        }
+    }
+
+    private void run(Dispatch dispatch) {
+        long waitNanos = rateLimiter.pausedNanos(GlificRateLimiter.ACCOUNT_KEY);
+        if (waitNanos == 0 && dispatch.tenantKey != null) {
+            waitNanos = rateLimiter.tryAcquire(dispatch.tenantKey);
+        }
+        if (waitNanos > 0) {
+            schedule(dispatch, waitNanos);
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            dispatch.send.run();
+            complete(dispatch);
+        } catch (Exception e) {
+            onError(dispatch, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void onError(Dispatch dispatch, Exception e) {
+        GlificApiException apiError = e instanceof GlificApiException g ? g : null;
+        boolean retryable = apiError != null && apiError.isRetryable();
+        if (!retryable || dispatch.attempt >= properties.getMaxAttempts() || shuttingDown) {
+            log.error("[Glific] {} failed after {} attempt(s): {}", dispatch.description, dispatch.attempt, e.getMessage());
+            fail(dispatch, e);
+            return;
+        }
+        Duration delay = retryDelay(dispatch.attempt, apiError.getRetryAfter());
+        dispatch.attempt++;
+        log.warn("[Glific] {} failed ({}), retrying in {}ms (attempt {}/{})", dispatch.description,
+                e.getMessage(), delay.toMillis(), dispatch.attempt, properties.getMaxAttempts());
+        schedule(dispatch, delay.toNanos());
+    }
+
+    /**
+     * Exponential back-off with ±20% jitter, never shorter than the server's {@code Retry-After}
+     * and never longer than {@code glific.dispatch.retry-max-delay-ms}.
+     */
+    Duration retryDelay(int attempt, Duration retryAfter) {
+        long base = properties.getRetryBaseDelayMs() << Math.min(attempt - 1, 20);
+        long jitter = base / 5 == 0 ? 0 : ThreadLocalRandom.current().nextLong(-base / 5, base / 5 + 1);
+        long delayMs = base + jitter;
+        if (retryAfter != null) {
+            delayMs = Math.max(delayMs, retryAfter.toMillis());
+        }
+        return Duration.ofMillis(Math.min(delayMs, properties.getRetryMaxDelayMs()));
+    }
+
+    private void complete(Dispatch dispatch) {
+        if (pending.remove(dispatch)) {
+            capacity.release();
+            dispatch.done.complete(null);
+        }
+    }
+
+    private void fail(Dispatch dispatch, Exception cause) {
+        if (!pending.remove(dispatch)) {
+            return;
+        }
+        capacity.release();
+        try {
+            dispatch.onFailure.accept(cause);
+        } catch (Exception e) {
+            log.error("[Glific] Failure handler for {} threw: {}", dispatch.description, e.getMessage(), e);
+        } finally {
+            dispatch.done.complete(null);
+        }
+    }
+
+    private static final class Dispatch {
+
+        private final String tenantKey;
+        private final String description;
+        private final Runnable send;
+        private final Consumer<Exception> onFailure;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile int attempt = 1;
+
+        private Dispatch(String tenantKey, String description, Runnable send, Consumer<Exception> onFailure) {
+            this.tenantKey = tenantKey;
+            this.description = description;
+            this.send = send;
+            this.onFailure = onFailure;
+        }
+    }
+}
@@ -3,20 +3,36 @@ package org.arghyam.jalsoochak.message.channel;
 import com.fasterxml.jackson.databind.JsonNode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Thin WebClient wrapper for the Glific GraphQL API.
  * POSTs {@code {"query": ..., "variables": ...}} with {@code Authorization: <token>} header
  * obtained from {@link GlificAuthService} (no Bearer prefix). On an unauthenticated error,
  * refreshes the token and retries once.
+ *
+ * <p>{@link #executeAsync} is the non-blocking path; {@link #execute} blocks on it.
+ * Every request takes a token from the shared account bucket of {@link GlificRateLimiter}.
+ * A 429 response pauses that bucket for the {@code Retry-After} period (or a back-off when
+ * the header is absent), so all callers back off together rather than each retrying on its
+ * own schedule. Failures are reported as {@link GlificApiException}.</p>
  */
 @Component
 @Slf4j
@@ -24,115 +40,172 @@ public class GlificGraphQLClient {
 
     private final WebClient webClient;
     private final GlificAuthService glificAuthService;
+    private final GlificRateLimiter rateLimiter;
 
     @Value("${glific.api-url:}")
     private String apiUrl;
 
-    @Value("${glific.request-interval-ms:500}")
-    private long requestIntervalMs;
-
-    private final AtomicLong lastCallEpochMs = new AtomicLong(0);
-
-    public GlificGraphQLClient(WebClient.Builder builder, GlificAuthService glificAuthService) {
+    public GlificGraphQLClient(WebClient.Builder builder, GlificAuthService glificAuthService,
+                               GlificRateLimiter rateLimiter) {
         this.webClient = builder.build();
         this.glificAuthService = glificAuthService;
+        this.rateLimiter = rateLimiter;
     }
 
     private static final int MAX_RATE_LIMIT_RETRIES = 3;
-    private static final long RATE_LIMIT_BASE_WAIT_MS = 5_000; // 5s, 10s, 20s
+    private static final int MAX_TRANSIENT_RETRIES = 2;
+    private static final long RATE_LIMIT_WAIT_MS = 5_000;
     private static final long JITTER_MS = 1_000; // ±1s jitter on 429 backoff
+    private static final Duration TRANSIENT_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofMinutes(5);
 
+    /**
+     * Blocking variant of {@link #executeAsync}, for callers running on their own worker thread.
+     */
     public JsonNode execute(String query, Map<String, Object> variables) {
-        return executeWithRetry(query, variables, false, 0);
+        return executeAsync(query, variables).block();
     }
 
-    private JsonNode executeWithRetry(String query, Map<String, Object> variables,
-                                      boolean tokenRefreshed, int attempt) {
+    /**
+     * Sends a GraphQL request without blocking the calling thread.
+     *
+     * <p>The returned {@link Mono} is cold: nothing is sent until it is subscribed. Waiting
+     * for a rate-limit token is a timer, not a parked thread. Each attempt times out after
+     * 30 seconds. A 429 is retried up to three times once the account bucket pause is over,
+     * and timeouts, connection errors and 5xx responses are retried twice with back-off.
+     * An unauthenticated response refreshes the token and is retried once.</p>
+     *
+     * @return the {@code data} node of the response
+     */
+    public Mono<JsonNode> executeAsync(String query, Map<String, Object> variables) {
         if (apiUrl == null || apiUrl.isBlank()) {
-            throw new RuntimeException("Glific API URL is not configured (glific.api-url)");
+            return Mono.error(new GlificApiException("Glific API URL is not configured (glific.api-url)"));
         }
+        AtomicInteger rateLimitRetries = new AtomicInteger();
+        AtomicInteger transientRetries = new AtomicInteger();
+        return Mono.defer(() -> send(query, variables, false))
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    if (!(signal.failure() instanceof GlificApiException ex) || !ex.isRetryable()) {
+                        return Mono.error(signal.failure());
+                    }
+                    if (ex.getStatus() == 429) {
+                        if (rateLimitRetries.incrementAndGet() > MAX_RATE_LIMIT_RETRIES) {
+                            return Mono.error(ex);
+                        }
+                        // Only the rate-limit counter advances; the bucket pause spaces the retry
+                        log.warn("[Glific] Rate limited (429), retrying after {}ms ({}/{})",
+                                 ex.getRetryAfter().toMillis(), rateLimitRetries.get(), MAX_RATE_LIMIT_RETRIES);
+                        return Mono.just(signal.totalRetries());
+                    }
+                    int attempt = transientRetries.incrementAndGet();
+                    if (attempt > MAX_TRANSIENT_RETRIES) {
+                        return Mono.error(ex);
+                    }
+                    Duration delay = TRANSIENT_RETRY_DELAY.multipliedBy(1L << (attempt - 1));
+                    log.warn("[Glific] {}, retrying in {}ms ({}/{})", ex.getMessage(), delay.toMillis(),
+                             attempt, MAX_TRANSIENT_RETRIES);
+                    return Mono.delay(delay);
+                })));
+    }
 
-        throttleIfNeeded();
-
-        // Capture the token before sending so we can compare it in auth-failure branches.
-        // If another thread already refreshed the token by the time we get a 401,
-        // the tokens will differ and we skip a redundant refresh call.
-        String tokenUsed = glificAuthService.getAccessToken();
+    private Mono<JsonNode> send(String query, Map<String, Object> variables, boolean tokenRefreshed) {
+        long waitNanos = rateLimiter.reserve(GlificRateLimiter.ACCOUNT_KEY);
+        Mono<Long> permit = waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)) : Mono.just(0L);
+        return permit.then(Mono.defer(() -> {
+            // Capture the token before sending so we can compare it in auth-failure branches.
+            // If another thread already refreshed the token by the time we get a 401,
+            // the tokens will differ and we skip a redundant refresh call.
+            String tokenUsed = glificAuthService.getAccessToken();
+            return webClient.post()
+                    .uri(apiUrl)
+                    .header("Authorization", tokenUsed)
+                    .header("Content-Type", "application/json")
+                    .bodyValue(Map.of("query", query, "variables", variables))
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .timeout(REQUEST_TIMEOUT)
+                    .switchIfEmpty(Mono.error(() -> new GlificApiException("Null response from Glific GraphQL")))
+                    .onErrorMap(e -> !(e instanceof GlificApiException), this::toApiException)
+                    .flatMap(response -> {
+                        JsonNode errors = response.get("errors");
+                        if (errors != null && errors.size() > 0) {
+                            String msg = errors.get(0).path("message").asText("unknown");
+                            if (msg.toLowerCase().contains("unauthenticated") || msg.toLowerCase().contains("unauthorized")) {
+                                return Mono.error(new GlificApiException("Glific GraphQL error: " + msg, null, false, null, 401));
+                            }
+                            return Mono.error(new GlificApiException("Glific GraphQL error: " + msg));
+                        }
+                        JsonNode dataNode = response.get("data");
+                        if (dataNode == null || dataNode.isNull()) {
+                            return Mono.error(new GlificApiException("Glific GraphQL response missing 'data' node"));
+                        }
+                        return Mono.just(dataNode);
+                    })
+                    .onErrorResume(e -> !tokenRefreshed && isAuthFailure(e), e ->
+                            // Refreshing blocks on the session endpoint, so keep it off the event loop
+                            Mono.fromRunnable(() -> glificAuthService.refreshIfStale(tokenUsed))
+                                    .subscribeOn(Schedulers.boundedElastic())
+                                    .then(Mono.defer(() -> send(query, variables, true))));
+        }));
+    }
 
-        JsonNode response;
-        try {
-            response = webClient.post()
-                .uri(apiUrl)
-                .header("Authorization", tokenUsed)
-                .header("Content-Type", "application/json")
-                .bodyValue(Map.of("query", query, "variables", variables))
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .block(Duration.ofSeconds(30));
-        } catch (WebClientResponseException ex) {
+    private GlificApiException toApiException(Throwable e) {
+        if (e instanceof WebClientResponseException ex) {
             int status = ex.getStatusCode().value();
-            if (status == 429 && attempt < MAX_RATE_LIMIT_RETRIES) {
-                long baseWait = RATE_LIMIT_BASE_WAIT_MS * (1L << attempt); // 5s → 10s → 20s
-                long jitter = ThreadLocalRandom.current().nextLong(-JITTER_MS, JITTER_MS + 1);
-                long waitMs = Math.max(0, baseWait + jitter);
-                log.warn("[Glific] Rate limited (429), waiting {}ms before retry {}/{}",
-                         waitMs, attempt + 1, MAX_RATE_LIMIT_RETRIES);
-                try { Thread.sleep(waitMs); }
-                catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted during Glific rate-limit backoff", ie);
-                }
-                // Only the rate-limit counter advances; auth state is unchanged
-                return executeWithRetry(query, variables, tokenRefreshed, attempt + 1);
-            }
-            if (!tokenRefreshed && (status == 401 || status == 403)) {
-                glificAuthService.refreshIfStale(tokenUsed);
-                // Do not advance attempt — the rate-limit budget should not be consumed by auth retries
-                return executeWithRetry(query, variables, true, attempt);
+            if (status == 429) {
+                Duration retryAfter = parseRetryAfter(ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                Duration pause = retryAfter != null ? retryAfter : rateLimitBackOff();
+                rateLimiter.pause(GlificRateLimiter.ACCOUNT_KEY, pause);
+                return new GlificApiException("Glific GraphQL HTTP error: " + ex.getStatusCode(), ex, true, pause, status);
             }
-            throw new RuntimeException("Glific GraphQL HTTP error: " + ex.getStatusCode(), ex);
-        }
-
-        if (response == null) {
-            throw new RuntimeException("Null response from Glific GraphQL");
+            return new GlificApiException("Glific GraphQL HTTP error: " + ex.getStatusCode(), ex,
+                    ex.getStatusCode().is5xxServerError(), null, status);
         }
-
-        if (response.has("errors") && response.get("errors").size() > 0) {
-            String msg = response.get("errors").get(0).path("message").asText("unknown");
-            if (!tokenRefreshed && (msg.toLowerCase().contains("unauthenticated")
-                    || msg.toLowerCase().contains("unauthorized"))) {
-                glificAuthService.refreshIfStale(tokenUsed);
-                // Do not advance attempt — the rate-limit budget should not be consumed by auth retries
-                return executeWithRetry(query, variables, true, attempt);
-            }
-            throw new RuntimeException("Glific GraphQL error: " + msg);
+        if (e instanceof TimeoutException) {
+            return new GlificApiException("Glific GraphQL request timed out after " + REQUEST_TIMEOUT.toSeconds() + "s",
+                    e, true, null);
         }
-        JsonNode dataNode = response.get("data");
-        if (dataNode == null || dataNode.isNull()) {
-            throw new RuntimeException("Glific GraphQL response missing 'data' node");
+        if (e instanceof WebClientRequestException) {
+            return new GlificApiException("Glific GraphQL request failed: " + e.getMessage(), e, true, null);
         }
-        return dataNode;
+        return new GlificApiException("Glific GraphQL request failed: " + e.getMessage(), e, false, null);
     }
 
-    private void throttleIfNeeded() {
-        long last = lastCallEpochMs.get();
-        long now = System.currentTimeMillis();
-        long elapsed = now - last;
-        if (elapsed < requestIntervalMs) {
-            long sleepMs = requestIntervalMs - elapsed;
-            log.debug("[Glific] Throttling: sleeping {}ms before next request", sleepMs);
+    private static boolean isAuthFailure(Throwable e) {
+        return e instanceof GlificApiException ex && (ex.getStatus() == 401 || ex.getStatus() == 403);
+    }
+
+    /** Pause applied when a 429 carries no usable {@code Retry-After}. */
+    private static Duration rateLimitBackOff() {
+        long jitter = ThreadLocalRandom.current().nextLong(-JITTER_MS, JITTER_MS + 1);
+        return Duration.ofMillis(RATE_LIMIT_WAIT_MS + jitter);
+    }
+
+    /**
+     * Parses a {@code Retry-After} header given either as delay-seconds or as an HTTP-date.
+     *
+     * @return the requested delay capped at five minutes, or {@code null} if absent or unparseable
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Duration delay;
+        try {
+            delay = Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
             try {
-                Thread.sleep(sleepMs);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Interrupted during Glific rate throttle", ie);
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                delay = Duration.between(Instant.now(), at.toInstant());
+            } catch (DateTimeParseException ex) {
+                log.debug("[Glific] Ignoring unparseable Retry-After header '{}'", value);
+                return null;
             }
-            now = System.currentTimeMillis();
         }
-        // updateAndGet retries internally on CAS failure, ensuring this call's
-        // timestamp is always recorded even if another thread raced ahead.
-        // Math.max prevents the clock from going backwards under contention.
-        final long recorded = now;
-        lastCallEpochMs.updateAndGet(prev -> Math.max(prev, recorded));
+        if (delay.isNegative()) {
+            return Duration.ZERO;
+        }
+        return delay.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : delay;
     }
 }
@@ -0,0 +1,179 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.message.config.properties.GlificDispatchProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets guarding outbound Glific traffic.
+ *
+ * <p>{@link #ACCOUNT_KEY} is the bucket shared by every request to the configured
+ * Glific account. {@link #tenantKey(String)} buckets are optional per-tenant limits
+ * applied by {@link GlificDispatcher} on top of the account limit. A bucket can be
+ * paused, e.g. for the duration of a {@code Retry-After} header, which holds back
+ * every caller instead of only the one that was rejected.</p>
+ */
+@Component
+@Slf4j
+public class GlificRateLimiter {
+
+    public static final String ACCOUNT_KEY = "account";
+    private static final String TENANT_PREFIX = "tenant:";
+
+    private final GlificDispatchProperties properties;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GlificRateLimiter(GlificDispatchProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    GlificRateLimiter(GlificDispatchProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    public static String tenantKey(String tenantSchema) {
+        return TENANT_PREFIX + tenantSchema;
+    }
+
+    /**
+     * Takes a token from the bucket, blocking the caller until one is available.
+     */
+    public void acquire(String key) {
+        long waitNanos = reserve(key);
+        if (waitNanos <= 0) {
+            return;
+        }
+        log.debug("[Glific] Rate limit [{}]: waiting {}ms for a token", key, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        long deadline = nanoClock.getAsLong() + waitNanos;
+        long remaining = waitNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new GlificApiException("Interrupted while waiting for Glific rate limit", null, true, null);
+            }
+            remaining = deadline - nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * Takes a token and returns how long the caller must wait before using it.
+     * Tokens are handed out in order, so concurrent callers are spaced at the configured rate.
+     *
+     * @return wait in nanoseconds, {@code 0} if the request may be sent immediately
+     */
+    public long reserve(String key) {
+        return bucket(key).reserve(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes a token only if one is available now.
+     *
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one is expected
+     */
+    public long tryAcquire(String key) {
+        return bucket(key).tryAcquire(nanoClock.getAsLong());
+    }
+
+    /**
+     * Stops handing out tokens for {@code duration} and drops any saved-up burst,
+     * so traffic resumes at the sustained rate once the pause is over.
+     */
+    public void pause(String key, Duration duration) {
+        if (duration != null && !duration.isNegative()) {
+            bucket(key).pauseUntil(nanoClock.getAsLong() + duration.toNanos());
+            log.warn("[Glific] Rate limit [{}]: paused for {}ms", key, duration.toMillis());
+        }
+    }
+
+    /**
+     * @return nanoseconds until a pause on the bucket ends, {@code 0} if it is not paused
+     */
+    public long pausedNanos(String key) {
+        return bucket(key).pausedNanos(nanoClock.getAsLong());
+    }
+
+    private TokenBucket bucket(String key) {
+        return buckets.computeIfAbsent(key, k -> {
+            boolean tenant = k.startsWith(TENANT_PREFIX);
+            double rate = tenant ? properties.getTenantRatePerSecond() : properties.getRatePerSecond();
+            int burst = tenant ? properties.getTenantBurst() : properties.getBurst();
+            return new TokenBucket(rate, Math.max(1, burst), nanoClock.getAsLong());
+        });
+    }
+
+    /**
+     * Classic token bucket refilled lazily on access. The token count may go negative:
+     * each {@link #reserve(long)} call books the next free slot, which is what spaces
+     * out concurrent callers. {@code refilledAt} ahead of the clock means the bucket is paused.
+     * A bucket with a non-positive rate never runs out of tokens but can still be paused.
+     */
+    static final class TokenBucket {
+
+        private final boolean unlimited;
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double ratePerSecond, int capacity, long now) {
+            this.unlimited = ratePerSecond <= 0;
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        synchronized long reserve(long now) {
+            refill(now);
+            tokens -= 1;
+            return waitFor(now, 0);
+        }
+
+        synchronized long tryAcquire(long now) {
+            refill(now);
+            long wait = waitFor(now, 1);
+            if (wait == 0) {
+                tokens -= 1;
+            }
+            return wait;
+        }
+
+        synchronized void pauseUntil(long until) {
+            tokens = Math.min(tokens, 0);
+            refilledAt = Math.max(refilledAt, until);
+        }
+
+        synchronized long pausedNanos(long now) {
+            return Math.max(0, refilledAt - now);
+        }
+
+        private void refill(long now) {
+            if (now <= refilledAt) {
+                return;
+            }
+            tokens = unlimited ? capacity : Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+
+        /** Nanoseconds until the bucket holds at least {@code needed} tokens. */
+        private long waitFor(long now, double needed) {
+            long paused = Math.max(0, refilledAt - now);
+            if (unlimited) {
+                return paused;
+            }
+            double missing = needed - tokens;
+            return missing <= 0 && paused == 0 ? 0 : paused + (long) Math.ceil(Math.max(0, missing) / tokensPerNano);
+        }
+    }
+}
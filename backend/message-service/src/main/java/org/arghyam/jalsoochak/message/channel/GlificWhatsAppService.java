@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
@@ -15,6 +16,7 @@ import java.util.Map;
 
 /**
  * Handles Glific GraphQL operations: opt-in a contact and send HSM messages.
+ * Opt-in, login OTP and escalation sends also have non-blocking {@code *Async} variants.
  *
  * <p>Nudge HSM: {{1}} = operator name, {{2}} = today's date.</p>
  * <p>Escalation HSM (document type, two-step):
@@ -152,14 +154,25 @@ public class GlificWhatsAppService {
         if (loginOtpTemplateId == null || loginOtpTemplateId.isBlank()) {
             throw new IllegalStateException("glific.template.login-otp-id is not configured");
         }
-        JsonNode response = client.execute(NUDGE_HSM_MUTATION, Map.of(
-                "templateId", loginOtpTemplateId,
-                "receiverId", contactId,
-                "parameters", List.of(otp)));
+        JsonNode response = client.execute(NUDGE_HSM_MUTATION, loginOtpVariables(contactId, otp));
         checkErrors(response, "sendHsmMessage");
         log.debug("[Glific] Login OTP HSM sent to contactId={}", contactId);
     }
 
+    /**
+     * Non-blocking {@link #sendLoginOtpHsm}; completes once Glific has accepted the message.
+     */
+    public Mono<Void> sendLoginOtpHsmAsync(Long contactId, String otp) {
+        if (isDryRun("sendLoginOtpHsm")) return Mono.empty();
+        if (loginOtpTemplateId == null || loginOtpTemplateId.isBlank()) {
+            return Mono.error(new IllegalStateException("glific.template.login-otp-id is not configured"));
+        }
+        return client.executeAsync(NUDGE_HSM_MUTATION, loginOtpVariables(contactId, otp))
+                .doOnNext(response -> checkErrors(response, "sendHsmMessage"))
+                .doOnSuccess(response -> log.debug("[Glific] Login OTP HSM sent to contactId={}", contactId))
+                .then();
+    }
+
     /**
      * Opts in the contact by phone number and returns the Glific contact ID.
      * Phone must be in E.164 format (e.g., 919876543210).
@@ -168,8 +181,17 @@ public class GlificWhatsAppService {
         if (isDryRun("optIn")) return 0L;
         log.debug("[Glific] Opting in contact");
         JsonNode response = client.execute(OPTIN_MUTATION, Map.of("phone", phone));
-        checkErrors(response, "optinContact");
-        return response.path("optinContact").path("contact").path("id").asLong();
+        return contactIdOf(response);
+    }
+
+    /**
+     * Non-blocking {@link #optIn}.
+     */
+    public Mono<Long> optInAsync(String phone) {
+        if (isDryRun("optIn")) return Mono.just(0L);
+        log.debug("[Glific] Opting in contact");
+        return client.executeAsync(OPTIN_MUTATION, Map.of("phone", phone))
+                .map(this::contactIdOf);
     }
 
     /**
@@ -195,17 +217,18 @@ public class GlificWhatsAppService {
     public String uploadMedia(String publicUrl) {
         if (isDryRun("uploadMedia")) return "dry-run-media-id";
         log.debug("[Glific] Uploading media");
-        JsonNode response = client.execute(CREATE_MESSAGE_MEDIA_MUTATION, Map.of(
-                        "input", Map.of(
-                                "url", publicUrl,
-                                "source_url", publicUrl,
-                                "caption", escalationCaption,
-                                "thumbnail", escalationThumbnail,
-                                "isTemplateMedia", true)));
-        checkErrors(response, "createMessageMedia");
-        String mediaId = response.path("createMessageMedia").path("messageMedia").path("id").asText();
-        log.info("[Glific] Media uploaded, mediaId={}", mediaId);
-        return mediaId;
+        JsonNode response = client.execute(CREATE_MESSAGE_MEDIA_MUTATION, mediaVariables(publicUrl));
+        return mediaIdOf(response);
+    }
+
+    /**
+     * Non-blocking {@link #uploadMedia}.
+     */
+    public Mono<String> uploadMediaAsync(String publicUrl) {
+        if (isDryRun("uploadMedia")) return Mono.just("dry-run-media-id");
+        log.debug("[Glific] Uploading media");
+        return client.executeAsync(CREATE_MESSAGE_MEDIA_MUTATION, mediaVariables(publicUrl))
+                .map(this::mediaIdOf);
     }
 
     /**
@@ -226,25 +249,30 @@ public class GlificWhatsAppService {
 
         String mediaId = uploadMedia(minioUrl);
 
-        Map<String, Object> input = new HashMap<>();
-        input.put("templateId", Integer.parseInt(escalationTemplateId));
-        input.put("receiverId", contactId.intValue());
-        input.put("isHsm", true);
-        input.put("params", List.of());
-
-        if (mediaId != null && !mediaId.isBlank()) {
-            input.put("mediaId", Integer.parseInt(mediaId));
-        }
-
         JsonNode response = client.execute(
                 CREATE_AND_SEND_MESSAGE_MUTATION,
-                Map.of("input", input)
+                Map.of("input", escalationInput(contactId, mediaId))
         );
         checkErrors(response, "createAndSendMessage");
 
         log.debug("[Glific] Escalation HSM sent to contactId={}", contactId);
     }
 
+    /**
+     * Non-blocking {@link #sendEscalationHsm}: the media upload and the send are chained
+     * without holding a thread between them.
+     */
+    public Mono<Void> sendEscalationHsmAsync(Long contactId, String minioUrl) {
+        if (isDryRun("sendEscalationHsm")) return Mono.empty();
+        return uploadMediaAsync(minioUrl)
+                .flatMap(mediaId -> client.executeAsync(
+                        CREATE_AND_SEND_MESSAGE_MUTATION,
+                        Map.of("input", escalationInput(contactId, mediaId))))
+                .doOnNext(response -> checkErrors(response, "createAndSendMessage"))
+                .doOnSuccess(response -> log.debug("[Glific] Escalation HSM sent to contactId={}", contactId))
+                .then();
+    }
+
     /**
      * Initiates a Glific flow for the nudge contact via the {@code startContactFlow} mutation.
      *
@@ -329,6 +357,48 @@ public class GlificWhatsAppService {
         log.debug("[Glific] Contact language updated contactId={} languageId={}", contactId, glificLanguageId);
     }
 
+    private Map<String, Object> loginOtpVariables(Long contactId, String otp) {
+        return Map.of(
+                "templateId", loginOtpTemplateId,
+                "receiverId", contactId,
+                "parameters", List.of(otp));
+    }
+
+    private Map<String, Object> mediaVariables(String publicUrl) {
+        return Map.of(
+                "input", Map.of(
+                        "url", publicUrl,
+                        "source_url", publicUrl,
+                        "caption", escalationCaption,
+                        "thumbnail", escalationThumbnail,
+                        "isTemplateMedia", true));
+    }
+
+    private Map<String, Object> escalationInput(Long contactId, String mediaId) {
+        Map<String, Object> input = new HashMap<>();
+        input.put("templateId", Integer.parseInt(escalationTemplateId));
+        input.put("receiverId", contactId.intValue());
+        input.put("isHsm", true);
+        input.put("params", List.of());
+
+        if (mediaId != null && !mediaId.isBlank()) {
+            input.put("mediaId", Integer.parseInt(mediaId));
+        }
+        return input;
+    }
+
+    private Long contactIdOf(JsonNode response) {
+        checkErrors(response, "optinContact");
+        return response.path("optinContact").path("contact").path("id").asLong();
+    }
+
+    private String mediaIdOf(JsonNode response) {
+        checkErrors(response, "createMessageMedia");
+        String mediaId = response.path("createMessageMedia").path("messageMedia").path("id").asText();
+        log.info("[Glific] Media uploaded, mediaId={}", mediaId);
+        return mediaId;
+    }
+
     private void checkErrors(JsonNode response, String mutationKey) {
         JsonNode mutationNode = response.path(mutationKey);
         if (mutationNode.isMissingNode() || mutationNode.isNull()) {
@@ -0,0 +1,62 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * HMAC-SHA256 of phone numbers under {@code PII_HMAC_KEY}, matching
+ * {@code PiiEncryptionService.hmac} in user-service, tenant-service and telemetry-service,
+ * so message-service can key rows by the same {@code phone_number_hash} without storing phones.
+ *
+ * <p>Each thread keeps its own keyed {@code Mac}: it is not thread-safe, and creating one
+ * costs more than hashing a phone number. {@code PhoneHashServiceTest} checks the same HMAC
+ * test vector as the other services' {@code PiiEncryptionServiceTest}.</p>
+ *
+ * <p>The key is required: the service does not start without a 32-byte {@code PII_HMAC_KEY}.</p>
+ */
+@Service
+public class PhoneHashService {
+
+    private final byte[] hmacKeyBytes;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public PhoneHashService(@Value("${pii.hmac-key:}") String encodedHmacKey) {
+        if (encodedHmacKey == null || encodedHmacKey.isBlank()) {
+            throw new IllegalStateException("PII_HMAC_KEY is not set; message-service needs the same "
+                    + "phone HMAC key as user-service, tenant-service and telemetry-service");
+        }
+        byte[] keyBytes = Base64.getDecoder().decode(encodedHmacKey);
+        if (keyBytes.length != 32) {
+            throw new IllegalStateException("PII_HMAC_KEY must decode to exactly 32 bytes (256 bits)");
+        }
+        this.hmacKeyBytes = keyBytes;
+    }
+
+    /**
+     * Returns the HMAC-SHA256 of the trimmed phone number.
+     *
+     * @return 64-char lowercase hex string, or {@code null} if input is {@code null}
+     */
+    public String hmac(String phone) {
+        if (phone == null) return null;
+        return HexFormat.of().formatHex(macs.get().doFinal(phone.trim().getBytes(UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(hmacKeyBytes, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 failed", e);
+        }
+    }
+}
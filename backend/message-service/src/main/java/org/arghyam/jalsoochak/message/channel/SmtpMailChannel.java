@@ -9,11 +9,17 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
- * {@link NotificationChannel} implementation that delivers email via SMTP
- * using Spring's {@link JavaMailSender}.
+ * {@link NotificationChannel} implementation that delivers email via SMTP.
  *
- * <p>The {@code body} field of {@link NotificationRequest} is treated as HTML content.</p>
+ * <p>Messages are built with Spring's {@link JavaMailSender} and sent through
+ * {@link SmtpTransportPool}, which reuses authenticated connections and batches
+ * queued messages. The {@code body} field of {@link NotificationRequest} is treated
+ * as HTML content.</p>
  */
 @Component
 @RequiredArgsConstructor
@@ -23,6 +29,7 @@ public class SmtpMailChannel implements NotificationChannel {
     public static final String CHANNEL_TYPE = "SMTP_EMAIL";
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
 
     @Value("${notification.channel.smtp.from-address}")
     private String fromAddress;
@@ -35,23 +42,52 @@ public class SmtpMailChannel implements NotificationChannel {
         return CHANNEL_TYPE;
     }
 
+    /**
+     * Sends the email and waits for the outcome.
+     *
+     * @return {@code true} once the email was sent; {@code false} on any failure
+     */
     @Override
     public boolean send(NotificationRequest request) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
+            sendAsync(request).join();
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.error("[SmtpMailChannel] Failed to send email to {}: {}", maskEmail(request.getRecipient()), e.getMessage());
+            return false;
+        } catch (CompletionException e) {
+            return false; // already logged by sendAsync
+        }
+    }
+
+    /**
+     * Queues the email on {@link SmtpTransportPool} without waiting for it to be sent.
+     *
+     * @return completes once the email was sent, or exceptionally once it failed; failures are logged here
+     * @throws RejectedExecutionException if the pool stays full; nothing was sent
+     */
+    public CompletableFuture<Void> sendAsync(NotificationRequest request) {
+        MimeMessage message;
+        try {
+            message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             helper.setFrom(fromAddress, fromName);
             helper.setTo(request.getRecipient());
             helper.setSubject(request.getSubject());
             helper.setText(request.getBody(), true); // body is HTML
-            mailSender.send(message);
-            log.info("[SmtpMailChannel] Email sent to {}", maskEmail(request.getRecipient()));
-            return true;
         } catch (Exception e) {
             log.error("[SmtpMailChannel] Failed to send email to {}: {}",
                     maskEmail(request.getRecipient()), e.getMessage(), e);
-            return false;
+            return CompletableFuture.failedFuture(e);
         }
+        return transportPool.submit(message).whenComplete((sent, e) -> {
+            if (e == null) {
+                log.info("[SmtpMailChannel] Email sent to {}", maskEmail(request.getRecipient()));
+            } else {
+                log.error("[SmtpMailChannel] Failed to send email to {}: {}",
+                        maskEmail(request.getRecipient()), e.getMessage(), e);
+            }
+        });
     }
 
     private static String maskEmail(String email) {
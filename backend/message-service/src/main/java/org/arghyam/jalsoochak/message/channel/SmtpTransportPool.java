@@ -0,0 +1,320 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.message.config.properties.SmtpPoolProperties;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends email over a small pool of long-lived, authenticated SMTP connections.
+ *
+ * <p>Each of the {@code notification.channel.smtp.pool.connections} sender threads owns one
+ * connection. A sender takes up to {@code batch-size} queued messages at once and sends them
+ * back-to-back over its connection, so a burst of emails costs one TCP/TLS handshake and one
+ * {@code AUTH} per connection instead of one per message. A connection is reopened after
+ * {@code max-messages-per-connection} messages and closed after {@code idle-timeout-ms}
+ * without work.</p>
+ *
+ * <p>At most {@code queue-capacity} messages are accepted at once; when full, {@link #submit}
+ * rejects at once rather than blocking, since it is called (and retried) on Reactor's
+ * non-blocking schedulers; the Kafka consumer holds the record and pauses its lane. Transient failures (connection
+ * errors, SMTP 4xx) are retried with exponential back-off and jitter; rejected recipients,
+ * SMTP 5xx and failed authentication are not.</p>
+ *
+ * <p>Metrics: {@code smtp.delivery.latency} (submit to outcome, tagged
+ * {@code result=sent|failed}), {@code smtp.batch.size}, {@code smtp.connections.opened}
+ * and {@code smtp.queue.pending}.</p>
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpPoolProperties properties;
+    private final Semaphore capacity;
+    private final BlockingQueue<Delivery> queue = new LinkedBlockingQueue<>();
+    private final Set<Delivery> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService scheduler;
+    private final Timer sentLatency;
+    private final Timer failedLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter connectionsOpened;
+    private volatile boolean shuttingDown;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender, SmtpPoolProperties properties, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.capacity = new Semaphore(Math.max(1, properties.getQueueCapacity()));
+        this.sentLatency = latencyTimer(meterRegistry, "sent");
+        this.failedLatency = latencyTimer(meterRegistry, "failed");
+        this.batchSizes = DistributionSummary.builder("smtp.batch.size")
+                .description("Messages sent back-to-back over one connection")
+                .register(meterRegistry);
+        this.connectionsOpened = Counter.builder("smtp.connections.opened")
+                .description("Authenticated SMTP connections opened")
+                .register(meterRegistry);
+        Gauge.builder("smtp.queue.pending", pending, Set::size)
+                .description("Messages accepted and not yet sent or failed")
+                .register(meterRegistry);
+
+        int connections = Math.max(1, properties.getConnections());
+        this.senders = Executors.newFixedThreadPool(connections,
+                Thread.ofPlatform().name("smtp-sender-", 1).daemon().factory());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("smtp-retry-scheduler").daemon().factory());
+        for (int i = 0; i < connections; i++) {
+            senders.execute(this::senderLoop);
+        }
+    }
+
+    /**
+     * Queues a message. Returns once the message is accepted; it is sent asynchronously.
+     *
+     * @return completes once the message has been sent, or exceptionally with the last
+     *         {@link MessagingException} once it failed permanently or ran out of attempts
+     * @throws RejectedExecutionException if the pool is shutting down or full
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        if (shuttingDown) {
+            throw new RejectedExecutionException("SMTP pool is shutting down");
+        }
+        try {
+            // Sets Message-ID and MIME headers once, as JavaMailSender.send() would.
+            message.saveChanges();
+        } catch (MessagingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!capacity.tryAcquire()) {
+            throw new RejectedExecutionException("SMTP queue is full ("
+                    + properties.getQueueCapacity() + " pending messages)");
+        }
+        Delivery delivery = new Delivery(message);
+        pending.add(delivery);
+        queue.add(delivery);
+        return delivery.done;
+    }
+
+    /** Messages accepted and not yet sent or failed, including those waiting to retry. */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stops accepting messages and waits up to {@code shutdown-timeout-ms} for queued ones.
+     * Messages still pending afterwards are failed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getShutdownTimeoutMs());
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        for (Delivery delivery : pending) {
+            fail(delivery, new MessagingException("SMTP pool shut down before the message was sent"));
+        }
+    }
+
+    private void senderLoop() {
+        Connection connection = new Connection();
+        List<Delivery> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Delivery first = queue.poll(properties.getIdleTimeoutMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    connection.close();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, Math.max(0, properties.getBatchSize() - 1));
+                sendBatch(connection, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void sendBatch(Connection connection, List<Delivery> batch) {
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Delivery delivery = batch.get(i);
+            try {
+                connection.open(i == 0);
+            } catch (MessagingException e) {
+                // Nothing in this batch can be sent without a connection.
+                log.warn("[SMTP] Could not connect to {}:{}: {}", mailSender.getHost(), mailSender.getPort(), e.getMessage());
+                for (Delivery unsent : batch.subList(i, batch.size())) {
+                    onError(unsent, e);
+                }
+                return;
+            }
+            try {
+                connection.send(delivery.message);
+                complete(delivery);
+            } catch (MessagingException e) {
+                // The session state after a failed DATA is unclear, so start the next message afresh.
+                connection.close();
+                onError(delivery, e);
+            } catch (RuntimeException e) {
+                connection.close();
+                fail(delivery, new MessagingException(e.getMessage(), e));
+            }
+        }
+    }
+
+    private void onError(Delivery delivery, MessagingException e) {
+        if (!isRetryable(e) || delivery.attempt >= properties.getMaxAttempts() || shuttingDown) {
+            log.error("[SMTP] Message failed after {} attempt(s): {}", delivery.attempt, e.getMessage());
+            fail(delivery, e);
+            return;
+        }
+        Duration delay = retryDelay(delivery.attempt);
+        delivery.attempt++;
+        log.warn("[SMTP] Send failed ({}), retrying in {}ms (attempt {}/{})", e.getMessage(),
+                delay.toMillis(), delivery.attempt, properties.getMaxAttempts());
+        try {
+            scheduler.schedule(() -> queue.add(delivery), delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException rejected) {
+            fail(delivery, e);
+        }
+    }
+
+    /**
+     * Rejected recipients, SMTP 5xx replies and failed authentication are permanent;
+     * SMTP 4xx replies and connection or I/O errors are transient.
+     */
+    static boolean isRetryable(MessagingException e) {
+        int code = e instanceof SMTPSendFailedException s ? s.getReturnCode()
+                : e instanceof SMTPAddressFailedException a ? a.getReturnCode() : -1;
+        if (code > 0) {
+            return code < 500;
+        }
+        return !(e instanceof SendFailedException || e instanceof AuthenticationFailedException);
+    }
+
+    /** Exponential back-off with ±20% jitter, capped at {@code retry-max-delay-ms}. */
+    Duration retryDelay(int attempt) {
+        long base = properties.getRetryBaseDelayMs() << Math.min(attempt - 1, 20);
+        long jitter = base / 5 == 0 ? 0 : ThreadLocalRandom.current().nextLong(-base / 5, base / 5 + 1);
+        return Duration.ofMillis(Math.min(base + jitter, properties.getRetryMaxDelayMs()));
+    }
+
+    private void complete(Delivery delivery) {
+        if (pending.remove(delivery)) {
+            capacity.release();
+            sentLatency.record(System.nanoTime() - delivery.submittedAt, TimeUnit.NANOSECONDS);
+            delivery.done.complete(null);
+        }
+    }
+
+    private void fail(Delivery delivery, MessagingException cause) {
+        if (pending.remove(delivery)) {
+            capacity.release();
+            failedLatency.record(System.nanoTime() - delivery.submittedAt, TimeUnit.NANOSECONDS);
+            delivery.done.completeExceptionally(cause);
+        }
+    }
+
+    private static Timer latencyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("smtp.delivery.latency")
+                .description("Time from submitting an email until it was sent or failed")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+    }
+
+    /** One sender thread's SMTP connection; only ever used by that thread. */
+    private final class Connection {
+
+        private Transport transport;
+        private int sent;
+
+        /**
+         * Opens the connection if needed. {@code verify} checks an existing connection with a
+         * {@code NOOP}, which costs a round trip, so it is only done at the start of a batch.
+         */
+        void open(boolean verify) throws MessagingException {
+            if (transport != null && sent < properties.getMaxMessagesPerConnection()
+                    && (!verify || transport.isConnected())) {
+                return;
+            }
+            close();
+            String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+            Transport opened = mailSender.getSession().getTransport(protocol);
+            opened.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            transport = opened;
+            sent = 0;
+            connectionsOpened.increment();
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+        }
+
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("[SMTP] Error closing connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+
+    private static final class Delivery {
+
+        private final MimeMessage message;
+        private final long submittedAt = System.nanoTime();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile int attempt = 1;
+
+        private Delivery(MimeMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -4,15 +4,17 @@ import org.arghyam.jalsoochak.message.dto.NotificationRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.Map;
 
 /**
  * Webhook (Push Notification) channel.
  * <p>
- * Sends an HTTP POST to the configured webhook URL (or the recipient URL)
- * with the notification payload as JSON.
+ * Queues the notification for the configured webhook URL (or the recipient URL) on
+ * {@link WebhookDispatcher}, which sends it asynchronously in a batch, signed, with
+ * persistent retries. {@link #send} returning {@code true} means the notification was
+ * accepted, not that it was delivered: until its batch is sent it is held only in memory,
+ * and lost if the pod dies without a graceful shutdown.
  * <p>
  * Configure the default webhook endpoint and optional secret in application.yml:
  * <pre>
@@ -24,16 +26,13 @@ import java.util.Map;
 @Slf4j
 public class WebhookChannel implements NotificationChannel {
 
-    private final WebClient webClient;
+    private final WebhookDispatcher dispatcher;
 
     @Value("${notification.channel.webhook.url:}")
     private String defaultWebhookUrl;
 
-    @Value("${notification.channel.webhook.secret:}")
-    private String webhookSecret;
-
-    public WebhookChannel(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    public WebhookChannel(WebhookDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
     }
 
     @Override
@@ -52,27 +51,15 @@ public class WebhookChannel implements NotificationChannel {
             return false;
         }
 
-        try {
-            log.info("[WEBHOOK] Sending push notification to {}", targetUrl);
-
-            Map<String, String> payload = Map.of(
-                    "subject", request.getSubject() != null ? request.getSubject() : "",
-                    "body", request.getBody() != null ? request.getBody() : ""
-            );
+        Map<String, String> payload = Map.of(
+                "subject", request.getSubject() != null ? request.getSubject() : "",
+                "body", request.getBody() != null ? request.getBody() : ""
+        );
 
-            webClient.post()
-                    .uri(targetUrl)
-                    .header("X-Webhook-Secret", webhookSecret)
-                    .bodyValue(payload)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
-
-            log.info("[WEBHOOK] Push notification delivered successfully");
-            return true;
-        } catch (Exception ex) {
-            log.error("[WEBHOOK] Failed to deliver push notification: {}", ex.getMessage(), ex);
-            return false;
+        boolean queued = dispatcher.enqueue(targetUrl, payload);
+        if (queued) {
+            log.info("[WEBHOOK] Push notification queued for {}", targetUrl);
         }
+        return queued;
     }
 }
@@ -0,0 +1,87 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for a single webhook endpoint.
+ *
+ * <p>Closed: requests pass. After {@code failureThreshold} consecutive failures the circuit
+ * opens and requests are refused for {@code openNanos}. Then it is half-open: one trial request
+ * is let through; success closes the circuit, failure opens it again.</p>
+ *
+ * <p>A circuit that is closed, has no request in flight and has not been used for a while is
+ * idle: the dispatcher may drop it and start the endpoint over with a new one.</p>
+ */
+final class WebhookCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private long lastUsed;
+    private int inFlight;
+
+    WebhookCircuitBreaker(int failureThreshold, long openNanos, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+        this.lastUsed = nanoClock.getAsLong();
+    }
+
+    /**
+     * Asks permission to send a request.
+     *
+     * @return {@code 0} if the request may be sent, otherwise nanoseconds until the circuit
+     *         will let a trial request through
+     */
+    synchronized long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        lastUsed = now;
+        switch (state) {
+            case CLOSED:
+                inFlight++;
+                return 0;
+            case OPEN:
+                if (now - openUntil >= 0) {
+                    state = State.HALF_OPEN;
+                    inFlight++;
+                    return 0;
+                }
+                return openUntil - now;
+            default:
+                // HALF_OPEN: a trial request is already in flight.
+                return openNanos;
+        }
+    }
+
+    synchronized void onSuccess() {
+        lastUsed = nanoClock.getAsLong();
+        inFlight = Math.max(0, inFlight - 1);
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+        lastUsed = nanoClock.getAsLong();
+        inFlight = Math.max(0, inFlight - 1);
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = nanoClock.getAsLong() + openNanos;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /** Whether the circuit is closed, with no request in flight and none asked for in {@code idleNanos}. */
+    synchronized boolean isIdle(long idleNanos) {
+        return state == State.CLOSED && inFlight == 0 && nanoClock.getAsLong() - lastUsed >= idleNanos;
+    }
+}
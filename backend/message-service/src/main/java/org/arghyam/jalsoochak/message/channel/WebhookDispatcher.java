@@ -0,0 +1,421 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.message.channel.WebhookRetryStore.Delivery;
+import org.arghyam.jalsoochak.message.config.properties.WebhookDispatchProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.scheduler.Schedulers;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Asynchronous, batched delivery of webhook notifications.
+ *
+ * <p>{@link #enqueue} buffers a notification per endpoint and returns immediately. An
+ * endpoint's buffer is sent as one request once it holds {@code max-batch-size} notifications
+ * or its oldest notification has waited {@code linger-ms}. The request body is
+ * {@code {"notifications":[...]}}; when {@code notification.channel.webhook.secret} is set it
+ * is signed with HMAC-SHA256 over {@code <timestamp>.<body>}, sent as
+ * {@code X-Webhook-Timestamp} (epoch seconds) and {@code X-Webhook-Signature: sha256=<hex>}.</p>
+ *
+ * <p>Notifications of a failed request (network error, timeout, 408, 429 or 5xx) are stored in
+ * the persistent retry queue ({@link WebhookRetryStore}) and re-sent with exponential back-off
+ * and jitter by a poller; after {@code max-attempts}, or on any other 4xx, they are moved to the
+ * dead-letter table. Each endpoint has a {@link WebhookCircuitBreaker}: while it is open,
+ * batches for that endpoint go straight to the retry queue, due when the circuit half-opens,
+ * without using up an attempt.</p>
+ *
+ * <p>An endpoint's buffer and circuit are kept in memory while it is in use. They are dropped once
+ * the endpoint has been idle for {@code endpoint-idle-ms} with nothing buffered and its circuit
+ * closed, so recipient URLs that are used once do not accumulate.</p>
+ *
+ * <p>Notifications still buffered on a graceful shutdown are stored in the retry queue. Buffered
+ * notifications are not persisted until their batch is sent or fails: if the process dies
+ * without shutting down (killed, out of memory), whatever is buffered, at most
+ * {@code max-buffered} notifications, is lost, although the Kafka records that carried them have
+ * already been acknowledged. Metrics:
+ * {@code webhook.notifications} (tagged {@code result=sent|retry_scheduled|dead_lettered}),
+ * {@code webhook.request.latency} (tagged {@code outcome}) and {@code webhook.buffered}.</p>
+ */
+@Component
+@Slf4j
+public class WebhookDispatcher {
+
+    private final WebhookDispatchProperties properties;
+    private final WebhookRetryStore retryStore;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+    private final byte[] signingKey;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private final Map<String, WebhookCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final Counter sent;
+    private final Counter retryScheduled;
+    private final Counter deadLettered;
+    private final MeterRegistry meterRegistry;
+
+    public WebhookDispatcher(WebhookDispatchProperties properties,
+                             WebhookRetryStore retryStore,
+                             ObjectMapper objectMapper,
+                             WebClient.Builder webClientBuilder,
+                             MeterRegistry meterRegistry,
+                             @Value("${notification.channel.webhook.secret:}") String secret) {
+        this.properties = properties;
+        this.retryStore = retryStore;
+        this.objectMapper = objectMapper;
+        this.webClient = webClientBuilder.build();
+        this.signingKey = secret == null || secret.isBlank() ? null : secret.getBytes(UTF_8);
+        if (signingKey == null) {
+            log.warn("[WEBHOOK] notification.channel.webhook.secret is not set; webhook payloads will not be signed");
+        }
+        this.meterRegistry = meterRegistry;
+        this.sent = notificationCounter("sent");
+        this.retryScheduled = notificationCounter("retry_scheduled");
+        this.deadLettered = notificationCounter("dead_lettered");
+        Gauge.builder("webhook.buffered", buffered, AtomicInteger::get)
+                .description("Webhook notifications waiting in memory for their batch to be sent")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("webhook-dispatch").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::pollRetries, properties.getRetryPollIntervalMs(),
+                properties.getRetryPollIntervalMs(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::evictIdleEndpoints, properties.getEndpointIdleMs(),
+                properties.getEndpointIdleMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers a notification for {@code endpoint}. Returns without waiting for delivery.
+     *
+     * @return {@code false} if the notification could not be accepted (buffer full or not
+     *         serializable); it has not been stored
+     */
+    public boolean enqueue(String endpoint, Map<String, ?> notification) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            log.error("[WEBHOOK] Could not serialize notification: {}", e.getMessage());
+            return false;
+        }
+        if (buffered.incrementAndGet() > properties.getMaxBuffered()) {
+            buffered.decrementAndGet();
+            log.warn("[WEBHOOK] {} notifications already buffered, refusing notification for {}",
+                    properties.getMaxBuffered(), endpoint);
+            return false;
+        }
+
+        List<Delivery> full = null;
+        boolean added = false;
+        while (!added) {
+            Buffer buffer = buffers.computeIfAbsent(endpoint, Buffer::new);
+            synchronized (buffer) {
+                if (buffer.evicted) {
+                    // Dropped as idle after we looked it up; take the new one.
+                    continue;
+                }
+                buffer.deliveries.add(Delivery.fresh(endpoint, payload));
+                buffer.lastUsed = System.nanoTime();
+                added = true;
+                if (buffer.deliveries.size() >= properties.getMaxBatchSize()) {
+                    full = buffer.drain();
+                } else if (buffer.linger == null) {
+                    buffer.linger = scheduler.schedule(() -> flush(endpoint),
+                            properties.getLingerMs(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        if (full != null) {
+            send(endpoint, full);
+        }
+        return true;
+    }
+
+    /** Sends whatever is buffered for {@code endpoint}. */
+    void flush(String endpoint) {
+        Buffer buffer = buffers.get(endpoint);
+        if (buffer == null) {
+            return;
+        }
+        List<Delivery> batch;
+        synchronized (buffer) {
+            batch = buffer.drain();
+        }
+        if (!batch.isEmpty()) {
+            send(endpoint, batch);
+        }
+    }
+
+    /** Claims due notifications from the retry queue and re-sends them, batched per endpoint. */
+    void pollRetries() {
+        try {
+            List<Delivery> due = retryStore.claimDue(properties.getRetryPollLimit(),
+                    Duration.ofMillis(properties.getRetryLeaseMs()));
+            Map<String, List<Delivery>> byEndpoint = due.stream()
+                    .collect(Collectors.groupingBy(Delivery::endpoint, LinkedHashMap::new, Collectors.toList()));
+            byEndpoint.forEach((endpoint, deliveries) -> {
+                for (int from = 0; from < deliveries.size(); from += properties.getMaxBatchSize()) {
+                    int to = Math.min(deliveries.size(), from + properties.getMaxBatchSize());
+                    send(endpoint, List.copyOf(deliveries.subList(from, to)));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("[WEBHOOK] Retry queue poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the buffer and circuit of every endpoint that has been idle for
+     * {@code endpoint-idle-ms}: nothing buffered, and its circuit closed.
+     */
+    void evictIdleEndpoints() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getEndpointIdleMs());
+        long now = System.nanoTime();
+        buffers.values().removeIf(buffer -> {
+            synchronized (buffer) {
+                buffer.evicted = buffer.deliveries.isEmpty() && now - buffer.lastUsed >= idleNanos;
+                return buffer.evicted;
+            }
+        });
+        breakers.values().removeIf(breaker -> breaker.isIdle(idleNanos));
+    }
+
+    /** Endpoints with a buffer or a circuit in memory, for monitoring and tests. */
+    int trackedEndpoints() {
+        Set<String> endpoints = new HashSet<>(buffers.keySet());
+        endpoints.addAll(breakers.keySet());
+        return endpoints.size();
+    }
+
+    /** State of an endpoint's circuit, for monitoring and tests. */
+    WebhookCircuitBreaker.State circuitState(String endpoint) {
+        return breaker(endpoint).state();
+    }
+
+    /**
+     * Stores every buffered notification in the retry queue, due immediately, so none
+     * are lost when the service stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (Buffer buffer : buffers.values()) {
+            List<Delivery> batch;
+            synchronized (buffer) {
+                batch = buffer.drain();
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    retryStore.schedule(batch, Instant.now(), "buffered at shutdown");
+                } catch (Exception e) {
+                    log.error("[WEBHOOK] Lost {} buffered notification(s) for {} at shutdown: {}",
+                            batch.size(), buffer.endpoint, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void send(String endpoint, List<Delivery> batch) {
+        WebhookCircuitBreaker breaker = breaker(endpoint);
+        long waitNanos = breaker.tryAcquire();
+        if (waitNanos > 0) {
+            log.debug("[WEBHOOK] Circuit open for {}, deferring {} notification(s)", endpoint, batch.size());
+            store(batch, Instant.now().plusNanos(waitNanos), "circuit open");
+            return;
+        }
+
+        String body = batch.stream().map(Delivery::payload)
+                .collect(Collectors.joining(",", "{\"notifications\":[", "]}"));
+        long timestamp = Instant.now().getEpochSecond();
+        long start = System.nanoTime();
+        webClient.post()
+                .uri(endpoint)
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (signingKey != null) {
+                        headers.set("X-Webhook-Timestamp", Long.toString(timestamp));
+                        headers.set("X-Webhook-Signature", "sha256=" + sign(timestamp + "." + body));
+                    }
+                })
+                .bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                // Outcomes touch the database; keep them off the Netty event loop.
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(
+                        response -> onDelivered(endpoint, batch, breaker, start),
+                        error -> onFailed(endpoint, batch, breaker, start, error));
+    }
+
+    private void onDelivered(String endpoint, List<Delivery> batch, WebhookCircuitBreaker breaker, long start) {
+        breaker.onSuccess();
+        requestTimer("success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        sent.increment(batch.size());
+        log.info("[WEBHOOK] Delivered {} notification(s) to {}", batch.size(), endpoint);
+        try {
+            retryStore.delete(batch);
+        } catch (Exception e) {
+            // The rows are re-sent after their lease; receivers must tolerate duplicates.
+            log.warn("[WEBHOOK] Could not remove delivered notifications from the retry queue: {}", e.getMessage());
+        }
+    }
+
+    private void onFailed(String endpoint, List<Delivery> batch, WebhookCircuitBreaker breaker, long start,
+                          Throwable error) {
+        breaker.onFailure();
+        requestTimer("failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        String reason = describe(error);
+        boolean retryable = isRetryable(error);
+
+        List<Delivery> retry = new ArrayList<>();
+        List<Delivery> dead = new ArrayList<>();
+        for (Delivery delivery : batch) {
+            Delivery attempted = delivery.withAttempts(delivery.attempts() + 1);
+            (retryable && attempted.attempts() < properties.getMaxAttempts() ? retry : dead).add(attempted);
+        }
+        log.warn("[WEBHOOK] Delivery of {} notification(s) to {} failed ({}): {} to retry, {} dead-lettered",
+                batch.size(), endpoint, reason, retry.size(), dead.size());
+
+        // Notifications of one batch were queued at different times, so each gets its own back-off.
+        retry.stream()
+                .collect(Collectors.groupingBy(Delivery::attempts))
+                .forEach((attempts, deliveries) ->
+                        store(deliveries, Instant.now().plus(retryDelay(attempts)), reason));
+        if (!dead.isEmpty()) {
+            try {
+                retryStore.deadLetter(dead, reason);
+                deadLettered.increment(dead.size());
+            } catch (Exception e) {
+                log.error("[WEBHOOK] Lost {} notification(s) for {}: dead-letter insert failed: {}",
+                        dead.size(), endpoint, e.getMessage());
+            }
+        }
+    }
+
+    private void store(List<Delivery> deliveries, Instant nextAttemptAt, String reason) {
+        try {
+            retryStore.schedule(deliveries, nextAttemptAt, reason);
+            retryScheduled.increment(deliveries.size());
+        } catch (Exception e) {
+            log.error("[WEBHOOK] Lost {} notification(s) for {}: retry queue insert failed: {}",
+                    deliveries.size(), deliveries.get(0).endpoint(), e.getMessage());
+        }
+    }
+
+    /** Network errors, timeouts, 408, 429 and 5xx are transient; any other status is not. */
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == HttpStatus.REQUEST_TIMEOUT.value()
+                    || status == HttpStatus.TOO_MANY_REQUESTS.value()
+                    || response.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+
+    /** Exponential back-off with ±20% jitter, capped at {@code retry-max-delay-ms}. */
+    Duration retryDelay(int attempts) {
+        long base = properties.getRetryBaseDelayMs() << Math.min(attempts - 1, 20);
+        long jitter = base / 5 == 0 ? 0 : ThreadLocalRandom.current().nextLong(-base / 5, base / 5 + 1);
+        return Duration.ofMillis(Math.min(base + jitter, properties.getRetryMaxDelayMs()));
+    }
+
+    String sign(String content) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(signingKey, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(content.getBytes(UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 failed", e);
+        }
+    }
+
+    private WebhookCircuitBreaker breaker(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, e -> new WebhookCircuitBreaker(
+                properties.getCircuitFailureThreshold(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getCircuitOpenMs()),
+                System::nanoTime));
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return "HTTP " + response.getStatusCode().value();
+        }
+        return error.getClass().getSimpleName() + (error.getMessage() != null ? ": " + error.getMessage() : "");
+    }
+
+    private Counter notificationCounter(String result) {
+        return Counter.builder("webhook.notifications")
+                .description("Webhook notifications by outcome of their latest delivery attempt")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer requestTimer(String outcome) {
+        return Timer.builder("webhook.request.latency")
+                .description("Duration of webhook requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private final class Buffer {
+
+        private final String endpoint;
+        private final List<Delivery> deliveries = new ArrayList<>();
+        private ScheduledFuture<?> linger;
+        private long lastUsed = System.nanoTime();
+        /** Set once the buffer has been removed as idle; it must not take deliveries any more. */
+        private boolean evicted;
+
+        private Buffer(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /** Takes the buffered deliveries; the caller must hold this buffer's lock. */
+        private List<Delivery> drain() {
+            if (linger != null) {
+                linger.cancel(false);
+                linger = null;
+            }
+            List<Delivery> batch = List.copyOf(deliveries);
+            deliveries.clear();
+            buffered.addAndGet(-batch.size());
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Persistent retry queue ({@code common_schema.webhook_delivery_table}) and dead-letter table
+ * ({@code common_schema.webhook_dead_letter_table}) of {@link WebhookDispatcher}.
+ *
+ * <p>Each row holds one notification for one endpoint. Rows are claimed by moving
+ * {@code next_attempt_at} forward by a lease with {@code FOR UPDATE SKIP LOCKED}, so
+ * several message-service instances can poll the same queue without sending a row twice;
+ * a row whose sender died is picked up again once the lease has passed.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class WebhookRetryStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO common_schema.webhook_delivery_table "
+                    + "(endpoint, payload, attempts, next_attempt_at, last_error) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE common_schema.webhook_delivery_table "
+                    + "SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private static final String CLAIM_SQL =
+            "UPDATE common_schema.webhook_delivery_table SET next_attempt_at = ? "
+                    + "WHERE id IN (SELECT id FROM common_schema.webhook_delivery_table "
+                    + "WHERE next_attempt_at <= NOW() ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+                    + "RETURNING id, endpoint, payload, attempts";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM common_schema.webhook_delivery_table WHERE id = ANY(?)";
+
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO common_schema.webhook_dead_letter_table "
+                    + "(endpoint, payload, attempts, last_error, created_at) VALUES (?, ?, ?, ?, NOW())";
+
+    private static final String MOVE_TO_DEAD_LETTER_SQL =
+            "WITH moved AS (DELETE FROM common_schema.webhook_delivery_table WHERE id = ? "
+                    + "RETURNING endpoint, payload, created_at) "
+                    + "INSERT INTO common_schema.webhook_dead_letter_table "
+                    + "(endpoint, payload, attempts, last_error, created_at) "
+                    + "SELECT endpoint, payload, ?, ?, created_at FROM moved";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A notification on its way to an endpoint.
+     *
+     * @param id       row ID in the retry queue, or {@code null} if it has not been stored
+     * @param attempts delivery attempts made so far
+     */
+    public record Delivery(Long id, String endpoint, String payload, int attempts) {
+
+        static Delivery fresh(String endpoint, String payload) {
+            return new Delivery(null, endpoint, payload, 0);
+        }
+
+        Delivery withAttempts(int attempts) {
+            return new Delivery(id, endpoint, payload, attempts);
+        }
+    }
+
+    /**
+     * Stores deliveries to be retried at {@code nextAttemptAt}: stored ones are updated,
+     * the others inserted.
+     */
+    public void schedule(Collection<Delivery> deliveries, Instant nextAttemptAt, String error) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Timestamp next = Timestamp.from(nextAttemptAt);
+        for (Delivery d : deliveries) {
+            if (d.id() == null) {
+                inserts.add(new Object[]{d.endpoint(), d.payload(), d.attempts(), next, error});
+            } else {
+                updates.add(new Object[]{d.attempts(), next, error, d.id()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+    }
+
+    /**
+     * Claims up to {@code limit} due deliveries, hiding them from other pollers for {@code lease}.
+     */
+    public List<Delivery> claimDue(int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, n) -> new Delivery(rs.getLong("id"), rs.getString("endpoint"),
+                        rs.getString("payload"), rs.getInt("attempts")),
+                Timestamp.from(Instant.now().plus(lease)), limit);
+    }
+
+    /** Removes delivered notifications from the retry queue; unstored ones are ignored. */
+    public void delete(Collection<Delivery> deliveries) {
+        Long[] ids = deliveries.stream().map(Delivery::id).filter(Objects::nonNull).toArray(Long[]::new);
+        if (ids.length == 0) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(DELETE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        });
+    }
+
+    /** Moves deliveries to the dead-letter table, removing stored ones from the retry queue. */
+    public void deadLetter(Collection<Delivery> deliveries, String error) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> moves = new ArrayList<>();
+        for (Delivery d : deliveries) {
+            if (d.id() == null) {
+                inserts.add(new Object[]{d.endpoint(), d.payload(), d.attempts(), error});
+            } else {
+                moves.add(new Object[]{d.id(), d.attempts(), error});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(DEAD_LETTER_SQL, inserts);
+        }
+        if (!moves.isEmpty()) {
+            jdbcTemplate.batchUpdate(MOVE_TO_DEAD_LETTER_SQL, moves);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -132,6 +133,18 @@ public class WhatsAppChannel implements NotificationChannel {
         }
     }
 
+    /**
+     * Non-blocking {@link #sendLoginOtp}; the returned {@link Mono} fails if Glific rejects the message.
+     */
+    public Mono<Void> sendLoginOtpAsync(long contactId, String otp) {
+        return glificWhatsAppService.sendLoginOtpHsmAsync(contactId, otp)
+                .doOnSuccess(v -> {
+                    log.info("[WHATSAPP] Login OTP HSM sent");
+                    log.debug("[WHATSAPP] Login OTP HSM sent to contactId={}", contactId);
+                })
+                .doOnError(ex -> log.error("[WHATSAPP] Failed login OTP delivery: {}", ex.getMessage()));
+    }
+
     /**
      * Sends the escalation PDF (document HSM) to the officer via Glific using an
      * already-resolved Glific contact ID.
@@ -151,4 +164,16 @@ public class WhatsAppChannel implements NotificationChannel {
             return false;
         }
     }
+
+    /**
+     * Non-blocking {@link #sendDocument}; the returned {@link Mono} fails if Glific rejects the message.
+     */
+    public Mono<Void> sendDocumentAsync(long contactId, String documentUrl) {
+        return glificWhatsAppService.sendEscalationHsmAsync(contactId, documentUrl)
+                .doOnSuccess(v -> {
+                    log.info("[WHATSAPP] Escalation HSM sent");
+                    log.debug("[WHATSAPP] Escalation HSM sent to contactId={}", contactId);
+                })
+                .doOnError(ex -> log.error("[WHATSAPP] Failed escalation delivery: {}", ex.getMessage()));
+    }
 }
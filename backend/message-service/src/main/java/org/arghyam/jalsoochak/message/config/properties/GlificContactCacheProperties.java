@@ -0,0 +1,25 @@
+package org.arghyam.jalsoochak.message.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Persistent cache of Glific opt-in state, used to skip {@code optinContact} calls for
+ * contacts that were opted in recently.
+ * Bound from the {@code glific.contact-cache.*} namespace in application.yml.
+ */
+@ConfigurationProperties(prefix = "glific.contact-cache")
+@Data
+public class GlificContactCacheProperties {
+
+    /** When {@code false} every lookup is a miss and nothing is stored. */
+    private boolean enabled = true;
+
+    /**
+     * How long an opt-in is trusted before the contact is opted in again. Bounds how long a
+     * contact deleted or blocked on the Glific side keeps being served from the cache.
+     */
+    private Duration ttl = Duration.ofDays(30);
+}
@@ -0,0 +1,45 @@
+package org.arghyam.jalsoochak.message.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limits and concurrency for outbound Glific API traffic.
+ * Bound from the {@code glific.dispatch.*} namespace in application.yml.
+ *
+ * <p>A rate of {@code 0} disables the corresponding token bucket.</p>
+ */
+@ConfigurationProperties(prefix = "glific.dispatch")
+@Data
+public class GlificDispatchProperties {
+
+    /** Sustained requests per second allowed against the Glific account, shared by every caller. */
+    private double ratePerSecond = 2.0;
+
+    /** Requests that may be sent back-to-back before the account rate applies. */
+    private int burst = 4;
+
+    /** Sustained dispatcher sends per second for a single tenant; keeps one state from starving the others. */
+    private double tenantRatePerSecond = 0;
+
+    /** Back-to-back dispatcher sends allowed per tenant. */
+    private int tenantBurst = 2;
+
+    /** Maximum number of dispatcher sends in flight against Glific at once. */
+    private int maxInFlight = 4;
+
+    /** Sends accepted by the dispatcher (queued, in flight or waiting to retry) before further ones are rejected. */
+    private int queueCapacity = 500;
+
+    /** Total attempts per send, including the first. */
+    private int maxAttempts = 4;
+
+    /** Delay before the first retry; doubles on every further attempt. */
+    private long retryBaseDelayMs = 5_000L;
+
+    /** Upper bound for the retry delay, also applied to a server-supplied Retry-After. */
+    private long retryMaxDelayMs = 120_000L;
+
+    /** Time allowed on shutdown for queued and in-flight sends to finish. */
+    private long shutdownTimeoutMs = 20_000L;
+}
@@ -0,0 +1,47 @@
+package org.arghyam.jalsoochak.message.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Concurrency and in-flight limits of the notification listener lanes.
+ * Bound from the {@code notification.listener.*} namespace in application.yml.
+ *
+ * <p>The bulk lane consumes {@code common-topic} (nudges, escalations, staff sync); the
+ * priority lane consumes {@code notification-priority-topic} (login OTPs, onboarding and
+ * account emails). Each lane has its own consumers, so a nudge backlog never delays an OTP.</p>
+ */
+@ConfigurationProperties(prefix = "notification.listener")
+@Data
+public class NotificationListenerProperties {
+
+    private Lane bulk = new Lane(1, 32);
+
+    private Lane priority = new Lane(2, 16);
+
+    /**
+     * Delay before a send rejected by a full queue, or a failed dead-letter publish, is tried
+     * again; doubled per attempt. The record is held, unacknowledged, meanwhile.
+     */
+    private long rejectedRetryDelayMs = 1_000;
+
+    /** Upper bound for {@link #rejectedRetryDelayMs} after doubling. */
+    private long rejectedRetryMaxDelayMs = 60_000;
+
+    /** Retries of a send rejected by a full queue before the record is dead-lettered. */
+    private int rejectedRetryMaxAttempts = 10;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Lane {
+
+        /** Listener threads (consumers) for the lane's topic. */
+        private int concurrency;
+
+        /** Records whose send is still outstanding before the lane stops taking new ones. */
+        private int maxInFlight;
+    }
+}
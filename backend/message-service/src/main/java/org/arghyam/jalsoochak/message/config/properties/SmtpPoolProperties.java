@@ -0,0 +1,40 @@
+package org.arghyam.jalsoochak.message.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection pooling, batching and retries for outbound SMTP email.
+ * Bound from the {@code notification.channel.smtp.pool.*} namespace in application.yml.
+ */
+@ConfigurationProperties(prefix = "notification.channel.smtp.pool")
+@Data
+public class SmtpPoolProperties {
+
+    /** Authenticated SMTP connections kept open, each served by its own sender thread. */
+    private int connections = 2;
+
+    /** Queued messages a sender takes at once and sends back-to-back over its connection. */
+    private int batchSize = 20;
+
+    /** Messages sent over one connection before it is reopened; many servers cap this per session. */
+    private int maxMessagesPerConnection = 100;
+
+    /** A connection with nothing to send for this long is closed. */
+    private long idleTimeoutMs = 30_000L;
+
+    /** Messages accepted (queued, sending or waiting to retry) before further ones are rejected. */
+    private int queueCapacity = 200;
+
+    /** Total attempts per message, including the first. */
+    private int maxAttempts = 3;
+
+    /** Delay before the first retry; doubles on every further attempt. */
+    private long retryBaseDelayMs = 2_000L;
+
+    /** Upper bound for the retry delay. */
+    private long retryMaxDelayMs = 60_000L;
+
+    /** Time allowed on shutdown for queued messages to be sent. */
+    private long shutdownTimeoutMs = 15_000L;
+}
@@ -0,0 +1,52 @@
+package org.arghyam.jalsoochak.message.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Batching, retries and circuit breaking for outbound webhook notifications.
+ * Bound from the {@code notification.channel.webhook.dispatch.*} namespace in application.yml.
+ */
+@ConfigurationProperties(prefix = "notification.channel.webhook.dispatch")
+@Data
+public class WebhookDispatchProperties {
+
+    /** Notifications sent to one endpoint in a single request. */
+    private int maxBatchSize = 50;
+
+    /** How long a notification may wait for others to the same endpoint before its batch is sent. */
+    private long lingerMs = 200L;
+
+    /** Notifications buffered in memory across all endpoints before new ones are refused. */
+    private int maxBuffered = 10_000;
+
+    /** Timeout of a single webhook request. */
+    private long requestTimeoutMs = 10_000L;
+
+    /** Total delivery attempts per notification, including the first; then it is dead-lettered. */
+    private int maxAttempts = 6;
+
+    /** Delay before the first retry; doubles on every further attempt. */
+    private long retryBaseDelayMs = 5_000L;
+
+    /** Upper bound for the retry delay. */
+    private long retryMaxDelayMs = 600_000L;
+
+    /** How often the persistent retry queue is polled for due notifications. */
+    private long retryPollIntervalMs = 5_000L;
+
+    /** Due notifications claimed from the retry queue per poll. */
+    private int retryPollLimit = 500;
+
+    /** How long claimed notifications are hidden from other pollers while they are being sent. */
+    private long retryLeaseMs = 60_000L;
+
+    /** Consecutive failed requests after which an endpoint's circuit opens. */
+    private int circuitFailureThreshold = 5;
+
+    /** How long an open circuit rejects requests before a single trial request is let through. */
+    private long circuitOpenMs = 60_000L;
+
+    /** How long an endpoint may go unused before its buffer and closed circuit are dropped from memory. */
+    private long endpointIdleMs = 600_000L;
+}
@@ -38,8 +38,8 @@ public class ApiController {
 
     // ── POST send a notification via the specified channel ────
 
-    // Offloaded to boundedElastic: WebhookChannel and EmailChannel call .block() internally,
-    // which must not run on the Netty event-loop thread. GlificGraphQLClient also uses .block()
+    // Offloaded to boundedElastic: EmailChannel calls .block() internally, which must not run
+    // on the Netty event-loop thread (WebhookChannel only queues on WebhookDispatcher). GlificGraphQLClient also uses .block()
     // but is only ever called from Kafka listener threads, so it is unaffected by this change.
     @PostMapping("/notifications/send")
     public Mono<ResponseEntity<String>> sendNotification(@RequestBody NotificationRequest request) {
@@ -1,21 +1,201 @@
 package org.arghyam.jalsoochak.message.kafka;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.arghyam.jalsoochak.message.config.properties.NotificationListenerProperties;
 import org.arghyam.jalsoochak.message.service.NotificationEventRouter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Consumes notification events on two lanes with manual, asynchronous acknowledgment.
+ *
+ * <p>The bulk lane reads {@link #COMMON_TOPIC} (nudges, escalations, staff sync); the priority
+ * lane reads {@link #PRIORITY_TOPIC} (login OTPs, onboarding and account emails). Each lane has
+ * its own consumers and in-flight limit, so an OTP never waits behind a nudge run. Both lanes
+ * route every event type, so events still published to {@code common-topic} are handled.</p>
+ *
+ * <p>Glific sends are started and the listener moves on to the next record; each record is
+ * acknowledged when its send completes. The container runs with {@code asyncAcks}, so offsets
+ * are only committed once every earlier record of the partition has been acknowledged. When a
+ * lane's {@code max-in-flight} sends are outstanding, its listener container is paused and
+ * resumed once a send completes. The listener thread never waits for a send, so a saturated
+ * downstream cannot hold {@code poll()} past {@code max.poll.interval.ms}. With
+ * {@code pauseImmediate}, each consumer stops after the record in hand, so a lane may briefly
+ * run up to its concurrency minus one over the limit.</p>
+ *
+ * <p>Events handled synchronously keep the container's retry/DLT policy. A send that fails
+ * after its own retries is published to the lane topic's {@code .DLT} and acknowledged once the
+ * broker has the dead letter. Until then the record is held like a rejected send, below, and
+ * the publish is retried.</p>
+ *
+ * <p>A send rejected because the SMTP or Glific queue is full has not been started. The record
+ * stays unacknowledged and keeps its in-flight slot while the send is tried again with back-off
+ * ({@code notification.listener.rejected-retry-*}), up to {@code rejected-retry-max-attempts}
+ * times; then it is dead-lettered like a failed send. A saturated downstream therefore fills the
+ * lane and pauses it, and offsets are not committed past a held record, so it is redelivered if
+ * the service stops first. The container cannot redeliver it instead: {@code nack()} is not
+ * supported with {@code asyncAcks}.</p>
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumer {
 
+    static final String COMMON_TOPIC = "common-topic";
+    static final String PRIORITY_TOPIC = "notification-priority-topic";
+    static final String BULK_LISTENER_ID = "notification-bulk";
+    static final String PRIORITY_LISTENER_ID = "notification-priority";
+
     private final NotificationEventRouter notificationEventRouter;
+    private final KafkaProducer kafkaProducer;
+    private final NotificationLaneMetrics metrics;
+    private final KafkaListenerEndpointRegistry registry;
+    private final Lane bulk;
+    private final Lane priority;
+    private final Retry whileRejected;
+    private final Retry untilDeadLettered;
+
+    public KafkaConsumer(NotificationEventRouter notificationEventRouter,
+                         KafkaProducer kafkaProducer,
+                         NotificationListenerProperties properties,
+                         NotificationLaneMetrics metrics,
+                         KafkaListenerEndpointRegistry registry) {
+        this.notificationEventRouter = notificationEventRouter;
+        this.kafkaProducer = kafkaProducer;
+        this.metrics = metrics;
+        this.registry = registry;
+        this.bulk = new Lane("bulk", COMMON_TOPIC, BULK_LISTENER_ID, properties.getBulk().getMaxInFlight());
+        this.priority = new Lane("priority", PRIORITY_TOPIC, PRIORITY_LISTENER_ID,
+                properties.getPriority().getMaxInFlight());
+        for (Lane lane : new Lane[] {bulk, priority}) {
+            metrics.registerInFlight(lane.name, lane::inFlight);
+        }
+        this.whileRejected = Retry.backoff(properties.getRejectedRetryMaxAttempts(),
+                        Duration.ofMillis(properties.getRejectedRetryDelayMs()))
+                .maxBackoff(Duration.ofMillis(properties.getRejectedRetryMaxDelayMs()))
+                .filter(KafkaConsumer::isRejected)
+                .doBeforeRetry(retry -> log.warn("[message-service] Send rejected ({}), holding the record "
+                        + "and retrying (attempt {})", retry.failure().getMessage(), retry.totalRetries() + 1));
+        this.untilDeadLettered = Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(properties.getRejectedRetryDelayMs()))
+                .maxBackoff(Duration.ofMillis(properties.getRejectedRetryMaxDelayMs()));
+    }
+
+    @KafkaListener(id = BULK_LISTENER_ID, idIsGroup = false, topics = COMMON_TOPIC,
+            groupId = "${spring.kafka.consumer.group-id}", clientIdPrefix = "notification-bulk",
+            concurrency = "${notification.listener.bulk.concurrency:1}")
+    public void consume(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        dispatch(bulk, record, ack);
+    }
+
+    @KafkaListener(id = PRIORITY_LISTENER_ID, idIsGroup = false, topics = PRIORITY_TOPIC,
+            groupId = "${spring.kafka.consumer.group-id}", clientIdPrefix = "notification-priority",
+            concurrency = "${notification.listener.priority.concurrency:2}")
+    public void consumePriority(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        dispatch(priority, record, ack);
+    }
+
+    private void dispatch(Lane lane, ConsumerRecord<String, String> record, Acknowledgment ack) {
+        String message = record.value();
+        log.debug("[message-service] Received message from {}: {}", lane.topic, message);
+        long producedAt = record.timestamp();
+        metrics.recordPickedUp(lane.name, producedAt);
+
+        lane.admit();
+        Mono<Void> send;
+        try {
+            send = notificationEventRouter.routeAsync(message);
+        } catch (RuntimeException e) {
+            lane.release();
+            metrics.recordCompleted(lane.name, producedAt, false);
+            throw e;
+        }
+        send.retryWhen(whileRejected)
+                .doOnEach(signal -> {
+                    if (signal.isOnComplete() || signal.isOnError()) {
+                        metrics.recordCompleted(lane.name, producedAt, signal.isOnComplete());
+                    }
+                })
+                .onErrorResume(e -> deadLetter(lane, message, e))
+                .doOnTerminate(lane::release)
+                .subscribe(null,
+                        e -> log.error("[message-service] Record from {} left unacknowledged: {}",
+                                lane.topic, e.getMessage(), e),
+                        ack::acknowledge);
+    }
+
+    /** A full (or stopping) SMTP or Glific queue; the send was never started. */
+    private static boolean isRejected(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Publishes the failed record to the lane's DLT, retrying until the broker accepts it. The
+     * caller acknowledges the record only after this completes, so a record is never dropped
+     * because its dead letter could not be written.
+     */
+    private Mono<Void> deadLetter(Lane lane, String message, Throwable cause) {
+        String dltTopic = lane.topic + ".DLT";
+        log.error("[message-service] Send failed, publishing to {}: {}", dltTopic, cause.getMessage());
+        return Mono.fromFuture(() -> kafkaProducer.publishRaw(dltTopic, message))
+                .doOnError(e -> log.error("[message-service] Failed to publish to {}, holding the record "
+                        + "and retrying: {}", dltTopic, e.getMessage(), e))
+                .retryWhen(untilDeadLettered)
+                .then();
+    }
+
+    /** A lane's outstanding sends; pauses the lane's container at {@code maxInFlight}. */
+    private final class Lane {
+
+        private final String name;
+        private final String topic;
+        private final String listenerId;
+        private final int maxInFlight;
+        private int inFlight;
+        private boolean paused;
+
+        Lane(String name, String topic, String listenerId, int maxInFlight) {
+            this.name = name;
+            this.topic = topic;
+            this.listenerId = listenerId;
+            this.maxInFlight = maxInFlight;
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        synchronized void admit() {
+            inFlight++;
+            if (!paused && inFlight >= maxInFlight) {
+                paused = true;
+                log.info("[message-service] {} sends in flight on the {} lane, pausing its listener", inFlight, name);
+                container().pause();
+            }
+        }
+
+        synchronized void release() {
+            inFlight--;
+            if (paused && inFlight < maxInFlight) {
+                paused = false;
+                container().resume();
+            }
+        }
 
-    @KafkaListener(topics = "common-topic", groupId = "${spring.kafka.consumer.group-id}")
-    public void consume(String message) {
-        log.debug("[message-service] Received message from common-topic: {}", message);
-        notificationEventRouter.route(message);
+        private MessageListenerContainer container() {
+            return registry.getListenerContainer(listenerId);
+        }
     }
 }
@@ -5,8 +5,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -22,6 +25,14 @@ public class KafkaProducer {
         kafkaTemplate.send(TOPIC, message);
     }
 
+    /**
+     * Publishes an already-serialized payload as-is and returns the send result.
+     */
+    public CompletableFuture<SendResult<String, String>> publishRaw(String topic, String payload) {
+        log.info("Publishing raw payload to topic [{}]", topic);
+        return kafkaTemplate.send(topic, payload);
+    }
+
     public void publishJson(String topic, Object event) {
         try {
             String json = objectMapper.writeValueAsString(event);
@@ -0,0 +1,76 @@
+package org.arghyam.jalsoochak.message.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-lane listener metrics, tagged with {@code lane}:
+ * <ul>
+ *   <li>{@code notification.lane.queue.delay} – time from the producer timestamp of a record
+ *       until the listener picks it up; this is the lane's lag expressed in time.</li>
+ *   <li>{@code notification.lane.latency} – time from the producer timestamp until the send
+ *       completes, tagged {@code outcome=success|failure}; the end-to-end delivery latency.</li>
+ *   <li>{@code notification.lane.in.flight} – records whose send is still outstanding.</li>
+ * </ul>
+ * Offset lag per partition is published by the Kafka client itself
+ * ({@code kafka.consumer.fetch.manager.records.lag}), tagged with the lane's client id.
+ */
+@Component
+public class NotificationLaneMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public NotificationLaneMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void registerInFlight(String lane, Supplier<Number> inFlight) {
+        Gauge.builder("notification.lane.in.flight", inFlight)
+                .description("Records whose send is still outstanding")
+                .tag("lane", lane)
+                .register(registry);
+    }
+
+    /**
+     * @param producedAt record timestamp in epoch millis, or a negative value if unknown
+     */
+    public void recordPickedUp(String lane, long producedAt) {
+        if (producedAt >= 0) {
+            timer("notification.lane.queue.delay", lane, null).record(sinceMillis(producedAt));
+        }
+    }
+
+    /**
+     * @param producedAt record timestamp in epoch millis, or a negative value if unknown
+     */
+    public void recordCompleted(String lane, long producedAt, boolean success) {
+        if (producedAt >= 0) {
+            timer("notification.lane.latency", lane, success ? "success" : "failure").record(sinceMillis(producedAt));
+        }
+    }
+
+    private Timer timer(String name, String lane, String outcome) {
+        return timers.computeIfAbsent(name + '|' + lane + '|' + outcome, key -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .tag("lane", lane)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofHours(1));
+            if (outcome != null) {
+                builder.tag("outcome", outcome);
+            }
+            return builder.register(registry);
+        });
+    }
+
+    private static Duration sinceMillis(long epochMillis) {
+        return Duration.ofMillis(Math.max(0, System.currentTimeMillis() - epochMillis));
+    }
+}
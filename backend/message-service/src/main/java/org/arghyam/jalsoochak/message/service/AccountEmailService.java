@@ -7,9 +7,14 @@ import org.arghyam.jalsoochak.message.dto.NotificationRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.HtmlUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Builds and dispatches account lifecycle emails (invite, reinvite, password reset)
  * via {@link SmtpMailChannel}.
+ *
+ * <p>Each method queues the email and returns a future that completes once it was sent,
+ * or exceptionally once sending failed.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -155,45 +160,42 @@ public class AccountEmailService {
 
     // ── Public methods ────────────────────────────────────────────────────────────
 
-    public void sendInviteEmail(String to, String name, String role, String inviteLink, int expiryHours) {
+    public CompletableFuture<Void> sendInviteEmail(String to, String name, String role, String inviteLink, int expiryHours) {
         String subject = resolveInviteSubject(role);
         String safeGreeting = resolveGreeting(name);
         String safeLink = HtmlUtils.htmlEscape(inviteLink);
         String body = EMAIL_WRAPPER.formatted(subject,
                 INVITE_BODY.formatted(safeGreeting, safeLink, expiryHours, safeLink));
-        dispatch(to, subject, body);
+        return dispatch(to, subject, body);
     }
 
-    public void sendReinviteEmail(String to, String name, String inviteLink, int expiryHours) {
+    public CompletableFuture<Void> sendReinviteEmail(String to, String name, String inviteLink, int expiryHours) {
         String subject = "Reminder: Your JalSoochak Invitation";
         String safeGreeting = resolveGreeting(name);
         String safeLink = HtmlUtils.htmlEscape(inviteLink);
         String body = EMAIL_WRAPPER.formatted(subject,
                 REINVITE_BODY.formatted(safeGreeting, safeLink, expiryHours, safeLink));
-        dispatch(to, subject, body);
+        return dispatch(to, subject, body);
     }
 
-    public void sendPasswordResetEmail(String to, String resetLink, int expiryMinutes) {
+    public CompletableFuture<Void> sendPasswordResetEmail(String to, String resetLink, int expiryMinutes) {
         String subject = "Reset Your JalSoochak Password";
         String safeLink = HtmlUtils.htmlEscape(resetLink);
         String body = EMAIL_WRAPPER.formatted(subject,
                 RESET_PASSWORD_BODY.formatted(safeLink, expiryMinutes, safeLink));
-        dispatch(to, subject, body);
+        return dispatch(to, subject, body);
     }
 
     // ── Private helpers ───────────────────────────────────────────────────────
 
-    private void dispatch(String to, String subject, String htmlBody) {
+    private CompletableFuture<Void> dispatch(String to, String subject, String htmlBody) {
         NotificationRequest request = NotificationRequest.builder()
                 .recipient(to)
                 .subject(subject)
                 .body(htmlBody)
                 .channel(SmtpMailChannel.CHANNEL_TYPE)
                 .build();
-        boolean sent = smtpMailChannel.send(request);
-        if (!sent) {
-            throw new RuntimeException("Failed to send email via SMTP — see SmtpMailChannel logs for details");
-        }
+        return smtpMailChannel.sendAsync(request);
     }
 
     private static String resolveGreeting(String name) {
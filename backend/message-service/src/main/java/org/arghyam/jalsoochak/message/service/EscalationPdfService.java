@@ -1,6 +1,7 @@
 package org.arghyam.jalsoochak.message.service;
 
 import org.arghyam.jalsoochak.message.dto.OperatorEscalationDetail;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -11,57 +12,101 @@ import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Generates an escalation PDF report for a given officer using Apache PDFBox.
- * The PDF is saved to the configured report directory and the filename is returned
- * so that it can be uploaded to MinIO.
+ * The PDF is rendered into memory and returned with its object name, so that it can be
+ * uploaded to MinIO without touching the local disk.
+ *
+ * <p>Reports are rendered on a dedicated pool ({@code escalation.report.render-threads}).
+ * Each pool thread keeps its own fonts across documents: PDFBox writers stamp object keys
+ * onto the font dictionaries they save, so font instances must not be shared between
+ * documents that are saved concurrently.</p>
  */
 @Service
 @Slf4j
 public class EscalationPdfService {
 
-    @Value("${escalation.report.dir:/tmp/escalation-reports/}")
-    private String reportDir;
-
     private static final float MARGIN = 50f;
     private static final float LINE_HEIGHT = 15f;
-    private static final float PAGE_WIDTH = PDRectangle.A4.getWidth();
+    private static final float LABEL_WIDTH = 180f;
     private static final float PAGE_HEIGHT = PDRectangle.A4.getHeight();
-    private static final float CONTENT_WIDTH = PAGE_WIDTH - 2 * MARGIN;
+    /** Lines taken by one operator block: index, seven fields and a blank line. */
+    private static final int LINES_PER_OPERATOR = 9;
+    private static final String[] FIELD_LABELS = {
+            "   Name:", "   Phone Number:", "   Scheme Name:", "   Scheme ID:",
+            "   SO Name:", "   Consecutive Days Missed:", "   Last Recorded BFM Date:"
+    };
+    /** Rough size of the document skeleton and of one operator block, used to pre-size the buffer. */
+    private static final int BASE_BYTES = 2_048;
+    private static final int BYTES_PER_OPERATOR = 640;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final ThreadLocal<Fonts> FONTS = ThreadLocal.withInitial(Fonts::new);
+
+    private final int maxReportBytes;
+    private final ExecutorService renderPool;
+
+    public EscalationPdfService(
+            @Value("${escalation.report.render-threads:0}") int renderThreads,
+            @Value("${escalation.report.max-bytes:8388608}") int maxReportBytes) {
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        this.maxReportBytes = maxReportBytes;
+        this.renderPool = Executors.newFixedThreadPool(threads, new RenderThreadFactory());
+    }
 
     /**
-     * Generates the escalation PDF and saves it to the report directory.
+     * Renders the escalation PDF on the render pool.
      *
-     * @param officerUserType the officer's configured role/designation (e.g. "JE", "SECTION_OFFICER")
-     * @return the filename (not the full path) of the saved PDF
+     * @see #render(List, int, String, String)
      */
-    public String generate(List<OperatorEscalationDetail> operators, int level, String officerName,
-                           String officerUserType) throws IOException {
-        ensureReportDirExists();
+    public CompletableFuture<EscalationReport> renderAsync(List<OperatorEscalationDetail> operators, int level,
+                                                           String officerName, String officerUserType) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return render(operators, level, officerName, officerUserType);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, renderPool);
+    }
 
-        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    /**
+     * Renders the escalation PDF into memory on the calling thread.
+     *
+     * @param officerUserType the officer's configured role/designation (e.g. "JE", "SECTION_OFFICER")
+     * @return the object name and PDF bytes
+     * @throws IOException if rendering fails or the PDF grows beyond {@code escalation.report.max-bytes}
+     */
+    public EscalationReport render(List<OperatorEscalationDetail> operators, int level, String officerName,
+                                   String officerUserType) throws IOException {
+        String dateStr = LocalDate.now().format(DATE_FORMAT);
         String safeOfficerName = (officerName != null ? officerName : "Unknown")
                 .replaceAll("[^a-zA-Z0-9_\\-]", "_");
         String filename = String.format("escalation_L%d_%s_%s-%s.pdf",
                 level, safeOfficerName, dateStr, UUID.randomUUID());
-        Path filePath = Paths.get(reportDir, filename);
 
         String roleLabel = (officerUserType != null && !officerUserType.isBlank())
                 ? officerUserType : ("Level " + level);
 
-        try (PDDocument doc = new PDDocument()) {
-            PDType1Font boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-            PDType1Font regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        Fonts fonts = FONTS.get();
+        BoundedByteArrayOutputStream out = new BoundedByteArrayOutputStream(
+                Math.min(maxReportBytes, BASE_BYTES + BYTES_PER_OPERATOR * operators.size()), maxReportBytes);
 
+        try (PDDocument doc = new PDDocument()) {
             // Track current page and Y position
             PDPage page = new PDPage(PDRectangle.A4);
             doc.addPage(page);
@@ -69,7 +114,7 @@ public class EscalationPdfService {
             float y = PAGE_HEIGHT - MARGIN;
 
             // Title
-            y = writeLine(cs, boldFont, 14,
+            y = writeLine(cs, fonts.bold, 14,
                     String.format("Jalmitra Escalations — %s — %s Officer: %s",
                             dateStr, roleLabel, officerName),
                     MARGIN, y);
@@ -78,8 +123,7 @@ public class EscalationPdfService {
             for (int i = 0; i < operators.size(); i++) {
                 OperatorEscalationDetail op = operators.get(i);
 
-                // Check if we need a new page (7 lines per operator + 2 spacing)
-                if (y < MARGIN + 9 * LINE_HEIGHT) {
+                if (y < MARGIN + LINES_PER_OPERATOR * LINE_HEIGHT) {
                     cs.close();
                     page = new PDPage(PDRectangle.A4);
                     doc.addPage(page);
@@ -87,28 +131,40 @@ public class EscalationPdfService {
                     y = PAGE_HEIGHT - MARGIN;
                 }
 
-                y = writeLine(cs, boldFont, 11, (i + 1) + ".", MARGIN, y);
-                y = writeLabelValue(cs, boldFont, regularFont, "   Name:", op.getName(), y);
-                y = writeLabelValue(cs, boldFont, regularFont, "   Phone Number:", op.getPhoneNumber(), y);
-                y = writeLabelValue(cs, boldFont, regularFont, "   Scheme Name:", op.getSchemeName(), y);
-                y = writeLabelValue(cs, boldFont, regularFont, "   Scheme ID:", op.getSchemeId(), y);
-                y = writeLabelValue(cs, boldFont, regularFont, "   SO Name:", op.getSoName(), y);
                 String daysMissedText = op.getConsecutiveDaysMissed() != null
                         ? String.valueOf(op.getConsecutiveDaysMissed()) : "Never";
-                y = writeLabelValue(cs, boldFont, regularFont, "   Consecutive Days Missed:",
-                        daysMissedText, y);
                 String bfmDate = (op.getLastRecordedBfmDate() == null || op.getLastRecordedBfmDate().isBlank())
                         ? "Never" : op.getLastRecordedBfmDate();
-                y = writeLabelValue(cs, boldFont, regularFont, "   Last Recorded BFM Date:", bfmDate, y);
+                String[] values = {
+                        op.getName(), op.getPhoneNumber(), op.getSchemeName(), op.getSchemeId(),
+                        op.getSoName(), daysMissedText, bfmDate
+                };
+
+                y = writeLine(cs, fonts.bold, 11, (i + 1) + ".", MARGIN, y);
+                for (int f = 0; f < FIELD_LABELS.length; f++) {
+                    y = writeLabelValue(cs, fonts, FIELD_LABELS[f], values[f], y);
+                }
                 y -= LINE_HEIGHT;
             }
 
             cs.close();
-            doc.save(filePath.toFile());
+            try {
+                doc.save(out);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
         }
 
-        log.info("[EscalationPdf] Saved report to {}", filePath);
-        return filename;
+        log.info("[EscalationPdf] Rendered report {} ({} bytes)", filename, out.size());
+        return new EscalationReport(filename, out.toByteArray());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        renderPool.shutdown();
+        if (!renderPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            renderPool.shutdownNow();
+        }
     }
 
     private float writeLine(PDPageContentStream cs, PDType1Font font, float size,
@@ -121,30 +177,82 @@ public class EscalationPdfService {
         return y - LINE_HEIGHT;
     }
 
-    private float writeLabelValue(PDPageContentStream cs,
-                                   PDType1Font boldFont, PDType1Font regularFont,
+    private float writeLabelValue(PDPageContentStream cs, Fonts fonts,
                                    String label, String value, float y) throws IOException {
-        float labelWidth = 180f;
         // Label
         cs.beginText();
-        cs.setFont(boldFont, 10);
+        cs.setFont(fonts.bold, 10);
         cs.newLineAtOffset(MARGIN, y);
         cs.showText(label);
         cs.endText();
         // Value
         cs.beginText();
-        cs.setFont(regularFont, 10);
-        cs.newLineAtOffset(MARGIN + labelWidth, y);
+        cs.setFont(fonts.regular, 10);
+        cs.newLineAtOffset(MARGIN + LABEL_WIDTH, y);
         cs.showText(value != null ? value : "");
         cs.endText();
         return y - LINE_HEIGHT;
     }
 
-    private void ensureReportDirExists() throws IOException {
-        Path dir = Paths.get(reportDir);
-        if (!Files.exists(dir)) {
-            Files.createDirectories(dir);
-            log.info("[EscalationPdf] Created report directory: {}", dir);
+    /**
+     * A rendered escalation report.
+     *
+     * @param filename MinIO object name, unique per report
+     * @param content  PDF bytes
+     */
+    public record EscalationReport(String filename, byte[] content) {
+
+        @Override
+        public String toString() {
+            return "EscalationReport[filename=" + filename + ", bytes=" + content.length + "]";
+        }
+    }
+
+    private static final class Fonts {
+
+        private final PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        private final PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    }
+
+    /** Fails the write instead of growing past {@code limit}, so one oversized report cannot exhaust the heap. */
+    private static final class BoundedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private final int limit;
+
+        BoundedByteArrayOutputStream(int initialSize, int limit) {
+            super(initialSize);
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            super.write(b, off, len);
+        }
+
+        private void ensureCapacity(int len) {
+            if (count + len > limit) {
+                throw new UncheckedIOException(new IOException(
+                        "Escalation report exceeds escalation.report.max-bytes (" + limit + " bytes)"));
+            }
+        }
+    }
+
+    private static final class RenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "escalation-pdf-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 }
@@ -1,15 +1,15 @@
 package org.arghyam.jalsoochak.message.service;
 
 import io.minio.MinioClient;
-import io.minio.UploadObjectArgs;
+import io.minio.PutObjectArgs;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.nio.file.Path;
+import java.io.ByteArrayInputStream;
 
 /**
- * Uploads escalation PDF files to MinIO and returns a public URL.
+ * Uploads escalation PDF reports to MinIO and returns a public URL.
  */
 @Service
 @Slf4j
@@ -40,19 +40,19 @@ public class MinioStorageService {
     }
 
     /**
-     * Uploads the local PDF file at {@code localPath} to MinIO and returns
-     * the public URL.
+     * Uploads the in-memory PDF {@code content} to MinIO under {@code objectName}
+     * and returns the public URL.
      *
-     * @param localPath local path to the PDF file
+     * @param objectName object name, e.g. the report filename
+     * @param content    PDF bytes
      * @return public URL pointing to the uploaded object
      */
-    public String upload(Path localPath) throws Exception {
-        String objectName = localPath.getFileName().toString();
-        log.info("[MinIO] Uploading escalation report: {}", objectName);
-        minioClient.uploadObject(UploadObjectArgs.builder()
+    public String upload(String objectName, byte[] content) throws Exception {
+        log.info("[MinIO] Uploading escalation report: {} ({} bytes)", objectName, content.length);
+        minioClient.putObject(PutObjectArgs.builder()
                 .bucket(bucket)
                 .object(objectName)
-                .filename(localPath.toString())
+                .stream(new ByteArrayInputStream(content), content.length, -1)
                 .contentType("application/pdf")
                 .build());
         String url = minioBaseUrl + "/" + bucket + "/" + objectName;
@@ -1,12 +1,16 @@
 package org.arghyam.jalsoochak.message.service;
 
+import org.arghyam.jalsoochak.message.channel.GlificContactCache;
+import org.arghyam.jalsoochak.message.channel.GlificDispatcher;
 import org.arghyam.jalsoochak.message.channel.GlificWhatsAppService;
+import org.arghyam.jalsoochak.message.channel.SmtpTransportPool;
 import org.arghyam.jalsoochak.message.channel.WhatsAppChannel;
 import org.arghyam.jalsoochak.message.dto.OperatorEscalationDetail;
 import org.arghyam.jalsoochak.message.event.InviteEmailEvent;
 import org.arghyam.jalsoochak.message.event.ResetPasswordEmailEvent;
 import org.arghyam.jalsoochak.message.event.WhatsAppContactRegisteredEvent;
 import org.arghyam.jalsoochak.message.kafka.KafkaProducer;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
@@ -15,10 +19,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -26,15 +30,22 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Routes incoming Kafka JSON messages to the appropriate notification handler
  * based on the {@code eventType} field.
  *
  * <ul>
- *   <li>{@code NUDGE} — fetches the localized message from tenant config and
- *       sends it as a WhatsApp HSM to the operator.</li>
+ *   <li>{@code NUDGE} — queues a WhatsApp nudge flow for the operator on
+ *       {@link GlificDispatcher}.</li>
+ *   <li>{@code NUDGE_OPT_IN_BATCH} — opts in, ahead of a nudge run, the operators that
+ *       have no Glific contact yet and are not in {@link GlificContactCache}.</li>
  *   <li>{@code ESCALATION} — generates a PDF, uploads it to MinIO, fetches
  *       the localized body text, and sends a document HSM to the officer.</li>
  *   <li>{@code STAFF_SYNC_COMPLETED} — onboards pump operators into Glific and
@@ -79,6 +90,9 @@ public class NotificationEventRouter {
      * sent to the same recipient. Routing to this DLT instead lets the Kafka
      * container move on while preserving the failed record for ops investigation
      * and controlled replay.
+     * The one exception is a full SMTP queue ({@link SmtpTransportPool}): nothing
+     * has been sent then, so the error is signalled and {@code KafkaConsumer} holds the
+     * record unacknowledged and tries the send again once the queue has room.
      *
      * <p>This service intentionally does <em>not</em> consume this topic.
      * Re-consuming from the same service that produces here would create an
@@ -91,19 +105,32 @@ public class NotificationEventRouter {
      */
     private static final String ACCOUNT_EMAIL_DLT_TOPIC = "account-email-dlt";
 
+    /**
+     * Dead-letter topic for {@code NUDGE} events that {@link GlificDispatcher} could not
+     * deliver: permanent Glific errors, or transient ones that outlasted the dispatcher's
+     * retry budget ({@code glific.dispatch.max-attempts}).
+     *
+     * <p>A nudge's Kafka record is acknowledged only once the nudge was sent or its record here
+     * was written; if this publish fails, the nudge's {@code Mono} fails and the consumer
+     * dead-letters the original record instead. Like the other dead-letter topics this one is
+     * not consumed by this service; each record carries a {@code retryId} (UUID) that is
+     * stable for the operator and day, for idempotent downstream reprocessing.
+     */
+    private static final String NUDGE_DLT_TOPIC = "nudge-message-dlt";
+
     private final ObjectMapper objectMapper;
     private final WhatsAppChannel whatsAppChannel;
     private final GlificWhatsAppService glificWhatsAppService;
+    private final GlificDispatcher glificDispatcher;
+    private final GlificContactCache glificContactCache;
     private final KafkaProducer kafkaProducer;
     private final EscalationPdfService escalationPdfService;
     private final MinioStorageService minioStorageService;
     private final MessageTemplateService messageTemplateService;
     private final AccountEmailService accountEmailService;
+    private final ProcessedEventStore processedEventStore;
     private final JdbcTemplate jdbcTemplate;
 
-    @Value("${escalation.report.dir:/tmp/escalation-reports/}")
-    private String reportDir;
-
     @Value("${app.base-url:http://localhost:8085}")
     private String baseUrl;
 
@@ -128,22 +155,40 @@ public class NotificationEventRouter {
      * permanent non-retryable conditions and must not cause infinite retries.</p>
      */
     public void route(String json) {
+        routeAsync(json).block();
+    }
+
+    /**
+     * Routes the message without waiting for Glific.
+     *
+     * <p>{@code NUDGE}, {@code NUDGE_OPT_IN_BATCH}, {@code ESCALATION}, {@code SEND_LOGIN_OTP}
+     * and the account email events return a cold {@link Mono}
+     * that performs the send when subscribed and completes once it is done; their failures are
+     * signalled through the {@code Mono}. All other event types are handled before this method
+     * returns, and their failures are thrown as in {@link #route}.</p>
+     */
+    public Mono<Void> routeAsync(String json) {
         try {
             JsonNode root = objectMapper.readTree(json);
             String eventType = root.path("eventType").asText("");
 
-            switch (eventType.toUpperCase()) {
+            Mono<Void> send = switch (eventType.toUpperCase()) {
                 case "NUDGE" -> handleNudge(root);
+                case "NUDGE_OPT_IN_BATCH" -> handleNudgeOptInBatch(root);
                 case "ESCALATION" -> handleEscalation(root);
-                case "STAFF_SYNC_COMPLETED" -> handleStaffSyncCompleted(root);
-                case "UPDATE_USER_LANGUAGE" -> handleUpdateUserLanguage(root);
-                case "SEND_WELCOME_MESSAGE" -> handleSendWelcomeMessage(root);
                 case "SEND_LOGIN_OTP" -> handleSendLoginOtp(root);
                 case "SEND_INVITE_EMAIL" -> handleInviteEmail(root);
                 case "SEND_REINVITE_EMAIL" -> handleReinviteEmail(root);
                 case "SEND_PASSWORD_RESET_EMAIL" -> handlePasswordResetEmail(root);
-                default -> log.warn("[Router] Unknown eventType '{}', ignoring message", eventType);
-            }
+                default -> {
+                    routeBlocking(eventType, root);
+                    yield Mono.empty();
+                }
+            };
+            return send.onErrorMap(e -> {
+                log.error("[Router] Failed to process Kafka message: {}", e.getMessage(), e);
+                return new RuntimeException("Notification event processing failed", e);
+            });
         } catch (Exception e) {
             log.error("[Router] Failed to process Kafka message, rethrowing for container retry/DLT: {}",
                     e.getMessage(), e);
@@ -151,7 +196,22 @@ public class NotificationEventRouter {
         }
     }
 
-    private void handleNudge(JsonNode root) {
+    private void routeBlocking(String eventType, JsonNode root) {
+        switch (eventType.toUpperCase()) {
+            case "STAFF_SYNC_COMPLETED" -> handleStaffSyncCompleted(root);
+            case "UPDATE_USER_LANGUAGE" -> handleUpdateUserLanguage(root);
+            case "SEND_WELCOME_MESSAGE" -> handleSendWelcomeMessage(root);
+            default -> log.warn("[Router] Unknown eventType '{}', ignoring message", eventType);
+        }
+    }
+
+    /**
+     * Hands the nudge to {@link GlificDispatcher}, which sends it on its own workers so a
+     * slow or rate-limited Glific does not hold up the consumer. Transient failures are
+     * retried by the dispatcher; a nudge that still fails is published to {@link #NUDGE_DLT_TOPIC}.
+     * The returned {@code Mono} completes once either has happened, and fails if that publish fails.
+     */
+    private Mono<Void> handleNudge(JsonNode root) {
         String phone = root.path("recipientPhone").asText("");
         String operatorName = root.path("operatorName").asText("Operator");
         String tenantSchema = root.path("tenantSchema").asText("");
@@ -160,33 +220,130 @@ public class NotificationEventRouter {
 
         if (storedId <= 0 && phone.isBlank()) {
             log.warn("[Router/NUDGE] recipientPhone and whatsappConnectionId are both missing, skipping");
-            return;
+            return Mono.empty();
         }
 
         String todayDate = LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy"));
 
-        long contactId;
-        if (storedId > 0) {
-            contactId = storedId;
-        } else {
-            contactId = glificWhatsAppService.optIn(phone);
-            if (!tenantSchema.isBlank() && userId > 0 && contactId > 0) {
-                kafkaProducer.publishJson(COMMON_TOPIC,
-                        WhatsAppContactRegisteredEvent.builder()
-                                .eventType("WHATSAPP_CONTACT_REGISTERED")
-                                .tenantSchema(tenantSchema)
-                                .userId(userId)
-                                .contactId(contactId)
-                                .build());
+        // Resolved at most once, so a retry after a failed flow start does not opt the contact in again.
+        AtomicLong contactId = new AtomicLong(storedId);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        return Mono.fromFuture(() -> glificDispatcher.submit(tenantSchema, "Nudge flow", () -> {
+            if (contactId.get() <= 0) {
+                contactId.set(optInNudgeRecipient(phone, tenantSchema, userId));
             }
+            glificWhatsAppService.startNudgeFlow(contactId.get(), operatorName, todayDate);
+            log.info("[Router/NUDGE] → FLOW INITIATED");
+            log.debug("[Router/NUDGE] phone={} → FLOW INITIATED", phone);
+        }, failure::set))
+                .then(Mono.defer(() -> failure.get() == null
+                        ? Mono.empty()
+                        : Mono.fromFuture(() -> publishNudgeDlt(tenantSchema, userId, contactId.get(), phone,
+                                failure.get().getMessage())).then()));
+    }
+
+    /**
+     * Opts in every recipient of the coming nudge run that is not already in
+     * {@link GlificContactCache}, so the nudges themselves go out without an opt-in call.
+     * Cached recipients are only re-published as {@code WHATSAPP_CONTACT_REGISTERED}.
+     * A failed opt-in is logged and left to the recipient's nudge, which tries again.
+     */
+    private Mono<Void> handleNudgeOptInBatch(JsonNode root) {
+        String tenantSchema = root.path("tenantSchema").asText("");
+        Map<String, Long> userIdsByPhone = new LinkedHashMap<>();
+        for (JsonNode recipient : root.path("recipients")) {
+            String phone = recipient.path("phone").asText("");
+            if (!phone.isBlank()) {
+                userIdsByPhone.put(phone, recipient.path("userId").asLong(0));
+            }
+        }
+        if (userIdsByPhone.isEmpty()) {
+            log.warn("[Router/NUDGE_OPT_IN_BATCH] No recipients with a phone, skipping");
+            return Mono.empty();
+        }
+
+        Map<String, Long> cached = glificContactCache.findAll(userIdsByPhone.keySet());
+        cached.forEach((phone, contactId) ->
+                publishContactRegistered(tenantSchema, userIdsByPhone.get(phone), contactId));
+
+        List<Mono<Void>> optIns = new ArrayList<>();
+        userIdsByPhone.forEach((phone, userId) -> {
+            if (!cached.containsKey(phone)) {
+                optIns.add(Mono.fromFuture(() -> glificDispatcher.submit(tenantSchema, "Nudge opt-in",
+                                () -> optInAndRegister(phone, tenantSchema, userId),
+                                e -> log.warn("[Router/NUDGE_OPT_IN_BATCH] Opt-in failed for schema={}: {}",
+                                        tenantSchema, e.getMessage())))
+                        .onErrorResume(e -> {
+                            log.warn("[Router/NUDGE_OPT_IN_BATCH] Opt-in not queued for schema={}: {}",
+                                    tenantSchema, e.getMessage());
+                            return Mono.empty();
+                        }));
+            }
+        });
+        log.info("[Router/NUDGE_OPT_IN_BATCH] schema={} recipients={} cached={} opting in={}",
+                tenantSchema, userIdsByPhone.size(), cached.size(), optIns.size());
+        return Mono.when(optIns);
+    }
+
+    private long optInNudgeRecipient(String phone, String tenantSchema, long userId) {
+        OptionalLong cached = glificContactCache.find(phone);
+        if (cached.isPresent()) {
+            publishContactRegistered(tenantSchema, userId, cached.getAsLong());
+            return cached.getAsLong();
         }
+        return optInAndRegister(phone, tenantSchema, userId);
+    }
+
+    private long optInAndRegister(String phone, String tenantSchema, long userId) {
+        long contactId = glificWhatsAppService.optIn(phone);
+        glificContactCache.put(phone, contactId);
+        publishContactRegistered(tenantSchema, userId, contactId);
+        return contactId;
+    }
+
+    private void publishContactRegistered(String tenantSchema, long userId, long contactId) {
+        if (!tenantSchema.isBlank() && userId > 0 && contactId > 0) {
+            kafkaProducer.publishJson(COMMON_TOPIC,
+                    WhatsAppContactRegisteredEvent.builder()
+                            .eventType("WHATSAPP_CONTACT_REGISTERED")
+                            .tenantSchema(tenantSchema)
+                            .userId(userId)
+                            .contactId(contactId)
+                            .build());
+        }
+    }
 
-        boolean sent = whatsAppChannel.sendNudgeViaFlow(contactId, operatorName, todayDate);
-        if (!sent) {
-            throw new IllegalStateException("[Router/NUDGE] WhatsApp nudge flow initiation failed");
+    private CompletableFuture<?> publishNudgeDlt(String tenantSchema, long userId, long contactId, String phone,
+                                                 String errorMessage) {
+        String today = LocalDate.now().toString();
+        // One nudge per operator per day, so the day is part of the dedupe key.
+        String retryId = UUID.nameUUIDFromBytes(
+                ("NUDGE_RETRY:" + tenantSchema + ":" + userId + ":" + phone + ":" + today)
+                        .getBytes(StandardCharsets.UTF_8))
+                .toString();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("retryId", retryId);
+        payload.put("eventType", "NUDGE_RETRY");
+        payload.put("tenantSchema", tenantSchema);
+        payload.put("userId", userId);
+        payload.put("whatsappConnectionId", contactId);
+        payload.put("failedAt", Instant.now().toString());
+        payload.put("errorMessage", errorMessage);
+        // phone is PII — included so downstream can reprocess, but must not surface in INFO logs
+        payload.put("phone", phone);
+        log.debug("[Router/NUDGE] Publishing to DLT for schema={}", tenantSchema);
+        try {
+            // publishRaw, unlike publishJson, does not log the payload, which holds the phone.
+            return kafkaProducer.publishRaw(NUDGE_DLT_TOPIC, objectMapper.writeValueAsString(payload))
+                    .whenComplete((sent, e) -> {
+                        if (e != null) {
+                            log.error("[Router/NUDGE] Failed to publish to DLT for schema={}: {}",
+                                    tenantSchema, e.getMessage());
+                        }
+                    });
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        log.info("[Router/NUDGE] → FLOW INITIATED");
-        log.debug("[Router/NUDGE] phone={} → FLOW INITIATED", phone);
     }
 
     private void handleStaffSyncCompleted(JsonNode root) {
@@ -214,6 +371,7 @@ public class NotificationEventRouter {
             }
             try {
                 long contactId = whatsAppChannel.onboardOperator(phone, glificLanguageId);
+                glificContactCache.put(phone, contactId);
                 if (!tenantSchema.isBlank() && userId > 0 && contactId > 0) {
                     kafkaProducer.publishJson(COMMON_TOPIC,
                             WhatsAppContactRegisteredEvent.builder()
@@ -304,6 +462,13 @@ public class NotificationEventRouter {
             log.warn("[Router/WELCOME] pumpOperatorPhones is empty, skipping");
             return;
         }
+        // A welcome flow must start at most once per operator: drop redeliveries of an
+        // outbox event (same eventId). Claimed before sending, like the per-phone DLT below.
+        long eventId = root.path("eventId").asLong(0);
+        if (eventId > 0 && !processedEventStore.claim("SEND_WELCOME_MESSAGE", eventId)) {
+            log.info("[Router/WELCOME] eventId={} already handled, skipping redelivery", eventId);
+            return;
+        }
 
         String tenantSchema = "tenant_" + tenantCode;
         int success = 0, failed = 0;
@@ -340,7 +505,7 @@ public class NotificationEventRouter {
         // method is called again for the same phone (e.g. Kafka consumer retry),
         // downstream processors receive a record with the same retryId and can
         // safely deduplicate. UUID.nameUUIDFromBytes produces a deterministic
-        // UUID v3 for a given input; no upstream eventId is available in this payload.
+        // UUID v3 for a given input; the event's eventId covers all of its phones, not one.
         String retryId = UUID.nameUUIDFromBytes(
                 ("SEND_WELCOME_MESSAGE_RETRY:" + tenantSchema + ":" + phone)
                         .getBytes(StandardCharsets.UTF_8))
@@ -357,130 +522,131 @@ public class NotificationEventRouter {
         kafkaProducer.publishJson(WELCOME_DLT_TOPIC, payload);
     }
 
-    private void handleSendLoginOtp(JsonNode root) {
-        String officerName = root.path("officerName").asText("Officer");
+    private Mono<Void> handleSendLoginOtp(JsonNode root) {
         String otp = root.path("OTP").asText("");
         String glificId = root.path("glific_id").asText("").strip();
         String phone = root.path("officerPhoneNumber").asText("").strip();
 
         if (otp.isBlank()) {
             log.warn("[Router/SEND_LOGIN_OTP] OTP is missing, skipping");
-            return;
+            return Mono.empty();
         }
 
-        long contactId;
+        Mono<Long> contact;
         if (!glificId.isBlank()) {
+            long contactId;
             try {
                 contactId = Long.parseLong(glificId);
             } catch (NumberFormatException e) {
                 log.warn("[Router/SEND_LOGIN_OTP] Invalid glific_id '{}', skipping", glificId);
-                return;
+                return Mono.empty();
             }
             if (contactId <= 0) {
                 log.warn("[Router/SEND_LOGIN_OTP] glific_id must be > 0, got {}, skipping", contactId);
-                return;
+                return Mono.empty();
             }
+            contact = Mono.just(contactId);
         } else if (!phone.isBlank()) {
             log.info("[Router/SEND_LOGIN_OTP] glific_id not provided, opting in via phone");
-            contactId = glificWhatsAppService.optIn(phone);
-            if (contactId <= 0) {
-                log.warn("[Router/SEND_LOGIN_OTP] optIn returned invalid contactId {}, skipping", contactId);
-                return;
-            }
+            contact = glificWhatsAppService.optInAsync(phone)
+                    .filter(contactId -> {
+                        if (contactId <= 0) {
+                            log.warn("[Router/SEND_LOGIN_OTP] optIn returned invalid contactId {}, skipping", contactId);
+                        }
+                        return contactId > 0;
+                    });
         } else {
             log.warn("[Router/SEND_LOGIN_OTP] Neither glific_id nor officerPhoneNumber provided, skipping");
-            return;
+            return Mono.empty();
         }
 
-        boolean sent = whatsAppChannel.sendLoginOtp(contactId, otp);
-        if (!sent) {
-            throw new IllegalStateException("[Router/SEND_LOGIN_OTP] WhatsApp login OTP delivery failed");
-        }
-        log.info("[Router/SEND_LOGIN_OTP] → SENT contactId={}", contactId);
+        return contact.flatMap(contactId -> whatsAppChannel.sendLoginOtpAsync(contactId, otp)
+                .doOnSuccess(v -> log.info("[Router/SEND_LOGIN_OTP] → SENT contactId={}", contactId)));
     }
 
-    private void handleInviteEmail(JsonNode root) {
+    private Mono<Void> handleInviteEmail(JsonNode root) {
         InviteEmailEvent event;
         try {
             event = objectMapper.treeToValue(root, InviteEmailEvent.class);
         } catch (Exception e) {
             log.error("[Router/INVITE_EMAIL] Malformed event, routing to DLT: {}", e.getMessage());
             publishEmailDlt("SEND_INVITE_EMAIL", null, "malformed_event: " + e.getMessage());
-            return;
+            return Mono.empty();
         }
         if (event.getTo() == null || event.getTo().isBlank()) {
             log.warn("[Router/INVITE_EMAIL] Missing 'to' field, routing to DLT");
             publishEmailDlt("SEND_INVITE_EMAIL", null, "missing_to");
-            return;
+            return Mono.empty();
         }
         if (event.getInviteLink() == null || event.getInviteLink().isBlank()) {
             log.warn("[Router/INVITE_EMAIL] Missing 'inviteLink' field, routing to DLT");
             publishEmailDlt("SEND_INVITE_EMAIL", event.getTo(), "missing_invite_link");
-            return;
-        }
-        try {
-            accountEmailService.sendInviteEmail(event.getTo(), event.getName(), event.getRole(), event.getInviteLink(), event.getExpiryHours());
-            log.info("[Router/INVITE_EMAIL] Invite email dispatched recipientRole={}", event.getRole());
-        } catch (Exception e) {
-            log.error("[Router/INVITE_EMAIL] SMTP failure, routing to DLT: {}", e.getMessage());
-            publishEmailDlt("SEND_INVITE_EMAIL", event.getTo(), "smtp_error: " + e.getMessage());
+            return Mono.empty();
         }
+        return sendAccountEmail("INVITE_EMAIL", "SEND_INVITE_EMAIL", event.getTo(), Mono.fromFuture(
+                () -> accountEmailService.sendInviteEmail(event.getTo(), event.getName(), event.getRole(), event.getInviteLink(), event.getExpiryHours()))
+                .doOnSuccess(v -> log.info("[Router/INVITE_EMAIL] Invite email dispatched recipientRole={}", event.getRole())));
     }
 
-    private void handleReinviteEmail(JsonNode root) {
+    private Mono<Void> handleReinviteEmail(JsonNode root) {
         InviteEmailEvent event;
         try {
             event = objectMapper.treeToValue(root, InviteEmailEvent.class);
         } catch (Exception e) {
             log.error("[Router/REINVITE_EMAIL] Malformed event, routing to DLT: {}", e.getMessage());
             publishEmailDlt("SEND_REINVITE_EMAIL", null, "malformed_event: " + e.getMessage());
-            return;
+            return Mono.empty();
         }
         if (event.getTo() == null || event.getTo().isBlank()) {
             log.warn("[Router/REINVITE_EMAIL] Missing 'to' field, routing to DLT");
             publishEmailDlt("SEND_REINVITE_EMAIL", null, "missing_to");
-            return;
+            return Mono.empty();
         }
         if (event.getInviteLink() == null || event.getInviteLink().isBlank()) {
             log.warn("[Router/REINVITE_EMAIL] Missing 'inviteLink' field, routing to DLT");
             publishEmailDlt("SEND_REINVITE_EMAIL", event.getTo(), "missing_invite_link");
-            return;
-        }
-        try {
-            accountEmailService.sendReinviteEmail(event.getTo(), event.getName(), event.getInviteLink(), event.getExpiryHours());
-            log.info("[Router/REINVITE_EMAIL] Reinvite email dispatched recipientRole={}", event.getRole());
-        } catch (Exception e) {
-            log.error("[Router/REINVITE_EMAIL] SMTP failure, routing to DLT: {}", e.getMessage());
-            publishEmailDlt("SEND_REINVITE_EMAIL", event.getTo(), "smtp_error: " + e.getMessage());
+            return Mono.empty();
         }
+        return sendAccountEmail("REINVITE_EMAIL", "SEND_REINVITE_EMAIL", event.getTo(), Mono.fromFuture(
+                () -> accountEmailService.sendReinviteEmail(event.getTo(), event.getName(), event.getInviteLink(), event.getExpiryHours()))
+                .doOnSuccess(v -> log.info("[Router/REINVITE_EMAIL] Reinvite email dispatched recipientRole={}", event.getRole())));
     }
 
-    private void handlePasswordResetEmail(JsonNode root) {
+    private Mono<Void> handlePasswordResetEmail(JsonNode root) {
         ResetPasswordEmailEvent event;
         try {
             event = objectMapper.treeToValue(root, ResetPasswordEmailEvent.class);
         } catch (Exception e) {
             log.error("[Router/PASSWORD_RESET_EMAIL] Malformed event, routing to DLT: {}", e.getMessage());
             publishEmailDlt("SEND_PASSWORD_RESET_EMAIL", null, "malformed_event: " + e.getMessage());
-            return;
+            return Mono.empty();
         }
         if (event.getTo() == null || event.getTo().isBlank()) {
             log.warn("[Router/PASSWORD_RESET_EMAIL] Missing 'to' field, routing to DLT");
             publishEmailDlt("SEND_PASSWORD_RESET_EMAIL", null, "missing_to");
-            return;
+            return Mono.empty();
         }
         if (event.getResetLink() == null || event.getResetLink().isBlank()) {
             log.warn("[Router/PASSWORD_RESET_EMAIL] Missing 'resetLink' field, routing to DLT");
             publishEmailDlt("SEND_PASSWORD_RESET_EMAIL", event.getTo(), "missing_reset_link");
-            return;
-        }
-        try {
-            accountEmailService.sendPasswordResetEmail(event.getTo(), event.getResetLink(), event.getExpiryMinutes());
-            log.info("[Router/PASSWORD_RESET_EMAIL] Password reset email dispatched");
-        } catch (Exception e) {
-            log.error("[Router/PASSWORD_RESET_EMAIL] SMTP failure, routing to DLT: {}", e.getMessage());
-            publishEmailDlt("SEND_PASSWORD_RESET_EMAIL", event.getTo(), "smtp_error: " + e.getMessage());
+            return Mono.empty();
         }
+        return sendAccountEmail("PASSWORD_RESET_EMAIL", "SEND_PASSWORD_RESET_EMAIL", event.getTo(), Mono.fromFuture(
+                () -> accountEmailService.sendPasswordResetEmail(event.getTo(), event.getResetLink(), event.getExpiryMinutes()))
+                .doOnSuccess(v -> log.info("[Router/PASSWORD_RESET_EMAIL] Password reset email dispatched")));
+    }
+
+    /**
+     * Sends an account email through {@link AccountEmailService} and routes an SMTP failure to
+     * {@link #ACCOUNT_EMAIL_DLT_TOPIC}. A full SMTP queue is signalled as an error instead, so
+     * {@code KafkaConsumer} holds the record and retries it; nothing has been sent in that case.
+     */
+    private Mono<Void> sendAccountEmail(String logTag, String eventType, String to, Mono<Void> send) {
+        return send.onErrorResume(e -> !(e instanceof RejectedExecutionException), e -> {
+            log.error("[Router/{}] SMTP failure, routing to DLT: {}", logTag, e.getMessage());
+            publishEmailDlt(eventType, to, "smtp_error: " + e.getMessage());
+            return Mono.empty();
+        });
     }
 
     private void publishEmailDlt(String originalEventType, String to, String errorReason) {
@@ -515,7 +681,11 @@ public class NotificationEventRouter {
         return rows.isEmpty() ? null : rows.get(0);
     }
 
-    private void handleEscalation(JsonNode root) throws Exception {
+    /**
+     * Generates and uploads the PDF on a bounded-elastic thread (both are blocking), then
+     * opts in the officer if needed and sends the document HSM without blocking.
+     */
+    private Mono<Void> handleEscalation(JsonNode root) throws Exception {
         String officerPhone = root.path("officerPhone").asText("");
         String officerName = root.path("officerName").asText("Officer");
         String officerUserType = root.path("officerUserType").asText("");
@@ -528,7 +698,7 @@ public class NotificationEventRouter {
 
         if (storedId <= 0 && officerPhone.isBlank()) {
             log.warn("[Router/ESCALATION] officerPhone and officerWhatsappConnectionId are both missing, skipping");
-            return;
+            return Mono.empty();
         }
 
         JsonNode operatorsNode = root.path("operators");
@@ -541,46 +711,38 @@ public class NotificationEventRouter {
 
         if (operators.isEmpty()) {
             log.warn("[Router/ESCALATION] No operators in event, skipping");
-            return;
-        }
-
-        String filename = escalationPdfService.generate(operators, level, officerName, officerUserType);
-        java.nio.file.Path localPath = Paths.get(reportDir, filename);
-        String minioUrl;
-        try {
-            minioUrl = minioStorageService.upload(localPath);
-        } finally {
-            try {
-                Files.deleteIfExists(localPath);
-            } catch (Exception cleanupEx) {
-                log.warn("[Router/ESCALATION] Could not delete local PDF {}: {}",
-                                localPath, cleanupEx.getMessage());
-            }
-        }
+            return Mono.empty();
+        }
+
+        // Render on the PDF pool, then upload the in-memory bytes on the blocking scheduler.
+        return Mono.fromFuture(() -> escalationPdfService.renderAsync(operators, level, officerName, officerUserType))
+                .flatMap(report -> Mono.fromCallable(
+                                () -> minioStorageService.upload(report.filename(), report.content()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(minioUrl -> resolveOfficerContact(storedId, officerPhone, tenantSchema, officerId)
+                        .flatMap(contactId -> whatsAppChannel.sendDocumentAsync(contactId, minioUrl))
+                        .doOnSuccess(v -> {
+                            String loggableUrl = minioUrl.replaceFirst("\\?.*$", "");
+                            log.info("[Router/ESCALATION] level={} → SENT ({})", level, loggableUrl);
+                            log.debug("[Router/ESCALATION] officer={} level={} → SENT ({})", officerPhone, level, loggableUrl);
+                        }));
+    }
 
-        long contactId;
+    private Mono<Long> resolveOfficerContact(long storedId, String officerPhone, String tenantSchema, long officerId) {
         if (storedId > 0) {
-            contactId = storedId;
-        } else {
-            contactId = glificWhatsAppService.optIn(officerPhone);
-            if (!tenantSchema.isBlank() && officerId > 0 && contactId > 0) {
-                kafkaProducer.publishJson(COMMON_TOPIC,
-                        WhatsAppContactRegisteredEvent.builder()
-                                .eventType("WHATSAPP_CONTACT_REGISTERED")
-                                .tenantSchema(tenantSchema)
-                                .userId(officerId)
-                                .contactId(contactId)
-                                .build());
-            }
-        }
-
-        boolean sent = whatsAppChannel.sendDocument(contactId, minioUrl);
-        if (!sent) {
-            throw new IllegalStateException("[Router/ESCALATION] WhatsApp escalation delivery failed");
-        }
-        String loggableUrl = minioUrl.replaceFirst("\\?.*$", "");
-        log.info("[Router/ESCALATION] level={} → {} ({})", level, sent ? "SENT" : "FAILED", loggableUrl);
-        log.debug("[Router/ESCALATION] officer={} level={} → {} ({})", officerPhone, level,
-                sent ? "SENT" : "FAILED", loggableUrl);
+            return Mono.just(storedId);
+        }
+        return glificWhatsAppService.optInAsync(officerPhone)
+                .doOnNext(contactId -> {
+                    if (!tenantSchema.isBlank() && officerId > 0 && contactId > 0) {
+                        kafkaProducer.publishJson(COMMON_TOPIC,
+                                WhatsAppContactRegisteredEvent.builder()
+                                        .eventType("WHATSAPP_CONTACT_REGISTERED")
+                                        .tenantSchema(tenantSchema)
+                                        .userId(officerId)
+                                        .contactId(contactId)
+                                        .build());
+                    }
+                });
     }
 }
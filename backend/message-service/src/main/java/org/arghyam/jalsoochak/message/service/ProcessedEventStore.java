@@ -0,0 +1,30 @@
+package org.arghyam.jalsoochak.message.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which upstream events have been handled, by event type and {@code eventId}, in
+ * {@code common_schema.processed_event_table}.
+ *
+ * <p>Outbox relays publish at least once and stamp each payload with an {@code eventId}
+ * (the outbox row ID), so a redelivered event carries the same ID as the original. Handlers
+ * of events that must not run twice claim the ID before acting; the claim is shared by all
+ * message-service instances.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ProcessedEventStore {
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO common_schema.processed_event_table (event_type, event_id) VALUES (?, ?) "
+                    + "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Records the event as handled; returns {@code false} if it already was. */
+    public boolean claim(String eventType, long eventId) {
+        return jdbcTemplate.update(CLAIM_SQL, eventType, eventId) == 1;
+    }
+}
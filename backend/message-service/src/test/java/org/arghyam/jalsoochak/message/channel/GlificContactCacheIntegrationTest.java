@@ -0,0 +1,128 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link GlificContactCache} against a real PostgreSQL instance.
+ *
+ * <p>Verifies round trips, TTL expiry, batch lookups, that phone numbers are stored only
+ * as HMACs, and the hit/miss counters.</p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class GlificContactCacheIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/test-schema.sql");
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    // Suppress GlificAuthService @PostConstruct login
+    @MockBean
+    private GlificAuthService glificAuthService;
+
+    // Suppress GlificWhatsAppService @PostConstruct validateTemplates
+    @MockBean
+    private GlificWhatsAppService glificWhatsAppService;
+
+    @Autowired
+    private GlificContactCache glificContactCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanCache() {
+        jdbcTemplate.execute("DELETE FROM common_schema.glific_contact_table");
+    }
+
+    @Test
+    void find_returnsContactId_afterPut() {
+        glificContactCache.put("919876543210", 42L);
+
+        assertThat(glificContactCache.find("919876543210")).hasValue(42L);
+        assertThat(glificContactCache.find("919000000000")).isEmpty();
+    }
+
+    @Test
+    void put_refreshesContactId_forKnownPhone() {
+        glificContactCache.put("919876543210", 42L);
+        glificContactCache.put("919876543210", 43L);
+
+        assertThat(glificContactCache.find("919876543210")).hasValue(43L);
+        assertThat(rowCount()).isEqualTo(1);
+    }
+
+    @Test
+    void find_ignoresExpiredEntries() {
+        glificContactCache.put("919876543210", 42L);
+        jdbcTemplate.update("UPDATE common_schema.glific_contact_table SET expires_at = NOW() - INTERVAL '1 minute'");
+
+        assertThat(glificContactCache.find("919876543210")).isEmpty();
+    }
+
+    @Test
+    void findAll_returnsOnlyCachedPhones() {
+        glificContactCache.put("911111111111", 11L);
+        glificContactCache.put("912222222222", 22L);
+
+        Map<String, Long> found = glificContactCache.findAll(List.of("911111111111", "912222222222", "913333333333"));
+
+        assertThat(found).containsExactlyInAnyOrderEntriesOf(Map.of("911111111111", 11L, "912222222222", 22L));
+    }
+
+    @Test
+    void put_storesPhoneHmac_notPhoneNumber() {
+        glificContactCache.put("919876543210", 42L);
+
+        String stored = jdbcTemplate.queryForObject(
+                "SELECT phone_hash FROM common_schema.glific_contact_table", String.class);
+        assertThat(stored).hasSize(64).doesNotContain("9876543210");
+    }
+
+    @Test
+    void findAll_countsHitsAndMisses() {
+        double hitsBefore = lookups("hit");
+        double missesBefore = lookups("miss");
+        glificContactCache.put("911111111111", 11L);
+
+        glificContactCache.findAll(List.of("911111111111", "912222222222"));
+
+        assertThat(lookups("hit") - hitsBefore).isEqualTo(1.0);
+        assertThat(lookups("miss") - missesBefore).isEqualTo(1.0);
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM common_schema.glific_contact_table", Integer.class);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("glific.contact.cache.lookups").tag("result", result).counter().count();
+    }
+}
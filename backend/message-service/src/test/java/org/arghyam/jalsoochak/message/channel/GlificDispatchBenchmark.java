@@ -0,0 +1,98 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import org.arghyam.jalsoochak.message.config.properties.GlificDispatchProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures {@link GlificDispatcher} throughput end to end against {@link GlificStubServer},
+ * a local Glific stand-in that enforces its own rate limit.
+ *
+ * <p>Two runs: the dispatcher limited just below the stub's rate, which should send without
+ * any 429, and limited well above it, where each 429 pauses the shared bucket for its
+ * {@code Retry-After}. Each prints the achieved sends per second next to the configured limits.</p>
+ *
+ * <p>Not part of the test run. Run with:</p>
+ * <pre>
+ * mvn -q -o test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat /tmp/cp.txt) \
+ *     org.arghyam.jalsoochak.message.channel.GlificDispatchBenchmark [sends]
+ * </pre>
+ */
+public final class GlificDispatchBenchmark {
+
+    private GlificDispatchBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sends = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+
+        // Stub allows 20/s with a burst of 5; the dispatcher stays under it.
+        run("below-limit", new GlificStubServer(20, 5, 25), properties(18, 3, 4), sends);
+        // Stub allows 10/s; the dispatcher is configured for 50/s and must back off on 429s.
+        run("above-limit", new GlificStubServer(10, 10, 5), properties(50, 10, 4), sends);
+    }
+
+    private static void run(String name, GlificStubServer stub, GlificDispatchProperties properties, int sends)
+            throws Exception {
+        GlificRateLimiter rateLimiter = new GlificRateLimiter(properties);
+        GlificDispatcher dispatcher = new GlificDispatcher(properties, rateLimiter);
+        try {
+            GlificAuthService authService = new GlificAuthService(WebClient.builder());
+            ReflectionTestUtils.setField(authService, "authUrl", stub.baseUrl() + GlificStubServer.AUTH_PATH);
+            ReflectionTestUtils.setField(authService, "username", "stub_user");
+            ReflectionTestUtils.setField(authService, "password", "stub_pass");
+            authService.login();
+
+            GlificGraphQLClient client = new GlificGraphQLClient(WebClient.builder(), authService, rateLimiter);
+            ReflectionTestUtils.setField(client, "apiUrl", stub.baseUrl() + GlificStubServer.GRAPHQL_PATH);
+
+            // The first call pays for HTTP client start-up; while it is outstanding the client's
+            // bucket refills but the stub's does not, so warm up and let both refill before timing.
+            client.execute("mutation { startContactFlow }", Map.of());
+            Thread.sleep(1_000);
+            stub.resetCounters();
+
+            AtomicInteger failed = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(sends);
+            long start = System.nanoTime();
+            for (int i = 0; i < sends; i++) {
+                String tenant = "tenant_" + (i % 3);
+                dispatcher.submit(tenant, "benchmark", () -> {
+                    client.execute("mutation { startContactFlow }", Map.of());
+                    done.countDown();
+                }, e -> {
+                    failed.incrementAndGet();
+                    done.countDown();
+                });
+            }
+            if (!done.await(60, TimeUnit.SECONDS)) {
+                System.err.printf("%s: %d of %d sends still outstanding after 60s%n", name, done.getCount(), sends);
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            System.out.printf("%s limit=%.0f/s in_flight<=%d sent=%d failed=%d elapsed=%dms sends_per_sec=%.1f "
+                            + "429s=%d max_concurrent=%d%n",
+                    name, properties.getRatePerSecond(), properties.getMaxInFlight(), stub.accepted(), failed.get(),
+                    elapsedMs, stub.accepted() * 1000.0 / elapsedMs, stub.rejected(), stub.maxConcurrent());
+        } finally {
+            dispatcher.shutdown();
+            stub.close();
+        }
+    }
+
+    private static GlificDispatchProperties properties(double ratePerSecond, int burst, int maxInFlight) {
+        GlificDispatchProperties properties = new GlificDispatchProperties();
+        properties.setRatePerSecond(ratePerSecond);
+        properties.setBurst(burst);
+        properties.setMaxInFlight(maxInFlight);
+        properties.setRetryBaseDelayMs(200);
+        properties.setRetryMaxDelayMs(2_000);
+        return properties;
+    }
+}
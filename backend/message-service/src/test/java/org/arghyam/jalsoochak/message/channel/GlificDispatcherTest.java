@@ -0,0 +1,223 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import org.arghyam.jalsoochak.message.config.properties.GlificDispatchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link GlificDispatcher}: concurrency bound, retry scheduling,
+ * failure callbacks, back-pressure and shutdown.
+ */
+class GlificDispatcherTest {
+
+    private GlificDispatchProperties properties;
+    private GlificDispatcher dispatcher;
+    private final List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        properties = new GlificDispatchProperties();
+        properties.setRatePerSecond(0);
+        properties.setMaxInFlight(2);
+        properties.setQueueCapacity(100);
+        properties.setMaxAttempts(3);
+        properties.setRetryBaseDelayMs(10);
+        properties.setRetryMaxDelayMs(1_000);
+        properties.setShutdownTimeoutMs(100);
+        dispatcher = newDispatcher();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void submit_runsSends_withAtMostMaxInFlightConcurrently() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.submit("tenant_mp", "test", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(30);
+                running.decrementAndGet();
+                done.countDown();
+            }, failures::add);
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+        assertThat(failures).isEmpty();
+        awaitIdle();
+    }
+
+    @Test
+    void submit_retriesRetryableFailures_untilTheySucceed() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch succeeded = new CountDownLatch(1);
+
+        dispatcher.submit("tenant_mp", "test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new GlificApiException("Glific GraphQL HTTP error: 503", null, true, null);
+            }
+            succeeded.countDown();
+        }, failures::add);
+
+        assertThat(succeeded.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts.get()).isEqualTo(3);
+        awaitIdle();
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    void submit_reportsNonRetryableFailure_withoutRetrying() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch failed = new CountDownLatch(1);
+
+        dispatcher.submit("tenant_mp", "test", () -> {
+            attempts.incrementAndGet();
+            throw new GlificApiException("Glific GraphQL error: Flow not found");
+        }, e -> {
+            failures.add(e);
+            failed.countDown();
+        });
+
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(failures).singleElement().extracting(Exception::getMessage)
+                .isEqualTo("Glific GraphQL error: Flow not found");
+    }
+
+    @Test
+    void submit_reportsFailure_onceAttemptsAreExhausted() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch failed = new CountDownLatch(1);
+
+        dispatcher.submit("tenant_mp", "test", () -> {
+            attempts.incrementAndGet();
+            throw new GlificApiException("Glific GraphQL HTTP error: 429", null, true, null);
+        }, e -> {
+            failures.add(e);
+            failed.countDown();
+        });
+
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(dispatcher.getPendingCount()).isZero();
+    }
+
+    @Test
+    void submit_spacesSendsOfOneTenant_atTenantRate() throws Exception {
+        dispatcher.shutdown();
+        properties.setTenantRatePerSecond(10);
+        properties.setTenantBurst(1);
+        dispatcher = newDispatcher();
+        CountDownLatch done = new CountDownLatch(4);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            dispatcher.submit("tenant_mp", "test", done::countDown, failures::add);
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        // First send immediately, then one every 100ms
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(280);
+    }
+
+    @Test
+    void submit_rejects_whenQueueStaysFull() throws Exception {
+        dispatcher.shutdown();
+        properties.setQueueCapacity(1);
+        dispatcher = newDispatcher();
+        CountDownLatch release = new CountDownLatch(1);
+
+        dispatcher.submit("tenant_mp", "test", () -> await(release), failures::add);
+
+        assertThatThrownBy(() -> dispatcher.submit("tenant_mp", "test", () -> { }, failures::add))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("queue is full");
+        release.countDown();
+        awaitIdle();
+    }
+
+    @Test
+    void retryDelay_growsExponentially_honoursRetryAfter_andIsCapped() {
+        properties.setRetryBaseDelayMs(100);
+
+        assertThat(dispatcher.retryDelay(1, null).toMillis()).isBetween(80L, 120L);
+        assertThat(dispatcher.retryDelay(3, null).toMillis()).isBetween(320L, 480L);
+        assertThat(dispatcher.retryDelay(1, Duration.ofMillis(700)).toMillis()).isEqualTo(700L);
+        assertThat(dispatcher.retryDelay(1, Duration.ofSeconds(30)).toMillis()).isEqualTo(1_000L);
+        assertThat(dispatcher.retryDelay(10, null).toMillis()).isEqualTo(1_000L);
+    }
+
+    @Test
+    void shutdown_reportsSendsStillWaitingToRetry() throws Exception {
+        properties.setRetryBaseDelayMs(60_000);
+        properties.setRetryMaxDelayMs(60_000);
+        CountDownLatch attempted = new CountDownLatch(1);
+
+        dispatcher.submit("tenant_mp", "test", () -> {
+            attempted.countDown();
+            throw new GlificApiException("Glific GraphQL HTTP error: 503", null, true, null);
+        }, failures::add);
+        assertThat(attempted.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitRetryScheduled();
+
+        dispatcher.shutdown();
+
+        assertThat(failures).singleElement().isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> dispatcher.submit("tenant_mp", "test", () -> { }, failures::add))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private GlificDispatcher newDispatcher() {
+        return new GlificDispatcher(properties, new GlificRateLimiter(properties));
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (dispatcher.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(dispatcher.getPendingCount()).isZero();
+    }
+
+    private void awaitRetryScheduled() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (dispatcher.getInFlightCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,15 +3,24 @@ package org.arghyam.jalsoochak.message.channel;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.arghyam.jalsoochak.message.config.properties.GlificDispatchProperties;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
-
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
@@ -19,7 +28,7 @@ import static org.mockito.Mockito.*;
 /**
  * Tests for {@link GlificGraphQLClient} verifying HTTP behaviour:
  * Authorization header, successful responses, GraphQL error handling,
- * and token-refresh retry on 401/unauthenticated errors.
+ * token-refresh retry on 401/unauthenticated errors, and rate limiting.
  *
  * <p>Uses WireMock as a local HTTP server – no real Glific API is contacted.</p>
  */
@@ -55,7 +64,7 @@ class GlificGraphQLClientTest {
         authService.login();
 
         // Build GlificGraphQLClient pointing at WireMock's GraphQL endpoint
-        client = new GlificGraphQLClient(WebClient.builder(), authService);
+        client = new GlificGraphQLClient(WebClient.builder(), authService, new GlificRateLimiter(unlimited()));
         ReflectionTestUtils.setField(client, "apiUrl", wireMockServer.baseUrl() + GRAPHQL_PATH);
     }
 
@@ -202,23 +211,138 @@ class GlificGraphQLClientTest {
     }
 
     @Test
-    void execute_enforcesMinimumIntervalBetweenConsecutiveCalls() {
-        ReflectionTestUtils.setField(client, "requestIntervalMs", 300L);
+    void execute_spacesCallsAtConfiguredRate_onceBurstIsUsed() {
+        GlificDispatchProperties properties = unlimited();
+        properties.setRatePerSecond(5);
+        properties.setBurst(1);
+        client = new GlificGraphQLClient(WebClient.builder(), authService, new GlificRateLimiter(properties));
+        ReflectionTestUtils.setField(client, "apiUrl", wireMockServer.baseUrl() + GRAPHQL_PATH);
+        stubOk();
+
+        long start = System.currentTimeMillis();
+        client.execute("query {}", Map.of());
+        client.execute("query {}", Map.of());
+        client.execute("query {}", Map.of());
+        long elapsed = System.currentTimeMillis() - start;
+
+        // One token up front, then one every 200ms
+        assertThat(elapsed).isGreaterThanOrEqualTo(400L);
+    }
+
+    @Test
+    void execute_honoursRetryAfter_andRetries_on429() {
+        wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH)).inScenario("rate-limit")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1"))
+                .willSetStateTo("allowed"));
+        wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH)).inScenario("rate-limit")
+                .whenScenarioStateIs("allowed")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"data":{"result":"ok"}}
+                                """)));
+
+        long start = System.currentTimeMillis();
+        JsonNode result = client.execute("query {}", Map.of());
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertThat(result.path("result").asText()).isEqualTo("ok");
+        assertThat(elapsed).isGreaterThanOrEqualTo(1_000L);
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo(GRAPHQL_PATH)));
+    }
+
+    @Test
+    void execute_throwsRetryableException_on5xx_afterRetriesAreExhausted() {
+        wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH))
+                .willReturn(aResponse().withStatus(503)));
+
+        assertThatThrownBy(() -> client.execute("query {}", Map.of()))
+                .isInstanceOfSatisfying(GlificApiException.class, e -> assertThat(e.isRetryable()).isTrue())
+                .hasMessageContaining("Glific GraphQL HTTP error");
+        wireMockServer.verify(3, postRequestedFor(urlEqualTo(GRAPHQL_PATH)));
+    }
+
+    @Test
+    void execute_throwsNonRetryableException_onGraphQLError() {
+        wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"errors":[{"message":"Flow not found"}]}
+                                """)));
+
+        assertThatThrownBy(() -> client.execute("query {}", Map.of()))
+                .isInstanceOfSatisfying(GlificApiException.class, e -> assertThat(e.isRetryable()).isFalse());
+    }
+
+    @Test
+    void executeAsync_sendsNothing_untilSubscribed() {
+        stubOk();
+
+        Mono<JsonNode> result = client.executeAsync("query {}", Map.of());
 
+        wireMockServer.verify(0, postRequestedFor(urlEqualTo(GRAPHQL_PATH)));
+        assertThat(result.block().path("result").asText()).isEqualTo("ok");
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(GRAPHQL_PATH)));
+    }
+
+    @Test
+    void executeAsync_keepsSeveralRequestsInFlight_withoutBlockingThreads() {
         wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH))
                 .willReturn(aResponse()
                         .withStatus(200)
+                        .withFixedDelay(500)
                         .withHeader("Content-Type", "application/json")
                         .withBody("""
                                 {"data":{"result":"ok"}}
                                 """)));
 
         long start = System.currentTimeMillis();
-        client.execute("query {}", Map.of());
-        client.execute("query {}", Map.of());
+        List<JsonNode> results = Flux.range(0, 8)
+                .flatMap(i -> client.executeAsync("query {}", Map.of()))
+                .collectList()
+                .block();
         long elapsed = System.currentTimeMillis() - start;
 
-        assertThat(elapsed).isGreaterThanOrEqualTo(300L);
+        assertThat(results).hasSize(8);
+        // Sequential calls would take 8 x 500ms
+        assertThat(elapsed).isLessThan(2_000L);
+    }
+
+    @Test
+    void executeAsync_retriesTransientHttpError_thenSucceeds() {
+        wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH)).inScenario("flaky")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(502))
+                .willSetStateTo("recovered"));
+        wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH)).inScenario("flaky")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"data":{"result":"ok"}}
+                                """)));
+
+        JsonNode result = client.executeAsync("query {}", Map.of()).block();
+
+        assertThat(result.path("result").asText()).isEqualTo("ok");
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo(GRAPHQL_PATH)));
+    }
+
+    @Test
+    void parseRetryAfter_acceptsSecondsAndHttpDates() {
+        assertThat(GlificGraphQLClient.parseRetryAfter("7")).isEqualTo(Duration.ofSeconds(7));
+        assertThat(GlificGraphQLClient.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).isEqualTo(Duration.ZERO);
+        assertThat(GlificGraphQLClient.parseRetryAfter(
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30))))
+                .isBetween(Duration.ofSeconds(28), Duration.ofSeconds(30));
+        assertThat(GlificGraphQLClient.parseRetryAfter("86400")).isEqualTo(Duration.ofMinutes(5));
+        assertThat(GlificGraphQLClient.parseRetryAfter("soon")).isNull();
+        assertThat(GlificGraphQLClient.parseRetryAfter(null)).isNull();
     }
 
     @Test
@@ -241,4 +365,20 @@ class GlificGraphQLClientTest {
 
         assertThat(authService.getAccessToken()).isEqualTo("refreshed_token");
     }
+
+    private void stubOk() {
+        wireMockServer.stubFor(post(urlEqualTo(GRAPHQL_PATH))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"data":{"result":"ok"}}
+                                """)));
+    }
+
+    private static GlificDispatchProperties unlimited() {
+        GlificDispatchProperties properties = new GlificDispatchProperties();
+        properties.setRatePerSecond(0);
+        return properties;
+    }
 }
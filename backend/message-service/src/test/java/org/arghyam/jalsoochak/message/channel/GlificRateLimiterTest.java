@@ -0,0 +1,109 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import org.arghyam.jalsoochak.message.config.properties.GlificDispatchProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link GlificRateLimiter} driven by a fake nanosecond clock.
+ */
+class GlificRateLimiterTest {
+
+    private static final String TENANT = GlificRateLimiter.tenantKey("tenant_mp");
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private GlificDispatchProperties properties;
+    private GlificRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GlificDispatchProperties();
+        properties.setRatePerSecond(10);
+        properties.setBurst(2);
+        properties.setTenantRatePerSecond(1);
+        properties.setTenantBurst(1);
+        limiter = new GlificRateLimiter(properties, now::get);
+    }
+
+    @Test
+    void reserve_allowsBurst_thenSpacesCallersAtRate() {
+        assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+        assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+        assertThat(millis(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY))).isEqualTo(100);
+        assertThat(millis(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY))).isEqualTo(200);
+    }
+
+    @Test
+    void reserve_refillsOverTime_uptoBurst() {
+        limiter.reserve(GlificRateLimiter.ACCOUNT_KEY);
+        limiter.reserve(GlificRateLimiter.ACCOUNT_KEY);
+
+        advance(Duration.ofSeconds(10));
+
+        assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+        assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+        assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isPositive();
+    }
+
+    @Test
+    void tryAcquire_doesNotConsume_whenNoTokenIsAvailable() {
+        assertThat(limiter.tryAcquire(TENANT)).isZero();
+
+        long wait = limiter.tryAcquire(TENANT);
+        assertThat(millis(wait)).isEqualTo(1_000);
+        assertThat(millis(limiter.tryAcquire(TENANT))).isEqualTo(1_000);
+
+        advance(Duration.ofMillis(1_001));
+        assertThat(limiter.tryAcquire(TENANT)).isZero();
+    }
+
+    @Test
+    void tenantBuckets_areIndependentOfEachOtherAndOfTheAccount() {
+        assertThat(limiter.tryAcquire(TENANT)).isZero();
+        assertThat(limiter.tryAcquire(GlificRateLimiter.tenantKey("tenant_up"))).isZero();
+        assertThat(limiter.tryAcquire(TENANT)).isPositive();
+        assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+    }
+
+    @Test
+    void pause_holdsBackEveryCaller_andDropsSavedUpBurst() {
+        limiter.pause(GlificRateLimiter.ACCOUNT_KEY, Duration.ofSeconds(3));
+
+        assertThat(millis(limiter.pausedNanos(GlificRateLimiter.ACCOUNT_KEY))).isEqualTo(3_000);
+        assertThat(millis(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY))).isEqualTo(3_100);
+        assertThat(millis(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY))).isEqualTo(3_200);
+
+        advance(Duration.ofSeconds(4));
+        assertThat(limiter.pausedNanos(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+    }
+
+    @Test
+    void disabledBucket_neverWaits_butStillHonoursPause() {
+        properties.setRatePerSecond(0);
+        limiter = new GlificRateLimiter(properties, now::get);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+        }
+
+        limiter.pause(GlificRateLimiter.ACCOUNT_KEY, Duration.ofSeconds(2));
+        assertThat(millis(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY))).isEqualTo(2_000);
+
+        advance(Duration.ofSeconds(2));
+        assertThat(limiter.reserve(GlificRateLimiter.ACCOUNT_KEY)).isZero();
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,113 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Glific API, for measuring dispatch throughput against a known limit.
+ *
+ * <p>Answers the session endpoint with a token and every GraphQL POST with a fixed
+ * {@code data} payload after a configurable latency. Requests above the configured rate
+ * are rejected with 429 and a {@code Retry-After} header (in whole seconds), as Glific does.
+ * Counts accepted and rejected requests and the peak number of concurrent requests.</p>
+ */
+final class GlificStubServer implements AutoCloseable {
+
+    static final String GRAPHQL_PATH = "/api";
+    static final String AUTH_PATH = "/api/v1/session";
+
+    private static final byte[] SESSION_BODY =
+            "{\"data\":{\"access_token\":\"stub_token\",\"renewal_token\":\"stub_renew\"}}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_BODY =
+            "{\"data\":{\"startContactFlow\":{\"success\":true}}}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final GlificRateLimiter.TokenBucket bucket;
+    private final long latencyMs;
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    GlificStubServer(double ratePerSecond, int burst, long latencyMs) throws IOException {
+        this.bucket = new GlificRateLimiter.TokenBucket(ratePerSecond, burst, System.nanoTime());
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(AUTH_PATH, exchange -> respond(exchange, 200, SESSION_BODY));
+        server.createContext(GRAPHQL_PATH, this::handleGraphQL);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    int accepted() {
+        return accepted.get();
+    }
+
+    int rejected() {
+        return rejected.get();
+    }
+
+    int maxConcurrent() {
+        return maxConcurrent.get();
+    }
+
+    void resetCounters() {
+        accepted.set(0);
+        rejected.set(0);
+        maxConcurrent.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleGraphQL(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+        try {
+            long waitNanos = bucket.tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                rejected.incrementAndGet();
+                long retryAfterSeconds = Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSeconds));
+                respond(exchange, 429, new byte[0]);
+                return;
+            }
+            Thread.sleep(latencyMs);
+            accepted.incrementAndGet();
+            respond(exchange, 200, DATA_BODY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, new byte[0]);
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+}
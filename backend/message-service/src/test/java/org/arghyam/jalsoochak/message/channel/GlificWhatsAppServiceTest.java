@@ -11,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -207,6 +208,72 @@ class GlificWhatsAppServiceTest {
         assertThat((List<?>) input.get("params")).isEmpty();
     }
 
+    // ───────────────────────────── async variants ──────────────────────────────
+
+    @Test
+    void optInAsync_returnsContactId_fromGlificResponse() throws Exception {
+        JsonNode response = mapper.readTree("""
+                {"optinContact":{"contact":{"id":42}}}
+                """);
+        when(client.executeAsync(contains("optinContact"), anyMap())).thenReturn(Mono.just(response));
+
+        assertThat(service.optInAsync("919876543210").block()).isEqualTo(42L);
+        verify(client, never()).execute(anyString(), anyMap());
+    }
+
+    @Test
+    void sendEscalationHsmAsync_chainsUploadAndSend_withMediaIdFromUpload() throws Exception {
+        JsonNode uploadResponse = mapper.readTree("""
+                {"createMessageMedia":{"messageMedia":{"id":"123"}}}
+                """);
+        JsonNode sendResponse = mapper.readTree("""
+                {"createAndSendMessage":{"message":{"id":3,"body":"ok","isHsm":true},"errors":[]}}
+                """);
+        when(client.executeAsync(contains("createMessageMedia"), anyMap())).thenReturn(Mono.just(uploadResponse));
+        when(client.executeAsync(contains("createAndSendMessage"), anyMap())).thenReturn(Mono.just(sendResponse));
+
+        service.sendEscalationHsmAsync(77L, "https://minio.example.com/report.pdf").block();
+
+        ArgumentCaptor<Map<String, Object>> captor = varsCaptor();
+        verify(client).executeAsync(contains("createAndSendMessage"), captor.capture());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> input = (Map<String, Object>) captor.getValue().get("input");
+        assertThat(input.get("mediaId")).isEqualTo(123);
+        assertThat(input.get("receiverId")).isEqualTo(77);
+    }
+
+    @Test
+    void sendEscalationHsmAsync_doesNotSend_whenUploadFails() {
+        when(client.executeAsync(contains("createMessageMedia"), anyMap()))
+                .thenReturn(Mono.error(new GlificApiException("Glific GraphQL error: bad url")));
+
+        assertThatThrownBy(() -> service.sendEscalationHsmAsync(88L, "https://minio.example.com/r.pdf").block())
+                .isInstanceOf(GlificApiException.class);
+
+        verify(client, never()).executeAsync(contains("createAndSendMessage"), anyMap());
+    }
+
+    @Test
+    void sendLoginOtpHsmAsync_failsWithoutCallingClient_whenTemplateNotConfigured() {
+        assertThatThrownBy(() -> service.sendLoginOtpHsmAsync(31L, "123456").block())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("login-otp-id");
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void sendLoginOtpHsmAsync_failsOnGraphQLErrors() throws Exception {
+        ReflectionTestUtils.setField(service, "loginOtpTemplateId", "otp-tmpl-1");
+        JsonNode response = mapper.readTree("""
+                {"sendHsmMessage":{"message":null,"errors":[{"key":"template","message":"not approved"}]}}
+                """);
+        when(client.executeAsync(contains("sendHsmMessage"), anyMap())).thenReturn(Mono.just(response));
+
+        assertThatThrownBy(() -> service.sendLoginOtpHsmAsync(31L, "123456").block())
+                .hasMessageContaining("not approved");
+    }
+
     // ──────────────────────── startNudgeFlow ───────────────────────────────────
 
     @Test
@@ -0,0 +1,60 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PhoneHashService")
+class PhoneHashServiceTest {
+
+    // 32 bytes of zeros, base64-encoded — safe test key material
+    private static final String TEST_HMAC_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    // HMAC-SHA256 of "9000000001" under TEST_HMAC_KEY; the services' PiiEncryptionServiceTest checks the same vector
+    private static final String HMAC_OF_9000000001 = "2a0b5e5d587a8e63c6c65788cf0ec28a13eee189472f9a1bcfe40ed32abee577";
+
+    private final PhoneHashService phoneHashService = new PhoneHashService(TEST_HMAC_KEY);
+
+    @Test
+    @DisplayName("hmac matches the test vector shared with the other services, ignoring surrounding spaces")
+    void hmac_matchesSharedTestVector() {
+        assertThat(phoneHashService.hmac("9000000001")).isEqualTo(HMAC_OF_9000000001);
+        assertThat(phoneHashService.hmac(" 9000000001 ")).isEqualTo(HMAC_OF_9000000001);
+        assertThat(phoneHashService.hmac(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("hmac gives the same result on every thread")
+    void hmac_isStableAcrossThreads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(pool.submit(() -> phoneHashService.hmac("9000000001")));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo(HMAC_OF_9000000001);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("a missing or wrong-sized PII_HMAC_KEY stops start-up with a clear message")
+    void constructor_rejectsMissingOrShortKey() {
+        assertThatThrownBy(() -> new PhoneHashService(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PII_HMAC_KEY is not set");
+        assertThatThrownBy(() -> new PhoneHashService("AAAA"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("32 bytes");
+    }
+}
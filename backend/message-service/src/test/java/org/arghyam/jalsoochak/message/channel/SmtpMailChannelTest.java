@@ -1,5 +1,6 @@
 package org.arghyam.jalsoochak.message.channel;
 
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMultipart;
@@ -11,20 +12,23 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for {@link SmtpMailChannel}.
  *
- * <p>Verifies that the channel delegates to {@link JavaMailSender}, returns
- * {@code true} on success, and returns {@code false} without throwing on
- * any SMTP failure (graceful degradation so callers decide retry strategy).</p>
+ * <p>Verifies that the channel builds the message with {@link JavaMailSender}, hands it to
+ * {@link SmtpTransportPool}, returns {@code true} on success, and returns {@code false}
+ * without throwing on any SMTP failure (graceful degradation so callers decide retry strategy).</p>
  */
 @ExtendWith(MockitoExtension.class)
 class SmtpMailChannelTest {
@@ -32,6 +36,9 @@ class SmtpMailChannelTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Mock
+    private SmtpTransportPool transportPool;
+
     @InjectMocks
     private SmtpMailChannel smtpMailChannel;
 
@@ -41,9 +48,13 @@ class SmtpMailChannelTest {
         ReflectionTestUtils.setField(smtpMailChannel, "fromName", "JalSoochak");
     }
 
-    /** Stubs {@code createMimeMessage()} — called only in tests that exercise {@code send()}. */
+    /**
+     * Stubs {@code createMimeMessage()} — called only in tests that exercise {@code send()} —
+     * and lets the pool accept the message.
+     */
     private void stubMimeMessage() {
         when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((jakarta.mail.Session) null));
+        lenient().when(transportPool.submit(any())).thenReturn(CompletableFuture.completedFuture(null));
     }
 
     // ─────────────────────────── channelType ───────────────────────────────────
@@ -56,7 +67,7 @@ class SmtpMailChannelTest {
     // ─────────────────────────── send — success ────────────────────────────────
 
     @Test
-    void send_returnsTrueAndInvokesMailSender_onSuccess() {
+    void send_returnsTrueAndSubmitsToPool_onSuccess() {
         stubMimeMessage();
         NotificationRequest request = NotificationRequest.builder()
                 .recipient("user@example.com")
@@ -68,7 +79,7 @@ class SmtpMailChannelTest {
         boolean result = smtpMailChannel.send(request);
 
         assertThat(result).isTrue();
-        verify(mailSender).send(any(MimeMessage.class));
+        verify(transportPool).submit(any(MimeMessage.class));
     }
 
     @Test
@@ -82,9 +93,9 @@ class SmtpMailChannelTest {
                 .body("<html><body>Click here</body></html>")
                 .build());
 
-        verify(mailSender).send(captor.capture());
+        verify(transportPool).submit(captor.capture());
         MimeMessage captured = captor.getValue();
-        // Commit MIME headers (normally done by JavaMailSender.send → MimeMessage.saveChanges).
+        // Commit MIME headers (normally done by SmtpTransportPool.submit → MimeMessage.saveChanges).
         // Required so Content-Type headers are written before we inspect them.
         captured.saveChanges();
         // MimeMessageHelper(message, multipart=true) wraps content in multipart/mixed →
@@ -100,10 +111,10 @@ class SmtpMailChannelTest {
     // ─────────────────────────── send — failure ────────────────────────────────
 
     @Test
-    void send_returnsFalse_whenMailSenderThrows() {
+    void send_returnsFalse_whenDeliveryFails() {
         stubMimeMessage();
-        doThrow(new MailSendException("SMTP connection refused"))
-                .when(mailSender).send(any(MimeMessage.class));
+        when(transportPool.submit(any()))
+                .thenReturn(CompletableFuture.failedFuture(new MessagingException("SMTP connection refused")));
 
         boolean result = smtpMailChannel.send(NotificationRequest.builder()
                 .recipient("user@example.com")
@@ -125,15 +136,14 @@ class SmtpMailChannelTest {
                 .build());
 
         assertThat(result).isFalse();
-        // send() must not have been called since message creation itself failed
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        // Nothing must have been queued since message creation itself failed
+        verifyNoInteractions(transportPool);
     }
 
     @Test
-    void send_doesNotThrow_onSmtpFailure() {
+    void send_doesNotThrow_whenPoolIsFull() {
         stubMimeMessage();
-        doThrow(new MailSendException("server down"))
-                .when(mailSender).send(any(MimeMessage.class));
+        when(transportPool.submit(any())).thenThrow(new RejectedExecutionException("SMTP queue is full"));
 
         // Must return false, never propagate the exception
         assertThat(smtpMailChannel.send(NotificationRequest.builder()
@@ -142,4 +152,22 @@ class SmtpMailChannelTest {
                 .body("Body")
                 .build())).isFalse();
     }
+
+    // ─────────────────────────── sendAsync ─────────────────────────────────────
+
+    @Test
+    void sendAsync_completesExceptionally_whenDeliveryFails() {
+        stubMimeMessage();
+        MessagingException failure = new MessagingException("550 mailbox unavailable");
+        when(transportPool.submit(any())).thenReturn(CompletableFuture.failedFuture(failure));
+
+        CompletableFuture<Void> sent = smtpMailChannel.sendAsync(NotificationRequest.builder()
+                .recipient("user@example.com")
+                .subject("Subj")
+                .body("Body")
+                .build());
+
+        assertThat(sent).isCompletedExceptionally();
+        assertThatThrownBy(sent::join).hasCause(failure);
+    }
 }
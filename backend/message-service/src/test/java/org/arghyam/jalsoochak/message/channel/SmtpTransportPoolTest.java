@@ -0,0 +1,240 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.arghyam.jalsoochak.message.config.properties.SmtpPoolProperties;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SmtpTransportPool} against an embedded GreenMail SMTP server:
+ * connection reuse, batching, retries, permanent failures, back-pressure and metrics.
+ */
+class SmtpTransportPoolTest {
+
+    private static final String USER = "sender@jalsoochak.in";
+    private static final String PASSWORD = "secret";
+
+    private int port;
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private SmtpPoolProperties properties;
+    private MeterRegistry meterRegistry;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        port = freePort();
+        greenMail = new GreenMail(new ServerSetup(port, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.setUser(USER, USER, PASSWORD);
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.setUsername(USER);
+        mailSender.setPassword(PASSWORD);
+        Properties javaMail = new Properties();
+        javaMail.put("mail.smtp.auth", "true");
+        javaMail.put("mail.smtp.connectiontimeout", "2000");
+        javaMail.put("mail.smtp.timeout", "2000");
+        mailSender.setJavaMailProperties(javaMail);
+
+        properties = new SmtpPoolProperties();
+        properties.setConnections(2);
+        properties.setBatchSize(10);
+        properties.setRetryBaseDelayMs(200);
+        properties.setRetryMaxDelayMs(1_000);
+        properties.setShutdownTimeoutMs(100);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        greenMail.stop();
+    }
+
+    @Test
+    void submit_deliversBurst_overPooledAuthenticatedConnections() throws Exception {
+        greenMail.start();
+        pool = newPool();
+
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            sent.add(pool.submit(message("user" + i + "@example.com", "Invite " + i)));
+        }
+
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertThat(greenMail.getReceivedMessages()).hasSize(40);
+        assertThat(connectionsOpened()).isLessThanOrEqualTo(2);
+        assertThat(meterRegistry.get("smtp.batch.size").summary().max()).isGreaterThan(1);
+        assertThat(pool.getPendingCount()).isZero();
+    }
+
+    @Test
+    void submit_reopensConnection_afterMaxMessagesPerConnection() throws Exception {
+        greenMail.start();
+        properties.setConnections(1);
+        properties.setMaxMessagesPerConnection(5);
+        pool = newPool();
+
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            sent.add(pool.submit(message("user" + i + "@example.com", "Reset " + i)));
+        }
+
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertThat(greenMail.getReceivedMessages()).hasSize(12);
+        assertThat(connectionsOpened()).isEqualTo(3);
+    }
+
+    @Test
+    void submit_retriesWithBackoff_untilServerIsReachable() throws Exception {
+        // GreenMail is not started yet, so the first attempt is refused.
+        pool = newPool();
+
+        CompletableFuture<Void> sent = pool.submit(message("user@example.com", "Welcome"));
+        Thread.sleep(100);
+        assertThat(sent).isNotDone();
+        greenMail.start();
+
+        sent.get(10, TimeUnit.SECONDS);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(latencyCount("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void submit_failsAfterMaxAttempts_whenServerStaysUnreachable() {
+        properties.setRetryBaseDelayMs(10);
+        pool = newPool();
+
+        CompletableFuture<Void> sent = pool.submit(message("user@example.com", "Welcome"));
+
+        assertThat(sent).failsWithin(Duration.ofSeconds(10))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(MessagingException.class);
+        assertThat(latencyCount("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void submit_failsWithoutRetry_whenAuthenticationIsRejected() throws Exception {
+        greenMail.start();
+        mailSender.setPassword("wrong");
+        properties.setRetryBaseDelayMs(30_000);
+        pool = newPool();
+
+        CompletableFuture<Void> sent = pool.submit(message("user@example.com", "Welcome"));
+
+        assertThat(sent).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(AuthenticationFailedException.class);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void submit_rejects_whenQueueStaysFull() {
+        // Unreachable server and a long back-off keep both accepted messages pending.
+        properties.setQueueCapacity(2);
+        properties.setRetryBaseDelayMs(30_000);
+        properties.setRetryMaxDelayMs(30_000);
+        pool = newPool();
+
+        pool.submit(message("a@example.com", "1"));
+        pool.submit(message("b@example.com", "2"));
+
+        assertThatThrownBy(() -> pool.submit(message("c@example.com", "3")))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("SMTP queue is full");
+    }
+
+    @Test
+    void submit_rejects_afterShutdown() {
+        pool = newPool();
+        pool.shutdown();
+
+        assertThatThrownBy(() -> pool.submit(message("a@example.com", "1")))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void isRetryable_classifiesSmtpFailures() {
+        assertThat(SmtpTransportPool.isRetryable(new MessagingException("Connection refused"))).isTrue();
+        assertThat(SmtpTransportPool.isRetryable(smtpReply(451))).isTrue();
+        assertThat(SmtpTransportPool.isRetryable(smtpReply(550))).isFalse();
+        assertThat(SmtpTransportPool.isRetryable(new SendFailedException("Invalid Addresses"))).isFalse();
+        assertThat(SmtpTransportPool.isRetryable(new AuthenticationFailedException("535"))).isFalse();
+    }
+
+    @Test
+    void retryDelay_growsExponentially_withinJitterAndCap() {
+        properties.setRetryBaseDelayMs(1_000);
+        properties.setRetryMaxDelayMs(3_000);
+        pool = newPool();
+
+        assertThat(pool.retryDelay(1).toMillis()).isBetween(800L, 1_200L);
+        assertThat(pool.retryDelay(2).toMillis()).isBetween(1_600L, 2_400L);
+        assertThat(pool.retryDelay(5).toMillis()).isEqualTo(3_000L);
+    }
+
+    private SmtpTransportPool newPool() {
+        return new SmtpTransportPool(mailSender, properties, meterRegistry);
+    }
+
+    private MimeMessage message(String to, String subject) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom(USER, "JalSoochak");
+            helper.setTo(to);
+            helper.setSubject(subject);
+            helper.setText("<p>" + subject + "</p>", true);
+            return message;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double connectionsOpened() {
+        return meterRegistry.get("smtp.connections.opened").counter().count();
+    }
+
+    private long latencyCount(String result) {
+        return meterRegistry.get("smtp.delivery.latency").tag("result", result).timer().count();
+    }
+
+    private static SMTPSendFailedException smtpReply(int code) {
+        return new SMTPSendFailedException("DATA", code, code + " reply", null, null, null, null);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
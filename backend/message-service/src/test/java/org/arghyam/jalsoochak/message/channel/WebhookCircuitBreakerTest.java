@@ -0,0 +1,97 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link WebhookCircuitBreaker} state transitions, driven by a fake clock.
+ */
+class WebhookCircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final WebhookCircuitBreaker breaker = new WebhookCircuitBreaker(3, OPEN_NANOS, clock::get);
+
+    @Test
+    void staysClosed_belowFailureThreshold() {
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(WebhookCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isZero();
+    }
+
+    @Test
+    void success_resetsConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(WebhookCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opens_atThreshold_andRefusesUntilOpenPeriodEnds() {
+        tripOpen();
+        clock.set(400);
+
+        assertThat(breaker.state()).isEqualTo(WebhookCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(OPEN_NANOS - 400);
+    }
+
+    @Test
+    void halfOpen_letsOneTrialThrough_andClosesOnSuccess() {
+        tripOpen();
+        clock.set(OPEN_NANOS);
+
+        assertThat(breaker.tryAcquire()).isZero();
+        assertThat(breaker.state()).isEqualTo(WebhookCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isPositive();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(WebhookCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isZero();
+    }
+
+    @Test
+    void halfOpen_reopens_onTrialFailure() {
+        tripOpen();
+        clock.set(OPEN_NANOS);
+        breaker.tryAcquire();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(WebhookCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(OPEN_NANOS);
+    }
+
+    @Test
+    void isIdle_onlyWhenClosedWithNothingInFlight_andUnusedForIdlePeriod() {
+        clock.set(500);
+        breaker.tryAcquire();
+        clock.set(5_000);
+        assertThat(breaker.isIdle(1_000)).isFalse();
+
+        breaker.onSuccess();
+        clock.set(5_900);
+        assertThat(breaker.isIdle(1_000)).isFalse();
+        clock.set(6_000);
+        assertThat(breaker.isIdle(1_000)).isTrue();
+
+        tripOpen();
+        clock.set(10_000);
+        assertThat(breaker.isIdle(1_000)).isFalse();
+    }
+
+    private void tripOpen() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+    }
+}
@@ -0,0 +1,324 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.arghyam.jalsoochak.message.channel.WebhookRetryStore.Delivery;
+import org.arghyam.jalsoochak.message.config.properties.WebhookDispatchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link WebhookDispatcher} against a WireMock endpoint with a mocked retry store:
+ * batching by size and linger, HMAC signing, retry scheduling, dead-lettering, circuit
+ * breaking, re-sending from the retry queue and eviction of idle endpoints.
+ */
+class WebhookDispatcherTest {
+
+    private static final String PATH = "/hook";
+    private static final String SECRET = "webhook-secret";
+    private static final long TIMEOUT_MS = 5_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WireMockServer wireMockServer;
+    private WebhookRetryStore retryStore;
+    private WebhookDispatchProperties properties;
+    private MeterRegistry meterRegistry;
+    private WebhookDispatcher dispatcher;
+    private String endpoint;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        wireMockServer.start();
+        endpoint = wireMockServer.baseUrl() + PATH;
+
+        retryStore = mock(WebhookRetryStore.class);
+        properties = new WebhookDispatchProperties();
+        properties.setMaxBatchSize(3);
+        properties.setLingerMs(100);
+        properties.setMaxAttempts(3);
+        properties.setRetryBaseDelayMs(1_000);
+        properties.setRetryMaxDelayMs(10_000);
+        // Keep the background poller out of the way; tests call pollRetries() directly.
+        properties.setRetryPollIntervalMs(60_000);
+        properties.setCircuitFailureThreshold(2);
+        properties.setCircuitOpenMs(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        wireMockServer.stop();
+    }
+
+    @Test
+    void enqueue_sendsFullBatch_inOneSignedRequest() throws Exception {
+        stubStatus(200);
+        dispatcher = newDispatcher(SECRET);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(dispatcher.enqueue(endpoint, Map.of("subject", "s" + i, "body", "b" + i))).isTrue();
+        }
+
+        verify(retryStore, timeout(TIMEOUT_MS)).delete(argThat(c -> c.size() == 3));
+        List<LoggedRequest> requests = wireMockServer.findAll(postRequestedFor(urlEqualTo(PATH)));
+        assertThat(requests).hasSize(1);
+        LoggedRequest request = requests.get(0);
+        assertThat(objectMapper.readTree(request.getBodyAsString()).get("notifications"))
+                .hasSize(3)
+                .first().satisfies(n -> assertThat(n.get("subject").asText()).isEqualTo("s0"));
+
+        String timestamp = request.getHeader("X-Webhook-Timestamp");
+        assertThat(Long.parseLong(timestamp)).isCloseTo(Instant.now().getEpochSecond(), within(60L));
+        assertThat(request.getHeader("X-Webhook-Signature"))
+                .isEqualTo("sha256=" + hmac(timestamp + "." + request.getBodyAsString()));
+        assertThat(request.containsHeader("X-Webhook-Secret")).isFalse();
+        assertThat(meterRegistry.get("webhook.notifications").tag("result", "sent").counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void enqueue_sendsPartialBatch_afterLinger() {
+        stubStatus(200);
+        dispatcher = newDispatcher(SECRET);
+
+        dispatcher.enqueue(endpoint, Map.of("subject", "only"));
+
+        assertThat(wireMockServer.findAll(postRequestedFor(urlEqualTo(PATH)))).isEmpty();
+        verify(retryStore, timeout(TIMEOUT_MS)).delete(argThat(c -> c.size() == 1));
+        assertThat(meterRegistry.get("webhook.buffered").gauge().value()).isZero();
+    }
+
+    @Test
+    void enqueue_sendsUnsigned_whenNoSecretConfigured() {
+        stubStatus(200);
+        dispatcher = newDispatcher("");
+
+        dispatcher.enqueue(endpoint, Map.of("subject", "s"));
+
+        verify(retryStore, timeout(TIMEOUT_MS)).delete(any());
+        LoggedRequest request = wireMockServer.findAll(postRequestedFor(urlEqualTo(PATH))).get(0);
+        assertThat(request.containsHeader("X-Webhook-Signature")).isFalse();
+    }
+
+    @Test
+    void enqueue_refuses_whenBufferIsFull() {
+        properties.setMaxBuffered(2);
+        properties.setLingerMs(60_000);
+        properties.setMaxBatchSize(10);
+        dispatcher = newDispatcher(SECRET);
+
+        assertThat(dispatcher.enqueue(endpoint, Map.of("n", 1))).isTrue();
+        assertThat(dispatcher.enqueue(endpoint, Map.of("n", 2))).isTrue();
+        assertThat(dispatcher.enqueue(endpoint, Map.of("n", 3))).isFalse();
+    }
+
+    @Test
+    void failedBatch_isScheduledForRetry_onServerError() {
+        stubStatus(503);
+        dispatcher = newDispatcher(SECRET);
+        Instant before = Instant.now();
+
+        sendNow(Map.of("subject", "s"));
+
+        ArgumentCaptor<Collection<Delivery>> scheduled = deliveriesCaptor();
+        ArgumentCaptor<Instant> nextAttempt = ArgumentCaptor.forClass(Instant.class);
+        verify(retryStore, timeout(TIMEOUT_MS)).schedule(scheduled.capture(), nextAttempt.capture(), eq("HTTP 503"));
+        assertThat(scheduled.getValue()).singleElement()
+                .satisfies(d -> assertThat(d.attempts()).isEqualTo(1));
+        assertThat(Duration.between(before, nextAttempt.getValue()).toMillis()).isBetween(800L, 1_500L);
+        verify(retryStore, never()).deadLetter(any(), anyString());
+    }
+
+    @Test
+    void failedBatch_isDeadLettered_onClientError() {
+        stubStatus(400);
+        dispatcher = newDispatcher(SECRET);
+
+        sendNow(Map.of("subject", "s"));
+
+        verify(retryStore, timeout(TIMEOUT_MS)).deadLetter(argThat(c -> c.size() == 1), eq("HTTP 400"));
+        verify(retryStore, never()).schedule(any(), any(), anyString());
+    }
+
+    @Test
+    void pollRetries_resendsDueDeliveries_andDeletesThemOnSuccess() {
+        stubStatus(200);
+        List<Delivery> due = List.of(
+                new Delivery(1L, endpoint, "{\"n\":1}", 1),
+                new Delivery(2L, endpoint, "{\"n\":2}", 2),
+                new Delivery(3L, endpoint, "{\"n\":3}", 1),
+                new Delivery(4L, endpoint, "{\"n\":4}", 1));
+        when(retryStore.claimDue(anyInt(), any())).thenReturn(due);
+        dispatcher = newDispatcher(SECRET);
+
+        dispatcher.pollRetries();
+
+        verify(retryStore, timeout(TIMEOUT_MS).times(2)).delete(any());
+        assertThat(wireMockServer.findAll(postRequestedFor(urlEqualTo(PATH)))).hasSize(2);
+    }
+
+    @Test
+    void pollRetries_deadLettersDelivery_atMaxAttempts() {
+        stubStatus(500);
+        when(retryStore.claimDue(anyInt(), any()))
+                .thenReturn(List.of(new Delivery(7L, endpoint, "{\"n\":7}", 2)));
+        dispatcher = newDispatcher(SECRET);
+
+        dispatcher.pollRetries();
+
+        ArgumentCaptor<Collection<Delivery>> dead = deliveriesCaptor();
+        verify(retryStore, timeout(TIMEOUT_MS)).deadLetter(dead.capture(), eq("HTTP 500"));
+        assertThat(dead.getValue()).singleElement()
+                .satisfies(d -> assertThat(d.id()).isEqualTo(7L))
+                .satisfies(d -> assertThat(d.attempts()).isEqualTo(3));
+    }
+
+    @Test
+    void openCircuit_defersBatches_withoutSendingOrSpendingAttempts() {
+        stubStatus(503);
+        dispatcher = newDispatcher(SECRET);
+
+        sendNow(Map.of("n", 1));
+        verify(retryStore, timeout(TIMEOUT_MS).times(1)).schedule(any(), any(), anyString());
+        sendNow(Map.of("n", 2));
+        verify(retryStore, timeout(TIMEOUT_MS).times(2)).schedule(any(), any(), anyString());
+        assertThat(dispatcher.circuitState(endpoint)).isEqualTo(WebhookCircuitBreaker.State.OPEN);
+
+        sendNow(Map.of("n", 3));
+
+        ArgumentCaptor<Collection<Delivery>> deferred = deliveriesCaptor();
+        verify(retryStore, timeout(TIMEOUT_MS)).schedule(deferred.capture(), any(), eq("circuit open"));
+        assertThat(deferred.getValue()).singleElement()
+                .satisfies(d -> assertThat(d.attempts()).isZero());
+        assertThat(wireMockServer.findAll(postRequestedFor(urlEqualTo(PATH)))).hasSize(2);
+    }
+
+    @Test
+    void shutdown_storesBufferedNotifications_inRetryQueue() {
+        properties.setLingerMs(60_000);
+        dispatcher = newDispatcher(SECRET);
+        dispatcher.enqueue(endpoint, Map.of("n", 1));
+
+        dispatcher.shutdown();
+
+        verify(retryStore).schedule(argThat(c -> c.size() == 1), any(), eq("buffered at shutdown"));
+        assertThat(wireMockServer.findAll(postRequestedFor(urlEqualTo(PATH)))).isEmpty();
+    }
+
+    @Test
+    void evictIdleEndpoints_dropsIdleEndpoints_whichAreRecreatedOnNextUse() throws Exception {
+        stubStatus(200);
+        properties.setEndpointIdleMs(1);
+        dispatcher = newDispatcher(SECRET);
+        sendNow(Map.of("n", 1));
+        verify(retryStore, timeout(TIMEOUT_MS)).delete(any());
+        Thread.sleep(5);
+
+        dispatcher.evictIdleEndpoints();
+        assertThat(dispatcher.trackedEndpoints()).isZero();
+
+        sendNow(Map.of("n", 2));
+        verify(retryStore, timeout(TIMEOUT_MS).times(2)).delete(any());
+    }
+
+    @Test
+    void evictIdleEndpoints_keepsBufferedNotifications_andOpenCircuits() throws Exception {
+        stubStatus(503);
+        properties.setLingerMs(60_000);
+        properties.setEndpointIdleMs(1);
+        properties.setCircuitFailureThreshold(1);
+        dispatcher = newDispatcher(SECRET);
+        dispatcher.enqueue(wireMockServer.baseUrl() + "/other", Map.of("n", 1));
+        sendNow(Map.of("n", 2));
+        verify(retryStore, timeout(TIMEOUT_MS)).schedule(any(), any(), eq("HTTP 503"));
+        Thread.sleep(5);
+
+        dispatcher.evictIdleEndpoints();
+
+        assertThat(dispatcher.trackedEndpoints()).isEqualTo(2);
+        assertThat(dispatcher.circuitState(endpoint)).isEqualTo(WebhookCircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.get("webhook.buffered").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void isRetryable_classifiesFailures() {
+        assertThat(WebhookDispatcher.isRetryable(new IOException("Connection refused"))).isTrue();
+        assertThat(WebhookDispatcher.isRetryable(status(503))).isTrue();
+        assertThat(WebhookDispatcher.isRetryable(status(429))).isTrue();
+        assertThat(WebhookDispatcher.isRetryable(status(408))).isTrue();
+        assertThat(WebhookDispatcher.isRetryable(status(400))).isFalse();
+        assertThat(WebhookDispatcher.isRetryable(status(404))).isFalse();
+    }
+
+    @Test
+    void retryDelay_growsExponentially_withinJitterAndCap() {
+        properties.setRetryMaxDelayMs(3_000);
+        dispatcher = newDispatcher(SECRET);
+
+        assertThat(dispatcher.retryDelay(1).toMillis()).isBetween(800L, 1_200L);
+        assertThat(dispatcher.retryDelay(2).toMillis()).isBetween(1_600L, 2_400L);
+        assertThat(dispatcher.retryDelay(6).toMillis()).isEqualTo(3_000L);
+    }
+
+    private WebhookDispatcher newDispatcher(String secret) {
+        return new WebhookDispatcher(properties, retryStore, objectMapper, WebClient.builder(),
+                meterRegistry, secret);
+    }
+
+    /** Enqueues a notification and sends its batch without waiting for the linger. */
+    private void sendNow(Map<String, ?> notification) {
+        dispatcher.enqueue(endpoint, notification);
+        dispatcher.flush(endpoint);
+    }
+
+    private void stubStatus(int status) {
+        wireMockServer.stubFor(post(urlEqualTo(PATH)).willReturn(aResponse().withStatus(status)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<Delivery>> deliveriesCaptor() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "status " + code, null, null, null);
+    }
+
+    private static String hmac(String content) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
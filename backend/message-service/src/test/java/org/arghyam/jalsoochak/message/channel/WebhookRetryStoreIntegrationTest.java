@@ -0,0 +1,128 @@
+package org.arghyam.jalsoochak.message.channel;
+
+import org.arghyam.jalsoochak.message.channel.WebhookRetryStore.Delivery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link WebhookRetryStore} against a real PostgreSQL instance.
+ *
+ * <p>Verifies scheduling, leased claims of due rows, deletion and moving rows to the
+ * dead-letter table.</p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class WebhookRetryStoreIntegrationTest {
+
+    private static final String ENDPOINT = "https://hooks.example.com/notify";
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/test-schema.sql");
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    // Suppress GlificAuthService @PostConstruct login
+    @MockBean
+    private GlificAuthService glificAuthService;
+
+    // Suppress GlificWhatsAppService @PostConstruct validateTemplates
+    @MockBean
+    private GlificWhatsAppService glificWhatsAppService;
+
+    @Autowired
+    private WebhookRetryStore retryStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanTables() {
+        jdbcTemplate.execute("DELETE FROM common_schema.webhook_delivery_table");
+        jdbcTemplate.execute("DELETE FROM common_schema.webhook_dead_letter_table");
+    }
+
+    @Test
+    void claimDue_returnsOnlyDueRows_andLeasesThem() {
+        retryStore.schedule(List.of(Delivery.fresh(ENDPOINT, "{\"n\":1}").withAttempts(1)),
+                Instant.now().minusSeconds(1), "HTTP 503");
+        retryStore.schedule(List.of(Delivery.fresh(ENDPOINT, "{\"n\":2}").withAttempts(1)),
+                Instant.now().plusSeconds(3600), "HTTP 503");
+
+        List<Delivery> claimed = retryStore.claimDue(10, Duration.ofMinutes(1));
+
+        assertThat(claimed).singleElement().satisfies(d -> {
+            assertThat(d.id()).isNotNull();
+            assertThat(d.endpoint()).isEqualTo(ENDPOINT);
+            assertThat(d.payload()).isEqualTo("{\"n\":1}");
+            assertThat(d.attempts()).isEqualTo(1);
+        });
+        assertThat(retryStore.claimDue(10, Duration.ofMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void schedule_updatesStoredRows_inPlace() {
+        retryStore.schedule(List.of(Delivery.fresh(ENDPOINT, "{}").withAttempts(1)),
+                Instant.now().minusSeconds(1), "HTTP 503");
+        Delivery claimed = retryStore.claimDue(10, Duration.ofMinutes(1)).get(0);
+
+        retryStore.schedule(List.of(claimed.withAttempts(2)), Instant.now().minusSeconds(1), "HTTP 502");
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) OVER () AS total, attempts, last_error FROM common_schema.webhook_delivery_table");
+        assertThat(row).containsEntry("total", 1L).containsEntry("attempts", 2).containsEntry("last_error", "HTTP 502");
+    }
+
+    @Test
+    void delete_removesDeliveredRows() {
+        retryStore.schedule(List.of(Delivery.fresh(ENDPOINT, "{\"n\":1}"), Delivery.fresh(ENDPOINT, "{\"n\":2}")),
+                Instant.now().minusSeconds(1), "circuit open");
+        List<Delivery> claimed = retryStore.claimDue(10, Duration.ofMinutes(1));
+
+        retryStore.delete(claimed);
+
+        assertThat(count("webhook_delivery_table")).isZero();
+    }
+
+    @Test
+    void deadLetter_movesStoredRows_andInsertsUnstoredOnes() {
+        retryStore.schedule(List.of(Delivery.fresh(ENDPOINT, "{\"n\":1}").withAttempts(5)),
+                Instant.now().minusSeconds(1), "HTTP 503");
+        Delivery stored = retryStore.claimDue(10, Duration.ofMinutes(1)).get(0);
+
+        retryStore.deadLetter(List.of(stored.withAttempts(6), Delivery.fresh(ENDPOINT, "{\"n\":2}").withAttempts(1)),
+                "HTTP 400");
+
+        assertThat(count("webhook_delivery_table")).isZero();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT attempts FROM common_schema.webhook_dead_letter_table "
+                        + "WHERE last_error = 'HTTP 400' ORDER BY attempts", Integer.class))
+                .containsExactly(1, 6);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM common_schema." + table, Integer.class);
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.mockito.InOrder;
+import reactor.core.publisher.Mono;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -177,4 +178,25 @@ class WhatsAppChannelTest {
     void channelType_returnsWhatsApp() {
         assertThat(whatsAppChannel.channelType()).isEqualTo("WHATSAPP");
     }
+
+    // ─────────────────────────────── async sends ───────────────────────────────
+
+    @Test
+    void sendLoginOtpAsync_delegatesToAsyncHsm() {
+        when(glificWhatsAppService.sendLoginOtpHsmAsync(31L, "123456")).thenReturn(Mono.empty());
+
+        whatsAppChannel.sendLoginOtpAsync(31L, "123456").block();
+
+        verify(glificWhatsAppService).sendLoginOtpHsmAsync(31L, "123456");
+        verify(glificWhatsAppService, never()).sendLoginOtpHsm(anyLong(), anyString());
+    }
+
+    @Test
+    void sendDocumentAsync_propagatesFailure_insteadOfReturningFalse() {
+        when(glificWhatsAppService.sendEscalationHsmAsync(anyLong(), anyString()))
+                .thenReturn(Mono.error(new RuntimeException("Glific unreachable")));
+
+        assertThatThrownBy(() -> whatsAppChannel.sendDocumentAsync(77L, "https://minio.example.com/r.pdf").block())
+                .hasMessage("Glific unreachable");
+    }
 }
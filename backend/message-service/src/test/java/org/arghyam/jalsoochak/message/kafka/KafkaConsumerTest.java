@@ -0,0 +1,263 @@
+package org.arghyam.jalsoochak.message.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.arghyam.jalsoochak.message.config.properties.NotificationListenerProperties;
+import org.arghyam.jalsoochak.message.service.NotificationEventRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Unit tests for {@link KafkaConsumer}: acknowledgment once the routed send completes,
+ * pausing a lane at its in-flight bound, holding sends rejected by a full queue, dead-lettering of
+ * failed async sends and lane metrics.
+ */
+@ExtendWith(MockitoExtension.class)
+class KafkaConsumerTest {
+
+    @Mock
+    private NotificationEventRouter router;
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private Acknowledgment ack;
+
+    @Mock
+    private KafkaListenerEndpointRegistry registry;
+
+    @Mock
+    private MessageListenerContainer bulkContainer;
+
+    @Mock
+    private MessageListenerContainer priorityContainer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KafkaConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        NotificationListenerProperties properties = new NotificationListenerProperties();
+        properties.getBulk().setMaxInFlight(2);
+        properties.getPriority().setMaxInFlight(2);
+        properties.setRejectedRetryDelayMs(20);
+        properties.setRejectedRetryMaxDelayMs(20);
+        properties.setRejectedRetryMaxAttempts(50);
+        lenient().when(registry.getListenerContainer(KafkaConsumer.BULK_LISTENER_ID)).thenReturn(bulkContainer);
+        lenient().when(registry.getListenerContainer(KafkaConsumer.PRIORITY_LISTENER_ID)).thenReturn(priorityContainer);
+        consumer = newConsumer(properties);
+    }
+
+    private KafkaConsumer newConsumer(NotificationListenerProperties properties) {
+        return new KafkaConsumer(router, kafkaProducer, properties, new NotificationLaneMetrics(meterRegistry), registry);
+    }
+
+    @Test
+    void consume_acknowledges_onlyAfterSendCompletes() throws Exception {
+        Sinks.Empty<Void> send = Sinks.empty();
+        when(router.routeAsync("m1")).thenReturn(send.asMono());
+
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "m1"), ack);
+
+        verify(ack, never()).acknowledge();
+        send.tryEmitEmpty();
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void consume_pausesLane_atMaxInFlight_andResumesItWhenASendCompletes() {
+        Sinks.Empty<Void> first = Sinks.empty();
+        when(router.routeAsync("m1")).thenReturn(first.asMono());
+        when(router.routeAsync("m2")).thenReturn(Sinks.<Void>empty().asMono());
+
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "m1"), ack);
+        verify(bulkContainer, never()).pause();
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "m2"), ack);
+        verify(bulkContainer).pause();
+        verifyNoInteractions(priorityContainer);
+
+        first.tryEmitEmpty();
+        verify(bulkContainer).resume();
+        assertThat(meterRegistry.get("notification.lane.in.flight").tag("lane", "bulk").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void consume_deadLettersRejectedSend_onceTheRetryBudgetIsSpent() {
+        NotificationListenerProperties properties = new NotificationListenerProperties();
+        properties.setRejectedRetryDelayMs(1);
+        properties.setRejectedRetryMaxDelayMs(1);
+        properties.setRejectedRetryMaxAttempts(2);
+        KafkaConsumer consumer = newConsumer(properties);
+        AtomicInteger attempts = new AtomicInteger();
+        when(router.routeAsync("nudge")).thenReturn(Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new RejectedExecutionException("Glific queue is full"));
+        }));
+        when(kafkaProducer.publishRaw("common-topic.DLT", "nudge")).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "nudge"), ack);
+
+        verify(ack, timeout(2_000)).acknowledge();
+        verify(kafkaProducer).publishRaw("common-topic.DLT", "nudge");
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    void consumePriority_holdsRecordUnacknowledged_andRetries_whileTheSmtpQueueIsFull() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch queueDrained = new CountDownLatch(1);
+        when(router.routeAsync("email")).thenReturn(Mono.defer(() -> {
+            attempts.incrementAndGet();
+            if (queueDrained.getCount() > 0) {
+                return Mono.error(new RuntimeException("Notification event processing failed",
+                        new RejectedExecutionException("SMTP queue is full (100 pending sends)")));
+            }
+            return Mono.empty();
+        }));
+
+        consumer.consumePriority(record(KafkaConsumer.PRIORITY_TOPIC, "email"), ack);
+
+        Thread.sleep(100);
+        assertThat(attempts.get()).isGreaterThan(1);
+        verify(ack, never()).acknowledge();
+        assertThat(meterRegistry.get("notification.lane.in.flight").tag("lane", "priority").gauge().value()).isEqualTo(1);
+
+        queueDrained.countDown();
+        verify(ack, timeout(2_000)).acknowledge();
+        verifyNoInteractions(kafkaProducer);
+        assertThat(meterRegistry.get("notification.lane.in.flight").tag("lane", "priority").gauge().value()).isZero();
+        assertThat(meterRegistry.get("notification.lane.latency")
+                .tags("lane", "priority", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void consume_publishesToDlt_thenAcknowledges_whenSendFails() throws Exception {
+        when(router.routeAsync("m1")).thenReturn(Mono.error(new RuntimeException("Glific unreachable")));
+        when(kafkaProducer.publishRaw("common-topic.DLT", "m1")).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "m1"), ack);
+
+        verify(kafkaProducer).publishRaw("common-topic.DLT", "m1");
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void consume_holdsRecordUnacknowledged_untilTheDltPublishSucceeds() throws Exception {
+        when(router.routeAsync("m1")).thenReturn(Mono.error(new RuntimeException("Glific unreachable")));
+        CountDownLatch brokerBack = new CountDownLatch(1);
+        when(kafkaProducer.publishRaw(anyString(), anyString())).thenAnswer(invocation ->
+                brokerBack.getCount() > 0
+                        ? CompletableFuture.failedFuture(new RuntimeException("broker down"))
+                        : CompletableFuture.completedFuture(null));
+
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "m1"), ack);
+
+        verify(kafkaProducer, timeout(2_000).atLeast(2)).publishRaw("common-topic.DLT", "m1");
+        verify(ack, never()).acknowledge();
+        assertThat(meterRegistry.get("notification.lane.in.flight").tag("lane", "bulk").gauge().value()).isEqualTo(1);
+
+        brokerBack.countDown();
+        verify(ack, timeout(2_000)).acknowledge();
+        assertThat(meterRegistry.get("notification.lane.in.flight").tag("lane", "bulk").gauge().value()).isZero();
+    }
+
+    @Test
+    void consume_rethrowsSynchronousFailure_withoutAcknowledging_andReleasesSlot() throws Exception {
+        when(router.routeAsync("bad")).thenThrow(new RuntimeException("Notification event processing failed"));
+        when(router.routeAsync("m1")).thenReturn(Mono.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "bad"), ack))
+                    .isInstanceOf(RuntimeException.class);
+        }
+        verify(ack, never()).acknowledge();
+
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "m1"), ack);
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void consumePriority_isNotBlocked_byFullBulkLane() throws Exception {
+        when(router.routeAsync("nudge")).thenReturn(Sinks.<Void>empty().asMono());
+        when(router.routeAsync("otp")).thenReturn(Mono.empty());
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "nudge"), ack);
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "nudge"), ack);
+
+        Acknowledgment otpAck = mock(Acknowledgment.class);
+        consumer.consumePriority(record(KafkaConsumer.PRIORITY_TOPIC, "otp"), otpAck);
+
+        verify(otpAck).acknowledge();
+        assertThat(meterRegistry.get("notification.lane.in.flight").tag("lane", "bulk").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("notification.lane.in.flight").tag("lane", "priority").gauge().value()).isZero();
+    }
+
+    @Test
+    void consumePriority_deadLettersToPriorityDlt_whenSendFails() throws Exception {
+        when(router.routeAsync("otp")).thenReturn(Mono.error(new RuntimeException("Glific unreachable")));
+        when(kafkaProducer.publishRaw(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.consumePriority(record(KafkaConsumer.PRIORITY_TOPIC, "otp"), ack);
+
+        verify(kafkaProducer).publishRaw("notification-priority-topic.DLT", "otp");
+    }
+
+    @Test
+    void consume_recordsQueueDelayAndEndToEndLatency_perLane() throws Exception {
+        when(router.routeAsync("otp")).thenReturn(Mono.empty());
+        when(router.routeAsync("nudge")).thenReturn(Mono.error(new RuntimeException("Glific unreachable")));
+        when(kafkaProducer.publishRaw(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        long producedAt = System.currentTimeMillis() - 5_000;
+
+        consumer.consumePriority(record(KafkaConsumer.PRIORITY_TOPIC, "otp", producedAt), ack);
+        consumer.consume(record(KafkaConsumer.COMMON_TOPIC, "nudge", producedAt), ack);
+
+        Timer priorityDelay = meterRegistry.get("notification.lane.queue.delay").tag("lane", "priority").timer();
+        assertThat(priorityDelay.count()).isEqualTo(1);
+        assertThat(priorityDelay.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(5_000);
+        assertThat(meterRegistry.get("notification.lane.latency")
+                .tags("lane", "priority", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.lane.latency")
+                .tags("lane", "bulk", "outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, String value) {
+        return record(topic, value, System.currentTimeMillis());
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, String value, long timestamp) {
+        return new ConsumerRecord<>(topic, 0, 0L, timestamp, TimestampType.CREATE_TIME,
+                0, 0, null, value, new RecordHeaders(), Optional.empty());
+    }
+}
@@ -1,5 +1,6 @@
 package org.arghyam.jalsoochak.message.service;
 
+import jakarta.mail.MessagingException;
 import org.arghyam.jalsoochak.message.channel.SmtpMailChannel;
 import org.arghyam.jalsoochak.message.dto.NotificationRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,8 +11,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -20,8 +24,7 @@ import static org.mockito.Mockito.*;
  *
  * <p>Verifies that each public send-method delegates to {@link SmtpMailChannel}
  * with the correct recipient, subject, and HTML body, and that a failed SMTP
- * send (channel returns {@code false}) surfaces as a {@link RuntimeException}
- * so callers can trigger Kafka retry.</p>
+ * send surfaces through the returned future so callers can route it to the DLT.</p>
  */
 @ExtendWith(MockitoExtension.class)
 class AccountEmailServiceTest {
@@ -34,7 +37,7 @@ class AccountEmailServiceTest {
 
     @BeforeEach
     void setUp() {
-        when(smtpMailChannel.send(any())).thenReturn(true);
+        when(smtpMailChannel.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
     }
 
     // ─────────────────────────── sendInviteEmail ───────────────────────────────
@@ -47,7 +50,7 @@ class AccountEmailServiceTest {
                 "admin@state.gov", "Ravi Kumar", "STATE_ADMIN",
                 "https://app.jalsoochak.in/activate?token=abc", 24);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         NotificationRequest req = captor.getValue();
         assertThat(req.getRecipient()).isEqualTo("admin@state.gov");
         assertThat(req.getSubject()).contains("State System Admin");
@@ -65,7 +68,7 @@ class AccountEmailServiceTest {
                 "su@arghyam.in", "Priya", "SUPER_USER",
                 "https://app.jalsoochak.in/activate?token=xyz", 48);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getSubject()).contains("Super User");
     }
 
@@ -77,7 +80,7 @@ class AccountEmailServiceTest {
                 "op@tenant.in", "Mohan", "FIELD_OFFICER",
                 "https://app.jalsoochak.in/activate?token=def", 12);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getSubject()).isEqualTo("You are invited to join JalSoochak");
     }
 
@@ -89,7 +92,7 @@ class AccountEmailServiceTest {
                 "op@tenant.in", "Mohan", null,
                 "https://app.jalsoochak.in/activate?token=def", 12);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getSubject()).isEqualTo("You are invited to join JalSoochak");
     }
 
@@ -101,7 +104,7 @@ class AccountEmailServiceTest {
                 "op@tenant.in", null, "STATE_ADMIN",
                 "https://app.jalsoochak.in/activate?token=def", 24);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).contains("Dear User,");
     }
 
@@ -113,7 +116,7 @@ class AccountEmailServiceTest {
                 "op@tenant.in", "   ", "STATE_ADMIN",
                 "https://app.jalsoochak.in/activate?token=def", 24);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).contains("Dear User,");
     }
 
@@ -125,18 +128,20 @@ class AccountEmailServiceTest {
                 "op@tenant.in", "Dev", "STATE_ADMIN",
                 "https://link", 24);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getChannel()).isEqualTo(SmtpMailChannel.CHANNEL_TYPE);
     }
 
     @Test
-    void sendInviteEmail_throwsRuntimeException_whenSmtpChannelReturnsFalse() {
-        when(smtpMailChannel.send(any())).thenReturn(false);
+    void sendInviteEmail_completesExceptionally_whenSmtpSendFails() {
+        MessagingException smtpFailure = new MessagingException("SMTP connection refused");
+        when(smtpMailChannel.sendAsync(any())).thenReturn(CompletableFuture.failedFuture(smtpFailure));
 
-        assertThatThrownBy(() -> accountEmailService.sendInviteEmail(
+        assertThat(accountEmailService.sendInviteEmail(
                 "op@tenant.in", "Dev", "STATE_ADMIN", "https://link", 24))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("Failed to send email");
+                .failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCause(smtpFailure);
     }
 
     @Test
@@ -147,7 +152,7 @@ class AccountEmailServiceTest {
                 "admin@state.gov", "<script>alert('xss')</script>", "STATE_ADMIN",
                 "https://app.jalsoochak.in/activate?token=abc", 24);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).doesNotContain("<script>");
         assertThat(captor.getValue().getBody()).contains("&lt;script&gt;");
     }
@@ -160,7 +165,7 @@ class AccountEmailServiceTest {
                 "admin@state.gov", "Ravi", "STATE_ADMIN",
                 "https://app.jalsoochak.in/activate?token=abc&next=<evil>", 24);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).doesNotContain("<evil>");
         assertThat(captor.getValue().getBody()).contains("&amp;next=&lt;evil&gt;");
     }
@@ -174,7 +179,7 @@ class AccountEmailServiceTest {
         accountEmailService.sendReinviteEmail(
                 "op@tenant.in", "Sunita", "https://app.jalsoochak.in/activate?token=re1", 72);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         NotificationRequest req = captor.getValue();
         assertThat(req.getSubject()).isEqualTo("Reminder: Your JalSoochak Invitation");
         assertThat(req.getRecipient()).isEqualTo("op@tenant.in");
@@ -190,18 +195,20 @@ class AccountEmailServiceTest {
 
         accountEmailService.sendReinviteEmail("op@tenant.in", null, "https://link", 48);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).contains("Dear User,");
     }
 
     @Test
-    void sendReinviteEmail_throwsRuntimeException_whenSmtpChannelReturnsFalse() {
-        when(smtpMailChannel.send(any())).thenReturn(false);
+    void sendReinviteEmail_completesExceptionally_whenSmtpSendFails() {
+        MessagingException smtpFailure = new MessagingException("SMTP connection refused");
+        when(smtpMailChannel.sendAsync(any())).thenReturn(CompletableFuture.failedFuture(smtpFailure));
 
-        assertThatThrownBy(() -> accountEmailService.sendReinviteEmail(
+        assertThat(accountEmailService.sendReinviteEmail(
                 "op@tenant.in", "Dev", "https://link", 24))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("Failed to send email");
+                .failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCause(smtpFailure);
     }
 
     @Test
@@ -212,7 +219,7 @@ class AccountEmailServiceTest {
                 "op@tenant.in", "<b>User</b>",
                 "https://app.jalsoochak.in/activate?token=re&next=<evil>", 48);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).doesNotContain("<b>User</b>").doesNotContain("<evil>");
         assertThat(captor.getValue().getBody()).contains("&lt;b&gt;User&lt;/b&gt;");
         assertThat(captor.getValue().getBody()).contains("&amp;next=&lt;evil&gt;");
@@ -227,7 +234,7 @@ class AccountEmailServiceTest {
         accountEmailService.sendPasswordResetEmail(
                 "user@example.com", "https://app.jalsoochak.in/reset?token=r1", 30);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         NotificationRequest req = captor.getValue();
         assertThat(req.getSubject()).isEqualTo("Reset Your JalSoochak Password");
         assertThat(req.getRecipient()).isEqualTo("user@example.com");
@@ -243,18 +250,20 @@ class AccountEmailServiceTest {
 
         accountEmailService.sendPasswordResetEmail("user@example.com", "https://link", 15);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).contains("Dear User,");
     }
 
     @Test
-    void sendPasswordResetEmail_throwsRuntimeException_whenSmtpChannelReturnsFalse() {
-        when(smtpMailChannel.send(any())).thenReturn(false);
+    void sendPasswordResetEmail_completesExceptionally_whenSmtpSendFails() {
+        MessagingException smtpFailure = new MessagingException("SMTP connection refused");
+        when(smtpMailChannel.sendAsync(any())).thenReturn(CompletableFuture.failedFuture(smtpFailure));
 
-        assertThatThrownBy(() -> accountEmailService.sendPasswordResetEmail(
+        assertThat(accountEmailService.sendPasswordResetEmail(
                 "user@example.com", "https://link", 30))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("Failed to send email");
+                .failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCause(smtpFailure);
     }
 
     @Test
@@ -264,7 +273,7 @@ class AccountEmailServiceTest {
         accountEmailService.sendPasswordResetEmail(
                 "user@example.com", "https://app.jalsoochak.in/reset?token=r1&next=<evil>", 30);
 
-        verify(smtpMailChannel).send(captor.capture());
+        verify(smtpMailChannel).sendAsync(captor.capture());
         assertThat(captor.getValue().getBody()).doesNotContain("<evil>");
         assertThat(captor.getValue().getBody()).contains("&amp;next=&lt;evil&gt;");
     }
@@ -0,0 +1,90 @@
+package org.arghyam.jalsoochak.message.service;
+
+import org.arghyam.jalsoochak.message.dto.OperatorEscalationDetail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Measures {@link EscalationPdfService} throughput at typical officer report sizes:
+ * a section officer with a handful of operators, a district officer with a few dozen,
+ * and a large district spanning several pages.
+ *
+ * <p>Each size is rendered sequentially on the calling thread and concurrently on the
+ * render pool; the achieved documents per second are printed for both.</p>
+ *
+ * <p>Not part of the test run. Run with:</p>
+ * <pre>
+ * mvn -q -o test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat /tmp/cp.txt) \
+ *     org.arghyam.jalsoochak.message.service.EscalationPdfBenchmark [docs-per-size] [render-threads]
+ * </pre>
+ */
+public final class EscalationPdfBenchmark {
+
+    private static final int[] REPORT_SIZES = {5, 20, 60};
+
+    private EscalationPdfBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int docs = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int renderThreads = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        EscalationPdfService service = new EscalationPdfService(renderThreads, 8 * 1024 * 1024);
+        try {
+            // Warm up PDFBox (font metrics, JIT) before timing.
+            for (int i = 0; i < 20; i++) {
+                service.render(operators(20), 1, "Warm Up", "SECTION_OFFICER");
+            }
+
+            for (int size : REPORT_SIZES) {
+                List<OperatorEscalationDetail> operators = operators(size);
+
+                long bytes = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < docs; i++) {
+                    bytes += service.render(operators, 2, "Officer " + i, "DISTRICT_OFFICER").content().length;
+                }
+                long sequentialNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<CompletableFuture<EscalationPdfService.EscalationReport>> futures = new ArrayList<>();
+                for (int i = 0; i < docs; i++) {
+                    futures.add(service.renderAsync(operators, 2, "Officer " + i, "DISTRICT_OFFICER"));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+                long pooledNanos = System.nanoTime() - start;
+
+                System.out.printf("operators=%d avg_kb=%d sequential_docs_per_sec=%.0f pool_%d_docs_per_sec=%.0f%n",
+                        size, bytes / docs / 1024, docsPerSecond(docs, sequentialNanos),
+                        renderThreads, docsPerSecond(docs, pooledNanos));
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static double docsPerSecond(int docs, long nanos) {
+        return docs * 1_000_000_000.0 / nanos;
+    }
+
+    private static List<OperatorEscalationDetail> operators(int count) {
+        List<OperatorEscalationDetail> operators = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            operators.add(OperatorEscalationDetail.builder()
+                    .name("Operator " + i)
+                    .phoneNumber("9190000" + String.format("%05d", i))
+                    .schemeName("Piped Water Supply Scheme " + i)
+                    .schemeId(String.valueOf(1000 + i))
+                    .soName("Section Officer " + (i % 4))
+                    .consecutiveDaysMissed(3 + i % 10)
+                    .lastRecordedBfmDate("2024-01-" + String.format("%02d", 1 + i % 28))
+                    .build());
+        }
+        return operators;
+    }
+}
@@ -4,139 +4,141 @@ import org.arghyam.jalsoochak.message.dto.OperatorEscalationDetail;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.io.TempDir;
-import org.springframework.test.util.ReflectionTestUtils;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link EscalationPdfService} PDF generation.
  *
- * <p>Verifies file creation, filename format, PDF content, and multi-page
- * behaviour without any Spring context – all dependencies are instantiated
+ * <p>Verifies filename format, PDF content, multi-page output, the in-memory size cap
+ * and concurrent rendering on the pool without any Spring context – all dependencies are instantiated
  * directly.</p>
  */
 class EscalationPdfServiceTest {
 
-    @TempDir
-    Path tempDir;
+    private static final int MAX_BYTES = 8 * 1024 * 1024;
 
     private EscalationPdfService service;
 
     @BeforeEach
     void setUp() {
-        service = new EscalationPdfService();
-        ReflectionTestUtils.setField(service, "reportDir", tempDir.toString() + "/");
+        service = new EscalationPdfService(2, MAX_BYTES);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
     }
 
     @Test
-    void generate_createsPdfFileInReportDirectory() throws Exception {
+    void render_returnsPdfBytesInMemory() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op One", "S-01", 3, "2024-01-01"));
 
-        String filename = service.generate(operators, 1, "SO Officer", "SECTION_OFFICER");
+        EscalationPdfService.EscalationReport report = service.render(operators, 1, "SO Officer", "SECTION_OFFICER");
 
-        assertThat(filename).endsWith(".pdf");
-        assertThat(tempDir.resolve(filename).toFile()).exists().isFile();
+        assertThat(report.filename()).endsWith(".pdf");
+        assertThat(new String(report.content(), 0, 5)).isEqualTo("%PDF-");
     }
 
     @Test
-    void generate_filenameContainsLevelAndOfficerName() throws Exception {
+    void render_filenameContainsLevelAndOfficerName() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "S", 4, "2024-01-02"));
 
-        String filename = service.generate(operators, 2, "District Officer", "DISTRICT_OFFICER");
+        EscalationPdfService.EscalationReport report = service.render(operators, 2, "District Officer", "DISTRICT_OFFICER");
 
         String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        assertThat(filename).startsWith("escalation_L2_District_Officer_").endsWith(".pdf");
-        assertThat(filename).contains(today);
+        assertThat(report.filename()).startsWith("escalation_L2_District_Officer_").endsWith(".pdf");
+        assertThat(report.filename()).contains(today);
     }
 
     @Test
-    void generate_sanitizesSpecialCharactersInOfficerName() throws Exception {
+    void render_sanitizesSpecialCharactersInOfficerName() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "S", 5, "2024-01-03"));
 
-        String filename = service.generate(operators, 1, "O'Brien & Co.", "SECTION_OFFICER");
+        EscalationPdfService.EscalationReport report = service.render(operators, 1, "O'Brien & Co.", "SECTION_OFFICER");
 
         // Special chars in officer name are replaced with underscores;
         // only the .pdf extension may contain a dot
-        String nameSection = filename.substring(0, filename.lastIndexOf('.'));
+        String nameSection = report.filename().substring(0, report.filename().lastIndexOf('.'));
         assertThat(nameSection).doesNotContain("'").doesNotContain("&").doesNotContain(".");
     }
 
     @Test
-    void generate_pdfContainsOperatorName() throws Exception {
+    void render_pdfContainsOperatorName() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Ramesh Kumar", "S-99", 7, "2024-01-05"));
 
-        String filename = service.generate(operators, 2, "DO Sharma", "DISTRICT_OFFICER");
-        String pdfText = extractText(tempDir.resolve(filename));
+        EscalationPdfService.EscalationReport report = service.render(operators, 2, "DO Sharma", "DISTRICT_OFFICER");
+        String pdfText = extractText(report);
 
         assertThat(pdfText).contains("Ramesh Kumar");
     }
 
     @Test
-    void generate_pdfContainsSchemeName() throws Exception {
+    void render_pdfContainsSchemeName() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "VILLAGE-SCHEME-XY", 3, "2024-01-06"));
 
-        String filename = service.generate(operators, 1, "SO Name", "SECTION_OFFICER");
-        String pdfText = extractText(tempDir.resolve(filename));
+        EscalationPdfService.EscalationReport report = service.render(operators, 1, "SO Name", "SECTION_OFFICER");
+        String pdfText = extractText(report);
 
         assertThat(pdfText).contains("VILLAGE-SCHEME-XY");
     }
 
     @Test
-    void generate_pdfContainsConsecutiveDaysMissed() throws Exception {
+    void render_pdfContainsConsecutiveDaysMissed() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "S", 12, "2024-01-07"));
 
-        String filename = service.generate(operators, 2, "DO Z", "DISTRICT_OFFICER");
-        String pdfText = extractText(tempDir.resolve(filename));
+        EscalationPdfService.EscalationReport report = service.render(operators, 2, "DO Z", "DISTRICT_OFFICER");
+        String pdfText = extractText(report);
 
         assertThat(pdfText).contains("12");
     }
 
     @Test
-    void generate_pdfContainsTitleWithOfficerRoleAndName() throws Exception {
+    void render_pdfContainsTitleWithOfficerRoleAndName() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "S", 3, "2024-01-08"));
 
-        String filename = service.generate(operators, 1, "SO Verma", "SECTION_OFFICER");
-        String pdfText = extractText(tempDir.resolve(filename));
+        EscalationPdfService.EscalationReport report = service.render(operators, 1, "SO Verma", "SECTION_OFFICER");
+        String pdfText = extractText(report);
 
         assertThat(pdfText).contains("SECTION_OFFICER");
         assertThat(pdfText).contains("SO Verma");
     }
 
     @Test
-    void generate_pdfTitleFallsBackToLevelN_whenOfficerUserTypeIsBlank() throws Exception {
+    void render_pdfTitleFallsBackToLevelN_whenOfficerUserTypeIsBlank() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "S", 3, "2024-01-08"));
 
-        String filename = service.generate(operators, 1, "SO Verma", "");
-        String pdfText = extractText(tempDir.resolve(filename));
+        EscalationPdfService.EscalationReport report = service.render(operators, 1, "SO Verma", "");
+        String pdfText = extractText(report);
 
         assertThat(pdfText).contains("Level 1");
         assertThat(pdfText).contains("SO Verma");
     }
 
     @Test
-    void generate_pdfTitleFallsBackToLevelN_whenOfficerUserTypeIsNull() throws Exception {
+    void render_pdfTitleFallsBackToLevelN_whenOfficerUserTypeIsNull() throws Exception {
         List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "S", 3, "2024-01-08"));
 
-        String filename = service.generate(operators, 2, "DO Sharma", null);
-        String pdfText = extractText(tempDir.resolve(filename));
+        EscalationPdfService.EscalationReport report = service.render(operators, 2, "DO Sharma", null);
+        String pdfText = extractText(report);
 
         assertThat(pdfText).contains("Level 2");
         assertThat(pdfText).contains("DO Sharma");
     }
 
     @Test
-    void generate_showsNeverForNullLastRecordedDate() throws Exception {
+    void render_showsNeverForNullLastRecordedDate() throws Exception {
         OperatorEscalationDetail op = OperatorEscalationDetail.builder()
                 .name("Op").phoneNumber("911111111111")
                 .schemeName("S").schemeId("1").soName("SO")
@@ -144,8 +146,8 @@ class EscalationPdfServiceTest {
                 .lastRecordedBfmDate(null) // null → should show "Never"
                 .build();
 
-        String filename = service.generate(List.of(op), 2, "DO", "DISTRICT_OFFICER");
-        String pdfText = extractText(tempDir.resolve(filename));
+        EscalationPdfService.EscalationReport report = service.render(List.of(op), 2, "DO", "DISTRICT_OFFICER");
+        String pdfText = extractText(report);
 
         // Count occurrences of "Never" — one for consecutiveDaysMissed null, one for lastRecordedBfmDate null
         long occurrences = 0;
@@ -158,33 +160,54 @@ class EscalationPdfServiceTest {
     }
 
     @Test
-    void generate_handlesMultipleOperators_producingValidPdf() throws Exception {
+    void render_handlesMultipleOperators_producingValidPdf() throws Exception {
         List<OperatorEscalationDetail> operators = new ArrayList<>();
         for (int i = 1; i <= 5; i++) {
             operators.add(buildOperator("Operator " + i, "Scheme-" + i, i + 3, "2024-01-0" + i));
         }
 
-        String filename = service.generate(operators, 1, "SO Multi", "SECTION_OFFICER");
-
-        File pdfFile = tempDir.resolve(filename).toFile();
-        assertThat(pdfFile).exists();
+        EscalationPdfService.EscalationReport report = service.render(operators, 1, "SO Multi", "SECTION_OFFICER");
 
         // Must produce a valid PDF readable by PDFBox
-        try (PDDocument doc = Loader.loadPDF(pdfFile)) {
+        try (PDDocument doc = Loader.loadPDF(report.content())) {
             assertThat(doc.getNumberOfPages()).isGreaterThanOrEqualTo(1);
         }
     }
 
     @Test
-    void generate_createsReportDirectory_whenItDoesNotExist() throws Exception {
-        Path subDir = tempDir.resolve("nested/reports/");
-        ReflectionTestUtils.setField(service, "reportDir", subDir.toString() + "/");
+    void render_startsNewPage_whenOperatorsOverflowFirstPage() throws Exception {
+        EscalationPdfService.EscalationReport report = service.render(operators(20), 1, "SO Multi", "SECTION_OFFICER");
+
+        try (PDDocument doc = Loader.loadPDF(report.content())) {
+            assertThat(doc.getNumberOfPages()).isGreaterThan(1);
+            assertThat(new PDFTextStripper().getText(doc)).contains("Operator 1").contains("Operator 20");
+        }
+    }
 
-        List<OperatorEscalationDetail> operators = List.of(buildOperator("Op", "S", 3, "2024-01-09"));
+    @Test
+    void render_failsInsteadOfGrowingPastMaxBytes() throws Exception {
+        EscalationPdfService capped = new EscalationPdfService(1, 1_024);
+        try {
+            assertThatThrownBy(() -> capped.render(operators(20), 1, "SO", "SECTION_OFFICER"))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("escalation.report.max-bytes");
+        } finally {
+            capped.shutdown();
+        }
+    }
 
-        String filename = service.generate(operators, 1, "SO", "SECTION_OFFICER");
+    @Test
+    void renderAsync_producesIndependentValidPdfs_whenRenderedConcurrently() throws Exception {
+        // Fonts are reused per render thread; concurrent saves must not corrupt each other's output
+        List<CompletableFuture<EscalationPdfService.EscalationReport>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(service.renderAsync(operators(1 + i % 5), 1, "Officer " + i, "SECTION_OFFICER"));
+        }
 
-        assertThat(subDir.resolve(filename).toFile()).exists();
+        for (int i = 0; i < futures.size(); i++) {
+            EscalationPdfService.EscalationReport report = futures.get(i).get();
+            assertThat(extractText(report)).contains("Officer " + i);
+        }
     }
 
     // ────────────────────────────── helpers ────────────────────────────────────
@@ -201,8 +224,16 @@ class EscalationPdfServiceTest {
                 .build();
     }
 
-    private String extractText(Path pdfPath) throws Exception {
-        try (PDDocument doc = Loader.loadPDF(pdfPath.toFile())) {
+    private List<OperatorEscalationDetail> operators(int count) {
+        List<OperatorEscalationDetail> operators = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            operators.add(buildOperator("Operator " + i, "Scheme-" + i, i + 3, "2024-01-01"));
+        }
+        return operators;
+    }
+
+    private String extractText(EscalationPdfService.EscalationReport report) throws Exception {
+        try (PDDocument doc = Loader.loadPDF(report.content())) {
             return new PDFTextStripper().getText(doc);
         }
     }
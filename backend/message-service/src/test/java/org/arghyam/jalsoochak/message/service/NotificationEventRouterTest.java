@@ -1,5 +1,6 @@
 package org.arghyam.jalsoochak.message.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -8,33 +9,49 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import java.nio.file.Path;
-
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.arghyam.jalsoochak.message.channel.GlificApiException;
+import org.arghyam.jalsoochak.message.channel.GlificContactCache;
+import org.arghyam.jalsoochak.message.channel.GlificDispatcher;
 import org.arghyam.jalsoochak.message.channel.GlificWhatsAppService;
 import org.arghyam.jalsoochak.message.channel.WhatsAppChannel;
 import org.arghyam.jalsoochak.message.kafka.KafkaProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.mail.MessagingException;
+
+import reactor.core.publisher.Mono;
+
 /**
  * Unit tests for {@link NotificationEventRouter}.
  *
- * <p>Verifies correct routing of NUDGE and ESCALATION events, skipping of
+ * <p>Verifies correct routing of NUDGE, NUDGE_OPT_IN_BATCH, ESCALATION and SEND_LOGIN_OTP events, skipping of
  * invalid payloads, and re-throwing of exceptions for Kafka retry/DLT.</p>
  */
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +63,12 @@ class NotificationEventRouterTest {
     @Mock
     private GlificWhatsAppService glificWhatsAppService;
 
+    @Mock
+    private GlificDispatcher glificDispatcher;
+
+    @Mock
+    private GlificContactCache glificContactCache;
+
     @Mock
     private KafkaProducer kafkaProducer;
 
@@ -61,25 +84,44 @@ class NotificationEventRouterTest {
     @Mock
     private AccountEmailService accountEmailService;
 
+    @Mock
+    private ProcessedEventStore processedEventStore;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private NotificationEventRouter router;
 
-    @TempDir
-    Path tempDir;
-
     @BeforeEach
     void setUp() {
-        // Inject real ObjectMapper and configure report dir via ReflectionTestUtils
+        // Inject real ObjectMapper and base URL via ReflectionTestUtils
         ReflectionTestUtils.setField(router, "objectMapper", new ObjectMapper());
-        ReflectionTestUtils.setField(router, "reportDir", tempDir.toString() + "/");
         ReflectionTestUtils.setField(router, "baseUrl", "https://example.com");
+        // Run dispatched sends inline; a failing send goes straight to its failure callback
+        lenient().doAnswer(inv -> {
+            Runnable send = inv.getArgument(2);
+            Consumer<Exception> onFailure = inv.getArgument(3);
+            try {
+                send.run();
+            } catch (RuntimeException e) {
+                onFailure.accept(e);
+            }
+            return CompletableFuture.completedFuture(null);
+        }).when(glificDispatcher).submit(anyString(), anyString(), any(), any());
+        // Account emails are sent as soon as they are queued
+        lenient().when(accountEmailService.sendInviteEmail(any(), any(), any(), any(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(accountEmailService.sendReinviteEmail(any(), any(), any(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(accountEmailService.sendPasswordResetEmail(any(), any(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(null));
     }
 
     // ──────────────────────────────── NUDGE ────────────────────────────────────
 
     @Test
     void route_sendsNudge_usingStoredContactId_whenPresent() {
-        when(whatsAppChannel.sendNudgeViaFlow(anyLong(), anyString(), anyString())).thenReturn(true);
 
         router.route("""
                 {"eventType":"NUDGE","recipientPhone":"919876543210",
@@ -87,16 +129,37 @@ class NotificationEventRouterTest {
                  "userId":10,"whatsappConnectionId":42,"tenantSchema":"tenant_mp"}
                 """);
 
-        verify(whatsAppChannel).sendNudgeViaFlow(eq(42L), eq("Ramesh"), anyString());
+        verify(glificWhatsAppService).startNudgeFlow(eq(42L), eq("Ramesh"), anyString());
         verify(glificWhatsAppService, never()).optIn(anyString());
         verify(kafkaProducer, never()).publishJson(anyString(), any());
         verifyNoInteractions(escalationPdfService, minioStorageService, messageTemplateService);
     }
 
+    @Test
+    void routeAsync_submitsNudge_onlyWhenSubscribed() {
+        Mono<Void> send = router.routeAsync("""
+                {"eventType":"NUDGE","recipientPhone":"919876543210","operatorName":"Ramesh",
+                 "whatsappConnectionId":42,"tenantSchema":"tenant_mp"}
+                """);
+
+        verifyNoInteractions(glificDispatcher);
+        send.block();
+        verify(glificWhatsAppService).startNudgeFlow(eq(42L), eq("Ramesh"), anyString());
+    }
+
+    @Test
+    void route_queuesNudgeOnDispatcher_underTenantSchema() {
+        router.route("""
+                {"eventType":"NUDGE","recipientPhone":"919876543210","operatorName":"Ramesh",
+                 "userId":10,"whatsappConnectionId":42,"tenantSchema":"tenant_mp"}
+                """);
+
+        verify(glificDispatcher).submit(eq("tenant_mp"), anyString(), any(), any());
+    }
+
     @Test
     void route_fallsBackToOptIn_andPublishesEvent_whenNoStoredContactId() {
         when(glificWhatsAppService.optIn("919876543210")).thenReturn(99L);
-        when(whatsAppChannel.sendNudgeViaFlow(anyLong(), anyString(), anyString())).thenReturn(true);
 
         router.route("""
                 {"eventType":"NUDGE","recipientPhone":"919876543210",
@@ -105,7 +168,7 @@ class NotificationEventRouterTest {
                 """);
 
         verify(glificWhatsAppService).optIn("919876543210");
-        verify(whatsAppChannel).sendNudgeViaFlow(eq(99L), eq("Ramesh"), anyString());
+        verify(glificWhatsAppService).startNudgeFlow(eq(99L), eq("Ramesh"), anyString());
         verify(kafkaProducer).publishJson(eq("common-topic"), argThat(event -> {
             String s = event.toString();
             return s.contains("WHATSAPP_CONTACT_REGISTERED") && s.contains("99");
@@ -118,40 +181,162 @@ class NotificationEventRouterTest {
                 {"eventType":"NUDGE","recipientPhone":"","operatorName":"Op","tenantId":1,"languageId":0}
                 """);
 
-        verifyNoInteractions(whatsAppChannel, glificWhatsAppService);
+        verifyNoInteractions(whatsAppChannel, glificWhatsAppService, glificDispatcher);
     }
 
     @Test
     void route_usesDefaultOperatorName_whenOperatorNameAbsent() {
         when(glificWhatsAppService.optIn(anyString())).thenReturn(55L);
-        when(whatsAppChannel.sendNudgeViaFlow(anyLong(), anyString(), anyString())).thenReturn(true);
 
         router.route("""
                 {"eventType":"NUDGE","recipientPhone":"911234567890","tenantId":1}
                 """);
 
-        verify(whatsAppChannel).sendNudgeViaFlow(anyLong(), eq("Operator"), anyString());
+        verify(glificWhatsAppService).startNudgeFlow(anyLong(), eq("Operator"), anyString());
     }
 
     @Test
     void route_isCaseInsensitive_forNudgeEventType() {
         when(glificWhatsAppService.optIn(anyString())).thenReturn(55L);
-        when(whatsAppChannel.sendNudgeViaFlow(anyLong(), anyString(), anyString())).thenReturn(true);
 
         router.route("""
                 {"eventType":"nudge","recipientPhone":"919999999999","operatorName":"Op","tenantId":1}
                 """);
 
-        verify(whatsAppChannel).sendNudgeViaFlow(anyLong(), anyString(), anyString());
+        verify(glificWhatsAppService).startNudgeFlow(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void route_publishesToNudgeDlt_whenDispatchFails() {
+        doThrow(new RuntimeException("Glific unreachable"))
+                .when(glificWhatsAppService).startNudgeFlow(anyLong(), anyString(), anyString());
+        when(kafkaProducer.publishRaw(eq("nudge-message-dlt"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        router.route("""
+                {"eventType":"NUDGE","recipientPhone":"919000000001","operatorName":"Op",
+                 "userId":7,"whatsappConnectionId":42,"tenantSchema":"tenant_mp"}
+                """);
+
+        verify(kafkaProducer).publishRaw(eq("nudge-message-dlt"), argThat(payload ->
+                payload.contains("NUDGE_RETRY") && payload.contains("tenant_mp") && payload.contains("Glific unreachable")));
+    }
+
+    @Test
+    void routeAsync_fails_whenTheNudgeDltPublishFails() {
+        doThrow(new RuntimeException("Glific unreachable"))
+                .when(glificWhatsAppService).startNudgeFlow(anyLong(), anyString(), anyString());
+        when(kafkaProducer.publishRaw(eq("nudge-message-dlt"), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        assertThatThrownBy(() -> router.routeAsync("""
+                {"eventType":"NUDGE","recipientPhone":"919000000001","operatorName":"Op",
+                 "userId":7,"whatsappConnectionId":42,"tenantSchema":"tenant_mp"}
+                """).block()).hasRootCauseMessage("broker down");
+    }
+
+    @Test
+    void route_doesNotOptInAgain_whenRetriedAfterFlowFailure() {
+        when(glificWhatsAppService.optIn("919000000001")).thenReturn(55L);
+        doThrow(new RuntimeException("Glific unreachable")).doNothing()
+                .when(glificWhatsAppService).startNudgeFlow(anyLong(), anyString(), anyString());
+        doAnswer(inv -> {
+            Runnable send = inv.getArgument(2);
+            try {
+                send.run();
+            } catch (RuntimeException e) {
+                send.run();
+            }
+            return CompletableFuture.completedFuture(null);
+        }).when(glificDispatcher).submit(anyString(), anyString(), any(), any());
+
+        router.route("""
+                {"eventType":"NUDGE","recipientPhone":"919000000001","operatorName":"Op","tenantId":1}
+                """);
+
+        verify(glificWhatsAppService, times(1)).optIn("919000000001");
+        verify(glificWhatsAppService, times(2)).startNudgeFlow(eq(55L), eq("Op"), anyString());
+    }
+
+    @Test
+    void route_skipsOptIn_whenContactIsCached() {
+        when(glificContactCache.find("919876543210")).thenReturn(OptionalLong.of(77L));
+
+        router.route("""
+                {"eventType":"NUDGE","recipientPhone":"919876543210","operatorName":"Ramesh",
+                 "userId":10,"whatsappConnectionId":0,"tenantSchema":"tenant_mp"}
+                """);
+
+        verify(glificWhatsAppService, never()).optIn(anyString());
+        verify(glificWhatsAppService).startNudgeFlow(eq(77L), eq("Ramesh"), anyString());
+        // The stored contact is still missing in user_table, so it is registered again
+        verify(kafkaProducer).publishJson(eq("common-topic"), argThat(event -> event.toString().contains("77")));
+    }
+
+    @Test
+    void route_cachesContact_afterOptIn() {
+        when(glificWhatsAppService.optIn("919876543210")).thenReturn(99L);
+
+        router.route("""
+                {"eventType":"NUDGE","recipientPhone":"919876543210","operatorName":"Ramesh","tenantId":1}
+                """);
+
+        verify(glificContactCache).put("919876543210", 99L);
+    }
+
+    // ───────────────────────── NUDGE_OPT_IN_BATCH ──────────────────────────────
+
+    @Test
+    void route_optsInOnlyUncachedRecipients_forNudgeOptInBatch() {
+        when(glificContactCache.findAll(any())).thenReturn(Map.of("911111111111", 11L));
+        when(glificWhatsAppService.optIn("912222222222")).thenReturn(22L);
+
+        router.route("""
+                {"eventType":"NUDGE_OPT_IN_BATCH","tenantSchema":"tenant_mp","tenantId":1,
+                 "recipients":[{"userId":1,"phone":"911111111111"},{"userId":2,"phone":"912222222222"},
+                               {"userId":3,"phone":""}]}
+                """);
+
+        verify(glificContactCache).findAll(argThat(phones -> List.copyOf(phones).equals(List.of("911111111111", "912222222222"))));
+        verify(glificWhatsAppService, never()).optIn("911111111111");
+        verify(glificWhatsAppService).optIn("912222222222");
+        verify(glificContactCache).put("912222222222", 22L);
+        verify(glificDispatcher, times(1)).submit(eq("tenant_mp"), anyString(), any(), any());
+        verify(kafkaProducer).publishJson(eq("common-topic"), argThat(event -> event.toString().contains("contactId=11")));
+        verify(kafkaProducer).publishJson(eq("common-topic"), argThat(event -> event.toString().contains("contactId=22")));
+    }
+
+    @Test
+    void route_completesNudgeOptInBatch_whenSingleOptInFails() {
+        when(glificWhatsAppService.optIn("912222222222")).thenThrow(new GlificApiException("invalid phone"));
+        when(glificWhatsAppService.optIn("913333333333")).thenReturn(33L);
+
+        router.route("""
+                {"eventType":"NUDGE_OPT_IN_BATCH","tenantSchema":"tenant_mp",
+                 "recipients":[{"userId":2,"phone":"912222222222"},{"userId":3,"phone":"913333333333"}]}
+                """);
+
+        verify(glificContactCache, never()).put(eq("912222222222"), anyLong());
+        verify(glificContactCache).put("913333333333", 33L);
+    }
+
+    @Test
+    void route_skipsNudgeOptInBatch_whenNoRecipients() {
+        router.route("""
+                {"eventType":"NUDGE_OPT_IN_BATCH","tenantSchema":"tenant_mp","recipients":[]}
+                """);
+
+        verifyNoInteractions(glificContactCache, glificDispatcher, glificWhatsAppService);
     }
 
     // ──────────────────────────── ESCALATION ───────────────────────────────────
 
     @Test
     void route_generatesAndSendsEscalation_usingStoredContactId_whenPresent() throws Exception {
-        when(escalationPdfService.generate(anyList(), anyInt(), anyString(), anyString())).thenReturn("report.pdf");
-        when(minioStorageService.upload(any(Path.class))).thenReturn("https://minio.example.com/report.pdf");
-        when(whatsAppChannel.sendDocument(anyLong(), anyString())).thenReturn(true);
+        when(escalationPdfService.renderAsync(anyList(), anyInt(), anyString(), anyString()))
+                .thenReturn(report("report.pdf"));
+        when(minioStorageService.upload(anyString(), any(byte[].class))).thenReturn("https://minio.example.com/report.pdf");
+        when(whatsAppChannel.sendDocumentAsync(anyLong(), anyString())).thenReturn(Mono.empty());
 
         router.route("""
                 {"eventType":"ESCALATION","officerPhone":"919876500000","officerName":"DO Singh",
@@ -163,18 +348,19 @@ class NotificationEventRouterTest {
                                "lastRecordedBfmDate":"2024-01-01"}]}
                 """);
 
-        verify(escalationPdfService).generate(anyList(), eq(2), eq("DO Singh"), eq("JE"));
-        verify(minioStorageService).upload(any(Path.class));
-        verify(whatsAppChannel).sendDocument(eq(77L), eq("https://minio.example.com/report.pdf"));
-        verify(glificWhatsAppService, never()).optIn(anyString());
+        verify(escalationPdfService).renderAsync(anyList(), eq(2), eq("DO Singh"), eq("JE"));
+        verify(minioStorageService).upload(eq("report.pdf"), any(byte[].class));
+        verify(whatsAppChannel).sendDocumentAsync(eq(77L), eq("https://minio.example.com/report.pdf"));
+        verify(glificWhatsAppService, never()).optInAsync(anyString());
         verify(kafkaProducer, never()).publishJson(anyString(), any());
     }
 
     @Test
     void route_passesEmptyOfficerUserType_toGeneratePdf_whenFieldAbsentInPayload() throws Exception {
-        when(escalationPdfService.generate(anyList(), anyInt(), anyString(), anyString())).thenReturn("report.pdf");
-        when(minioStorageService.upload(any(Path.class))).thenReturn("https://minio.example.com/report.pdf");
-        when(whatsAppChannel.sendDocument(anyLong(), anyString())).thenReturn(true);
+        when(escalationPdfService.renderAsync(anyList(), anyInt(), anyString(), anyString()))
+                .thenReturn(report("report.pdf"));
+        when(minioStorageService.upload(anyString(), any(byte[].class))).thenReturn("https://minio.example.com/report.pdf");
+        when(whatsAppChannel.sendDocumentAsync(anyLong(), anyString())).thenReturn(Mono.empty());
 
         router.route("""
                 {"eventType":"ESCALATION","officerPhone":"919876500000","officerName":"DO Singh",
@@ -185,15 +371,16 @@ class NotificationEventRouterTest {
                                "lastRecordedBfmDate":"2024-01-01"}]}
                 """);
 
-        verify(escalationPdfService).generate(anyList(), eq(2), eq("DO Singh"), eq(""));
+        verify(escalationPdfService).renderAsync(anyList(), eq(2), eq("DO Singh"), eq(""));
     }
 
     @Test
     void route_fallsBackToOptIn_andPublishesEvent_forEscalation_whenNoStoredContactId() throws Exception {
-        when(escalationPdfService.generate(anyList(), anyInt(), anyString(), anyString())).thenReturn("r.pdf");
-        when(minioStorageService.upload(any(Path.class))).thenReturn("https://minio.example.com/r.pdf");
-        when(glificWhatsAppService.optIn("919876500000")).thenReturn(88L);
-        when(whatsAppChannel.sendDocument(anyLong(), anyString())).thenReturn(true);
+        when(escalationPdfService.renderAsync(anyList(), anyInt(), anyString(), anyString()))
+                .thenReturn(report("r.pdf"));
+        when(minioStorageService.upload(anyString(), any(byte[].class))).thenReturn("https://minio.example.com/r.pdf");
+        when(glificWhatsAppService.optInAsync("919876500000")).thenReturn(Mono.just(88L));
+        when(whatsAppChannel.sendDocumentAsync(anyLong(), anyString())).thenReturn(Mono.empty());
 
         router.route("""
                 {"eventType":"ESCALATION","officerPhone":"919876500000","officerName":"DO Singh",
@@ -204,8 +391,8 @@ class NotificationEventRouterTest {
                                "lastRecordedBfmDate":"2024-01-01"}]}
                 """);
 
-        verify(glificWhatsAppService).optIn("919876500000");
-        verify(whatsAppChannel).sendDocument(eq(88L), anyString());
+        verify(glificWhatsAppService).optInAsync("919876500000");
+        verify(whatsAppChannel).sendDocumentAsync(eq(88L), anyString());
         verify(kafkaProducer).publishJson(eq("common-topic"), argThat(event -> {
             String s = event.toString();
             return s.contains("WHATSAPP_CONTACT_REGISTERED") && s.contains("88");
@@ -236,10 +423,11 @@ class NotificationEventRouterTest {
 
     @Test
     void route_isCaseInsensitive_forEscalationEventType() throws Exception {
-        when(escalationPdfService.generate(anyList(), anyInt(), anyString(), anyString())).thenReturn("r.pdf");
-        when(minioStorageService.upload(any(Path.class))).thenReturn("https://minio.example.com/r.pdf");
-        when(glificWhatsAppService.optIn(anyString())).thenReturn(11L);
-        when(whatsAppChannel.sendDocument(anyLong(), anyString())).thenReturn(true);
+        when(escalationPdfService.renderAsync(anyList(), anyInt(), anyString(), anyString()))
+                .thenReturn(report("r.pdf"));
+        when(minioStorageService.upload(anyString(), any(byte[].class))).thenReturn("https://minio.example.com/r.pdf");
+        when(glificWhatsAppService.optInAsync(anyString())).thenReturn(Mono.just(11L));
+        when(whatsAppChannel.sendDocumentAsync(anyLong(), anyString())).thenReturn(Mono.empty());
 
         router.route("""
                 {"eventType":"escalation","officerPhone":"919876500002","officerName":"DO",
@@ -248,11 +436,120 @@ class NotificationEventRouterTest {
                                "soName":"SO","consecutiveDaysMissed":4,"lastRecordedBfmDate":"2024-01-01"}]}
                 """);
 
-        verify(whatsAppChannel).sendDocument(anyLong(), anyString());
+        verify(whatsAppChannel).sendDocumentAsync(anyLong(), anyString());
+    }
+
+    @Test
+    void route_rethrowsException_forKafkaRetry_whenEscalationDocumentSendFails() throws Exception {
+        when(escalationPdfService.renderAsync(anyList(), anyInt(), anyString(), anyString()))
+                .thenReturn(report("r.pdf"));
+        when(minioStorageService.upload(anyString(), any(byte[].class))).thenReturn("https://minio.example.com/r.pdf");
+        when(whatsAppChannel.sendDocumentAsync(anyLong(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("Glific unreachable")));
+
+        assertThatThrownBy(() -> router.route("""
+                {"eventType":"ESCALATION","officerPhone":"919876500005","officerName":"DO",
+                 "escalationLevel":1,"officerWhatsappConnectionId":77,
+                 "operators":[{"name":"Op","phoneNumber":"911111111115","schemeName":"S","schemeId":"1",
+                               "soName":"SO","consecutiveDaysMissed":4,"lastRecordedBfmDate":"2024-01-01"}]}
+                """))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Notification event processing failed")
+                .hasRootCauseMessage("Glific unreachable");
+    }
+
+    // ─────────────────────────── SEND_LOGIN_OTP ────────────────────────────────
+
+    @Test
+    void routeAsync_sendsLoginOtp_toGivenContact_onlyWhenSubscribed() {
+        when(whatsAppChannel.sendLoginOtpAsync(31L, "123456")).thenReturn(Mono.empty());
+
+        Mono<Void> send = router.routeAsync("""
+                {"eventType":"SEND_LOGIN_OTP","OTP":"123456","glific_id":"31"}
+                """);
+
+        verifyNoInteractions(whatsAppChannel);
+        send.block();
+        verify(whatsAppChannel).sendLoginOtpAsync(31L, "123456");
+        verify(glificWhatsAppService, never()).optInAsync(anyString());
+    }
+
+    @Test
+    void routeAsync_optsInByPhone_whenLoginOtpHasNoGlificId() {
+        when(glificWhatsAppService.optInAsync("919876500006")).thenReturn(Mono.just(64L));
+        when(whatsAppChannel.sendLoginOtpAsync(64L, "654321")).thenReturn(Mono.empty());
+
+        router.routeAsync("""
+                {"eventType":"SEND_LOGIN_OTP","OTP":"654321","officerPhoneNumber":"919876500006"}
+                """).block();
+
+        verify(whatsAppChannel).sendLoginOtpAsync(64L, "654321");
+    }
+
+    @Test
+    void routeAsync_skipsLoginOtp_whenOptInReturnsNoContact() {
+        when(glificWhatsAppService.optInAsync("919876500007")).thenReturn(Mono.just(0L));
+
+        router.routeAsync("""
+                {"eventType":"SEND_LOGIN_OTP","OTP":"654321","officerPhoneNumber":"919876500007"}
+                """).block();
+
+        verifyNoInteractions(whatsAppChannel);
+    }
+
+    @Test
+    void routeAsync_skipsLoginOtp_whenOtpIsBlank() {
+        router.routeAsync("""
+                {"eventType":"SEND_LOGIN_OTP","OTP":"","glific_id":"31"}
+                """).block();
+
+        verifyNoInteractions(whatsAppChannel, glificWhatsAppService);
+    }
+
+    @Test
+    void routeAsync_signalsFailure_whenLoginOtpSendFails() {
+        when(whatsAppChannel.sendLoginOtpAsync(31L, "123456"))
+                .thenReturn(Mono.error(new GlificApiException("Glific GraphQL error: template not found")));
+
+        Mono<Void> send = router.routeAsync("""
+                {"eventType":"SEND_LOGIN_OTP","OTP":"123456","glific_id":"31"}
+                """);
+
+        assertThatThrownBy(send::block)
+                .hasMessage("Notification event processing failed")
+                .hasCauseInstanceOf(GlificApiException.class);
     }
 
     // ───────────────────────────── error handling ──────────────────────────────
 
+    // ──────────────────────────── SEND_WELCOME_MESSAGE ──────────────────────────
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void route_startsWelcomeFlow_onFirstDeliveryOfAnEvent() {
+        when(processedEventStore.claim("SEND_WELCOME_MESSAGE", 17L)).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("9000000001"))).thenReturn(List.of(42L));
+
+        router.route("""
+                {"eventType":"SEND_WELCOME_MESSAGE","eventId":17,"tenantCode":"MP",
+                 "pumpOperatorPhones":["9000000001"]}
+                """);
+
+        verify(glificWhatsAppService).startWelcomeFlow(42L);
+    }
+
+    @Test
+    void route_skipsWelcomeFlow_whenTheEventWasAlreadyHandled() {
+        when(processedEventStore.claim("SEND_WELCOME_MESSAGE", 17L)).thenReturn(false);
+
+        router.route("""
+                {"eventType":"SEND_WELCOME_MESSAGE","eventId":17,"tenantCode":"MP",
+                 "pumpOperatorPhones":["9000000001"]}
+                """);
+
+        verifyNoInteractions(glificWhatsAppService, jdbcTemplate);
+    }
+
     @Test
     void route_ignoresUnknownEventType_silently() {
         router.route("""
@@ -263,10 +560,9 @@ class NotificationEventRouterTest {
     }
 
     @Test
-    void route_rethrowsException_forKafkaRetry_whenNudgeFails() {
-        when(glificWhatsAppService.optIn(anyString())).thenReturn(55L);
-        when(whatsAppChannel.sendNudgeViaFlow(anyLong(), anyString(), anyString()))
-                .thenThrow(new RuntimeException("Glific unreachable"));
+    void route_rethrowsException_forKafkaRetry_whenDispatcherRejectsNudge() {
+        doThrow(new RejectedExecutionException("Glific dispatch queue is full"))
+                .when(glificDispatcher).submit(anyString(), anyString(), any(), any());
 
         assertThatThrownBy(() -> router.route("""
                 {"eventType":"NUDGE","recipientPhone":"919000000001","operatorName":"Op","tenantId":1}
@@ -277,8 +573,8 @@ class NotificationEventRouterTest {
 
     @Test
     void route_rethrowsException_forKafkaRetry_whenPdfGenerationFails() throws Exception {
-        when(escalationPdfService.generate(anyList(), anyInt(), anyString(), anyString()))
-                .thenThrow(new RuntimeException("PDF write failed"));
+        when(escalationPdfService.renderAsync(anyList(), anyInt(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("PDF write failed")));
 
         assertThatThrownBy(() -> router.route("""
                 {"eventType":"ESCALATION","officerPhone":"919876500003","officerName":"DO",
@@ -292,8 +588,9 @@ class NotificationEventRouterTest {
 
     @Test
     void route_rethrowsException_forKafkaRetry_whenMinioUploadFails() throws Exception {
-        when(escalationPdfService.generate(anyList(), anyInt(), anyString(), anyString())).thenReturn("r.pdf");
-        when(minioStorageService.upload(any(Path.class))).thenThrow(new Exception("MinIO error"));
+        when(escalationPdfService.renderAsync(anyList(), anyInt(), anyString(), anyString()))
+                .thenReturn(report("r.pdf"));
+        when(minioStorageService.upload(anyString(), any(byte[].class))).thenThrow(new Exception("MinIO error"));
 
         assertThatThrownBy(() -> router.route("""
                 {"eventType":"ESCALATION","officerPhone":"919876500004","officerName":"DO",
@@ -464,6 +761,55 @@ class NotificationEventRouterTest {
         }));
     }
 
+    @Test
+    void route_routesToDlt_whenQueuedInviteEmailFailsToSend() {
+        when(accountEmailService.sendInviteEmail(anyString(), anyString(), anyString(), anyString(), anyInt()))
+                .thenReturn(CompletableFuture.failedFuture(new MessagingException("550 mailbox unavailable")));
+
+        router.route("""
+                {"eventType":"SEND_INVITE_EMAIL","to":"admin@state.gov","name":"Dev",
+                 "role":"STATE_ADMIN","inviteLink":"https://link","expiryHours":24}
+                """);
+
+        verify(kafkaProducer).publishJson(eq("account-email-dlt"), argThat(payload -> {
+            String s = payload.toString();
+            return s.contains("ACCOUNT_EMAIL_FAILED") && s.contains("smtp_error: 550 mailbox unavailable");
+        }));
+    }
+
+    @Test
+    void routeAsync_doesNotWaitForInviteEmail_untilSubscribed() {
+        CompletableFuture<Void> smtp = new CompletableFuture<>();
+        when(accountEmailService.sendInviteEmail(anyString(), anyString(), anyString(), anyString(), anyInt()))
+                .thenReturn(smtp);
+
+        Mono<Void> send = router.routeAsync("""
+                {"eventType":"SEND_INVITE_EMAIL","to":"admin@state.gov","name":"Dev",
+                 "role":"STATE_ADMIN","inviteLink":"https://link","expiryHours":24}
+                """);
+
+        verifyNoInteractions(accountEmailService);
+        CompletableFuture<Void> done = send.toFuture();
+        assertThat(done).isNotDone();
+        smtp.complete(null);
+        assertThat(done).isCompleted();
+        verify(kafkaProducer, never()).publishJson(anyString(), any());
+    }
+
+    @Test
+    void route_rethrowsException_forKafkaRetry_whenSmtpQueueIsFull() {
+        when(accountEmailService.sendInviteEmail(anyString(), anyString(), anyString(), anyString(), anyInt()))
+                .thenThrow(new RejectedExecutionException("SMTP queue is full"));
+
+        assertThatThrownBy(() -> router.route("""
+                {"eventType":"SEND_INVITE_EMAIL","to":"admin@state.gov","name":"Dev",
+                 "role":"STATE_ADMIN","inviteLink":"https://link","expiryHours":24}
+                """))
+                .hasMessage("Notification event processing failed")
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        verify(kafkaProducer, never()).publishJson(anyString(), any());
+    }
+
     // ──────────────────────── SEND_REINVITE_EMAIL ──────────────────────────────
 
     @Test
@@ -607,4 +953,9 @@ class NotificationEventRouterTest {
 
         verify(kafkaProducer).publishJson(eq("account-email-dlt"), any());
     }
+
+    private static CompletableFuture<EscalationPdfService.EscalationReport> report(String filename) {
+        return CompletableFuture.completedFuture(
+                new EscalationPdfService.EscalationReport(filename, new byte[]{'%', 'P', 'D', 'F'}));
+    }
 }
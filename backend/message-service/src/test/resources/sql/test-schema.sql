@@ -83,3 +83,40 @@ CREATE TABLE tenant_test.flow_reading_table (
     created_at        TIMESTAMP NOT NULL DEFAULT NOW(),
     updated_at        TIMESTAMP NOT NULL DEFAULT NOW()
 );
+
+-- Glific opt-in cache (V27)
+CREATE TABLE common_schema.glific_contact_table (
+    phone_hash   VARCHAR(64)  PRIMARY KEY,
+    contact_id   BIGINT       NOT NULL,
+    opted_in_at  TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    expires_at   TIMESTAMPTZ  NOT NULL
+);
+
+-- Webhook retry queue and dead letters (V28)
+CREATE TABLE common_schema.webhook_delivery_table (
+    id               BIGSERIAL    PRIMARY KEY,
+    endpoint         TEXT         NOT NULL,
+    payload          TEXT         NOT NULL,
+    attempts         INTEGER      NOT NULL,
+    next_attempt_at  TIMESTAMPTZ  NOT NULL,
+    last_error       TEXT,
+    created_at       TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE common_schema.webhook_dead_letter_table (
+    id           BIGSERIAL    PRIMARY KEY,
+    endpoint     TEXT         NOT NULL,
+    payload      TEXT         NOT NULL,
+    attempts     INTEGER      NOT NULL,
+    last_error   TEXT,
+    created_at   TIMESTAMPTZ  NOT NULL,
+    failed_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+-- Handled upstream events (V33)
+CREATE TABLE common_schema.processed_event_table (
+    event_type    VARCHAR(50)  NOT NULL,
+    event_id      BIGINT       NOT NULL,
+    processed_at  TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (event_type, event_id)
+);
@@ -3,6 +3,8 @@ package org.arghyam.jalsoochak.scheme.controller;
 import lombok.RequiredArgsConstructor;
 import org.arghyam.jalsoochak.scheme.dto.SchemeDTO;
 import org.arghyam.jalsoochak.scheme.repository.SchemeDbRepository;
+import org.arghyam.jalsoochak.scheme.service.PublicSchemeCache;
+import org.arghyam.jalsoochak.scheme.service.PublicSchemeCache.CachedScheme;
 import org.arghyam.jalsoochak.scheme.util.TenantSchemaResolver;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,7 @@ import org.springframework.web.server.ResponseStatusException;
 public class PublicSchemeController {
 
     private final SchemeDbRepository schemeDbRepository;
+    private final PublicSchemeCache publicSchemeCache;
 
     @GetMapping("/schemes/{schemeId}")
     public ResponseEntity<SchemeDTO> getSchemeDetails(
@@ -26,11 +29,16 @@ public class PublicSchemeController {
             @RequestParam String tenantCode
     ) {
         String schemaName = TenantSchemaResolver.requireSchemaNameFromTenantCode(tenantCode);
-        SchemeDTO dto = schemeDbRepository.findSchemeById(schemaName, schemeId);
-        if (dto == null) {
+        CachedScheme cached = publicSchemeCache.getScheme(schemaName, schemeId,
+                () -> schemeDbRepository.findSchemeById(schemaName, schemeId));
+        if (cached.scheme() == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Scheme not found");
         }
-        return ResponseEntity.ok(dto);
+        // A matching If-None-Match is answered with 304 Not Modified by Spring MVC.
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(publicSchemeCache.cacheControl())
+                .body(cached.scheme());
     }
 }
 
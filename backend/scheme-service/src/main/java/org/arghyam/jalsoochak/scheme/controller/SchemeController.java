@@ -41,7 +41,9 @@ public class SchemeController {
             @RequestParam(required = false, name = "workstatus") String workstatus,
             @RequestParam(required = false) String operatingStatus,
             @RequestParam(required = false, name = "operatingstatus") String operatingstatus,
-            @RequestParam(required = false) String status
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean approximateCount
     ) {
         log.info("GET /api/schemes called");
         return ResponseEntity.ok(schemeService.listSchemes(
@@ -55,7 +57,9 @@ public class SchemeController {
                 name,
                 firstNonBlank(workStatus, workstatus),
                 firstNonBlank(operatingStatus, operatingstatus),
-                status
+                status,
+                cursor,
+                approximateCount
         ));
     }
 
@@ -78,7 +82,9 @@ public class SchemeController {
             @RequestParam(required = false) String operatingStatus,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String villageLgdCode,
-            @RequestParam(required = false) String subDivisionName
+            @RequestParam(required = false) String subDivisionName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean approximateCount
     ) {
         log.info("GET /api/schemes/mappings called");
         return ResponseEntity.ok(schemeService.listSchemeMappings(
@@ -92,7 +98,9 @@ public class SchemeController {
                 operatingStatus,
                 status,
                 villageLgdCode,
-                subDivisionName
+                subDivisionName,
+                cursor,
+                approximateCount
         ));
     }
 
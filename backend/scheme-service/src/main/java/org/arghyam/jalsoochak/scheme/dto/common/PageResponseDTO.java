@@ -19,6 +19,12 @@ public class PageResponseDTO<T> {
     private int size;
     private int number;
 
+    /** Opaque token for the page after this one; {@code null} on the last page. */
+    private String nextCursor;
+
+    /** Whether {@code totalElements} is a planner estimate rather than an exact count. */
+    private boolean totalApproximate;
+
     public static <T> PageResponseDTO<T> of(List<T> content, long totalElements, int page, int size) {
         int totalPages = size > 0 ? (int) Math.ceil((double) totalElements / size) : 0;
         return PageResponseDTO.<T>builder()
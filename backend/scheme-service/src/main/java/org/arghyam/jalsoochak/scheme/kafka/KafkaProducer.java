@@ -10,7 +10,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class KafkaProducer {
 
-    private static final String TOPIC = "scheme-service-topic";
+    static final String TOPIC = "scheme-service-topic";
 
     private final KafkaTemplate<String, String> kafkaTemplate;
 
@@ -0,0 +1,49 @@
+package org.arghyam.jalsoochak.scheme.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.service.PublicSchemeCache;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops {@link PublicSchemeCache} entries of schemes named in scheme events.
+ *
+ * <p>Every instance caches on its own, so each one reads every partition of the topic. It
+ * does so without a consumer group (nothing is committed and no group is left behind when a
+ * pod goes away) and starts at the latest offset: events from before it started cannot
+ * affect its cache. Partitions are listed once at start-up; a partition added later is
+ * picked up on the next restart, and until then the cache TTL bounds staleness.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemeCacheInvalidationListener {
+
+    private final PublicSchemeCache publicSchemeCache;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(containerFactory = "ungroupedListenerContainerFactory",
+            topicPartitions = @TopicPartition(topic = KafkaProducer.TOPIC,
+                    partitions = "#{@topicPartitionFinder.partitions('" + KafkaProducer.TOPIC + "')}"))
+    public void consume(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String eventType = event.path("eventType").asText();
+            if (!SchemeEventOutboxRepository.SCHEME_CREATED.equals(eventType)
+                    && !SchemeEventOutboxRepository.SCHEME_UPDATED.equals(eventType)) {
+                return;
+            }
+            JsonNode schemeId = event.path("schemeId");
+            if (schemeId.canConvertToInt()) {
+                publicSchemeCache.invalidateScheme(schemeId.asInt());
+            }
+        } catch (Exception e) {
+            log.warn("[scheme-cache] Ignoring unreadable scheme event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.arghyam.jalsoochak.scheme.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes queued scheme events from the outbox to {@code scheme-service-topic}.
+ *
+ * <p>Each run drains the outbox in batches, one transaction per batch: the batch is locked,
+ * sent without waiting between records (the producer groups them into requests), and the
+ * events the broker acknowledged are deleted. Delivery is at least once; the idempotent
+ * producer suppresses duplicates from its own retries, and every payload carries an
+ * {@code eventId} for consumers.</p>
+ *
+ * <p>An event that could not be sent stays queued, and so does every later event with the
+ * same key, even if it was sent: it is re-sent after the failed one, so the last event a
+ * consumer sees for a scheme is always the newest.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheme.events.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemeEventRelay {
+
+    private final SchemeEventOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${scheme.events.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${scheme.events.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+
+    @Value("${scheme.events.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs = 30_000;
+
+    /** Events of one batch: published (deleted from the outbox) and left queued. */
+    record BatchResult(int published, int failed) {
+    }
+
+    @Scheduled(fixedDelayString = "${scheme.events.relay.interval-ms:1000}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                BatchResult result = transactionTemplate.execute(status -> relayBatch());
+                if (result == null || result.failed() > 0 || result.published() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("[scheme-events] relay failed — will retry on next run", e);
+        }
+    }
+
+    /** Publishes the oldest queued events. Must run in a transaction. */
+    BatchResult relayBatch() {
+        if (!outboxRepository.tryLockRelay()) {
+            return new BatchResult(0, 0);
+        }
+        List<OutboxEvent> batch = outboxRepository.lockOldest(batchSize);
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(send(event));
+        }
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> published = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+        String lastError = null;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            String error = await(sends.get(i), deadline);
+            if (error == null && !failedKeys.contains(event.key())) {
+                published.add(event.id());
+            } else {
+                failedKeys.add(event.key());
+                failed.add(event.id());
+                if (error != null) {
+                    lastError = error;
+                }
+            }
+        }
+
+        outboxRepository.delete(published);
+        outboxRepository.recordFailure(failed, lastError);
+        if (failed.isEmpty()) {
+            log.info("[scheme-events] published={} elapsed_ms={}",
+                    published.size(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            log.warn("[scheme-events] published={} failed={} elapsed_ms={} last_error={}",
+                    published.size(), failed.size(), (System.nanoTime() - start) / 1_000_000, lastError);
+        }
+        return new BatchResult(published.size(), failed.size());
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        try {
+            return kafkaTemplate.send(KafkaProducer.TOPIC, event.key(), event.payload());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /** Waits for a send; returns {@code null} on success, else the failure message. */
+    private String await(CompletableFuture<SendResult<String, String>> send, long deadlineNanos) {
+        try {
+            send.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        } catch (TimeoutException ex) {
+            return "Timed out after " + sendTimeoutMs + " ms waiting for the broker";
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting for the broker";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.arghyam.jalsoochak.scheme.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Lists a topic's partitions for listeners that assign themselves every partition,
+ * e.g. {@code partitions = "#{@topicPartitionFinder.partitions('scheme-service-topic')}"}.
+ */
+@Component
+@Slf4j
+public class TopicPartitionFinder {
+
+    static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ConsumerFactory<String, String> consumerFactory;
+
+    public TopicPartitionFinder(@Qualifier("ungroupedConsumerFactory") ConsumerFactory<String, String> consumerFactory) {
+        this.consumerFactory = consumerFactory;
+    }
+
+    /**
+     * Returns the partition numbers of {@code topic}. If the topic does not exist yet, or the
+     * brokers cannot be reached within {@link #LOOKUP_TIMEOUT}, only partition 0 is returned
+     * (what the producer auto-creates the topic with) so start-up is not held up by Kafka.
+     */
+    public String[] partitions(String topic) {
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic, LOOKUP_TIMEOUT);
+            if (partitions == null || partitions.isEmpty()) {
+                log.warn("[kafka] Topic {} has no partitions yet, assigning partition 0", topic);
+                return new String[] {"0"};
+            }
+            return partitions.stream()
+                    .map(info -> String.valueOf(info.partition()))
+                    .toArray(String[]::new);
+        } catch (KafkaException e) {
+            log.warn("[kafka] Could not list partitions of {}, assigning partition 0: {}", topic, e.getMessage());
+            return new String[] {"0"};
+        }
+    }
+}
@@ -4,22 +4,19 @@ import lombok.RequiredArgsConstructor;
 import org.arghyam.jalsoochak.scheme.dto.SchemeDTO;
 import org.arghyam.jalsoochak.scheme.dto.SchemeMappingDTO;
 import org.arghyam.jalsoochak.scheme.dto.CodeCountDTO;
+import org.arghyam.jalsoochak.scheme.util.KeysetCursor;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.sql.Types;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.List;
 import java.util.Map;
-import java.util.LinkedHashMap;
 import java.util.Set;
 import java.util.ArrayList;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Repository
@@ -28,6 +25,7 @@ public class SchemeDbRepository {
 
     private final JdbcTemplate jdbcTemplate;
     private static final Pattern SAFE_SCHEMA = Pattern.compile("^[a-z_][a-z0-9_]*$");
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
     private final ConcurrentHashMap<String, Boolean> deptTablesExistCache = new ConcurrentHashMap<>();
     private static final Map<Integer, String> WORK_STATUS_LABELS = Map.of(
             1, "Ongoing",
@@ -69,7 +67,15 @@ public class SchemeDbRepository {
                 .build());
     }
 
-    public List<SchemeDTO> listSchemes(
+    /**
+     * One page of a listing, plus the cursor of its last row if more rows follow.
+     */
+    public record PageSlice<T>(List<T> content, KeysetCursor next) {}
+
+    /**
+     * Lists schemes after {@code after} (keyset) or, without a cursor, from {@code offset}.
+     */
+    public PageSlice<SchemeDTO> listSchemes(
             String schemaName,
             String stateSchemeId,
             String schemeName,
@@ -79,44 +85,55 @@ public class SchemeDbRepository {
             String status,
             String sortBy,
             String sortDir,
+            KeysetCursor after,
             int offset,
             int limit
     ) {
         validateSchemaName(schemaName);
 
         SqlAndArgs where = buildSchemeWhere(stateSchemeId, schemeName, name, workStatus, operatingStatus, status);
-        String orderBy = schemeOrderBy(sortBy, sortDir);
+        SortSpec sort = schemeSort(sortBy);
+        boolean asc = isAscending(sortDir);
+
+        List<Object> args = new ArrayList<>(where.args());
+        String keyset = keysetClause(sort, List.of("id"), asc, after, args);
 
         String sql = String.format("""
                 SELECT id, uuid, state_scheme_id, centre_scheme_id, scheme_name,
                        fhtc_count, planned_fhtc, house_hold_count,
-                       latitude, longitude, channel, work_status, operating_status
+                       latitude, longitude, channel, work_status, operating_status,
+                       (%s)::text AS cursor_key
                 FROM %s.scheme_master_table
                 WHERE deleted_at IS NULL
                   %s
+                  %s
                 %s
                 LIMIT ? OFFSET ?
-                """, schemaName, where.sql(), orderBy);
+                """, sort.expr(), schemaName, where.sql(), keyset, orderBy(sort, List.of("id"), asc));
 
-        List<Object> args = new ArrayList<>(where.args());
-        args.add(limit);
-        args.add(offset);
+        args.add(limit + 1);
+        args.add(after == null ? offset : 0);
 
-        return jdbcTemplate.query(sql, (rs, rowNum) -> SchemeDTO.builder()
-                .id(rs.getInt("id"))
-                .uuid(rs.getString("uuid"))
-                .stateSchemeId(rs.getString("state_scheme_id"))
-                .centreSchemeId(rs.getString("centre_scheme_id"))
-                .schemeName(rs.getString("scheme_name"))
-                .fhtcCount(rs.getInt("fhtc_count"))
-                .plannedFhtc(rs.getInt("planned_fhtc"))
-                .houseHoldCount(rs.getInt("house_hold_count"))
-                .latitude((Double) rs.getObject("latitude"))
-                .longitude((Double) rs.getObject("longitude"))
-                .channel((Integer) rs.getObject("channel"))
-                .workStatus(workStatusLabel((Integer) rs.getObject("work_status")))
-                .operatingStatus(operatingStatusLabel((Integer) rs.getObject("operating_status")))
-                .build(), args.toArray());
+        List<KeysetCursor> cursors = new ArrayList<>();
+        List<SchemeDTO> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            cursors.add(new KeysetCursor(sort.key(), asc, rs.getString("cursor_key"), rs.getLong("id"), 0));
+            return SchemeDTO.builder()
+                    .id(rs.getInt("id"))
+                    .uuid(rs.getString("uuid"))
+                    .stateSchemeId(rs.getString("state_scheme_id"))
+                    .centreSchemeId(rs.getString("centre_scheme_id"))
+                    .schemeName(rs.getString("scheme_name"))
+                    .fhtcCount(rs.getInt("fhtc_count"))
+                    .plannedFhtc(rs.getInt("planned_fhtc"))
+                    .houseHoldCount(rs.getInt("house_hold_count"))
+                    .latitude((Double) rs.getObject("latitude"))
+                    .longitude((Double) rs.getObject("longitude"))
+                    .channel((Integer) rs.getObject("channel"))
+                    .workStatus(workStatusLabel((Integer) rs.getObject("work_status")))
+                    .operatingStatus(operatingStatusLabel((Integer) rs.getObject("operating_status")))
+                    .build();
+        }, args.toArray());
+        return slice(rows, cursors, limit);
     }
 
     public long countSchemes(
@@ -140,7 +157,33 @@ public class SchemeDbRepository {
         return total == null ? 0 : total;
     }
 
-    public List<SchemeMappingDTO> listSchemeMappings(
+    /**
+     * Planner estimate of {@link #countSchemes}; reads statistics instead of the rows.
+     */
+    public long estimateSchemes(
+            String schemaName,
+            String stateSchemeId,
+            String schemeName,
+            String name,
+            Integer workStatus,
+            Integer operatingStatus,
+            String status
+    ) {
+        validateSchemaName(schemaName);
+        SqlAndArgs where = buildSchemeWhere(stateSchemeId, schemeName, name, workStatus, operatingStatus, status);
+        String sql = String.format("""
+                SELECT 1
+                FROM %s.scheme_master_table
+                WHERE deleted_at IS NULL
+                  %s
+                """, schemaName, where.sql());
+        return estimateRows(sql, where.args());
+    }
+
+    /**
+     * Lists scheme mappings after {@code after} (keyset) or, without a cursor, from {@code offset}.
+     */
+    public PageSlice<SchemeMappingDTO> listSchemeMappings(
             String schemaName,
             String name,
             Integer workStatus,
@@ -150,6 +193,7 @@ public class SchemeDbRepository {
             String subDivisionName,
             String sortBy,
             String sortDir,
+            KeysetCursor after,
             int offset,
             int limit
     ) {
@@ -157,99 +201,56 @@ public class SchemeDbRepository {
 
         boolean hasDept = hasDepartmentTables(schemaName);
         if (!hasDept && subDivisionName != null && !subDivisionName.isBlank()) {
-            return List.of();
+            return new PageSlice<>(List.of(), null);
         }
 
-        List<Object> args = new ArrayList<>();
-        List<String> clauses = new ArrayList<>();
-        if (name != null && !name.isBlank()) {
-            clauses.add("(sm.scheme_name ILIKE ? OR sm.state_scheme_id ILIKE ?)");
-            String pat = "%" + name.trim() + "%";
-            args.add(pat);
-            args.add(pat);
-        }
-        if (workStatus != null) {
-            clauses.add("sm.work_status = ?");
-            args.add(workStatus);
-        }
-        if (operatingStatus != null) {
-            clauses.add("sm.operating_status = ?");
-            args.add(operatingStatus);
-        }
-        if (status != null && !status.isBlank()) {
-            String s = status.trim().toLowerCase(Locale.ROOT);
-            if ("active".equals(s)) {
-                clauses.add("sm.operating_status = 1");
-            } else if ("inactive".equals(s)) {
-                clauses.add("sm.operating_status <> 1");
-            }
-        }
-        if (villageLgdCode != null && !villageLgdCode.isBlank()) {
-            clauses.add("lgd.lgd_code ILIKE ?");
-            args.add("%" + villageLgdCode.trim() + "%");
-        }
-        if (hasDept && subDivisionName != null && !subDivisionName.isBlank()) {
-            clauses.add("dept.title ILIKE ?");
-            args.add("%" + subDivisionName.trim() + "%");
-        }
-
-        String filterSql = clauses.isEmpty() ? "" : " AND " + String.join(" AND ", clauses) + " ";
-
-        String orderBy = mappingOrderBy(sortBy, sortDir, hasDept);
-        String sql = hasDept
-                ? String.format("""
-                    SELECT slm.id,
-                           sm.id AS scheme_id,
-                           sm.state_scheme_id,
-                           sm.scheme_name,
-                           lgd.lgd_code AS village_lgd_code,
-                           lgd.title AS village_name,
-                           dept.title   AS sub_division_name
-                    FROM %s.scheme_lgd_mapping_table slm
-                    JOIN %s.scheme_master_table sm
-                      ON sm.id = slm.scheme_id AND sm.deleted_at IS NULL
-                    JOIN %s.lgd_location_master_table lgd
-                      ON lgd.id = slm.parent_lgd_id AND lgd.deleted_at IS NULL
-                    LEFT JOIN %s.scheme_department_mapping_table sdm
-                      ON sdm.scheme_id = sm.id AND sdm.deleted_at IS NULL
-                    LEFT JOIN %s.department_location_master_table dept
-                      ON dept.id = sdm.parent_department_id AND dept.deleted_at IS NULL
-                    WHERE slm.deleted_at IS NULL
-                      %s
-                    %s
-                    LIMIT ? OFFSET ?
-                    """, schemaName, schemaName, schemaName, schemaName, schemaName, filterSql, orderBy)
-                : String.format("""
-                    SELECT slm.id,
-                           sm.id AS scheme_id,
-                           sm.state_scheme_id,
-                           sm.scheme_name,
-                           lgd.lgd_code AS village_lgd_code,
-                           lgd.title AS village_name,
-                           NULL::varchar AS sub_division_name
-                    FROM %s.scheme_lgd_mapping_table slm
-                    JOIN %s.scheme_master_table sm
-                      ON sm.id = slm.scheme_id AND sm.deleted_at IS NULL
-                    JOIN %s.lgd_location_master_table lgd
-                      ON lgd.id = slm.parent_lgd_id AND lgd.deleted_at IS NULL
-                    WHERE slm.deleted_at IS NULL
-                      %s
-                    %s
-                    LIMIT ? OFFSET ?
-                    """, schemaName, schemaName, schemaName, filterSql, orderBy);
+        SqlAndArgs from = buildMappingFrom(schemaName, hasDept, name, workStatus, operatingStatus, status,
+                villageLgdCode, subDivisionName);
+        SortSpec sort = mappingSort(sortBy, hasDept);
+        boolean asc = isAscending(sortDir);
+        // A scheme with several sub-division mappings repeats its village mapping row.
+        List<String> ties = hasDept ? List.of("slm.id", "COALESCE(sdm.id, 0)") : List.of("slm.id");
 
-        args.add(limit);
-        args.add(offset);
+        List<Object> args = new ArrayList<>(from.args());
+        String keyset = keysetClause(sort, ties, asc, after, args);
 
-        return jdbcTemplate.query(sql, (rs, rowNum) -> SchemeMappingDTO.builder()
-                .id(rs.getLong("id"))
-                .schemeId((Integer) rs.getObject("scheme_id"))
-                .stateSchemeId(rs.getString("state_scheme_id"))
-                .schemeName(rs.getString("scheme_name"))
-                .villageLgdCode(rs.getString("village_lgd_code"))
-                .villageName(rs.getString("village_name"))
-                .subDivisionName(rs.getString("sub_division_name"))
-                .build(), args.toArray());
+        String sql = String.format("""
+                SELECT slm.id,
+                       sm.id AS scheme_id,
+                       sm.state_scheme_id,
+                       sm.scheme_name,
+                       lgd.lgd_code AS village_lgd_code,
+                       lgd.title AS village_name,
+                       %s AS sub_division_name,
+                       %s AS tie_id,
+                       (%s)::text AS cursor_key
+                %s
+                  %s
+                %s
+                LIMIT ? OFFSET ?
+                """,
+                hasDept ? "dept.title" : "NULL::varchar",
+                hasDept ? "COALESCE(sdm.id, 0)" : "0",
+                sort.expr(), from.sql(), keyset, orderBy(sort, ties, asc));
+
+        args.add(limit + 1);
+        args.add(after == null ? offset : 0);
+
+        List<KeysetCursor> cursors = new ArrayList<>();
+        List<SchemeMappingDTO> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            cursors.add(new KeysetCursor(sort.key(), asc, rs.getString("cursor_key"),
+                    rs.getLong("id"), rs.getLong("tie_id")));
+            return SchemeMappingDTO.builder()
+                    .id(rs.getLong("id"))
+                    .schemeId((Integer) rs.getObject("scheme_id"))
+                    .stateSchemeId(rs.getString("state_scheme_id"))
+                    .schemeName(rs.getString("scheme_name"))
+                    .villageLgdCode(rs.getString("village_lgd_code"))
+                    .villageName(rs.getString("village_name"))
+                    .subDivisionName(rs.getString("sub_division_name"))
+                    .build();
+        }, args.toArray());
+        return slice(rows, cursors, limit);
     }
 
     public long countSchemeMappings(
@@ -268,69 +269,34 @@ public class SchemeDbRepository {
             return 0;
         }
 
-        List<Object> args = new ArrayList<>();
-        List<String> clauses = new ArrayList<>();
-        if (name != null && !name.isBlank()) {
-            clauses.add("(sm.scheme_name ILIKE ? OR sm.state_scheme_id ILIKE ?)");
-            String pat = "%" + name.trim() + "%";
-            args.add(pat);
-            args.add(pat);
-        }
-        if (workStatus != null) {
-            clauses.add("sm.work_status = ?");
-            args.add(workStatus);
-        }
-        if (operatingStatus != null) {
-            clauses.add("sm.operating_status = ?");
-            args.add(operatingStatus);
-        }
-        if (status != null && !status.isBlank()) {
-            String s = status.trim().toLowerCase(Locale.ROOT);
-            if ("active".equals(s)) {
-                clauses.add("sm.operating_status = 1");
-            } else if ("inactive".equals(s)) {
-                clauses.add("sm.operating_status <> 1");
-            }
-        }
-        if (villageLgdCode != null && !villageLgdCode.isBlank()) {
-            clauses.add("lgd.lgd_code ILIKE ?");
-            args.add("%" + villageLgdCode.trim() + "%");
-        }
-        if (hasDept && subDivisionName != null && !subDivisionName.isBlank()) {
-            clauses.add("dept.title ILIKE ?");
-            args.add("%" + subDivisionName.trim() + "%");
-        }
+        SqlAndArgs from = buildMappingFrom(schemaName, hasDept, name, workStatus, operatingStatus, status,
+                villageLgdCode, subDivisionName);
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(1) " + from.sql(), Long.class, from.args().toArray());
+        return total == null ? 0 : total;
+    }
 
-        String filterSql = clauses.isEmpty() ? "" : " AND " + String.join(" AND ", clauses) + " ";
+    /**
+     * Planner estimate of {@link #countSchemeMappings}; reads statistics instead of the rows.
+     */
+    public long estimateSchemeMappings(
+            String schemaName,
+            String name,
+            Integer workStatus,
+            Integer operatingStatus,
+            String status,
+            String villageLgdCode,
+            String subDivisionName
+    ) {
+        validateSchemaName(schemaName);
 
-        String sql = hasDept
-                ? String.format("""
-                    SELECT COUNT(1)
-                    FROM %s.scheme_lgd_mapping_table slm
-                    JOIN %s.scheme_master_table sm
-                      ON sm.id = slm.scheme_id AND sm.deleted_at IS NULL
-                    JOIN %s.lgd_location_master_table lgd
-                      ON lgd.id = slm.parent_lgd_id AND lgd.deleted_at IS NULL
-                    LEFT JOIN %s.scheme_department_mapping_table sdm
-                      ON sdm.scheme_id = sm.id AND sdm.deleted_at IS NULL
-                    LEFT JOIN %s.department_location_master_table dept
-                      ON dept.id = sdm.parent_department_id AND dept.deleted_at IS NULL
-                    WHERE slm.deleted_at IS NULL
-                      %s
-                    """, schemaName, schemaName, schemaName, schemaName, schemaName, filterSql)
-                : String.format("""
-                    SELECT COUNT(1)
-                    FROM %s.scheme_lgd_mapping_table slm
-                    JOIN %s.scheme_master_table sm
-                      ON sm.id = slm.scheme_id AND sm.deleted_at IS NULL
-                    JOIN %s.lgd_location_master_table lgd
-                      ON lgd.id = slm.parent_lgd_id AND lgd.deleted_at IS NULL
-                    WHERE slm.deleted_at IS NULL
-                      %s
-                    """, schemaName, schemaName, schemaName, filterSql);
+        boolean hasDept = hasDepartmentTables(schemaName);
+        if (!hasDept && subDivisionName != null && !subDivisionName.isBlank()) {
+            return 0;
+        }
 
-        Long total = jdbcTemplate.queryForObject(sql, Long.class, args.toArray());
-        return total == null ? 0 : total;
+        SqlAndArgs from = buildMappingFrom(schemaName, hasDept, name, workStatus, operatingStatus, status,
+                villageLgdCode, subDivisionName);
+        return estimateRows("SELECT 1 " + from.sql(), from.args());
     }
 
     public record SchemeCounts(long activeSchemes, long inactiveSchemes) {}
@@ -486,30 +452,6 @@ public class SchemeDbRepository {
         return findExistingIds(schemaName, "department_location_master_table", departmentIds);
     }
 
-    /**
-     * Batch lookup of internal scheme IDs by state_scheme_id (case-insensitive).
-     * Returns a map keyed by lower(state_scheme_id).
-     */
-    public Map<String, Integer> findSchemeIdsByStateSchemeIds(String schemaName, List<String> stateSchemeIds) {
-        return findIdsByLowerTextKey(schemaName, "scheme_master_table", "state_scheme_id", stateSchemeIds);
-    }
-
-    /**
-     * Batch lookup of LGD location IDs by lgd_code (case-insensitive).
-     * Returns a map keyed by lower(lgd_code).
-     */
-    public Map<String, Integer> findLgdIdsByCodes(String schemaName, List<String> lgdCodes) {
-        return findIdsByLowerTextKey(schemaName, "lgd_location_master_table", "lgd_code", lgdCodes);
-    }
-
-    /**
-     * Batch lookup of department location IDs by title (case-insensitive).
-     * Returns a map keyed by lower(title).
-     */
-    public Map<String, Integer> findDepartmentIdsByTitles(String schemaName, List<String> titles) {
-        return findIdsByLowerTextKey(schemaName, "department_location_master_table", "title", titles);
-    }
-
     public Integer findUserIdByEmail(String schemaName, String email) {
         validateSchemaName(schemaName);
         if (email == null || email.isBlank()) {
@@ -554,96 +496,6 @@ public class SchemeDbRepository {
         return Boolean.TRUE.equals(ok);
     }
 
-    public void insertSchemes(String schemaName, List<SchemeCreateRecord> rows) {
-        validateSchemaName(schemaName);
-        String sql = String.format("""
-                INSERT INTO %s.scheme_master_table
-                    (uuid, state_scheme_id, centre_scheme_id, scheme_name,
-                     fhtc_count, planned_fhtc, house_hold_count,
-                     latitude, longitude, channel, work_status, operating_status,
-                     created_at, created_by, updated_at, updated_by, deleted_at, deleted_by)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), ?, NOW(), ?, NULL, NULL)
-                """, schemaName);
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                SchemeCreateRecord row = rows.get(i);
-                ps.setString(1, row.uuid());
-                ps.setString(2, row.stateSchemeId());
-                ps.setString(3, row.centreSchemeId());
-                ps.setString(4, row.schemeName());
-                ps.setInt(5, row.fhtcCount());
-                ps.setInt(6, row.plannedFhtc());
-                ps.setInt(7, row.houseHoldCount());
-                ps.setObject(8, row.latitude());
-                ps.setObject(9, row.longitude());
-                ps.setObject(10, row.channel(), Types.INTEGER);
-                ps.setInt(11, row.workStatus());
-                ps.setInt(12, row.operatingStatus());
-                ps.setInt(13, row.createdBy());
-                ps.setInt(14, row.updatedBy());
-            }
-
-            @Override
-            public int getBatchSize() {
-                return rows.size();
-            }
-        });
-    }
-
-    public void insertLgdMappings(String schemaName, List<SchemeLgdMappingCreateRecord> rows) {
-        validateSchemaName(schemaName);
-        String sql = String.format("""
-                INSERT INTO %s.scheme_lgd_mapping_table
-                    (scheme_id, parent_lgd_id, parent_lgd_level, created_by, created_at, updated_by, updated_at, deleted_at, deleted_by)
-                VALUES (?, ?, ?, ?, NOW(), ?, NOW(), NULL, NULL)
-                """, schemaName);
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                SchemeLgdMappingCreateRecord row = rows.get(i);
-                ps.setInt(1, row.schemeId());
-                ps.setInt(2, row.parentLgdId());
-                ps.setString(3, String.valueOf(row.parentLgdLevel()));
-                ps.setInt(4, row.createdBy());
-                ps.setInt(5, row.updatedBy());
-            }
-
-            @Override
-            public int getBatchSize() {
-                return rows.size();
-            }
-        });
-    }
-
-    public void insertSubdivisionMappings(String schemaName, List<SchemeSubdivisionMappingCreateRecord> rows) {
-        validateSchemaName(schemaName);
-        String sql = String.format("""
-                INSERT INTO %s.scheme_department_mapping_table
-                    (scheme_id, parent_department_id, parent_department_level, created_by, created_at, updated_by, updated_at, deleted_at, deleted_by)
-                VALUES (?, ?, ?, ?, NOW(), ?, NOW(), NULL, NULL)
-                """, schemaName);
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                SchemeSubdivisionMappingCreateRecord row = rows.get(i);
-                ps.setInt(1, row.schemeId());
-                ps.setInt(2, row.parentDepartmentId());
-                ps.setString(3, row.parentDepartmentLevel());
-                ps.setInt(4, row.createdBy());
-                ps.setInt(5, row.updatedBy());
-            }
-
-            @Override
-            public int getBatchSize() {
-                return rows.size();
-            }
-        });
-    }
-
     private void validateSchemaName(String schemaName) {
         if (schemaName == null || schemaName.isBlank() || !SAFE_SCHEMA.matcher(schemaName).matches()) {
             throw new IllegalArgumentException("Invalid schema name: " + schemaName);
@@ -700,34 +552,179 @@ public class SchemeDbRepository {
         return new SqlAndArgs(" AND " + String.join(" AND ", clauses), args);
     }
 
-    private String schemeOrderBy(String sortBy, String sortDir) {
-        String dir = "asc".equalsIgnoreCase(sortDir) ? "ASC" : "DESC";
+    /**
+     * A sortable column: its canonical key (stored in cursors), SQL expression and the type
+     * a cursor value is cast back to.
+     */
+    private record SortSpec(String key, String expr, String type) {}
+
+    private static boolean isAscending(String sortDir) {
+        return "asc".equalsIgnoreCase(sortDir);
+    }
+
+    private SortSpec schemeSort(String sortBy) {
         String key = sortBy == null ? "" : sortBy.trim().toLowerCase(Locale.ROOT);
-        String col = switch (key) {
-            case "id" -> "id";
-            case "state_scheme_id" -> "state_scheme_id";
-            case "centre_scheme_id", "center_scheme_id" -> "centre_scheme_id";
-            case "scheme_name", "name" -> "scheme_name";
-            case "work_status" -> "work_status";
-            case "operating_status" -> "operating_status";
-            case "created_at" -> "created_at";
-            default -> "id";
+        return switch (key) {
+            case "state_scheme_id" -> new SortSpec("state_scheme_id", "state_scheme_id", "text");
+            case "centre_scheme_id", "center_scheme_id" -> new SortSpec("centre_scheme_id", "centre_scheme_id", "text");
+            case "scheme_name", "name" -> new SortSpec("scheme_name", "scheme_name", "text");
+            case "work_status" -> new SortSpec("work_status", "work_status", "integer");
+            case "operating_status" -> new SortSpec("operating_status", "operating_status", "integer");
+            case "created_at" -> new SortSpec("created_at", "created_at", "timestamp");
+            default -> new SortSpec("id", "id", "integer");
         };
-        return "ORDER BY " + col + " " + dir;
     }
 
-    private String mappingOrderBy(String sortBy, String sortDir, boolean hasDept) {
-        String dir = "asc".equalsIgnoreCase(sortDir) ? "ASC" : "DESC";
+    private SortSpec mappingSort(String sortBy, boolean hasDept) {
         String key = sortBy == null ? "" : sortBy.trim().toLowerCase(Locale.ROOT);
-        String col = switch (key) {
-            case "id" -> "slm.id";
-            case "scheme_name", "name" -> "sm.scheme_name";
-            case "state_scheme_id" -> "sm.state_scheme_id";
-            case "village_lgd_code" -> "lgd.lgd_code";
-            case "sub_division_name" -> hasDept ? "dept.title" : "slm.id";
-            default -> "slm.id";
+        return switch (key) {
+            case "scheme_name", "name" -> new SortSpec("scheme_name", "sm.scheme_name", "text");
+            case "state_scheme_id" -> new SortSpec("state_scheme_id", "sm.state_scheme_id", "text");
+            case "village_lgd_code" -> new SortSpec("village_lgd_code", "lgd.lgd_code", "text");
+            // Mappings without a sub-division sort first (ascending), as an empty name.
+            case "sub_division_name" -> hasDept
+                    ? new SortSpec("sub_division_name", "COALESCE(dept.title, '')", "text")
+                    : new SortSpec("id", "slm.id", "integer");
+            default -> new SortSpec("id", "slm.id", "integer");
         };
-        return "ORDER BY " + col + " " + dir;
+    }
+
+    private static String orderBy(SortSpec sort, List<String> ties, boolean asc) {
+        String dir = asc ? " ASC" : " DESC";
+        List<String> keys = new ArrayList<>();
+        if (!sort.expr().equals(ties.get(0))) {
+            keys.add(sort.expr() + dir);
+        }
+        for (String tie : ties) {
+            keys.add(tie + dir);
+        }
+        return "ORDER BY " + String.join(", ", keys);
+    }
+
+    /**
+     * Row-value condition selecting rows after {@code after} in the order of
+     * {@link #orderBy}; appends its arguments to {@code args}.
+     */
+    private static String keysetClause(SortSpec sort, List<String> ties, boolean asc, KeysetCursor after, List<Object> args) {
+        if (after == null) {
+            return "";
+        }
+        after.requireSort(sort.key(), asc);
+        List<String> columns = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if (!sort.expr().equals(ties.get(0))) {
+            columns.add(sort.expr());
+            params.add("CAST(? AS " + sort.type() + ")");
+            values.add(after.value());
+        }
+        long[] tieValues = {after.id(), after.tieId()};
+        for (int i = 0; i < ties.size(); i++) {
+            columns.add(ties.get(i));
+            params.add("?");
+            values.add(tieValues[i]);
+        }
+        if (columns.size() == 1) {
+            args.add(values.get(0));
+            return String.format(" AND %s %s ?", columns.get(0), asc ? ">" : "<");
+        }
+        // The redundant bound on the leading column lets an index on it skip earlier rows;
+        // PostgreSQL does not derive one from a row comparison that spans a join.
+        args.add(values.get(0));
+        args.addAll(values);
+        return String.format(" AND %s %s %s AND (%s) %s (%s)",
+                columns.get(0), asc ? ">=" : "<=", params.get(0),
+                String.join(", ", columns), asc ? ">" : "<", String.join(", ", params));
+    }
+
+    private static <T> PageSlice<T> slice(List<T> rows, List<KeysetCursor> cursors, int limit) {
+        if (rows.size() <= limit) {
+            return new PageSlice<>(rows, null);
+        }
+        return new PageSlice<>(rows.subList(0, limit), cursors.get(limit - 1));
+    }
+
+    /**
+     * Row count the planner estimates for {@code sql}, from the top line of its plan.
+     */
+    private long estimateRows(String sql, List<Object> args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args.toArray());
+        if (plan.isEmpty()) {
+            return 0;
+        }
+        Matcher matcher = PLAN_ROWS.matcher(plan.get(0));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private SqlAndArgs buildMappingFrom(
+            String schemaName,
+            boolean hasDept,
+            String name,
+            Integer workStatus,
+            Integer operatingStatus,
+            String status,
+            String villageLgdCode,
+            String subDivisionName
+    ) {
+        List<Object> args = new ArrayList<>();
+        List<String> clauses = new ArrayList<>();
+        if (name != null && !name.isBlank()) {
+            clauses.add("(sm.scheme_name ILIKE ? OR sm.state_scheme_id ILIKE ?)");
+            String pat = "%" + name.trim() + "%";
+            args.add(pat);
+            args.add(pat);
+        }
+        if (workStatus != null) {
+            clauses.add("sm.work_status = ?");
+            args.add(workStatus);
+        }
+        if (operatingStatus != null) {
+            clauses.add("sm.operating_status = ?");
+            args.add(operatingStatus);
+        }
+        if (status != null && !status.isBlank()) {
+            String s = status.trim().toLowerCase(Locale.ROOT);
+            if ("active".equals(s)) {
+                clauses.add("sm.operating_status = 1");
+            } else if ("inactive".equals(s)) {
+                clauses.add("sm.operating_status <> 1");
+            }
+        }
+        if (villageLgdCode != null && !villageLgdCode.isBlank()) {
+            clauses.add("lgd.lgd_code ILIKE ?");
+            args.add("%" + villageLgdCode.trim() + "%");
+        }
+        if (hasDept && subDivisionName != null && !subDivisionName.isBlank()) {
+            clauses.add("dept.title ILIKE ?");
+            args.add("%" + subDivisionName.trim() + "%");
+        }
+
+        String filterSql = clauses.isEmpty() ? "" : " AND " + String.join(" AND ", clauses) + " ";
+
+        String sql = hasDept
+                ? String.format("""
+                    FROM %1$s.scheme_lgd_mapping_table slm
+                    JOIN %1$s.scheme_master_table sm
+                      ON sm.id = slm.scheme_id AND sm.deleted_at IS NULL
+                    JOIN %1$s.lgd_location_master_table lgd
+                      ON lgd.id = slm.parent_lgd_id AND lgd.deleted_at IS NULL
+                    LEFT JOIN %1$s.scheme_department_mapping_table sdm
+                      ON sdm.scheme_id = sm.id AND sdm.deleted_at IS NULL
+                    LEFT JOIN %1$s.department_location_master_table dept
+                      ON dept.id = sdm.parent_department_id AND dept.deleted_at IS NULL
+                    WHERE slm.deleted_at IS NULL
+                      %2$s
+                    """, schemaName, filterSql)
+                : String.format("""
+                    FROM %1$s.scheme_lgd_mapping_table slm
+                    JOIN %1$s.scheme_master_table sm
+                      ON sm.id = slm.scheme_id AND sm.deleted_at IS NULL
+                    JOIN %1$s.lgd_location_master_table lgd
+                      ON lgd.id = slm.parent_lgd_id AND lgd.deleted_at IS NULL
+                    WHERE slm.deleted_at IS NULL
+                      %2$s
+                    """, schemaName, filterSql);
+        return new SqlAndArgs(sql, args);
     }
 
     private boolean hasDepartmentTables(String schemaName) {
@@ -774,54 +771,4 @@ public class SchemeDbRepository {
         List<Integer> existing = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getInt("id"), args);
         return new HashSet<>(existing);
     }
-
-    private Map<String, Integer> findIdsByLowerTextKey(String schemaName, String table, String keyColumn, List<String> values) {
-        validateSchemaName(schemaName);
-        if (values == null || values.isEmpty()) {
-            return Map.of();
-        }
-
-        // Deduplicate normalized values to keep IN clause small and stable.
-        Set<String> uniq = new HashSet<>(Math.max(16, values.size()));
-        for (String v : values) {
-            if (v == null) {
-                continue;
-            }
-            String t = v.trim();
-            if (!t.isBlank()) {
-                uniq.add(t.toLowerCase(Locale.ROOT));
-            }
-        }
-        if (uniq.isEmpty()) {
-            return Map.of();
-        }
-
-        StringBuilder placeholders = new StringBuilder();
-        int n = uniq.size();
-        for (int i = 0; i < n; i++) {
-            if (i > 0) {
-                placeholders.append(',');
-            }
-            placeholders.append('?');
-        }
-
-        String sql = String.format(
-                "SELECT lower(%s) AS k, id FROM %s.%s WHERE deleted_at IS NULL AND lower(%s) IN (%s)",
-                keyColumn,
-                schemaName,
-                table,
-                keyColumn,
-                placeholders
-        );
-        Object[] args = uniq.toArray();
-
-        Map<String, Integer> out = new LinkedHashMap<>();
-        jdbcTemplate.query(sql, rs -> {
-            String k = rs.getString("k");
-            int id = rs.getInt("id");
-            // If there are duplicates in DB (case-insensitive), keep the first deterministically.
-            out.putIfAbsent(k, id);
-        }, args);
-        return out;
-    }
 }
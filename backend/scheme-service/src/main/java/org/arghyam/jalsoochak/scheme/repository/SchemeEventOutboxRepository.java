@@ -0,0 +1,207 @@
+package org.arghyam.jalsoochak.scheme.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Outbox of scheme lifecycle events ({@code common_schema.scheme_event_outbox_table}).
+ *
+ * <p>Events are queued in the transaction that changes the schemes and published to Kafka
+ * by {@link org.arghyam.jalsoochak.scheme.kafka.SchemeEventRelay}.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class SchemeEventOutboxRepository {
+
+    public static final String SCHEME_CREATED = "SCHEME_CREATED";
+    public static final String SCHEME_UPDATED = "SCHEME_UPDATED";
+
+    private static final Pattern SAFE_SCHEMA = Pattern.compile("^[a-z_][a-z0-9_]*$");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** A queued event: Kafka record key and JSON value. */
+    public record OutboxEvent(long id, String key, String payload) {
+    }
+
+    /**
+     * Queues one {@code eventType} event per scheme, carrying the scheme's current state:
+     * name, IDs, coordinates, status (1 if operative, else 0) and the LGD and department
+     * hierarchy of its first active mapping, by location config level (each location's
+     * ancestors are looked up once, however many schemes map to it). Must run in the
+     * transaction that changed the schemes. Returns the number of events queued; schemes
+     * that do not exist or belong to a schema without a tenant row are skipped.
+     */
+    public int enqueueSchemeEvents(String schemaName, String eventType, Collection<Integer> schemeIds) {
+        validateSchemaName(schemaName);
+        if (schemeIds.isEmpty()) {
+            return 0;
+        }
+        String sql = String.format("""
+                WITH RECURSIVE changed AS (
+                    SELECT DISTINCT unnest(?::integer[]) AS scheme_id
+                ),
+                lgd_parent AS (
+                    SELECT DISTINCT ON (m.scheme_id) m.scheme_id, m.parent_lgd_id
+                    FROM %1$s.scheme_lgd_mapping_table m
+                    JOIN changed c ON c.scheme_id = m.scheme_id
+                    WHERE m.deleted_at IS NULL
+                    ORDER BY m.scheme_id, m.id
+                ),
+                lgd_chain AS (
+                    SELECT l.id AS start_id, l.id, l.parent_id, l.lgd_location_config_id AS config_id, 1 AS depth
+                    FROM %1$s.lgd_location_master_table l
+                    WHERE l.id IN (SELECT parent_lgd_id FROM lgd_parent)
+                    UNION ALL
+                    SELECT ch.start_id, l.id, l.parent_id, l.lgd_location_config_id, ch.depth + 1
+                    FROM lgd_chain ch
+                    JOIN %1$s.lgd_location_master_table l ON l.id = ch.parent_id
+                    WHERE ch.depth < 10
+                ),
+                lgd_levels AS (
+                    SELECT ch.start_id,
+                           max(ch.id) FILTER (WHERE cfg.level = 1) AS level_1,
+                           max(ch.id) FILTER (WHERE cfg.level = 2) AS level_2,
+                           max(ch.id) FILTER (WHERE cfg.level = 3) AS level_3,
+                           max(ch.id) FILTER (WHERE cfg.level = 4) AS level_4,
+                           max(ch.id) FILTER (WHERE cfg.level = 5) AS level_5,
+                           max(ch.id) FILTER (WHERE cfg.level = 6) AS level_6
+                    FROM lgd_chain ch
+                    LEFT JOIN %1$s.location_config_master_table cfg ON cfg.id = ch.config_id
+                    GROUP BY ch.start_id
+                ),
+                dept_parent AS (
+                    SELECT DISTINCT ON (m.scheme_id) m.scheme_id, m.parent_department_id
+                    FROM %1$s.scheme_department_mapping_table m
+                    JOIN changed c ON c.scheme_id = m.scheme_id
+                    WHERE m.deleted_at IS NULL
+                    ORDER BY m.scheme_id, m.id
+                ),
+                dept_chain AS (
+                    SELECT d.id AS start_id, d.id, d.parent_id, d.department_location_config_id AS config_id, 1 AS depth
+                    FROM %1$s.department_location_master_table d
+                    WHERE d.id IN (SELECT parent_department_id FROM dept_parent)
+                    UNION ALL
+                    SELECT ch.start_id, d.id, d.parent_id, d.department_location_config_id, ch.depth + 1
+                    FROM dept_chain ch
+                    JOIN %1$s.department_location_master_table d ON d.id = ch.parent_id
+                    WHERE ch.depth < 10
+                ),
+                dept_levels AS (
+                    SELECT ch.start_id,
+                           max(ch.id) FILTER (WHERE cfg.level = 1) AS level_1,
+                           max(ch.id) FILTER (WHERE cfg.level = 2) AS level_2,
+                           max(ch.id) FILTER (WHERE cfg.level = 3) AS level_3,
+                           max(ch.id) FILTER (WHERE cfg.level = 4) AS level_4,
+                           max(ch.id) FILTER (WHERE cfg.level = 5) AS level_5,
+                           max(ch.id) FILTER (WHERE cfg.level = 6) AS level_6
+                    FROM dept_chain ch
+                    LEFT JOIN %1$s.location_config_master_table cfg ON cfg.id = ch.config_id
+                    GROUP BY ch.start_id
+                )
+                INSERT INTO common_schema.scheme_event_outbox_table (tenant_id, event_key, event_type, payload)
+                SELECT t.id, t.id || ':' || s.id, ?, jsonb_build_object(
+                        'eventType', ?,
+                        'schemeId', s.id,
+                        'tenantId', t.id,
+                        'schemeName', s.scheme_name,
+                        'stateSchemeId', s.state_scheme_id,
+                        'centreSchemeId', s.centre_scheme_id,
+                        'longitude', s.longitude,
+                        'latitude', s.latitude,
+                        'parentLgdLocationId', lp.parent_lgd_id,
+                        'level1LgdId', l.level_1,
+                        'level2LgdId', l.level_2,
+                        'level3LgdId', l.level_3,
+                        'level4LgdId', l.level_4,
+                        'level5LgdId', l.level_5,
+                        'level6LgdId', l.level_6,
+                        'parentDepartmentLocationId', dp.parent_department_id,
+                        'level1DeptId', d.level_1,
+                        'level2DeptId', d.level_2,
+                        'level3DeptId', d.level_3,
+                        'level4DeptId', d.level_4,
+                        'level5DeptId', d.level_5,
+                        'level6DeptId', d.level_6,
+                        'status', CASE WHEN s.operating_status = 1 THEN 1 ELSE 0 END)
+                FROM changed c
+                JOIN %1$s.scheme_master_table s ON s.id = c.scheme_id
+                JOIN common_schema.tenant_master_table t ON 'tenant_' || lower(t.state_code) = ?
+                LEFT JOIN lgd_parent lp ON lp.scheme_id = s.id
+                LEFT JOIN lgd_levels l ON l.start_id = lp.parent_lgd_id
+                LEFT JOIN dept_parent dp ON dp.scheme_id = s.id
+                LEFT JOIN dept_levels d ON d.start_id = dp.parent_department_id
+                ORDER BY s.id
+                """, schemaName);
+        return jdbcTemplate.update(sql, ps -> {
+            Array ids = ps.getConnection().createArrayOf("integer", schemeIds.toArray());
+            ps.setArray(1, ids);
+            ps.setString(2, eventType);
+            ps.setString(3, eventType);
+            ps.setString(4, schemaName);
+        });
+    }
+
+    /**
+     * Takes the relay lock for the current transaction, so only one instance publishes at a
+     * time and events of a scheme are sent in the order they were queued.
+     *
+     * @return {@code false} if another transaction holds it
+     */
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('scheme-event-relay'))", Boolean.class));
+    }
+
+    /**
+     * The oldest queued events, locked until the transaction ends. The payload gains an
+     * {@code eventId} (the outbox ID) that consumers can use to discard redeliveries.
+     */
+    public List<OutboxEvent> lockOldest(int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, event_key, (payload || jsonb_build_object('eventId', id))::text AS payload
+                FROM common_schema.scheme_event_outbox_table
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE
+                """, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"),
+                rs.getString("event_key"),
+                rs.getString("payload")
+        ), limit);
+    }
+
+    public void delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM common_schema.scheme_event_outbox_table WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    public void recordFailure(List<Long> ids, String error) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("""
+                UPDATE common_schema.scheme_event_outbox_table
+                SET attempts = attempts + 1, last_error = ?
+                WHERE id = ANY(?)
+                """, ps -> {
+            ps.setString(1, error);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+    }
+
+    private void validateSchemaName(String schemaName) {
+        if (schemaName == null || schemaName.isBlank() || !SAFE_SCHEMA.matcher(schemaName).matches()) {
+            throw new IllegalArgumentException("Invalid schema name: " + schemaName);
+        }
+    }
+}
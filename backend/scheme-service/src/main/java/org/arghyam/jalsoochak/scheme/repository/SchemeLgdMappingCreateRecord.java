@@ -1,11 +0,0 @@
-package org.arghyam.jalsoochak.scheme.repository;
-
-public record SchemeLgdMappingCreateRecord(
-        Integer schemeId,
-        Integer parentLgdId,
-        Integer parentLgdLevel,
-        Integer createdBy,
-        Integer updatedBy
-) {
-}
-
@@ -0,0 +1,392 @@
+package org.arghyam.jalsoochak.scheme.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Staging tables for scheme and scheme-mapping uploads.
+ *
+ * <p>An upload is streamed once into a temporary table with {@code COPY}, validated with
+ * set-based queries against the tenant tables, and merged with a single
+ * {@code INSERT ... ON CONFLICT}. Temporary tables are never WAL-logged and are dropped
+ * when the transaction ends, so every method here must run in the caller's transaction.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class SchemeStagingRepository {
+
+    private static final Pattern SAFE_SCHEMA = Pattern.compile("^[a-z_][a-z0-9_]*$");
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private static final String CREATE_SCHEME_STAGE = """
+            CREATE TEMP TABLE scheme_upload_stage (
+                row_no            INTEGER          NOT NULL,
+                state_scheme_id   TEXT             NOT NULL,
+                centre_scheme_id  TEXT             NOT NULL,
+                scheme_name       TEXT             NOT NULL,
+                planned_fhtc      INTEGER          NOT NULL,
+                fhtc_count        INTEGER          NOT NULL,
+                house_hold_count  INTEGER          NOT NULL,
+                latitude          DOUBLE PRECISION,
+                longitude         DOUBLE PRECISION,
+                work_status       INTEGER          NOT NULL,
+                operating_status  INTEGER          NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_SCHEME_STAGE = """
+            COPY pg_temp.scheme_upload_stage
+                (row_no, state_scheme_id, centre_scheme_id, scheme_name, planned_fhtc, fhtc_count,
+                 house_hold_count, latitude, longitude, work_status, operating_status)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String CREATE_MAPPING_STAGE = """
+            CREATE TEMP TABLE scheme_mapping_upload_stage (
+                row_no             INTEGER  NOT NULL,
+                state_scheme_id    TEXT     NOT NULL,
+                village_lgd_code   TEXT     NOT NULL,
+                sub_division_name  TEXT     NOT NULL,
+                scheme_id          INTEGER,
+                lgd_id             INTEGER,
+                department_id      INTEGER
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_MAPPING_STAGE = """
+            COPY pg_temp.scheme_mapping_upload_stage
+                (row_no, state_scheme_id, village_lgd_code, sub_division_name)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Receives the rows of an upload and writes them to a staging table.
+     */
+    @FunctionalInterface
+    public interface StageSource {
+        void writeRows(StageWriter writer) throws IOException;
+    }
+
+    /**
+     * Appends one row to the staging table; values are given in the table's column order
+     * and may be {@code null}.
+     */
+    @FunctionalInterface
+    public interface StageWriter {
+        void row(Object... values);
+    }
+
+    /**
+     * A staged mapping row that cannot be merged.
+     *
+     * @param duplicate whether an earlier row has the same scheme, village and sub-division
+     */
+    public record MappingStageIssue(
+            int rowNumber,
+            boolean duplicate,
+            boolean schemeMissing,
+            boolean villageMissing,
+            boolean subDivisionMissing
+    ) {
+    }
+
+    /** IDs of the schemes a scheme merge inserted and updated, in upload order. */
+    public record SchemeMergeResult(List<Integer> createdIds, List<Integer> updatedIds) {
+
+        public int mergedRows() {
+            return createdIds.size() + updatedIds.size();
+        }
+    }
+
+    /**
+     * Outcome of a mapping merge.
+     *
+     * @param insertedVillageMappings village (LGD) mappings inserted
+     * @param changedSchemeIds        schemes that gained a village or sub-division mapping
+     */
+    public record MappingMergeResult(int insertedVillageMappings, List<Integer> changedSchemeIds) {
+    }
+
+    /** Creates the scheme staging table and fills it from {@code source}. Returns the rows staged. */
+    public long stageSchemes(StageSource source) {
+        jdbcTemplate.execute(CREATE_SCHEME_STAGE);
+        long rows = copy(COPY_SCHEME_STAGE, source);
+        jdbcTemplate.execute("ANALYZE pg_temp.scheme_upload_stage");
+        return rows;
+    }
+
+    /**
+     * Row numbers of staged schemes whose state_scheme_id (case-insensitive) already
+     * appeared on an earlier row, in row order.
+     */
+    public List<Integer> findDuplicateSchemeRows(int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT row_no
+                FROM (
+                    SELECT row_no,
+                           row_number() OVER (PARTITION BY lower(state_scheme_id) ORDER BY row_no) AS occurrence
+                    FROM pg_temp.scheme_upload_stage
+                ) s
+                WHERE occurrence > 1
+                ORDER BY row_no
+                LIMIT ?
+                """, Integer.class, limit);
+    }
+
+    /**
+     * Inserts staged schemes, updating the active scheme with the same state_scheme_id
+     * (case-insensitive) where one exists.
+     */
+    public SchemeMergeResult mergeSchemes(String schemaName, int actorUserId) {
+        validateSchemaName(schemaName);
+        String sql = String.format("""
+                INSERT INTO %s.scheme_master_table
+                    (uuid, state_scheme_id, centre_scheme_id, scheme_name,
+                     fhtc_count, planned_fhtc, house_hold_count,
+                     latitude, longitude, work_status, operating_status,
+                     created_at, created_by, updated_at, updated_by)
+                SELECT gen_random_uuid()::TEXT, state_scheme_id, centre_scheme_id, scheme_name,
+                       fhtc_count, planned_fhtc, house_hold_count,
+                       latitude, longitude, work_status, operating_status,
+                       NOW(), ?, NOW(), ?
+                FROM pg_temp.scheme_upload_stage
+                ORDER BY row_no
+                ON CONFLICT (lower(state_scheme_id)) WHERE deleted_at IS NULL DO UPDATE SET
+                    centre_scheme_id = EXCLUDED.centre_scheme_id,
+                    scheme_name      = EXCLUDED.scheme_name,
+                    fhtc_count       = EXCLUDED.fhtc_count,
+                    planned_fhtc     = EXCLUDED.planned_fhtc,
+                    house_hold_count = EXCLUDED.house_hold_count,
+                    latitude         = EXCLUDED.latitude,
+                    longitude        = EXCLUDED.longitude,
+                    work_status      = EXCLUDED.work_status,
+                    operating_status = EXCLUDED.operating_status,
+                    updated_at       = NOW(),
+                    updated_by       = EXCLUDED.updated_by
+                -- xmax is 0 for a row this statement inserted, set for one ON CONFLICT updated
+                RETURNING id, xmax = 0 AS created
+                """, schemaName);
+        List<Integer> created = new ArrayList<>();
+        List<Integer> updated = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            (rs.getBoolean("created") ? created : updated).add(rs.getInt("id"));
+        }, actorUserId, actorUserId);
+        return new SchemeMergeResult(created, updated);
+    }
+
+    /** Creates the mapping staging table and fills it from {@code source}. Returns the rows staged. */
+    public long stageMappings(StageSource source) {
+        jdbcTemplate.execute(CREATE_MAPPING_STAGE);
+        long rows = copy(COPY_MAPPING_STAGE, source);
+        jdbcTemplate.execute("ANALYZE pg_temp.scheme_mapping_upload_stage");
+        return rows;
+    }
+
+    /**
+     * Resolves the scheme, village and sub-division of every staged mapping to their IDs
+     * (case-insensitive, active rows only; the lowest ID wins if a key is not unique).
+     */
+    public void resolveMappingReferences(String schemaName) {
+        validateSchemaName(schemaName);
+        resolveMappingReference(schemaName, "scheme_id", "scheme_master_table", "state_scheme_id", "state_scheme_id");
+        resolveMappingReference(schemaName, "lgd_id", "lgd_location_master_table", "lgd_code", "village_lgd_code");
+        resolveMappingReference(schemaName, "department_id", "department_location_master_table", "title", "sub_division_name");
+    }
+
+    /**
+     * Staged mappings that are duplicates within the upload or reference an unknown scheme,
+     * village or sub-division, in row order. Call after {@link #resolveMappingReferences}.
+     */
+    public List<MappingStageIssue> findMappingIssues(int limit) {
+        return jdbcTemplate.query("""
+                SELECT row_no, occurrence > 1 AS duplicate,
+                       scheme_id IS NULL AS scheme_missing,
+                       lgd_id IS NULL AS village_missing,
+                       department_id IS NULL AS sub_division_missing
+                FROM (
+                    SELECT row_no, scheme_id, lgd_id, department_id,
+                           row_number() OVER (
+                               PARTITION BY lower(state_scheme_id), lower(village_lgd_code), lower(sub_division_name)
+                               ORDER BY row_no) AS occurrence
+                    FROM pg_temp.scheme_mapping_upload_stage
+                ) s
+                WHERE occurrence > 1 OR scheme_id IS NULL OR lgd_id IS NULL OR department_id IS NULL
+                ORDER BY row_no
+                LIMIT ?
+                """, (rs, rowNum) -> new MappingStageIssue(
+                rs.getInt("row_no"),
+                rs.getBoolean("duplicate"),
+                rs.getBoolean("scheme_missing"),
+                rs.getBoolean("village_missing"),
+                rs.getBoolean("sub_division_missing")
+        ), limit);
+    }
+
+    /**
+     * Inserts the village (LGD) and sub-division mappings of every resolved staged row,
+     * skipping mappings that are already active.
+     */
+    public MappingMergeResult mergeMappings(String schemaName, int actorUserId) {
+        validateSchemaName(schemaName);
+        String lgdSql = String.format("""
+                INSERT INTO %s.scheme_lgd_mapping_table
+                    (scheme_id, parent_lgd_id, parent_lgd_level, created_by, created_at, updated_by, updated_at)
+                SELECT DISTINCT scheme_id, lgd_id, '6', ?, NOW(), ?, NOW()
+                FROM pg_temp.scheme_mapping_upload_stage
+                WHERE scheme_id IS NOT NULL AND lgd_id IS NOT NULL AND department_id IS NOT NULL
+                ON CONFLICT (scheme_id, parent_lgd_id) WHERE deleted_at IS NULL DO NOTHING
+                RETURNING scheme_id
+                """, schemaName);
+        String departmentSql = String.format("""
+                INSERT INTO %s.scheme_department_mapping_table
+                    (scheme_id, parent_department_id, parent_department_level, created_by, created_at, updated_by, updated_at)
+                SELECT DISTINCT scheme_id, department_id, 'sub_division', ?, NOW(), ?, NOW()
+                FROM pg_temp.scheme_mapping_upload_stage
+                WHERE scheme_id IS NOT NULL AND lgd_id IS NOT NULL AND department_id IS NOT NULL
+                ON CONFLICT (scheme_id, parent_department_id) WHERE deleted_at IS NULL DO NOTHING
+                RETURNING scheme_id
+                """, schemaName);
+        List<Integer> lgdSchemeIds = jdbcTemplate.queryForList(lgdSql, Integer.class, actorUserId, actorUserId);
+        List<Integer> departmentSchemeIds =
+                jdbcTemplate.queryForList(departmentSql, Integer.class, actorUserId, actorUserId);
+        Set<Integer> changed = new TreeSet<>(lgdSchemeIds);
+        changed.addAll(departmentSchemeIds);
+        return new MappingMergeResult(lgdSchemeIds.size(), List.copyOf(changed));
+    }
+
+    private void resolveMappingReference(
+            String schemaName,
+            String idColumn,
+            String table,
+            String keyColumn,
+            String stageColumn
+    ) {
+        // Only keys present in the upload are looked up, so small uploads use the lower(key) index.
+        String sql = String.format("""
+                UPDATE pg_temp.scheme_mapping_upload_stage s
+                SET %1$s = t.id
+                FROM (
+                    SELECT lower(%4$s) AS k, min(id) AS id
+                    FROM %2$s.%3$s
+                    WHERE deleted_at IS NULL
+                      AND lower(%4$s) IN (SELECT lower(%5$s) FROM pg_temp.scheme_mapping_upload_stage)
+                    GROUP BY lower(%4$s)
+                ) t
+                WHERE t.k = lower(s.%5$s)
+                """, idColumn, schemaName, table, keyColumn, stageColumn);
+        jdbcTemplate.update(sql);
+    }
+
+    private long copy(String copySql, StageSource source) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            CopyIn copyIn = con.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+            try {
+                CsvStageWriter writer = new CsvStageWriter(copyIn);
+                source.writeRows(writer);
+                writer.flush();
+                return copyIn.endCopy();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } catch (CopyWriteException ex) {
+                throw ex.getCause();
+            } finally {
+                if (copyIn.isActive()) {
+                    try {
+                        copyIn.cancelCopy();
+                    } catch (SQLException ignored) {
+                        // keep the exception that aborted the copy
+                    }
+                }
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private void validateSchemaName(String schemaName) {
+        if (schemaName == null || schemaName.isBlank() || !SAFE_SCHEMA.matcher(schemaName).matches()) {
+            throw new IllegalArgumentException("Invalid schema name: " + schemaName);
+        }
+    }
+
+    /**
+     * Encodes rows as COPY CSV: {@code null} is an unquoted empty field, text is always quoted.
+     */
+    private static final class CsvStageWriter implements StageWriter {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+
+        private CsvStageWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        @Override
+        public void row(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof CharSequence text) {
+                    buffer.append('"');
+                    for (int c = 0; c < text.length(); c++) {
+                        char ch = text.charAt(c);
+                        if (ch == '"') {
+                            buffer.append('"');
+                        }
+                        buffer.append(ch);
+                    }
+                    buffer.append('"');
+                } else if (value != null) {
+                    buffer.append(value);
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.setLength(0);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException ex) {
+                throw new CopyWriteException(ex);
+            }
+        }
+    }
+
+    /** Carries a COPY write failure out of {@link StageWriter#row}; unwrapped in {@link #copy}. */
+    private static final class CopyWriteException extends RuntimeException {
+
+        private CopyWriteException(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
@@ -1,10 +0,0 @@
-package org.arghyam.jalsoochak.scheme.repository;
-
-public record SchemeSubdivisionMappingCreateRecord(
-        Integer schemeId,
-        Integer parentDepartmentId,
-        String parentDepartmentLevel,
-        Integer createdBy,
-        Integer updatedBy
-) {
-}
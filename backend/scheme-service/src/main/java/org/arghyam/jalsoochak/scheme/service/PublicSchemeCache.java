@@ -0,0 +1,153 @@
+package org.arghyam.jalsoochak.scheme.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.arghyam.jalsoochak.scheme.dto.SchemeDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of public scheme responses, per tenant schema and scheme.
+ *
+ * <p>Each entry is the future of a single database load: requests that miss at the same
+ * time wait for the same load instead of each querying. Entries are dropped when a
+ * {@code SCHEME_CREATED} / {@code SCHEME_UPDATED} event names the scheme
+ * ({@link #invalidateScheme}) and are reloaded after {@code scheme.public-cache.ttl} in
+ * case an event was missed. Unknown schemes are cached too, so repeated lookups of a
+ * missing ID do not reach the database. Beyond {@code scheme.public-cache.max-entries} the
+ * least recently used entry is dropped on each insert.</p>
+ *
+ * <p>Every response carries a weak ETag of its JSON body and {@code Cache-Control} with
+ * {@code scheme.public-cache.max-age}, so browsers and the gateway revalidate with
+ * {@code If-None-Match} and get a 304 while the scheme is unchanged.</p>
+ */
+@Component
+public class PublicSchemeCache {
+
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final CacheControl cacheControl;
+    private final Map<Key, CompletableFuture<CachedScheme>> entries;
+
+    private record Key(String schemaName, int schemeId) {
+    }
+
+    /**
+     * A cached response.
+     *
+     * @param scheme the scheme, or {@code null} if it does not exist
+     * @param etag   weak ETag of the response body; {@code null} if the scheme does not exist
+     */
+    public record CachedScheme(SchemeDTO scheme, String etag, long loadedAt) {
+    }
+
+    public PublicSchemeCache(ObjectMapper objectMapper,
+                             @Value("${scheme.public-cache.ttl:PT5M}") Duration ttl,
+                             @Value("${scheme.public-cache.max-entries:10000}") int maxEntries,
+                             @Value("${scheme.public-cache.max-age:PT60S}") Duration maxAge) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().mustRevalidate();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<CachedScheme>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /** {@code Cache-Control} for public scheme responses. */
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+
+    /**
+     * Returns the cached scheme, running {@code loader} if there is no fresh entry. Only one
+     * load per scheme runs at a time; concurrent callers share its result or its exception.
+     * Failed loads are not cached.
+     */
+    public CachedScheme getScheme(String schemaName, int schemeId, Supplier<SchemeDTO> loader) {
+        Key key = new Key(schemaName, schemeId);
+        while (true) {
+            CompletableFuture<CachedScheme> existing = entries.get(key);
+            if (existing != null) {
+                if (!existing.isDone()) {
+                    return await(existing);
+                }
+                CachedScheme cached = existing.isCompletedExceptionally() ? null : existing.join();
+                if (cached != null && System.nanoTime() - cached.loadedAt() < ttlNanos) {
+                    return cached;
+                }
+                entries.remove(key, existing);
+                continue;
+            }
+
+            CompletableFuture<CachedScheme> load = new CompletableFuture<>();
+            if (entries.putIfAbsent(key, load) != null) {
+                continue;
+            }
+            // The entry is registered before the query runs, so an invalidation that arrives
+            // while the query is running removes it and the result is not kept.
+            try {
+                CachedScheme cached = toCached(loader.get());
+                load.complete(cached);
+                return cached;
+            } catch (RuntimeException ex) {
+                entries.remove(key, load);
+                load.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Drops the cached responses for a scheme ID. Events identify the tenant by ID rather
+     * than schema, so the scheme is dropped for every tenant schema; the other tenants'
+     * entries are simply reloaded on next use.
+     */
+    public void invalidateScheme(int schemeId) {
+        entries.keySet().removeIf(key -> key.schemeId() == schemeId);
+    }
+
+    /** Drops every cached response of a tenant schema. */
+    public void invalidateTenant(String schemaName) {
+        entries.keySet().removeIf(key -> key.schemaName().equals(schemaName));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private CachedScheme toCached(SchemeDTO scheme) {
+        if (scheme == null) {
+            return new CachedScheme(null, null, System.nanoTime());
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(scheme);
+            return new CachedScheme(scheme, "W/\"" + DigestUtils.md5DigestAsHex(body) + "\"", System.nanoTime());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize scheme " + scheme.getId(), ex);
+        }
+    }
+
+    private CachedScheme await(CompletableFuture<CachedScheme> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.arghyam.jalsoochak.scheme.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.scheme.dto.SchemeUploadErrorDTO;
+import org.arghyam.jalsoochak.scheme.exception.FileValidationException;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.MappingMergeResult;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.MappingStageIssue;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.SchemeMergeResult;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.StageSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Imports an upload in one transaction: rows are streamed once into a staging table,
+ * validated set-based and merged, so an upload is applied completely or not at all.
+ *
+ * <p>The caller's {@link StageSource} validates individual fields, adding problems to the
+ * shared error list and staging only valid rows. Checks that span rows or tables
+ * (duplicates, unknown references) run in SQL on the staged rows. Any error rolls back the
+ * transaction with a {@link FileValidationException}.</p>
+ *
+ * <p>Merged schemes are queued as {@code SCHEME_CREATED} / {@code SCHEME_UPDATED} events
+ * in the same transaction; mapping uploads queue {@code SCHEME_UPDATED} for every scheme
+ * that gained a mapping.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchemeBulkImporter {
+
+    static final int MAX_VALIDATION_ERRORS = 1000;
+
+    private final SchemeStagingRepository stagingRepository;
+    private final SchemeEventOutboxRepository eventOutboxRepository;
+
+    /** Imported row counts: rows staged, and rows inserted or updated by the merge. */
+    public record ImportResult(long stagedRows, int mergedRows) {
+    }
+
+    @Transactional
+    public ImportResult importSchemes(
+            String schemaName,
+            int actorUserId,
+            StageSource source,
+            List<SchemeUploadErrorDTO> errors
+    ) {
+        long start = System.nanoTime();
+        long staged = stagingRepository.stageSchemes(source);
+
+        int remaining = MAX_VALIDATION_ERRORS - errors.size();
+        if (remaining > 0) {
+            List<Integer> duplicates = stagingRepository.findDuplicateSchemeRows(remaining + 1);
+            addCapped(errors, duplicates.stream()
+                    .map(row -> error(row, "state_scheme_id", "Duplicate state_scheme_id in uploaded file"))
+                    .toList());
+        }
+        failOnErrors(errors);
+
+        SchemeMergeResult merged = stagingRepository.mergeSchemes(schemaName, actorUserId);
+        int events = eventOutboxRepository.enqueueSchemeEvents(
+                schemaName, SchemeEventOutboxRepository.SCHEME_CREATED, merged.createdIds())
+                + eventOutboxRepository.enqueueSchemeEvents(
+                schemaName, SchemeEventOutboxRepository.SCHEME_UPDATED, merged.updatedIds());
+        log.info("[scheme-upload] imported type=schemes staged={} merged={} events={} elapsed_ms={}",
+                staged, merged.mergedRows(), events, (System.nanoTime() - start) / 1_000_000);
+        return new ImportResult(staged, merged.mergedRows());
+    }
+
+    @Transactional
+    public ImportResult importMappings(
+            String schemaName,
+            int actorUserId,
+            StageSource source,
+            List<SchemeUploadErrorDTO> errors
+    ) {
+        long start = System.nanoTime();
+        long staged = stagingRepository.stageMappings(source);
+
+        int remaining = MAX_VALIDATION_ERRORS - errors.size();
+        if (remaining > 0) {
+            stagingRepository.resolveMappingReferences(schemaName);
+            List<MappingStageIssue> issues = stagingRepository.findMappingIssues(remaining + 1);
+            addCapped(errors, issues.stream().map(this::mappingError).toList());
+        }
+        failOnErrors(errors);
+
+        MappingMergeResult merged = stagingRepository.mergeMappings(schemaName, actorUserId);
+        int events = eventOutboxRepository.enqueueSchemeEvents(
+                schemaName, SchemeEventOutboxRepository.SCHEME_UPDATED, merged.changedSchemeIds());
+        log.info("[scheme-upload] imported type=mappings staged={} merged={} events={} elapsed_ms={}",
+                staged, merged.insertedVillageMappings(), events, (System.nanoTime() - start) / 1_000_000);
+        return new ImportResult(staged, merged.insertedVillageMappings());
+    }
+
+    private SchemeUploadErrorDTO mappingError(MappingStageIssue issue) {
+        if (issue.duplicate()) {
+            return error(issue.rowNumber(), "state_scheme_id", "Duplicate mapping in uploaded file");
+        }
+        if (issue.schemeMissing()) {
+            return error(issue.rowNumber(), "state_scheme_id", "state_scheme_id does not exist");
+        }
+        if (issue.villageMissing()) {
+            return error(issue.rowNumber(), "village_lgd_code", "village_lgd_code does not exist");
+        }
+        return error(issue.rowNumber(), "sub_division_name", "sub_division_name does not exist");
+    }
+
+    /**
+     * Appends staging errors, keeping at most {@link #MAX_VALIDATION_ERRORS} in total and
+     * noting when more were found. Errors are re-sorted by row, as field errors found while
+     * streaming and staging errors interleave.
+     */
+    private void addCapped(List<SchemeUploadErrorDTO> errors, List<SchemeUploadErrorDTO> stageErrors) {
+        if (stageErrors.isEmpty()) {
+            return;
+        }
+        int remaining = MAX_VALIDATION_ERRORS - errors.size();
+        errors.addAll(stageErrors.subList(0, Math.min(remaining, stageErrors.size())));
+        errors.sort(Comparator.comparingInt(SchemeUploadErrorDTO::getRowNumber));
+        if (stageErrors.size() > remaining) {
+            errors.add(error(errors.get(errors.size() - 1).getRowNumber(), "file",
+                    "Too many validation errors; showing first " + MAX_VALIDATION_ERRORS));
+        }
+    }
+
+    private void failOnErrors(List<SchemeUploadErrorDTO> errors) {
+        if (!errors.isEmpty()) {
+            throw new FileValidationException("Validation failed for uploaded file", errors);
+        }
+    }
+
+    private SchemeUploadErrorDTO error(int rowNumber, String field, String message) {
+        return SchemeUploadErrorDTO.builder()
+                .rowNumber(rowNumber)
+                .field(field)
+                .message(message)
+                .build();
+    }
+}
@@ -23,7 +23,9 @@ public interface SchemeService {
             String name,
             String workStatus,
             String operatingStatus,
-            String status
+            String status,
+            String cursor,
+            boolean approximateCount
     );
 
     PageResponseDTO<SchemeMappingDTO> listSchemeMappings(
@@ -37,7 +39,9 @@ public interface SchemeService {
             String operatingStatus,
             String status,
             String villageLgdCode,
-            String subDivisionName
+            String subDivisionName,
+            String cursor,
+            boolean approximateCount
     );
 
     SchemeCountsDTO getSchemeCounts(String tenantCode);
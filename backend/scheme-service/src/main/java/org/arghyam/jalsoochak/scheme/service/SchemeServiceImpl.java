@@ -5,11 +5,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.arghyam.jalsoochak.scheme.config.TenantContext;
 import org.arghyam.jalsoochak.scheme.dto.CodeCountDTO;
 import org.arghyam.jalsoochak.scheme.dto.SchemeCountsDTO;
@@ -21,11 +16,11 @@ import org.arghyam.jalsoochak.scheme.dto.SchemeUploadResponseDTO;
 import org.arghyam.jalsoochak.scheme.dto.common.PageResponseDTO;
 import org.arghyam.jalsoochak.scheme.exception.FileValidationException;
 import org.arghyam.jalsoochak.scheme.exception.UnsupportedFileTypeException;
-import org.arghyam.jalsoochak.scheme.repository.SchemeCreateRecord;
 import org.arghyam.jalsoochak.scheme.repository.SchemeDbRepository;
-import org.arghyam.jalsoochak.scheme.repository.SchemeLgdMappingCreateRecord;
-import org.arghyam.jalsoochak.scheme.repository.SchemeSubdivisionMappingCreateRecord;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository;
+import org.arghyam.jalsoochak.scheme.util.KeysetCursor;
 import org.arghyam.jalsoochak.scheme.util.TenantSchemaResolver;
+import org.arghyam.jalsoochak.scheme.util.XlsxRowReader;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -36,24 +31,23 @@ import org.springframework.web.server.ResponseStatusException;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class SchemeServiceImpl implements SchemeService {
 
-    private static final int MAX_VALIDATION_ERRORS = 1000;
-    private static final int CHUNK_SIZE = 1000;
-
     // New upload contract:
     // - `center_scheme_id` (CSV) maps to DB `centre_scheme_id`
     // - `achieved_fhtc` maps to DB `fhtc_count`
@@ -123,10 +117,11 @@ public class SchemeServiceImpl implements SchemeService {
     );
 
     private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("csv", "xlsx");
-    private static final DataFormatter DATA_FORMATTER = new DataFormatter();
+
+    static final long EXACT_COUNT_THRESHOLD = 10_000;
 
     private final SchemeDbRepository schemeDbRepository;
-    private final SchemeUploadChunkProcessor chunkProcessor;
+    private final SchemeBulkImporter bulkImporter;
 
     @Override
     public PageResponseDTO<SchemeDTO> listSchemes(
@@ -140,7 +135,9 @@ public class SchemeServiceImpl implements SchemeService {
             String name,
             String workStatus,
             String operatingStatus,
-            String status
+            String status,
+            String cursor,
+            boolean approximateCount
     ) {
         String schemaName = TenantSchemaResolver.requireSchemaNameFromTenantCode(tenantCode);
 
@@ -151,7 +148,7 @@ public class SchemeServiceImpl implements SchemeService {
         int p = Math.max(0, page);
         int offset = p * size;
 
-        List<SchemeDTO> rows = schemeDbRepository.listSchemes(
+        SchemeDbRepository.PageSlice<SchemeDTO> slice = schemeDbRepository.listSchemes(
                 schemaName,
                 stateSchemeId,
                 schemeName,
@@ -161,11 +158,13 @@ public class SchemeServiceImpl implements SchemeService {
                 status,
                 sortBy,
                 sortDir,
+                KeysetCursor.decode(cursor),
                 offset,
                 size
         );
-        long total = schemeDbRepository.countSchemes(schemaName, stateSchemeId, schemeName, name, workStatusCode, operatingStatusCode, status);
-        return PageResponseDTO.of(rows, total, p, size);
+        return toPage(slice, p, size, approximateCount,
+                () -> schemeDbRepository.estimateSchemes(schemaName, stateSchemeId, schemeName, name, workStatusCode, operatingStatusCode, status),
+                () -> schemeDbRepository.countSchemes(schemaName, stateSchemeId, schemeName, name, workStatusCode, operatingStatusCode, status));
     }
 
     @Override
@@ -180,7 +179,9 @@ public class SchemeServiceImpl implements SchemeService {
             String operatingStatus,
             String status,
             String villageLgdCode,
-            String subDivisionName
+            String subDivisionName,
+            String cursor,
+            boolean approximateCount
     ) {
         String schemaName = TenantSchemaResolver.requireSchemaNameFromTenantCode(tenantCode);
 
@@ -191,7 +192,7 @@ public class SchemeServiceImpl implements SchemeService {
         int p = Math.max(0, page);
         int offset = p * size;
 
-        List<SchemeMappingDTO> rows = schemeDbRepository.listSchemeMappings(
+        SchemeDbRepository.PageSlice<SchemeMappingDTO> slice = schemeDbRepository.listSchemeMappings(
                 schemaName,
                 name,
                 workStatusCode,
@@ -201,11 +202,36 @@ public class SchemeServiceImpl implements SchemeService {
                 subDivisionName,
                 sortBy,
                 sortDir,
+                KeysetCursor.decode(cursor),
                 offset,
                 size
         );
-        long total = schemeDbRepository.countSchemeMappings(schemaName, name, workStatusCode, operatingStatusCode, status, villageLgdCode, subDivisionName);
-        return PageResponseDTO.of(rows, total, p, size);
+        return toPage(slice, p, size, approximateCount,
+                () -> schemeDbRepository.estimateSchemeMappings(schemaName, name, workStatusCode, operatingStatusCode, status, villageLgdCode, subDivisionName),
+                () -> schemeDbRepository.countSchemeMappings(schemaName, name, workStatusCode, operatingStatusCode, status, villageLgdCode, subDivisionName));
+    }
+
+    /**
+     * Builds a listing response. With {@code approximateCount}, the planner's estimate is
+     * returned as the total when it exceeds {@link #EXACT_COUNT_THRESHOLD}; smaller results
+     * are still counted exactly, as that is cheap and estimates are least accurate there.
+     */
+    private <T> PageResponseDTO<T> toPage(
+            SchemeDbRepository.PageSlice<T> slice,
+            int page,
+            int size,
+            boolean approximateCount,
+            LongSupplier estimate,
+            LongSupplier exactCount
+    ) {
+        long estimated = approximateCount ? estimate.getAsLong() : 0;
+        boolean approximate = estimated > EXACT_COUNT_THRESHOLD;
+        long total = approximate ? estimated : exactCount.getAsLong();
+
+        PageResponseDTO<T> response = PageResponseDTO.of(slice.content(), total, page, size);
+        response.setNextCursor(slice.next() == null ? null : slice.next().encode());
+        response.setTotalApproximate(approximate);
+        return response;
     }
 
     @Override
@@ -248,13 +274,21 @@ public class SchemeServiceImpl implements SchemeService {
         String extension = extractExtension(file.getOriginalFilename());
         List<String> activeHeaders = resolveHeaders(file, extension, List.of(SCHEME_HEADERS_V3, SCHEME_HEADERS_V3_LEGACY_CENTRE));
 
-        int totalRows = validateSchemes(file, extension, activeHeaders);
-        int uploadedRows = processSchemes(schemaName, file, extension, activeHeaders, actorUserId);
+        List<SchemeUploadErrorDTO> errors = new ArrayList<>();
+        int[] total = {0};
+        SchemeBulkImporter.ImportResult result = runImport(errors, () -> bulkImporter.importSchemes(
+                schemaName,
+                actorUserId,
+                writer -> streamRows(file, extension, activeHeaders,
+                        (rowNumber, values) -> stageScheme(rowNumber, values, writer, errors, total)),
+                errors
+        ));
+        requireDataRows(total[0]);
 
         return SchemeUploadResponseDTO.builder()
                 .message("Schemes uploaded successfully")
-                .totalRows(totalRows)
-                .uploadedRows(uploadedRows)
+                .totalRows(total[0])
+                .uploadedRows(result.mergedRows())
                 .build();
     }
 
@@ -267,13 +301,21 @@ public class SchemeServiceImpl implements SchemeService {
         String extension = extractExtension(file.getOriginalFilename());
         List<String> activeHeaders = resolveHeaders(file, extension, List.of(MAPPING_HEADERS_V4));
 
-        int totalRows = validateMappings(schemaName, file, extension, activeHeaders);
-        int uploadedRows = processMappings(schemaName, file, extension, activeHeaders, actorUserId);
+        List<SchemeUploadErrorDTO> errors = new ArrayList<>();
+        int[] total = {0};
+        SchemeBulkImporter.ImportResult result = runImport(errors, () -> bulkImporter.importMappings(
+                schemaName,
+                actorUserId,
+                writer -> streamRows(file, extension, activeHeaders,
+                        (rowNumber, values) -> stageMapping(rowNumber, values, writer, errors, total)),
+                errors
+        ));
+        requireDataRows(total[0]);
 
         return SchemeUploadResponseDTO.builder()
                 .message("Scheme mappings uploaded successfully")
-                .totalRows(totalRows)
-                .uploadedRows(uploadedRows)
+                .totalRows(total[0])
+                .uploadedRows((int) result.stagedRows())
                 .build();
     }
 
@@ -325,35 +367,25 @@ public class SchemeServiceImpl implements SchemeService {
     }
 
     private List<String> resolveXlsxHeaders(MultipartFile file, List<List<String>> allowedHeaderVariants) throws IOException {
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            if (sheet == null) {
-                throw new FileValidationException(
-                        "Uploaded file is empty",
-                        List.of(error(0, "file", "Worksheet is missing"))
-                );
-            }
-
-            int firstRowIndex = sheet.getFirstRowNum();
-            Row headerRow = sheet.getRow(firstRowIndex);
-            if (headerRow == null) {
-                throw new FileValidationException(
-                        "Invalid headers",
-                        List.of(error(1, "header", "Header row is missing"))
-                );
-            }
-
-            return resolveHeaderVariant(readExcelHeaders(headerRow), allowedHeaderVariants);
+        AtomicReference<List<String>> headerRow = new AtomicReference<>();
+        boolean hasSheet = XlsxRowReader.read(file.getInputStream(), (rowIndex, cells) -> {
+            headerRow.set(cells);
+            return false;
+        });
+        if (!hasSheet) {
+            throw new FileValidationException(
+                    "Uploaded file is empty",
+                    List.of(error(0, "file", "Worksheet is missing"))
+            );
         }
-    }
-
-    private List<String> readExcelHeaders(Row headerRow) {
-        int size = Math.max(headerRow.getLastCellNum(), (short) 0);
-        List<String> headers = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            headers.add(getExcelValue(headerRow, i));
+        if (headerRow.get() == null) {
+            throw new FileValidationException(
+                    "Invalid headers",
+                    List.of(error(1, "header", "Header row is missing"))
+            );
         }
-        return headers;
+
+        return resolveHeaderVariant(headerRow.get(), allowedHeaderVariants);
     }
 
     private List<String> indexedValues(CSVRecord record, List<String> headers) {
@@ -364,10 +396,10 @@ public class SchemeServiceImpl implements SchemeService {
         return values;
     }
 
-    private List<String> indexedValues(Row row, List<String> headers) {
+    private List<String> indexedValues(List<String> cells, List<String> headers) {
         List<String> values = new ArrayList<>();
         for (int i = 0; i < headers.size(); i++) {
-            values.add(getExcelValue(row, i));
+            values.add(i < cells.size() ? normalize(cells.get(i)) : "");
         }
         return values;
     }
@@ -380,13 +412,6 @@ public class SchemeServiceImpl implements SchemeService {
         return map;
     }
 
-    private String getExcelValue(Row row, int index) {
-        if (row == null || row.getCell(index) == null) {
-            return "";
-        }
-        return normalize(DATA_FORMATTER.formatCellValue(row.getCell(index)));
-    }
-
     private List<String> resolveHeaderVariant(List<String> rawHeaders, List<List<String>> allowedHeaderVariants) {
         List<String> normalized = rawHeaders.stream().map(this::normalize).toList();
         for (List<String> variant : allowedHeaderVariants) {
@@ -406,333 +431,126 @@ public class SchemeServiceImpl implements SchemeService {
         );
     }
 
-    private int validateSchemes(MultipartFile file, String extension, List<String> activeHeaders) {
-        List<SchemeUploadErrorDTO> errors = new ArrayList<>();
-        final int[] total = {0};
-        Set<String> seenStateSchemeIds = new HashSet<>();
-
+    /**
+     * Runs an import whose rows are read from the uploaded file while staging, mapping the
+     * ways reading can stop early to validation errors.
+     */
+    private SchemeBulkImporter.ImportResult runImport(
+            List<SchemeUploadErrorDTO> errors,
+            Supplier<SchemeBulkImporter.ImportResult> importer
+    ) {
         try {
-            streamRows(file, extension, activeHeaders, (rowNumber, values) -> {
-                if (isAllBlank(values)) {
-                    return;
-                }
-                total[0]++;
-
-                int before = errors.size();
-
-                requireField(values, rowNumber, "state_scheme_id", errors);
-                if (values.containsKey("center_scheme_id")) {
-                    requireField(values, rowNumber, "center_scheme_id", errors);
-                } else {
-                    requireField(values, rowNumber, "centre_scheme_id", errors);
-                }
-                requireField(values, rowNumber, "scheme_name", errors);
-                requireField(values, rowNumber, "house_hold_count", errors);
-                requireField(values, rowNumber, "work_status", errors);
-
-                String stateSchemeId = normalize(values.get("state_scheme_id"));
-                if (!stateSchemeId.isBlank()) {
-                    String key = stateSchemeId.toLowerCase(Locale.ROOT);
-                    if (!seenStateSchemeIds.add(key)) {
-                        errors.add(error(rowNumber, "state_scheme_id", "Duplicate state_scheme_id in uploaded file"));
-                    }
-                }
-
-                // Optional: planned_fhtc, achieved_fhtc, latitude, longitude, operating_status
-                parseInteger(values.get("planned_fhtc"), rowNumber, "planned_fhtc", errors);
-                parseInteger(values.get("achieved_fhtc"), rowNumber, "achieved_fhtc", errors);
-                parseInteger(values.get("house_hold_count"), rowNumber, "house_hold_count", errors);
-                parseDouble(values.get("latitude"), rowNumber, "latitude", errors);
-                parseDouble(values.get("longitude"), rowNumber, "longitude", errors);
-                parseEnum(values.get("work_status"), rowNumber, "work_status", WORK_STATUS_MAP, "Ongoing, Completed, Not Started, Handed Over or 1/2/3/4", errors);
-                if (!normalize(values.get("operating_status")).isBlank()) {
-                    parseEnum(values.get("operating_status"), rowNumber, "operating_status", OPERATING_STATUS_MAP, "Operative, Non-Operative, Partially Operative or 1/2/3", errors);
-                }
-
-                if (errors.size() > before && errors.size() >= MAX_VALIDATION_ERRORS) {
-                    errors.add(error(rowNumber, "file", "Too many validation errors; showing first " + MAX_VALIDATION_ERRORS));
-                    throw new TooManyErrorsException();
-                }
-            });
-        } catch (TooManyErrorsException ignored) {
-            // stop early (errors already captured)
-        } catch (IOException ex) {
-            throw new FileValidationException(
-                    "Failed to read uploaded file",
-                    List.of(error(0, "file", "Unable to read file content"))
-            );
-        }
-
-        if (!errors.isEmpty()) {
+            return importer.get();
+        } catch (TooManyErrorsException ex) {
             throw new FileValidationException("Validation failed for uploaded file", errors);
-        }
-        if (total[0] == 0) {
-            throw new FileValidationException(
-                    "No data rows found in uploaded file",
-                    List.of(error(0, "file", "At least one data row is required"))
-            );
-        }
-        return total[0];
-    }
-
-    private int processSchemes(String schemaName, MultipartFile file, String extension, List<String> activeHeaders, int actorUserId) {
-        List<SchemeCreateRecord> chunk = new ArrayList<>(CHUNK_SIZE);
-        final int[] uploaded = {0};
-
-        try {
-            streamRows(file, extension, activeHeaders, (rowNumber, values) -> {
-                if (isAllBlank(values)) {
-                    return;
-                }
-
-                // Validation already ran. Keep processing tight and avoid allocating error objects.
-                String centreField = values.containsKey("center_scheme_id") ? "center_scheme_id" : "centre_scheme_id";
-
-                String plannedRaw = normalize(values.get("planned_fhtc"));
-                String achievedRaw = normalize(values.get("achieved_fhtc"));
-                Integer plannedFhtc = plannedRaw.isBlank() ? 0 : Integer.parseInt(plannedRaw);
-                Integer fhtcCount = achievedRaw.isBlank() ? 0 : Integer.parseInt(achievedRaw);
-                Integer houseHoldCount = Integer.parseInt(normalize(values.get("house_hold_count")));
-                String latRaw = normalize(values.get("latitude"));
-                String lonRaw = normalize(values.get("longitude"));
-                Double latitude = latRaw.isBlank() ? null : Double.parseDouble(latRaw);
-                Double longitude = lonRaw.isBlank() ? null : Double.parseDouble(lonRaw);
-                Integer channel = null;
-                Integer workStatus = WORK_STATUS_MAP.get(normalize(values.get("work_status")).toLowerCase());
-                String operatingRaw = normalize(values.get("operating_status")).toLowerCase();
-                Integer operatingStatus = operatingRaw.isBlank() ? 1 : OPERATING_STATUS_MAP.get(operatingRaw);
-
-                chunk.add(new SchemeCreateRecord(
-                        UUID.randomUUID().toString(),
-                        normalize(values.get("state_scheme_id")),
-                        normalize(values.get(centreField)),
-                        normalize(values.get("scheme_name")),
-                        fhtcCount,
-                        plannedFhtc,
-                        houseHoldCount,
-                        latitude,
-                        longitude,
-                        channel,
-                        workStatus,
-                        operatingStatus,
-                        actorUserId,
-                        actorUserId
-                ));
-
-                if (chunk.size() >= CHUNK_SIZE) {
-                    // Insert and clear.
-                    // Use a copy so the chunk processor can safely retain the list if needed.
-                    uploaded[0] += chunkProcessor.insertSchemesChunk(schemaName, new ArrayList<>(chunk));
-                    chunk.clear();
-                }
-            });
-        } catch (IOException ex) {
+        } catch (UncheckedIOException ex) {
             throw new FileValidationException(
                     "Failed to read uploaded file",
                     List.of(error(0, "file", "Unable to read file content"))
             );
         }
-
-        if (!chunk.isEmpty()) {
-            uploaded[0] += chunkProcessor.insertSchemesChunk(schemaName, chunk);
-        }
-        return uploaded[0];
     }
 
-    private int validateMappings(String schemaName, MultipartFile file, String extension, List<String> activeHeaders) {
-        List<SchemeUploadErrorDTO> errors = new ArrayList<>();
-        List<MappingRow> chunk = new ArrayList<>(CHUNK_SIZE);
-        final int[] total = {0};
-        Set<String> seenMappingKeys = new HashSet<>();
-
-        try {
-            streamRows(file, extension, activeHeaders, (rowNumber, values) -> {
-                if (isAllBlank(values)) {
-                    return;
-                }
-                total[0]++;
-
-                int before = errors.size();
-
-                requireField(values, rowNumber, "state_scheme_id", errors);
-                requireField(values, rowNumber, "village_lgd_code", errors);
-                requireField(values, rowNumber, "sub_division_name", errors);
-
-                boolean rowHasErrors = errors.size() != before;
-                if (!rowHasErrors) {
-                    String stateSchemeId = normalize(values.get("state_scheme_id")).toLowerCase(Locale.ROOT);
-                    String villageCode = normalize(values.get("village_lgd_code")).toLowerCase(Locale.ROOT);
-                    String subDivision = normalize(values.get("sub_division_name")).toLowerCase(Locale.ROOT);
-                    String key = stateSchemeId + "|" + villageCode + "|" + subDivision;
-                    if (!seenMappingKeys.add(key)) {
-                        errors.add(error(rowNumber, "state_scheme_id", "Duplicate mapping in uploaded file"));
-                        rowHasErrors = true;
-                    }
-                }
-                if (!rowHasErrors) {
-                    chunk.add(new MappingRow(
-                            rowNumber,
-                            normalize(values.get("state_scheme_id")),
-                            normalize(values.get("village_lgd_code")),
-                            normalize(values.get("sub_division_name"))
-                    ));
-                }
-
-                if (chunk.size() >= CHUNK_SIZE) {
-                    validateMappingChunk(schemaName, chunk, errors);
-                    chunk.clear();
-                }
-
-                if (errors.size() > before && errors.size() >= MAX_VALIDATION_ERRORS) {
-                    errors.add(error(rowNumber, "file", "Too many validation errors; showing first " + MAX_VALIDATION_ERRORS));
-                    throw new TooManyErrorsException();
-                }
-            });
-        } catch (TooManyErrorsException ignored) {
-            // stop early (errors already captured)
-        } catch (IOException ex) {
-            throw new FileValidationException(
-                    "Failed to read uploaded file",
-                    List.of(error(0, "file", "Unable to read file content"))
-            );
-        }
-
-        if (!chunk.isEmpty()) {
-            validateMappingChunk(schemaName, chunk, errors);
-        }
-
-        if (!errors.isEmpty()) {
-            throw new FileValidationException("Validation failed for uploaded file", errors);
-        }
-        if (total[0] == 0) {
+    private void requireDataRows(int totalRows) {
+        if (totalRows == 0) {
             throw new FileValidationException(
                     "No data rows found in uploaded file",
                     List.of(error(0, "file", "At least one data row is required"))
             );
         }
-        return total[0];
     }
 
-    private void validateMappingChunk(
-            String schemaName,
-            List<MappingRow> rows,
-            List<SchemeUploadErrorDTO> errors
+    /**
+     * Validates the fields of one scheme row and stages it if they are valid.
+     * Duplicate state_scheme_ids are found on the staged rows by {@link SchemeBulkImporter}.
+     */
+    private void stageScheme(
+            int rowNumber,
+            Map<String, String> values,
+            SchemeStagingRepository.StageWriter writer,
+            List<SchemeUploadErrorDTO> errors,
+            int[] total
     ) {
-        List<String> stateSchemeIds = new ArrayList<>(rows.size());
-        List<String> villageCodes = new ArrayList<>(rows.size());
-        List<String> subDivisionNames = new ArrayList<>(rows.size());
-
-        for (MappingRow r : rows) {
-            stateSchemeIds.add(r.stateSchemeId());
-            villageCodes.add(r.villageLgdCode());
-            subDivisionNames.add(r.subDivisionName());
-        }
-
-        Map<String, Integer> schemeIdsByStateSchemeId = schemeDbRepository.findSchemeIdsByStateSchemeIds(schemaName, stateSchemeIds);
-        Map<String, Integer> lgdIdsByCode = schemeDbRepository.findLgdIdsByCodes(schemaName, villageCodes);
-        Map<String, Integer> deptIdsByTitle = schemeDbRepository.findDepartmentIdsByTitles(schemaName, subDivisionNames);
-
-        for (MappingRow r : rows) {
-            if (!schemeIdsByStateSchemeId.containsKey(r.stateSchemeId().toLowerCase(Locale.ROOT))) {
-                errors.add(error(r.rowNumber(), "state_scheme_id", "state_scheme_id does not exist"));
-                continue;
-            }
-            if (!lgdIdsByCode.containsKey(r.villageLgdCode().toLowerCase(Locale.ROOT))) {
-                errors.add(error(r.rowNumber(), "village_lgd_code", "village_lgd_code does not exist"));
-                continue;
-            }
-            if (!deptIdsByTitle.containsKey(r.subDivisionName().toLowerCase(Locale.ROOT))) {
-                errors.add(error(r.rowNumber(), "sub_division_name", "sub_division_name does not exist"));
-            }
+        if (isAllBlank(values)) {
+            return;
         }
-    }
-
-    private int processMappings(
-            String schemaName,
-            MultipartFile file,
-            String extension,
-            List<String> activeHeaders,
-            int actorUserId
-    ) {
-        List<MappingRow> chunk = new ArrayList<>(CHUNK_SIZE);
-        final int[] uploaded = {0};
-
-        try {
-            streamRows(file, extension, activeHeaders, (rowNumber, values) -> {
-                if (isAllBlank(values)) {
-                    return;
-                }
-
-                chunk.add(new MappingRow(
-                        rowNumber,
-                        normalize(values.get("state_scheme_id")),
-                        normalize(values.get("village_lgd_code")),
-                        normalize(values.get("sub_division_name"))
-                ));
-                if (chunk.size() >= CHUNK_SIZE) {
-                    insertMappingChunk(schemaName, chunk, actorUserId);
-                    uploaded[0] += chunk.size();
-                    chunk.clear();
-                }
-            });
-        } catch (IOException ex) {
-            throw new FileValidationException(
-                    "Failed to read uploaded file",
-                    List.of(error(0, "file", "Unable to read file content"))
+        total[0]++;
+
+        int before = errors.size();
+
+        String centreField = values.containsKey("center_scheme_id") ? "center_scheme_id" : "centre_scheme_id";
+        requireField(values, rowNumber, "state_scheme_id", errors);
+        requireField(values, rowNumber, centreField, errors);
+        requireField(values, rowNumber, "scheme_name", errors);
+        requireField(values, rowNumber, "house_hold_count", errors);
+        requireField(values, rowNumber, "work_status", errors);
+
+        // Optional: planned_fhtc, achieved_fhtc, latitude, longitude, operating_status
+        Integer plannedFhtc = parseInteger(values.get("planned_fhtc"), rowNumber, "planned_fhtc", errors);
+        Integer fhtcCount = parseInteger(values.get("achieved_fhtc"), rowNumber, "achieved_fhtc", errors);
+        Integer houseHoldCount = parseInteger(values.get("house_hold_count"), rowNumber, "house_hold_count", errors);
+        Double latitude = parseDouble(values.get("latitude"), rowNumber, "latitude", errors);
+        Double longitude = parseDouble(values.get("longitude"), rowNumber, "longitude", errors);
+        Integer workStatus = parseEnum(values.get("work_status"), rowNumber, "work_status", WORK_STATUS_MAP, "Ongoing, Completed, Not Started, Handed Over or 1/2/3/4", errors);
+        Integer operatingStatus = 1;
+        if (!normalize(values.get("operating_status")).isBlank()) {
+            operatingStatus = parseEnum(values.get("operating_status"), rowNumber, "operating_status", OPERATING_STATUS_MAP, "Operative, Non-Operative, Partially Operative or 1/2/3", errors);
+        }
+
+        if (errors.size() == before) {
+            writer.row(
+                    rowNumber,
+                    normalize(values.get("state_scheme_id")),
+                    normalize(values.get(centreField)),
+                    normalize(values.get("scheme_name")),
+                    plannedFhtc == null ? 0 : plannedFhtc,
+                    fhtcCount == null ? 0 : fhtcCount,
+                    houseHoldCount,
+                    latitude,
+                    longitude,
+                    workStatus,
+                    operatingStatus
             );
+        } else if (errors.size() >= SchemeBulkImporter.MAX_VALIDATION_ERRORS) {
+            errors.add(error(rowNumber, "file", "Too many validation errors; showing first " + SchemeBulkImporter.MAX_VALIDATION_ERRORS));
+            throw new TooManyErrorsException();
         }
-
-        if (!chunk.isEmpty()) {
-            insertMappingChunk(schemaName, chunk, actorUserId);
-            uploaded[0] += chunk.size();
-        }
-        return uploaded[0];
     }
 
-    private void insertMappingChunk(String schemaName, List<MappingRow> rows, int actorUserId) {
-        List<String> stateSchemeIds = new ArrayList<>(rows.size());
-        List<String> villageCodes = new ArrayList<>(rows.size());
-        List<String> subDivisionNames = new ArrayList<>(rows.size());
-        for (MappingRow r : rows) {
-            stateSchemeIds.add(r.stateSchemeId());
-            villageCodes.add(r.villageLgdCode());
-            subDivisionNames.add(r.subDivisionName());
+    /**
+     * Validates the fields of one mapping row and stages it if they are valid. Duplicates and
+     * unknown schemes, villages and sub-divisions are found on the staged rows by
+     * {@link SchemeBulkImporter}.
+     */
+    private void stageMapping(
+            int rowNumber,
+            Map<String, String> values,
+            SchemeStagingRepository.StageWriter writer,
+            List<SchemeUploadErrorDTO> errors,
+            int[] total
+    ) {
+        if (isAllBlank(values)) {
+            return;
         }
+        total[0]++;
 
-        Map<String, Integer> schemeIdsByStateSchemeId = schemeDbRepository.findSchemeIdsByStateSchemeIds(schemaName, stateSchemeIds);
-        Map<String, Integer> lgdIdsByCode = schemeDbRepository.findLgdIdsByCodes(schemaName, villageCodes);
-        Map<String, Integer> deptIdsByTitle = schemeDbRepository.findDepartmentIdsByTitles(schemaName, subDivisionNames);
-
-        // Row-level existence is validated in the pre-pass; during insert we best-effort skip missing lookups
-        // (protects against concurrent deletes/changes between validation and insert).
-        List<SchemeLgdMappingCreateRecord> lgd = new ArrayList<>(rows.size());
-        List<SchemeSubdivisionMappingCreateRecord> dept = new ArrayList<>(rows.size());
+        int before = errors.size();
 
-        for (MappingRow r : rows) {
-            Integer schemeId = schemeIdsByStateSchemeId.get(r.stateSchemeId().toLowerCase(Locale.ROOT));
-            Integer lgdId = lgdIdsByCode.get(r.villageLgdCode().toLowerCase(Locale.ROOT));
-            Integer deptId = deptIdsByTitle.get(r.subDivisionName().toLowerCase(Locale.ROOT));
-            if (schemeId == null || lgdId == null || deptId == null) {
-                continue;
-            }
+        requireField(values, rowNumber, "state_scheme_id", errors);
+        requireField(values, rowNumber, "village_lgd_code", errors);
+        requireField(values, rowNumber, "sub_division_name", errors);
 
-            lgd.add(new SchemeLgdMappingCreateRecord(
-                    schemeId,
-                    lgdId,
-                    6, // village
-                    actorUserId,
-                    actorUserId
-            ));
-            dept.add(new SchemeSubdivisionMappingCreateRecord(
-                    schemeId,
-                    deptId,
-                    "sub_division",
-                    actorUserId,
-                    actorUserId
-            ));
+        if (errors.size() == before) {
+            writer.row(
+                    rowNumber,
+                    normalize(values.get("state_scheme_id")),
+                    normalize(values.get("village_lgd_code")),
+                    normalize(values.get("sub_division_name"))
+            );
+        } else if (errors.size() >= SchemeBulkImporter.MAX_VALIDATION_ERRORS) {
+            errors.add(error(rowNumber, "file", "Too many validation errors; showing first " + SchemeBulkImporter.MAX_VALIDATION_ERRORS));
+            throw new TooManyErrorsException();
         }
-
-        chunkProcessor.insertMappingsChunk(schemaName, lgd, dept);
     }
 
     private int resolveCurrentUserId(String schemaName) {
@@ -940,27 +758,17 @@ public class SchemeServiceImpl implements SchemeService {
     }
 
     private void streamXlsx(MultipartFile file, List<String> activeHeaders, RowConsumer consumer) throws IOException {
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            if (sheet == null) {
-                return;
+        // The first row present is the header; rows are streamed, never held as a workbook.
+        boolean[] headerSeen = {false};
+        XlsxRowReader.read(file.getInputStream(), (rowIndex, cells) -> {
+            if (!headerSeen[0]) {
+                headerSeen[0] = true;
+                return true;
             }
-
-            int firstRowIndex = sheet.getFirstRowNum();
-            for (int i = firstRowIndex + 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                Map<String, String> values = rowAsMap(indexedValues(row, activeHeaders), activeHeaders);
-                consumer.accept(i + 1, values);
-            }
-        }
-    }
-
-    private record MappingRow(
-            int rowNumber,
-            String stateSchemeId,
-            String villageLgdCode,
-            String subDivisionName
-    ) {
+            Map<String, String> values = rowAsMap(indexedValues(cells, activeHeaders), activeHeaders);
+            consumer.accept(rowIndex + 1, values);
+            return true;
+        });
     }
 
     @FunctionalInterface
@@ -0,0 +1,134 @@
+package org.arghyam.jalsoochak.scheme.util;
+
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the rows of the first worksheet of an XLSX file with POI's SAX event API,
+ * so memory use does not grow with the number of rows (unlike {@code WorkbookFactory},
+ * which builds the whole workbook in memory).
+ *
+ * <p>Cells are formatted with {@link DataFormatter}, as the UI shows them; formula cells
+ * yield their cached result. Rows with no cells in the file are not reported.</p>
+ */
+public final class XlsxRowReader {
+
+    private XlsxRowReader() {
+    }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowIndex zero-based row index in the sheet
+         * @param cells    formatted cell values up to the last non-empty cell; gaps are {@code ""}
+         * @return {@code false} to stop reading
+         */
+        boolean row(int rowIndex, List<String> cells);
+    }
+
+    /**
+     * Reads the first worksheet row by row.
+     *
+     * @return {@code false} if the workbook has no worksheet
+     * @throws IOException if the stream is not a readable XLSX file
+     */
+    public static boolean read(InputStream in, RowHandler handler) throws IOException {
+        // OPCPackage.open(InputStream) would inflate every part into memory; a file is read lazily.
+        Path spool = Files.createTempFile("xlsx-upload-", ".xlsx");
+        try {
+            Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+            OPCPackage pkg = OPCPackage.open(spool.toFile(), PackageAccess.READ);
+            try {
+                XSSFReader reader = new XSSFReader(pkg);
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return false;
+                }
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            reader.getStylesTable(), null, strings, new RowCollector(handler), new DataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                } catch (StopReading ignored) {
+                    // handler asked to stop
+                }
+                return true;
+            } finally {
+                pkg.revert();
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException | POIXMLException
+                 | IllegalArgumentException ex) {
+            // IllegalArgumentException covers NotOfficeXmlFileException (not a zip / not OOXML).
+            throw new IOException("Unable to read XLSX file: " + ex.getMessage(), ex);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private List<String> cells;
+        private int nextColumn;
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!handler.row(rowNum, cells)) {
+                throw new StopReading();
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+            String value = formattedValue == null ? "" : formattedValue;
+            if (column < cells.size()) {
+                cells.set(column, value);
+            } else {
+                while (cells.size() < column) {
+                    cells.add("");
+                }
+                cells.add(value);
+            }
+            nextColumn = column + 1;
+        }
+    }
+
+    private static final class StopReading extends RuntimeException {
+        private StopReading() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.arghyam.jalsoochak.scheme.kafka;
+
+import org.apache.kafka.common.errors.TimeoutException;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchemeEventRelayTest {
+
+    @Mock
+    SchemeEventOutboxRepository outboxRepository;
+
+    @Mock
+    KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    SchemeEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new SchemeEventRelay(outboxRepository, kafkaTemplate, transactionTemplate);
+    }
+
+    @Test
+    void relayBatch_sendsKeyedEventsInOrder_andDeletesAcknowledgedOnes() {
+        when(outboxRepository.tryLockRelay()).thenReturn(true);
+        when(outboxRepository.lockOldest(anyInt())).thenReturn(List.of(
+                new OutboxEvent(1, "29:7", "{\"eventId\": 1}"),
+                new OutboxEvent(2, "29:8", "{\"eventId\": 2}")));
+        when(kafkaTemplate.send(eq(KafkaProducer.TOPIC), anyString(), anyString())).thenReturn(acked());
+
+        SchemeEventRelay.BatchResult result = relay.relayBatch();
+
+        assertThat(result).isEqualTo(new SchemeEventRelay.BatchResult(2, 0));
+        InOrder order = inOrder(kafkaTemplate, outboxRepository);
+        order.verify(kafkaTemplate).send(KafkaProducer.TOPIC, "29:7", "{\"eventId\": 1}");
+        order.verify(kafkaTemplate).send(KafkaProducer.TOPIC, "29:8", "{\"eventId\": 2}");
+        order.verify(kafkaTemplate).flush();
+        order.verify(outboxRepository).delete(List.of(1L, 2L));
+        order.verify(outboxRepository).recordFailure(List.of(), null);
+    }
+
+    @Test
+    void relayBatch_keepsFailedEvents_andLaterEventsOfTheSameScheme() {
+        when(outboxRepository.tryLockRelay()).thenReturn(true);
+        when(outboxRepository.lockOldest(anyInt())).thenReturn(List.of(
+                new OutboxEvent(1, "29:7", "a"),
+                new OutboxEvent(2, "29:8", "b"),
+                new OutboxEvent(3, "29:7", "c")));
+        when(kafkaTemplate.send(KafkaProducer.TOPIC, "29:7", "a"))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("Expiring 1 record(s)")));
+        when(kafkaTemplate.send(KafkaProducer.TOPIC, "29:8", "b")).thenReturn(acked());
+        when(kafkaTemplate.send(KafkaProducer.TOPIC, "29:7", "c")).thenReturn(acked());
+
+        SchemeEventRelay.BatchResult result = relay.relayBatch();
+
+        assertThat(result).isEqualTo(new SchemeEventRelay.BatchResult(1, 2));
+        verify(outboxRepository).delete(List.of(2L));
+        verify(outboxRepository).recordFailure(eq(List.of(1L, 3L)), startsWith("TimeoutException: Expiring"));
+    }
+
+    @Test
+    void relayBatch_sendsNothing_whileAnotherInstanceHoldsTheLock() {
+        when(outboxRepository.tryLockRelay()).thenReturn(false);
+
+        assertThat(relay.relayBatch()).isEqualTo(new SchemeEventRelay.BatchResult(0, 0));
+        verify(outboxRepository, never()).lockOldest(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private static CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
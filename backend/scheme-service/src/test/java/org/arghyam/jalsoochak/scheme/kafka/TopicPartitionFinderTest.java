@@ -0,0 +1,58 @@
+package org.arghyam.jalsoochak.scheme.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopicPartitionFinderTest {
+
+    private static final String TOPIC = "scheme-service-topic";
+
+    @Mock
+    ConsumerFactory<String, String> consumerFactory;
+
+    @Mock
+    Consumer<String, String> consumer;
+
+    TopicPartitionFinder finder;
+
+    @BeforeEach
+    void setUp() {
+        when(consumerFactory.createConsumer()).thenReturn(consumer);
+        finder = new TopicPartitionFinder(consumerFactory);
+    }
+
+    @Test
+    void partitions_listsEveryPartitionOfTheTopic() {
+        when(consumer.partitionsFor(TOPIC, TopicPartitionFinder.LOOKUP_TIMEOUT)).thenReturn(List.of(
+                new PartitionInfo(TOPIC, 0, null, null, null),
+                new PartitionInfo(TOPIC, 1, null, null, null),
+                new PartitionInfo(TOPIC, 2, null, null, null)));
+
+        assertThat(finder.partitions(TOPIC)).containsExactly("0", "1", "2");
+        verify(consumer).close();
+    }
+
+    @Test
+    void partitions_fallsBackToPartitionZero_whenTheTopicIsMissingOrKafkaIsUnreachable() {
+        when(consumer.partitionsFor(TOPIC, TopicPartitionFinder.LOOKUP_TIMEOUT))
+                .thenReturn(List.of())
+                .thenThrow(new TimeoutException("brokers unavailable"));
+
+        assertThat(finder.partitions(TOPIC)).containsExactly("0");
+        assertThat(finder.partitions(TOPIC)).containsExactly("0");
+    }
+}
@@ -0,0 +1,154 @@
+package org.arghyam.jalsoochak.scheme.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.arghyam.jalsoochak.scheme.dto.SchemeDTO;
+import org.arghyam.jalsoochak.scheme.service.PublicSchemeCache.CachedScheme;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublicSchemeCacheTest {
+
+    private final PublicSchemeCache cache = new PublicSchemeCache(
+            new ObjectMapper(), Duration.ofMinutes(5), 100, Duration.ofSeconds(60));
+
+    @Test
+    void concurrentMisses_shareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CachedScheme>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.getScheme("tenant_ka", 1, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return scheme(1, "Scheme A");
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            String etag = results.get(0).get(5, TimeUnit.SECONDS).etag();
+            for (Future<CachedScheme> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).etag()).isEqualTo(etag);
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(etag).startsWith("W/\"").endsWith("\"");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidateScheme_reloadsWithNewEtag_andKeepsOtherSchemes() {
+        AtomicInteger loads = new AtomicInteger();
+        String first = cache.getScheme("tenant_ka", 1, () -> {
+            loads.incrementAndGet();
+            return scheme(1, "Scheme A");
+        }).etag();
+        cache.getScheme("tenant_ka", 2, () -> scheme(2, "Scheme B"));
+
+        cache.invalidateScheme(1);
+        CachedScheme reloaded = cache.getScheme("tenant_ka", 1, () -> {
+            loads.incrementAndGet();
+            return scheme(1, "Scheme A (renamed)");
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(reloaded.etag()).isNotEqualTo(first);
+        assertThat(reloaded.scheme().getSchemeName()).isEqualTo("Scheme A (renamed)");
+        assertThat(cache.getScheme("tenant_ka", 2, () -> {
+            throw new AssertionError("scheme 2 should still be cached");
+        }).scheme().getSchemeName()).isEqualTo("Scheme B");
+    }
+
+    @Test
+    void missingScheme_isCached_andFailedLoadIsNot() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getScheme("tenant_ka", 9, () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        CachedScheme missing = cache.getScheme("tenant_ka", 9, () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        assertThat(missing.scheme()).isNull();
+        assertThat(loads).hasValue(1);
+
+        assertThatThrownBy(() -> cache.getScheme("tenant_mh", 3, () -> {
+            throw new IllegalStateException("db down");
+        })).hasMessage("db down");
+        assertThat(cache.getScheme("tenant_mh", 3, () -> scheme(3, "Scheme C")).scheme()).isNotNull();
+    }
+
+    @Test
+    void expiredEntries_areReloaded_andSizeIsBounded() {
+        PublicSchemeCache shortLived = new PublicSchemeCache(
+                new ObjectMapper(), Duration.ZERO, 2, Duration.ofSeconds(60));
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            shortLived.getScheme("tenant_ka", 1, () -> {
+                loads.incrementAndGet();
+                return scheme(1, "Scheme A");
+            });
+        }
+        assertThat(loads).hasValue(5);
+
+        PublicSchemeCache bounded = new PublicSchemeCache(
+                new ObjectMapper(), Duration.ofMinutes(5), 2, Duration.ofSeconds(60));
+        for (int id = 10; id < 20; id++) {
+            int schemeId = id;
+            bounded.getScheme("tenant_ka", schemeId, () -> scheme(schemeId, "Scheme " + schemeId));
+        }
+        assertThat(bounded.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void fullCache_dropsLeastRecentlyUsedEntry() {
+        PublicSchemeCache bounded = new PublicSchemeCache(
+                new ObjectMapper(), Duration.ofMinutes(5), 2, Duration.ofSeconds(60));
+        AtomicInteger loads = new AtomicInteger();
+        bounded.getScheme("tenant_ka", 1, () -> scheme(1, "Scheme A"));
+        bounded.getScheme("tenant_ka", 2, () -> scheme(2, "Scheme B"));
+        bounded.getScheme("tenant_ka", 1, () -> {
+            throw new AssertionError("scheme 1 should still be cached");
+        });
+
+        bounded.getScheme("tenant_ka", 3, () -> scheme(3, "Scheme C"));
+
+        assertThat(bounded.size()).isEqualTo(2);
+        bounded.getScheme("tenant_ka", 1, () -> {
+            throw new AssertionError("scheme 1 was used most recently and should be kept");
+        });
+        bounded.getScheme("tenant_ka", 2, () -> {
+            loads.incrementAndGet();
+            return scheme(2, "Scheme B");
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    private static SchemeDTO scheme(int id, String name) {
+        return SchemeDTO.builder().id(id).stateSchemeId("SS-" + id).schemeName(name).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package org.arghyam.jalsoochak.scheme.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.arghyam.jalsoochak.scheme.dto.SchemeDTO;
+import org.arghyam.jalsoochak.scheme.dto.SchemeMappingDTO;
+import org.arghyam.jalsoochak.scheme.dto.common.PageResponseDTO;
+import org.arghyam.jalsoochak.scheme.repository.SchemeDbRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for scheme and mapping listings against a real PostgreSQL instance
+ * with {@value #SCHEMES} schemes: keyset cursors against OFFSET paging, cursor validation,
+ * approximate counts, and page 1 versus page 500 latency (printed).
+ */
+@SpringJUnitConfig(SchemeListingIntegrationTest.Config.class)
+@Testcontainers
+class SchemeListingIntegrationTest {
+
+    private static final int SCHEMES = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final List<Path> MIGRATIONS = List.of(
+            Path.of("../database/V29__enable_pg_trgm.sql"),
+            Path.of("../database/tenant/T1__add_indexes_for_list_endpoints.sql"),
+            Path.of("../database/tenant/T2__add_unique_keys_for_scheme_upload_merge.sql"),
+            Path.of("../database/tenant/T3__add_trigram_indexes_for_scheme_search.sql"));
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/tenant-schema.sql");
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({SchemeDbRepository.class, SchemeStagingRepository.class, SchemeEventOutboxRepository.class,
+            SchemeBulkImporter.class, SchemeServiceImpl.class})
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            // Pooled, so measured latencies do not include opening a connection.
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(postgres.getJdbcUrl());
+            dataSource.setUsername(postgres.getUsername());
+            dataSource.setPassword(postgres.getPassword());
+            return dataSource;
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+    }
+
+    @Autowired
+    private SchemeService schemeService;
+
+    @BeforeAll
+    static void migrateAndSeed() throws IOException, SQLException {
+        try (Connection con = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = con.createStatement()) {
+            for (Path migration : MIGRATIONS) {
+                statement.execute(Files.readString(migration).replace("${schema}", "tenant_ka"));
+            }
+            // All schemes share one created_at, so sorting by it relies on the ID tie-breaker.
+            statement.execute("""
+                    INSERT INTO tenant_ka.lgd_location_master_table (title, lgd_code)
+                    SELECT 'Village ' || n, 'VLG-' || n FROM generate_series(1, 1000) n;
+                    INSERT INTO tenant_ka.department_location_master_table (title)
+                    SELECT 'Sub Division ' || n FROM generate_series(1, 10) n;
+                    INSERT INTO tenant_ka.scheme_master_table
+                        (state_scheme_id, centre_scheme_id, scheme_name, house_hold_count, work_status, operating_status)
+                    SELECT 'SS-' || n, 'C-' || n, 'Scheme ' || n, 100, 1 + n % 4, 1 + n % 3
+                    FROM generate_series(1, :schemes) n;
+                    INSERT INTO tenant_ka.scheme_lgd_mapping_table
+                        (scheme_id, parent_lgd_id, parent_lgd_level, created_by, updated_by)
+                    SELECT id, 1 + id % 1000, '6', 1, 1 FROM tenant_ka.scheme_master_table;
+                    -- Every 7th scheme has no sub-division and every 5th has two.
+                    INSERT INTO tenant_ka.scheme_department_mapping_table
+                        (scheme_id, parent_department_id, parent_department_level, created_by, updated_by)
+                    SELECT id, 1 + id % 10, 'sub_division', 1, 1 FROM tenant_ka.scheme_master_table WHERE id % 7 <> 0
+                    UNION ALL
+                    SELECT id, 1 + (id + 1) % 10, 'sub_division', 1, 1 FROM tenant_ka.scheme_master_table WHERE id % 5 = 0;
+                    """.replace(":schemes", Integer.toString(SCHEMES)));
+            // Settle the tables as autovacuum would: statistics, visibility map, GIN pending lists.
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"id,desc", "scheme_name,asc", "created_at,desc", "work_status,asc"})
+    void listSchemes_cursorPagesMatchOffsetPages(String sortBy, String sortDir) {
+        List<Integer> byOffset = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            listSchemes(page, sortBy, sortDir, null, null, false).getContent().forEach(s -> byOffset.add(s.getId()));
+        }
+
+        List<Integer> byCursor = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 5; page++) {
+            PageResponseDTO<SchemeDTO> res = listSchemes(page, sortBy, sortDir, null, cursor, false);
+            res.getContent().forEach(s -> byCursor.add(s.getId()));
+            cursor = res.getNextCursor();
+        }
+
+        assertThat(byCursor).hasSize(5 * PAGE_SIZE).doesNotHaveDuplicates().isEqualTo(byOffset);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"id,desc", "sub_division_name,asc", "village_lgd_code,desc"})
+    void listSchemeMappings_cursorPagesMatchOffsetPages(String sortBy, String sortDir) {
+        List<String> byOffset = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            listMappings(page, sortBy, sortDir, null, null, false).getContent().forEach(m -> byOffset.add(key(m)));
+        }
+
+        List<String> byCursor = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 5; page++) {
+            PageResponseDTO<SchemeMappingDTO> res = listMappings(page, sortBy, sortDir, null, cursor, false);
+            res.getContent().forEach(m -> byCursor.add(key(m)));
+            cursor = res.getNextCursor();
+        }
+
+        assertThat(byCursor).hasSize(5 * PAGE_SIZE).doesNotHaveDuplicates().isEqualTo(byOffset);
+    }
+
+    @Test
+    void listSchemes_returnsNoCursorOnLastPage() {
+        PageResponseDTO<SchemeDTO> res = listSchemes(0, "id", "desc", "Scheme 4242", null, false);
+
+        // Scheme 4242 and Scheme 42420..42429
+        assertThat(res.getContent()).hasSize(11);
+        assertThat(res.getNextCursor()).isNull();
+    }
+
+    @Test
+    void listSchemes_rejectsMalformedCursors_andCursorsOfAnotherSort() {
+        String cursor = listSchemes(0, "id", "desc", null, null, false).getNextCursor();
+
+        assertThatThrownBy(() -> listSchemes(1, "scheme_name", "desc", null, cursor, false))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> listSchemes(1, "id", "desc", null, "not-a-cursor", false))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getReason()).isEqualTo("Invalid cursor"));
+    }
+
+    @Test
+    void approximateCount_estimatesLargeTotals_andCountsSmallOnesExactly() {
+        PageResponseDTO<SchemeDTO> all = listSchemes(0, "id", "desc", null, null, true);
+        PageResponseDTO<SchemeDTO> few = listSchemes(0, "id", "desc", "Scheme 4242", null, true);
+        PageResponseDTO<SchemeMappingDTO> mappings = listMappings(0, "id", "desc", null, null, true);
+
+        assertThat(all.isTotalApproximate()).isTrue();
+        assertThat(all.getTotalElements()).isBetween(SCHEMES * 9L / 10, SCHEMES * 11L / 10);
+        assertThat(few.isTotalApproximate()).isFalse();
+        assertThat(few.getTotalElements()).isEqualTo(11);
+        assertThat(mappings.isTotalApproximate()).isTrue();
+    }
+
+    @Test
+    void benchmark_page1VersusPage500() {
+        int deepPage = 499;
+        String schemeCursor = listSchemes(deepPage - 1, "id", "desc", null, null, false).getNextCursor();
+        String mappingCursor = listMappings(deepPage - 1, "id", "desc", null, null, false).getNextCursor();
+        String nameCursor = listSchemes(deepPage - 1, "scheme_name", "asc", null, null, false).getNextCursor();
+
+        List<Integer> offsetPage = listSchemes(deepPage, "id", "desc", null, null, false)
+                .getContent().stream().map(SchemeDTO::getId).toList();
+        List<Integer> cursorPage = listSchemes(deepPage, "id", "desc", null, schemeCursor, false)
+                .getContent().stream().map(SchemeDTO::getId).toList();
+        assertThat(cursorPage).isEqualTo(offsetPage);
+
+        report("schemes id desc, exact count",
+                () -> listSchemes(0, "id", "desc", null, null, false),
+                () -> listSchemes(deepPage, "id", "desc", null, null, false),
+                () -> listSchemes(deepPage, "id", "desc", null, schemeCursor, false));
+        report("schemes id desc, approximate count",
+                () -> listSchemes(0, "id", "desc", null, null, true),
+                () -> listSchemes(deepPage, "id", "desc", null, null, true),
+                () -> listSchemes(deepPage, "id", "desc", null, schemeCursor, true));
+        report("schemes scheme_name asc, approximate count",
+                () -> listSchemes(0, "scheme_name", "asc", null, null, true),
+                () -> listSchemes(deepPage, "scheme_name", "asc", null, null, true),
+                () -> listSchemes(deepPage, "scheme_name", "asc", null, nameCursor, true));
+        report("mappings id desc, approximate count",
+                () -> listMappings(0, "id", "desc", null, null, true),
+                () -> listMappings(deepPage, "id", "desc", null, null, true),
+                () -> listMappings(deepPage, "id", "desc", null, mappingCursor, true));
+        System.out.printf("[SchemeListing] %-45s page 1 %6.2f ms%n", "schemes name search '4242', exact count",
+                medianMillis(() -> listSchemes(0, "id", "desc", "4242", null, false)));
+    }
+
+    private PageResponseDTO<SchemeDTO> listSchemes(
+            int page, String sortBy, String sortDir, String name, String cursor, boolean approximateCount) {
+        return schemeService.listSchemes("ka", page, PAGE_SIZE, sortBy, sortDir,
+                null, null, name, null, null, null, cursor, approximateCount);
+    }
+
+    private PageResponseDTO<SchemeMappingDTO> listMappings(
+            int page, String sortBy, String sortDir, String name, String cursor, boolean approximateCount) {
+        return schemeService.listSchemeMappings("ka", page, PAGE_SIZE, sortBy, sortDir,
+                name, null, null, null, null, null, cursor, approximateCount);
+    }
+
+    private static String key(SchemeMappingDTO mapping) {
+        return mapping.id() + "/" + mapping.subDivisionName();
+    }
+
+    /** Prints the median latency of page 1, page 500 by OFFSET and page 500 by cursor. */
+    private static void report(String label, Supplier<?> page1, Supplier<?> offsetPage500, Supplier<?> cursorPage500) {
+        System.out.printf("[SchemeListing] %-45s page 1 %6.2f ms | page 500 offset %6.2f ms | page 500 cursor %6.2f ms%n",
+                label, medianMillis(page1), medianMillis(offsetPage500), medianMillis(cursorPage500));
+    }
+
+    private static double medianMillis(Supplier<?> call) {
+        for (int i = 0; i < 3; i++) {
+            call.get();
+        }
+        long[] nanos = new long[11];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            call.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2] / 1_000_000.0;
+    }
+}
@@ -4,15 +4,15 @@ import org.arghyam.jalsoochak.scheme.config.TenantContext;
 import org.arghyam.jalsoochak.scheme.dto.SchemeUploadResponseDTO;
 import org.arghyam.jalsoochak.scheme.exception.FileValidationException;
 import org.arghyam.jalsoochak.scheme.repository.SchemeDbRepository;
-import org.arghyam.jalsoochak.scheme.repository.SchemeLgdMappingCreateRecord;
-import org.arghyam.jalsoochak.scheme.repository.SchemeSubdivisionMappingCreateRecord;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.MappingMergeResult;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.MappingStageIssue;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.StageSource;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
@@ -23,14 +23,18 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -42,19 +46,20 @@ class SchemeMappingUploadTest {
     SchemeDbRepository schemeDbRepository;
 
     @Mock
-    SchemeUploadChunkProcessor chunkProcessor;
+    SchemeStagingRepository stagingRepository;
 
-    @InjectMocks
-    SchemeServiceImpl schemeService;
+    @Mock
+    SchemeEventOutboxRepository eventOutboxRepository;
 
-    @Captor
-    ArgumentCaptor<List<SchemeLgdMappingCreateRecord>> rowsCaptor;
+    SchemeServiceImpl schemeService;
 
-    @Captor
-    ArgumentCaptor<List<SchemeSubdivisionMappingCreateRecord>> deptRowsCaptor;
+    /** Rows written to the mapping staging table. */
+    final List<List<Object>> stagedRows = new ArrayList<>();
 
     @BeforeEach
     void setUp() {
+        schemeService = new SchemeServiceImpl(schemeDbRepository, new SchemeBulkImporter(stagingRepository, eventOutboxRepository));
+
         TenantContext.setSchema("tenant_ka");
 
         Jwt jwt = Jwt.withTokenValue("test-token")
@@ -92,12 +97,9 @@ class SchemeMappingUploadTest {
                 csv.getBytes(StandardCharsets.UTF_8)
         );
 
-        when(schemeDbRepository.findSchemeIdsByStateSchemeIds(eq("tenant_ka"), anyList()))
-                .thenReturn(Map.of("ss-1", 1));
-        when(schemeDbRepository.findLgdIdsByCodes(eq("tenant_ka"), anyList()))
-                .thenReturn(Map.of("vlg-001", 501));
-        when(schemeDbRepository.findDepartmentIdsByTitles(eq("tenant_ka"), anyList()))
-                .thenReturn(Map.of("bengaluru north", 1001));
+        stubStaging();
+        when(stagingRepository.findMappingIssues(anyInt())).thenReturn(List.of());
+        when(stagingRepository.mergeMappings("tenant_ka", 10)).thenReturn(new MappingMergeResult(1, List.of(7)));
 
         SchemeUploadResponseDTO res = schemeService.uploadSchemeMappings(file);
 
@@ -105,22 +107,10 @@ class SchemeMappingUploadTest {
         assertThat(res.getTotalRows()).isEqualTo(1);
         assertThat(res.getUploadedRows()).isEqualTo(1);
 
-        verify(chunkProcessor).insertMappingsChunk(eq("tenant_ka"), rowsCaptor.capture(), deptRowsCaptor.capture());
-        List<SchemeLgdMappingCreateRecord> rows = rowsCaptor.getValue();
-        assertThat(rows).hasSize(1);
-        assertThat(rows.getFirst().schemeId()).isEqualTo(1);
-        assertThat(rows.getFirst().parentLgdId()).isEqualTo(501);
-        assertThat(rows.getFirst().parentLgdLevel()).isEqualTo(6);
-        assertThat(rows.getFirst().createdBy()).isEqualTo(10);
-        assertThat(rows.getFirst().updatedBy()).isEqualTo(10);
-
-        List<SchemeSubdivisionMappingCreateRecord> deptRows = deptRowsCaptor.getValue();
-        assertThat(deptRows).hasSize(1);
-        assertThat(deptRows.getFirst().schemeId()).isEqualTo(1);
-        assertThat(deptRows.getFirst().parentDepartmentId()).isEqualTo(1001);
-        assertThat(deptRows.getFirst().parentDepartmentLevel()).isEqualTo("sub_division");
-        assertThat(deptRows.getFirst().createdBy()).isEqualTo(10);
-        assertThat(deptRows.getFirst().updatedBy()).isEqualTo(10);
+        assertThat(stagedRows).containsExactly(List.of(2, "SS-1", "VLG-001", "Bengaluru North"));
+        verify(stagingRepository).resolveMappingReferences("tenant_ka");
+        verify(stagingRepository).mergeMappings(eq("tenant_ka"), eq(10));
+        verify(eventOutboxRepository).enqueueSchemeEvents("tenant_ka", SchemeEventOutboxRepository.SCHEME_UPDATED, List.of(7));
     }
 
     @Test
@@ -140,7 +130,7 @@ class SchemeMappingUploadTest {
                 .isInstanceOf(FileValidationException.class)
                 .hasMessage("Invalid headers");
 
-        verifyNoInteractions(chunkProcessor);
+        verifyNoInteractions(stagingRepository);
     }
 
     @Test
@@ -156,9 +146,9 @@ class SchemeMappingUploadTest {
                 csv.getBytes(StandardCharsets.UTF_8)
         );
 
-        when(schemeDbRepository.findSchemeIdsByStateSchemeIds(eq("tenant_ka"), anyList())).thenReturn(Map.of());
-        when(schemeDbRepository.findLgdIdsByCodes(eq("tenant_ka"), anyList())).thenReturn(Map.of());
-        when(schemeDbRepository.findDepartmentIdsByTitles(eq("tenant_ka"), anyList())).thenReturn(Map.of());
+        stubStaging();
+        when(stagingRepository.findMappingIssues(anyInt()))
+                .thenReturn(List.of(new MappingStageIssue(2, false, true, true, true)));
 
         assertThatThrownBy(() -> schemeService.uploadSchemeMappings(file))
                 .isInstanceOf(FileValidationException.class)
@@ -172,6 +162,45 @@ class SchemeMappingUploadTest {
                             });
                 });
 
-        verify(schemeDbRepository).findSchemeIdsByStateSchemeIds(eq("tenant_ka"), anyList());
+        verify(stagingRepository).resolveMappingReferences("tenant_ka");
+        verify(stagingRepository, never()).mergeMappings(anyString(), anyInt());
+    }
+
+    @Test
+    void uploadSchemeMappings_reportsMissingFieldsWithoutStagingTheRow() {
+        String csv = """
+                state_scheme_id,village_lgd_code,sub_division_name
+                SS-1,,Bengaluru North
+                SS-2,VLG-002,Bengaluru South
+                """;
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "scheme-mappings.csv",
+                "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8)
+        );
+        stubStaging();
+        when(stagingRepository.findMappingIssues(anyInt())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> schemeService.uploadSchemeMappings(file))
+                .isInstanceOf(FileValidationException.class)
+                .satisfies(ex -> {
+                    FileValidationException fve = (FileValidationException) ex;
+                    assertThat(fve.getErrors()).singleElement().satisfies(err -> {
+                        assertThat(err.getRowNumber()).isEqualTo(2);
+                        assertThat(err.getField()).isEqualTo("village_lgd_code");
+                    });
+                });
+
+        assertThat(stagedRows).extracting(row -> row.get(1)).containsExactly("SS-2");
+        verify(stagingRepository, never()).mergeMappings(anyString(), anyInt());
+    }
+
+    /** Runs the upload's stage source against a writer that records the staged rows. */
+    private void stubStaging() {
+        when(stagingRepository.stageMappings(any())).thenAnswer(inv -> {
+            inv.<StageSource>getArgument(0).writeRows(values -> stagedRows.add(Arrays.asList(values)));
+            return (long) stagedRows.size();
+        });
     }
 }
@@ -0,0 +1,344 @@
+package org.arghyam.jalsoochak.scheme.service;
+
+import org.arghyam.jalsoochak.scheme.config.TenantContext;
+import org.arghyam.jalsoochak.scheme.dto.SchemeUploadResponseDTO;
+import org.arghyam.jalsoochak.scheme.exception.FileValidationException;
+import org.arghyam.jalsoochak.scheme.repository.SchemeDbRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for staged scheme and mapping uploads against a real PostgreSQL
+ * instance: COPY into the staging tables, set-based validation, the merge into the tenant
+ * tables with tenant migration T2's unique keys, the scheme events queued with it (V30), and
+ * rollback of rejected files.
+ */
+@SpringJUnitConfig(SchemeUploadIntegrationTest.Config.class)
+@Testcontainers
+class SchemeUploadIntegrationTest {
+
+    private static final String SCHEMA = "tenant_ka";
+    private static final Path T2_MIGRATION =
+            Path.of("../database/tenant/T2__add_unique_keys_for_scheme_upload_merge.sql");
+    private static final Path V30_MIGRATION =
+            Path.of("../database/V30__create_scheme_event_outbox_table.sql");
+
+    private static final String SCHEME_HEADER =
+            "state_scheme_id,center_scheme_id,scheme_name,planned_fhtc,achieved_fhtc,"
+                    + "house_hold_count,longitude,latitude,work_status,operating_status\n";
+    private static final String MAPPING_HEADER = "state_scheme_id,village_lgd_code,sub_division_name\n";
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/tenant-schema.sql");
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({SchemeDbRepository.class, SchemeStagingRepository.class, SchemeEventOutboxRepository.class,
+            SchemeBulkImporter.class, SchemeServiceImpl.class})
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+    }
+
+    @Autowired
+    private SchemeService schemeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void applyMigrations() throws IOException, SQLException {
+        try (Connection con = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = con.createStatement()) {
+            statement.execute(Files.readString(V30_MIGRATION));
+            statement.execute(Files.readString(T2_MIGRATION).replace("${schema}", SCHEMA));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setSchema(SCHEMA);
+
+        Jwt jwt = Jwt.withTokenValue("test-token")
+                .header("alg", "RS256")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("email", "admin@example.com")
+                .claim("tenant_state_code", "ka")
+                .build();
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new JwtAuthenticationToken(jwt, Collections.emptyList()));
+        SecurityContextHolder.setContext(securityContext);
+
+        jdbcTemplate.execute("""
+                INSERT INTO tenant_ka.lgd_location_master_table (title, lgd_code)
+                SELECT 'Village ' || n, 'VLG-' || n FROM generate_series(1, 1000) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO tenant_ka.department_location_master_table (title)
+                SELECT 'Sub Division ' || n FROM generate_series(1, 10) n
+                """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.execute("""
+                TRUNCATE tenant_ka.scheme_lgd_mapping_table, tenant_ka.scheme_department_mapping_table,
+                         tenant_ka.scheme_master_table, tenant_ka.lgd_location_master_table,
+                         tenant_ka.department_location_master_table, tenant_ka.location_config_master_table,
+                         common_schema.scheme_event_outbox_table
+                """);
+    }
+
+    @Test
+    void uploadSchemes_insertsNewSchemes_andUpdatesExistingOnesByStateSchemeId() {
+        schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                SS-1,C-1,Hosur Road,10,5,120,77.5,12.9,Ongoing,Operative
+                SS-2,C-2,"Whitefield, Phase 2",,,80,,,Completed,
+                """));
+
+        SchemeUploadResponseDTO res = schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                ss-1,C-1,Hosur Road Extension,10,8,150,77.5,12.9,Completed,Non-Operative
+                SS-3,C-3,Sarjapur,,,60,,,Not Started,
+                """));
+
+        assertThat(res.getTotalRows()).isEqualTo(2);
+        assertThat(res.getUploadedRows()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT state_scheme_id, scheme_name FROM tenant_ka.scheme_master_table ORDER BY id"))
+                .extracting(row -> row.get("state_scheme_id") + "=" + row.get("scheme_name"))
+                .containsExactly("SS-1=Hosur Road Extension", "SS-2=Whitefield, Phase 2", "SS-3=Sarjapur");
+        Map<String, Object> updated = jdbcTemplate.queryForMap(
+                "SELECT fhtc_count, house_hold_count, work_status, operating_status, updated_by "
+                        + "FROM tenant_ka.scheme_master_table WHERE state_scheme_id = 'SS-1'");
+        assertThat(updated).containsEntry("fhtc_count", 8)
+                .containsEntry("house_hold_count", 150)
+                .containsEntry("work_status", 2)
+                .containsEntry("operating_status", 2)
+                .containsEntry("updated_by", 1);
+    }
+
+    @Test
+    void uploadSchemes_rejectsDuplicateStateSchemeIds_andWritesNothing() {
+        assertThatThrownBy(() -> schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                SS-1,C-1,Hosur Road,,,120,,,Ongoing,
+                SS-2,C-2,Whitefield,,,80,,,Ongoing,
+                ss-1,C-3,Sarjapur,,,60,,,Ongoing,
+                """)))
+                .isInstanceOf(FileValidationException.class)
+                .satisfies(ex -> assertThat(((FileValidationException) ex).getErrors())
+                        .singleElement()
+                        .satisfies(err -> {
+                            assertThat(err.getRowNumber()).isEqualTo(4);
+                            assertThat(err.getMessage()).isEqualTo("Duplicate state_scheme_id in uploaded file");
+                        }));
+
+        assertThat(countRows("scheme_master_table")).isZero();
+    }
+
+    @Test
+    void uploadSchemeMappings_resolvesReferences_andSkipsMappingsThatAlreadyExist() {
+        schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                SS-1,C-1,Hosur Road,,,120,,,Ongoing,
+                SS-2,C-2,Whitefield,,,80,,,Ongoing,
+                """));
+        schemeService.uploadSchemeMappings(csv("mappings.csv", MAPPING_HEADER + """
+                SS-1,VLG-1,Sub Division 1
+                """));
+
+        SchemeUploadResponseDTO res = schemeService.uploadSchemeMappings(csv("mappings.csv", MAPPING_HEADER + """
+                ss-1,vlg-1,sub division 1
+                SS-2,VLG-2,Sub Division 1
+                """));
+
+        assertThat(res.getUploadedRows()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("""
+                SELECT s.state_scheme_id || '>' || l.lgd_code
+                FROM tenant_ka.scheme_lgd_mapping_table m
+                JOIN tenant_ka.scheme_master_table s ON s.id = m.scheme_id
+                JOIN tenant_ka.lgd_location_master_table l ON l.id = m.parent_lgd_id
+                ORDER BY 1
+                """, String.class)).containsExactly("SS-1>VLG-1", "SS-2>VLG-2");
+        assertThat(countRows("scheme_department_mapping_table")).isEqualTo(2);
+    }
+
+    @Test
+    void uploadSchemeMappings_reportsUnknownReferences_andWritesNothing() {
+        schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                SS-1,C-1,Hosur Road,,,120,,,Ongoing,
+                """));
+
+        assertThatThrownBy(() -> schemeService.uploadSchemeMappings(csv("mappings.csv", MAPPING_HEADER + """
+                SS-1,VLG-1,Sub Division 1
+                SS-9,VLG-1,Sub Division 1
+                SS-1,VLG-9999,Sub Division 1
+                SS-1,VLG-2,Nowhere
+                """)))
+                .isInstanceOf(FileValidationException.class)
+                .satisfies(ex -> assertThat(((FileValidationException) ex).getErrors())
+                        .extracting(err -> err.getRowNumber() + ":" + err.getField())
+                        .containsExactly("3:state_scheme_id", "4:village_lgd_code", "5:sub_division_name"));
+
+        assertThat(countRows("scheme_lgd_mapping_table")).isZero();
+    }
+
+    @Test
+    void uploads_queueSchemeEventsWithCurrentStateAndHierarchy_inTheirTransaction() {
+        // LGD: state (level 1) > district (level 2) > village (level 6);
+        // department: circle (level 1) > sub-division (level 2).
+        jdbcTemplate.execute("""
+                INSERT INTO tenant_ka.location_config_master_table (id, region_type, level)
+                VALUES (1, 1, 1), (2, 1, 2), (6, 1, 6), (11, 2, 1), (12, 2, 2);
+                INSERT INTO tenant_ka.lgd_location_master_table (id, title, lgd_code, lgd_location_config_id, parent_id)
+                VALUES (900001, 'Karnataka', 'ST-29', 1, NULL),
+                       (900002, 'Bengaluru Urban', 'DT-572', 2, 900001),
+                       (900003, 'Hosur Village', 'VLG-H', 6, 900002);
+                INSERT INTO tenant_ka.department_location_master_table (id, title, department_location_config_id, parent_id)
+                VALUES (900101, 'Bengaluru Circle', 11, NULL),
+                       (900102, 'Anekal Sub Division', 12, 900101);
+                """);
+
+        schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                SS-1,C-1,Hosur Road,,,120,77.5,12.9,Ongoing,Operative
+                SS-2,C-2,Whitefield,,,80,,,Ongoing,
+                """));
+        schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                SS-2,C-2,Whitefield Phase 2,,,80,,,Ongoing,Non-Operative
+                """));
+        schemeService.uploadSchemeMappings(csv("mappings.csv", MAPPING_HEADER + """
+                SS-1,VLG-H,Anekal Sub Division
+                """));
+        assertThatThrownBy(() -> schemeService.uploadSchemes(csv("schemes.csv", SCHEME_HEADER + """
+                SS-3,C-3,Sarjapur,,,60,,,Ongoing,
+                ss-3,C-3,Sarjapur,,,60,,,Ongoing,
+                """)))
+                .isInstanceOf(FileValidationException.class);
+
+        assertThat(jdbcTemplate.queryForList("""
+                SELECT event_type || ' ' || (payload ->> 'stateSchemeId') || ' ' || (payload ->> 'schemeName')
+                FROM common_schema.scheme_event_outbox_table
+                WHERE event_key = '29:' || (payload ->> 'schemeId')
+                ORDER BY id
+                """, String.class)).containsExactly(
+                "SCHEME_CREATED SS-1 Hosur Road",
+                "SCHEME_CREATED SS-2 Whitefield",
+                "SCHEME_UPDATED SS-2 Whitefield Phase 2",
+                "SCHEME_UPDATED SS-1 Hosur Road");
+
+        Map<String, Object> mapped = jdbcTemplate.queryForMap("""
+                SELECT payload::text AS payload
+                FROM common_schema.scheme_event_outbox_table
+                ORDER BY id DESC
+                LIMIT 1
+                """);
+        assertThat((String) mapped.get("payload"))
+                .contains("\"tenantId\": 29", "\"stateSchemeId\": \"SS-1\"", "\"status\": 1")
+                .contains("\"parentLgdLocationId\": 900003", "\"level1LgdId\": 900001", "\"level2LgdId\": 900002",
+                        "\"level6LgdId\": 900003", "\"level3LgdId\": null")
+                .contains("\"parentDepartmentLocationId\": 900102", "\"level1DeptId\": 900101",
+                        "\"level2DeptId\": 900102");
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT payload ->> 'status' FROM common_schema.scheme_event_outbox_table
+                WHERE event_type = 'SCHEME_UPDATED' AND payload ->> 'stateSchemeId' = 'SS-2'
+                """, String.class)).isEqualTo("0");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void uploadSchemesAndMappings_importLargeFiles(int rows) {
+        StringBuilder schemes = new StringBuilder(SCHEME_HEADER);
+        StringBuilder mappings = new StringBuilder(MAPPING_HEADER);
+        for (int i = 1; i <= rows; i++) {
+            schemes.append("SS-").append(i).append(",C-").append(i).append(",Scheme ").append(i)
+                    .append(',').append(i % 500).append(',').append(i % 400).append(',').append(100 + i % 900)
+                    .append(",77.5,12.9,Ongoing,Operative\n");
+            mappings.append("SS-").append(i).append(",VLG-").append(1 + i % 1000)
+                    .append(",Sub Division ").append(1 + i % 10).append('\n');
+        }
+
+        long start = System.nanoTime();
+        SchemeUploadResponseDTO schemeRes = schemeService.uploadSchemes(csv("schemes.csv", schemes.toString()));
+        long schemeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        SchemeUploadResponseDTO mappingRes = schemeService.uploadSchemeMappings(csv("mappings.csv", mappings.toString()));
+        long mappingNanos = System.nanoTime() - start;
+
+        System.out.printf("[SchemeUpload] %d rows: schemes %d ms (%d rows/s), mappings %d ms (%d rows/s)%n",
+                rows, schemeNanos / 1_000_000, rows * 1_000_000_000L / schemeNanos,
+                mappingNanos / 1_000_000, rows * 1_000_000_000L / mappingNanos);
+        assertThat(schemeRes.getUploadedRows()).isEqualTo(rows);
+        assertThat(mappingRes.getUploadedRows()).isEqualTo(rows);
+        assertThat(countRows("scheme_master_table")).isEqualTo(rows);
+        assertThat(countRows("scheme_lgd_mapping_table")).isEqualTo(rows);
+        assertThat(countRows("scheme_department_mapping_table")).isEqualTo(rows);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM common_schema.scheme_event_outbox_table", Integer.class)).isEqualTo(2 * rows);
+    }
+
+    private int countRows(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tenant_ka." + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static MockMultipartFile csv(String filename, String content) {
+        return new MockMultipartFile("file", filename, "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,271 @@
+package org.arghyam.jalsoochak.scheme.service;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.arghyam.jalsoochak.scheme.config.TenantContext;
+import org.arghyam.jalsoochak.scheme.dto.SchemeUploadResponseDTO;
+import org.arghyam.jalsoochak.scheme.exception.FileValidationException;
+import org.arghyam.jalsoochak.scheme.repository.SchemeDbRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeEventOutboxRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.SchemeMergeResult;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.StageSource;
+import org.arghyam.jalsoochak.scheme.repository.SchemeStagingRepository.StageWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * XLSX scheme uploads, which are read with the streaming {@code XlsxRowReader}: cell
+ * formatting, sparse rows, early stop on too many errors, and bounded heap for large files.
+ */
+@ExtendWith(MockitoExtension.class)
+class SchemeXlsxUploadTest {
+
+    private static final String[] HEADERS = {
+            "state_scheme_id", "center_scheme_id", "scheme_name", "planned_fhtc", "achieved_fhtc",
+            "house_hold_count", "longitude", "latitude", "work_status", "operating_status"
+    };
+
+    private static final int LARGE_ROWS = 50_000;
+    private static final long MAX_RETAINED_HEAP_BYTES = 64L * 1024 * 1024;
+
+    @Mock
+    SchemeDbRepository schemeDbRepository;
+
+    @Mock
+    SchemeStagingRepository stagingRepository;
+
+    @Mock
+    SchemeEventOutboxRepository eventOutboxRepository;
+
+    SchemeServiceImpl schemeService;
+
+    @BeforeEach
+    void setUp() {
+        schemeService = new SchemeServiceImpl(schemeDbRepository, new SchemeBulkImporter(stagingRepository, eventOutboxRepository));
+
+        TenantContext.setSchema("tenant_ka");
+
+        Jwt jwt = Jwt.withTokenValue("test-token")
+                .header("alg", "RS256")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("email", "admin@example.com")
+                .claim("tenant_state_code", "ka")
+                .build();
+        JwtAuthenticationToken auth = new JwtAuthenticationToken(jwt, Collections.emptyList());
+
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(auth);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(schemeDbRepository.findUserIdByEmail("tenant_ka", "admin@example.com")).thenReturn(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void uploadSchemes_readsNumericCellsAndSkipsBlankRows() throws IOException {
+        byte[] xlsx;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("schemes");
+            writeHeader(sheet);
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("SS-1");
+            first.createCell(1).setCellValue(9001);
+            first.createCell(2).setCellValue("Hosur Road");
+            first.createCell(5).setCellValue(120);
+            first.createCell(6).setCellValue(77.5);
+            first.createCell(8).setCellValue("Ongoing");
+            // Row 3 is left out; row 4 has formula cells, whose cached result is used.
+            Row second = sheet.createRow(3);
+            second.createCell(0).setCellValue("SS-2");
+            second.createCell(1).setCellValue("C-2");
+            second.createCell(2).setCellValue("Whitefield");
+            second.createCell(5).setCellFormula("40+2");
+            second.createCell(8).setCellValue(2);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            xlsx = toBytes(workbook);
+        }
+        List<List<Object>> rows = new ArrayList<>();
+        stubStaging(values -> rows.add(Arrays.asList(values)));
+        when(stagingRepository.findDuplicateSchemeRows(anyInt())).thenReturn(List.of());
+        when(stagingRepository.mergeSchemes("tenant_ka", 10))
+                .thenReturn(new SchemeMergeResult(List.of(1), List.of(2)));
+
+        SchemeUploadResponseDTO res = schemeService.uploadSchemes(xlsxFile(xlsx));
+
+        assertThat(res.getTotalRows()).isEqualTo(2);
+        assertThat(res.getUploadedRows()).isEqualTo(2);
+        // row_no, state_scheme_id, centre_scheme_id, scheme_name, planned_fhtc, fhtc_count,
+        // house_hold_count, latitude, longitude, work_status, operating_status
+        assertThat(rows).containsExactly(
+                Arrays.asList(2, "SS-1", "9001", "Hosur Road", 0, 0, 120, null, 77.5, 1, 1),
+                Arrays.asList(4, "SS-2", "C-2", "Whitefield", 0, 0, 42, null, null, 2, 1));
+        verify(eventOutboxRepository).enqueueSchemeEvents("tenant_ka", SchemeEventOutboxRepository.SCHEME_CREATED, List.of(1));
+        verify(eventOutboxRepository).enqueueSchemeEvents("tenant_ka", SchemeEventOutboxRepository.SCHEME_UPDATED, List.of(2));
+    }
+
+    @Test
+    void uploadSchemes_reportsSheetRowNumbers_andStopsAfterTooManyErrors() throws IOException {
+        byte[] xlsx;
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            Sheet sheet = workbook.createSheet("schemes");
+            writeHeader(sheet);
+            for (int i = 1; i <= 5_000; i++) {
+                // scheme_name and house_hold_count missing: two errors per row
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("SS-" + i);
+                row.createCell(1).setCellValue("C-" + i);
+                row.createCell(8).setCellValue("Ongoing");
+            }
+            xlsx = toBytes(workbook);
+            workbook.dispose();
+        }
+
+        stubStaging(values -> {
+        });
+
+        assertThatThrownBy(() -> schemeService.uploadSchemes(xlsxFile(xlsx)))
+                .isInstanceOf(FileValidationException.class)
+                .satisfies(ex -> {
+                    FileValidationException fve = (FileValidationException) ex;
+                    assertThat(fve.getErrors()).hasSize(1001);
+                    assertThat(fve.getErrors().get(0).getRowNumber()).isEqualTo(2);
+                    assertThat(fve.getErrors().get(0).getField()).isEqualTo("scheme_name");
+                    assertThat(fve.getErrors().get(1000).getMessage()).startsWith("Too many validation errors");
+                });
+        verify(stagingRepository, never()).mergeSchemes(anyString(), anyInt());
+    }
+
+    @Test
+    void uploadSchemes_rejectsFileThatIsNotXlsx() {
+        MockMultipartFile file = xlsxFile("state_scheme_id,center_scheme_id".getBytes());
+
+        assertThatThrownBy(() -> schemeService.uploadSchemes(file))
+                .isInstanceOf(FileValidationException.class)
+                .hasMessage("Failed to read uploaded file");
+    }
+
+    @Test
+    void uploadSchemes_keepsRetainedHeapBounded_forLargeWorkbook() throws IOException {
+        byte[] xlsx = largeWorkbook();
+        long baseline = retainedHeap();
+        long[] peak = {0};
+        int[] staged = {0};
+        stubStaging(values -> {
+            // Sample live heap (after GC) part-way through the file, while the reader is open.
+            if (++staged[0] % 20_000 == 10_000) {
+                peak[0] = Math.max(peak[0], retainedHeap() - baseline);
+            }
+        });
+        when(stagingRepository.findDuplicateSchemeRows(anyInt())).thenReturn(List.of());
+        when(stagingRepository.mergeSchemes("tenant_ka", 10))
+                .thenReturn(new SchemeMergeResult(Collections.nCopies(LARGE_ROWS, 1), List.of()));
+
+        SchemeUploadResponseDTO res = schemeService.uploadSchemes(xlsxFile(xlsx));
+
+        assertThat(res.getTotalRows()).isEqualTo(LARGE_ROWS);
+        assertThat(res.getUploadedRows()).isEqualTo(LARGE_ROWS);
+        assertThat(staged[0]).isEqualTo(LARGE_ROWS);
+        assertThat(peak[0])
+                .as("retained heap while streaming %d rows", LARGE_ROWS)
+                .isLessThan(MAX_RETAINED_HEAP_BYTES);
+    }
+
+    /** Runs the upload's stage source against the given writer, as the COPY into the staging table would. */
+    private void stubStaging(StageWriter writer) {
+        when(stagingRepository.stageSchemes(any())).thenAnswer(inv -> {
+            long[] count = {0};
+            inv.<StageSource>getArgument(0).writeRows(values -> {
+                count[0]++;
+                writer.row(values);
+            });
+            return count[0];
+        });
+    }
+
+    private static byte[] largeWorkbook() throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            Sheet sheet = workbook.createSheet("schemes");
+            writeHeader(sheet);
+            for (int i = 1; i <= LARGE_ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("SS-" + i);
+                row.createCell(1).setCellValue("C-" + i);
+                row.createCell(2).setCellValue("Scheme number " + i + " of the large upload");
+                row.createCell(3).setCellValue(i % 500);
+                row.createCell(4).setCellValue(i % 400);
+                row.createCell(5).setCellValue(100 + i % 900);
+                row.createCell(6).setCellValue(77.0 + (i % 1000) / 1000.0);
+                row.createCell(7).setCellValue(12.0 + (i % 1000) / 1000.0);
+                row.createCell(8).setCellValue("Ongoing");
+                row.createCell(9).setCellValue("Operative");
+            }
+            byte[] bytes = toBytes(workbook);
+            workbook.dispose();
+            return bytes;
+        }
+    }
+
+    private static void writeHeader(Sheet sheet) {
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+        }
+    }
+
+    private static byte[] toBytes(Workbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        return out.toByteArray();
+    }
+
+    private static MockMultipartFile xlsxFile(byte[] content) {
+        return new MockMultipartFile(
+                "file",
+                "schemes.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                content
+        );
+    }
+
+    private static long retainedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
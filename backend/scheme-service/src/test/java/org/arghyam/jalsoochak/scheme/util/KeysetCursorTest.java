@@ -0,0 +1,57 @@
+package org.arghyam.jalsoochak.scheme.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encode_roundTrips_includingValuesWithSeparators() {
+        KeysetCursor cursor = new KeysetCursor("scheme_name", true, "Hosur\nRoad, \"Phase 2\"", 42, 7);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_returnsNull_forBlankToken() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void decode_rejectsMalformedTokens() {
+        String wrongVersion = Base64.getUrlEncoder().encodeToString(
+                "2\nid\nd\n1\n0\n1".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString(
+                "1\nid\nd\nx\n0\n1".getBytes(StandardCharsets.UTF_8));
+
+        for (String token : new String[]{"%%%", wrongVersion, badId}) {
+            assertThatThrownBy(() -> KeysetCursor.decode(token))
+                    .isInstanceOfSatisfying(ResponseStatusException.class, ex -> {
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                        assertThat(ex.getReason()).isEqualTo("Invalid cursor");
+                    });
+        }
+    }
+
+    @Test
+    void requireSort_rejectsCursorOfAnotherSort() {
+        KeysetCursor cursor = new KeysetCursor("id", false, "10", 10, 0);
+
+        cursor.requireSort("id", false);
+        assertThatThrownBy(() -> cursor.requireSort("id", true))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> cursor.requireSort("scheme_name", false))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
@@ -0,0 +1,97 @@
+-- Tenant tables used by scheme uploads and listings (see create_tenant_schema()) and the
+-- common tenant table, trimmed to the columns and keys scheme-service reads or writes.
+-- Tests apply the migrations (backend/database) they depend on.
+
+CREATE SCHEMA IF NOT EXISTS common_schema;
+
+CREATE TABLE common_schema.tenant_master_table (
+    id          SERIAL          PRIMARY KEY,
+    state_code  VARCHAR(10)     NOT NULL UNIQUE
+);
+
+INSERT INTO common_schema.tenant_master_table (id, state_code) VALUES (29, 'KA');
+
+CREATE SCHEMA IF NOT EXISTS tenant_ka;
+
+CREATE TABLE tenant_ka.user_table (
+    id          SERIAL          PRIMARY KEY,
+    title       VARCHAR(255),
+    email       VARCHAR(255),
+    created_at  TIMESTAMP       NOT NULL DEFAULT NOW(),
+    deleted_at  TIMESTAMP
+);
+
+CREATE TABLE tenant_ka.location_config_master_table (
+    id          SERIAL          PRIMARY KEY,
+    region_type INTEGER         NOT NULL,
+    level       INTEGER         NOT NULL
+);
+
+CREATE TABLE tenant_ka.lgd_location_master_table (
+    id                      SERIAL          PRIMARY KEY,
+    title                   VARCHAR(255)    NOT NULL,
+    lgd_code                VARCHAR(50)     NOT NULL,
+    lgd_location_config_id  INTEGER,
+    parent_id               INTEGER,
+    status                  INTEGER         NOT NULL DEFAULT 1,
+    deleted_at              TIMESTAMP
+);
+
+CREATE TABLE tenant_ka.department_location_master_table (
+    id                              SERIAL          PRIMARY KEY,
+    title                           VARCHAR(255)    NOT NULL,
+    department_location_config_id   INTEGER,
+    parent_id                       INTEGER,
+    status                          INTEGER         NOT NULL DEFAULT 1,
+    deleted_at                      TIMESTAMP
+);
+
+CREATE TABLE tenant_ka.scheme_master_table (
+    id                  SERIAL              PRIMARY KEY,
+    uuid                VARCHAR(36)         NOT NULL UNIQUE DEFAULT gen_random_uuid()::TEXT,
+    state_scheme_id     VARCHAR(255)        NOT NULL,
+    centre_scheme_id    VARCHAR(255)        NOT NULL,
+    scheme_name         VARCHAR(255)        NOT NULL,
+    fhtc_count          INTEGER             NOT NULL DEFAULT 0,
+    planned_fhtc        INTEGER             NOT NULL DEFAULT 0,
+    house_hold_count    INTEGER             NOT NULL DEFAULT 0,
+    latitude            DOUBLE PRECISION,
+    longitude           DOUBLE PRECISION,
+    channel             INTEGER,
+    work_status         INTEGER             NOT NULL,
+    operating_status    INTEGER             NOT NULL,
+    created_at          TIMESTAMP           NOT NULL DEFAULT NOW(),
+    created_by          INTEGER,
+    updated_at          TIMESTAMP           NOT NULL DEFAULT NOW(),
+    updated_by          INTEGER,
+    deleted_at          TIMESTAMP,
+    deleted_by          INTEGER
+);
+
+CREATE TABLE tenant_ka.scheme_lgd_mapping_table (
+    id                  SERIAL          PRIMARY KEY,
+    scheme_id           INTEGER         NOT NULL REFERENCES tenant_ka.scheme_master_table(id),
+    parent_lgd_id       INTEGER         NOT NULL REFERENCES tenant_ka.lgd_location_master_table(id),
+    parent_lgd_level    VARCHAR(255)    NOT NULL,
+    created_by          INTEGER         NOT NULL REFERENCES tenant_ka.user_table(id),
+    created_at          TIMESTAMP       NOT NULL DEFAULT NOW(),
+    updated_by          INTEGER         NOT NULL REFERENCES tenant_ka.user_table(id),
+    updated_at          TIMESTAMP       NOT NULL DEFAULT NOW(),
+    deleted_at          TIMESTAMP,
+    deleted_by          INTEGER
+);
+
+CREATE TABLE tenant_ka.scheme_department_mapping_table (
+    id                          SERIAL          PRIMARY KEY,
+    scheme_id                   INTEGER         NOT NULL REFERENCES tenant_ka.scheme_master_table(id),
+    parent_department_id        INTEGER         NOT NULL REFERENCES tenant_ka.department_location_master_table(id),
+    parent_department_level     VARCHAR(255)    NOT NULL,
+    created_by                  INTEGER         NOT NULL REFERENCES tenant_ka.user_table(id),
+    created_at                  TIMESTAMP       NOT NULL DEFAULT NOW(),
+    updated_by                  INTEGER         NOT NULL REFERENCES tenant_ka.user_table(id),
+    updated_at                  TIMESTAMP       NOT NULL DEFAULT NOW(),
+    deleted_at                  TIMESTAMP,
+    deleted_by                  INTEGER
+);
+
+INSERT INTO tenant_ka.user_table (email) VALUES ('admin@example.com');
@@ -0,0 +1,27 @@
+package org.arghyam.jalsoochak.telemetry.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeterReadingEvent {
+
+    private String eventType;
+    private Integer tenantId;
+    private Integer schemeId;
+    private Integer userId;
+    private Integer extractedReading;
+    private Integer confirmedReading;
+    private Integer confidence;
+    private String imageUrl;
+    private String readingAt;
+    private Integer channel;
+    private String readingDate;
+    /** The reading is the first from a replacement meter and starts a new baseline. */
+    private Boolean meterReplaced;
+}
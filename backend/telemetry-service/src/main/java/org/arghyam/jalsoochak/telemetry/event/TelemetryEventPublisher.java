@@ -3,6 +3,7 @@ package org.arghyam.jalsoochak.telemetry.event;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.arghyam.jalsoochak.telemetry.dto.event.AnomalyEvent;
+import org.arghyam.jalsoochak.telemetry.dto.event.MeterReadingEvent;
 import org.arghyam.jalsoochak.telemetry.dto.event.WaterQuantityEvent;
 import org.arghyam.jalsoochak.telemetry.kafka.KafkaProducer;
 import org.arghyam.jalsoochak.telemetry.service.AnomalyConstants;
@@ -22,6 +23,7 @@ public class TelemetryEventPublisher {
     public static final String TOPIC = "telemetry-service-topic";
     public static final String EVENT_WATER_QUANTITY_RECORDED = "WATER_QUANTITY_RECORDED";
     public static final String EVENT_ANOMALY_RECORDED = "ANOMALY_RECORDED";
+    public static final String EVENT_METER_READING_RECORDED = "METER_READING_RECORDED";
     public static final int NOT_SUBMITTED_STATUS = 0;
 
     private final KafkaProducer kafkaProducer;
@@ -97,6 +99,44 @@ public class TelemetryEventPublisher {
         }
     }
 
+    /**
+     * Publishes an accepted meter reading for analytics and anomaly-service's streaming detector,
+     * keyed by scheme so the readings of a scheme stay in order.
+     *
+     * @param meterReplaced the reading was accepted as the new baseline of a replacement meter,
+     *                      so it may be lower than the previous one
+     */
+    @Async("kafkaPublisherExecutor")
+    public void publishMeterReadingRecorded(Integer tenantId,
+                                            Long schemeId,
+                                            Long userId,
+                                            BigDecimal extractedReading,
+                                            BigDecimal confirmedReading,
+                                            BigDecimal confidence,
+                                            String imageUrl,
+                                            LocalDateTime readingAt,
+                                            boolean meterReplaced) {
+        MeterReadingEvent event = MeterReadingEvent.builder()
+                .eventType(EVENT_METER_READING_RECORDED)
+                .tenantId(tenantId)
+                .schemeId(toInt(schemeId))
+                .userId(toInt(userId))
+                .extractedReading(toInt(extractedReading))
+                .confirmedReading(toInt(confirmedReading))
+                .confidence(confidence != null ? confidence.movePointRight(2).intValue() : null)
+                .imageUrl(imageUrl != null && !imageUrl.isBlank() ? imageUrl : null)
+                .readingAt(readingAt.toString())
+                .readingDate(readingAt.toLocalDate().toString())
+                .meterReplaced(meterReplaced)
+                .build();
+
+        boolean ok = kafkaProducer.publishJson(TOPIC, tenantId + ":" + schemeId, event);
+        if (!ok) {
+            log.warn("[telemetry-events] publish_failed event={} tenantId={} schemeId={} userId={}",
+                    EVENT_METER_READING_RECORDED, tenantId, schemeId, userId);
+        }
+    }
+
     private static ReasonPayload mapReason(int anomalyType) {
         if (anomalyType == AnomalyConstants.TYPE_NO_WATER_SUPPLY) {
             return new ReasonPayload("No Water Supply", null);
@@ -114,6 +154,10 @@ public class TelemetryEventPublisher {
         return value == null ? null : value.intValue();
     }
 
+    private static Integer toInt(BigDecimal value) {
+        return value == null ? null : value.intValue();
+    }
+
     private record ReasonPayload(String outageReason, String nonSubmissionReason) {
     }
 }
@@ -29,11 +29,19 @@ public class KafkaProducer {
      * Serializes {@code event} to JSON and publishes it to the given topic.
      */
     public boolean publishJson(String topic, Object event) {
+        return publishJson(topic, null, event);
+    }
+
+    /**
+     * Serializes {@code event} to JSON and publishes it to the given topic under {@code key},
+     * so events with the same key keep their order on one partition.
+     */
+    public boolean publishJson(String topic, String key, Object event) {
         try {
             String json = objectMapper.writeValueAsString(event);
             log.info("[kafka:publish] topic={} payload={}", topic, json);
 
-            CompletableFuture<SendResult<String, String>> fut = kafkaTemplate.send(topic, json);
+            CompletableFuture<SendResult<String, String>> fut = kafkaTemplate.send(topic, key, json);
             fut.whenComplete((res, ex) -> {
                 if (ex != null) {
                     log.error("[kafka:publish] FAILED topic={} err={}", topic, ex.getMessage(), ex);
@@ -1,5 +1,6 @@
 package org.arghyam.jalsoochak.telemetry.service;
 
+/** Anomaly type and status codes; anomaly-service mirrors the ones it uses. */
 public final class AnomalyConstants {
 
     private AnomalyConstants() {
@@ -17,6 +18,10 @@ public final class AnomalyConstants {
     public static final int TYPE_OVER_WATER_SUPPLY = 8;
     // No meter reading submission due to operational issues (e.g. meter not working/damaged/others).
     public static final int TYPE_NO_SUBMISSION = 9;
+    // Detected on the reading stream by anomaly-service's StreamingAnomalyDetector; never raised here.
+    public static final int TYPE_CONSUMPTION_SPIKE = 10;
+    public static final int TYPE_STUCK_METER = 11;
+    public static final int TYPE_SILENT_SCHEME = 12;
 
     public static final int STATUS_OPEN = 1;
 }
@@ -290,6 +290,19 @@ public class BfmReadingService {
                     request.getMeterChangeReason()
             );
         }
+        if (isValid) {
+            telemetryEventPublisher.publishMeterReadingRecorded(
+                    tenantId,
+                    request.getSchemeId(),
+                    operatorInRequest.id(),
+                    extractedReading,
+                    confirmedReading,
+                    confidenceLevel,
+                    request.getReadingUrl(),
+                    readingAt,
+                    isMeterReplaced
+            );
+        }
 
         BigDecimal lastConfirmedReading = latestSnapshotOpt
                 .map(TelemetryConfirmedReadingSnapshot::confirmedReading)
@@ -932,6 +932,17 @@ public class GlificMeterWorkflowService {
                     );
                 }
             }
+            telemetryEventPublisher.publishMeterReadingRecorded(
+                    tenantId,
+                    schemeId,
+                    operatorWithSchema.operator().id(),
+                    null,
+                    manualReadingValue,
+                    null,
+                    null,
+                    LocalDateTime.now(),
+                    isMeterReplaced
+            );
 
             int unreadableRetryCountToday = telemetryTenantRepository.countAnomaliesByTypeForToday(
                     operatorWithSchema.schemaName(),
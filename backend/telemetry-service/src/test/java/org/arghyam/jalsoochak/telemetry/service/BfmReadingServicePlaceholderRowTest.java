@@ -3,6 +3,7 @@ package org.arghyam.jalsoochak.telemetry.service;
 import org.arghyam.jalsoochak.telemetry.dto.requests.CreateReadingRequest;
 import org.arghyam.jalsoochak.telemetry.dto.response.CreateReadingResponse;
 import org.arghyam.jalsoochak.telemetry.dto.response.FlowVisionResult;
+import org.arghyam.jalsoochak.telemetry.event.TelemetryEventPublisher;
 import org.arghyam.jalsoochak.telemetry.repository.TelemetryOperator;
 import org.arghyam.jalsoochak.telemetry.repository.TelemetryTenantRepository;
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,6 +36,9 @@ class BfmReadingServicePlaceholderRowTest {
     @Mock
     private FlowVisionService flowVisionService;
 
+    @Mock
+    private TelemetryEventPublisher telemetryEventPublisher;
+
     @InjectMocks
     private BfmReadingService service;
 
@@ -92,5 +97,9 @@ class BfmReadingServicePlaceholderRowTest {
         verify(telemetryTenantRepository, never()).createFlowReading(
                 anyString(), anyLong(), anyLong(), any(), any(), any(), anyString(), anyString(), any()
         );
+        verify(telemetryEventPublisher).publishMeterReadingRecorded(
+                eq(1), eq(10L), eq(1L), eq(new BigDecimal("123")), eq(new BigDecimal("123")),
+                eq(new BigDecimal("0.95")), eq("http://example.com/img.jpg"), any(LocalDateTime.class), eq(false)
+        );
     }
 }
@@ -0,0 +1,57 @@
+package org.arghyam.jalsoochak.telemetry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks this module's copy of the service against the test vector of user-service's
+ * {@code PiiEncryptionServiceTest}, which covers the canonical copy in full.
+ */
+@DisplayName("PiiEncryptionService - Unit Tests")
+class PiiEncryptionServiceTest {
+
+    // 32 bytes of zeros, base64-encoded — safe test key material
+    private static final String TEST_AES_KEY  = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    private static final String TEST_HMAC_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    // HMAC-SHA256 of "9000000001" under TEST_HMAC_KEY; every copy of this test checks the same vector
+    private static final String HMAC_OF_9000000001 = "2a0b5e5d587a8e63c6c65788cf0ec28a13eee189472f9a1bcfe40ed32abee577";
+
+    private PiiEncryptionService pii;
+
+    @BeforeEach
+    void setUp() {
+        pii = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY);
+    }
+
+    @Test
+    @DisplayName("round-trip encrypt/decrypt returns original plaintext")
+    void decrypt_roundTrip() {
+        assertEquals("91XXXXXXXXXX", pii.decrypt(pii.encrypt("  91XXXXXXXXXX ")));
+        assertNull(pii.encrypt(null));
+    }
+
+    @Test
+    @DisplayName("hmac matches the shared test vector, from the cache and without it")
+    void hmac_matchesSharedTestVector() {
+        PiiEncryptionService uncached = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 0, 1);
+        assertEquals(HMAC_OF_9000000001, pii.hmac("9000000001"));
+        assertEquals(HMAC_OF_9000000001, pii.hmac(" 9000000001 "));
+        assertEquals(HMAC_OF_9000000001, uncached.hmac("9000000001"));
+    }
+
+    @Test
+    @DisplayName("hmac gives the same result after the cache fills up")
+    void hmac_cacheDoesNotChangeResults() {
+        PiiEncryptionService uncached = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 0, 1);
+        PiiEncryptionService tinyCache = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 2, 1);
+        for (String phone : List.of("9000000001", "9000000002", "9000000003", "9000000001")) {
+            assertEquals(uncached.hmac(phone), tinyCache.hmac(phone));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.arghyam.jalsoochak.tenant;
 
 import org.arghyam.jalsoochak.tenant.config.TenantDefaultsProperties;
+import org.arghyam.jalsoochak.tenant.config.properties.LocationTreeProperties;
+import org.arghyam.jalsoochak.tenant.config.properties.TenantMigrationProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -10,7 +12,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableScheduling
-@EnableConfigurationProperties(TenantDefaultsProperties.class)
+@EnableConfigurationProperties({TenantDefaultsProperties.class, LocationTreeProperties.class,
+        TenantMigrationProperties.class})
 public class TenantServiceApplication {
 
     public static void main(String[] args) {
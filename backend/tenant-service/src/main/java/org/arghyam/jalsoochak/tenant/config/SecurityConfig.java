@@ -41,7 +41,10 @@ public class SecurityConfig {
                             "/api/v1/tenants/*/public-config",
                             "/api/v1/tenants/*/logo",
                             "/api/v1/tenants/*/location-hierarchy/*",
-                            "/api/v1/tenants/*/locations/*/children/*").permitAll();
+                            "/api/v1/tenants/*/locations/*/children/*",
+                            "/api/v1/tenants/*/locations/*/*/ancestors",
+                            "/api/v1/tenants/*/locations/*/search",
+                            "/api/v1/tenants/*/locations/*/tree").permitAll();
                     if (isProd) {
                         auth.requestMatchers(SWAGGER_PATHS).authenticated();
                     } else {
@@ -0,0 +1,36 @@
+package org.arghyam.jalsoochak.tenant.config.properties;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for the in-memory location hierarchy trees.
+ * Bound from the {@code tenant.location-tree.*} namespace in application.yml.
+ *
+ * <p>When {@code enabled} is {@code false}, location lookups fall back to the
+ * per-request queries against the tenant schema.
+ */
+@ConfigurationProperties(prefix = "tenant.location-tree")
+@Data
+@Validated
+public class LocationTreeProperties {
+
+    /** Serve location children, ancestors and search from the in-memory trees. */
+    private boolean enabled = true;
+
+    /** Build trees for every active tenant once the application is ready. */
+    private boolean warmOnStartup = true;
+
+    /**
+     * Interval between change probes. Each probe compares a cheap fingerprint
+     * (row count, max id, max updated_at) and rebuilds only trees whose data changed.
+     */
+    @Min(1000)
+    private long refreshIntervalMs = 300_000L;
+
+    /** Upper bound on the number of matches returned by a subtree search. */
+    @Min(1)
+    private int maxSearchResults = 100;
+}
@@ -0,0 +1,37 @@
+package org.arghyam.jalsoochak.tenant.config.properties;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for tenant schema migrations and asynchronous onboarding.
+ * Bound from the {@code tenant.migration.*} namespace in application.yml.
+ */
+@ConfigurationProperties(prefix = "tenant.migration")
+@Data
+@Validated
+public class TenantMigrationProperties {
+
+    /** Apply pending tenant migrations to every {@code tenant_*} schema once the application is ready. */
+    private boolean runOnStartup = true;
+
+    /** Classpath pattern of the tenant migration scripts ({@code T<version>__<description>.sql}). */
+    private String locations = "classpath:db/tenant-migration/T*__*.sql";
+
+    /** Maximum number of tenant schemas migrated concurrently. */
+    @Min(1)
+    private int parallelism = 4;
+
+    /** Worker threads running onboarding jobs. */
+    @Min(1)
+    private int onboardingThreads = 2;
+
+    /**
+     * Age after which a PENDING or RUNNING onboarding job is considered abandoned
+     * (e.g. the instance running it was restarted) and marked FAILED.
+     */
+    @Min(60_000)
+    private long onboardingTimeoutMs = 1_800_000L;
+}
@@ -17,8 +17,10 @@ import org.arghyam.jalsoochak.tenant.dto.request.UpdateTenantRequestDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyEditConstraintsResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationTreeResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigStatusResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantOnboardingJobResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantSummaryResponseDTO;
 import org.arghyam.jalsoochak.tenant.enums.TenantConfigKeyEnum;
@@ -26,6 +28,7 @@ import org.arghyam.jalsoochak.tenant.enums.TenantStatusEnum;
 import org.arghyam.jalsoochak.tenant.dto.internal.LogoSource;
 import org.arghyam.jalsoochak.tenant.dto.internal.TenantLogoResult;
 import org.arghyam.jalsoochak.tenant.service.TenantManagementService;
+import org.arghyam.jalsoochak.tenant.service.TenantOnboardingService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -37,6 +40,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.validation.annotation.Validated;
@@ -64,6 +68,7 @@ public class TenantController {
         private static final int MAX_PAGE_SIZE = 100;
 
         private final TenantManagementService tenantManagementService;
+        private final TenantOnboardingService tenantOnboardingService;
 
         /**
          * Create a new tenant
@@ -88,6 +93,52 @@ public class TenantController {
                                 .body(ApiResponseDTO.of(201, "Tenant created successfully", tenant));
         }
 
+        /**
+         * Submit an asynchronous tenant onboarding job
+         */
+        @Operation(summary = "Onboard a new tenant asynchronously", description = "Queues the same work as tenant creation "
+                        + "(tenant record, schema provisioning, tenant schema migrations and default configuration) as a background "
+                        + "job. Poll the returned job (Location header) until its status is COMPLETED or FAILED.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "202", description = "Onboarding job accepted"),
+                        @ApiResponse(responseCode = "400", description = "Invalid request — missing or malformed fields"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized — valid Bearer token required"),
+                        @ApiResponse(responseCode = "403", description = "Forbidden — insufficient scope or role"),
+                        @ApiResponse(responseCode = "409", description = "Tenant already exists or is already being onboarded"),
+                        @ApiResponse(responseCode = "500", description = "Internal server error")
+        })
+        @PreAuthorize("hasRole('SUPER_USER')")
+        @PostMapping("/onboarding-jobs")
+        public ResponseEntity<ApiResponseDTO<TenantOnboardingJobResponseDTO>> submitOnboardingJob(
+                        @Valid @RequestBody CreateTenantRequestDTO request) {
+                log.info("POST /api/v1/tenants/onboarding-jobs – Onboarding tenant: {}", request.getName());
+                TenantOnboardingJobResponseDTO job = tenantOnboardingService.submit(request);
+                return ResponseEntity.accepted()
+                                .location(URI.create("/api/v1/tenants/onboarding-jobs/" + job.getJobId()))
+                                .body(ApiResponseDTO.of(202, "Tenant onboarding job accepted", job));
+        }
+
+        /**
+         * Poll an onboarding job
+         */
+        @Operation(summary = "Get onboarding job status", description = "Returns the status of an asynchronous tenant onboarding job. "
+                        + "On COMPLETED the created tenant ID is included; on FAILED the failure reason.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Onboarding job status retrieved successfully"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized — valid Bearer token required"),
+                        @ApiResponse(responseCode = "403", description = "Forbidden — insufficient scope or role"),
+                        @ApiResponse(responseCode = "404", description = "Onboarding job not found"),
+                        @ApiResponse(responseCode = "500", description = "Internal server error")
+        })
+        @PreAuthorize("hasRole('SUPER_USER')")
+        @GetMapping("/onboarding-jobs/{jobId}")
+        public ResponseEntity<ApiResponseDTO<TenantOnboardingJobResponseDTO>> getOnboardingJob(
+                        @PathVariable String jobId) {
+                log.info("GET /api/v1/tenants/onboarding-jobs/{}", jobId);
+                return ResponseEntity.ok(ApiResponseDTO.of(200, "Onboarding job status retrieved successfully",
+                                tenantOnboardingService.getJob(jobId)));
+        }
+
         /**
          * Get tenant status summary
          */
@@ -407,4 +458,78 @@ public class TenantController {
                 return ResponseEntity.ok(ApiResponseDTO.of(200, "Child locations retrieved successfully", children));
         }
 
+        /**
+         * Get ancestors of a location
+         */
+        @Operation(summary = "Get ancestors of a location", description = "Returns the chain of parent locations from the root down to the direct parent of the given location. "
+                        + "Served from the in-memory hierarchy tree.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Ancestors retrieved successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid hierarchy type or tenant could not be resolved"),
+                        @ApiResponse(responseCode = "404", description = "Tenant or location not found"),
+                        @ApiResponse(responseCode = "500", description = "Internal server error")
+        })
+        @GetMapping("/{tenantId}/locations/{hierarchyType}/{locationId}/ancestors")
+        public ResponseEntity<ApiResponseDTO<List<LocationResponseDTO>>> getLocationAncestors(
+                        @PathVariable Integer tenantId,
+                        @Parameter(description = "Hierarchy type: LGD or DEPARTMENT", example = "LGD") @PathVariable String hierarchyType,
+                        @Parameter(description = "Location ID", example = "42") @PathVariable Integer locationId) {
+                log.info("GET /api/v1/tenants/{}/locations/{}/{}/ancestors", tenantId, hierarchyType, locationId);
+                List<LocationResponseDTO> ancestors = tenantManagementService.getLocationAncestors(tenantId,
+                                hierarchyType, locationId);
+                return ResponseEntity.ok(ApiResponseDTO.of(200, "Location ancestors retrieved successfully", ancestors));
+        }
+
+        /**
+         * Search locations by title
+         */
+        @Operation(summary = "Search locations by title", description = "Case-insensitive substring search on location titles. "
+                        + "Pass rootId to restrict the search to the subtree below that location.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Matching locations retrieved successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid hierarchy type, limit above the configured maximum, or tenant could not be resolved"),
+                        @ApiResponse(responseCode = "404", description = "Tenant not found"),
+                        @ApiResponse(responseCode = "500", description = "Internal server error")
+        })
+        @GetMapping("/{tenantId}/locations/{hierarchyType}/search")
+        public ResponseEntity<ApiResponseDTO<List<LocationResponseDTO>>> searchLocations(
+                        @PathVariable Integer tenantId,
+                        @Parameter(description = "Hierarchy type: LGD or DEPARTMENT", example = "LGD") @PathVariable String hierarchyType,
+                        @Parameter(description = "Search text", example = "rampur") @RequestParam String q,
+                        @Parameter(description = "Restrict the search to the subtree below this location") @RequestParam(required = false) Integer rootId,
+                        @Parameter(description = "Maximum number of matches; defaults to, and may not exceed, tenant.location-tree.max-search-results (100 unless configured)") @RequestParam(required = false) @Min(1) Integer limit) {
+                log.info("GET /api/v1/tenants/{}/locations/{}/search", tenantId, hierarchyType);
+                List<LocationResponseDTO> matches = tenantManagementService.searchLocations(tenantId, hierarchyType, q,
+                                rootId, limit);
+                return ResponseEntity.ok(ApiResponseDTO.of(200, "Locations retrieved successfully", matches));
+        }
+
+        /**
+         * Get the whole location tree
+         */
+        @Operation(summary = "Get the whole location tree", description = "Returns every active location of the hierarchy in one column-oriented payload. "
+                        + "The response carries an ETag; send it back in If-None-Match to receive 304 when the hierarchy is unchanged.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Location tree retrieved successfully"),
+                        @ApiResponse(responseCode = "304", description = "Location tree unchanged since the supplied ETag"),
+                        @ApiResponse(responseCode = "400", description = "Invalid hierarchy type or tenant could not be resolved"),
+                        @ApiResponse(responseCode = "404", description = "Tenant not found"),
+                        @ApiResponse(responseCode = "500", description = "Internal server error")
+        })
+        @GetMapping("/{tenantId}/locations/{hierarchyType}/tree")
+        public ResponseEntity<ApiResponseDTO<LocationTreeResponseDTO>> getLocationTree(
+                        @PathVariable Integer tenantId,
+                        @Parameter(description = "Hierarchy type: LGD or DEPARTMENT", example = "LGD") @PathVariable String hierarchyType,
+                        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+                log.info("GET /api/v1/tenants/{}/locations/{}/tree", tenantId, hierarchyType);
+                LocationTreeResponseDTO tree = tenantManagementService.getLocationTree(tenantId, hierarchyType);
+                String etag = "\"" + tree.getHierarchyType() + "-" + tree.getVersion() + "\"";
+                if (etag.equals(ifNoneMatch)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+                return ResponseEntity.ok()
+                                .eTag(etag)
+                                .body(ApiResponseDTO.of(200, "Location tree retrieved successfully", tree));
+        }
+
 }
@@ -34,4 +34,10 @@ public class LocationResponseDTO {
 
     @Schema(description = "Status: 1 = ACTIVE, 0 = INACTIVE", example = "1")
     private Integer status;
+
+    @Schema(description = "Hierarchy level of the location (1 = top level)", example = "2")
+    private Integer level;
+
+    @Schema(description = "Number of active child locations", example = "12")
+    private Integer childCount;
 }
@@ -0,0 +1,52 @@
+package org.arghyam.jalsoochak.tenant.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Column-oriented snapshot of a whole location hierarchy.
+ * Index {@code i} of every array describes the same location, which keeps the
+ * payload small and compresses well compared to a list of nested objects.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Whole location hierarchy (LGD or Department) in column-oriented form")
+public class LocationTreeResponseDTO {
+
+    @Schema(description = "Hierarchy type", example = "LGD")
+    private String hierarchyType;
+
+    @Schema(description = "Opaque version of the hierarchy data; changes whenever locations change")
+    private String version;
+
+    @Schema(description = "Number of locations in the hierarchy", example = "52310")
+    private int size;
+
+    @Schema(description = "Location IDs, ascending")
+    private int[] ids;
+
+    @Schema(description = "Parent location IDs (0 for root level)")
+    private int[] parentIds;
+
+    @Schema(description = "Hierarchy level of each location")
+    private int[] levels;
+
+    @Schema(description = "Number of active children of each location")
+    private int[] childCounts;
+
+    @Schema(description = "Location titles")
+    private List<String> titles;
+
+    @Schema(description = "LGD codes (only for LGD hierarchy)")
+    private List<String> lgdCodes;
+}
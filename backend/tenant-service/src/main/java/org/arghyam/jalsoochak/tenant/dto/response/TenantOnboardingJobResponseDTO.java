@@ -0,0 +1,48 @@
+package org.arghyam.jalsoochak.tenant.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Status of an asynchronous tenant onboarding job")
+public class TenantOnboardingJobResponseDTO {
+
+    @Schema(description = "Job ID to poll", example = "3f2a9c1e-7b4d-4e8a-9f10-2c5d6e7f8a9b")
+    private String jobId;
+
+    @Schema(description = "State code of the tenant being onboarded", example = "KA")
+    private String stateCode;
+
+    @Schema(description = "Job status", example = "RUNNING", allowableValues = { "PENDING", "RUNNING",
+            "COMPLETED", "FAILED" })
+    private String status;
+
+    @Schema(description = "ID of the created tenant (once COMPLETED)", example = "7")
+    private Integer tenantId;
+
+    @Schema(description = "Tenant schema migration version after onboarding (once COMPLETED)", example = "1")
+    private Integer schemaVersion;
+
+    @Schema(description = "Failure reason (only when FAILED)")
+    private String errorMessage;
+
+    @Schema(description = "Timestamp when the job was submitted")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Timestamp when the job started running")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Timestamp when the job completed or failed")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,12 @@
+package org.arghyam.jalsoochak.tenant.enums;
+
+/**
+ * Lifecycle of an asynchronous tenant onboarding job.
+ * Stored as text in {@code common_schema.tenant_onboarding_job_table.status}.
+ */
+public enum OnboardingJobStatusEnum {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
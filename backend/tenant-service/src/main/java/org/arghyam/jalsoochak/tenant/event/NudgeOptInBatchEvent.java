@@ -0,0 +1,31 @@
+package org.arghyam.jalsoochak.tenant.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published ahead of a tenant's nudges with the operators that have no Glific contact yet,
+ * so message-service can opt them in before their nudges arrive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NudgeOptInBatchEvent {
+    private String eventType;
+    private Integer tenantId;
+    private String tenantSchema;
+    private List<Recipient> recipients;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Recipient {
+        private Long userId;
+        private String phone;
+    }
+}
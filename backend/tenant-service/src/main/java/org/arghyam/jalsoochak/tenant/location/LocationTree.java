@@ -0,0 +1,281 @@
+package org.arghyam.jalsoochak.tenant.location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationTreeResponseDTO;
+import org.arghyam.jalsoochak.tenant.enums.RegionTypeEnum;
+import org.arghyam.jalsoochak.tenant.enums.StatusEnum;
+
+/**
+ * Immutable, array-backed snapshot of one tenant location hierarchy (LGD or DEPARTMENT).
+ *
+ * <p>Nodes are stored column-wise and ordered by id, so a lookup by id is a binary
+ * search. Children are grouped by parent id and pre-sorted by title, which makes
+ * {@link #children(Integer)} a range copy with the same ordering as the
+ * {@code ORDER BY title} query it replaces. Only active locations are held.</p>
+ *
+ * <p>Instances are built once by {@link LocationTreeCache} and shared between
+ * request threads without locking.</p>
+ */
+public final class LocationTree {
+
+    /** Parent id used for root-level locations ({@code parent_id IS NULL}). */
+    static final int NO_PARENT = 0;
+
+    private static final Comparator<String> TITLE_ORDER =
+            Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder()));
+
+    private final RegionTypeEnum regionType;
+    private final String version;
+
+    // Node columns, indexed by position; ids are ascending.
+    private final int[] ids;
+    private final int[] parentIds;
+    private final int[] levels;
+    private final String[] uuids;
+    private final String[] titles;
+    private final String[] searchKeys;
+    private final String[] lgdCodes;
+
+    // Children grouped by parent id: groupParentIds is ascending, and the children of
+    // groupParentIds[g] are childOrder[groupOffsets[g] .. groupOffsets[g + 1]).
+    private final int[] groupParentIds;
+    private final int[] groupOffsets;
+    private final int[] childOrder;
+
+    private LocationTree(RegionTypeEnum regionType, String version, List<LocationResponseDTO> rows) {
+        this.regionType = regionType;
+        this.version = version;
+
+        List<LocationResponseDTO> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingInt(LocationResponseDTO::getId));
+
+        int n = sorted.size();
+        ids = new int[n];
+        parentIds = new int[n];
+        levels = new int[n];
+        uuids = new String[n];
+        titles = new String[n];
+        searchKeys = new String[n];
+        lgdCodes = new String[n];
+
+        for (int i = 0; i < n; i++) {
+            LocationResponseDTO row = sorted.get(i);
+            ids[i] = row.getId();
+            parentIds[i] = row.getParentId() != null ? row.getParentId() : NO_PARENT;
+            levels[i] = row.getLevel() != null ? row.getLevel() : 0;
+            uuids[i] = row.getUuid();
+            titles[i] = row.getTitle();
+            searchKeys[i] = row.getTitle() != null ? row.getTitle().toLowerCase(Locale.ROOT) : "";
+            lgdCodes[i] = row.getLgdCode();
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> parentIds[i])
+                .thenComparing(i -> titles[i], TITLE_ORDER)
+                .thenComparingInt(i -> ids[i]));
+
+        childOrder = new int[n];
+        int[] parents = new int[n];
+        int[] offsets = new int[n + 1];
+        int groups = 0;
+        for (int k = 0; k < n; k++) {
+            int idx = order[k];
+            childOrder[k] = idx;
+            if (groups == 0 || parents[groups - 1] != parentIds[idx]) {
+                parents[groups] = parentIds[idx];
+                offsets[groups] = k;
+                groups++;
+            }
+        }
+        offsets[groups] = n;
+        groupParentIds = Arrays.copyOf(parents, groups);
+        groupOffsets = Arrays.copyOf(offsets, groups + 1);
+
+        for (int i = 0; i < n; i++) {
+            if (levels[i] == 0) {
+                levels[i] = depth(i);
+            }
+        }
+    }
+
+    /**
+     * Builds a tree from a flat list of active location rows.
+     *
+     * @param regionType hierarchy the rows belong to
+     * @param version    opaque change fingerprint of the source tables
+     * @param rows       active locations; {@code level} may be null and is then derived from depth
+     */
+    public static LocationTree build(RegionTypeEnum regionType, String version, List<LocationResponseDTO> rows) {
+        return new LocationTree(regionType, version, rows);
+    }
+
+    public RegionTypeEnum getRegionType() {
+        return regionType;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Returns the active children of {@code parentId}, ordered by title.
+     *
+     * @param parentId parent location id, or null for root-level locations
+     */
+    public List<LocationResponseDTO> children(Integer parentId) {
+        int g = Arrays.binarySearch(groupParentIds, parentId != null ? parentId : NO_PARENT);
+        if (g < 0) {
+            return List.of();
+        }
+        int from = groupOffsets[g];
+        int to = groupOffsets[g + 1];
+        List<LocationResponseDTO> result = new ArrayList<>(to - from);
+        for (int k = from; k < to; k++) {
+            result.add(toDto(childOrder[k]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the chain of ancestors of {@code id}, root first, excluding the location itself.
+     * The chain stops early when an ancestor is not active.
+     *
+     * @return ancestors, or an empty list for root locations
+     * @throws IllegalArgumentException if {@code id} is not an active location in this tree
+     */
+    public List<LocationResponseDTO> ancestors(int id) {
+        int idx = indexOf(id);
+        if (idx < 0) {
+            throw new IllegalArgumentException("Location " + id + " not found");
+        }
+        List<LocationResponseDTO> chain = new ArrayList<>();
+        int parent = indexOf(parentIds[idx]);
+        while (parent >= 0 && chain.size() < ids.length) {
+            chain.add(toDto(parent));
+            parent = indexOf(parentIds[parent]);
+        }
+        Collections.reverse(chain);
+        return chain;
+    }
+
+    /**
+     * Case-insensitive substring search on titles, optionally restricted to the subtree
+     * below {@code rootId}. Matches are ordered by level, then title.
+     *
+     * @param term   search text; blank matches nothing
+     * @param rootId subtree root (exclusive), or null to search the whole tree
+     * @param limit  maximum number of matches
+     */
+    public List<LocationResponseDTO> search(String term, Integer rootId, int limit) {
+        if (term == null || term.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        String needle = term.trim().toLowerCase(Locale.ROOT);
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (searchKeys[i].contains(needle) && (rootId == null || isDescendantOf(i, rootId))) {
+                matches.add(i);
+            }
+        }
+        matches.sort(Comparator.<Integer>comparingInt(i -> levels[i])
+                .thenComparing(i -> titles[i], TITLE_ORDER)
+                .thenComparingInt(i -> ids[i]));
+        List<LocationResponseDTO> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int k = 0; k < matches.size() && k < limit; k++) {
+            result.add(toDto(matches.get(k)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the whole tree in column-oriented form for clients that render the
+     * picker locally. Row {@code i} of every array describes the same location.
+     */
+    public LocationTreeResponseDTO toResponse() {
+        int n = ids.length;
+        int[] childCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            childCounts[i] = childCount(ids[i]);
+        }
+        return LocationTreeResponseDTO.builder()
+                .hierarchyType(regionType.name())
+                .version(version)
+                .size(n)
+                .ids(Arrays.copyOf(ids, n))
+                .parentIds(Arrays.copyOf(parentIds, n))
+                .levels(Arrays.copyOf(levels, n))
+                .childCounts(childCounts)
+                .titles(Arrays.asList(Arrays.copyOf(titles, n)))
+                .lgdCodes(regionType == RegionTypeEnum.LGD ? Arrays.asList(Arrays.copyOf(lgdCodes, n)) : null)
+                .build();
+    }
+
+    int childCount(int id) {
+        int g = Arrays.binarySearch(groupParentIds, id);
+        return g < 0 ? 0 : groupOffsets[g + 1] - groupOffsets[g];
+    }
+
+    private boolean isDescendantOf(int idx, int rootId) {
+        int parentId = parentIds[idx];
+        for (int hops = 0; parentId != NO_PARENT && hops < ids.length; hops++) {
+            if (parentId == rootId) {
+                return true;
+            }
+            int parent = indexOf(parentId);
+            if (parent < 0) {
+                return false;
+            }
+            parentId = parentIds[parent];
+        }
+        return false;
+    }
+
+    private int depth(int idx) {
+        int depth = 1;
+        int parent = indexOf(parentIds[idx]);
+        while (parent >= 0 && depth <= ids.length) {
+            depth++;
+            parent = indexOf(parentIds[parent]);
+        }
+        return depth;
+    }
+
+    private int indexOf(int id) {
+        if (id == NO_PARENT) {
+            return -1;
+        }
+        int idx = Arrays.binarySearch(ids, id);
+        return idx >= 0 ? idx : -1;
+    }
+
+    private LocationResponseDTO toDto(int idx) {
+        return LocationResponseDTO.builder()
+                .id(ids[idx])
+                .uuid(uuids[idx])
+                .title(titles[idx])
+                .lgdCode(lgdCodes[idx])
+                .parentId(parentIds[idx] == NO_PARENT ? null : parentIds[idx])
+                .status(StatusEnum.ACTIVE.getCode())
+                .level(levels[idx])
+                .childCount(childCount(ids[idx]))
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package org.arghyam.jalsoochak.tenant.location;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.arghyam.jalsoochak.tenant.config.properties.LocationTreeProperties;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
+import org.arghyam.jalsoochak.tenant.enums.RegionTypeEnum;
+import org.arghyam.jalsoochak.tenant.enums.TenantStatusEnum;
+import org.arghyam.jalsoochak.tenant.repository.TenantCommonRepository;
+import org.arghyam.jalsoochak.tenant.repository.TenantSchemaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds one {@link LocationTree} per tenant schema and hierarchy type.
+ *
+ * <p>Trees are built for all active tenants once the application is ready, and
+ * lazily for anything requested later. A periodic probe compares each cached
+ * tree's version against a cheap fingerprint of the master table and the
+ * hierarchy's level config, and rebuilds the tree in the background when either
+ * changes; readers keep using the old snapshot until the new one is swapped in.
+ * This is also how other instances pick up a change that {@link #invalidate}
+ * dropped only on the instance that made it.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocationTreeCache {
+
+    private final TenantSchemaRepository tenantSchemaRepository;
+    private final TenantCommonRepository tenantCommonRepository;
+    private final LocationTreeProperties properties;
+
+    private final ConcurrentHashMap<String, LocationTree> trees = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> buildLocks = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int getMaxSearchResults() {
+        return properties.getMaxSearchResults();
+    }
+
+    /**
+     * Returns the cached tree for the given schema and hierarchy, building it on first use.
+     */
+    public LocationTree getTree(String schemaName, RegionTypeEnum regionType) {
+        String key = key(schemaName, regionType);
+        LocationTree tree = trees.get(key);
+        if (tree != null) {
+            return tree;
+        }
+        synchronized (buildLocks.computeIfAbsent(key, k -> new Object())) {
+            tree = trees.get(key);
+            if (tree == null) {
+                tree = load(schemaName, regionType);
+                trees.put(key, tree);
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * Drops both hierarchies of a tenant schema; the next read rebuilds them.
+     */
+    public void invalidate(String schemaName) {
+        for (RegionTypeEnum regionType : RegionTypeEnum.values()) {
+            trees.remove(key(schemaName, regionType));
+        }
+        log.info("[LocationTree] Invalidated location trees [schema={}]", schemaName);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled() || !properties.isWarmOnStartup()) {
+            return;
+        }
+        List<TenantResponseDTO> tenants;
+        try {
+            tenants = tenantCommonRepository.findAll();
+        } catch (Exception e) {
+            log.error("[LocationTree] Failed to list tenants for warm-up", e);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int built = 0;
+        for (TenantResponseDTO tenant : tenants) {
+            if (!isActive(tenant)) {
+                continue;
+            }
+            String schemaName = "tenant_" + tenant.getStateCode().toLowerCase();
+            for (RegionTypeEnum regionType : RegionTypeEnum.values()) {
+                try {
+                    getTree(schemaName, regionType);
+                    built++;
+                } catch (Exception e) {
+                    log.warn("[LocationTree] Warm-up failed [schema={}, type={}]: {}",
+                            schemaName, regionType, e.getMessage());
+                }
+            }
+        }
+        log.info("[LocationTree] Warm-up built {} trees in {} ms", built, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Rebuilds every cached tree whose source table fingerprint has changed.
+     */
+    @Scheduled(fixedDelayString = "${tenant.location-tree.refresh-interval-ms:300000}",
+            initialDelayString = "${tenant.location-tree.refresh-interval-ms:300000}")
+    public void refreshChanged() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Map.Entry<String, LocationTree> entry : trees.entrySet()) {
+            String key = entry.getKey();
+            LocationTree current = entry.getValue();
+            String schemaName = key.substring(0, key.indexOf(':'));
+            RegionTypeEnum regionType = current.getRegionType();
+            try {
+                String fingerprint = tenantSchemaRepository.findLocationFingerprint(schemaName, regionType);
+                if (!fingerprint.equals(current.getVersion())) {
+                    LocationTree rebuilt = load(schemaName, regionType);
+                    trees.replace(key, current, rebuilt);
+                    log.info("[LocationTree] Rebuilt tree after change [schema={}, type={}, size={}]",
+                            schemaName, regionType, rebuilt.size());
+                }
+            } catch (Exception e) {
+                log.warn("[LocationTree] Refresh failed [schema={}, type={}]: {}",
+                        schemaName, regionType, e.getMessage());
+            }
+        }
+    }
+
+    private LocationTree load(String schemaName, RegionTypeEnum regionType) {
+        long start = System.currentTimeMillis();
+        // Read the fingerprint first: a change that lands between the two queries then
+        // leaves the tree with a stale version and is picked up by the next refresh.
+        String fingerprint = tenantSchemaRepository.findLocationFingerprint(schemaName, regionType);
+        List<LocationResponseDTO> rows = tenantSchemaRepository.findAllActiveLocations(schemaName, regionType);
+        LocationTree tree = LocationTree.build(regionType, fingerprint, rows);
+        log.info("[LocationTree] Built tree [schema={}, type={}, size={}] in {} ms",
+                schemaName, regionType, tree.size(), System.currentTimeMillis() - start);
+        return tree;
+    }
+
+    private static boolean isActive(TenantResponseDTO tenant) {
+        String status = tenant.getStatus();
+        return status != null
+                && tenant.getStateCode() != null && !tenant.getStateCode().isBlank()
+                && !TenantStatusEnum.INACTIVE.name().equals(status)
+                && !TenantStatusEnum.SUSPENDED.name().equals(status)
+                && !TenantStatusEnum.ARCHIVED.name().equals(status);
+    }
+
+    private static String key(String schemaName, RegionTypeEnum regionType) {
+        return schemaName + ":" + regionType.name();
+    }
+}
@@ -0,0 +1,33 @@
+package org.arghyam.jalsoochak.tenant.migration;
+
+import java.util.regex.Pattern;
+
+/**
+ * One versioned tenant schema migration script.
+ *
+ * <p>The script is written against the placeholder {@code ${schema}}, which is replaced
+ * with the (validated) tenant schema name before execution.</p>
+ *
+ * @param version     migration version, unique and ascending
+ * @param description human-readable description taken from the file name
+ * @param script      SQL with {@code ${schema}} placeholders
+ * @param checksum    SHA-256 hex of {@code script}
+ */
+public record TenantMigration(int version, String description, String script, String checksum) {
+
+    static final String SCHEMA_PLACEHOLDER = "${schema}";
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("^tenant_[a-z0-9_]+$");
+
+    /**
+     * Returns the script with every placeholder replaced by {@code schemaName}.
+     *
+     * @throws IllegalArgumentException if {@code schemaName} is not a tenant schema name
+     */
+    public String render(String schemaName) {
+        if (schemaName == null || !SCHEMA_NAME.matcher(schemaName).matches()) {
+            throw new IllegalArgumentException("Invalid tenant schema name: " + schemaName);
+        }
+        return script.replace(SCHEMA_PLACEHOLDER, schemaName);
+    }
+}
@@ -0,0 +1,104 @@
+package org.arghyam.jalsoochak.tenant.migration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.arghyam.jalsoochak.tenant.config.properties.TenantMigrationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads tenant migration scripts from the classpath once and keeps them ordered by version.
+ *
+ * <p>Scripts are named {@code T<version>__<description>.sql}; the build copies them from
+ * {@code backend/database/tenant}. Duplicate versions fail fast at startup.</p>
+ */
+@Component
+@Slf4j
+public class TenantMigrationLoader {
+
+    private static final Pattern FILE_NAME = Pattern.compile("^T(\\d+)__(.+)\\.sql$");
+
+    private final List<TenantMigration> migrations;
+
+    public TenantMigrationLoader(TenantMigrationProperties properties) {
+        this(new PathMatchingResourcePatternResolver(), properties.getLocations());
+    }
+
+    TenantMigrationLoader(ResourcePatternResolver resolver, String locations) {
+        this.migrations = load(resolver, locations);
+        log.info("[TenantMigration] Loaded {} tenant migrations (latest version {})",
+                migrations.size(), getLatestVersion());
+    }
+
+    /** All migrations, ascending by version. */
+    public List<TenantMigration> getMigrations() {
+        return migrations;
+    }
+
+    /** Highest known migration version, or 0 when there are none. */
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+    }
+
+    private static List<TenantMigration> load(ResourcePatternResolver resolver, String locations) {
+        Resource[] resources;
+        try {
+            resources = resolver.getResources(locations);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to list tenant migrations at " + locations, e);
+        }
+        Map<Integer, String> seen = new HashMap<>();
+        List<TenantMigration> result = new ArrayList<>();
+        for (Resource resource : resources) {
+            String fileName = resource.getFilename();
+            Matcher matcher = fileName != null ? FILE_NAME.matcher(fileName) : null;
+            if (matcher == null || !matcher.matches()) {
+                log.warn("[TenantMigration] Ignoring resource with unexpected name: {}", fileName);
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            String previous = seen.putIfAbsent(version, fileName);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate tenant migration version " + version
+                        + ": " + previous + " and " + fileName);
+            }
+            String script = read(resource);
+            result.add(new TenantMigration(version, matcher.group(2).replace('_', ' '), script, sha256(script)));
+        }
+        result.sort(Comparator.comparingInt(TenantMigration::version));
+        return List.copyOf(result);
+    }
+
+    private static String read(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read tenant migration " + resource.getFilename(), e);
+        }
+    }
+
+    private static String sha256(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
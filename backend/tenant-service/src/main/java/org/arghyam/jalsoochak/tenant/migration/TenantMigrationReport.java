@@ -0,0 +1,20 @@
+package org.arghyam.jalsoochak.tenant.migration;
+
+import java.util.Map;
+
+/**
+ * Outcome of one run of the tenant migration runner over all tenant schemas.
+ *
+ * @param latestVersion highest known migration version
+ * @param schemas       number of tenant schemas found
+ * @param migrated      number of schemas that had pending migrations applied
+ * @param failures      schema name to error message, for schemas left behind
+ * @param durationMs    wall-clock duration of the run
+ */
+public record TenantMigrationReport(int latestVersion, int schemas, int migrated,
+                                    Map<String, String> failures, long durationMs) {
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+package org.arghyam.jalsoochak.tenant.repository;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.arghyam.jalsoochak.tenant.migration.TenantMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository for {@code common_schema.tenant_schema_migration_table} and for executing
+ * tenant migration scripts. Every method runs on the caller's transaction, if any.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TenantMigrationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lists every existing tenant schema, including those of inactive tenants.
+     */
+    public List<String> findTenantSchemas() {
+        return jdbcTemplate.queryForList("""
+                SELECT nspname FROM pg_namespace
+                WHERE nspname LIKE 'tenant\\_%' ESCAPE '\\'
+                ORDER BY nspname
+                """, String.class);
+    }
+
+    /**
+     * Returns whether the given schema exists.
+     */
+    public boolean schemaExists(String schemaName) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_namespace WHERE nspname = ?)", Boolean.class, schemaName);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Returns the highest applied migration version of a schema, or 0 if none.
+     */
+    public int findCurrentVersion(String schemaName) {
+        Integer version = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(MAX(version), 0)
+                FROM common_schema.tenant_schema_migration_table
+                WHERE schema_name = ?
+                """, Integer.class, schemaName);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Returns the current migration version of every schema with at least one applied migration.
+     */
+    public Map<String, Integer> findAllCurrentVersions() {
+        Map<String, Integer> versions = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT schema_name, MAX(version) AS version
+                FROM common_schema.tenant_schema_migration_table
+                GROUP BY schema_name
+                ORDER BY schema_name
+                """, rs -> {
+            versions.put(rs.getString("schema_name"), rs.getInt("version"));
+        });
+        return versions;
+    }
+
+    /**
+     * Returns the recorded checksum of every migration applied to a schema, by version.
+     * Rows without a checksum are left out.
+     */
+    public Map<Integer, String> findAppliedChecksums(String schemaName) {
+        Map<Integer, String> checksums = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT version, checksum
+                FROM common_schema.tenant_schema_migration_table
+                WHERE schema_name = ? AND checksum IS NOT NULL
+                """, rs -> {
+            checksums.put(rs.getInt("version"), rs.getString("checksum"));
+        }, schemaName);
+        return checksums;
+    }
+
+    /**
+     * Returns every distinct checksum recorded for each migration version, across all schemas.
+     * Rows without a checksum are left out.
+     */
+    public Map<Integer, Set<String>> findDistinctChecksums() {
+        Map<Integer, Set<String>> checksums = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT DISTINCT version, checksum
+                FROM common_schema.tenant_schema_migration_table
+                WHERE checksum IS NOT NULL
+                """, rs -> {
+            checksums.computeIfAbsent(rs.getInt("version"), v -> new TreeSet<>()).add(rs.getString("checksum"));
+        });
+        return checksums;
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock on the schema. Concurrent migrations of the
+     * same schema, from this or another instance, wait until the holder commits.
+     */
+    public void lockSchema(String schemaName) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext('tenant_schema_migration'), hashtext(?))",
+                rs -> { }, schemaName);
+    }
+
+    /**
+     * Executes a rendered migration script (may contain several statements).
+     */
+    public void execute(String sql) {
+        jdbcTemplate.execute(sql);
+    }
+
+    /**
+     * Records a successfully applied migration.
+     */
+    public void recordMigration(String schemaName, TenantMigration migration, long executionMs) {
+        jdbcTemplate.update("""
+                INSERT INTO common_schema.tenant_schema_migration_table
+                    (schema_name, version, description, checksum, execution_ms, applied_at)
+                VALUES (?, ?, ?, ?, ?, NOW())
+                """, schemaName, migration.version(), migration.description(), migration.checksum(), executionMs);
+    }
+}
@@ -0,0 +1,102 @@
+package org.arghyam.jalsoochak.tenant.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.arghyam.jalsoochak.tenant.dto.response.TenantOnboardingJobResponseDTO;
+import org.arghyam.jalsoochak.tenant.enums.OnboardingJobStatusEnum;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository for {@code common_schema.tenant_onboarding_job_table}.
+ * Status updates are single auto-committed statements so pollers see them immediately.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TenantOnboardingJobRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<TenantOnboardingJobResponseDTO> JOB_ROW_MAPPER = (rs, rowNum) ->
+            TenantOnboardingJobResponseDTO.builder()
+                    .jobId(rs.getString("uuid"))
+                    .stateCode(rs.getString("state_code"))
+                    .status(rs.getString("status"))
+                    .tenantId((Integer) rs.getObject("tenant_id"))
+                    .schemaVersion((Integer) rs.getObject("schema_version"))
+                    .errorMessage(rs.getString("error_message"))
+                    .createdAt(rs.getTimestamp("created_at") != null
+                            ? rs.getTimestamp("created_at").toLocalDateTime()
+                            : null)
+                    .startedAt(rs.getTimestamp("started_at") != null
+                            ? rs.getTimestamp("started_at").toLocalDateTime()
+                            : null)
+                    .completedAt(rs.getTimestamp("completed_at") != null
+                            ? rs.getTimestamp("completed_at").toLocalDateTime()
+                            : null)
+                    .build();
+
+    /**
+     * Inserts a PENDING job. Fails with a duplicate-key error if a job for the same
+     * state code is already PENDING or RUNNING.
+     */
+    public TenantOnboardingJobResponseDTO create(String stateCode, String requestedBy) {
+        List<TenantOnboardingJobResponseDTO> rows = jdbcTemplate.query("""
+                INSERT INTO common_schema.tenant_onboarding_job_table
+                    (state_code, status, requested_by, created_at, updated_at)
+                VALUES (?, ?, ?, NOW(), NOW())
+                RETURNING *
+                """, JOB_ROW_MAPPER, stateCode, OnboardingJobStatusEnum.PENDING.name(), requestedBy);
+        return rows.get(0);
+    }
+
+    public Optional<TenantOnboardingJobResponseDTO> findByJobId(String jobId) {
+        return jdbcTemplate.query(
+                "SELECT * FROM common_schema.tenant_onboarding_job_table WHERE uuid = ?",
+                JOB_ROW_MAPPER, jobId).stream().findFirst();
+    }
+
+    public void markRunning(String jobId) {
+        jdbcTemplate.update("""
+                UPDATE common_schema.tenant_onboarding_job_table
+                SET status = ?, started_at = NOW(), updated_at = NOW()
+                WHERE uuid = ?
+                """, OnboardingJobStatusEnum.RUNNING.name(), jobId);
+    }
+
+    public void markCompleted(String jobId, Integer tenantId, int schemaVersion) {
+        jdbcTemplate.update("""
+                UPDATE common_schema.tenant_onboarding_job_table
+                SET status = ?, tenant_id = ?, schema_version = ?, completed_at = NOW(), updated_at = NOW()
+                WHERE uuid = ?
+                """, OnboardingJobStatusEnum.COMPLETED.name(), tenantId, schemaVersion, jobId);
+    }
+
+    public void markFailed(String jobId, String errorMessage) {
+        jdbcTemplate.update("""
+                UPDATE common_schema.tenant_onboarding_job_table
+                SET status = ?, error_message = ?, completed_at = NOW(), updated_at = NOW()
+                WHERE uuid = ?
+                """, OnboardingJobStatusEnum.FAILED.name(), errorMessage, jobId);
+    }
+
+    /**
+     * Marks PENDING or RUNNING jobs that have not progressed for {@code timeoutMs} as FAILED,
+     * releasing their state code for a new attempt.
+     *
+     * @return number of jobs marked FAILED
+     */
+    public int failStaleJobs(long timeoutMs) {
+        return jdbcTemplate.update("""
+                UPDATE common_schema.tenant_onboarding_job_table
+                SET status = ?, error_message = 'Onboarding did not finish in time', completed_at = NOW(), updated_at = NOW()
+                WHERE status IN (?, ?)
+                  AND updated_at < NOW() - (? * INTERVAL '1 millisecond')
+                """, OnboardingJobStatusEnum.FAILED.name(),
+                OnboardingJobStatusEnum.PENDING.name(), OnboardingJobStatusEnum.RUNNING.name(), timeoutMs);
+    }
+}
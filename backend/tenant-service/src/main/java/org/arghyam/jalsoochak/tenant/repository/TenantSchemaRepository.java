@@ -342,5 +342,74 @@ public class TenantSchemaRepository {
                 log.debug("Fetching department locations from schema: {} with parentId: {}", schemaName, parentId);
                 return jdbcTemplate.query(sql, DEPT_LOCATION_ROW_MAPPER, params);
         }
-}
 
+        /**
+         * Fetches every active location of the given hierarchy in a single scan, ordered by id.
+         * The level is taken from the linked location config row when present; the caller
+         * derives it from tree depth otherwise.
+         *
+         * @param schemaName Schema name (e.g., "tenant_mp")
+         * @param regionType LGD or DEPARTMENT
+         * @return All active locations with {@code level} populated where known
+         */
+        public List<LocationResponseDTO> findAllActiveLocations(String schemaName, RegionTypeEnum regionType) {
+                validateSchemaName(schemaName);
+                boolean lgd = regionType == RegionTypeEnum.LGD;
+                String sql = String.format(
+                                """
+                                SELECT l.id, l.uuid, l.title, %s AS lgd_code, l.parent_id, l.status, c.level
+                                FROM %s.%s l
+                                LEFT JOIN %s.location_config_master_table c ON c.id = l.%s
+                                WHERE l.status = %d
+                                ORDER BY l.id
+                                """,
+                                lgd ? "l.lgd_code" : "NULL",
+                                schemaName, lgd ? "lgd_location_master_table" : "department_location_master_table",
+                                schemaName, lgd ? "lgd_location_config_id" : "department_location_config_id",
+                                StatusEnum.ACTIVE.getCode());
+
+                log.debug("Loading all active {} locations from schema: {}", regionType, schemaName);
+                return jdbcTemplate.query(sql, (rs, rowNum) -> LocationResponseDTO.builder()
+                                .id(rs.getInt("id"))
+                                .uuid(rs.getString("uuid"))
+                                .title(rs.getString("title"))
+                                .lgdCode(rs.getString("lgd_code"))
+                                .parentId((Integer) rs.getObject("parent_id"))
+                                .status(rs.getInt("status"))
+                                .level((Integer) rs.getObject("level"))
+                                .build());
+        }
+
+        /**
+         * Returns a cheap change fingerprint for a location master table: row count, max id
+         * and latest {@code updated_at}/{@code deleted_at}. Any insert, update or soft delete
+         * done through the usual audit columns changes the fingerprint.
+         *
+         * <p>The same figures for the hierarchy's rows in {@code location_config_master_table}
+         * are appended, since node levels and level names come from there: a rewrite (new ids)
+         * or a rename ({@code updated_at}) changes the fingerprint too.</p>
+         *
+         * @param schemaName Schema name (e.g., "tenant_mp")
+         * @param regionType LGD or DEPARTMENT
+         * @return Opaque fingerprint string
+         */
+        public String findLocationFingerprint(String schemaName, RegionTypeEnum regionType) {
+                validateSchemaName(schemaName);
+                String tableName = regionType == RegionTypeEnum.LGD
+                                ? "lgd_location_master_table"
+                                : "department_location_master_table";
+                String sql = String.format(
+                                """
+                                SELECT (SELECT COUNT(*) || '-' || COALESCE(MAX(id), 0) || '-'
+                                               || COALESCE(FLOOR(EXTRACT(EPOCH FROM GREATEST(MAX(updated_at), MAX(deleted_at))) * 1000)::BIGINT, 0)
+                                        FROM %1$s.%2$s)
+                                       || '.' ||
+                                       (SELECT COUNT(*) || '-' || COALESCE(MAX(id), 0) || '-'
+                                               || COALESCE(FLOOR(EXTRACT(EPOCH FROM MAX(updated_at)) * 1000)::BIGINT, 0)
+                                        FROM %1$s.location_config_master_table
+                                        WHERE region_type = ?)
+                                """,
+                                schemaName, tableName);
+                return jdbcTemplate.queryForObject(sql, String.class, regionType.getCode());
+        }
+}
@@ -2,6 +2,7 @@ package org.arghyam.jalsoochak.tenant.service;
 
 import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
 import org.arghyam.jalsoochak.tenant.event.NudgeEvent;
+import org.arghyam.jalsoochak.tenant.event.NudgeOptInBatchEvent;
 import org.arghyam.jalsoochak.tenant.kafka.KafkaProducer;
 import org.arghyam.jalsoochak.tenant.repository.NudgeRepository;
 import org.arghyam.jalsoochak.tenant.repository.TenantCommonRepository;
@@ -11,6 +12,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,7 +21,9 @@ import java.util.Map;
  * on each tenant's individual schedule.
  *
  * <p>Sends a WhatsApp nudge to every operator who has not yet submitted a
- * reading for the current day.</p>
+ * reading for the current day. Operators without a Glific contact are first
+ * listed in {@code NUDGE_OPT_IN_BATCH} events, so message-service can opt them
+ * in together before their nudges arrive; their nudges are held back until then.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -26,12 +31,14 @@ import java.util.Map;
 public class NudgeSchedulerService {
 
     private static final String COMMON_TOPIC = "common-topic";
+    private static final int OPT_IN_BATCH_SIZE = 200;
 
     private final TenantCommonRepository tenantCommonRepository;
     private final NudgeRepository nudgeRepository;
     private final KafkaProducer kafkaProducer;
 
     public void processNudgesForTenant(String schema, int tenantId) {
+        List<NudgeEvent> unregistered = new ArrayList<>();
         int total = nudgeRepository.streamUsersWithNoUploadToday(schema, LocalDate.now(), row -> {
             String phone = (String) row.get("phone_number");
             long whatsappId = row.get("whatsapp_connection_id") != null
@@ -48,9 +55,32 @@ public class NudgeSchedulerService {
                     .whatsappConnectionId(whatsappId)
                     .tenantSchema(schema)
                     .build();
-            kafkaProducer.publishJson(COMMON_TOPIC, event);
-            log.debug("[NudgeJob] Published NudgeEvent for userId={}", row.get("user_id"));
+            if (whatsappId == 0L) {
+                unregistered.add(event);
+                return;
+            }
+            publishNudge(event);
         });
-        log.info("[NudgeJob] schema={} → {} users have no upload today", schema, total);
+
+        for (int from = 0; from < unregistered.size(); from += OPT_IN_BATCH_SIZE) {
+            List<NudgeOptInBatchEvent.Recipient> recipients = unregistered
+                    .subList(from, Math.min(from + OPT_IN_BATCH_SIZE, unregistered.size())).stream()
+                    .map(e -> new NudgeOptInBatchEvent.Recipient(e.getUserId(), e.getRecipientPhone()))
+                    .toList();
+            kafkaProducer.publishJson(COMMON_TOPIC, NudgeOptInBatchEvent.builder()
+                    .eventType("NUDGE_OPT_IN_BATCH")
+                    .tenantId(tenantId)
+                    .tenantSchema(schema)
+                    .recipients(recipients)
+                    .build());
+        }
+        unregistered.forEach(this::publishNudge);
+        log.info("[NudgeJob] schema={} → {} users have no upload today, {} without a WhatsApp contact",
+                schema, total, unregistered.size());
+    }
+
+    private void publishNudge(NudgeEvent event) {
+        kafkaProducer.publishJson(COMMON_TOPIC, event);
+        log.debug("[NudgeJob] Published NudgeEvent for userId={}", event.getUserId());
     }
 }
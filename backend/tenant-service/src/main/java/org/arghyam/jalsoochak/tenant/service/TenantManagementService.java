@@ -11,6 +11,7 @@ import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigStatusResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantSummaryResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationTreeResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyEditConstraintsResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.internal.LocationLevelConfigDTO;
@@ -136,6 +137,37 @@ public interface TenantManagementService {
      */
     List<LocationResponseDTO> getLocationChildren(Integer tenantId, String hierarchyType, Integer parentId);
 
+    /**
+     * Gets the ancestors of a location, root first, served from the in-memory hierarchy tree.
+     *
+     * @param hierarchyType Type of hierarchy: LGD or DEPARTMENT
+     * @param locationId    Location whose ancestors are requested
+     * @return Ancestor location records, excluding the location itself.
+     */
+    List<LocationResponseDTO> getLocationAncestors(Integer tenantId, String hierarchyType, Integer locationId);
+
+    /**
+     * Searches location titles (case-insensitive substring), optionally within the subtree of a location.
+     *
+     * @param hierarchyType Type of hierarchy: LGD or DEPARTMENT
+     * @param query         Search text
+     * @param rootId        Subtree root (null to search the whole hierarchy)
+     * @param limit         Maximum number of matches; null for the configured maximum
+     *                      ({@code tenant.location-tree.max-search-results})
+     * @throws IllegalArgumentException if {@code limit} exceeds the configured maximum
+     * @return Matching location records ordered by level, then title.
+     */
+    List<LocationResponseDTO> searchLocations(Integer tenantId, String hierarchyType, String query,
+            Integer rootId, Integer limit);
+
+    /**
+     * Gets the whole location hierarchy in one column-oriented payload.
+     *
+     * @param hierarchyType Type of hierarchy: LGD or DEPARTMENT
+     * @return Hierarchy snapshot with its version.
+     */
+    LocationTreeResponseDTO getLocationTree(Integer tenantId, String hierarchyType);
+
     /**
      * Returns edit constraints for the given location hierarchy type.
      * Tells the caller whether structural changes (add/remove levels) are permitted,
@@ -0,0 +1,39 @@
+package org.arghyam.jalsoochak.tenant.service;
+
+import java.util.Map;
+
+import org.arghyam.jalsoochak.tenant.migration.TenantMigrationReport;
+
+/**
+ * Applies versioned tenant migrations ({@code backend/database/tenant/T*.sql}) to
+ * {@code tenant_*} schemas and tracks the applied version of each schema.
+ */
+public interface TenantMigrationService {
+
+    /**
+     * Brings every tenant schema up to the latest migration version. Schemas are migrated
+     * in parallel; a failure in one schema does not stop the others.
+     *
+     * @return summary of the run
+     */
+    TenantMigrationReport migrateAll();
+
+    /**
+     * Applies all pending migrations to one schema. Joins the caller's transaction if there is
+     * one, which lets onboarding migrate a schema it has just provisioned but not yet committed.
+     *
+     * @param schemaName tenant schema name
+     * @return the schema's migration version afterwards
+     */
+    int migrateSchema(String schemaName);
+
+    /**
+     * Returns the applied migration version of every tenant schema (0 for none applied).
+     */
+    Map<String, Integer> getSchemaVersions();
+
+    /**
+     * Returns the highest known migration version.
+     */
+    int getLatestVersion();
+}
@@ -0,0 +1,28 @@
+package org.arghyam.jalsoochak.tenant.service;
+
+import org.arghyam.jalsoochak.tenant.dto.request.CreateTenantRequestDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantOnboardingJobResponseDTO;
+
+/**
+ * Runs tenant onboarding (tenant record, schema provisioning, tenant migrations and
+ * default configuration) as a background job whose status can be polled.
+ */
+public interface TenantOnboardingService {
+
+    /**
+     * Validates the request and queues an onboarding job.
+     *
+     * @param request Tenant creation request.
+     * @return The queued job (status PENDING).
+     * @throws IllegalStateException if the tenant already exists or is already being onboarded
+     */
+    TenantOnboardingJobResponseDTO submit(CreateTenantRequestDTO request);
+
+    /**
+     * Returns the current status of an onboarding job.
+     *
+     * @param jobId Job ID returned by {@link #submit(CreateTenantRequestDTO)}.
+     * @throws org.arghyam.jalsoochak.tenant.exception.ResourceNotFoundException if the job does not exist
+     */
+    TenantOnboardingJobResponseDTO getJob(String jobId);
+}
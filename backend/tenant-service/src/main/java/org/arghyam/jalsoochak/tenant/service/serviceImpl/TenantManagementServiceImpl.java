@@ -33,6 +33,7 @@ import org.arghyam.jalsoochak.tenant.dto.request.UpdateTenantRequestDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyEditConstraintsResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationTreeResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigStatusResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
@@ -50,11 +51,14 @@ import org.arghyam.jalsoochak.tenant.exception.InvalidConfigKeyException;
 import org.arghyam.jalsoochak.tenant.exception.InvalidConfigValueException;
 import org.arghyam.jalsoochak.tenant.exception.ResourceNotFoundException;
 import org.arghyam.jalsoochak.tenant.exception.StorageException;
+import org.arghyam.jalsoochak.tenant.location.LocationTree;
+import org.arghyam.jalsoochak.tenant.location.LocationTreeCache;
 import org.arghyam.jalsoochak.tenant.storage.ObjectStorageService;
 import org.springframework.web.multipart.MultipartFile;
 import org.arghyam.jalsoochak.tenant.repository.TenantCommonRepository;
 import org.arghyam.jalsoochak.tenant.repository.TenantSchemaRepository;
 import org.arghyam.jalsoochak.tenant.service.TenantManagementService;
+import org.arghyam.jalsoochak.tenant.service.TenantMigrationService;
 import org.arghyam.jalsoochak.tenant.service.TenantSchedulerManager;
 import org.arghyam.jalsoochak.tenant.util.SecurityUtils;
 import org.arghyam.jalsoochak.tenant.util.TenantConstants;
@@ -83,6 +87,8 @@ public class TenantManagementServiceImpl implements TenantManagementService {
     private final ApplicationEventPublisher eventPublisher;
     private final TenantSchedulerManager schedulerManager;
     private final ObjectStorageService objectStorageService;
+    private final LocationTreeCache locationTreeCache;
+    private final TenantMigrationService tenantMigrationService;
 
 
     // TODO: Re-enable "image/svg+xml" only after implementing SVG sanitization and serving from an isolated origin.
@@ -109,6 +115,9 @@ public class TenantManagementServiceImpl implements TenantManagementService {
         tenantCommonRepository.provisionTenantSchema(schemaName);
         log.info("Tenant schema '{}' provisioned successfully", schemaName);
 
+        int schemaVersion = tenantMigrationService.migrateSchema(schemaName);
+        log.info("Tenant schema '{}' migrated to version {}", schemaName, schemaVersion);
+
         setDefaultConfigs(tenant, schemaName, currentUserId);
         eventPublisher.publishEvent(new TenantCreatedEvent(tenant, schemaName));
 
@@ -412,7 +421,9 @@ public class TenantManagementServiceImpl implements TenantManagementService {
             RegionTypeEnum regionType = RegionTypeEnum.valueOf(hierarchyType.toUpperCase());
             
             List<LocationResponseDTO> children;
-            if (RegionTypeEnum.LGD.equals(regionType)) {
+            if (locationTreeCache.isEnabled()) {
+                children = locationTreeCache.getTree(schemaName, regionType).children(parentId);
+            } else if (RegionTypeEnum.LGD.equals(regionType)) {
                 children = tenantSchemaRepository.findLgdLocationsByParentId(schemaName, parentId);
             } else if (RegionTypeEnum.DEPARTMENT.equals(regionType)) {
                 children = tenantSchemaRepository.findDepartmentLocationsByParentId(schemaName, parentId);
@@ -431,6 +442,49 @@ public class TenantManagementServiceImpl implements TenantManagementService {
     }
 
 
+    @Override
+    public List<LocationResponseDTO> getLocationAncestors(Integer tenantId, String hierarchyType, Integer locationId) {
+        log.info("Fetching location ancestors [id={}, hierarchyType={}, locationId={}]", tenantId, hierarchyType, locationId);
+        LocationTree tree = resolveLocationTree(tenantId, hierarchyType);
+        if (locationId == null || !tree.contains(locationId)) {
+            throw new ResourceNotFoundException(
+                    "Location " + locationId + " not found in " + hierarchyType.toUpperCase() + " hierarchy of tenant [id=" + tenantId + "]");
+        }
+        return tree.ancestors(locationId);
+    }
+
+    @Override
+    public List<LocationResponseDTO> searchLocations(Integer tenantId, String hierarchyType, String query,
+            Integer rootId, Integer limit) {
+        log.info("Searching locations [id={}, hierarchyType={}, rootId={}]", tenantId, hierarchyType, rootId);
+        int maxResults = locationTreeCache.getMaxSearchResults();
+        if (limit != null && limit > maxResults) {
+            throw new IllegalArgumentException("limit must not exceed " + maxResults);
+        }
+        LocationTree tree = resolveLocationTree(tenantId, hierarchyType);
+        int effectiveLimit = limit == null ? maxResults : Math.max(limit, 1);
+        return tree.search(query, rootId, effectiveLimit);
+    }
+
+    @Override
+    public LocationTreeResponseDTO getLocationTree(Integer tenantId, String hierarchyType) {
+        log.info("Fetching whole location tree [id={}, hierarchyType={}]", tenantId, hierarchyType);
+        return resolveLocationTree(tenantId, hierarchyType).toResponse();
+    }
+
+    private LocationTree resolveLocationTree(Integer tenantId, String hierarchyType) {
+        validateNotSystemTenant(tenantId);
+
+        TenantResponseDTO tenant = tenantCommonRepository.findById(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Tenant with tenantId " + tenantId + " does not exist"));
+
+        RegionTypeEnum regionType = resolveRegionType(hierarchyType);
+        String schemaName = "tenant_" + tenant.getStateCode().toLowerCase();
+        return locationTreeCache.getTree(schemaName, regionType);
+    }
+
+
     @Override
     public LocationHierarchyEditConstraintsResponseDTO getLocationHierarchyEditConstraints(
             Integer tenantId, String hierarchyType) {
@@ -497,6 +551,19 @@ public class TenantManagementServiceImpl implements TenantManagementService {
             tenantSchemaRepository.updateLevelNames(schemaName, regionType, levels, currentUserId);
         }
 
+        // Node levels are derived from the hierarchy config, so cached trees are rebuilt once the change commits.
+        // Other instances see the config change in the tree fingerprint on their next refresh.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    locationTreeCache.invalidate(schemaName);
+                }
+            });
+        } else {
+            locationTreeCache.invalidate(schemaName);
+        }
+
         log.info("Location hierarchy updated successfully [id={}, hierarchyType={}, structuralChange={}]",
                 tenantId, hierarchyType, isStructuralChange);
 
@@ -0,0 +1,204 @@
+package org.arghyam.jalsoochak.tenant.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.arghyam.jalsoochak.tenant.config.properties.TenantMigrationProperties;
+import org.arghyam.jalsoochak.tenant.exception.ConfigurationException;
+import org.arghyam.jalsoochak.tenant.migration.TenantMigration;
+import org.arghyam.jalsoochak.tenant.migration.TenantMigrationLoader;
+import org.arghyam.jalsoochak.tenant.migration.TenantMigrationReport;
+import org.arghyam.jalsoochak.tenant.repository.TenantMigrationRepository;
+import org.arghyam.jalsoochak.tenant.service.TenantMigrationService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tenant migration runner.
+ *
+ * <p>Each migration runs in its own transaction (or the caller's) together with its history
+ * row, so a schema is never left between versions. Two locks guard a schema: an in-process
+ * lock keeps concurrent callers in this instance from tying up pooled connections while they
+ * wait, and a transaction-scoped Postgres advisory lock serialises instances that start at
+ * the same time. The version is re-read under the advisory lock, so a migration already
+ * applied by another instance is skipped.</p>
+ *
+ * <p>Before anything is applied, the checksum recorded for each applied version is compared
+ * with the script shipped now. A script edited after it was applied is a deployment error:
+ * the run fails with a {@link ConfigurationException} instead of leaving schemas that claim
+ * a version whose SQL they never ran.</p>
+ */
+@Service
+@Slf4j
+public class TenantMigrationServiceImpl implements TenantMigrationService {
+
+    private final TenantMigrationRepository tenantMigrationRepository;
+    private final TenantMigrationLoader migrationLoader;
+    private final TenantMigrationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, ReentrantLock> schemaLocks = new ConcurrentHashMap<>();
+
+    public TenantMigrationServiceImpl(TenantMigrationRepository tenantMigrationRepository,
+                                      TenantMigrationLoader migrationLoader,
+                                      TenantMigrationProperties properties,
+                                      PlatformTransactionManager transactionManager) {
+        this.tenantMigrationRepository = tenantMigrationRepository;
+        this.migrationLoader = migrationLoader;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!properties.isRunOnStartup()) {
+            return;
+        }
+        try {
+            migrateAll();
+        } catch (Exception e) {
+            log.error("[TenantMigration] Startup migration run failed", e);
+        }
+    }
+
+    @Override
+    public TenantMigrationReport migrateAll() {
+        long start = System.currentTimeMillis();
+        validateChecksums("tenant schemas", tenantMigrationRepository.findDistinctChecksums());
+        int latest = migrationLoader.getLatestVersion();
+        List<String> schemas = tenantMigrationRepository.findTenantSchemas();
+        Map<String, Integer> versions = tenantMigrationRepository.findAllCurrentVersions();
+        List<String> pending = schemas.stream()
+                .filter(schema -> versions.getOrDefault(schema, 0) < latest)
+                .toList();
+
+        Map<String, String> failures = new LinkedHashMap<>();
+        if (!pending.isEmpty()) {
+            int threads = Math.min(properties.getParallelism(), pending.size());
+            log.info("[TenantMigration] Migrating {} of {} tenant schemas to version {} [threads={}]",
+                    pending.size(), schemas.size(), latest, threads);
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads,
+                    Thread.ofPlatform().name("tenant-migration-", 1).factory());
+            try {
+                Map<String, Future<Integer>> futures = new LinkedHashMap<>();
+                for (String schema : pending) {
+                    futures.put(schema, executor.submit(() -> migratePending(schema)));
+                }
+                for (Map.Entry<String, Future<Integer>> entry : futures.entrySet()) {
+                    try {
+                        entry.getValue().get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        failures.put(entry.getKey(), cause.getMessage());
+                        log.error("[TenantMigration] Failed to migrate schema {}", entry.getKey(), cause);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failures.put(entry.getKey(), "Interrupted");
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        TenantMigrationReport report = new TenantMigrationReport(latest, schemas.size(),
+                pending.size() - failures.size(), failures, System.currentTimeMillis() - start);
+        log.info("[TenantMigration] Run finished [schemas={}, migrated={}, failed={}] in {} ms",
+                report.schemas(), report.migrated(), failures.size(), report.durationMs());
+        return report;
+    }
+
+    @Override
+    public int migrateSchema(String schemaName) {
+        Map<Integer, Set<String>> applied = new LinkedHashMap<>();
+        tenantMigrationRepository.findAppliedChecksums(schemaName)
+                .forEach((version, checksum) -> applied.put(version, Set.of(checksum)));
+        validateChecksums(schemaName, applied);
+        return migratePending(schemaName);
+    }
+
+    private int migratePending(String schemaName) {
+        ReentrantLock lock = schemaLocks.computeIfAbsent(schemaName, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            int version = tenantMigrationRepository.findCurrentVersion(schemaName);
+            for (TenantMigration migration : migrationLoader.getMigrations()) {
+                if (migration.version() > version) {
+                    apply(schemaName, migration);
+                    version = migration.version();
+                }
+            }
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Integer> getSchemaVersions() {
+        Map<String, Integer> applied = tenantMigrationRepository.findAllCurrentVersions();
+        Map<String, Integer> versions = new LinkedHashMap<>();
+        for (String schema : tenantMigrationRepository.findTenantSchemas()) {
+            versions.put(schema, applied.getOrDefault(schema, 0));
+        }
+        return versions;
+    }
+
+    @Override
+    public int getLatestVersion() {
+        return migrationLoader.getLatestVersion();
+    }
+
+    /**
+     * Fails if a recorded checksum differs from the current script of that version.
+     *
+     * @param scope   what was checked, for the error message
+     * @param applied recorded checksums by version
+     */
+    private void validateChecksums(String scope, Map<Integer, Set<String>> applied) {
+        List<String> mismatches = new ArrayList<>();
+        for (TenantMigration migration : migrationLoader.getMigrations()) {
+            Set<String> recorded = applied.get(migration.version());
+            if (recorded != null && recorded.stream().anyMatch(c -> !c.equals(migration.checksum()))) {
+                mismatches.add("T" + migration.version() + " (" + migration.description() + ")");
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new ConfigurationException("Tenant migration checksum mismatch in " + scope + " for "
+                    + String.join(", ", mismatches)
+                    + ": the script was changed after it was applied; add a new migration instead");
+        }
+    }
+
+    private void apply(String schemaName, TenantMigration migration) {
+        String sql = migration.render(schemaName);
+        transactionTemplate.executeWithoutResult(status -> {
+            tenantMigrationRepository.lockSchema(schemaName);
+            if (tenantMigrationRepository.findCurrentVersion(schemaName) >= migration.version()) {
+                log.debug("[TenantMigration] {} already at version {}, skipping", schemaName, migration.version());
+                return;
+            }
+            long start = System.currentTimeMillis();
+            tenantMigrationRepository.execute(sql);
+            long elapsed = System.currentTimeMillis() - start;
+            tenantMigrationRepository.recordMigration(schemaName, migration, elapsed);
+            log.info("[TenantMigration] Applied T{} ({}) to {} in {} ms",
+                    migration.version(), migration.description(), schemaName, elapsed);
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package org.arghyam.jalsoochak.tenant.service.serviceImpl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.arghyam.jalsoochak.tenant.config.properties.TenantMigrationProperties;
+import org.arghyam.jalsoochak.tenant.dto.request.CreateTenantRequestDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantOnboardingJobResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
+import org.arghyam.jalsoochak.tenant.exception.ResourceNotFoundException;
+import org.arghyam.jalsoochak.tenant.repository.TenantCommonRepository;
+import org.arghyam.jalsoochak.tenant.repository.TenantOnboardingJobRepository;
+import org.arghyam.jalsoochak.tenant.service.TenantManagementService;
+import org.arghyam.jalsoochak.tenant.service.TenantMigrationService;
+import org.arghyam.jalsoochak.tenant.service.TenantOnboardingService;
+import org.arghyam.jalsoochak.tenant.util.SecurityUtils;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs {@link TenantManagementService#createTenant} on a small worker pool and records its
+ * progress in {@code common_schema.tenant_onboarding_job_table}.
+ *
+ * <p>The submitting user's security context is carried over to the worker thread, so the
+ * tenant is attributed to them exactly as with the synchronous endpoint. A partial unique
+ * index on the job table allows only one in-flight job per state code across instances.</p>
+ */
+@Service
+@Slf4j
+public class TenantOnboardingServiceImpl implements TenantOnboardingService {
+
+    private final TenantManagementService tenantManagementService;
+    private final TenantMigrationService tenantMigrationService;
+    private final TenantCommonRepository tenantCommonRepository;
+    private final TenantOnboardingJobRepository onboardingJobRepository;
+    private final TenantMigrationProperties properties;
+    private final ExecutorService executor;
+
+    public TenantOnboardingServiceImpl(TenantManagementService tenantManagementService,
+                                       TenantMigrationService tenantMigrationService,
+                                       TenantCommonRepository tenantCommonRepository,
+                                       TenantOnboardingJobRepository onboardingJobRepository,
+                                       TenantMigrationProperties properties) {
+        this.tenantManagementService = tenantManagementService;
+        this.tenantMigrationService = tenantMigrationService;
+        this.tenantCommonRepository = tenantCommonRepository;
+        this.onboardingJobRepository = onboardingJobRepository;
+        this.properties = properties;
+        this.executor = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(
+                properties.getOnboardingThreads(),
+                Thread.ofPlatform().name("tenant-onboarding-", 1).factory()));
+    }
+
+    @Override
+    public TenantOnboardingJobResponseDTO submit(CreateTenantRequestDTO request) {
+        String stateCode = request.getStateCode();
+        tenantCommonRepository.findByStateCode(stateCode).ifPresent(existing -> {
+            throw new IllegalStateException("Tenant with state code '" + stateCode + "' already exists");
+        });
+
+        int abandoned = onboardingJobRepository.failStaleJobs(properties.getOnboardingTimeoutMs());
+        if (abandoned > 0) {
+            log.warn("[TenantOnboarding] Marked {} abandoned onboarding job(s) as FAILED", abandoned);
+        }
+
+        TenantOnboardingJobResponseDTO job;
+        try {
+            job = onboardingJobRepository.create(stateCode, SecurityUtils.getCurrentUserUuid());
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException(
+                    "Tenant with state code '" + stateCode + "' is already being onboarded");
+        }
+        log.info("[TenantOnboarding] Queued onboarding job [jobId={}, stateCode={}]", job.getJobId(), stateCode);
+
+        String jobId = job.getJobId();
+        try {
+            executor.execute(() -> run(jobId, request));
+        } catch (RejectedExecutionException e) {
+            onboardingJobRepository.markFailed(jobId, "Onboarding could not be scheduled");
+            throw new IllegalStateException("Tenant onboarding is not accepting jobs", e);
+        }
+        return job;
+    }
+
+    @Override
+    public TenantOnboardingJobResponseDTO getJob(String jobId) {
+        return onboardingJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Onboarding job " + jobId + " does not exist"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void run(String jobId, CreateTenantRequestDTO request) {
+        long start = System.currentTimeMillis();
+        try {
+            onboardingJobRepository.markRunning(jobId);
+            TenantResponseDTO tenant = tenantManagementService.createTenant(request);
+            onboardingJobRepository.markCompleted(jobId, tenant.getId(), tenantMigrationService.getLatestVersion());
+            log.info("[TenantOnboarding] Onboarding job completed [jobId={}, tenantId={}] in {} ms",
+                    jobId, tenant.getId(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("[TenantOnboarding] Onboarding job failed [jobId={}, stateCode={}]",
+                    jobId, request.getStateCode(), e);
+            try {
+                onboardingJobRepository.markFailed(jobId, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            } catch (Exception markError) {
+                log.error("[TenantOnboarding] Failed to record failure of job {}", jobId, markError);
+            }
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantSummaryResponseDTO;
 import org.arghyam.jalsoochak.tenant.enums.TenantConfigKeyEnum;
 import org.arghyam.jalsoochak.tenant.service.TenantManagementService;
+import org.arghyam.jalsoochak.tenant.service.TenantOnboardingService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -64,6 +65,9 @@ class TenantControllerSecurityTest {
     @MockBean
     private TenantManagementService tenantManagementService;
 
+    @MockBean
+    private TenantOnboardingService tenantOnboardingService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
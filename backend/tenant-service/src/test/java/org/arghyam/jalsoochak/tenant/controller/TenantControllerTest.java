@@ -41,8 +41,10 @@ import org.arghyam.jalsoochak.tenant.dto.request.UpdateTenantRequestDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyEditConstraintsResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationTreeResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigStatusResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantOnboardingJobResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantSummaryResponseDTO;
 import org.arghyam.jalsoochak.tenant.enums.ConfigStatusEnum;
@@ -54,6 +56,7 @@ import org.arghyam.jalsoochak.tenant.exception.LocationHierarchyStructureLockedE
 import org.arghyam.jalsoochak.tenant.exception.ResourceNotFoundException;
 import org.arghyam.jalsoochak.tenant.exception.StorageException;
 import org.arghyam.jalsoochak.tenant.service.TenantManagementService;
+import org.arghyam.jalsoochak.tenant.service.TenantOnboardingService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -80,6 +83,9 @@ class TenantControllerTest {
     @MockBean
     private TenantManagementService tenantManagementService;
 
+    @MockBean
+    private TenantOnboardingService tenantOnboardingService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -161,6 +167,72 @@ class TenantControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Tenant Onboarding Jobs")
+    class OnboardingJobTests {
+
+        @Test
+        void submitOnboardingJob_ReturnsAcceptedWithLocation() throws Exception {
+            CreateTenantRequestDTO request = CreateTenantRequestDTO.builder()
+                    .name("Karnataka")
+                    .stateCode("KA")
+                    .lgdCode(29)
+                    .build();
+
+            when(tenantOnboardingService.submit(any(CreateTenantRequestDTO.class))).thenReturn(
+                    TenantOnboardingJobResponseDTO.builder().jobId("job-1").stateCode("KA").status("PENDING").build());
+
+            mockMvc.perform(post("/api/v1/tenants/onboarding-jobs")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/api/v1/tenants/onboarding-jobs/job-1"))
+                    .andExpect(jsonPath("$.status").value(202))
+                    .andExpect(jsonPath("$.data.jobId").value("job-1"))
+                    .andExpect(jsonPath("$.data.status").value("PENDING"));
+
+            verify(tenantManagementService, never()).createTenant(any());
+        }
+
+        @Test
+        void submitOnboardingJob_AlreadyInProgress_Returns409() throws Exception {
+            CreateTenantRequestDTO request = CreateTenantRequestDTO.builder()
+                    .name("Karnataka")
+                    .stateCode("KA")
+                    .lgdCode(29)
+                    .build();
+
+            when(tenantOnboardingService.submit(any()))
+                    .thenThrow(new IllegalStateException("Tenant with state code 'KA' is already being onboarded"));
+
+            mockMvc.perform(post("/api/v1/tenants/onboarding-jobs")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        void getOnboardingJob_Completed() throws Exception {
+            when(tenantOnboardingService.getJob("job-1")).thenReturn(TenantOnboardingJobResponseDTO.builder()
+                    .jobId("job-1").stateCode("KA").status("COMPLETED").tenantId(7).schemaVersion(1).build());
+
+            mockMvc.perform(get("/api/v1/tenants/onboarding-jobs/job-1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.data.tenantId").value(7))
+                    .andExpect(jsonPath("$.data.errorMessage").doesNotExist());
+        }
+
+        @Test
+        void getOnboardingJob_NotFound() throws Exception {
+            when(tenantOnboardingService.getJob("missing"))
+                    .thenThrow(new ResourceNotFoundException("Onboarding job missing does not exist"));
+
+            mockMvc.perform(get("/api/v1/tenants/onboarding-jobs/missing"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     @DisplayName("Get All Tenants")
     class GetAllTenantsTests {
@@ -1032,6 +1104,75 @@ class TenantControllerTest {
             verify(tenantManagementService).getLocationChildren(tenantId, hierarchyType, null);
         }
 
+        @Test
+        void getLocationAncestors_Success() throws Exception {
+            List<LocationResponseDTO> ancestors = List.of(
+                    LocationResponseDTO.builder().id(1).title("Madhya Pradesh").level(1).build(),
+                    LocationResponseDTO.builder().id(10).title("Indore").parentId(1).level(2).build());
+
+            when(tenantManagementService.getLocationAncestors(1, "LGD", 100)).thenReturn(ancestors);
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/locations/{hierarchyType}/{locationId}/ancestors", 1, "LGD", 100))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(2)))
+                    .andExpect(jsonPath("$.data[0].title").value("Madhya Pradesh"))
+                    .andExpect(jsonPath("$.data[1].level").value(2));
+        }
+
+        @Test
+        void searchLocations_Success() throws Exception {
+            when(tenantManagementService.searchLocations(1, "LGD", "ind", 1, 20))
+                    .thenReturn(List.of(LocationResponseDTO.builder().id(10).title("Indore").parentId(1).build()));
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/locations/{hierarchyType}/search", 1, "LGD")
+                            .param("q", "ind")
+                            .param("rootId", "1")
+                            .param("limit", "20"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(1)))
+                    .andExpect(jsonPath("$.data[0].title").value("Indore"));
+        }
+
+        @Test
+        void searchLocations_LimitAboveConfiguredMaximum_ReturnsBadRequest() throws Exception {
+            when(tenantManagementService.searchLocations(1, "LGD", "ind", null, 101))
+                    .thenThrow(new IllegalArgumentException("limit must not exceed 100"));
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/locations/{hierarchyType}/search", 1, "LGD")
+                            .param("q", "ind")
+                            .param("limit", "101"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("limit must not exceed 100"));
+        }
+
+        @Test
+        void getLocationTree_ReturnsEtag() throws Exception {
+            LocationTreeResponseDTO tree = LocationTreeResponseDTO.builder()
+                    .hierarchyType("LGD").version("2-2-0").size(2)
+                    .ids(new int[] {1, 2}).parentIds(new int[] {0, 1})
+                    .levels(new int[] {1, 2}).childCounts(new int[] {1, 0})
+                    .titles(List.of("State", "District"))
+                    .build();
+            when(tenantManagementService.getLocationTree(1, "LGD")).thenReturn(tree);
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/locations/{hierarchyType}/tree", 1, "LGD"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"LGD-2-2-0\""))
+                    .andExpect(jsonPath("$.data.ids", hasSize(2)))
+                    .andExpect(jsonPath("$.data.titles[1]").value("District"));
+        }
+
+        @Test
+        void getLocationTree_NotModifiedWhenEtagMatches() throws Exception {
+            LocationTreeResponseDTO tree = LocationTreeResponseDTO.builder()
+                    .hierarchyType("LGD").version("2-2-0").size(0).build();
+            when(tenantManagementService.getLocationTree(1, "LGD")).thenReturn(tree);
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/locations/{hierarchyType}/tree", 1, "LGD")
+                            .header("If-None-Match", "\"LGD-2-2-0\""))
+                    .andExpect(status().isNotModified());
+        }
+
         @Test
         void getLocationHierarchyEditConstraints_StructuralAllowed() throws Exception {
             Integer tenantId = 1;
@@ -0,0 +1,162 @@
+package org.arghyam.jalsoochak.tenant.location;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.enums.RegionTypeEnum;
+import org.arghyam.jalsoochak.tenant.repository.TenantSchemaRepository;
+import org.arghyam.jalsoochak.tenant.service.PiiEncryptionService;
+import org.arghyam.jalsoochak.tenant.service.TenantSchedulerManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Benchmarks {@link LocationTreeCache} against the per-click
+ * {@code findLgdLocationsByParentId} query on a state-sized LGD hierarchy
+ * (1 state, 50 districts, 500 blocks, 10,000 panchayats, 50,000 villages).
+ *
+ * <p>Both paths answer the same random sequence of expand clicks; results are
+ * checked for equality and the per-click latency of each is printed.</p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "tenant.location-tree.warm-on-startup=false")
+@Testcontainers
+class LocationTreeBenchmarkIntegrationTest {
+
+    private static final String SCHEMA = "tenant_test";
+    private static final int CLICKS = 2_000;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/test-schema.sql");
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @MockBean
+    @SuppressWarnings("rawtypes")
+    private KafkaTemplate kafkaTemplate;
+
+    @MockBean
+    private TenantSchedulerManager tenantSchedulerManager;
+
+    @MockBean
+    private PiiEncryptionService piiEncryptionService;
+
+    @Autowired
+    private TenantSchemaRepository tenantSchemaRepository;
+
+    @Autowired
+    private LocationTreeCache locationTreeCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seedHierarchy() throws Exception {
+        try (var conn = postgres.createConnection("");
+             var stmt = conn.createStatement()) {
+            stmt.execute("""
+                    INSERT INTO tenant_test.location_config_master_table (region_type, level)
+                    SELECT 1, g FROM generate_series(1, 5) g;
+                    INSERT INTO tenant_test.lgd_location_master_table (id, title, lgd_code, lgd_location_config_id, parent_id)
+                    VALUES (1, 'State', '23', 1, NULL);
+                    INSERT INTO tenant_test.lgd_location_master_table (id, title, lgd_code, lgd_location_config_id, parent_id)
+                    SELECT 1 + d, 'District ' || lpad(d::text, 3, '0'), 'D' || d, 2, 1
+                    FROM generate_series(1, 50) d;
+                    INSERT INTO tenant_test.lgd_location_master_table (id, title, lgd_code, lgd_location_config_id, parent_id)
+                    SELECT 100 + b, 'Block ' || lpad(b::text, 4, '0'), 'B' || b, 3, 2 + (b - 1) / 10
+                    FROM generate_series(1, 500) b;
+                    INSERT INTO tenant_test.lgd_location_master_table (id, title, lgd_code, lgd_location_config_id, parent_id)
+                    SELECT 1000 + p, 'Panchayat ' || lpad(p::text, 5, '0'), 'P' || p, 4, 101 + (p - 1) / 20
+                    FROM generate_series(1, 10000) p;
+                    INSERT INTO tenant_test.lgd_location_master_table (id, title, lgd_code, lgd_location_config_id, parent_id)
+                    SELECT 20000 + v, 'Village ' || lpad(v::text, 6, '0'), 'V' || v, 5, 1001 + (v - 1) / 5
+                    FROM generate_series(1, 50000) v;
+                    ANALYZE tenant_test.lgd_location_master_table;
+                    """);
+        }
+    }
+
+    @Test
+    void treeLookupsMatchAndOutperformPerClickQueries() {
+        long buildStart = System.nanoTime();
+        LocationTree tree = locationTreeCache.getTree(SCHEMA, RegionTypeEnum.LGD);
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+        assertThat(tree.size()).isEqualTo(60_551);
+
+        int[] parents = randomExpandClicks();
+
+        // Warm up both paths (JIT, connection pool, plan cache) before timing.
+        for (int i = 0; i < 200; i++) {
+            tenantSchemaRepository.findLgdLocationsByParentId(SCHEMA, parents[i]);
+            tree.children(parents[i]);
+        }
+
+        long queryNanos = 0;
+        long treeNanos = 0;
+        for (int parentId : parents) {
+            long t0 = System.nanoTime();
+            List<LocationResponseDTO> fromDb = tenantSchemaRepository.findLgdLocationsByParentId(SCHEMA, parentId);
+            long t1 = System.nanoTime();
+            List<LocationResponseDTO> fromTree = tree.children(parentId);
+            long t2 = System.nanoTime();
+            queryNanos += t1 - t0;
+            treeNanos += t2 - t1;
+
+            assertThat(fromTree).extracting(LocationResponseDTO::getId)
+                    .containsExactlyElementsOf(fromDb.stream().map(LocationResponseDTO::getId).toList());
+        }
+
+        double queryMicros = queryNanos / 1_000.0 / CLICKS;
+        double treeMicros = treeNanos / 1_000.0 / CLICKS;
+        System.out.printf("[LocationTree benchmark] nodes=%d build=%d ms | per-click query=%.1f us | tree=%.1f us | speedup=%.0fx%n",
+                tree.size(), buildMs, queryMicros, treeMicros, queryMicros / treeMicros);
+
+        assertThat(treeNanos).isLessThan(queryNanos);
+    }
+
+    @Test
+    void fingerprintChangesWhenHierarchyLevelsAreRenamed() {
+        String before = tenantSchemaRepository.findLocationFingerprint(SCHEMA, RegionTypeEnum.LGD);
+
+        jdbcTemplate.update("UPDATE tenant_test.location_config_master_table "
+                + "SET level_name = '[{\"title\":\"Zilla\"}]', updated_at = updated_at + INTERVAL '1 second' "
+                + "WHERE region_type = 1 AND level = 2");
+
+        assertThat(tenantSchemaRepository.findLocationFingerprint(SCHEMA, RegionTypeEnum.LGD)).isNotEqualTo(before);
+    }
+
+    private static int[] randomExpandClicks() {
+        // Clicks land on states, districts, blocks and panchayats, weighted towards the upper levels
+        // the way users drill down in the picker.
+        Random random = new Random(42);
+        int[] parents = new int[CLICKS];
+        for (int i = 0; i < CLICKS; i++) {
+            int roll = random.nextInt(10);
+            parents[i] = roll == 0 ? 1
+                    : roll < 4 ? 2 + random.nextInt(50)
+                    : roll < 8 ? 101 + random.nextInt(500)
+                    : 1001 + random.nextInt(10_000);
+        }
+        return parents;
+    }
+}
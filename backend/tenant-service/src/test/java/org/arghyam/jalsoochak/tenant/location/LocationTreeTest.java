@@ -0,0 +1,117 @@
+package org.arghyam.jalsoochak.tenant.location;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationTreeResponseDTO;
+import org.arghyam.jalsoochak.tenant.enums.RegionTypeEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LocationTree")
+class LocationTreeTest {
+
+    private LocationTree tree;
+
+    @BeforeEach
+    void setUp() {
+        // Rows deliberately out of id order to exercise the build sort.
+        tree = LocationTree.build(RegionTypeEnum.LGD, "v1", List.of(
+                row(5, 2, "Mhow", "2305", null),
+                row(1, null, "Madhya Pradesh", "23", 1),
+                row(2, 1, "Indore", "231", 2),
+                row(3, 1, "bhopal", "232", 2),
+                row(4, 2, "Depalpur", "2304", null),
+                row(6, 4, "Rampur", "230401", null),
+                row(7, 3, "Rampura", "232001", null),
+                row(9, 8, "Orphan Village", "999", null)));
+    }
+
+    @Test
+    @DisplayName("children are ordered by title case-insensitively and carry child counts")
+    void childrenOrderedByTitle() {
+        List<LocationResponseDTO> children = tree.children(1);
+
+        assertThat(children).extracting(LocationResponseDTO::getTitle).containsExactly("bhopal", "Indore");
+        assertThat(children).extracting(LocationResponseDTO::getChildCount).containsExactly(1, 2);
+        assertThat(children).allSatisfy(c -> assertThat(c.getParentId()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("null parent returns root-level locations")
+    void rootChildren() {
+        assertThat(tree.children(null)).extracting(LocationResponseDTO::getId).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("children of an inactive (absent) parent are still returned, like the per-parent query")
+    void childrenOfAbsentParent() {
+        assertThat(tree.children(8)).extracting(LocationResponseDTO::getTitle).containsExactly("Orphan Village");
+        assertThat(tree.children(42)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("missing levels are derived from depth")
+    void levelsFromDepth() {
+        assertThat(tree.children(4)).singleElement()
+                .satisfies(l -> assertThat(l.getLevel()).isEqualTo(4));
+    }
+
+    @Test
+    @DisplayName("ancestors are returned root first")
+    void ancestors() {
+        assertThat(tree.ancestors(6)).extracting(LocationResponseDTO::getId).containsExactly(1, 2, 4);
+        assertThat(tree.ancestors(1)).isEmpty();
+        assertThat(tree.ancestors(9)).isEmpty();
+        assertThatThrownBy(() -> tree.ancestors(100)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("search matches substrings by level, and honours the subtree root and limit")
+    void search() {
+        assertThat(tree.search("RAMP", null, 10)).extracting(LocationResponseDTO::getId).containsExactly(7, 6);
+        assertThat(tree.search("ramp", 2, 10)).extracting(LocationResponseDTO::getId).containsExactly(6);
+        assertThat(tree.search("ramp", null, 1)).hasSize(1);
+        assertThat(tree.search("  ", null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("column-oriented response lines up ids, parents and child counts")
+    void toResponse() {
+        LocationTreeResponseDTO response = tree.toResponse();
+
+        assertThat(response.getSize()).isEqualTo(8);
+        assertThat(response.getVersion()).isEqualTo("v1");
+        assertThat(response.getIds()).containsExactly(1, 2, 3, 4, 5, 6, 7, 9);
+        assertThat(response.getParentIds()).containsExactly(0, 1, 1, 2, 2, 4, 3, 8);
+        assertThat(response.getChildCounts()).containsExactly(2, 2, 1, 1, 0, 0, 0, 0);
+        assertThat(response.getLgdCodes()).hasSize(8);
+    }
+
+    @Test
+    @DisplayName("empty tree answers every lookup with empty results")
+    void emptyTree() {
+        LocationTree empty = LocationTree.build(RegionTypeEnum.DEPARTMENT, "0-0-0", List.of());
+
+        assertThat(empty.size()).isZero();
+        assertThat(empty.children(null)).isEmpty();
+        assertThat(empty.search("a", null, 5)).isEmpty();
+        assertThat(empty.toResponse().getLgdCodes()).isNull();
+    }
+
+    private static LocationResponseDTO row(int id, Integer parentId, String title, String lgdCode, Integer level) {
+        return LocationResponseDTO.builder()
+                .id(id)
+                .uuid("uuid-" + id)
+                .parentId(parentId)
+                .title(title)
+                .lgdCode(lgdCode)
+                .level(level)
+                .status(1)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package org.arghyam.jalsoochak.tenant.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.arghyam.jalsoochak.tenant.dto.request.CreateTenantRequestDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantOnboardingJobResponseDTO;
+import org.arghyam.jalsoochak.tenant.enums.OnboardingJobStatusEnum;
+import org.arghyam.jalsoochak.tenant.repository.TenantCommonRepository;
+import org.arghyam.jalsoochak.tenant.service.PiiEncryptionService;
+import org.arghyam.jalsoochak.tenant.service.TenantMigrationService;
+import org.arghyam.jalsoochak.tenant.service.TenantOnboardingService;
+import org.arghyam.jalsoochak.tenant.service.TenantSchedulerManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Provisions many tenant schemas with the real Flyway migrations and
+ * {@code create_tenant_schema()}, then drives the tenant migration runner and the
+ * asynchronous onboarding job against them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.flyway.enabled=true",
+                "tenant.location-tree.warm-on-startup=false",
+                "tenant.migration.parallelism=8"
+        })
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TenantMigrationIntegrationTest {
+
+    private static final int TENANTS = 40;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @MockBean
+    @SuppressWarnings("rawtypes")
+    private KafkaTemplate kafkaTemplate;
+
+    @MockBean
+    private TenantSchedulerManager tenantSchedulerManager;
+
+    @MockBean
+    private PiiEncryptionService piiEncryptionService;
+
+    @Autowired
+    private TenantMigrationService tenantMigrationService;
+
+    @Autowired
+    private TenantOnboardingService tenantOnboardingService;
+
+    @Autowired
+    private TenantCommonRepository tenantCommonRepository;
+
+    @Autowired
+    private TenantMigrationLoader migrationLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Order(1)
+    void migratesManyTenantSchemasInParallel() throws Exception {
+        ExecutorService provisioning = Executors.newFixedThreadPool(8);
+        try {
+            CompletableFuture.allOf(IntStream.range(0, TENANTS)
+                    .mapToObj(i -> CompletableFuture.runAsync(
+                            () -> tenantCommonRepository.provisionTenantSchema(schema(i)), provisioning))
+                    .toArray(CompletableFuture[]::new)).get();
+        } finally {
+            provisioning.shutdown();
+        }
+
+        int latest = migrationLoader.getLatestVersion();
+        assertThat(tenantMigrationService.getSchemaVersions())
+                .hasSize(TENANTS)
+                .allSatisfy((schema, version) -> assertThat(version).isZero());
+
+        // Two runners at once, as when two instances start together: each schema must still
+        // be migrated exactly once (the history table's unique key would reject a second apply).
+        CompletableFuture<TenantMigrationReport> first = CompletableFuture.supplyAsync(tenantMigrationService::migrateAll);
+        CompletableFuture<TenantMigrationReport> second = CompletableFuture.supplyAsync(tenantMigrationService::migrateAll);
+        TenantMigrationReport a = first.get();
+        TenantMigrationReport b = second.get();
+
+        assertThat(a.isSuccessful()).isTrue();
+        assertThat(b.isSuccessful()).isTrue();
+        System.out.printf("[TenantMigration] %d schemas migrated to version %d in %d ms / %d ms%n",
+                TENANTS, latest, a.durationMs(), b.durationMs());
+
+        assertThat(tenantMigrationService.getSchemaVersions())
+                .allSatisfy((schema, version) -> assertThat(version).isEqualTo(latest));
+        Integer historyRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM common_schema.tenant_schema_migration_table", Integer.class);
+        assertThat(historyRows).isEqualTo(TENANTS * migrationLoader.getMigrations().size());
+        Integer titleIndexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE schemaname LIKE 'tenant\\_it%' ESCAPE '\\' "
+                        + "AND indexname = 'idx_' || schemaname || '_user_title'", Integer.class);
+        assertThat(titleIndexes).isEqualTo(TENANTS);
+
+        TenantMigrationReport rerun = tenantMigrationService.migrateAll();
+        assertThat(rerun.migrated()).isZero();
+    }
+
+    @Test
+    @Order(2)
+    void onboardingJobProvisionsAndMigratesTenant() throws Exception {
+        String adminUuid = "00000000-0000-0000-0000-000000000001";
+        jdbcTemplate.update("""
+                INSERT INTO common_schema.tenant_admin_user_master_table (uuid, email, phone_number, password, status)
+                VALUES (?, 'super@example.org', 'x', 'x', 1)
+                """, adminUuid);
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject(adminUuid).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+
+        TenantOnboardingJobResponseDTO job = tenantOnboardingService.submit(CreateTenantRequestDTO.builder()
+                .name("Onboarding State")
+                .stateCode("OJ")
+                .lgdCode(99)
+                .build());
+        assertThat(job.getStatus()).isEqualTo(OnboardingJobStatusEnum.PENDING.name());
+
+        TenantOnboardingJobResponseDTO done = awaitFinished(job.getJobId(), Duration.ofSeconds(60));
+
+        assertThat(done.getStatus()).as("error: %s", done.getErrorMessage())
+                .isEqualTo(OnboardingJobStatusEnum.COMPLETED.name());
+        assertThat(done.getTenantId()).isNotNull();
+        assertThat(done.getSchemaVersion()).isEqualTo(migrationLoader.getLatestVersion());
+        Map<String, Integer> versions = tenantMigrationService.getSchemaVersions();
+        assertThat(versions).containsEntry("tenant_oj", migrationLoader.getLatestVersion());
+    }
+
+    private TenantOnboardingJobResponseDTO awaitFinished(String jobId, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        TenantOnboardingJobResponseDTO job = tenantOnboardingService.getJob(jobId);
+        while (List.of(OnboardingJobStatusEnum.PENDING.name(), OnboardingJobStatusEnum.RUNNING.name())
+                .contains(job.getStatus()) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            job = tenantOnboardingService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private static String schema(int i) {
+        return String.format("tenant_it%02d", i);
+    }
+}
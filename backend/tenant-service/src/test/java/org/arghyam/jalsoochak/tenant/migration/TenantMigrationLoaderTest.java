@@ -0,0 +1,82 @@
+package org.arghyam.jalsoochak.tenant.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+@DisplayName("TenantMigrationLoader")
+class TenantMigrationLoaderTest {
+
+    @Test
+    @DisplayName("loads the packaged tenant migrations in version order")
+    void loadsPackagedMigrations() {
+        TenantMigrationLoader loader = new TenantMigrationLoader(
+                new PathMatchingResourcePatternResolver(), "classpath:db/tenant-migration/T*__*.sql");
+
+        assertThat(loader.getMigrations()).isNotEmpty();
+        assertThat(loader.getMigrations().get(0).version()).isEqualTo(1);
+        assertThat(loader.getMigrations().get(0).description()).isEqualTo("add indexes for list endpoints");
+        assertThat(loader.getMigrations().get(0).checksum()).hasSize(64);
+        assertThat(loader.getMigrations()).extracting(TenantMigration::version).isSorted();
+        assertThat(loader.getLatestVersion())
+                .isEqualTo(loader.getMigrations().get(loader.getMigrations().size() - 1).version());
+    }
+
+    @Test
+    @DisplayName("sorts numerically and ignores files that do not follow the naming scheme")
+    void sortsNumerically() throws Exception {
+        TenantMigrationLoader loader = loaderOf(
+                script("T10__ten.sql", "SELECT 10"),
+                script("T2__two.sql", "SELECT 2"),
+                script("README.sql", "SELECT 0"));
+
+        assertThat(loader.getMigrations()).extracting(TenantMigration::version).containsExactly(2, 10);
+        assertThat(loader.getLatestVersion()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("fails fast on duplicate versions")
+    void rejectsDuplicateVersions() {
+        assertThatThrownBy(() -> loaderOf(
+                script("T1__first.sql", "SELECT 1"),
+                script("T1__second.sql", "SELECT 2")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Duplicate tenant migration version 1");
+    }
+
+    @Test
+    @DisplayName("render substitutes the schema and rejects non-tenant schema names")
+    void render() {
+        TenantMigration migration = new TenantMigration(1, "x", "CREATE INDEX idx_${schema}_a ON ${schema}.t(a)", "c");
+
+        assertThat(migration.render("tenant_mp")).isEqualTo("CREATE INDEX idx_tenant_mp_a ON tenant_mp.t(a)");
+        assertThatThrownBy(() -> migration.render("common_schema")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> migration.render("tenant_mp; DROP SCHEMA x")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TenantMigrationLoader loaderOf(Resource... resources) throws Exception {
+        ResourcePatternResolver resolver = mock(ResourcePatternResolver.class);
+        when(resolver.getResources(anyString())).thenReturn(resources);
+        return new TenantMigrationLoader(resolver, "classpath:test/T*__*.sql");
+    }
+
+    private static Resource script(String fileName, String sql) {
+        return new ByteArrayResource(sql.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+        };
+    }
+}
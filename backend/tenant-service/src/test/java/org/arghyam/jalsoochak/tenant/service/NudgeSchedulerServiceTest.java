@@ -1,16 +1,19 @@
 package org.arghyam.jalsoochak.tenant.service;
 
 import org.arghyam.jalsoochak.tenant.event.NudgeEvent;
+import org.arghyam.jalsoochak.tenant.event.NudgeOptInBatchEvent;
 import org.arghyam.jalsoochak.tenant.kafka.KafkaProducer;
 import org.arghyam.jalsoochak.tenant.repository.NudgeRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -162,6 +165,61 @@ class NudgeSchedulerServiceTest {
         assertThat(captor.getValue().getSchemeId()).isEqualTo("");
     }
 
+    // ── bulk opt-in ─────────────────────────────────────────────────────────────
+
+    @Test
+    void processNudgesForTenant_publishesOptInBatch_beforeNudgesOfOperatorsWithoutWhatsappId() {
+        Map<String, Object> registered = new HashMap<>();
+        registered.put("phone_number", "911111111111");
+        registered.put("name", "Registered");
+        registered.put("user_id", 1);
+        registered.put("whatsapp_connection_id", 77L);
+        Map<String, Object> unregistered = new HashMap<>();
+        unregistered.put("phone_number", "912222222222");
+        unregistered.put("name", "New Op");
+        unregistered.put("user_id", 2);
+        unregistered.put("whatsapp_connection_id", null);
+
+        stubStream(SCHEMA, unregistered, registered);
+
+        nudgeSchedulerService.processNudgesForTenant(SCHEMA, TENANT_ID);
+
+        ArgumentCaptor<NudgeOptInBatchEvent> batchCaptor = ArgumentCaptor.forClass(NudgeOptInBatchEvent.class);
+        verify(kafkaProducer).publishJson(eq("common-topic"), batchCaptor.capture());
+        NudgeOptInBatchEvent batch = batchCaptor.getValue();
+        assertThat(batch.getEventType()).isEqualTo("NUDGE_OPT_IN_BATCH");
+        assertThat(batch.getTenantSchema()).isEqualTo(SCHEMA);
+        assertThat(batch.getRecipients()).containsExactly(new NudgeOptInBatchEvent.Recipient(2L, "912222222222"));
+
+        // The unregistered operator's nudge is held back until after the batch
+        InOrder inOrder = inOrder(kafkaProducer);
+        inOrder.verify(kafkaProducer).publishJson(eq("common-topic"),
+                argThat(e -> e instanceof NudgeEvent n && n.getUserId() == 1L));
+        inOrder.verify(kafkaProducer).publishJson(eq("common-topic"), any(NudgeOptInBatchEvent.class));
+        inOrder.verify(kafkaProducer).publishJson(eq("common-topic"),
+                argThat(e -> e instanceof NudgeEvent n && n.getUserId() == 2L));
+    }
+
+    @Test
+    void processNudgesForTenant_splitsOptInBatches_ofAtMost200Recipients() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            rows.add(Map.of("phone_number", "91900000" + String.format("%04d", i), "name", "Op " + i,
+                    "user_id", i + 1));
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object>[] rowArray = rows.toArray(new Map[0]);
+        stubStream(SCHEMA, rowArray);
+
+        nudgeSchedulerService.processNudgesForTenant(SCHEMA, TENANT_ID);
+
+        ArgumentCaptor<NudgeOptInBatchEvent> batchCaptor = ArgumentCaptor.forClass(NudgeOptInBatchEvent.class);
+        verify(kafkaProducer, times(3)).publishJson(eq("common-topic"), batchCaptor.capture());
+        assertThat(batchCaptor.getAllValues()).extracting(b -> b.getRecipients().size())
+                .containsExactly(200, 200, 50);
+        verify(kafkaProducer, times(450)).publishJson(eq("common-topic"), any(NudgeEvent.class));
+    }
+
     // ── isolation / security tests ───────────────────────────────────────────────
 
     @Test
@@ -7,18 +7,27 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+/**
+ * Mirrors user-service's {@code PiiEncryptionServiceTest}, which covers the canonical copy of the
+ * service; keep the two in step.
+ */
 @DisplayName("PiiEncryptionService - Unit Tests")
 class PiiEncryptionServiceTest {
 
     // 32 bytes of zeros, base64-encoded — safe test key material
     private static final String TEST_AES_KEY  = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
     private static final String TEST_HMAC_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    // HMAC-SHA256 of "9000000001" under TEST_HMAC_KEY; every copy of this test checks the same vector
+    private static final String HMAC_OF_9000000001 = "2a0b5e5d587a8e63c6c65788cf0ec28a13eee189472f9a1bcfe40ed32abee577";
 
     private PiiEncryptionService pii;
 
@@ -156,4 +165,59 @@ class PiiEncryptionServiceTest {
     void hmac_trimsWhitespace() {
         assertEquals(pii.hmac("91XXXXXXXXXX"), pii.hmac("  91XXXXXXXXXX  "));
     }
+
+    @Test
+    @DisplayName("hmac gives the same result with the cache disabled and after the cache fills up")
+    void hmac_cacheDoesNotChangeResults() {
+        PiiEncryptionService uncached = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 0, 1);
+        PiiEncryptionService tinyCache = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 2, 1);
+        for (String phone : List.of("9000000001", "9000000002", "9000000003", "9000000001")) {
+            assertEquals(uncached.hmac(phone), tinyCache.hmac(phone));
+            assertEquals(uncached.hmac(phone), pii.hmac(phone));
+        }
+    }
+
+    @Test
+    @DisplayName("hmac matches the shared test vector, from the cache and without it")
+    void hmac_matchesSharedTestVector() {
+        PiiEncryptionService uncached = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 0, 1);
+        assertEquals(HMAC_OF_9000000001, pii.hmac("9000000001"));
+        assertEquals(HMAC_OF_9000000001, pii.hmac("9000000001"));
+        assertEquals(HMAC_OF_9000000001, uncached.hmac("9000000001"));
+    }
+
+    // ── batch ─────────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("hmacAll, encryptAll and decryptAll match per-value calls, in order, across the batch pool")
+    void batch_matchesPerValueCalls() {
+        PiiEncryptionService pooled = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 0, 4);
+        List<String> phones = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            phones.add(String.valueOf(9_000_000_000L + i));
+        }
+        phones.set(7, null);
+
+        List<String> hashes = pooled.hmacAll(phones);
+        List<String> ciphertexts = pooled.encryptAll(phones);
+        assertEquals(phones.size(), hashes.size());
+        for (int i = 0; i < phones.size(); i++) {
+            assertEquals(pii.hmac(phones.get(i)), hashes.get(i));
+        }
+        assertEquals(phones, pooled.decryptAll(ciphertexts));
+        assertEquals(phones, pii.decryptAll(ciphertexts));
+        pooled.shutdown();
+    }
+
+    @Test
+    @DisplayName("decryptAll fails if any value fails to decrypt")
+    void decryptAll_tamperedValue_throwsIllegalState() {
+        PiiEncryptionService pooled = new PiiEncryptionService(TEST_AES_KEY, TEST_HMAC_KEY, 0, 4);
+        List<String> ciphertexts = new ArrayList<>(pooled.encryptAll(Collections.nCopies(1_000, "9000000001")));
+        byte[] bytes = Base64.getDecoder().decode(ciphertexts.get(900));
+        bytes[bytes.length / 2] ^= 0xFF;
+        ciphertexts.set(900, Base64.getEncoder().encodeToString(bytes));
+        assertThrows(IllegalStateException.class, () -> pooled.decryptAll(ciphertexts));
+        pooled.shutdown();
+    }
 }
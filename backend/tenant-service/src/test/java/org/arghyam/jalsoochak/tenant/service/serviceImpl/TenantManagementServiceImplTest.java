@@ -44,6 +44,7 @@ import org.arghyam.jalsoochak.tenant.dto.request.UpdateTenantRequestDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyEditConstraintsResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationHierarchyResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.LocationResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.LocationTreeResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantConfigStatusResponseDTO;
 import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
@@ -64,8 +65,11 @@ import org.arghyam.jalsoochak.tenant.exception.InvalidConfigValueException;
 import org.arghyam.jalsoochak.tenant.exception.LocationHierarchyStructureLockedException;
 import org.arghyam.jalsoochak.tenant.exception.ResourceNotFoundException;
 import org.arghyam.jalsoochak.tenant.exception.StorageException;
+import org.arghyam.jalsoochak.tenant.location.LocationTree;
+import org.arghyam.jalsoochak.tenant.location.LocationTreeCache;
 import org.arghyam.jalsoochak.tenant.repository.TenantCommonRepository;
 import org.arghyam.jalsoochak.tenant.repository.TenantSchemaRepository;
+import org.arghyam.jalsoochak.tenant.service.TenantMigrationService;
 import org.arghyam.jalsoochak.tenant.service.TenantSchedulerManager;
 import org.arghyam.jalsoochak.tenant.storage.ObjectStorageService;
 import org.arghyam.jalsoochak.tenant.util.SecurityUtils;
@@ -114,6 +118,12 @@ class TenantManagementServiceImplTest {
     @Mock
     private ObjectStorageService objectStorageService;
 
+    @Mock
+    private LocationTreeCache locationTreeCache;
+
+    @Mock
+    private TenantMigrationService tenantMigrationService;
+
     private ObjectMapper objectMapper;
 
     private TenantManagementServiceImpl tenantManagementService;
@@ -137,7 +147,9 @@ class TenantManagementServiceImplTest {
             tenantDefaults,
             eventPublisher,
             schedulerManager,
-            objectStorageService
+            objectStorageService,
+            locationTreeCache,
+            tenantMigrationService
         );
     }
 
@@ -191,6 +203,7 @@ class TenantManagementServiceImplTest {
             verify(tenantCommonRepository).findByStateCode("TT");
             verify(tenantCommonRepository).createTenant(eq(request), eq(100));
             verify(tenantCommonRepository).provisionTenantSchema("tenant_tt");
+            verify(tenantMigrationService).migrateSchema("tenant_tt");
             verify(eventPublisher).publishEvent(any(TenantCreatedEvent.class));
         }
 
@@ -1024,6 +1037,141 @@ class TenantManagementServiceImplTest {
             verify(tenantCommonRepository).findById(tenantId);
         }
 
+        @Test
+        @DisplayName("Should serve location children from the cached tree when enabled")
+        void testGetLocationChildren_FromTree() {
+            // Arrange
+            Integer tenantId = 1;
+            TenantResponseDTO tenant = TenantResponseDTO.builder().id(tenantId).stateCode("mp").build();
+            LocationTree tree = LocationTree.build(RegionTypeEnum.LGD, "v1", List.of(
+                    LocationResponseDTO.builder().id(1).title("Madhya Pradesh").build(),
+                    LocationResponseDTO.builder().id(2).title("Indore").parentId(1).build(),
+                    LocationResponseDTO.builder().id(3).title("Bhopal").parentId(1).build()));
+
+            when(tenantCommonRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(locationTreeCache.isEnabled()).thenReturn(true);
+            when(locationTreeCache.getTree("tenant_mp", RegionTypeEnum.LGD)).thenReturn(tree);
+
+            // Act
+            List<LocationResponseDTO> result = tenantManagementService.getLocationChildren(tenantId, "lgd", 1);
+
+            // Assert
+            assertEquals(List.of("Bhopal", "Indore"), result.stream().map(LocationResponseDTO::getTitle).toList());
+            assertEquals(2, result.get(0).getLevel());
+            verify(tenantSchemaRepository, never()).findLgdLocationsByParentId(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should return ancestors root first from the cached tree")
+        void testGetLocationAncestors_Success() {
+            // Arrange
+            Integer tenantId = 1;
+            TenantResponseDTO tenant = TenantResponseDTO.builder().id(tenantId).stateCode("mp").build();
+            LocationTree tree = LocationTree.build(RegionTypeEnum.DEPARTMENT, "v1", List.of(
+                    LocationResponseDTO.builder().id(1).title("State").build(),
+                    LocationResponseDTO.builder().id(2).title("Zone").parentId(1).build(),
+                    LocationResponseDTO.builder().id(3).title("Circle").parentId(2).build()));
+
+            when(tenantCommonRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(locationTreeCache.getTree("tenant_mp", RegionTypeEnum.DEPARTMENT)).thenReturn(tree);
+
+            // Act
+            List<LocationResponseDTO> result = tenantManagementService.getLocationAncestors(tenantId, "DEPARTMENT", 3);
+
+            // Assert
+            assertEquals(List.of(1, 2), result.stream().map(LocationResponseDTO::getId).toList());
+        }
+
+        @Test
+        @DisplayName("Should throw ResourceNotFoundException for ancestors of an unknown location")
+        void testGetLocationAncestors_UnknownLocation() {
+            // Arrange
+            Integer tenantId = 1;
+            TenantResponseDTO tenant = TenantResponseDTO.builder().id(tenantId).stateCode("mp").build();
+            LocationTree tree = LocationTree.build(RegionTypeEnum.LGD, "v1", List.of(
+                    LocationResponseDTO.builder().id(1).title("State").build()));
+
+            when(tenantCommonRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(locationTreeCache.getTree("tenant_mp", RegionTypeEnum.LGD)).thenReturn(tree);
+
+            // Act & Assert
+            assertThrows(ResourceNotFoundException.class,
+                    () -> tenantManagementService.getLocationAncestors(tenantId, "LGD", 99));
+        }
+
+        @Test
+        @DisplayName("Should reject a search limit above the configured maximum")
+        void testSearchLocations_LimitAboveMaximum_Rejected() {
+            // Arrange
+            when(locationTreeCache.getMaxSearchResults()).thenReturn(100);
+
+            // Act & Assert
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> tenantManagementService.searchLocations(1, "LGD", "ramp", null, 101));
+            assertEquals("limit must not exceed 100", ex.getMessage());
+            verify(locationTreeCache, never()).getTree(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should return up to the configured maximum when no limit is given")
+        void testSearchLocations_NoLimit_UsesConfiguredMaximum() {
+            // Arrange
+            Integer tenantId = 1;
+            TenantResponseDTO tenant = TenantResponseDTO.builder().id(tenantId).stateCode("mp").build();
+            LocationTree tree = LocationTree.build(RegionTypeEnum.LGD, "v1", List.of(
+                    LocationResponseDTO.builder().id(1).title("Rampur").build(),
+                    LocationResponseDTO.builder().id(2).title("Rampura").build(),
+                    LocationResponseDTO.builder().id(3).title("Sitapur").build()));
+
+            when(tenantCommonRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(locationTreeCache.getTree("tenant_mp", RegionTypeEnum.LGD)).thenReturn(tree);
+            when(locationTreeCache.getMaxSearchResults()).thenReturn(1);
+
+            // Act
+            List<LocationResponseDTO> result = tenantManagementService.searchLocations(tenantId, "LGD", "ramp", null, null);
+
+            // Assert
+            assertEquals(1, result.size());
+            assertEquals("Rampur", result.get(0).getTitle());
+        }
+
+        @Test
+        @DisplayName("Should return the whole tree with its version")
+        void testGetLocationTree_Success() {
+            // Arrange
+            Integer tenantId = 1;
+            TenantResponseDTO tenant = TenantResponseDTO.builder().id(tenantId).stateCode("mp").build();
+            LocationTree tree = LocationTree.build(RegionTypeEnum.LGD, "3-3-0", List.of(
+                    LocationResponseDTO.builder().id(1).title("State").lgdCode("23").build(),
+                    LocationResponseDTO.builder().id(2).title("District").lgdCode("231").parentId(1).build()));
+
+            when(tenantCommonRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+            when(locationTreeCache.getTree("tenant_mp", RegionTypeEnum.LGD)).thenReturn(tree);
+
+            // Act
+            LocationTreeResponseDTO result = tenantManagementService.getLocationTree(tenantId, "LGD");
+
+            // Assert
+            assertEquals("3-3-0", result.getVersion());
+            assertEquals(2, result.getSize());
+            assertEquals(List.of("23", "231"), result.getLgdCodes());
+            assertEquals(1, result.getChildCounts()[0]);
+        }
+
+        @Test
+        @DisplayName("Should throw exception for invalid hierarchy type on tree endpoints")
+        void testGetLocationTree_InvalidHierarchyType() {
+            // Arrange
+            Integer tenantId = 1;
+            TenantResponseDTO tenant = TenantResponseDTO.builder().id(tenantId).stateCode("mp").build();
+            when(tenantCommonRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> tenantManagementService.getLocationTree(tenantId, "INVALID"));
+            verify(locationTreeCache, never()).getTree(anyString(), any());
+        }
+
         @Test
         @DisplayName("Should return edit constraints with structuralChangesAllowed=true when no seeded data")
         void testGetLocationHierarchyEditConstraints_NoSeededData() {
@@ -1196,6 +1344,7 @@ class TenantManagementServiceImplTest {
             verify(tenantSchemaRepository).updateLevelNames("tenant_mp", RegionTypeEnum.LGD, renamedLevels, 100);
             verify(tenantSchemaRepository, never()).setLocationHierarchy(any(), any(), any(), any());
             verify(tenantSchemaRepository, never()).countSeededLocationData(any(), any());
+            verify(locationTreeCache).invalidate("tenant_mp");
         }
 
         @Test
@@ -0,0 +1,148 @@
+package org.arghyam.jalsoochak.tenant.service.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.arghyam.jalsoochak.tenant.config.properties.TenantMigrationProperties;
+import org.arghyam.jalsoochak.tenant.exception.ConfigurationException;
+import org.arghyam.jalsoochak.tenant.migration.TenantMigration;
+import org.arghyam.jalsoochak.tenant.migration.TenantMigrationLoader;
+import org.arghyam.jalsoochak.tenant.migration.TenantMigrationReport;
+import org.arghyam.jalsoochak.tenant.repository.TenantMigrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tenant Migration Service Tests")
+class TenantMigrationServiceImplTest {
+
+    private static final TenantMigration T1 = new TenantMigration(1, "one", "SELECT 1 FROM ${schema}.a", "c1");
+    private static final TenantMigration T2 = new TenantMigration(2, "two", "SELECT 2 FROM ${schema}.b", "c2");
+
+    @Mock
+    private TenantMigrationRepository tenantMigrationRepository;
+
+    @Mock
+    private TenantMigrationLoader migrationLoader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TenantMigrationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        TenantMigrationProperties properties = new TenantMigrationProperties();
+        properties.setParallelism(3);
+        lenient().when(migrationLoader.getMigrations()).thenReturn(List.of(T1, T2));
+        lenient().when(migrationLoader.getLatestVersion()).thenReturn(2);
+        service = new TenantMigrationServiceImpl(tenantMigrationRepository, migrationLoader, properties, transactionManager);
+    }
+
+    @Test
+    @DisplayName("applies only pending migrations, in order, each under the schema lock")
+    void migrateSchema_AppliesPendingInOrder() {
+        when(tenantMigrationRepository.findCurrentVersion("tenant_mp")).thenReturn(1);
+
+        int version = service.migrateSchema("tenant_mp");
+
+        assertThat(version).isEqualTo(2);
+        InOrder order = inOrder(tenantMigrationRepository);
+        order.verify(tenantMigrationRepository).lockSchema("tenant_mp");
+        order.verify(tenantMigrationRepository).execute("SELECT 2 FROM tenant_mp.b");
+        order.verify(tenantMigrationRepository).recordMigration(eq("tenant_mp"), eq(T2), anyLong());
+        verify(tenantMigrationRepository, never()).execute("SELECT 1 FROM tenant_mp.a");
+    }
+
+    @Test
+    @DisplayName("skips a migration that another instance applied while waiting for the lock")
+    void migrateSchema_SkipsAlreadyApplied() {
+        // First read (before locking) sees version 0, the re-read under the advisory lock sees 2.
+        when(tenantMigrationRepository.findCurrentVersion("tenant_mp")).thenReturn(0, 2);
+
+        service.migrateSchema("tenant_mp");
+
+        verify(tenantMigrationRepository, never()).execute(anyString());
+        verify(tenantMigrationRepository, never()).recordMigration(anyString(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("migrateAll migrates only schemas behind the latest version and reports failures per schema")
+    void migrateAll_ReportsPerSchemaFailures() {
+        when(tenantMigrationRepository.findTenantSchemas())
+                .thenReturn(List.of("tenant_aa", "tenant_bb", "tenant_cc", "tenant_dd"));
+        when(tenantMigrationRepository.findAllCurrentVersions())
+                .thenReturn(Map.of("tenant_aa", 2, "tenant_bb", 1));
+        when(tenantMigrationRepository.findCurrentVersion(anyString())).thenAnswer(inv ->
+                "tenant_bb".equals(inv.getArgument(0)) ? 1 : 0);
+        // Lenient: the other schemas call execute() with different SQL on worker threads
+        lenient().doThrow(new DataIntegrityViolationException("relation does not exist"))
+                .when(tenantMigrationRepository).execute("SELECT 1 FROM tenant_dd.a");
+
+        TenantMigrationReport report = service.migrateAll();
+
+        assertThat(report.schemas()).isEqualTo(4);
+        assertThat(report.migrated()).isEqualTo(2);
+        assertThat(report.failures()).containsOnlyKeys("tenant_dd");
+        assertThat(report.isSuccessful()).isFalse();
+        verify(tenantMigrationRepository, never()).findCurrentVersion("tenant_aa");
+        verify(tenantMigrationRepository).execute("SELECT 2 FROM tenant_bb.b");
+        verify(tenantMigrationRepository).execute("SELECT 2 FROM tenant_cc.b");
+        verify(tenantMigrationRepository, never()).execute("SELECT 2 FROM tenant_dd.b");
+    }
+
+    @Test
+    @DisplayName("migrateSchema fails without applying anything when an applied script was changed")
+    void migrateSchema_FailsOnChecksumMismatch() {
+        when(tenantMigrationRepository.findAppliedChecksums("tenant_mp")).thenReturn(Map.of(1, "edited"));
+
+        assertThatThrownBy(() -> service.migrateSchema("tenant_mp"))
+                .isInstanceOf(ConfigurationException.class)
+                .hasMessageContaining("tenant_mp")
+                .hasMessageContaining("T1 (one)");
+        verify(tenantMigrationRepository, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("migrateAll fails before migrating any schema when an applied script was changed")
+    void migrateAll_FailsOnChecksumMismatch() {
+        when(tenantMigrationRepository.findDistinctChecksums())
+                .thenReturn(Map.of(1, Set.of("c1"), 2, Set.of("c2", "edited")));
+
+        assertThatThrownBy(() -> service.migrateAll())
+                .isInstanceOf(ConfigurationException.class)
+                .hasMessageContaining("T2 (two)");
+        verify(tenantMigrationRepository, never()).findTenantSchemas();
+        verify(tenantMigrationRepository, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("getSchemaVersions reports 0 for schemas without applied migrations")
+    void getSchemaVersions() {
+        when(tenantMigrationRepository.findTenantSchemas()).thenReturn(List.of("tenant_aa", "tenant_bb"));
+        when(tenantMigrationRepository.findAllCurrentVersions()).thenReturn(Map.of("tenant_aa", 2));
+
+        assertThat(service.getSchemaVersions()).containsExactly(Map.entry("tenant_aa", 2), Map.entry("tenant_bb", 0));
+    }
+}
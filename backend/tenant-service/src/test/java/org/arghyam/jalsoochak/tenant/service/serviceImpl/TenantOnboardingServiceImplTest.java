@@ -0,0 +1,147 @@
+package org.arghyam.jalsoochak.tenant.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.arghyam.jalsoochak.tenant.config.properties.TenantMigrationProperties;
+import org.arghyam.jalsoochak.tenant.dto.request.CreateTenantRequestDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantOnboardingJobResponseDTO;
+import org.arghyam.jalsoochak.tenant.dto.response.TenantResponseDTO;
+import org.arghyam.jalsoochak.tenant.exception.ResourceNotFoundException;
+import org.arghyam.jalsoochak.tenant.repository.TenantCommonRepository;
+import org.arghyam.jalsoochak.tenant.repository.TenantOnboardingJobRepository;
+import org.arghyam.jalsoochak.tenant.service.TenantManagementService;
+import org.arghyam.jalsoochak.tenant.service.TenantMigrationService;
+import org.arghyam.jalsoochak.tenant.util.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tenant Onboarding Service Tests")
+class TenantOnboardingServiceImplTest {
+
+    private static final long ASYNC_TIMEOUT_MS = 5_000;
+
+    @Mock
+    private TenantManagementService tenantManagementService;
+
+    @Mock
+    private TenantMigrationService tenantMigrationService;
+
+    @Mock
+    private TenantCommonRepository tenantCommonRepository;
+
+    @Mock
+    private TenantOnboardingJobRepository onboardingJobRepository;
+
+    private TenantOnboardingServiceImpl service;
+
+    private MockedStatic<SecurityUtils> mockedSecurityUtils;
+
+    private final CreateTenantRequestDTO request = CreateTenantRequestDTO.builder()
+            .name("Karnataka")
+            .stateCode("KA")
+            .lgdCode(29)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        mockedSecurityUtils = mockStatic(SecurityUtils.class);
+        service = new TenantOnboardingServiceImpl(tenantManagementService, tenantMigrationService,
+                tenantCommonRepository, onboardingJobRepository, new TenantMigrationProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        mockedSecurityUtils.close();
+    }
+
+    @Test
+    @DisplayName("Should queue a job and complete it in the background")
+    void submit_RunsJobToCompletion() {
+        when(tenantCommonRepository.findByStateCode("KA")).thenReturn(Optional.empty());
+        when(SecurityUtils.getCurrentUserUuid()).thenReturn("user-uuid");
+        when(onboardingJobRepository.create("KA", "user-uuid")).thenReturn(pendingJob());
+        when(tenantManagementService.createTenant(request)).thenReturn(TenantResponseDTO.builder().id(7).build());
+        when(tenantMigrationService.getLatestVersion()).thenReturn(3);
+
+        TenantOnboardingJobResponseDTO job = service.submit(request);
+
+        assertEquals("job-1", job.getJobId());
+        assertEquals("PENDING", job.getStatus());
+        verify(onboardingJobRepository).failStaleJobs(anyLong());
+        verify(onboardingJobRepository, timeout(ASYNC_TIMEOUT_MS)).markRunning("job-1");
+        verify(onboardingJobRepository, timeout(ASYNC_TIMEOUT_MS)).markCompleted("job-1", 7, 3);
+        verify(onboardingJobRepository, never()).markFailed(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should record the failure reason when onboarding fails")
+    void submit_RecordsFailure() {
+        when(tenantCommonRepository.findByStateCode("KA")).thenReturn(Optional.empty());
+        when(SecurityUtils.getCurrentUserUuid()).thenReturn("user-uuid");
+        when(onboardingJobRepository.create("KA", "user-uuid")).thenReturn(pendingJob());
+        when(tenantManagementService.createTenant(request))
+                .thenThrow(new IllegalStateException("schema provisioning failed"));
+
+        service.submit(request);
+
+        verify(onboardingJobRepository, timeout(ASYNC_TIMEOUT_MS)).markFailed("job-1", "schema provisioning failed");
+        verify(onboardingJobRepository, never()).markCompleted(anyString(), any(), eq(0));
+    }
+
+    @Test
+    @DisplayName("Should reject a tenant that already exists without creating a job")
+    void submit_TenantExists() {
+        when(tenantCommonRepository.findByStateCode("KA")).thenReturn(Optional.of(TenantResponseDTO.builder().build()));
+
+        assertThrows(IllegalStateException.class, () -> service.submit(request));
+
+        verify(onboardingJobRepository, never()).create(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject a second job while one is in flight for the same state code")
+    void submit_JobInFlight() {
+        when(tenantCommonRepository.findByStateCode("KA")).thenReturn(Optional.empty());
+        when(SecurityUtils.getCurrentUserUuid()).thenReturn("user-uuid");
+        when(onboardingJobRepository.create("KA", "user-uuid"))
+                .thenThrow(new DuplicateKeyException("uq_tenant_onboarding_job_active"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> service.submit(request));
+
+        assertEquals("Tenant with state code 'KA' is already being onboarded", ex.getMessage());
+        verify(tenantManagementService, never()).createTenant(any());
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException for an unknown job")
+    void getJob_NotFound() {
+        when(onboardingJobRepository.findByJobId("missing")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getJob("missing"));
+    }
+
+    private static TenantOnboardingJobResponseDTO pendingJob() {
+        return TenantOnboardingJobResponseDTO.builder().jobId("job-1").stateCode("KA").status("PENDING").build();
+    }
+}
@@ -83,3 +83,38 @@ CREATE TABLE tenant_test.flow_reading_table (
     created_at        TIMESTAMP NOT NULL DEFAULT NOW(),
     updated_at        TIMESTAMP NOT NULL DEFAULT NOW()
 );
+
+CREATE TABLE tenant_test.location_config_master_table (
+    id          SERIAL PRIMARY KEY,
+    region_type INTEGER NOT NULL,
+    level       INTEGER NOT NULL,
+    level_name  JSONB,
+    updated_at  TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE tenant_test.lgd_location_master_table (
+    id                      SERIAL PRIMARY KEY,
+    uuid                    VARCHAR(36) NOT NULL DEFAULT gen_random_uuid()::TEXT,
+    title                   VARCHAR(255) NOT NULL,
+    lgd_code                VARCHAR(50)  NOT NULL,
+    lgd_location_config_id  INTEGER,
+    parent_id               INTEGER,
+    status                  INTEGER   NOT NULL DEFAULT 1,
+    created_at              TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at              TIMESTAMP NOT NULL DEFAULT NOW(),
+    deleted_at              TIMESTAMP
+);
+
+CREATE INDEX idx_test_lgd_location_parent ON tenant_test.lgd_location_master_table (parent_id);
+
+CREATE TABLE tenant_test.department_location_master_table (
+    id                             SERIAL PRIMARY KEY,
+    uuid                           VARCHAR(36) NOT NULL DEFAULT gen_random_uuid()::TEXT,
+    title                          VARCHAR(255) NOT NULL,
+    department_location_config_id  INTEGER,
+    parent_id                      INTEGER,
+    status                         INTEGER   NOT NULL DEFAULT 1,
+    created_at                     TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at                     TIMESTAMP NOT NULL DEFAULT NOW(),
+    deleted_at                     TIMESTAMP
+);
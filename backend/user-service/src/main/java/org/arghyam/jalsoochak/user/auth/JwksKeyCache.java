@@ -0,0 +1,179 @@
+package org.arghyam.jalsoochak.user.auth;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestClient;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Signing keys of the Keycloak realm, fetched from its JWKS endpoint and held as one
+ * {@link JwtDecoder} per key ID.
+ *
+ * <p>Keys are fetched on first use and then refreshed by {@link #refresh()}. A key ID that is
+ * not in the set triggers a refetch at most once per {@code minRefetchInterval}, so a rotated
+ * key is picked up as soon as Keycloak publishes it, while tokens with made-up key IDs cannot
+ * turn every request into a JWKS call. A failed fetch keeps the previous keys.</p>
+ *
+ * <p>Requests wait for the first fetch. After that, a request that finds another fetch under way
+ * does not wait for it, unless no fetch has succeeded yet and there is no static key to fall
+ * back on.</p>
+ */
+@Slf4j
+class JwksKeyCache {
+
+    private final String jwksUri;
+    private final RestClient restClient;
+    private final long minRefetchNanos;
+    private final OAuth2TokenValidator<Jwt> jwtValidator;
+    private final Consumer<Set<String>> onKeysRemoved;
+    private final boolean staticKeyFallback;
+    private final ReentrantLock fetchLock = new ReentrantLock();
+
+    private volatile Map<String, JwtDecoder> decoders = Map.of();
+    private volatile boolean loaded;
+    private volatile boolean attempted;
+    private volatile long lastAttemptNanos;
+
+    /**
+     * @param onKeysRemoved     called with the key IDs that a fetch dropped from the set
+     * @param staticKeyFallback whether the caller has a static key for tokens this cache cannot
+     *                          verify, so requests need not wait for a fetch once one has failed
+     */
+    JwksKeyCache(String jwksUri, Duration minRefetchInterval, int connectTimeoutMs, int readTimeoutMs,
+                 OAuth2TokenValidator<Jwt> jwtValidator, Consumer<Set<String>> onKeysRemoved,
+                 boolean staticKeyFallback) {
+        this.jwksUri = jwksUri;
+        this.minRefetchNanos = minRefetchInterval.toNanos();
+        this.jwtValidator = jwtValidator;
+        this.onKeysRemoved = onKeysRemoved;
+        this.staticKeyFallback = staticKeyFallback;
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMs);
+        factory.setReadTimeout(readTimeoutMs);
+        this.restClient = RestClient.builder().requestFactory(factory).build();
+    }
+
+    /**
+     * Returns the decoder for a key ID, refetching the key set if the ID is unknown and the
+     * last fetch is older than {@code minRefetchInterval}.
+     *
+     * @return the decoder, or {@code null} if the key set has no such key
+     */
+    JwtDecoder decoder(String keyId) {
+        JwtDecoder decoder = decoders.get(keyId);
+        if (decoder != null) {
+            return decoder;
+        }
+        if (refetchDue()) {
+            // Requests wait for the first load; later refetches are left to whichever request
+            // got there first instead of queueing every request behind the JWKS call. Once a
+            // fetch has failed, the static key serves in the meantime if there is one.
+            if (loaded || (attempted && staticKeyFallback)) {
+                if (!fetchLock.tryLock()) {
+                    return null;
+                }
+            } else {
+                fetchLock.lock();
+            }
+            try {
+                if (refetchDue()) {
+                    fetch();
+                }
+            } finally {
+                fetchLock.unlock();
+            }
+        }
+        return decoders.get(keyId);
+    }
+
+    /** Refetches the key set, if it has been loaded at least once. */
+    void refresh() {
+        if (!loaded) {
+            return;
+        }
+        fetchLock.lock();
+        try {
+            fetch();
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private boolean refetchDue() {
+        return !attempted || System.nanoTime() - lastAttemptNanos >= minRefetchNanos;
+    }
+
+    private void fetch() {
+        attempted = true;
+        lastAttemptNanos = System.nanoTime();
+        Map<String, JwtDecoder> fetched;
+        try {
+            fetched = parse(restClient.get().uri(jwksUri).retrieve().body(String.class));
+        } catch (Exception e) {
+            log.warn("Could not fetch signing keys from {}: {}", jwksUri, e.getMessage());
+            return;
+        }
+        if (fetched.isEmpty()) {
+            log.warn("No RSA signing keys published at {}", jwksUri);
+        }
+
+        Set<String> removed = new HashSet<>(decoders.keySet());
+        removed.removeAll(fetched.keySet());
+        decoders = fetched;
+        if (!loaded) {
+            loaded = true;
+            log.info("Loaded {} signing key(s) from {}", fetched.size(), jwksUri);
+        } else if (!removed.isEmpty()) {
+            log.info("Signing key(s) {} no longer published at {}", removed, jwksUri);
+        }
+        if (!removed.isEmpty()) {
+            onKeysRemoved.accept(removed);
+        }
+    }
+
+    private Map<String, JwtDecoder> parse(String body) throws ParseException {
+        Map<String, JwtDecoder> result = new HashMap<>();
+        for (JWK jwk : JWKSet.parse(body).getKeys()) {
+            // Keycloak also publishes encryption keys (RSA-OAEP); only RSA signing keys are used.
+            if (!(jwk instanceof RSAKey rsaKey) || jwk.getKeyID() == null
+                    || KeyUse.ENCRYPTION.equals(jwk.getKeyUse())) {
+                continue;
+            }
+            SignatureAlgorithm algorithm = jwk.getAlgorithm() == null
+                    ? SignatureAlgorithm.RS256
+                    : SignatureAlgorithm.from(jwk.getAlgorithm().getName());
+            if (algorithm == null || !JWSAlgorithm.Family.RSA.contains(JWSAlgorithm.parse(algorithm.getName()))) {
+                continue;
+            }
+            try {
+                NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey())
+                        .signatureAlgorithm(algorithm)
+                        .build();
+                decoder.setJwtValidator(jwtValidator);
+                result.put(jwk.getKeyID(), decoder);
+            } catch (Exception e) {
+                log.warn("Skipping signing key {} from {}: {}", jwk.getKeyID(), jwksUri, e.getMessage());
+            }
+        }
+        return Map.copyOf(result);
+    }
+}
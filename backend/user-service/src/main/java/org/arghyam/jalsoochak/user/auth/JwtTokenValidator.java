@@ -1,8 +1,12 @@
 package org.arghyam.jalsoochak.user.auth;
 
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
@@ -11,63 +15,180 @@ import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Validates Keycloak access tokens in-process, without Spring Security's resource-server filter.
+ *
+ * <p>Tokens are verified against the realm's JWKS keys, looked up by the {@code kid} header
+ * (see {@link JwksKeyCache}), so a Keycloak key rotation needs no redeploy. A configured
+ * {@code KEYCLOAK_PUBLIC_KEY} is used for tokens whose key is not in the JWKS set, e.g. when
+ * Keycloak cannot be reached from this service.</p>
+ *
+ * <p>Verified tokens are cached by SHA-256 of the token until they expire, so repeated calls
+ * with the same token skip parsing and signature verification. Entries signed with a key
+ * that Keycloak stops publishing are dropped on the next key fetch.</p>
+ */
 @Component
 public class JwtTokenValidator {
 
+    private record VerifiedToken(Jwt jwt, String keyId) {
+    }
+
     private final String issuerUri;
     private final String keycloakPublicKey;
+    private final OAuth2TokenValidator<Jwt> jwtValidator;
+    private final JwksKeyCache jwksKeyCache;
+    private final int maxCachedTokens;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(JwtTokenValidator::newDigest);
 
-    private volatile JwtDecoder decoder;
+    private volatile JwtDecoder staticKeyDecoder;
 
     public JwtTokenValidator(
             @Value("${KEYCLOAK_ISSUER_URI:}") String issuerUri,
             @Value("${KEYCLOAK_PUBLIC_KEY:}") String keycloakPublicKey,
-            @Value("${keycloak.public-key:}") String keycloakPublicKeyFallback
+            @Value("${keycloak.public-key:}") String keycloakPublicKeyFallback,
+            @Value("${keycloak.jwks.uri:}") String jwksUri,
+            @Value("${keycloak.jwks.min-refetch-interval:PT30S}") Duration minRefetchInterval,
+            @Value("${keycloak.token-cache.max-entries:10000}") int maxCachedTokens,
+            @Value("${http-client.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${http-client.read-timeout-ms:10000}") int readTimeoutMs
     ) {
         this.issuerUri = issuerUri == null ? "" : issuerUri.trim();
         // Prefer env var for consistency across services; fall back to application.yml if set.
         String primary = keycloakPublicKey == null ? "" : keycloakPublicKey.trim();
         String fallback = keycloakPublicKeyFallback == null ? "" : keycloakPublicKeyFallback.trim();
         this.keycloakPublicKey = !primary.isBlank() ? primary : fallback;
+
+        // Always validate exp/nbf; validate issuer if configured.
+        this.jwtValidator = this.issuerUri.isBlank()
+                ? new DelegatingOAuth2TokenValidator<>(new JwtTimestampValidator())
+                : JwtValidators.createDefaultWithIssuer(this.issuerUri);
+        this.jwksKeyCache = jwksUri == null || jwksUri.isBlank()
+                ? null
+                : new JwksKeyCache(jwksUri.trim(), minRefetchInterval, connectTimeoutMs, readTimeoutMs,
+                        jwtValidator, this::evictTokensSignedBy, !this.keycloakPublicKey.isBlank());
+        this.maxCachedTokens = maxCachedTokens;
     }
 
     public Jwt decodeAndValidate(String token) throws JwtException {
-        return getDecoder().decode(token);
+        String tokenHash = maxCachedTokens > 0 ? sha256(token) : null;
+        if (tokenHash != null) {
+            VerifiedToken cached = verifiedTokens.get(tokenHash);
+            if (cached != null) {
+                if (Instant.now().isBefore(cached.jwt().getExpiresAt())) {
+                    return cached.jwt();
+                }
+                verifiedTokens.remove(tokenHash, cached);
+            }
+        }
+
+        String keyId = keyId(token);
+        Jwt jwt = decoderFor(keyId).decode(token);
+        if (tokenHash != null && jwt.getExpiresAt() != null) {
+            cache(tokenHash, new VerifiedToken(jwt, keyId));
+        }
+        return jwt;
     }
 
-    private JwtDecoder getDecoder() {
-        JwtDecoder local = decoder;
-        if (local != null) {
-            return local;
+    /** Refetches the JWKS key set in the background once it has been loaded. */
+    @Scheduled(initialDelayString = "${keycloak.jwks.refresh-interval:PT10M}",
+            fixedDelayString = "${keycloak.jwks.refresh-interval:PT10M}")
+    public void refreshSigningKeys() {
+        if (jwksKeyCache != null) {
+            jwksKeyCache.refresh();
         }
+    }
 
-        synchronized (this) {
+    private JwtDecoder decoderFor(String keyId) {
+        if (jwksKeyCache != null && keyId != null) {
+            JwtDecoder decoder = jwksKeyCache.decoder(keyId);
             if (decoder != null) {
                 return decoder;
             }
-            if (keycloakPublicKey.isBlank()) {
-                throw new IllegalStateException("KEYCLOAK_PUBLIC_KEY is not configured for user-service");
-            }
+        }
+        JwtDecoder decoder = getStaticKeyDecoder();
+        if (decoder != null) {
+            return decoder;
+        }
+        if (jwksKeyCache == null) {
+            throw new IllegalStateException(
+                    "Neither keycloak.jwks.uri nor KEYCLOAK_PUBLIC_KEY is configured for user-service");
+        }
+        throw new BadJwtException("Token is not signed with a known key");
+    }
 
+    private JwtDecoder getStaticKeyDecoder() {
+        JwtDecoder local = staticKeyDecoder;
+        if (local != null || keycloakPublicKey.isBlank()) {
+            return local;
+        }
+
+        synchronized (this) {
+            if (staticKeyDecoder != null) {
+                return staticKeyDecoder;
+            }
             RSAPublicKey publicKey = readRsaPublicKey(keycloakPublicKey);
             NimbusJwtDecoder nimbus = NimbusJwtDecoder.withPublicKey(publicKey).build();
+            nimbus.setJwtValidator(jwtValidator);
 
-            // Always validate exp/nbf; validate issuer if configured.
-            OAuth2TokenValidator<Jwt> validator = issuerUri.isBlank()
-                    ? new DelegatingOAuth2TokenValidator<>(new JwtTimestampValidator())
-                    : JwtValidators.createDefaultWithIssuer(issuerUri);
-            nimbus.setJwtValidator(validator);
-
-            decoder = nimbus;
+            staticKeyDecoder = nimbus;
             return nimbus;
         }
     }
 
+    private void cache(String tokenHash, VerifiedToken token) {
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            Instant now = Instant.now();
+            verifiedTokens.values().removeIf(entry -> !now.isBefore(entry.jwt().getExpiresAt()));
+            if (verifiedTokens.size() >= maxCachedTokens) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(tokenHash, token);
+    }
+
+    private void evictTokensSignedBy(Set<String> keyIds) {
+        verifiedTokens.values().removeIf(entry -> entry.keyId() != null && keyIds.contains(entry.keyId()));
+    }
+
+    private static String keyId(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            throw new BadJwtException("Malformed token");
+        }
+        try {
+            return JWSHeader.parse(new Base64URL(token.substring(0, dot))).getKeyID();
+        } catch (Exception e) {
+            throw new BadJwtException("Malformed token", e);
+        }
+    }
+
+    private String sha256(String token) {
+        MessageDigest digest = digests.get();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private static RSAPublicKey readRsaPublicKey(String value) {
         String cleaned = value
                 .replace("-----BEGIN PUBLIC KEY-----", "")
@@ -83,4 +204,3 @@ public class JwtTokenValidator {
         }
     }
 }
-
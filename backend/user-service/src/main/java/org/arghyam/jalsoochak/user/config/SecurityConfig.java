@@ -68,6 +68,8 @@ public class SecurityConfig {
                                     "/api/v1/auth/logout",
                                     "/api/v1/auth/invite/info",
                                     "/api/v1/auth/activate-account",
+                                    // Listings below take a `name` filter only from admins
+                                    // (SecurityUtils.requireNameSearchAccess).
                                     "/api/v1/pumpoperator/**",
                                     "/api/v1/tenant/user/staff",
                                     "/api/v1/tenant/user/staff/counts/by-role",
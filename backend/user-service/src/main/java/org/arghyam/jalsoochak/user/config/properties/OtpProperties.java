@@ -2,6 +2,8 @@ package org.arghyam.jalsoochak.user.config.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * OTP configuration properties.
  * Bound from {@code otp.*} in application.yml.
@@ -12,8 +14,35 @@ public record OtpProperties(
         int maxAttempts,
         int cooldownSeconds,
         int otpLength,
-        String deliveryChannel
+        String deliveryChannel,
+        Store store,
+        RateLimit rateLimit
 ) {
+
+    /** Where active OTPs are kept. */
+    public enum Store {
+        /** Redis, falling back to the database while Redis is unreachable. */
+        REDIS,
+        /** {@code common_schema.otp_table} only. */
+        DATABASE
+    }
+
+    /**
+     * Sliding-window limits on OTP requests. A limit of 0 disables that check.
+     *
+     * @param window   length of the sliding window
+     * @param perPhone requests allowed per phone number within the window
+     * @param perIp    requests allowed per client IP within the window
+     */
+    public record RateLimit(Duration window, int perPhone, int perIp) {
+        public RateLimit {
+            if (window == null || window.isNegative() || window.isZero())
+                throw new IllegalArgumentException("otp.rate-limit.window must be > 0");
+            if (perPhone < 0) throw new IllegalArgumentException("otp.rate-limit.per-phone must be >= 0");
+            if (perIp < 0)    throw new IllegalArgumentException("otp.rate-limit.per-ip must be >= 0");
+        }
+    }
+
     public OtpProperties {
         if (expiryMinutes <= 0)    throw new IllegalArgumentException("otp.expiry-minutes must be > 0");
         if (maxAttempts <= 0)      throw new IllegalArgumentException("otp.max-attempts must be > 0");
@@ -21,5 +50,7 @@ public record OtpProperties(
         if (otpLength < 4)         throw new IllegalArgumentException("otp.otp-length must be >= 4");
         if (deliveryChannel == null || deliveryChannel.isBlank())
             throw new IllegalArgumentException("otp.delivery-channel must not be blank");
+        if (store == null)         store = Store.DATABASE;
+        if (rateLimit == null)     rateLimit = new RateLimit(Duration.ofHours(1), 0, 0);
     }
 }
@@ -29,6 +29,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -180,12 +181,15 @@ public class AuthController {
             security = {})
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "OTP sent if the phone is registered and active"),
-        @ApiResponse(responseCode = "400", description = "Validation error or cooldown active")
+        @ApiResponse(responseCode = "400", description = "Validation error or cooldown active"),
+        @ApiResponse(responseCode = "429", description = "Too many OTP requests for this phone number or client")
     })
     @PostMapping("/staff/request-otp")
-    public ResponseEntity<ApiResponseDTO<Void>> staffRequestOtp(@Valid @RequestBody StaffOtpRequestDTO request) {
+    public ResponseEntity<ApiResponseDTO<Void>> staffRequestOtp(
+            @Valid @RequestBody StaffOtpRequestDTO request,
+            HttpServletRequest httpRequest) {
         log.info("POST /api/v1/auth/staff/request-otp");
-        staffAuthService.requestOtp(request);
+        staffAuthService.requestOtp(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(ApiResponseDTO.of(200, "OTP sent if this number is registered"));
     }
 
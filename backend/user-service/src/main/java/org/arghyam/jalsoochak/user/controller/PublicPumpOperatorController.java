@@ -10,7 +10,9 @@ import org.arghyam.jalsoochak.user.dto.response.PumpOperatorReadingComplianceRow
 import org.arghyam.jalsoochak.user.dto.response.PumpOperatorSchemeComplianceRowDTO;
 import org.arghyam.jalsoochak.user.dto.response.SchemePumpOperatorsDTO;
 import org.arghyam.jalsoochak.user.service.PublicPumpOperatorService;
+import org.arghyam.jalsoochak.user.util.SecurityUtils;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -57,9 +59,11 @@ public class PublicPumpOperatorController {
     public ResponseEntity<ApiResponseDTO<PageResponseDTO<PumpOperatorReadingComplianceRowDTO>>> listReadingCompliance(
             @RequestParam String tenantCode,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor
     ) {
-        PageResponseDTO<PumpOperatorReadingComplianceRowDTO> rows = publicPumpOperatorService.listReadingCompliance(tenantCode, page, size);
+        PageResponseDTO<PumpOperatorReadingComplianceRowDTO> rows =
+                publicPumpOperatorService.listReadingCompliance(tenantCode, page, size, cursor);
         return ResponseEntity.ok(ApiResponseDTO.of(200, "Reading compliance retrieved", rows));
     }
 
@@ -68,10 +72,11 @@ public class PublicPumpOperatorController {
             @RequestParam String tenantCode,
             @RequestParam long schemeId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor
     ) {
         PageResponseDTO<PumpOperatorSchemeComplianceRowDTO> rows =
-                publicPumpOperatorService.listPumpOperatorsBySchemeWithCompliance(tenantCode, schemeId, page, size);
+                publicPumpOperatorService.listPumpOperatorsBySchemeWithCompliance(tenantCode, schemeId, page, size, cursor);
         return ResponseEntity.ok(ApiResponseDTO.of(200, "Pump operators retrieved", rows));
     }
 
@@ -81,9 +86,12 @@ public class PublicPumpOperatorController {
             @RequestParam(required = false) Long schemeId,
             @RequestParam(required = false) List<Long> schemeIds,
             @RequestParam(required = false) String schemeName,
+            @RequestParam(required = false) String name,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size
+            @RequestParam(required = false) Integer size,
+            Authentication authentication
     ) {
+        SecurityUtils.requireNameSearchAccess(authentication, tenantCode, name);
         List<Long> effectiveSchemeIds = schemeIds;
         if (schemeId != null) {
             effectiveSchemeIds = List.of(schemeId);
@@ -107,6 +115,7 @@ public class PublicPumpOperatorController {
                 tenantCode,
                 effectiveSchemeIds,
                 schemeName,
+                name,
                 effectivePage,
                 effectiveSize
         );
@@ -12,6 +12,7 @@ import org.arghyam.jalsoochak.user.dto.response.TenantStaffResponseDTO;
 import org.arghyam.jalsoochak.user.dto.response.WelcomeMessageResponseDTO;
 import org.arghyam.jalsoochak.user.service.TenantStaffService;
 import org.arghyam.jalsoochak.user.service.WelcomeMessageService;
+import org.arghyam.jalsoochak.user.util.SecurityUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -45,8 +46,10 @@ public class TenantStaffController {
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) List<String> role,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String name
+            @RequestParam(required = false) String name,
+            Authentication authentication
     ) {
+        SecurityUtils.requireNameSearchAccess(authentication, tenantCode, name);
         return ResponseEntity.ok(ApiResponseDTO.of(200, "Staff retrieved",
                 tenantStaffService.listStaff(tenantCode, page, limit, sortBy, sortDir, role, status, name)));
     }
@@ -65,8 +68,10 @@ public class TenantStaffController {
     public ResponseEntity<ApiResponseDTO<List<RoleCountDTO>>> countStaffByRole(
             @RequestParam String tenantCode,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String name
+            @RequestParam(required = false) String name,
+            Authentication authentication
     ) {
+        SecurityUtils.requireNameSearchAccess(authentication, tenantCode, name);
         return ResponseEntity.ok(ApiResponseDTO.of(200, "Staff counts retrieved",
                 tenantStaffService.countStaffByRole(tenantCode, status, name)));
     }
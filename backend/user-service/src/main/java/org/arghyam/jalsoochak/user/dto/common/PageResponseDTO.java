@@ -33,6 +33,10 @@ public class PageResponseDTO<T> {
     @Schema(description = "Current page number (0-indexed)", example = "0")
     private int number;
 
+    @Schema(description = "Opaque token for the page after this one, for listings that support cursors; "
+            + "null on the last page")
+    private String nextCursor;
+
     /**
      * Helper method to create a PageResponseDTO.
      */
@@ -9,7 +9,11 @@ import java.time.LocalDateTime;
 public record PumpOperatorReadingComplianceDTO(
         String name,
         LocalDateTime lastSubmissionAt,
-        BigDecimal confirmedReading
+        BigDecimal confirmedReading,
+        Integer submittedDays,
+        Integer submittedDaysInWindow,
+        Integer currentStreakDays,
+        Integer longestStreakDays
 ) {
 }
 
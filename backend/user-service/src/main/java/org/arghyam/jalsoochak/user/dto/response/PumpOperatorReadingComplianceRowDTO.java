@@ -11,7 +11,11 @@ public record PumpOperatorReadingComplianceRowDTO(
         String uuid,
         String name,
         LocalDateTime lastSubmissionAt,
-        BigDecimal confirmedReading
+        BigDecimal confirmedReading,
+        Integer submittedDays,
+        Integer submittedDaysInWindow,
+        Integer currentStreakDays,
+        Integer longestStreakDays
 ) {
 }
 
@@ -5,7 +5,7 @@ import lombok.Builder;
 import lombok.Value;
 
 /**
- * Kafka event published to {@code common-topic} after a staff user requests an OTP.
+ * Kafka event published to {@code notification-priority-topic} after a staff user requests an OTP.
  * {@code message-service} consumes this event and delivers the OTP via WhatsApp or SMS.
  *
  * <p>Phone number and officer name are PII — this event is published only to the
@@ -1,40 +1,40 @@
 package org.arghyam.jalsoochak.user.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.arghyam.jalsoochak.user.kafka.KafkaProducer;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository.NewEvent;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import jakarta.annotation.PreDestroy;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.CompletableFuture;
 import java.util.List;
 
+/**
+ * Queues pump operator messaging events in the outbox; {@link org.arghyam.jalsoochak.user.kafka.UserEventRelay}
+ * publishes them to the notification priority topic. Queued in the caller's transaction, an
+ * event is sent only if that transaction commits, and is not lost if the service stops
+ * before it is sent.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserEventPublisher {
 
-    public static final String COMMON_TOPIC = "common-topic";
+    /** User-facing notifications (onboarding, OTP, account emails), consumed on message-service's priority lane. */
+    public static final String NOTIFICATION_PRIORITY_TOPIC = "notification-priority-topic";
     private static final int MAX_PHONES_PER_EVENT = 1000;
 
-    private final KafkaProducer kafkaProducer;
-    private final ExecutorService publishExecutor = Executors.newFixedThreadPool(4);
-
-    @PreDestroy
-    public void shutdown() {
-        publishExecutor.shutdown();
-    }
+    private final UserEventOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Publishes message-service compatible onboarding events after DB commit.
+     * Queues message-service compatible onboarding events, published once the current
+     * transaction commits. Both are keyed by tenant so their relative order is kept.
      * Emits two eventTypes for the same phone batch:
      *  - UPDATE_USER_LANGUAGE
      *  - SEND_WELCOME_MESSAGE
@@ -50,64 +50,34 @@ public class UserEventPublisher {
         }
 
         List<List<String>> batches = partition(pumpOperatorPhones, MAX_PHONES_PER_EVENT);
-        int eventCount = batches.size() * 2;
-        log.info("[user-events] queued_after_commit count={} topic={} tenantCode={} tenantId={} phones={}",
-                eventCount, COMMON_TOPIC, tenantCode, tenantId, pumpOperatorPhones.size());
-
-        Runnable publish = () -> {
-            String triggeredAt = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
-            for (List<String> phones : batches) {
-                PumpOperatorMessagingEvent update = PumpOperatorMessagingEvent.builder()
-                        .eventType("UPDATE_USER_LANGUAGE")
-                        .tenantCode(tenantCode)
-                        .tenantId(tenantId)
-                        .triggeredAt(triggeredAt)
-                        .glificLanguageId(glificLanguageId)
-                        .pumpOperatorPhones(phones)
-                        .build();
-                PumpOperatorMessagingEvent welcome = PumpOperatorMessagingEvent.builder()
-                        .eventType("SEND_WELCOME_MESSAGE")
-                        .tenantCode(tenantCode)
-                        .tenantId(tenantId)
-                        .triggeredAt(triggeredAt)
-                        .glificLanguageId(glificLanguageId)
-                        .pumpOperatorPhones(phones)
-                        .build();
-
-                boolean ok1 = kafkaProducer.publishJson(COMMON_TOPIC, update);
-                boolean ok2 = kafkaProducer.publishJson(COMMON_TOPIC, welcome);
-                if (!ok1 || !ok2) {
-                    log.warn("[user-events] publish_failed tenantCode={} tenantId={} phones={} okUpdate={} okWelcome={}",
-                            tenantCode, tenantId, phones.size(), ok1, ok2);
-                }
-            }
-        };
-
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    // Never block the request thread on Kafka metadata/broker availability.
-                    CompletableFuture.runAsync(publish, publishExecutor)
-                            .exceptionally(ex -> {
-                                log.error("Async user event publish failed (best-effort): {}", ex.getMessage(), ex);
-                                return null;
-                            });
-                }
-            });
-        } else {
-            log.warn("No active transaction synchronization; publishing user events immediately");
-            CompletableFuture.runAsync(publish, publishExecutor)
-                    .exceptionally(ex -> {
-                        log.error("Async user event publish failed (best-effort): {}", ex.getMessage(), ex);
-                        return null;
-                    });
+        String triggeredAt = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
+        List<NewEvent> events = new ArrayList<>(batches.size() * 2);
+        for (List<String> phones : batches) {
+            events.add(event(tenantCode, PumpOperatorMessagingEvent.builder()
+                    .eventType("UPDATE_USER_LANGUAGE")
+                    .tenantCode(tenantCode)
+                    .tenantId(tenantId)
+                    .triggeredAt(triggeredAt)
+                    .glificLanguageId(glificLanguageId)
+                    .pumpOperatorPhones(phones)
+                    .build()));
+            events.add(event(tenantCode, PumpOperatorMessagingEvent.builder()
+                    .eventType("SEND_WELCOME_MESSAGE")
+                    .tenantCode(tenantCode)
+                    .tenantId(tenantId)
+                    .triggeredAt(triggeredAt)
+                    .glificLanguageId(glificLanguageId)
+                    .pumpOperatorPhones(phones)
+                    .build()));
         }
+        outboxRepository.enqueue(events);
+        log.info("[user-events] queued count={} topic={} tenantCode={} tenantId={} phones={}",
+                events.size(), NOTIFICATION_PRIORITY_TOPIC, tenantCode, tenantId, pumpOperatorPhones.size());
     }
 
     /**
-     * Publishes welcome-message events immediately (no transaction coupling).
-     * This is intended for bulk re-sends triggered by admin endpoints.
+     * Queues welcome-message events. Outside a transaction they are committed, and
+     * published, right away. This is intended for bulk re-sends triggered by admin endpoints.
      */
     public void publishWelcomeMessages(
             String tenantCode,
@@ -118,25 +88,28 @@ public class UserEventPublisher {
             return;
         }
         List<List<String>> batches = partition(pumpOperatorPhones, MAX_PHONES_PER_EVENT);
-        log.info("[user-events] welcome_publish count={} topic={} tenantCode={} tenantId={} phones={}",
-                batches.size(), COMMON_TOPIC, tenantCode, tenantId, pumpOperatorPhones.size());
-
         String triggeredAt = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
+        List<NewEvent> events = new ArrayList<>(batches.size());
         for (List<String> phones : batches) {
-            PumpOperatorMessagingEvent welcome = PumpOperatorMessagingEvent.builder()
+            events.add(event(tenantCode, PumpOperatorMessagingEvent.builder()
                     .eventType("SEND_WELCOME_MESSAGE")
                     .tenantCode(tenantCode)
                     .tenantId(tenantId)
                     .triggeredAt(triggeredAt)
                     .glificLanguageId(null)
                     .pumpOperatorPhones(phones)
-                    .build();
+                    .build()));
+        }
+        outboxRepository.enqueue(events);
+        log.info("[user-events] welcome_queued count={} topic={} tenantCode={} tenantId={} phones={}",
+                events.size(), NOTIFICATION_PRIORITY_TOPIC, tenantCode, tenantId, pumpOperatorPhones.size());
+    }
 
-            boolean ok = kafkaProducer.publishJson(COMMON_TOPIC, welcome);
-            if (!ok) {
-                log.warn("[user-events] welcome_publish_failed tenantCode={} tenantId={} phones={}",
-                        tenantCode, tenantId, phones.size());
-            }
+    private NewEvent event(String tenantCode, PumpOperatorMessagingEvent event) {
+        try {
+            return new NewEvent(tenantCode, event.getEventType(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getEventType() + " event", e);
         }
     }
 
@@ -8,8 +8,10 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
- * Publishes email notification events to the common Kafka topic after the
- * current DB transaction commits, preventing events for rolled-back operations.
+ * Publishes email and login OTP notification events to the notification priority
+ * topic after the current DB transaction commits, preventing events for rolled-back
+ * operations. message-service consumes that topic on its own lane, so these
+ * user-facing messages are not queued behind bulk nudges on {@code common-topic}.
  *
  * <p>If no transaction is active (e.g. in tests or async contexts), the event
  * is published immediately.</p>
@@ -19,7 +21,7 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 @Slf4j
 public class UserNotificationEventPublisher {
 
-    private static final String COMMON_TOPIC = "common-topic";
+    private static final String NOTIFICATION_PRIORITY_TOPIC = "notification-priority-topic";
 
     private final KafkaProducer kafkaProducer;
 
@@ -40,17 +42,17 @@ public class UserNotificationEventPublisher {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    boolean ok = kafkaProducer.publishJson(COMMON_TOPIC, event);
+                    boolean ok = kafkaProducer.publishJson(NOTIFICATION_PRIORITY_TOPIC, event);
                     if (!ok) {
-                        log.warn("[notification-event] Failed to publish {} event to topic={}", label, COMMON_TOPIC);
+                        log.warn("[notification-event] Failed to publish {} event to topic={}", label, NOTIFICATION_PRIORITY_TOPIC);
                     }
                 }
             });
         } else {
             log.warn("[notification-event] No active transaction; publishing {} event immediately", label);
-            boolean ok = kafkaProducer.publishJson(COMMON_TOPIC, event);
+            boolean ok = kafkaProducer.publishJson(NOTIFICATION_PRIORITY_TOPIC, event);
             if (!ok) {
-                log.warn("[notification-event] Failed to publish {} event to topic={}", label, COMMON_TOPIC);
+                log.warn("[notification-event] Failed to publish {} event to topic={}", label, NOTIFICATION_PRIORITY_TOPIC);
             }
         }
     }
@@ -0,0 +1,228 @@
+package org.arghyam.jalsoochak.user.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.user.event.UserEventPublisher;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository.Backlog;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes queued messaging events from the outbox to {@code notification-priority-topic}.
+ *
+ * <p>Each run drains the outbox in batches, one transaction per batch: the batch is locked,
+ * sent, and the events the broker acknowledged are deleted. Events of one key (tenant) are
+ * sent one after another, each once the previous one is acknowledged; different keys are
+ * sent side by side, so a round of sends holds the next event of every key in the batch.
+ * Delivery is at least once; the idempotent producer suppresses duplicates from its own
+ * retries, and every payload carries an {@code eventId} that message-service uses to drop
+ * redeliveries. However large an upload, the relay holds at most one batch in memory; the
+ * rest waits in the outbox.</p>
+ *
+ * <p>When a send fails, the key's later events are not sent: they stay queued behind it, so
+ * a tenant's welcome message never reaches the broker before its language update. The key
+ * is then skipped until its retry delay has passed ({@code user.events.relay.retry-delay-ms},
+ * doubled per attempt up to {@code max-retry-delay-ms}), so other tenants keep draining.</p>
+ *
+ * <p>Backlog metrics, refreshed after every run:</p>
+ * <ul>
+ *   <li>{@code user.events.outbox.pending} – events waiting in the outbox;</li>
+ *   <li>{@code user.events.outbox.oldest.age} – how long the oldest of them has waited;</li>
+ *   <li>{@code user.events.relay.published} / {@code user.events.relay.failed} – events
+ *       acknowledged by the broker, and failed sends left queued for a retry.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "user.events.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class UserEventRelay {
+
+    private final UserEventOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    @Value("${user.events.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${user.events.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+
+    @Value("${user.events.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs = 30_000;
+
+    @Value("${user.events.relay.retry-delay-ms:1000}")
+    private long retryDelayMs = 1_000;
+
+    @Value("${user.events.relay.max-retry-delay-ms:300000}")
+    private long maxRetryDelayMs = 300_000;
+
+    /** Events of one batch: published (deleted from the outbox) and left queued (failed or held back). */
+    record BatchResult(int published, int failed) {
+    }
+
+    public UserEventRelay(UserEventOutboxRepository outboxRepository,
+                          KafkaTemplate<String, String> kafkaTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("user.events.outbox.pending", pending, AtomicLong::get)
+                .description("Messaging events waiting in the outbox")
+                .register(meterRegistry);
+        TimeGauge.builder("user.events.outbox.oldest.age", oldestAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("How long the oldest queued messaging event has waited")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("user.events.relay.published")
+                .description("Messaging events acknowledged by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("user.events.relay.failed")
+                .description("Messaging event sends left queued for a retry")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${user.events.relay.interval-ms:1000}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                BatchResult result = transactionTemplate.execute(status -> relayBatch());
+                if (result == null || result.failed() > 0 || result.published() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("[user-events] relay failed — will retry on next run", e);
+        } finally {
+            refreshBacklog();
+        }
+    }
+
+    /** Publishes the oldest queued events. Must run in a transaction. */
+    BatchResult relayBatch() {
+        if (!outboxRepository.tryLockRelay()) {
+            return new BatchResult(0, 0);
+        }
+        List<OutboxEvent> batch = outboxRepository.lockOldest(batchSize);
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        long start = System.nanoTime();
+        Map<String, Deque<OutboxEvent>> byKey = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byKey.computeIfAbsent(event.key(), key -> new ArrayDeque<>()).add(event);
+        }
+
+        List<Long> published = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        int heldBack = 0;
+        String lastError = null;
+        while (!byKey.isEmpty()) {
+            List<OutboxEvent> round = byKey.values().stream().map(Deque::peekFirst).toList();
+            List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(round.size());
+            for (OutboxEvent event : round) {
+                sends.add(send(event));
+            }
+            kafkaTemplate.flush();
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            for (int i = 0; i < round.size(); i++) {
+                OutboxEvent event = round.get(i);
+                Deque<OutboxEvent> queue = byKey.get(event.key());
+                String error = await(sends.get(i), deadline);
+                if (error == null) {
+                    published.add(event.id());
+                    queue.pollFirst();
+                    if (queue.isEmpty()) {
+                        byKey.remove(event.key());
+                    }
+                } else {
+                    failed.add(event.id());
+                    heldBack += queue.size() - 1;
+                    byKey.remove(event.key());
+                    lastError = error;
+                }
+            }
+        }
+
+        outboxRepository.delete(published);
+        outboxRepository.recordFailure(failed, lastError,
+                Duration.ofMillis(retryDelayMs), Duration.ofMillis(maxRetryDelayMs));
+        publishedCounter.increment(published.size());
+        failedCounter.increment(failed.size());
+        if (failed.isEmpty()) {
+            log.info("[user-events] published={} elapsed_ms={}",
+                    published.size(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            log.warn("[user-events] published={} failed={} held_back={} elapsed_ms={} last_error={}",
+                    published.size(), failed.size(), heldBack, (System.nanoTime() - start) / 1_000_000, lastError);
+        }
+        return new BatchResult(published.size(), failed.size() + heldBack);
+    }
+
+    private void refreshBacklog() {
+        try {
+            Backlog backlog = outboxRepository.backlog();
+            pending.set(backlog.pending());
+            oldestAgeMillis.set(backlog.oldestCreatedAt() == null
+                    ? 0
+                    : Math.max(0, Duration.between(backlog.oldestCreatedAt(), Instant.now()).toMillis()));
+        } catch (Exception e) {
+            log.warn("[user-events] could not read outbox backlog: {}", e.getMessage());
+        }
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        try {
+            return kafkaTemplate.send(UserEventPublisher.NOTIFICATION_PRIORITY_TOPIC, event.key(), event.payload());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /** Waits for a send; returns {@code null} on success, else the failure message. */
+    private String await(CompletableFuture<SendResult<String, String>> send, long deadlineNanos) {
+        try {
+            send.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        } catch (TimeoutException ex) {
+            return "Timed out after " + sendTimeoutMs + " ms waiting for the broker";
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting for the broker";
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.arghyam.jalsoochak.user.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Tracks whether Redis is reachable. After a failed call, Redis is skipped for
+ * {@code otp.redis-backoff}, so that requests go straight to the fallback instead of each
+ * waiting for a connection timeout.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis")
+public class RedisBackoff {
+
+    private final long backoffNanos;
+    private volatile boolean down;
+    private volatile long retryAtNanos;
+
+    public RedisBackoff(@Value("${otp.redis-backoff:PT30S}") Duration backoff) {
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    /** Whether Redis should be tried: it has not failed, or its backoff has elapsed. */
+    public boolean isAvailable() {
+        return !down || System.nanoTime() - retryAtNanos >= 0;
+    }
+
+    /**
+     * Runs a Redis call, starting the backoff if it fails.
+     *
+     * @throws DataAccessException the failure of the call
+     */
+    public <T> T call(Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (DataAccessException e) {
+            if (!down) {
+                log.warn("Redis unavailable, using fallback for {}: {}", Duration.ofNanos(backoffNanos), e.getMessage());
+            }
+            retryAtNanos = System.nanoTime() + backoffNanos;
+            down = true;
+            throw e;
+        }
+        if (down) {
+            down = false;
+            log.info("Redis reachable again");
+        }
+        return result;
+    }
+}
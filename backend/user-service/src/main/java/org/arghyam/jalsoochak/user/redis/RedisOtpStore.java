@@ -0,0 +1,160 @@
+package org.arghyam.jalsoochak.user.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.user.service.OtpStore;
+import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link OtpStore} in Redis. Each active OTP is a hash that expires with the OTP, so
+ * nothing accumulates and nothing needs cleaning up.
+ *
+ * <p>Every step is one Lua script, so it is atomic with respect to concurrent requests:
+ * <ul>
+ *   <li>issue checks the cooldown and replaces the hash;</li>
+ *   <li>verification first reserves an attempt (incrementing the count and returning the
+ *       encrypted OTP), compares in Java, and on a match consumes the hash by renaming it to
+ *       its {@code :used} key, provided it is still the same OTP;</li>
+ *   <li>revert renames the {@code :used} key back unless a newer OTP has been issued.</li>
+ * </ul>
+ * The used key keeps the remaining TTL, so a consumed OTP can be reverted until it would
+ * have expired.
+ *
+ * <p>Calls fail with a {@link org.springframework.dao.DataAccessException} when Redis is
+ * unreachable; {@link org.arghyam.jalsoochak.user.service.OtpService} then uses the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis")
+public class RedisOtpStore implements OtpStore {
+
+    /** KEYS: active, used. ARGV: now (ms), cooldown (ms), encrypted OTP, nonce, TTL (ms). */
+    private static final RedisScript<Long> ISSUE = RedisScript.of("""
+            local issued = redis.call('HGET', KEYS[1], 'issued')
+            if issued then
+                local elapsed = tonumber(ARGV[1]) - tonumber(issued)
+                if elapsed < tonumber(ARGV[2]) then
+                    return tonumber(ARGV[2]) - elapsed
+                end
+            end
+            redis.call('DEL', KEYS[1], KEYS[2])
+            redis.call('HSET', KEYS[1], 'otp', ARGV[3], 'nonce', ARGV[4], 'attempts', 0, 'issued', ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            return 0
+            """, Long.class);
+
+    /** KEYS: active. ARGV: max attempts. Returns nil, {'locked'} or {'ok', encrypted OTP, nonce}. */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RESERVE = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return false
+            end
+            local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            if attempts > tonumber(ARGV[1]) then
+                return {'locked'}
+            end
+            return {'ok', redis.call('HGET', KEYS[1], 'otp'), redis.call('HGET', KEYS[1], 'nonce')}
+            """, List.class);
+
+    /** KEYS: active, used. ARGV: nonce. Returns 1 if consumed. */
+    private static final RedisScript<Long> CONSUME = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'nonce') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('HINCRBY', KEYS[1], 'attempts', -1)
+            redis.call('RENAME', KEYS[1], KEYS[2])
+            return 1
+            """, Long.class);
+
+    /** KEYS: active, used. ARGV: nonce. Returns 1 if reverted. */
+    private static final RedisScript<Long> REVERT = RedisScript.of("""
+            if redis.call('HGET', KEYS[2], 'nonce') ~= ARGV[1] then
+                return 0
+            end
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('RENAME', KEYS[2], KEYS[1])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PiiEncryptionService piiEncryptionService;
+    private final RedisBackoff backoff;
+    private final String keyPrefix;
+
+    public RedisOtpStore(StringRedisTemplate redisTemplate,
+                         PiiEncryptionService piiEncryptionService,
+                         RedisBackoff backoff,
+                         @Value("${spring.application.name}") String appName) {
+        this.redisTemplate = redisTemplate;
+        this.piiEncryptionService = piiEncryptionService;
+        this.backoff = backoff;
+        this.keyPrefix = appName + ":otp:";
+    }
+
+    /** Whether Redis should be tried; see {@link RedisBackoff}. */
+    public boolean isAvailable() {
+        return backoff.isAvailable();
+    }
+
+    @Override
+    public void issue(Key key, String encryptedOtp, Duration ttl, Duration cooldown) {
+        Long remainingMillis = backoff.call(() -> redisTemplate.execute(ISSUE, keys(key),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(cooldown.toMillis()),
+                encryptedOtp, UUID.randomUUID().toString(), String.valueOf(ttl.toMillis())));
+        if (remainingMillis != null && remainingMillis > 0) {
+            throw OtpStore.cooldownActive(Math.max(1, (remainingMillis + 999) / 1000));
+        }
+    }
+
+    @Override
+    public Consumed verifyAndConsume(Key key, String rawOtp, int maxAttempts) {
+        List<?> reserved = backoff.call(() -> redisTemplate.execute(RESERVE, List.of(activeKey(key)),
+                String.valueOf(maxAttempts)));
+        if (reserved == null || reserved.isEmpty()) {
+            return null;
+        }
+        if (!"ok".equals(reserved.get(0))) {
+            throw OtpStore.attemptsExhausted();
+        }
+
+        String storedOtp = piiEncryptionService.decrypt((String) reserved.get(1));
+        if (!OtpStore.matches(storedOtp, rawOtp)) {
+            log.debug("OTP mismatch for userId={} tenantId={} type={}", key.userId(), key.tenantId(), key.otpType());
+            throw OtpStore.invalidOtp();
+        }
+
+        String nonce = (String) reserved.get(2);
+        Long consumed = backoff.call(() -> redisTemplate.execute(CONSUME, keys(key), nonce));
+        if (consumed == null || consumed == 0) {
+            // Replaced by a newer OTP, or consumed by a concurrent verification
+            throw OtpStore.invalidOtp();
+        }
+        return new Consumed(this, key, nonce);
+    }
+
+    @Override
+    public boolean revert(Consumed consumed) {
+        Long reverted = backoff.call(() -> redisTemplate.execute(REVERT, keys(consumed.key()), consumed.ref()));
+        return reverted != null && reverted == 1;
+    }
+
+    /** Both keys share a hash tag, so that the scripts also work on Redis Cluster. */
+    private String activeKey(Key key) {
+        return keyPrefix + "{" + key.tenantId() + ":" + key.userId() + ":" + key.otpType() + "}";
+    }
+
+    private List<String> keys(Key key) {
+        String active = activeKey(key);
+        return List.of(active, active + ":used");
+    }
+}
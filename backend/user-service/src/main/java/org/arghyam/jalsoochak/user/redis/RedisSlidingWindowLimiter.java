@@ -0,0 +1,85 @@
+package org.arghyam.jalsoochak.user.redis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sliding-window log in Redis, shared by all instances: each counter is a sorted set of
+ * request timestamps that expires with the window.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis")
+public class RedisSlidingWindowLimiter {
+
+    /**
+     * KEYS: counters. ARGV: now (ms), window (ms), member, then one limit per key.
+     * Records the request in every counter only if none is full; otherwise returns the
+     * milliseconds until the fullest one has room.
+     */
+    private static final RedisScript<Long> ACQUIRE = RedisScript.of("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local wait = 0
+            for i, key in ipairs(KEYS) do
+                redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window)
+                if redis.call('ZCARD', key) >= tonumber(ARGV[3 + i]) then
+                    local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+                    wait = math.max(wait, tonumber(oldest[2]) + window - now)
+                end
+            end
+            if wait > 0 then
+                return wait
+            end
+            for _, key in ipairs(KEYS) do
+                redis.call('ZADD', key, now, ARGV[3])
+                redis.call('PEXPIRE', key, window)
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisBackoff backoff;
+    private final String keyPrefix;
+
+    public RedisSlidingWindowLimiter(StringRedisTemplate redisTemplate,
+                                     RedisBackoff backoff,
+                                     @Value("${spring.application.name}") String appName) {
+        this.redisTemplate = redisTemplate;
+        this.backoff = backoff;
+        this.keyPrefix = appName + ":rate:";
+    }
+
+    /** Whether Redis should be tried; see {@link RedisBackoff}. */
+    public boolean isAvailable() {
+        return backoff.isAvailable();
+    }
+
+    /**
+     * Records a request against every counter, unless one of them already holds its limit
+     * within {@code window}. Limits must be positive.
+     *
+     * @return 0 if recorded, otherwise the milliseconds until the request would be allowed
+     * @throws org.springframework.dao.DataAccessException if Redis is unreachable
+     */
+    public long tryAcquire(List<String> counters, List<Integer> limits, Duration window) {
+        List<String> keys = new ArrayList<>(counters.size());
+        List<String> args = new ArrayList<>(counters.size() + 3);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(window.toMillis()));
+        args.add(UUID.randomUUID().toString());
+        for (int i = 0; i < counters.size(); i++) {
+            keys.add(keyPrefix + counters.get(i));
+            args.add(String.valueOf(limits.get(i)));
+        }
+        Long wait = backoff.call(() -> redisTemplate.execute(ACQUIRE, keys, args.toArray()));
+        return wait == null ? 0 : wait;
+    }
+}
@@ -1,6 +1,5 @@
 package org.arghyam.jalsoochak.user.repository;
 
-import lombok.RequiredArgsConstructor;
 import org.arghyam.jalsoochak.user.dto.response.PumpOperatorDetailsDTO;
 import org.arghyam.jalsoochak.user.dto.response.PumpOperatorReadingComplianceDTO;
 import org.arghyam.jalsoochak.user.dto.response.PumpOperatorReadingComplianceRowDTO;
@@ -9,6 +8,8 @@ import org.arghyam.jalsoochak.user.dto.response.PumpOperatorSummaryDTO;
 import org.arghyam.jalsoochak.user.dto.response.SchemePumpOperatorsDTO;
 import org.arghyam.jalsoochak.user.enums.TenantUserStatus;
 import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.arghyam.jalsoochak.user.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -24,13 +25,53 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Repository
-@RequiredArgsConstructor
 public class PublicPumpOperatorRepository {
 
+    /** Reporting days covered by {@code operator_activity_table.recent_days}. */
+    static final int ACTIVITY_HISTORY_DAYS = 60;
+
     private final JdbcTemplate jdbcTemplate;
     private final PiiEncryptionService pii;
+    private final UserNameIndexRepository userNameIndexRepository;
+    private final int activityWindowDays;
+    /** Schemas known to have the activity summary; a table is never dropped once created. */
+    private final Set<String> summarisedSchemas = ConcurrentHashMap.newKeySet();
+
+    public PublicPumpOperatorRepository(JdbcTemplate jdbcTemplate,
+                                        PiiEncryptionService pii,
+                                        UserNameIndexRepository userNameIndexRepository,
+                                        @Value("${pump-operator.activity-window-days:30}") int activityWindowDays) {
+        if (activityWindowDays < 1 || activityWindowDays > ACTIVITY_HISTORY_DAYS) {
+            throw new IllegalStateException(
+                    "pump-operator.activity-window-days must be between 1 and " + ACTIVITY_HISTORY_DAYS);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.pii = pii;
+        this.userNameIndexRepository = userNameIndexRepository;
+        this.activityWindowDays = activityWindowDays;
+    }
+
+    /**
+     * One page of a listing, plus the cursor of its last row if more rows follow.
+     */
+    public record PageSlice<T>(List<T> content, KeysetCursor next) {}
+
+    /**
+     * Reading activity of one operator, from {@code operator_activity_table} (tenant
+     * migration T5) or, for tenants without it, aggregated from their readings. Streaks and
+     * the window count are {@code null} in the latter case.
+     */
+    private record Activity(LocalDateTime lastReadingAt,
+                            BigDecimal lastConfirmedReading,
+                            int submittedDays,
+                            Integer submittedDaysInWindow,
+                            Integer currentStreak,
+                            Integer longestStreak) {
+    }
 
     private static Integer getNullableInt(ResultSet rs, String column) throws SQLException {
         Object o = rs.getObject(column);
@@ -88,9 +129,119 @@ public class PublicPumpOperatorRepository {
         return columnExists(schemaName, "flow_reading_table", "observation_time") ? "observation_time" : "reading_at";
     }
 
+    private boolean hasActivitySummary(String schemaName) {
+        if (summarisedSchemas.contains(schemaName)) {
+            return true;
+        }
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, schemaName + ".operator_activity_table");
+        if (Boolean.TRUE.equals(exists)) {
+            summarisedSchemas.add(schemaName);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Join exposing the activity of the operator {@code userIdColumn} as {@code a}; select
+     * it with {@link #ACTIVITY_COLUMNS} and read it with {@link #readActivity}.
+     */
+    private String activityJoin(String schemaName, String userIdColumn, boolean summarised) {
+        if (summarised) {
+            return String.format("""
+                    LEFT JOIN %s.operator_activity_table a
+                      ON a.user_id = %s
+                    """, schemaName, userIdColumn);
+        }
+        String timeColumn = resolveFlowReadingTimeColumn(schemaName);
+        return String.format("""
+                LEFT JOIN LATERAL (
+                    SELECT lr.last_reading_at,
+                           lr.last_confirmed_reading,
+                           st.first_reading_date,
+                           st.last_reading_date,
+                           st.submitted_days,
+                           NULL::integer AS current_streak,
+                           NULL::integer AS longest_streak,
+                           NULL::bigint AS recent_days
+                    FROM (
+                        SELECT MIN(reading_date) AS first_reading_date,
+                               MAX(reading_date) AS last_reading_date,
+                               COUNT(DISTINCT reading_date)::integer AS submitted_days
+                        FROM %1$s.flow_reading_table
+                        WHERE deleted_at IS NULL
+                          AND created_by = %3$s
+                    ) st
+                    LEFT JOIN LATERAL (
+                        SELECT %2$s AS last_reading_at, confirmed_reading AS last_confirmed_reading
+                        FROM %1$s.flow_reading_table
+                        WHERE deleted_at IS NULL
+                          AND created_by = %3$s
+                        ORDER BY %2$s DESC, id DESC
+                        LIMIT 1
+                    ) lr ON true
+                ) a ON true
+                """, schemaName, timeColumn, userIdColumn);
+    }
+
+    private static final String ACTIVITY_COLUMNS = """
+            a.last_reading_at,
+            a.last_confirmed_reading,
+            a.first_reading_date,
+            COALESCE(a.submitted_days, 0) AS submitted_days,
+            a.current_streak,
+            a.longest_streak,
+            a.recent_days,
+            CURRENT_DATE - a.last_reading_date AS days_since_last_reading
+            """;
+
+    private Activity readActivity(ResultSet rs, boolean summarised) throws SQLException {
+        Timestamp lastTs = (Timestamp) rs.getObject("last_reading_at");
+        Integer daysSince = getNullableInt(rs, "days_since_last_reading");
+        Integer windowDays = null;
+        Integer currentStreak = null;
+        Integer longestStreak = null;
+        if (summarised) {
+            if (daysSince == null) {
+                windowDays = 0;
+                currentStreak = 0;
+                longestStreak = 0;
+            } else {
+                windowDays = submittedDaysInWindow(rs.getLong("recent_days"), daysSince, activityWindowDays);
+                // A streak survives until the end of the day after its last reading.
+                currentStreak = daysSince <= 1 ? getNullableInt(rs, "current_streak") : 0;
+                longestStreak = getNullableInt(rs, "longest_streak");
+            }
+        }
+        return new Activity(
+                lastTs == null ? null : lastTs.toLocalDateTime(),
+                (BigDecimal) rs.getObject("last_confirmed_reading"),
+                rs.getInt("submitted_days"),
+                windowDays,
+                currentStreak,
+                longestStreak);
+    }
+
+    /**
+     * Days with a reading among the {@code window} days ending today.
+     *
+     * @param recentDays bitmap of reporting days; bit {@code i} is the {@code i}-th day
+     *                   before the last reporting day
+     * @param daysSince  days from the last reporting day to today
+     */
+    static int submittedDaysInWindow(long recentDays, int daysSince, int window) {
+        // Day last - i is today - (daysSince + i), inside the window for 0 <= daysSince + i < window.
+        int from = Math.max(0, -daysSince);
+        int to = Math.min(ACTIVITY_HISTORY_DAYS, window - daysSince);
+        if (to <= from) {
+            return 0;
+        }
+        long mask = ((1L << (to - from)) - 1) << from;
+        return Long.bitCount(recentDays & mask);
+    }
+
     public PumpOperatorDetailsDTO findPumpOperatorById(String schemaName, long pumpOperatorId) {
         validateSchemaName(schemaName);
-        String timeColumn = resolveFlowReadingTimeColumn(schemaName);
         String schemeJoin;
         if (tableExists(schemaName, "user_scheme_mapping_table")) {
             schemeJoin = String.format("""
@@ -142,14 +293,12 @@ public class PublicPumpOperatorRepository {
                 LEFT JOIN common_schema.user_type_master_table ut
                   ON ut.id = u.user_type
                 %s
+                %s
                 LEFT JOIN LATERAL (
                     SELECT
-                        MAX(fr.%s) AS last_submission_at,
-                        MIN(fr.reading_date) AS first_submission_date,
-                        COUNT(DISTINCT fr.reading_date) AS submitted_days
-                    FROM %s.flow_reading_table fr
-                    WHERE fr.deleted_at IS NULL
-                      AND fr.created_by = u.id
+                        a.last_reading_at AS last_submission_at,
+                        a.first_reading_date AS first_submission_date,
+                        COALESCE(a.submitted_days, 0) AS submitted_days
                 ) rs ON true
                 LEFT JOIN LATERAL (
                     WITH bounds AS (
@@ -190,7 +339,7 @@ public class PublicPumpOperatorRepository {
                   AND u.id = ?
                   AND upper(COALESCE(ut.c_name, '')) = 'PUMP_OPERATOR'
                 LIMIT 1
-                """, schemaName, schemeJoin, timeColumn, schemaName, schemaName);
+                """, schemaName, schemeJoin, activityJoin(schemaName, "u.id", hasActivitySummary(schemaName)), schemaName);
         try {
             return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
                 Timestamp lastTs = (Timestamp) rs.getObject("last_submission_at");
@@ -257,6 +406,7 @@ public class PublicPumpOperatorRepository {
             String schemaName,
             List<Long> schemeIds,
             String schemeName,
+            String name,
             Integer page,
             Integer size
     ) {
@@ -283,6 +433,9 @@ public class PublicPumpOperatorRepository {
             where.append("\n  AND sm.scheme_name ILIKE ?\n");
             baseParams.add("%" + schemeName.trim() + "%");
         }
+        UserNameIndexRepository.NameMatch nameMatch = userNameIndexRepository.match(schemaName, "u.id", name);
+        where.append(nameMatch.sql());
+        baseParams.addAll(nameMatch.args());
 
         boolean paginate = page != null && size != null;
         int effectivePage = paginate ? page : 0;
@@ -525,39 +678,33 @@ public class PublicPumpOperatorRepository {
 
     public PumpOperatorReadingComplianceDTO getReadingCompliance(String schemaName, long pumpOperatorId) {
         validateSchemaName(schemaName);
-        String timeColumn = resolveFlowReadingTimeColumn(schemaName);
+        boolean summarised = hasActivitySummary(schemaName);
 
         // If the operator has no readings, lastSubmissionAt/confirmedReading will be null.
         String sql = String.format("""
                 SELECT u.title AS name,
-                       fr.last_submission_at,
-                       fr.confirmed_reading
+                       %s
                 FROM %s.user_table u
                 LEFT JOIN common_schema.user_type_master_table ut
                   ON ut.id = u.user_type
-                LEFT JOIN LATERAL (
-                    SELECT %s AS last_submission_at, confirmed_reading
-                    FROM %s.flow_reading_table
-                    WHERE deleted_at IS NULL
-                      AND created_by = u.id
-                    ORDER BY %s DESC, id DESC
-                    LIMIT 1
-                ) fr ON true
+                %s
                 WHERE u.deleted_at IS NULL
                   AND u.id = ?
                   AND upper(COALESCE(ut.c_name, '')) = 'PUMP_OPERATOR'
                 LIMIT 1
-                """, schemaName, timeColumn, schemaName, timeColumn);
+                """, ACTIVITY_COLUMNS, schemaName, activityJoin(schemaName, "u.id", summarised));
 
         try {
             return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
-                Timestamp ts = (Timestamp) rs.getObject("last_submission_at");
-                LocalDateTime lastSubmissionAt = ts == null ? null : ts.toLocalDateTime();
-                BigDecimal confirmed = (BigDecimal) rs.getObject("confirmed_reading");
+                Activity activity = readActivity(rs, summarised);
                 return PumpOperatorReadingComplianceDTO.builder()
                         .name(pii.safeDecrypt(rs.getString("name")))
-                        .lastSubmissionAt(lastSubmissionAt)
-                        .confirmedReading(confirmed)
+                        .lastSubmissionAt(activity.lastReadingAt())
+                        .confirmedReading(activity.lastConfirmedReading())
+                        .submittedDays(activity.submittedDays())
+                        .submittedDaysInWindow(activity.submittedDaysInWindow())
+                        .currentStreakDays(activity.currentStreak())
+                        .longestStreakDays(activity.longestStreak())
                         .build();
             }, pumpOperatorId);
         } catch (EmptyResultDataAccessException ex) {
@@ -565,45 +712,63 @@ public class PublicPumpOperatorRepository {
         }
     }
 
-    public List<PumpOperatorReadingComplianceRowDTO> listReadingCompliance(String schemaName, int offset, int limit) {
+    /**
+     * Lists pump operators by descending ID with their reading activity, after {@code after}
+     * (keyset) or, without a cursor, from {@code offset}.
+     */
+    public PageSlice<PumpOperatorReadingComplianceRowDTO> listReadingCompliance(
+            String schemaName,
+            KeysetCursor after,
+            int offset,
+            int limit
+    ) {
         validateSchemaName(schemaName);
-        String timeColumn = resolveFlowReadingTimeColumn(schemaName);
+        boolean summarised = hasActivitySummary(schemaName);
 
+        List<Object> args = new ArrayList<>();
+        String keyset = "";
+        if (after != null) {
+            after.requireSort("id", false);
+            keyset = "AND u.id < ?";
+            args.add(after.id());
+        }
         String sql = String.format("""
                 SELECT u.id,
                        u.uuid,
                        u.title AS name,
-                       fr.last_submission_at,
-                       fr.confirmed_reading
+                       %s
                 FROM %s.user_table u
                 LEFT JOIN common_schema.user_type_master_table ut
                   ON ut.id = u.user_type
-                LEFT JOIN LATERAL (
-                    SELECT %s AS last_submission_at, confirmed_reading
-                    FROM %s.flow_reading_table
-                    WHERE deleted_at IS NULL
-                      AND created_by = u.id
-                    ORDER BY %s DESC, id DESC
-                    LIMIT 1
-                ) fr ON true
+                %s
                 WHERE u.deleted_at IS NULL
                   AND upper(COALESCE(ut.c_name, '')) = 'PUMP_OPERATOR'
+                  %s
                 ORDER BY u.id DESC
                 LIMIT ? OFFSET ?
-                """, schemaName, timeColumn, schemaName, timeColumn);
+                """, ACTIVITY_COLUMNS, schemaName, activityJoin(schemaName, "u.id", summarised), keyset);
+        args.add(limit + 1);
+        args.add(after == null ? offset : 0);
 
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            Timestamp ts = (Timestamp) rs.getObject("last_submission_at");
-            LocalDateTime lastSubmissionAt = ts == null ? null : ts.toLocalDateTime();
-            BigDecimal confirmed = (BigDecimal) rs.getObject("confirmed_reading");
+        List<PumpOperatorReadingComplianceRowDTO> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Activity activity = readActivity(rs, summarised);
             return PumpOperatorReadingComplianceRowDTO.builder()
                     .id(rs.getLong("id"))
                     .uuid(rs.getString("uuid"))
                     .name(pii.safeDecrypt(rs.getString("name")))
-                    .lastSubmissionAt(lastSubmissionAt)
-                    .confirmedReading(confirmed)
+                    .lastSubmissionAt(activity.lastReadingAt())
+                    .confirmedReading(activity.lastConfirmedReading())
+                    .submittedDays(activity.submittedDays())
+                    .submittedDaysInWindow(activity.submittedDaysInWindow())
+                    .currentStreakDays(activity.currentStreak())
+                    .longestStreakDays(activity.longestStreak())
                     .build();
-        }, limit, offset);
+        }, args.toArray());
+        if (rows.size() <= limit) {
+            return new PageSlice<>(rows, null);
+        }
+        PumpOperatorReadingComplianceRowDTO last = rows.get(limit - 1);
+        return new PageSlice<>(rows.subList(0, limit), new KeysetCursor("id", false, "", last.id(), 0));
     }
 
     public long countReadingCompliance(String schemaName) {
@@ -620,18 +785,66 @@ public class PublicPumpOperatorRepository {
         return total == null ? 0 : total;
     }
 
-    public List<PumpOperatorSchemeComplianceRowDTO> listPumpOperatorsBySchemeWithCompliance(
+    /**
+     * Lists the readings of a scheme's pump operators, newest first, with each operator's
+     * activity, after {@code after} (keyset) or, without a cursor, from {@code offset}.
+     */
+    public PageSlice<PumpOperatorSchemeComplianceRowDTO> listPumpOperatorsBySchemeWithCompliance(
             String schemaName,
             long schemeId,
+            KeysetCursor after,
             int offset,
             int limit
     ) {
         validateSchemaName(schemaName);
         if (!tableExists(schemaName, "user_scheme_mapping_table")) {
-            return List.of();
+            return new PageSlice<>(List.of(), null);
         }
         String timeColumn = resolveFlowReadingTimeColumn(schemaName);
 
+        List<Object> args = new ArrayList<>();
+        args.add(schemeId);
+        String keyset = "";
+        if (after != null) {
+            after.requireSort("reading_date", false);
+            keyset = "WHERE (reading_date, reading_id) < (CAST(? AS date), ?)";
+            args.add(after.value());
+            args.add(after.id());
+        }
+        args.add(limit + 1);
+        args.add(after == null ? offset : 0);
+
+        String stats;
+        if (hasActivitySummary(schemaName)) {
+            stats = String.format("""
+                    stats AS (
+                        SELECT a.user_id AS created_by,
+                               a.submitted_days,
+                               a.last_reading_at AS last_submission_at
+                        FROM %s.operator_activity_table a
+                        JOIN page_ops po
+                          ON po.created_by = a.user_id
+                    )
+                    """, schemaName);
+        } else {
+            stats = String.format("""
+                    stats AS (
+                        SELECT fr.created_by,
+                               COUNT(DISTINCT fr.reading_date) AS submitted_days,
+                               MAX(fr.%s) AS last_submission_at
+                        FROM %s.flow_reading_table fr
+                        JOIN page_ops po
+                          ON po.created_by = fr.created_by
+                        JOIN latest_mapping l
+                          ON l.id = fr.created_by
+                        WHERE fr.deleted_at IS NULL
+                          AND l.onboarding_date IS NOT NULL
+                          AND fr.reading_date BETWEEN l.onboarding_date AND CURRENT_DATE
+                        GROUP BY fr.created_by
+                    )
+                    """, timeColumn, schemaName);
+        }
+
         String sql = String.format("""
                 WITH latest_mapping AS (
                     SELECT DISTINCT ON (u.id)
@@ -675,6 +888,7 @@ public class PublicPumpOperatorRepository {
                 paged AS (
                     SELECT *
                     FROM readings
+                    %s
                     ORDER BY reading_date DESC, reading_id DESC
                     LIMIT ? OFFSET ?
                 ),
@@ -682,20 +896,7 @@ public class PublicPumpOperatorRepository {
                     SELECT DISTINCT created_by
                     FROM paged
                 ),
-                stats AS (
-                    SELECT fr.created_by,
-                           COUNT(DISTINCT fr.reading_date) AS submitted_days,
-                           MAX(fr.%s) AS last_submission_at
-                    FROM %s.flow_reading_table fr
-                    JOIN page_ops po
-                      ON po.created_by = fr.created_by
-                    JOIN latest_mapping l
-                      ON l.id = fr.created_by
-                    WHERE fr.deleted_at IS NULL
-                      AND l.onboarding_date IS NOT NULL
-                      AND fr.reading_date BETWEEN l.onboarding_date AND CURRENT_DATE
-                    GROUP BY fr.created_by
-                )
+                %s
                 SELECT l.id,
                        l.uuid,
                        l.name,
@@ -732,6 +933,7 @@ public class PublicPumpOperatorRepository {
                                2
                            )
                        END AS reporting_rate_percent,
+                       paged.reading_id,
                        paged.reading_date,
                        paged.reading_at,
                        paged.confirmed_reading,
@@ -742,7 +944,7 @@ public class PublicPumpOperatorRepository {
                 LEFT JOIN stats
                   ON stats.created_by = l.id
                 ORDER BY paged.reading_date DESC, paged.reading_id DESC
-                """, schemaName, schemaName, schemaName, timeColumn, schemaName, timeColumn, schemaName);
+                """, schemaName, schemaName, schemaName, timeColumn, schemaName, keyset, stats);
 
         record RowData(
                 Long id,
@@ -761,6 +963,7 @@ public class PublicPumpOperatorRepository {
                 Integer inactiveDays,
                 Integer missingSubmissionCount,
                 BigDecimal reportingRatePercent,
+                long readingId,
                 LocalDate readingDate,
                 LocalDateTime readingAt,
                 LocalDateTime lastSubmissionAt,
@@ -791,15 +994,19 @@ public class PublicPumpOperatorRepository {
                     getNullableInt(rs, "inactive_days"),
                     getNullableInt(rs, "missing_submission_count"),
                     (BigDecimal) rs.getObject("reporting_rate_percent"),
+                    rs.getLong("reading_id"),
                     rs.getObject("reading_date", LocalDate.class),
                     readingAt,
                     lastSubmissionAt,
                     confirmed
             );
-        }, schemeId, limit, offset);
+        }, args.toArray());
 
-        if (rows.isEmpty()) {
-            return List.of();
+        KeysetCursor next = null;
+        if (rows.size() > limit) {
+            RowData last = rows.get(limit - 1);
+            next = new KeysetCursor("reading_date", false, last.readingDate().toString(), last.readingId(), 0);
+            rows = rows.subList(0, limit);
         }
 
         List<PumpOperatorSchemeComplianceRowDTO> results = new ArrayList<>(rows.size());
@@ -828,7 +1035,7 @@ public class PublicPumpOperatorRepository {
                     .build());
         }
 
-        return results;
+        return new PageSlice<>(results, next);
     }
 
     public long countPumpOperatorsBySchemeWithCompliance(String schemaName, long schemeId) {
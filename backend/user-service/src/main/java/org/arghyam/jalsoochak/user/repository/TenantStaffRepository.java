@@ -24,6 +24,7 @@ public class TenantStaffRepository {
 
     private final JdbcTemplate jdbcTemplate;
     private final PiiEncryptionService pii;
+    private final UserNameIndexRepository userNameIndexRepository;
 
     private static final Map<Integer, String> WORK_STATUS_LABELS = Map.of(
             1, "Ongoing",
@@ -69,20 +70,6 @@ public class TenantStaffRepository {
         return Boolean.TRUE.equals(exists);
     }
 
-    /**
-     * Rejects a name filter by throwing {@link IllegalArgumentException}.
-     * Name filtering is not supported because the {@code title} field is encrypted;
-     * in-memory decrypt-and-scan is unbounded. This guard is applied consistently in
-     * {@link #listStaff}, {@link #countStaff}, {@link #countByRole}, and {@link #listStaffPage}.
-     */
-    private void rejectNameFilter(String name) {
-        if (name != null && !name.isBlank()) {
-            throw new IllegalArgumentException(
-                    "Name filtering is not supported because the title field is encrypted. " +
-                    "Remove the name parameter or leave it blank.");
-        }
-    }
-
     public List<TenantStaffResponseDTO> listStaff(
             String schemaName,
             List<String> roles,
@@ -94,11 +81,7 @@ public class TenantStaffRepository {
             int limit
     ) {
         validateSchemaName(schemaName);
-        // Name filtering is not supported: title is encrypted and in-memory decrypt-and-scan
-        // is unbounded. Reject until a searchable name sidecar/index is available.
-        rejectNameFilter(name);
-
-        SqlAndArgs where = buildWhere(roles, status);
+        SqlAndArgs where = buildWhere(schemaName, roles, status, name);
         String orderBy = orderBy(sortBy, sortDir);
 
         String sql = String.format("""
@@ -156,9 +139,7 @@ public class TenantStaffRepository {
 
     public long countStaff(String schemaName, List<String> roles, Integer status, String name) {
         validateSchemaName(schemaName);
-        rejectNameFilter(name);
-
-        SqlAndArgs where = buildWhere(roles, status);
+        SqlAndArgs where = buildWhere(schemaName, roles, status, name);
         String sql = String.format("""
                 SELECT COUNT(1)
                 FROM %s.user_table u
@@ -174,8 +155,7 @@ public class TenantStaffRepository {
 
     public List<RoleCountDTO> countByRole(String schemaName, Integer status, String name) {
         validateSchemaName(schemaName);
-        rejectNameFilter(name);
-        SqlAndArgs where = buildWhere(List.of(), status);
+        SqlAndArgs where = buildWhere(schemaName, List.of(), status, name);
 
         String sql = String.format("""
                 SELECT COALESCE(ut.c_name, 'UNKNOWN') AS role,
@@ -205,10 +185,9 @@ public class TenantStaffRepository {
     /**
      * Returns a page of staff and the total count in one call.
      * <p>
-     * Name filters are <em>not</em> supported: the {@code title} field is encrypted and
-     * cannot be searched at the database level. Passing a non-blank {@code name} will
-     * cause an {@link IllegalArgumentException} to be thrown — consistent with
-     * {@link #listStaff} and {@link #countStaff}.
+     * {@code name} is matched through the name blind index rather than the encrypted
+     * {@code title} column: words of one or two characters match by prefix, longer words
+     * by substring (see {@link UserNameIndexRepository#match}).
      */
     public StaffPage listStaffPage(
             String schemaName,
@@ -221,8 +200,7 @@ public class TenantStaffRepository {
             int limit
     ) {
         validateSchemaName(schemaName);
-        rejectNameFilter(name);
-        SqlAndArgs where = buildWhere(roles, status);
+        SqlAndArgs where = buildWhere(schemaName, roles, status, name);
         String orderBy = orderBy(sortBy, sortDir);
 
         String baseSql = String.format("""
@@ -263,8 +241,8 @@ public class TenantStaffRepository {
 
     private record SqlAndArgs(String sql, List<Object> args) {}
 
-    // name is excluded from SQL filtering because title is encrypted
-    private SqlAndArgs buildWhere(List<String> roles, Integer status) {
+    // title is encrypted, so name is matched through the blind index
+    private SqlAndArgs buildWhere(String schemaName, List<String> roles, Integer status, String name) {
         List<String> clauses = new ArrayList<>();
         List<Object> args = new ArrayList<>();
 
@@ -285,11 +263,13 @@ public class TenantStaffRepository {
             clauses.add("u.status = ?");
             args.add(status);
         }
+        UserNameIndexRepository.NameMatch nameMatch = userNameIndexRepository.match(schemaName, "u.id", name);
+        args.addAll(nameMatch.args());
 
         if (clauses.isEmpty()) {
-            return new SqlAndArgs("", List.of());
+            return new SqlAndArgs(nameMatch.sql(), args);
         }
-        return new SqlAndArgs(" AND " + String.join(" AND ", clauses), args);
+        return new SqlAndArgs(" AND " + String.join(" AND ", clauses) + nameMatch.sql(), args);
     }
 
     private String orderBy(String sortBy, String sortDir) {
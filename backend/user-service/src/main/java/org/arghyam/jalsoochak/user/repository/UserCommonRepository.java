@@ -81,6 +81,15 @@ public class UserCommonRepository {
         return rows.stream().findFirst();
     }
 
+    public List<String> findAllTenantStateCodes() {
+        String sql = """
+                SELECT state_code
+                FROM common_schema.tenant_master_table
+                ORDER BY id
+                """;
+        return jdbcTemplate.query(sql, (rs, n) -> rs.getString("state_code"));
+    }
+
     // --- User type lookups ---
 
     public Optional<Integer> findUserTypeIdByName(String cName) {
@@ -0,0 +1,14 @@
+package org.arghyam.jalsoochak.user.repository;
+
+/**
+ * A user to insert with {@link UserTenantRepository#createUsers}. {@code title} and
+ * {@code phoneNumber} are plaintext; the repository encrypts them and derives the phone hash.
+ */
+public record UserCreateRow(
+        String uuid,
+        String title,
+        String email,
+        int userTypeId,
+        String phoneNumber
+) {
+}
@@ -0,0 +1,153 @@
+package org.arghyam.jalsoochak.user.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox of messaging events ({@code common_schema.user_event_outbox_table}).
+ *
+ * <p>Events are queued in the transaction that onboards the users and published to Kafka
+ * by {@link org.arghyam.jalsoochak.user.kafka.UserEventRelay}. Payloads list phone numbers,
+ * so they are stored encrypted.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserEventOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PiiEncryptionService piiEncryptionService;
+    private final ObjectMapper objectMapper;
+
+    /** An event to queue: Kafka record key, event type and JSON value. */
+    public record NewEvent(String key, String eventType, String payload) {
+    }
+
+    /** A queued event: Kafka record key and JSON value. */
+    public record OutboxEvent(long id, String key, String payload) {
+    }
+
+    /** Queued events and the age of the oldest, for the relay's backlog metrics. */
+    public record Backlog(long pending, Instant oldestCreatedAt) {
+    }
+
+    /** Queues events in id order. Call in the transaction whose commit the events announce. */
+    public void enqueue(List<NewEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<String> encrypted = piiEncryptionService.encryptAll(events.stream().map(NewEvent::payload).toList());
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            NewEvent event = events.get(i);
+            args.add(new Object[]{event.key(), event.eventType(), encrypted.get(i)});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO common_schema.user_event_outbox_table (event_key, event_type, payload)
+                VALUES (?, ?, ?)
+                """, args);
+    }
+
+    /**
+     * Takes the relay lock for the current transaction, so only one instance publishes at a
+     * time and events of a tenant are sent in the order they were queued.
+     *
+     * @return {@code false} if another transaction holds it
+     */
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('user-event-relay'))", Boolean.class));
+    }
+
+    /**
+     * The oldest queued events, decrypted and locked until the transaction ends, skipping
+     * every event of a key that has a failed event waiting for its {@code retry_at}. The
+     * payload gains an {@code eventId} (the outbox ID) that consumers can use to discard
+     * redeliveries.
+     */
+    public List<OutboxEvent> lockOldest(int limit) {
+        List<Long> ids = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<String> payloads = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT o.id, o.event_key, o.payload
+                FROM common_schema.user_event_outbox_table o
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM common_schema.user_event_outbox_table f
+                    WHERE f.event_key = o.event_key AND f.retry_at > NOW())
+                ORDER BY o.id
+                LIMIT ?
+                FOR UPDATE OF o
+                """, rs -> {
+            ids.add(rs.getLong("id"));
+            keys.add(rs.getString("event_key"));
+            payloads.add(rs.getString("payload"));
+        }, limit);
+
+        List<String> decrypted = piiEncryptionService.decryptAll(payloads);
+        List<OutboxEvent> events = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            events.add(new OutboxEvent(ids.get(i), keys.get(i), withEventId(decrypted.get(i), ids.get(i))));
+        }
+        return events;
+    }
+
+    public void delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM common_schema.user_event_outbox_table WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    /**
+     * Records a failed send and defers the events' keys: {@code retryDelay}, doubled with
+     * every earlier attempt up to {@code maxRetryDelay}.
+     */
+    public void recordFailure(List<Long> ids, String error, Duration retryDelay, Duration maxRetryDelay) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("""
+                UPDATE common_schema.user_event_outbox_table
+                SET attempts = attempts + 1, last_error = ?,
+                    retry_at = NOW() + LEAST(? * power(2, LEAST(attempts, 20)), ?) * INTERVAL '1 millisecond'
+                WHERE id = ANY(?)
+                """, ps -> {
+            ps.setString(1, error);
+            ps.setLong(2, retryDelay.toMillis());
+            ps.setLong(3, maxRetryDelay.toMillis());
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+    }
+
+    public Backlog backlog() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) AS pending, MIN(created_at) AS oldest
+                FROM common_schema.user_event_outbox_table
+                """, (rs, rowNum) -> {
+            Timestamp oldest = rs.getTimestamp("oldest");
+            return new Backlog(rs.getLong("pending"), oldest != null ? oldest.toInstant() : null);
+        });
+    }
+
+    private String withEventId(String payload, long id) {
+        try {
+            ObjectNode node = (ObjectNode) objectMapper.readTree(payload);
+            node.put("eventId", id);
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox event " + id + " has an unreadable payload", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.arghyam.jalsoochak.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.arghyam.jalsoochak.user.service.NameBlindIndex;
+import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Blind index of user names ({@code user_name_index_table}, tenant migration T4).
+ *
+ * <p>Tokens come from {@link NameBlindIndex}. They are rewritten whenever a user's name is
+ * written; {@link #indexMissing} catches up users created before the table existed or by
+ * other services. Tenants whose schema has not been migrated yet are skipped on write, and
+ * name searches against them are rejected.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserNameIndexRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PiiEncryptionService pii;
+    private final NameBlindIndex nameBlindIndex;
+    /** Schemas known to have the index table; a table is never dropped once created. */
+    private final Set<String> indexedSchemas = ConcurrentHashMap.newKeySet();
+
+    /** A condition on a user ID column, to be appended to a {@code WHERE} clause. */
+    public record NameMatch(String sql, List<Object> args) {
+        public static final NameMatch NONE = new NameMatch("", List.of());
+    }
+
+    private void validateSchemaName(String schemaName) {
+        if (schemaName == null || !schemaName.matches("^[a-z_][a-z0-9_]*$")) {
+            throw new IllegalArgumentException("Invalid schema name: " + schemaName);
+        }
+    }
+
+    public boolean isAvailable(String schemaName) {
+        validateSchemaName(schemaName);
+        if (indexedSchemas.contains(schemaName)) {
+            return true;
+        }
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, schemaName + ".user_name_index_table");
+        if (Boolean.TRUE.equals(exists)) {
+            indexedSchemas.add(schemaName);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the index tokens of the given users.
+     *
+     * @param userIds user IDs
+     * @param names   plaintext names, in the same order; {@code null} clears a user's tokens
+     */
+    public void indexNames(String schemaName, List<Long> userIds, List<String> names) {
+        if (userIds.isEmpty() || !isAvailable(schemaName)) {
+            return;
+        }
+        List<Long> tokenUsers = new ArrayList<>();
+        List<Long> tokens = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            for (long token : nameBlindIndex.tokens(names.get(i))) {
+                tokenUsers.add(userIds.get(i));
+                tokens.add(token);
+            }
+        }
+
+        jdbcTemplate.update(String.format("""
+                DELETE FROM %s.user_name_index_table
+                WHERE user_id = ANY(?)
+                """, schemaName),
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", userIds.toArray())));
+        if (tokens.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(String.format("""
+                INSERT INTO %s.user_name_index_table (user_id, token)
+                SELECT * FROM unnest(?::integer[], ?::bigint[])
+                ON CONFLICT DO NOTHING
+                """, schemaName), ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("integer", tokenUsers.toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", tokens.toArray()));
+        });
+    }
+
+    /**
+     * Indexes up to {@code limit} users with no index tokens whose ID is above
+     * {@code afterId}. Users whose name yields no tokens stay unindexed, so callers page
+     * through with the returned ID rather than repeating the call.
+     *
+     * @return the highest user ID looked at, or {@code -1} if there were none
+     */
+    public long indexMissing(String schemaName, long afterId, int limit) {
+        if (!isAvailable(schemaName)) {
+            return -1;
+        }
+        String sql = String.format("""
+                SELECT u.id, u.title
+                FROM %s.user_table u
+                WHERE u.id > ?
+                  AND NOT EXISTS (
+                      SELECT 1 FROM %s.user_name_index_table i WHERE i.user_id = u.id
+                  )
+                ORDER BY u.id
+                LIMIT ?
+                """, schemaName, schemaName);
+        List<Long> ids = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            ids.add(rs.getLong("id"));
+            titles.add(rs.getString("title"));
+        }, afterId, limit);
+        if (ids.isEmpty()) {
+            return -1;
+        }
+        indexNames(schemaName, ids, pii.safeDecryptAll(titles));
+        return ids.get(ids.size() - 1);
+    }
+
+    /**
+     * Builds the condition that {@code userIdColumn} belongs to a user whose name matches
+     * {@code name} (see {@link NameBlindIndex}): one semi-join that keeps users holding
+     * every token of the term.
+     *
+     * <p>The tokens are written into the SQL as literals rather than bound. They are numbers
+     * computed here, never request text, and with literals the planner sees how common each
+     * token is; a cached generic plan for the bound form can be orders of magnitude slower
+     * for common names.</p>
+     *
+     * @return {@link NameMatch#NONE} for a blank term
+     * @throws IllegalArgumentException if the term is too long, has no letters or digits,
+     *                                  or the tenant has no name index yet
+     */
+    public NameMatch match(String schemaName, String userIdColumn, String name) {
+        if (name == null || name.isBlank()) {
+            return NameMatch.NONE;
+        }
+        long[] tokens = nameBlindIndex.queryTokens(name);
+        if (tokens.length == 0) {
+            throw new IllegalArgumentException("Name filter must contain a letter or digit");
+        }
+        if (!isAvailable(schemaName)) {
+            throw new IllegalArgumentException("Name filtering is not available for this tenant yet");
+        }
+
+        if (tokens.length == 1) {
+            return new NameMatch(String.format("""
+                     AND %s IN (
+                        SELECT i.user_id FROM %s.user_name_index_table i WHERE i.token = %d
+                    )
+                    """, userIdColumn, schemaName, tokens[0]), List.of());
+        }
+        StringBuilder literals = new StringBuilder();
+        for (int i = 0; i < tokens.length; i++) {
+            if (i > 0) {
+                literals.append(", ");
+            }
+            literals.append(tokens[i]);
+        }
+        return new NameMatch(String.format("""
+                 AND %s IN (
+                    SELECT i.user_id FROM %s.user_name_index_table i
+                    WHERE i.token IN (%s)
+                    GROUP BY i.user_id
+                    HAVING COUNT(*) = %d
+                )
+                """, userIdColumn, schemaName, literals, tokens.length), List.of());
+    }
+}
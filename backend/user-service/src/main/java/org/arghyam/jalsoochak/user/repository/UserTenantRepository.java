@@ -7,9 +7,20 @@ import org.springframework.stereotype.Repository;
 
 import org.arghyam.jalsoochak.user.enums.TenantUserStatus;
 
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Objects;
+import java.util.Set;
 
 @Repository
 @RequiredArgsConstructor
@@ -17,6 +28,7 @@ public class UserTenantRepository {
 
     private final JdbcTemplate jdbcTemplate;
     private final PiiEncryptionService pii;
+    private final UserNameIndexRepository userNameIndexRepository;
 
     private void validateSchemaName(String schemaName) {
         if (schemaName == null || !schemaName.matches("^[a-z_][a-z0-9_]*$")) {
@@ -139,6 +151,86 @@ public class UserTenantRepository {
         return rows.stream().findFirst();
     }
 
+    /**
+     * Bulk form of {@link #findUserByPhone}: resolves many phone numbers with one
+     * {@code phone_number_hash = ANY(?)} query. Keys are the trimmed phone numbers; phones
+     * without a user are absent. If several users share a phone, the oldest is returned.
+     */
+    public Map<String, TenantUserRecord> findUsersByPhones(String schemaName, Collection<String> phoneNumbers) {
+        validateSchemaName(schemaName);
+        List<String> phones = phoneNumbers.stream()
+                .filter(phone -> phone != null && !phone.isBlank())
+                .map(String::trim)
+                .toList();
+        List<String> hashes = pii.hmacAll(phones);
+        Map<String, String> phoneByHash = new HashMap<>();
+        for (int i = 0; i < phones.size(); i++) {
+            phoneByHash.put(hashes.get(i), phones.get(i));
+        }
+        if (phoneByHash.isEmpty()) {
+            return Map.of();
+        }
+
+        String sql = String.format("""
+        SELECT DISTINCT ON (u.phone_number_hash)
+               u.phone_number_hash,
+               u.id,
+               u.tenant_id,
+               u.phone_number,
+               u.email,
+               u.user_type,
+               u.title,
+               u.uuid,
+               u.status,
+               u.whatsapp_connection_id,
+               ut.c_name
+        FROM %s.user_table u
+        LEFT JOIN common_schema.user_type_master_table ut
+               ON ut.id = u.user_type
+        WHERE u.phone_number_hash = ANY(?)
+        ORDER BY u.phone_number_hash, u.id
+        """, schemaName);
+
+        Map<String, TenantUserRecord> users = new HashMap<>();
+        jdbcTemplate.query(sql, ps -> ps.setArray(1, textArray(ps.getConnection(), phoneByHash.keySet())), rs -> {
+            users.put(phoneByHash.get(rs.getString("phone_number_hash")), new TenantUserRecord(
+                    toLong(rs.getObject("id")),
+                    toInteger(rs.getObject("tenant_id")),
+                    pii.safeDecrypt(rs.getString("phone_number")),
+                    rs.getString("email"),
+                    toLong(rs.getObject("user_type")),
+                    rs.getString("c_name"),
+                    pii.safeDecrypt(rs.getString("title")),
+                    rs.getString("uuid"),
+                    toInteger(rs.getObject("status")),
+                    toLong(rs.getObject("whatsapp_connection_id"))
+            ));
+        });
+        return users;
+    }
+
+    /**
+     * Those of {@code emails} already used by a user. Matches exactly, as the unique
+     * constraint on {@code email} does, so the lookup can use its index.
+     */
+    public Set<String> findExistingEmails(String schemaName, Collection<String> emails) {
+        validateSchemaName(schemaName);
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        String sql = String.format("""
+                SELECT email
+                FROM %s.user_table
+                WHERE email = ANY(?)
+                """, schemaName);
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(sql, ps -> ps.setArray(1, textArray(ps.getConnection(), emails)),
+                rs -> {
+                    existing.add(rs.getString("email"));
+                });
+        return existing;
+    }
+
     public Long createUser(String schemaName,
                            String uuid,
                            Integer tenantId,
@@ -186,7 +278,93 @@ public class UserTenantRepository {
                 createdBy,
                 createdBy
         );
-        return insertedId != null ? insertedId.longValue() : null;
+        if (insertedId == null) {
+            return null;
+        }
+        userNameIndexRepository.indexNames(schemaName, List.of(insertedId.longValue()), Collections.singletonList(title));
+        return insertedId.longValue();
+    }
+
+    /**
+     * Bulk form of {@link #createUser}: inserts all {@code users} with one statement and
+     * returns their IDs in the same order. New users start with {@code languageId}.
+     */
+    public List<Long> createUsers(String schemaName,
+                                  Integer tenantId,
+                                  List<UserCreateRow> users,
+                                  Integer languageId,
+                                  String password,
+                                  Long createdBy) {
+        validateSchemaName(schemaName);
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        int n = users.size();
+        String[] uuids = new String[n];
+        String[] emails = new String[n];
+        Integer[] userTypes = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            UserCreateRow user = users.get(i);
+            uuids[i] = user.uuid();
+            emails[i] = user.email();
+            userTypes[i] = user.userTypeId();
+        }
+        List<String> plainPhones = users.stream().map(UserCreateRow::phoneNumber).toList();
+        String[] titles = pii.encryptAll(users.stream().map(UserCreateRow::title).toList()).toArray(String[]::new);
+        String[] phones = pii.encryptAll(plainPhones).toArray(String[]::new);
+        String[] phoneHashes = pii.hmacAll(plainPhones).toArray(String[]::new);
+
+        String sql = String.format("""
+                INSERT INTO %s.user_table
+                (
+                    uuid,
+                    tenant_id,
+                    title,
+                    email,
+                    user_type,
+                    phone_number,
+                    phone_number_hash,
+                    password,
+                    status,
+                    email_verification_status,
+                    phone_verification_status,
+                    language_id,
+                    created_by,
+                    created_at,
+                    updated_by,
+                    updated_at
+                )
+                SELECT u.uuid, ?, u.title, u.email, u.user_type, u.phone_number, u.phone_number_hash,
+                       ?, %d, true, true, ?, ?, NOW(), ?, NOW()
+                FROM unnest(?::text[], ?::text[], ?::text[], ?::integer[], ?::text[], ?::text[])
+                     AS u(uuid, title, email, user_type, phone_number, phone_number_hash)
+                RETURNING id, uuid
+                """, schemaName, TenantUserStatus.ACTIVE.code);
+
+        Map<String, Long> idByUuid = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setObject(1, tenantId);
+            ps.setString(2, password);
+            ps.setObject(3, languageId);
+            ps.setObject(4, createdBy);
+            ps.setObject(5, createdBy);
+            ps.setArray(6, connection.createArrayOf("text", uuids));
+            ps.setArray(7, connection.createArrayOf("text", titles));
+            ps.setArray(8, connection.createArrayOf("text", emails));
+            ps.setArray(9, connection.createArrayOf("integer", userTypes));
+            ps.setArray(10, connection.createArrayOf("text", phones));
+            ps.setArray(11, connection.createArrayOf("text", phoneHashes));
+        }, rs -> {
+            idByUuid.put(rs.getString("uuid"), rs.getLong("id"));
+        });
+
+        List<Long> ids = new ArrayList<>(n);
+        for (String uuid : uuids) {
+            ids.add(idByUuid.get(uuid));
+        }
+        userNameIndexRepository.indexNames(schemaName, ids, users.stream().map(UserCreateRow::title).toList());
+        return ids;
     }
 
     public void updateUserProfile(String schemaName, Long id, String title, String phoneNumber) {
@@ -197,6 +375,7 @@ public class UserTenantRepository {
                 WHERE id = ?
                 """, schemaName);
         jdbcTemplate.update(sql, pii.encrypt(title), pii.encrypt(phoneNumber), pii.hmac(phoneNumber), id);
+        userNameIndexRepository.indexNames(schemaName, List.of(id), Collections.singletonList(title));
     }
 
     public int updateUserRole(String schemaName, Long userId, Long newUserTypeId) {
@@ -222,6 +401,25 @@ public class UserTenantRepository {
         jdbcTemplate.update(sql, languageId, userId);
     }
 
+    /** Sets the language of many users with one statement; users already on it are not touched. */
+    public int updateUsersLanguageId(String schemaName, Collection<Long> userIds, Integer languageId) {
+        validateSchemaName(schemaName);
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        String sql = String.format("""
+                UPDATE %s.user_table
+                SET language_id = ?, updated_at = NOW()
+                WHERE id = ANY(?)
+                  AND language_id IS DISTINCT FROM ?
+                """, schemaName);
+        return jdbcTemplate.update(sql, ps -> {
+            ps.setObject(1, languageId);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", userIds.toArray()));
+            ps.setObject(3, languageId);
+        });
+    }
+
     /**
      * Streams phone numbers for users with the given roles and optional onboarding time window.
      * The RowCallbackHandler is invoked for each row to avoid loading everything into memory.
@@ -311,6 +509,10 @@ public class UserTenantRepository {
         return rows.stream().findFirst();
     }
 
+    private static Array textArray(Connection connection, Collection<String> values) throws SQLException {
+        return connection.createArrayOf("text", values.toArray());
+    }
+
     private Long toLong(Object value) {
         if (value == null) {
             return null;
@@ -3,13 +3,14 @@ package org.arghyam.jalsoochak.user.repository;
 import lombok.RequiredArgsConstructor;
 import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 @Repository
@@ -137,34 +138,77 @@ public class UserUploadRepository {
         }
     }
 
-    public int[] insertUserSchemeMappings(String schemaName, List<UserSchemeMappingCreateRow> rows, int actorUserId) {
+    /**
+     * Bulk form of {@link #findSchemeId} by state scheme ID: one query for all {@code stateSchemeIds}.
+     * IDs without a live scheme are absent from the result.
+     */
+    public Map<String, Integer> findSchemeIdsByStateSchemeIds(String schemaName, Collection<String> stateSchemeIds) {
+        validateSchemaName(schemaName);
+        if (stateSchemeIds.isEmpty()) {
+            return Map.of();
+        }
+
+        String sql = String.format("""
+                SELECT DISTINCT ON (state_scheme_id) state_scheme_id, id
+                FROM %s.scheme_master_table
+                WHERE deleted_at IS NULL
+                  AND state_scheme_id = ANY(?)
+                ORDER BY state_scheme_id, id
+                """, schemaName);
+
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", stateSchemeIds.toArray())),
+                rs -> {
+                    ids.put(rs.getString("state_scheme_id"), rs.getInt("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Maps users to schemes with one statement. Pairs that already have an active mapping
+     * are left alone, so re-uploading a file adds nothing. Returns the pairs inserted.
+     */
+    public List<UserSchemeMappingCreateRow> insertUserSchemeMappings(
+            String schemaName, List<UserSchemeMappingCreateRow> rows, int actorUserId) {
         validateSchemaName(schemaName);
         if (rows == null || rows.isEmpty()) {
-            return new int[0];
+            return List.of();
+        }
+
+        Long[] userIds = new Long[rows.size()];
+        Integer[] schemeIds = new Integer[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            userIds[i] = rows.get(i).userId();
+            schemeIds[i] = rows.get(i).schemeId();
         }
 
         String sql = String.format("""
-                INSERT INTO %s.user_scheme_mapping_table
+                INSERT INTO %1$s.user_scheme_mapping_table
                     (user_id, scheme_id, status, created_by, created_at, updated_by, updated_at, deleted_at, deleted_by)
-                VALUES (?, ?, 1, ?, NOW(), ?, NOW(), NULL, NULL)
+                SELECT DISTINCT r.user_id, r.scheme_id, 1, ?, NOW(), ?, NOW(), NULL::timestamp, NULL::integer
+                FROM unnest(?::integer[], ?::integer[]) AS r(user_id, scheme_id)
+                WHERE NOT EXISTS (
+                    SELECT 1
+                    FROM %1$s.user_scheme_mapping_table m
+                    WHERE m.user_id = r.user_id
+                      AND m.scheme_id = r.scheme_id
+                      AND m.deleted_at IS NULL
+                )
                 ON CONFLICT DO NOTHING
+                RETURNING user_id, scheme_id
                 """, schemaName);
 
-        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                UserSchemeMappingCreateRow row = rows.get(i);
-                ps.setLong(1, row.userId());
-                ps.setInt(2, row.schemeId());
-                ps.setInt(3, actorUserId);
-                ps.setInt(4, actorUserId);
-            }
-
-            @Override
-            public int getBatchSize() {
-                return rows.size();
-            }
+        List<UserSchemeMappingCreateRow> inserted = new ArrayList<>();
+        jdbcTemplate.query(sql, ps -> {
+            ps.setInt(1, actorUserId);
+            ps.setInt(2, actorUserId);
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", userIds));
+            ps.setArray(4, ps.getConnection().createArrayOf("integer", schemeIds));
+        }, rs -> {
+            inserted.add(new UserSchemeMappingCreateRow(rs.getLong("user_id"), rs.getInt("scheme_id")));
         });
+        return inserted;
     }
 
     private void validateSchemaName(String schemaName) {
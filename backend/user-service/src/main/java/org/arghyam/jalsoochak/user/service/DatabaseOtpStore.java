@@ -0,0 +1,76 @@
+package org.arghyam.jalsoochak.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
+import org.arghyam.jalsoochak.user.repository.OtpRepository;
+import org.arghyam.jalsoochak.user.repository.records.OtpRow;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link OtpStore} over {@code common_schema.otp_table}. Used when {@code otp.store} is
+ * {@code database}, and as the fallback of the Redis store.
+ *
+ * <p>Rows are never deleted here; {@link OtpCleanupService} removes expired ones daily.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatabaseOtpStore implements OtpStore {
+
+    private final OtpRepository otpRepository;
+    private final PiiEncryptionService piiEncryptionService;
+
+    @Override
+    @Transactional
+    public void issue(Key key, String encryptedOtp, Duration ttl, Duration cooldown) {
+        // Enforce cooldown to prevent OTP flooding
+        otpRepository.findActiveOtp(key.userId(), key.tenantId(), key.otpType()).ifPresent(existing -> {
+            long elapsedSeconds = Duration.between(existing.createdAt(), Instant.now()).toSeconds();
+            if (elapsedSeconds < cooldown.toSeconds()) {
+                throw OtpStore.cooldownActive(cooldown.toSeconds() - elapsedSeconds);
+            }
+        });
+
+        // Revoke any stale active OTP before inserting the new one
+        otpRepository.revokeActiveOtp(key.userId(), key.tenantId(), key.otpType());
+        otpRepository.insertOtp(key.userId(), key.tenantId(), key.otpType(), encryptedOtp, Instant.now().plus(ttl));
+    }
+
+    /** Keeps the attempt-count increment of a mismatch, which is reported by throwing. */
+    @Override
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public Consumed verifyAndConsume(Key key, String rawOtp, int maxAttempts) {
+        OtpRow otpRow = otpRepository.findActiveOtpForUpdate(key.userId(), key.tenantId(), key.otpType())
+                .orElse(null);
+        if (otpRow == null) {
+            return null;
+        }
+
+        if (otpRow.attemptCount() >= maxAttempts) {
+            throw OtpStore.attemptsExhausted();
+        }
+
+        String storedOtp = piiEncryptionService.decrypt(otpRow.encryptedOtp());
+        if (!OtpStore.matches(storedOtp, rawOtp)) {
+            otpRepository.incrementAttemptCount(otpRow.id());
+            log.debug("OTP mismatch for userId={} tenantId={} type={} attempts={}",
+                    key.userId(), key.tenantId(), key.otpType(), otpRow.attemptCount() + 1);
+            throw OtpStore.invalidOtp();
+        }
+
+        if (!otpRepository.markUsed(otpRow.id())) {
+            throw OtpStore.invalidOtp();
+        }
+        return new Consumed(this, key, String.valueOf(otpRow.id()));
+    }
+
+    @Override
+    public boolean revert(Consumed consumed) {
+        return otpRepository.revertConsumption(Long.valueOf(consumed.ref()));
+    }
+}
@@ -7,11 +7,15 @@ import org.arghyam.jalsoochak.user.dto.response.AdminUserResponseDTO;
 import org.arghyam.jalsoochak.user.enums.AdminUserStatus;
 import org.arghyam.jalsoochak.user.repository.UserCommonRepository;
 import org.arghyam.jalsoochak.user.repository.records.AdminUserRow;
+import org.arghyam.jalsoochak.user.service.KeycloakIdentityCache.KeycloakIdentity;
 import org.keycloak.representations.idm.RoleRepresentation;
-import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Component
@@ -21,6 +25,7 @@ public class KeycloakAdminHelper {
     private final KeycloakProvider keycloakProvider;
     private final UserCommonRepository userCommonRepository;
     private final MetadataDecryptionHelper metadataDecryptionHelper;
+    private final KeycloakIdentityCache keycloakIdentityCache;
 
     /**
      * Builds a full AdminUserResponseDTO by enriching an AdminUserRow with
@@ -31,7 +36,53 @@ public class KeycloakAdminHelper {
         String tenantCode = user.tenantId() != 0
                 ? userCommonRepository.findTenantStateCodeById(user.tenantId()).orElse(null)
                 : null;
+        KeycloakIdentity identity = user.status() != AdminUserStatus.PENDING && user.uuid() != null
+                ? keycloakIdentityCache.get(user.uuid()).orElse(null)
+                : null;
+        return toResponse(user, roleName, tenantCode, identity);
+    }
+
+    /**
+     * Builds the responses for a page of users. Role and tenant names are looked up once per
+     * distinct ID, and Keycloak profiles come from {@link KeycloakIdentityCache}, which
+     * fetches the misses of a single-role page with one request.
+     */
+    public List<AdminUserResponseDTO> buildAdminUserResponses(List<AdminUserRow> users) {
+        Map<Integer, String> roleNames = new HashMap<>();
+        Map<Integer, String> tenantCodes = new HashMap<>();
+        Map<String, String> roleByKeycloakId = new LinkedHashMap<>();
+        for (AdminUserRow user : users) {
+            String roleName = roleNames.computeIfAbsent(user.adminLevel(),
+                    id -> userCommonRepository.findUserTypeNameById(id).orElse(null));
+            if (user.tenantId() != 0) {
+                tenantCodes.computeIfAbsent(user.tenantId(),
+                        id -> userCommonRepository.findTenantStateCodeById(id).orElse(null));
+            }
+            if (user.status() != AdminUserStatus.PENDING && user.uuid() != null) {
+                roleByKeycloakId.put(user.uuid(), roleName);
+            }
+        }
+        Map<String, KeycloakIdentity> identities = roleByKeycloakId.isEmpty()
+                ? Map.of()
+                : keycloakIdentityCache.getAll(roleByKeycloakId);
 
+        List<AdminUserResponseDTO> responses = new ArrayList<>(users.size());
+        for (AdminUserRow user : users) {
+            responses.add(toResponse(user, roleNames.get(user.adminLevel()), tenantCodes.get(user.tenantId()),
+                    user.uuid() != null ? identities.get(user.uuid()) : null));
+        }
+        return responses;
+    }
+
+    /**
+     * Drops the cached Keycloak profile of a user; call after changing it in Keycloak.
+     */
+    public void evictIdentity(String keycloakId) {
+        keycloakIdentityCache.invalidate(keycloakId);
+    }
+
+    private AdminUserResponseDTO toResponse(AdminUserRow user, String roleName, String tenantCode,
+                                            KeycloakIdentity identity) {
         String firstName = null;
         String lastName = null;
         if (user.status() == AdminUserStatus.PENDING) {
@@ -41,16 +92,9 @@ public class KeycloakAdminHelper {
                 firstName = metadataDecryptionHelper.parseAndDecrypt(tokenOpt.get().metadata(), "firstName");
                 lastName = metadataDecryptionHelper.parseAndDecrypt(tokenOpt.get().metadata(), "lastName");
             }
-        } else if (user.uuid() != null) {
-            try {
-                UserRepresentation rep = keycloakProvider.getAdminInstance()
-                        .realm(keycloakProvider.getRealm())
-                        .users().get(user.uuid()).toRepresentation();
-                firstName = rep.getFirstName();
-                lastName = rep.getLastName();
-            } catch (Exception e) {
-                log.warn("Could not fetch Keycloak profile for user {}: {}", user.id(), e.getMessage());
-            }
+        } else if (identity != null) {
+            firstName = identity.firstName();
+            lastName = identity.lastName();
         }
 
         return AdminUserResponseDTO.builder()
@@ -74,6 +118,7 @@ public class KeycloakAdminHelper {
             var realmResource = keycloakProvider.getAdminInstance().realm(keycloakProvider.getRealm());
             RoleRepresentation role = realmResource.roles().get(roleName).toRepresentation();
             realmResource.users().get(keycloakId).roles().realmLevel().add(List.of(role));
+            keycloakIdentityCache.invalidate(keycloakId);
             log.debug("Assigned role '{}' to Keycloak user {}", roleName, keycloakId);
         } catch (Exception e) {
             log.error("Failed to assign role '{}' to Keycloak user {}: {}", roleName, keycloakId, e.getMessage(), e);
@@ -95,6 +140,7 @@ public class KeycloakAdminHelper {
             var realmResource = keycloakProvider.getAdminInstance().realm(keycloakProvider.getRealm());
             RoleRepresentation role = realmResource.roles().get(roleName).toRepresentation();
             realmResource.users().get(keycloakId).roles().realmLevel().remove(List.of(role));
+            keycloakIdentityCache.invalidate(keycloakId);
             log.debug("Removed role '{}' from Keycloak user {}", roleName, keycloakId);
         } catch (Exception e) {
             log.error("Failed to remove role '{}' from Keycloak user {}: {}", roleName, keycloakId, e.getMessage(), e);
@@ -110,6 +156,7 @@ public class KeycloakAdminHelper {
         try {
             keycloakProvider.getAdminInstance().realm(keycloakProvider.getRealm())
                     .users().get(keycloakId).remove();
+            keycloakIdentityCache.invalidate(keycloakId);
             log.info("Compensated: deleted Keycloak user {}", keycloakId);
         } catch (Exception e) {
             log.error("Failed to compensate Keycloak user {}", keycloakId, e);
@@ -0,0 +1,195 @@
+package org.arghyam.jalsoochak.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.user.config.KeycloakProvider;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local cache of Keycloak user profiles, keyed by Keycloak user ID.
+ *
+ * <p>{@link #getAll} fills misses with one role-member query per realm role rather than one
+ * request per user: admin list pages are per role, so a page costs at most one Keycloak
+ * request, and the query also warms the cache for the role's other members. Users not found
+ * that way (role not assigned in Keycloak, or beyond {@code role-member-limit}) are fetched
+ * individually.</p>
+ *
+ * <p>Changes made through user-service evict the affected entry; changes made directly in
+ * Keycloak become visible after {@code keycloak.identity-cache.ttl}. Failed lookups are not
+ * cached.</p>
+ */
+@Slf4j
+@Component
+public class KeycloakIdentityCache {
+
+    /**
+     * The cached part of a Keycloak user.
+     *
+     * @param realmRoles realm roles the user was listed under; empty when the entry came from
+     *                   a single-user lookup, which does not return roles
+     */
+    public record KeycloakIdentity(String firstName, String lastName, boolean enabled,
+                                   boolean emailVerified, Set<String> realmRoles) {
+    }
+
+    private record Entry(KeycloakIdentity identity, long expiresAtNanos) {
+    }
+
+    private final KeycloakProvider keycloakProvider;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final int roleMemberLimit;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public KeycloakIdentityCache(KeycloakProvider keycloakProvider,
+                                 @Value("${keycloak.identity-cache.ttl:PT5M}") Duration ttl,
+                                 @Value("${keycloak.identity-cache.max-entries:10000}") int maxEntries,
+                                 @Value("${keycloak.identity-cache.role-member-limit:1000}") int roleMemberLimit) {
+        this.keycloakProvider = keycloakProvider;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.roleMemberLimit = roleMemberLimit;
+    }
+
+    /**
+     * Looks up a single user, fetching it individually on a miss.
+     *
+     * @return the identity, or empty if Keycloak could not be reached or has no such user
+     */
+    public Optional<KeycloakIdentity> get(String keycloakId) {
+        KeycloakIdentity cached = cached(keycloakId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return Optional.ofNullable(fetchUser(realm(), keycloakId));
+    }
+
+    /**
+     * Looks up several users.
+     *
+     * @param roleByKeycloakId Keycloak user IDs, each with the realm role the user is expected
+     *                         to hold; a {@code null} role skips the role-member query
+     * @return identities by Keycloak user ID; users that could not be fetched are absent
+     */
+    public Map<String, KeycloakIdentity> getAll(Map<String, String> roleByKeycloakId) {
+        Map<String, KeycloakIdentity> result = new HashMap<>();
+        Map<String, List<String>> missingByRole = new LinkedHashMap<>();
+        List<String> missingWithoutRole = new ArrayList<>();
+        roleByKeycloakId.forEach((keycloakId, role) -> {
+            KeycloakIdentity cached = cached(keycloakId);
+            if (cached != null) {
+                result.put(keycloakId, cached);
+            } else if (role != null) {
+                missingByRole.computeIfAbsent(role, r -> new ArrayList<>()).add(keycloakId);
+            } else {
+                missingWithoutRole.add(keycloakId);
+            }
+        });
+        if (missingByRole.isEmpty() && missingWithoutRole.isEmpty()) {
+            return result;
+        }
+
+        RealmResource realm = realm();
+        missingByRole.forEach((role, keycloakIds) -> {
+            Map<String, KeycloakIdentity> members = fetchRoleMembers(realm, role);
+            for (String keycloakId : keycloakIds) {
+                KeycloakIdentity identity = members.get(keycloakId);
+                if (identity != null) {
+                    result.put(keycloakId, identity);
+                } else {
+                    missingWithoutRole.add(keycloakId);
+                }
+            }
+        });
+        for (String keycloakId : missingWithoutRole) {
+            KeycloakIdentity identity = fetchUser(realm, keycloakId);
+            if (identity != null) {
+                result.put(keycloakId, identity);
+            }
+        }
+        return result;
+    }
+
+    /** Drops the cached entry of a user after a change to its Keycloak profile or roles. */
+    public void invalidate(String keycloakId) {
+        if (keycloakId != null) {
+            entries.remove(keycloakId);
+        }
+    }
+
+    private KeycloakIdentity cached(String keycloakId) {
+        Entry entry = entries.get(keycloakId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(keycloakId, entry);
+            return null;
+        }
+        return entry.identity();
+    }
+
+    private Map<String, KeycloakIdentity> fetchRoleMembers(RealmResource realm, String role) {
+        List<UserRepresentation> members;
+        try {
+            members = realm.roles().get(role).getUserMembers(true, 0, roleMemberLimit);
+        } catch (Exception e) {
+            log.warn("Could not list Keycloak members of role {}: {}", role, e.getMessage());
+            return Map.of();
+        }
+        Map<String, KeycloakIdentity> identities = new HashMap<>();
+        for (UserRepresentation rep : members) {
+            KeycloakIdentity previous = cached(rep.getId());
+            Set<String> roles = new HashSet<>(previous != null ? previous.realmRoles() : Set.of());
+            roles.add(role);
+            KeycloakIdentity identity = toIdentity(rep, Set.copyOf(roles));
+            put(rep.getId(), identity);
+            identities.put(rep.getId(), identity);
+        }
+        return identities;
+    }
+
+    private KeycloakIdentity fetchUser(RealmResource realm, String keycloakId) {
+        try {
+            KeycloakIdentity identity = toIdentity(realm.users().get(keycloakId).toRepresentation(), Set.of());
+            put(keycloakId, identity);
+            return identity;
+        } catch (Exception e) {
+            log.warn("Could not fetch Keycloak profile for user {}: {}", keycloakId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void put(String keycloakId, KeycloakIdentity identity) {
+        if (entries.size() >= maxEntries) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(keycloakId, new Entry(identity, System.nanoTime() + ttlNanos));
+    }
+
+    private RealmResource realm() {
+        return keycloakProvider.getAdminInstance().realm(keycloakProvider.getRealm());
+    }
+
+    private static KeycloakIdentity toIdentity(UserRepresentation rep, Set<String> realmRoles) {
+        return new KeycloakIdentity(rep.getFirstName(), rep.getLastName(),
+                Boolean.TRUE.equals(rep.isEnabled()), Boolean.TRUE.equals(rep.isEmailVerified()), realmRoles);
+    }
+}
@@ -0,0 +1,146 @@
+package org.arghyam.jalsoochak.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Blind-index tokens for searching encrypted user names ({@code user_table.title}).
+ *
+ * <p>A name is normalised (NFKC, lower case) and split into words on anything that is not a
+ * letter, mark or digit. Each word contributes its one- and two-character prefixes and all
+ * of its three-character substrings. Every fragment is HMAC-SHA256'd with a key derived from
+ * {@code PII_HMAC_KEY} — so name tokens cannot be joined against phone hashes — and the
+ * first 64 bits are kept as the token.</p>
+ *
+ * <p>A search term matches a name when every word of the term matches: words of one or two
+ * characters by prefix, longer words by substring (all of their trigrams are present). Like
+ * a trigram index without a recheck, a long word can also match a name whose words only
+ * contain its trigrams between them; in practice this is rare for real names.</p>
+ *
+ * <p>See {@code T4__add_user_name_blind_index.sql} for what the tokens reveal.</p>
+ */
+@Component
+public class NameBlindIndex {
+
+    /** Longest search term accepted, in characters. */
+    public static final int MAX_TERM_LENGTH = 64;
+    /** Words of a search term beyond this are ignored. */
+    private static final int MAX_TERM_WORDS = 5;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+    private static final byte[] KEY_CONTEXT = "jalsoochak/user-name-blind-index/v1".getBytes(UTF_8);
+
+    private final byte[] key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public NameBlindIndex(@Value("${pii.hmac-key}") String encodedHmacKey) {
+        byte[] hmacKey = Base64.getDecoder().decode(encodedHmacKey);
+        if (hmacKey.length != 32) {
+            throw new IllegalStateException("PII_HMAC_KEY must decode to exactly 32 bytes (256 bits)");
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(hmacKey, "HmacSHA256"));
+            this.key = mac.doFinal(KEY_CONTEXT);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 failed", e);
+        }
+    }
+
+    /**
+     * Index tokens of a name, without duplicates.
+     *
+     * @return the tokens; empty if the name is {@code null} or has no letters or digits
+     */
+    public long[] tokens(String name) {
+        Set<Long> tokens = new LinkedHashSet<>();
+        for (String word : words(name)) {
+            int[] cps = word.codePoints().toArray();
+            for (int len = 1; len <= Math.min(2, cps.length); len++) {
+                tokens.add(prefixToken(cps, len));
+            }
+            for (int i = 0; i + 3 <= cps.length; i++) {
+                tokens.add(trigramToken(cps, i));
+            }
+        }
+        return tokens.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Tokens to look up for a search term, without duplicates: a name matches when it has
+     * all of them. Each word of the term contributes its prefix token if it is shorter than
+     * three characters and its trigram tokens otherwise.
+     *
+     * @return the tokens; empty if the term has no letters or digits
+     * @throws IllegalArgumentException if the term is longer than {@link #MAX_TERM_LENGTH}
+     */
+    public long[] queryTokens(String term) {
+        if (term != null && term.length() > MAX_TERM_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Name filter must be at most " + MAX_TERM_LENGTH + " characters");
+        }
+        Set<Long> tokens = new LinkedHashSet<>();
+        List<String> words = words(term);
+        for (String word : words.subList(0, Math.min(MAX_TERM_WORDS, words.size()))) {
+            int[] cps = word.codePoints().toArray();
+            if (cps.length < 3) {
+                tokens.add(prefixToken(cps, cps.length));
+                continue;
+            }
+            for (int i = 0; i + 3 <= cps.length; i++) {
+                tokens.add(trigramToken(cps, i));
+            }
+        }
+        return tokens.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private long prefixToken(int[] cps, int length) {
+        return token("p:" + new String(cps, 0, length));
+    }
+
+    private long trigramToken(int[] cps, int offset) {
+        return token("t:" + new String(cps, offset, 3));
+    }
+
+    private long token(String fragment) {
+        return ByteBuffer.wrap(macs.get().doFinal(fragment.getBytes(UTF_8))).getLong();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 failed", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.arghyam.jalsoochak.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.user.config.properties.OtpProperties;
+import org.arghyam.jalsoochak.user.exceptions.TooManyRequestsException;
+import org.arghyam.jalsoochak.user.redis.RedisSlidingWindowLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sliding-window limits on OTP requests per phone number and per client IP
+ * ({@code otp.rate-limit.*}).
+ *
+ * <p>Requests are counted in Redis when {@code otp.store} is {@code redis}, so the limits
+ * hold across instances. Otherwise, and while Redis is unreachable, each instance counts
+ * in memory. Phone numbers are counted by their HMAC, never in plaintext.
+ */
+@Slf4j
+@Component
+public class OtpRateLimiter {
+
+    /** In-memory counters kept before expired ones are dropped. */
+    private static final int MAX_LOCAL_COUNTERS = 100_000;
+
+    private final OtpProperties.RateLimit limits;
+    private final PiiEncryptionService piiEncryptionService;
+    private final RedisSlidingWindowLimiter redisLimiter;
+    private final Clock clock;
+    private final Map<String, Deque<Long>> localCounters = new HashMap<>();
+
+    @Autowired
+    public OtpRateLimiter(OtpProperties otpProperties,
+                          PiiEncryptionService piiEncryptionService,
+                          Optional<RedisSlidingWindowLimiter> redisLimiter) {
+        this(otpProperties, piiEncryptionService, redisLimiter.orElse(null), Clock.systemUTC());
+    }
+
+    OtpRateLimiter(OtpProperties otpProperties,
+                   PiiEncryptionService piiEncryptionService,
+                   RedisSlidingWindowLimiter redisLimiter,
+                   Clock clock) {
+        this.limits = otpProperties.rateLimit();
+        this.piiEncryptionService = piiEncryptionService;
+        this.redisLimiter = redisLimiter;
+        this.clock = clock;
+    }
+
+    /**
+     * Counts an OTP request for {@code phoneNumber} from {@code clientIp}.
+     * A rejected request is not counted.
+     *
+     * @throws TooManyRequestsException if either limit is reached
+     */
+    public void checkRequest(String phoneNumber, String clientIp) {
+        List<String> counters = new ArrayList<>(2);
+        List<Integer> counterLimits = new ArrayList<>(2);
+        if (limits.perPhone() > 0 && phoneNumber != null) {
+            counters.add("otp-phone:" + piiEncryptionService.hmac(phoneNumber));
+            counterLimits.add(limits.perPhone());
+        }
+        if (limits.perIp() > 0 && clientIp != null) {
+            counters.add("otp-ip:" + clientIp);
+            counterLimits.add(limits.perIp());
+        }
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        long waitMillis = acquire(counters, counterLimits);
+        if (waitMillis > 0) {
+            throw new TooManyRequestsException("Too many OTP requests. Please try again later",
+                    Math.max(1, (waitMillis + 999) / 1000));
+        }
+    }
+
+    private long acquire(List<String> counters, List<Integer> counterLimits) {
+        if (redisLimiter != null && redisLimiter.isAvailable()) {
+            try {
+                return redisLimiter.tryAcquire(counters, counterLimits, limits.window());
+            } catch (DataAccessException e) {
+                log.debug("Counting OTP request in memory: {}", e.getMessage());
+            }
+        }
+        return acquireLocally(counters, counterLimits);
+    }
+
+    private synchronized long acquireLocally(List<String> counters, List<Integer> counterLimits) {
+        long now = clock.millis();
+        long window = limits.window().toMillis();
+        if (localCounters.size() >= MAX_LOCAL_COUNTERS) {
+            localCounters.values().removeIf(times -> times.peekLast() <= now - window);
+            if (localCounters.size() >= MAX_LOCAL_COUNTERS) {
+                localCounters.clear();
+            }
+        }
+
+        long wait = 0;
+        List<Deque<Long>> windows = new ArrayList<>(counters.size());
+        for (int i = 0; i < counters.size(); i++) {
+            Deque<Long> times = localCounters.computeIfAbsent(counters.get(i), k -> new ArrayDeque<>());
+            while (!times.isEmpty() && times.peekFirst() <= now - window) {
+                times.pollFirst();
+            }
+            if (times.size() >= counterLimits.get(i)) {
+                wait = Math.max(wait, times.peekFirst() + window - now);
+            }
+            windows.add(times);
+        }
+        if (wait > 0) {
+            return wait;
+        }
+        windows.forEach(times -> times.addLast(now));
+        return 0;
+    }
+}
@@ -1,20 +1,16 @@
 package org.arghyam.jalsoochak.user.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.arghyam.jalsoochak.user.config.properties.OtpProperties;
 import org.arghyam.jalsoochak.user.enums.OtpType;
 import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
-import org.arghyam.jalsoochak.user.repository.OtpRepository;
-import org.arghyam.jalsoochak.user.repository.records.OtpRow;
+import org.arghyam.jalsoochak.user.redis.RedisOtpStore;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.SecureRandom;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.time.Duration;
+import java.util.Optional;
 
 /**
  * Core OTP lifecycle service: generation, storage, and verification.
@@ -22,49 +18,60 @@ import java.time.temporal.ChronoUnit;
  * <p>OTP values are stored AES-256-GCM encrypted (via {@link PiiEncryptionService}).
  * They are never persisted in plaintext.
  *
- * <p>Callers are responsible for wrapping these calls in a transaction so that
- * revoke + insert (or find + mark-used) are atomic.
+ * <p>OTPs are kept in Redis when {@code otp.store} is {@code redis}, where they expire on
+ * their own. While Redis is unreachable they are kept in {@code common_schema.otp_table}
+ * instead, and verification also checks the table for OTPs issued during an outage.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OtpService {
 
-    private final OtpRepository otpRepository;
+    private final DatabaseOtpStore databaseOtpStore;
+    private final RedisOtpStore redisOtpStore;
     private final PiiEncryptionService piiEncryptionService;
     private final OtpProperties otpProperties;
 
     private final SecureRandom secureRandom = new SecureRandom();
 
+    public OtpService(DatabaseOtpStore databaseOtpStore,
+                      Optional<RedisOtpStore> redisOtpStore,
+                      PiiEncryptionService piiEncryptionService,
+                      OtpProperties otpProperties) {
+        this.databaseOtpStore = databaseOtpStore;
+        this.redisOtpStore = redisOtpStore.orElse(null);
+        this.piiEncryptionService = piiEncryptionService;
+        this.otpProperties = otpProperties;
+    }
+
     /**
-     * Generates a new OTP for {@code userId/tenantId/otpType}, persists it encrypted,
+     * Generates a new OTP for {@code userId/tenantId/otpType}, stores it encrypted,
      * and returns the raw plaintext OTP for delivery.
      *
      * <p>Cooldown check: if an active OTP exists and was created within
      * {@code otp.cooldown-seconds}, throws {@link BadRequestException}.
-     * Otherwise revokes any existing active OTP and inserts a fresh one.
+     * Otherwise replaces any existing active OTP with a fresh one.
      *
      * @return raw (plaintext) OTP string — deliver to the user, never store
      */
     public String requestOtp(Long userId, Integer tenantId, OtpType otpType) {
-        // Enforce cooldown to prevent OTP flooding
-        otpRepository.findActiveOtp(userId, tenantId, otpType).ifPresent(existing -> {
-            long secondsElapsed = ChronoUnit.SECONDS.between(existing.createdAt(), Instant.now());
-            if (secondsElapsed < otpProperties.cooldownSeconds()) {
-                long remaining = otpProperties.cooldownSeconds() - secondsElapsed;
-                throw new BadRequestException(
-                        "Please wait " + remaining + " second(s) before requesting a new OTP");
-            }
-        });
-
-        // Revoke any stale active OTP before inserting the new one
-        otpRepository.revokeActiveOtp(userId, tenantId, otpType);
-
+        OtpStore.Key key = new OtpStore.Key(userId, tenantId, otpType);
         String rawOtp = generateOtp();
         String encryptedOtp = piiEncryptionService.encrypt(rawOtp);
-        Instant expiresAt = Instant.now().plus(otpProperties.expiryMinutes(), ChronoUnit.MINUTES);
-
-        otpRepository.insertOtp(userId, tenantId, otpType, encryptedOtp, expiresAt);
+        Duration ttl = Duration.ofMinutes(otpProperties.expiryMinutes());
+        Duration cooldown = Duration.ofSeconds(otpProperties.cooldownSeconds());
+
+        boolean stored = false;
+        if (redisAvailable()) {
+            try {
+                redisOtpStore.issue(key, encryptedOtp, ttl, cooldown);
+                stored = true;
+            } catch (DataAccessException e) {
+                log.warn("Storing OTP for userId={} in the database: {}", userId, e.getMessage());
+            }
+        }
+        if (!stored) {
+            databaseOtpStore.issue(key, encryptedOtp, ttl, cooldown);
+        }
 
         log.debug("OTP generated for userId={} tenantId={} type={}", userId, tenantId, otpType);
         return rawOtp;
@@ -73,61 +80,57 @@ public class OtpService {
     /**
      * Verifies the supplied {@code rawOtp} against the stored active OTP.
      *
-     * <p>On mismatch: increments attempt_count. If attempt_count reaches
-     * {@code otp.max-attempts}, the OTP is effectively locked (further calls will fail
-     * with the same error until the OTP expires).
+     * <p>On mismatch: counts the attempt. Once {@code otp.max-attempts} attempts have
+     * failed, the OTP is effectively locked (further calls fail until it expires).
      *
-     * <p>On match: marks the OTP as used. It cannot be replayed.
+     * <p>On match: consumes the OTP. It cannot be replayed.
      *
-     * @return the ID of the consumed OTP row, which can be passed to
-     *         {@link #revertOtpConsumption(Long)} if a downstream operation fails
+     * @return the consumed OTP, which can be passed to {@link #revertOtpConsumption}
+     *         if a downstream operation fails
      * @throws BadRequestException if there is no active OTP, max attempts exceeded, or mismatch
      */
-    @Transactional
-    public Long verifyOtp(Long userId, Integer tenantId, OtpType otpType, String rawOtp) {
-        OtpRow otpRow = otpRepository.findActiveOtpForUpdate(userId, tenantId, otpType)
-                .orElseThrow(() -> new BadRequestException("Invalid or expired OTP"));
-
-        if (otpRow.attemptCount() >= otpProperties.maxAttempts()) {
-            throw new BadRequestException("Maximum OTP attempts exceeded. Please request a new OTP");
+    public OtpStore.Consumed verifyOtp(Long userId, Integer tenantId, OtpType otpType, String rawOtp) {
+        OtpStore.Key key = new OtpStore.Key(userId, tenantId, otpType);
+        OtpStore.Consumed consumed = null;
+        if (redisAvailable()) {
+            try {
+                consumed = redisOtpStore.verifyAndConsume(key, rawOtp, otpProperties.maxAttempts());
+            } catch (DataAccessException e) {
+                log.warn("Verifying OTP for userId={} against the database: {}", userId, e.getMessage());
+            }
         }
-
-        String storedOtp = piiEncryptionService.decrypt(otpRow.encryptedOtp());
-        if (!MessageDigest.isEqual(
-                storedOtp.getBytes(StandardCharsets.UTF_8),
-                rawOtp.getBytes(StandardCharsets.UTF_8))) {
-            otpRepository.incrementAttemptCount(otpRow.id());
-            log.debug("OTP mismatch for userId={} tenantId={} type={} attempts={}",
-                    userId, tenantId, otpType, otpRow.attemptCount() + 1);
-            throw new BadRequestException("Invalid or expired OTP");
+        if (consumed == null) {
+            consumed = databaseOtpStore.verifyAndConsume(key, rawOtp, otpProperties.maxAttempts());
         }
-
-        boolean consumed = otpRepository.markUsed(otpRow.id());
-        if (!consumed) {
-            throw new BadRequestException("Invalid or expired OTP");
+        if (consumed == null) {
+            throw OtpStore.invalidOtp();
         }
         log.debug("OTP verified for userId={} tenantId={} type={}", userId, tenantId, otpType);
-        return otpRow.id();
+        return consumed;
     }
 
     /**
-     * Reverts OTP consumption for a given OTP ID. Used as a compensating action when a
+     * Reverts the consumption of an OTP. Used as a compensating action when a
      * downstream operation (e.g., Keycloak provisioning) fails after the OTP was consumed,
      * so the user can retry without requesting a new OTP.
      *
      * <p>No-op if the OTP has already expired.
      */
-    public void revertOtpConsumption(Long otpId) {
+    public void revertOtpConsumption(OtpStore.Consumed consumed) {
         try {
-            boolean reverted = otpRepository.revertConsumption(otpId);
+            boolean reverted = consumed.store().revert(consumed);
             if (!reverted) {
-                log.warn("Could not revert OTP consumption for otpId={} (may have expired)", otpId);
+                log.warn("Could not revert OTP consumption for userId={} (may have expired)", consumed.key().userId());
             }
         } catch (Exception ex) {
-            log.warn("Could not revert OTP consumption for otpId={} (may have expired)", otpId, ex);
+            log.warn("Could not revert OTP consumption for userId={} (may have expired)", consumed.key().userId(), ex);
         }
     }
 
+    private boolean redisAvailable() {
+        return redisOtpStore != null && redisOtpStore.isAvailable();
+    }
+
     private String generateOtp() {
         StringBuilder sb = new StringBuilder(otpProperties.otpLength());
         for (int i = 0; i < otpProperties.otpLength(); i++) {
@@ -0,0 +1,71 @@
+package org.arghyam.jalsoochak.user.service;
+
+import org.arghyam.jalsoochak.user.enums.OtpType;
+import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Keeps the single active OTP of each user/tenant/type between issue and verification.
+ *
+ * <p>Implementations store OTP values encrypted, enforce the request cooldown and the
+ * attempt limit, and make consumption single-use under concurrent verification.
+ */
+public interface OtpStore {
+
+    /** Identifies the active OTP slot of a user. */
+    record Key(Long userId, Integer tenantId, OtpType otpType) {}
+
+    /**
+     * A consumed OTP, as returned by {@link #verifyAndConsume}.
+     *
+     * @param store the store that consumed it, which is the one that can revert it
+     * @param ref   store-specific reference to the consumed OTP
+     */
+    record Consumed(OtpStore store, Key key, String ref) {}
+
+    /**
+     * Replaces the active OTP of {@code key} with {@code encryptedOtp}.
+     *
+     * @throws BadRequestException if the active OTP was issued less than {@code cooldown} ago
+     */
+    void issue(Key key, String encryptedOtp, Duration ttl, Duration cooldown);
+
+    /**
+     * Checks {@code rawOtp} against the active OTP and, on a match, consumes it.
+     * Every check counts towards {@code maxAttempts}; a consumed OTP no longer counts
+     * the check that consumed it.
+     *
+     * @return the consumed OTP, or {@code null} if {@code key} has no active OTP
+     * @throws BadRequestException if the attempts are exhausted or the OTP does not match
+     */
+    Consumed verifyAndConsume(Key key, String rawOtp, int maxAttempts);
+
+    /**
+     * Makes a consumed OTP active again, unless it has expired or been replaced.
+     *
+     * @return {@code true} if it was reverted
+     */
+    boolean revert(Consumed consumed);
+
+    /** Compares OTPs in constant time. */
+    static boolean matches(String storedOtp, String rawOtp) {
+        return MessageDigest.isEqual(
+                storedOtp.getBytes(StandardCharsets.UTF_8),
+                rawOtp.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static BadRequestException cooldownActive(long remainingSeconds) {
+        return new BadRequestException("Please wait " + remainingSeconds + " second(s) before requesting a new OTP");
+    }
+
+    static BadRequestException attemptsExhausted() {
+        return new BadRequestException("Maximum OTP attempts exceeded. Please request a new OTP");
+    }
+
+    static BadRequestException invalidOtp() {
+        return new BadRequestException("Invalid or expired OTP");
+    }
+}
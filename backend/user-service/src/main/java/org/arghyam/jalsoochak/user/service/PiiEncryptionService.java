@@ -1,6 +1,8 @@
 package org.arghyam.jalsoochak.user.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -8,11 +10,23 @@ import javax.crypto.Cipher;
 import javax.crypto.Mac;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -31,6 +45,18 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * <p><b>Key injection:</b> Both keys are base64-encoded 32-byte (256-bit) secrets
  * supplied via environment variables {@code PII_ENCRYPTION_KEY} and {@code PII_HMAC_KEY}.
  * Never commit key material to source control.
+ *
+ * <p><b>Throughput:</b> each thread keeps its own {@code Cipher} and keyed {@code Mac}
+ * (neither is thread-safe, and creating them costs more than encrypting a phone number).
+ * HMACs of recently seen values are cached ({@code pii.hmac-cache-size}), since the same
+ * phone numbers are looked up again and again. The cache is keyed by a SHA-256 digest of the
+ * value under a random per-instance salt, so it holds no plaintext. The {@code *All} methods
+ * process lists and split large ones across a small pool ({@code pii.batch-parallelism}).
+ *
+ * <p><b>Copies:</b> user-service, tenant-service and telemetry-service each have this class.
+ * The user-service copy is canonical. The others differ only in their package, and
+ * telemetry-service leaves out {@code safeDecrypt}. Change all three together. Each module's
+ * {@code PiiEncryptionServiceTest} checks the same HMAC test vector.
  */
 @Slf4j
 @Service
@@ -38,15 +64,37 @@ public class PiiEncryptionService {
 
     private static final int IV_LENGTH_BYTES = 12;
     private static final int TAG_LENGTH_BITS = 128;
+    /** Lists shorter than this are processed on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 512;
 
     private SecretKeySpec aesKey;
     private byte[] aesKeyBytes;
     private byte[] hmacKeyBytes;
     private final SecureRandom rng = new SecureRandom();
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(this::newCipher);
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    private final int hmacCacheSize;
+    private final Map<ByteBuffer, String> hmacCache = new ConcurrentHashMap<>();
+    private final byte[] hmacCacheSalt = new byte[16];
+    private final ThreadLocal<MessageDigest> cacheKeyDigests = ThreadLocal.withInitial(this::newCacheKeyDigest);
+    private final int batchParallelism;
+    private volatile ExecutorService batchPool;
+
+    public PiiEncryptionService(String encodedAesKey, String encodedHmacKey) {
+        this(encodedAesKey, encodedHmacKey, 10_000, 0);
+    }
 
+    /**
+     * @param hmacCacheSize    HMACs kept in memory; {@code 0} disables the cache
+     * @param batchParallelism threads used by the {@code *All} methods, including the caller;
+     *                         {@code 0} means one per CPU, at most 4
+     */
+    @Autowired
     public PiiEncryptionService(
             @Value("${pii.encryption-key}") String encodedAesKey,
-            @Value("${pii.hmac-key}") String encodedHmacKey) {
+            @Value("${pii.hmac-key}") String encodedHmacKey,
+            @Value("${pii.hmac-cache-size:10000}") int hmacCacheSize,
+            @Value("${pii.batch-parallelism:0}") int batchParallelism) {
 
         byte[] aesBytes = Base64.getDecoder().decode(encodedAesKey);
         byte[] hmacBytes = Base64.getDecoder().decode(encodedHmacKey);
@@ -61,8 +109,14 @@ public class PiiEncryptionService {
         this.aesKey = new SecretKeySpec(aesBytes, "AES");
         this.aesKeyBytes = aesBytes;
         this.hmacKeyBytes = hmacBytes;
+        this.hmacCacheSize = Math.max(0, hmacCacheSize);
+        rng.nextBytes(hmacCacheSalt);
+        this.batchParallelism = batchParallelism > 0
+                ? batchParallelism
+                : Math.min(4, Runtime.getRuntime().availableProcessors());
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            hmacCache.clear();
             Arrays.fill(aesKeyBytes, (byte) 0);
             Arrays.fill(hmacKeyBytes, (byte) 0);
             aesKeyBytes = null;
@@ -83,7 +137,7 @@ public class PiiEncryptionService {
             byte[] iv = new byte[IV_LENGTH_BYTES];
             rng.nextBytes(iv);
 
-            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            Cipher cipher = ciphers.get();
             cipher.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
             byte[] ciphertextAndTag = cipher.doFinal(plaintext.getBytes(UTF_8));
 
@@ -114,7 +168,7 @@ public class PiiEncryptionService {
             byte[] iv = Arrays.copyOfRange(decoded, 0, IV_LENGTH_BYTES);
             byte[] ciphertextAndTag = Arrays.copyOfRange(decoded, IV_LENGTH_BYTES, decoded.length);
 
-            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            Cipher cipher = ciphers.get();
             cipher.init(Cipher.DECRYPT_MODE, aesKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
             byte[] plaintext = cipher.doFinal(ciphertextAndTag);
 
@@ -164,10 +218,147 @@ public class PiiEncryptionService {
      */
     public String hmac(String plaintext) {
         if (plaintext == null) return null;
+        String value = plaintext.trim();
+        if (hmacCacheSize == 0) {
+            return computeHmac(value);
+        }
+        ByteBuffer key = cacheKey(value);
+        String cached = hmacCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String hash = computeHmac(value);
+        // Cheaper than LRU bookkeeping on every hit; the hot values are back after a few calls.
+        if (hmacCache.size() >= hmacCacheSize) {
+            hmacCache.clear();
+        }
+        hmacCache.put(key, hash);
+        return hash;
+    }
+
+    /** {@link #encrypt} of each value, in order. */
+    public List<String> encryptAll(List<String> plaintexts) {
+        return mapAll(plaintexts, this::encrypt);
+    }
+
+    /** {@link #decrypt} of each value, in order; fails if any value fails. */
+    public List<String> decryptAll(List<String> encoded) {
+        return mapAll(encoded, this::decrypt);
+    }
+
+    /** {@link #safeDecrypt} of each value, in order. */
+    public List<String> safeDecryptAll(List<String> encoded) {
+        return mapAll(encoded, this::safeDecrypt);
+    }
+
+    /** {@link #hmac} of each value, in order. */
+    public List<String> hmacAll(List<String> plaintexts) {
+        return mapAll(plaintexts, this::hmac);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ExecutorService pool = batchPool;
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private String computeHmac(String value) {
+        return HexFormat.of().formatHex(macs.get().doFinal(value.getBytes(UTF_8)));
+    }
+
+    /** Salted SHA-256 of {@code value}: a cache key that does not reveal the value. */
+    private ByteBuffer cacheKey(String value) {
+        MessageDigest digest = cacheKeyDigests.get();
+        digest.update(hmacCacheSalt);
+        return ByteBuffer.wrap(digest.digest(value.getBytes(UTF_8)));
+    }
+
+    /**
+     * Applies {@code op} to every value. Large lists are cut into one slice per thread; the
+     * caller works through the first slice while the pool handles the rest.
+     */
+    private List<String> mapAll(List<String> values, UnaryOperator<String> op) {
+        int n = values.size();
+        String[] results = new String[n];
+        if (n < PARALLEL_THRESHOLD || batchParallelism <= 1) {
+            for (int i = 0; i < n; i++) {
+                results[i] = op.apply(values.get(i));
+            }
+            return Arrays.asList(results);
+        }
+
+        int sliceSize = (n + batchParallelism - 1) / batchParallelism;
+        List<Future<?>> slices = new ArrayList<>(batchParallelism - 1);
+        for (int from = sliceSize; from < n; from += sliceSize) {
+            int start = from;
+            int end = Math.min(n, from + sliceSize);
+            slices.add(batchPool().submit(() -> {
+                for (int i = start; i < end; i++) {
+                    results[i] = op.apply(values.get(i));
+                }
+            }));
+        }
+        for (int i = 0; i < sliceSize; i++) {
+            results[i] = op.apply(values.get(i));
+        }
+        for (Future<?> slice : slices) {
+            try {
+                slice.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("PII batch operation failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during PII batch operation", e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private ExecutorService batchPool() {
+        ExecutorService pool = batchPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = batchPool;
+                if (pool == null) {
+                    AtomicInteger threads = new AtomicInteger();
+                    pool = Executors.newFixedThreadPool(batchParallelism - 1, runnable -> {
+                        Thread thread = new Thread(runnable, "pii-crypto-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    batchPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    private Cipher newCipher() {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM is not available", e);
+        }
+    }
+
+    private MessageDigest newCacheKeyDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Mac newMac() {
         try {
             Mac mac = Mac.getInstance("HmacSHA256");
             mac.init(new SecretKeySpec(hmacKeyBytes, "HmacSHA256"));
-            return HexFormat.of().formatHex(mac.doFinal(plaintext.trim().getBytes(UTF_8)));
+            return mac;
         } catch (GeneralSecurityException e) {
             throw new IllegalStateException("HMAC-SHA256 failed", e);
         }
@@ -18,19 +18,22 @@ public interface PublicPumpOperatorService {
 
     PumpOperatorDetailsWithComplianceDTO getPumpOperatorDetailsWithCompliance(String tenantCode, long pumpOperatorId);
 
-    PageResponseDTO<PumpOperatorReadingComplianceRowDTO> listReadingCompliance(String tenantCode, int page, int size);
+    PageResponseDTO<PumpOperatorReadingComplianceRowDTO> listReadingCompliance(
+            String tenantCode, int page, int size, String cursor);
 
     PageResponseDTO<PumpOperatorSchemeComplianceRowDTO> listPumpOperatorsBySchemeWithCompliance(
             String tenantCode,
             long schemeId,
             int page,
-            int size
+            int size,
+            String cursor
     );
 
     List<SchemePumpOperatorsDTO> listPumpOperatorsByScheme(
             String tenantCode,
             List<Long> schemeIds,
             String schemeName,
+            String name,
             Integer page,
             Integer size
     );
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.arghyam.jalsoochak.user.event.UserEventPublisher;
 import org.arghyam.jalsoochak.user.repository.TenantUserRecord;
+import org.arghyam.jalsoochak.user.repository.UserCreateRow;
 import org.arghyam.jalsoochak.user.repository.UserSchemeMappingCreateRow;
 import org.arghyam.jalsoochak.user.repository.UserTenantRepository;
 import org.arghyam.jalsoochak.user.repository.UserUploadRepository;
@@ -11,10 +12,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Processes uploads in small transactions so very large CSVs don't create a single massive transaction
@@ -41,6 +47,17 @@ public class PumpOperatorUploadChunkProcessor {
 
     public record ChunkResult(int uploadedRows, int skippedRows) {}
 
+    /** A row whose user type and scheme are known, waiting for its user. */
+    private record PendingRow(UploadRow row, String phone, String typeKey, int userTypeId, int schemeId) {}
+
+    /** A user to create, shared by all rows of the chunk with its phone. */
+    private record NewUser(String uuid, String typeKey, int userTypeId, String title, String phone) {}
+
+    /**
+     * Onboards one chunk with a fixed number of statements, whatever its size: one lookup of
+     * unknown scheme IDs, one of existing users by phone hash, one email check and one insert
+     * for new users, one language update for existing users and one mapping insert.
+     */
     @Transactional
     public ChunkResult processChunk(
             String schemaName,
@@ -56,69 +73,20 @@ public class PumpOperatorUploadChunkProcessor {
             return new ChunkResult(0, 0);
         }
 
-        List<UserSchemeMappingCreateRow> insertRows = new ArrayList<>(rows.size());
-        List<String> phonesForInsertRows = new ArrayList<>(rows.size());
-        List<String> typesForInsertRows = new ArrayList<>(rows.size());
-        int uploaded = 0;
-        int skipped = 0;
+        resolveSchemeIds(schemaName, rows, schemeIdCache);
 
+        List<PendingRow> pending = new ArrayList<>(rows.size());
+        int skipped = 0;
         for (UploadRow row : rows) {
             try {
                 String typeKey = normalizeType(row.personType());
                 Integer userTypeId = userTypeIds.get(typeKey);
-                if (userTypeId == null) {
+                Integer schemeId = schemeIdCache.get(row.stateSchemeId());
+                if (userTypeId == null || schemeId == null || schemeId < 0 || row.phone().isBlank()) {
                     skipped++;
                     continue;
                 }
-
-                Integer schemeId = resolveSchemeId(schemaName, row.stateSchemeId(), schemeIdCache);
-                if (schemeId == null || schemeId < 0) {
-                    skipped++;
-                    continue;
-                }
-
-                TenantUserRecord user = userTenantRepository.findUserByPhone(schemaName, row.phone()).orElse(null);
-                Long userId;
-                if (user == null) {
-                    String title = !row.fullName().isBlank()
-                            ? row.fullName()
-                            : (row.firstName() + " " + row.lastName()).trim();
-                    if (title.isBlank()) {
-                        title = defaultTitle(typeKey) + " " + row.phone();
-                    }
-
-                    userId = userTenantRepository.createUser(
-                            schemaName,
-                            java.util.UUID.randomUUID().toString(),
-                            actor.tenantId(),
-                            title,
-                            uniqueEmail(schemaName, row.phone(), typeKey),
-                            userTypeId,
-                            row.phone(),
-                            "CSV_ONBOARDED",
-                            actor.id()
-                    );
-                    if (userId == null) {
-                        skipped++;
-                        continue;
-                    }
-                    userTenantRepository.updateUserLanguageId(schemaName, userId, preferredLanguageId);
-                } else {
-                    // If an existing user isn't the requested type, skip to avoid mutating unrelated user types.
-                    if (user.cName() == null || !user.cName().equalsIgnoreCase(typeKey.toUpperCase(java.util.Locale.ROOT))) {
-                        skipped++;
-                        continue;
-                    }
-                    userId = user.id();
-                    userTenantRepository.updateUserLanguageId(schemaName, userId, preferredLanguageId);
-                }
-
-                // Idempotent insert (ON CONFLICT DO NOTHING) will safely handle re-uploads + concurrent chunks.
-                insertRows.add(new UserSchemeMappingCreateRow(userId, schemeId));
-                phonesForInsertRows.add(row.phone());
-                typesForInsertRows.add(typeKey);
-
-                uploaded++;
+                pending.add(new PendingRow(row, row.phone().trim(), typeKey, userTypeId, schemeId));
             } catch (Exception ex) {
                 // Best-effort: one bad row must not abort the entire batch upload.
                 skipped++;
@@ -128,17 +96,59 @@ public class PumpOperatorUploadChunkProcessor {
             }
         }
 
-        int[] insertCounts = userUploadRepository.insertUserSchemeMappings(schemaName, insertRows, actorUserId);
-        Set<String> phonesToNotify = new LinkedHashSet<>();
-        int inserted = 0;
-        int n = Math.min(insertCounts.length, phonesForInsertRows.size());
-        for (int i = 0; i < n; i++) {
-            if (insertCounts[i] > 0) {
-                inserted++;
-                if ("pump_operator".equals(typesForInsertRows.get(i))) {
-                    phonesToNotify.add(phonesForInsertRows.get(i));
+        Map<String, TenantUserRecord> existingUsers = userTenantRepository.findUsersByPhones(
+                schemaName, pending.stream().map(PendingRow::phone).toList());
+
+        Map<String, NewUser> newUsers = new LinkedHashMap<>();
+        for (PendingRow p : pending) {
+            if (!existingUsers.containsKey(p.phone()) && !newUsers.containsKey(p.phone())) {
+                newUsers.put(p.phone(), new NewUser(UUID.randomUUID().toString(), p.typeKey(), p.userTypeId(),
+                        title(p.row(), p.typeKey()), p.phone()));
+            }
+        }
+        Map<String, Long> newUserIds = createUsers(schemaName, actor, preferredLanguageId, newUsers);
+
+        List<UserSchemeMappingCreateRow> insertRows = new ArrayList<>(pending.size());
+        Map<UserSchemeMappingCreateRow, PendingRow> rowByMapping = new HashMap<>();
+        Set<Long> existingUserIds = new LinkedHashSet<>();
+        int uploaded = 0;
+        for (PendingRow p : pending) {
+            Long userId;
+            TenantUserRecord user = existingUsers.get(p.phone());
+            if (user != null) {
+                // If an existing user isn't the requested type, skip to avoid mutating unrelated user types.
+                if (user.cName() == null || !user.cName().equalsIgnoreCase(p.typeKey().toUpperCase(Locale.ROOT))) {
+                    skipped++;
+                    continue;
+                }
+                userId = user.id();
+                existingUserIds.add(userId);
+            } else {
+                // A phone repeated in the chunk reuses the user created for its first row, if the type matches.
+                NewUser created = newUsers.get(p.phone());
+                userId = newUserIds.get(p.phone());
+                if (userId == null || !created.typeKey().equals(p.typeKey())) {
+                    skipped++;
+                    continue;
                 }
             }
+
+            UserSchemeMappingCreateRow mapping = new UserSchemeMappingCreateRow(userId, p.schemeId());
+            insertRows.add(mapping);
+            rowByMapping.putIfAbsent(mapping, p);
+            uploaded++;
+        }
+
+        userTenantRepository.updateUsersLanguageId(schemaName, existingUserIds, preferredLanguageId);
+
+        List<UserSchemeMappingCreateRow> inserted =
+                userUploadRepository.insertUserSchemeMappings(schemaName, insertRows, actorUserId);
+        Set<String> phonesToNotify = new LinkedHashSet<>();
+        for (UserSchemeMappingCreateRow mapping : inserted) {
+            PendingRow p = rowByMapping.get(mapping);
+            if (p != null && "pump_operator".equals(p.typeKey())) {
+                phonesToNotify.add(p.phone());
+            }
         }
 
         if (!phonesToNotify.isEmpty()) {
@@ -150,37 +160,90 @@ public class PumpOperatorUploadChunkProcessor {
             );
         }
 
-        log.info("[pump-operator-upload] chunk_processed rows={} uploaded={} skipped={} mappings_inserted={}",
-                rows.size(), uploaded, skipped, inserted);
+        log.info("[pump-operator-upload] chunk_processed rows={} uploaded={} skipped={} users_created={} mappings_inserted={}",
+                rows.size(), uploaded, skipped, newUserIds.size(), inserted.size());
 
         return new ChunkResult(uploaded, skipped);
     }
 
-    private Integer resolveSchemeId(
+    /** Looks up the chunk's state scheme IDs that are not in {@code schemeIdCache} yet; unknown ones are cached as -1. */
+    private void resolveSchemeIds(String schemaName, List<UploadRow> rows, Map<String, Integer> schemeIdCache) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (UploadRow row : rows) {
+            String schemeKey = row.stateSchemeId();
+            if (schemeKey != null && !schemeIdCache.containsKey(schemeKey)) {
+                missing.add(schemeKey);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<String> lookup = missing.stream().map(PumpOperatorUploadChunkProcessor::blankToNull)
+                .filter(Objects::nonNull).distinct().toList();
+        Map<String, Integer> found = userUploadRepository.findSchemeIdsByStateSchemeIds(schemaName, lookup);
+        for (String schemeKey : missing) {
+            String trimmed = blankToNull(schemeKey);
+            Integer schemeId = trimmed != null ? found.get(trimmed) : null;
+            schemeIdCache.put(schemeKey, schemeId != null ? schemeId : -1);
+        }
+    }
+
+    /** Inserts the chunk's new users in one statement; returns their IDs by phone. */
+    private Map<String, Long> createUsers(
             String schemaName,
-            String stateSchemeId,
-            Map<String, Integer> schemeIdCache
+            TenantUserRecord actor,
+            int preferredLanguageId,
+            Map<String, NewUser> newUsers
     ) {
-        String schemeKey = stateSchemeId;
-        Integer schemeId = schemeIdCache.get(schemeKey);
-        if (schemeId != null) {
-            return schemeId;
-        }
-        Integer found = userUploadRepository.findSchemeId(schemaName, blankToNull(stateSchemeId), null);
-        schemeId = found != null ? found : -1;
-        schemeIdCache.put(schemeKey, schemeId);
-        return schemeId;
+        if (newUsers.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> takenEmails = userTenantRepository.findExistingEmails(schemaName,
+                newUsers.values().stream().map(u -> generatedEmailForPhone(u.phone(), u.typeKey())).toList());
+
+        List<UserCreateRow> createRows = new ArrayList<>(newUsers.size());
+        for (NewUser user : newUsers.values()) {
+            createRows.add(new UserCreateRow(
+                    user.uuid(),
+                    user.title(),
+                    uniqueEmail(user.phone(), user.typeKey(), takenEmails),
+                    user.userTypeId(),
+                    user.phone()
+            ));
+        }
+        List<Long> ids = userTenantRepository.createUsers(
+                schemaName, actor.tenantId(), createRows, preferredLanguageId, "CSV_ONBOARDED", actor.id());
+
+        Map<String, Long> idsByPhone = new HashMap<>();
+        int i = 0;
+        for (String phone : newUsers.keySet()) {
+            Long id = ids.get(i++);
+            if (id != null) {
+                idsByPhone.put(phone, id);
+            }
+        }
+        return idsByPhone;
+    }
+
+    private String title(UploadRow row, String typeKey) {
+        String title = !row.fullName().isBlank()
+                ? row.fullName()
+                : (row.firstName() + " " + row.lastName()).trim();
+        if (title.isBlank()) {
+            title = defaultTitle(typeKey) + " " + row.phone();
+        }
+        return title;
     }
 
     private String generatedEmailForPhone(String phone, String typeKey) {
         return emailPrefix(typeKey) + phone + "@pump-operator.local";
     }
 
-    private String uniqueEmail(String schemaName, String phone, String typeKey) {
+    private String uniqueEmail(String phone, String typeKey, Set<String> takenEmails) {
         String email = generatedEmailForPhone(phone, typeKey);
         // Extremely unlikely for new users (email derives from phone), but keep the same safety as the old flow.
-        if (userTenantRepository.findUserByEmail(schemaName, email).isPresent()) {
-            return emailPrefix(typeKey) + phone + "_" + java.util.UUID.randomUUID() + "@pump-operator.local";
+        if (takenEmails.contains(email)) {
+            return emailPrefix(typeKey) + phone + "_" + UUID.randomUUID() + "@pump-operator.local";
         }
         return email;
     }
@@ -197,7 +260,7 @@ public class PumpOperatorUploadChunkProcessor {
         if (value == null) {
             return "";
         }
-        return value.trim().toLowerCase(java.util.Locale.ROOT).replace(' ', '_');
+        return value.trim().toLowerCase(Locale.ROOT).replace(' ', '_');
     }
 
     private String defaultTitle(String typeKey) {
@@ -11,8 +11,12 @@ public interface StaffAuthService {
      * Always returns without error regardless of whether the phone is registered,
      * the account is inactive, or a cooldown is active (OWASP anti-enumeration:
      * any observable difference would reveal whether a phone number is registered).
+     *
+     * @param clientIp address the request came from, for the per-IP rate limit
+     * @throws org.arghyam.jalsoochak.user.exceptions.TooManyRequestsException if the phone number
+     *         or client IP has reached its OTP request limit, registered or not
      */
-    void requestOtp(StaffOtpRequestDTO request);
+    void requestOtp(StaffOtpRequestDTO request, String clientIp);
 
     /**
      * Verifies the OTP and returns a Keycloak access token on success.
@@ -0,0 +1,61 @@
+package org.arghyam.jalsoochak.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.arghyam.jalsoochak.user.repository.UserCommonRepository;
+import org.arghyam.jalsoochak.user.repository.UserNameIndexRepository;
+import org.arghyam.jalsoochak.user.util.TenantSchemaResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Indexes the names of users that have no name-index tokens yet: users created before
+ * tenant migration T4 and users written by other services. Users created or renamed
+ * through user-service are indexed when they are written.
+ * Runs shortly after startup and then every {@code pii.name-index.backfill-interval}.
+ */
+@Slf4j
+@Service
+public class UserNameIndexBackfillService {
+
+    private final UserCommonRepository userCommonRepository;
+    private final UserNameIndexRepository userNameIndexRepository;
+    private final int batchSize;
+
+    public UserNameIndexBackfillService(UserCommonRepository userCommonRepository,
+                                        UserNameIndexRepository userNameIndexRepository,
+                                        @Value("${pii.name-index.backfill-batch-size:500}") int batchSize) {
+        this.userCommonRepository = userCommonRepository;
+        this.userNameIndexRepository = userNameIndexRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "${pii.name-index.backfill-interval:PT1H}")
+    public void backfill() {
+        for (String stateCode : userCommonRepository.findAllTenantStateCodes()) {
+            try {
+                String schemaName = TenantSchemaResolver.requireSchemaNameFromTenantCode(stateCode);
+                int batches = backfill(schemaName);
+                if (batches > 0) {
+                    log.info("Name index backfill: indexed {} batch(es) of users in {}", batches, schemaName);
+                }
+            } catch (Exception e) {
+                log.error("Name index backfill failed for tenant {} — will retry on next scheduled run", stateCode, e);
+            }
+        }
+    }
+
+    /** @return number of batches indexed */
+    int backfill(String schemaName) {
+        int batches = 0;
+        long lastId = 0;
+        while (true) {
+            long next = userNameIndexRepository.indexMissing(schemaName, lastId, batchSize);
+            if (next < 0) {
+                return batches;
+            }
+            batches++;
+            lastId = next;
+        }
+    }
+}
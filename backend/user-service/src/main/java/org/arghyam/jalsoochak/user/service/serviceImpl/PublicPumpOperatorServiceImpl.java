@@ -10,6 +10,7 @@ import org.arghyam.jalsoochak.user.dto.response.PumpOperatorSchemeComplianceRowD
 import org.arghyam.jalsoochak.user.dto.response.SchemePumpOperatorsDTO;
 import org.arghyam.jalsoochak.user.repository.PublicPumpOperatorRepository;
 import org.arghyam.jalsoochak.user.service.PublicPumpOperatorService;
+import org.arghyam.jalsoochak.user.util.KeysetCursor;
 import org.arghyam.jalsoochak.user.util.TenantSchemaResolver;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -54,14 +55,16 @@ public class PublicPumpOperatorServiceImpl implements PublicPumpOperatorService
     }
 
     @Override
-    public PageResponseDTO<PumpOperatorReadingComplianceRowDTO> listReadingCompliance(String tenantCode, int page, int size) {
+    public PageResponseDTO<PumpOperatorReadingComplianceRowDTO> listReadingCompliance(
+            String tenantCode, int page, int size, String cursor) {
         String schemaName = TenantSchemaResolver.requireSchemaNameFromTenantCode(tenantCode);
         int p = Math.max(0, page);
         int effectiveSize = clampLimit(size);
         int offset = p * effectiveSize;
-        List<PumpOperatorReadingComplianceRowDTO> rows = publicPumpOperatorRepository.listReadingCompliance(schemaName, offset, effectiveSize);
+        PublicPumpOperatorRepository.PageSlice<PumpOperatorReadingComplianceRowDTO> slice =
+                publicPumpOperatorRepository.listReadingCompliance(schemaName, KeysetCursor.decode(cursor), offset, effectiveSize);
         long total = publicPumpOperatorRepository.countReadingCompliance(schemaName);
-        return PageResponseDTO.of(rows, total, p, effectiveSize);
+        return toPage(slice, total, p, effectiveSize);
     }
 
     @Override
@@ -69,20 +72,23 @@ public class PublicPumpOperatorServiceImpl implements PublicPumpOperatorService
             String tenantCode,
             long schemeId,
             int page,
-            int size
+            int size,
+            String cursor
     ) {
         String schemaName = TenantSchemaResolver.requireSchemaNameFromTenantCode(tenantCode);
         int p = Math.max(0, page);
         int effectiveSize = clampLimit(size);
         int offset = p * effectiveSize;
-        List<PumpOperatorSchemeComplianceRowDTO> rows = publicPumpOperatorRepository.listPumpOperatorsBySchemeWithCompliance(
-                schemaName,
-                schemeId,
-                offset,
-                effectiveSize
-        );
+        PublicPumpOperatorRepository.PageSlice<PumpOperatorSchemeComplianceRowDTO> slice =
+                publicPumpOperatorRepository.listPumpOperatorsBySchemeWithCompliance(
+                        schemaName,
+                        schemeId,
+                        KeysetCursor.decode(cursor),
+                        offset,
+                        effectiveSize
+                );
         long total = publicPumpOperatorRepository.countPumpOperatorsBySchemeWithCompliance(schemaName, schemeId);
-        return PageResponseDTO.of(rows, total, p, effectiveSize);
+        return toPage(slice, total, p, effectiveSize);
     }
 
     @Override
@@ -90,11 +96,19 @@ public class PublicPumpOperatorServiceImpl implements PublicPumpOperatorService
             String tenantCode,
             List<Long> schemeIds,
             String schemeName,
+            String name,
             Integer page,
             Integer size
     ) {
         String schemaName = TenantSchemaResolver.requireSchemaNameFromTenantCode(tenantCode);
-        return publicPumpOperatorRepository.listPumpOperatorsByScheme(schemaName, schemeIds, schemeName, page, size);
+        return publicPumpOperatorRepository.listPumpOperatorsByScheme(schemaName, schemeIds, schemeName, name, page, size);
+    }
+
+    private static <T> PageResponseDTO<T> toPage(
+            PublicPumpOperatorRepository.PageSlice<T> slice, long total, int page, int size) {
+        PageResponseDTO<T> response = PageResponseDTO.of(slice.content(), total, page, size);
+        response.setNextCursor(slice.next() == null ? null : slice.next().encode());
+        return response;
     }
 
     private int clampLimit(int limit) {
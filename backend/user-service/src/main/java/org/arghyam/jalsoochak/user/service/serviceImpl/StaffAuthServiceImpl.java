@@ -18,7 +18,9 @@ import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
 import org.arghyam.jalsoochak.user.repository.TenantUserRecord;
 import org.arghyam.jalsoochak.user.repository.UserCommonRepository;
 import org.arghyam.jalsoochak.user.repository.UserTenantRepository;
+import org.arghyam.jalsoochak.user.service.OtpRateLimiter;
 import org.arghyam.jalsoochak.user.service.OtpService;
+import org.arghyam.jalsoochak.user.service.OtpStore;
 import org.arghyam.jalsoochak.user.service.StaffAuthService;
 import org.arghyam.jalsoochak.user.service.StaffKeycloakService;
 import org.springframework.stereotype.Service;
@@ -39,6 +41,7 @@ public class StaffAuthServiceImpl implements StaffAuthService {
     private final UserTenantRepository userTenantRepository;
     private final OtpProperties otpProperties;
     private final OtpService otpService;
+    private final OtpRateLimiter otpRateLimiter;
     private final StaffKeycloakService staffKeycloakService;
     private final KeycloakClient keycloakClient;
     private final UserNotificationEventPublisher eventPublisher;
@@ -46,7 +49,10 @@ public class StaffAuthServiceImpl implements StaffAuthService {
 
     @Override
     @Transactional
-    public void requestOtp(StaffOtpRequestDTO request) {
+    public void requestOtp(StaffOtpRequestDTO request, String clientIp) {
+        // Counted before any lookup, so registered and unknown numbers are limited alike
+        otpRateLimiter.checkRequest(request.getPhoneNumber().trim(), clientIp);
+
         String tenantCode = request.getTenantCode().trim().toUpperCase();
 
         Optional<Integer> tenantIdOpt = userCommonRepository.findTenantIdByStateCode(tenantCode);
@@ -118,8 +124,8 @@ public class StaffAuthServiceImpl implements StaffAuthService {
         int tenantId = resolution.tenantId();
 
         // Verify OTP before checking account status to avoid leaking whether an account is deactivated.
-        // Returns the consumed OTP ID for potential reversion if Keycloak fails.
-        Long consumedOtpId = otpService.verifyOtp(user.id(), tenantId, OtpType.LOGIN, request.getOtp());
+        // Returns the consumed OTP for potential reversion if Keycloak fails.
+        OtpStore.Consumed consumedOtp = otpService.verifyOtp(user.id(), tenantId, OtpType.LOGIN, request.getOtp());
 
         // Re-fetch to avoid acting on a stale snapshot: a concurrent deactivation could have changed
         // the status between the initial resolution and now.
@@ -138,7 +144,7 @@ public class StaffAuthServiceImpl implements StaffAuthService {
             managedPassword = staffKeycloakService.ensureKeycloakAccount(freshUser, tenantCode, schema);
             token = keycloakClient.obtainToken(freshUser.phoneNumber(), managedPassword);
         } catch (RuntimeException e) {
-            otpService.revertOtpConsumption(consumedOtpId);
+            otpService.revertOtpConsumption(consumedOtp);
             throw e;
         }
 
@@ -296,6 +296,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
 
         usersResource.get(keycloakId).update(rep);
+        keycloakAdminHelper.evictIdentity(keycloakId);
 
         return keycloakAdminHelper.buildAdminUserResponse(
                 userCommonRepository.findAdminUserByUuid(keycloakId).orElse(user));
@@ -332,9 +333,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         long offset = (long) page * limit;
         List<AdminUserRow> rows = userCommonRepository.listSuperUsers(status, offset, limit);
         long total = userCommonRepository.countSuperUsers(status);
-        List<AdminUserResponseDTO> users = rows.stream()
-                .map(keycloakAdminHelper::buildAdminUserResponse)
-                .collect(Collectors.toList());
+        List<AdminUserResponseDTO> users = keycloakAdminHelper.buildAdminUserResponses(rows);
         return PageResponseDTO.of(users, total, page, limit);
     }
 
@@ -362,9 +361,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         long offset = (long) page * limit;
         List<AdminUserRow> rows = userCommonRepository.listStateAdminsByTenant(tenantId, status, offset, limit);
         long total = userCommonRepository.countStateAdminsByTenant(tenantId, status);
-        List<AdminUserResponseDTO> users = rows.stream()
-                .map(keycloakAdminHelper::buildAdminUserResponse)
-                .collect(Collectors.toList());
+        List<AdminUserResponseDTO> users = keycloakAdminHelper.buildAdminUserResponses(rows);
         return PageResponseDTO.of(users, total, page, limit);
     }
 
@@ -426,6 +423,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
 
         usersResource.get(user.uuid()).update(rep);
+        keycloakAdminHelper.evictIdentity(user.uuid());
 
         return keycloakAdminHelper.buildAdminUserResponse(
                 userCommonRepository.findAdminUserById(id).orElse(user));
@@ -505,6 +503,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         UserRepresentation rep = usersResource.get(target.uuid()).toRepresentation();
         rep.setEnabled(false);
         usersResource.get(target.uuid()).update(rep);
+        keycloakAdminHelper.evictIdentity(target.uuid());
     }
 
     @Override
@@ -540,5 +539,6 @@ public class UserManagementServiceImpl implements UserManagementService {
         UserRepresentation rep = usersResource.get(target.uuid()).toRepresentation();
         rep.setEnabled(true);
         usersResource.get(target.uuid()).update(rep);
+        keycloakAdminHelper.evictIdentity(target.uuid());
     }
 }
@@ -0,0 +1,72 @@
+package org.arghyam.jalsoochak.user.util;
+
+import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset-paginated listing, exchanged with clients as an
+ * opaque token.
+ *
+ * <p>The cursor records the sort it was issued for, the sort value of the last row (as
+ * PostgreSQL renders it with {@code ::text}) and the row's tie-breaking IDs. A cursor is
+ * only valid for the same sort; filters are not part of it.</p>
+ *
+ * <p><b>Copies:</b> scheme-service has the same record in {@code scheme.util}. It differs
+ * only in its package and in raising {@code ResponseStatusException} (400) where this one
+ * throws {@link BadRequestException}. Both read and write the same token format, so change
+ * them together.</p>
+ *
+ * @param sortKey   canonical sort column, e.g. {@code reading_date}
+ * @param ascending sort direction
+ * @param value     sort value of the last row; empty when the sort is on the ID itself
+ * @param id        primary tie-breaker (row ID)
+ * @param tieId     secondary tie-breaker for joins that repeat a row ID; {@code 0} if unused
+ */
+public record KeysetCursor(String sortKey, boolean ascending, String value, long id, long tieId) {
+
+    private static final String VERSION = "1";
+
+    public String encode() {
+        String raw = String.join("\n", VERSION, sortKey, ascending ? "a" : "d",
+                Long.toString(id), Long.toString(tieId), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a client-supplied token.
+     *
+     * @return {@code null} if {@code token} is blank
+     * @throws BadRequestException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            // The value is last and may itself contain newlines.
+            String[] parts = raw.split("\n", 6);
+            if (parts.length != 6 || !VERSION.equals(parts[0]) || !("a".equals(parts[2]) || "d".equals(parts[2]))) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(parts[1], "a".equals(parts[2]), parts[5],
+                    Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException ex) {
+            // Base64 and number format errors
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Fails unless this cursor was issued for the given sort.
+     *
+     * @throws BadRequestException on a mismatch
+     */
+    public void requireSort(String expectedSortKey, boolean expectedAscending) {
+        if (!sortKey.equals(expectedSortKey) || ascending != expectedAscending) {
+            throw new BadRequestException("cursor does not belong to this listing; restart from the first page");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.arghyam.jalsoochak.user.util;
 
 import lombok.experimental.UtilityClass;
 import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
+import org.arghyam.jalsoochak.user.exceptions.ForbiddenAccessException;
 import org.arghyam.jalsoochak.user.exceptions.UnauthorizedAccessException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -72,4 +73,24 @@ public class SecurityUtils {
                 .filter(r -> r.equals("SUPER_USER") || r.equals("STATE_ADMIN"))
                 .findFirst();
     }
+
+    /**
+     * Rejects a {@code name} filter unless the caller is a SUPER_USER or a STATE_ADMIN of
+     * {@code tenantCode}. The listings that take it are public, and name search runs over the
+     * blind index of encrypted names, so it would let anyone test which names a state's staff have.
+     *
+     * @param auth the caller's authentication; {@code null} or anonymous on public routes
+     */
+    public static void requireNameSearchAccess(Authentication auth, String tenantCode, String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        Optional<String> role = auth == null ? Optional.empty() : extractRole(auth);
+        if (role.isEmpty()) {
+            throw new ForbiddenAccessException("Searching by name requires a state admin or super user");
+        }
+        if (role.get().equals("STATE_ADMIN") && !tenantCode.equalsIgnoreCase(extractTenantCode(auth))) {
+            throw new ForbiddenAccessException("State admin can only search names within their own state");
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package org.arghyam.jalsoochak.user.auth;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH cost of {@link JwtTokenValidator#decodeAndValidate} per request, in microseconds, over
+ * 1,000 Keycloak-sized RS256 tokens (one per session):
+ * <ul>
+ *   <li>{@code verifyEveryRequest} — token cache disabled: parse, signature check and claim
+ *       validation on every call, as before the cache was introduced;</li>
+ *   <li>{@code cachedSession} — every token already verified once, as for repeated calls from
+ *       the same sessions.</li>
+ * </ul>
+ * The key is the static {@code KEYCLOAK_PUBLIC_KEY}; a JWKS key costs the same once fetched.
+ *
+ * <p>Not part of the test run. Run with:</p>
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.arghyam.jalsoochak.user.auth.JwtTokenValidatorBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenValidatorBenchmark {
+
+    private static final int SESSIONS = 1_000;
+
+    private JwtTokenValidator uncached;
+    private JwtTokenValidator cached;
+    private List<String> tokens;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        String publicKey = Base64.getEncoder().encodeToString(key.toRSAPublicKey().getEncoded());
+        uncached = new JwtTokenValidator("", publicKey, "", "", Duration.ofSeconds(30), 0, 1000, 1000);
+        cached = new JwtTokenValidator("", publicKey, "", "", Duration.ofSeconds(30), 10_000, 1000, 1000);
+
+        tokens = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            tokens.add(token(key, i));
+        }
+        tokens.forEach(cached::decodeAndValidate);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSIONS)
+    public void verifyEveryRequest(Blackhole bh) {
+        for (String token : tokens) {
+            bh.consume(uncached.decodeAndValidate(token));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSIONS)
+    public void cachedSession(Blackhole bh) {
+        for (String token : tokens) {
+            bh.consume(cached.decodeAndValidate(token));
+        }
+    }
+
+    private static String token(RSAKey key, int session) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer("https://keycloak.example.com/realms/jalsoochak-realm")
+                .subject("user-" + session)
+                .jwtID("session-" + session)
+                .claim("preferred_username", "user" + session + "@example.com")
+                .claim("email", "user" + session + "@example.com")
+                .claim("realm_access", Map.of("roles", List.of("STATE_ADMIN", "offline_access")))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
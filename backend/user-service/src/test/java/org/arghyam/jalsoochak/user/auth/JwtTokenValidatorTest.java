@@ -0,0 +1,250 @@
+package org.arghyam.jalsoochak.user.auth;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Runs {@link JwtTokenValidator} against a WireMock stub of the Keycloak JWKS endpoint.
+ */
+@DisplayName("JwtTokenValidator - stub Keycloak JWKS endpoint")
+class JwtTokenValidatorTest {
+
+    private static final String CERTS = "/realms/jalsoochak-realm/protocol/openid-connect/certs";
+
+    private static RSAKey key1;
+    private static RSAKey key2;
+
+    private WireMockServer wireMock;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        key1 = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        key2 = new RSAKeyGenerator(2048).keyID("key-2").generate();
+    }
+
+    @BeforeEach
+    void startWireMock() {
+        wireMock = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMock.start();
+    }
+
+    @AfterEach
+    void stopWireMock() {
+        wireMock.stop();
+    }
+
+    private void publish(RSAKey... keys) {
+        List<JWK> publicKeys = Arrays.stream(keys).<JWK>map(RSAKey::toPublicJWK).toList();
+        wireMock.stubFor(get(urlEqualTo(CERTS)).willReturn(okJson(new JWKSet(publicKeys).toString())));
+    }
+
+    private JwtTokenValidator validator(Duration minRefetchInterval, int maxCachedTokens) {
+        return new JwtTokenValidator("", "", "", wireMock.baseUrl() + CERTS,
+                minRefetchInterval, maxCachedTokens, 1000, 1000);
+    }
+
+    private static String token(RSAKey key, String keyId, Instant expiresAt) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .claim("email", "admin@example.com")
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyId).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static String token(RSAKey key) throws JOSEException {
+        return token(key, key.getKeyID(), Instant.now().plusSeconds(300));
+    }
+
+    private int jwksRequests() {
+        return wireMock.findAll(getRequestedFor(urlEqualTo(CERTS))).size();
+    }
+
+    @Test
+    @DisplayName("verifies a token against the JWKS key named by its kid")
+    void verifiesByKid() throws JOSEException {
+        publish(key1, key2);
+        JwtTokenValidator validator = validator(Duration.ofSeconds(30), 100);
+
+        Jwt jwt = validator.decodeAndValidate(token(key2));
+
+        assertThat(jwt.getSubject()).isEqualTo("user-1");
+        assertThat(jwt.getClaimAsString("email")).isEqualTo("admin@example.com");
+        assertThat(jwksRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("serves a repeated token from the verified-token cache")
+    void cachesVerifiedToken() throws JOSEException {
+        publish(key1);
+        JwtTokenValidator validator = validator(Duration.ofSeconds(30), 100);
+        String token = token(key1);
+
+        Jwt first = validator.decodeAndValidate(token);
+
+        assertThat(validator.decodeAndValidate(token)).isSameAs(first);
+        assertThat(jwksRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("verifies every call when the token cache is disabled")
+    void cacheDisabled() throws JOSEException {
+        publish(key1);
+        JwtTokenValidator validator = validator(Duration.ofSeconds(30), 0);
+        String token = token(key1);
+
+        Jwt first = validator.decodeAndValidate(token);
+
+        assertThat(validator.decodeAndValidate(token)).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("refetches the key set for a rotated-in key")
+    void picksUpRotatedKey() throws JOSEException {
+        publish(key1);
+        JwtTokenValidator validator = validator(Duration.ZERO, 100);
+        validator.decodeAndValidate(token(key1));
+
+        publish(key1, key2);
+
+        assertThat(validator.decodeAndValidate(token(key2)).getSubject()).isEqualTo("user-1");
+        assertThat(jwksRequests()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("refetches for unknown kids at most once per min-refetch-interval")
+    void rateLimitsUnknownKidRefetch() throws JOSEException {
+        publish(key1);
+        JwtTokenValidator validator = validator(Duration.ofHours(1), 100);
+        validator.decodeAndValidate(token(key1));
+
+        for (int i = 0; i < 5; i++) {
+            String forged = token(key2, "unknown-" + i, Instant.now().plusSeconds(300));
+            assertThatThrownBy(() -> validator.decodeAndValidate(forged))
+                    .isInstanceOf(JwtException.class)
+                    .hasMessageContaining("not signed with a known key");
+        }
+
+        assertThat(jwksRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("drops cached tokens whose key is no longer published")
+    void evictsTokensOfRemovedKey() throws JOSEException {
+        publish(key1, key2);
+        JwtTokenValidator validator = validator(Duration.ofHours(1), 100);
+        String token = token(key1);
+        validator.decodeAndValidate(token);
+
+        publish(key2);
+        validator.refreshSigningKeys();
+
+        assertThatThrownBy(() -> validator.decodeAndValidate(token))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("rejects a token whose signature does not match the kid's key")
+    void rejectsBadSignature() throws JOSEException {
+        publish(key1, key2);
+        JwtTokenValidator validator = validator(Duration.ofSeconds(30), 100);
+
+        String forged = token(key2, "key-1", Instant.now().plusSeconds(300));
+
+        assertThatThrownBy(() -> validator.decodeAndValidate(forged))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("rejects an expired token")
+    void rejectsExpiredToken() throws JOSEException {
+        publish(key1);
+        JwtTokenValidator validator = validator(Duration.ofSeconds(30), 100);
+
+        String expired = token(key1, "key-1", Instant.now().minus(Duration.ofMinutes(5)));
+
+        assertThatThrownBy(() -> validator.decodeAndValidate(expired))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("falls back to KEYCLOAK_PUBLIC_KEY when the JWKS endpoint is down")
+    void fallsBackToStaticKey() throws JOSEException {
+        wireMock.stubFor(get(urlEqualTo(CERTS)).willReturn(serverError()));
+        String publicKey = Base64.getEncoder().encodeToString(key1.toRSAPublicKey().getEncoded());
+        JwtTokenValidator validator = new JwtTokenValidator("", publicKey, "", wireMock.baseUrl() + CERTS,
+                Duration.ofSeconds(30), 100, 1000, 1000);
+
+        assertThat(validator.decodeAndValidate(token(key1)).getSubject()).isEqualTo("user-1");
+        assertThatThrownBy(() -> validator.decodeAndValidate(token(key2)))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("uses KEYCLOAK_PUBLIC_KEY instead of waiting for a refetch after a failed JWKS fetch")
+    void doesNotWaitForRefetch_whenStaticKeyConfigured() throws Exception {
+        wireMock.stubFor(get(urlEqualTo(CERTS)).willReturn(serverError().withFixedDelay(800)));
+        String publicKey = Base64.getEncoder().encodeToString(key1.toRSAPublicKey().getEncoded());
+        JwtTokenValidator validator = new JwtTokenValidator("", publicKey, "", wireMock.baseUrl() + CERTS,
+                Duration.ZERO, 0, 1000, 1000);
+        String token = token(key1);
+        validator.decodeAndValidate(token);
+
+        Thread refetching = new Thread(() -> validator.decodeAndValidate(token));
+        refetching.start();
+        Thread.sleep(200);
+
+        long start = System.nanoTime();
+        assertThat(validator.decodeAndValidate(token).getSubject()).isEqualTo("user-1");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(400));
+        refetching.join();
+        assertThat(jwksRequests()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("fails with IllegalStateException when no key source is configured")
+    void failsWithoutKeySource() throws JOSEException {
+        JwtTokenValidator validator = new JwtTokenValidator("", "", "", "",
+                Duration.ofSeconds(30), 100, 1000, 1000);
+        String token = token(key1);
+
+        assertThatThrownBy(() -> validator.decodeAndValidate(token))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package org.arghyam.jalsoochak.user.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import org.arghyam.jalsoochak.user.config.properties.CookieProperties;
+import org.arghyam.jalsoochak.user.service.AuthService;
+import org.arghyam.jalsoochak.user.service.StaffAuthService;
+import org.arghyam.jalsoochak.user.util.CookieHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Checks that the staff OTP endpoint rate-limits by the client address the gateway forwards,
+ * using the real {@code server.forward-headers-strategy} from {@code application.yml} on an
+ * embedded Tomcat (MockMvc does not run Tomcat's {@code RemoteIpValve}).
+ */
+@SpringBootTest(classes = AuthControllerForwardedHeadersTest.Config.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("AuthController forwarded client address")
+class AuthControllerForwardedHeadersTest {
+
+    @Configuration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            ValidationAutoConfiguration.class
+    })
+    @Import(AuthController.class)
+    static class Config {
+        @Bean
+        CookieHelper cookieHelper() {
+            return new CookieHelper(new CookieProperties(false, "Strict"));
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private StaffAuthService staffAuthService;
+
+    @Test
+    @DisplayName("request-otp uses the X-Forwarded-For client of a trusted proxy")
+    void requestOtp_usesForwardedClientAddress() {
+        ResponseEntity<String> response = requestOtp("203.0.113.7");
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        verify(staffAuthService).requestOtp(any(), eq("203.0.113.7"));
+    }
+
+    @Test
+    @DisplayName("request-otp ignores a client-supplied entry left of the gateway's")
+    void requestOtp_ignoresSpoofedLeftmostEntry() {
+        ResponseEntity<String> response = requestOtp("198.51.100.1, 203.0.113.7");
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        verify(staffAuthService).requestOtp(any(), eq("203.0.113.7"));
+    }
+
+    private ResponseEntity<String> requestOtp(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        String body = """
+                {"phoneNumber": "919876543210", "tenantCode": "MP"}
+                """;
+        return restTemplate.postForEntity("/api/v1/auth/staff/request-otp", new HttpEntity<>(body, headers), String.class);
+    }
+}
@@ -0,0 +1,262 @@
+package org.arghyam.jalsoochak.user.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.arghyam.jalsoochak.user.event.UserEventPublisher;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository;
+import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link UserEventPublisher}, {@link UserEventOutboxRepository} and {@link UserEventRelay}
+ * against a real PostgreSQL instance, with a stub broker that records what it acknowledged.
+ * A "crash" is a relay transaction that ends without committing: the sends may have reached
+ * the broker, but the outbox rows are not deleted. A new relay instance stands in for the
+ * restarted service.
+ */
+@SpringJUnitConfig(UserEventOutboxIntegrationTest.Config.class)
+@Testcontainers
+class UserEventOutboxIntegrationTest {
+
+    private static final String TOPIC = UserEventPublisher.NOTIFICATION_PRIORITY_TOPIC;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/test-schema.sql");
+
+    @Configuration
+    @Import({UserEventOutboxRepository.class, UserEventPublisher.class})
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        PiiEncryptionService piiEncryptionService() {
+            return new PiiEncryptionService(
+                    "dGVzdC1lbmNyeXB0aW9uLWtleS10ZXN0aW5nLTEyMzQ=",
+                    "dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+        }
+    }
+
+    @Autowired
+    private UserEventPublisher publisher;
+
+    @Autowired
+    private UserEventOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Records acknowledged by the stub broker, in send order. */
+    private final List<JsonNode> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE common_schema.user_event_outbox_table RESTART IDENTITY");
+        delivered.clear();
+    }
+
+    @Test
+    void eventsOfARolledBackUpload_areNeverPublished() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            publisher.publishPumpOperatorOnboardedAfterCommit("MP", 1, "7", List.of("9000000001"));
+            throw new IllegalStateException("chunk failed");
+        })).hasMessage("chunk failed");
+
+        newRelay(brokerUp()).relay();
+
+        assertThat(delivered).isEmpty();
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void noEventIsLost_whenTheServiceCrashesBeforeTheRelayCommits() {
+        List<String> phones = phones(2500);
+        transactionTemplate.executeWithoutResult(status ->
+                publisher.publishPumpOperatorOnboardedAfterCommit("MP", 1, "7", phones));
+        assertThat(pending()).isEqualTo(6);
+
+        // Crash after the broker acknowledged the batch, before the outbox rows were deleted.
+        UserEventRelay crashing = newRelay(brokerUp());
+        transactionTemplate.executeWithoutResult(status -> {
+            crashing.relayBatch();
+            status.setRollbackOnly();
+        });
+        assertThat(delivered).hasSize(6);
+        assertThat(pending()).isEqualTo(6);
+
+        // The restarted service re-sends every queued event; consumers drop duplicates by eventId.
+        newRelay(brokerUp()).relay();
+
+        assertThat(pending()).isZero();
+        Map<Long, JsonNode> byEventId = new LinkedHashMap<>();
+        delivered.forEach(event -> byEventId.putIfAbsent(event.path("eventId").asLong(), event));
+        assertThat(byEventId).hasSize(6);
+        assertThat(byEventId.values()).extracting(event -> event.path("eventType").asText()).containsExactly(
+                "UPDATE_USER_LANGUAGE", "SEND_WELCOME_MESSAGE",
+                "UPDATE_USER_LANGUAGE", "SEND_WELCOME_MESSAGE",
+                "UPDATE_USER_LANGUAGE", "SEND_WELCOME_MESSAGE");
+        List<String> welcomed = new ArrayList<>();
+        byEventId.values().stream()
+                .filter(event -> event.path("eventType").asText().equals("SEND_WELCOME_MESSAGE"))
+                .forEach(event -> event.path("pumpOperatorPhones").forEach(phone -> welcomed.add(phone.asText())));
+        assertThat(welcomed).containsExactlyElementsOf(phones);
+    }
+
+    @Test
+    void eventsStayQueued_whileTheBrokerIsDown_andArePublishedInOrderOnceItRecovers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            publisher.publishPumpOperatorOnboardedAfterCommit("MP", 1, "7", List.of("9000000001"));
+            publisher.publishWelcomeMessages("MP", 1, List.of("9000000002"));
+        });
+
+        newRelay(brokerDown()).relay();
+
+        // Only the tenant's first event was attempted; the others wait behind it.
+        assertThat(delivered).isEmpty();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT attempts FROM common_schema.user_event_outbox_table ORDER BY id", Integer.class))
+                .containsExactly(1, 0, 0);
+
+        // Within the retry delay the tenant is skipped.
+        newRelay(brokerUp()).relay();
+        assertThat(delivered).isEmpty();
+
+        jdbcTemplate.update("UPDATE common_schema.user_event_outbox_table SET retry_at = NOW() - INTERVAL '1 second'");
+        newRelay(brokerUp()).relay();
+
+        assertThat(pending()).isZero();
+        assertThat(delivered).extracting(event -> event.path("eventId").asLong()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void aTenantWhoseSendsFail_doesNotHoldUpOtherTenants() {
+        transactionTemplate.executeWithoutResult(status -> {
+            publisher.publishWelcomeMessages("MP", 1, List.of("9000000001"));
+            publisher.publishWelcomeMessages("KA", 2, List.of("9000000002"));
+        });
+        jdbcTemplate.update("""
+                UPDATE common_schema.user_event_outbox_table
+                SET attempts = 7, retry_at = NOW() + INTERVAL '5 minutes'
+                WHERE event_key = 'MP'
+                """);
+        transactionTemplate.executeWithoutResult(status ->
+                publisher.publishWelcomeMessages("MP", 1, List.of("9000000003")));
+
+        newRelay(brokerUp()).relay();
+
+        assertThat(delivered).extracting(event -> event.path("tenantCode").asText()).containsExactly("KA");
+        assertThat(pending()).isEqualTo(2);
+    }
+
+    @Test
+    void payloadsAreStoredEncrypted_andPublishedWithAnEventId() {
+        publisher.publishWelcomeMessages("MP", 1, List.of("9000000001"));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT payload FROM common_schema.user_event_outbox_table", String.class))
+                .doesNotContain("9000000001");
+
+        newRelay(brokerUp()).relay();
+
+        assertThat(delivered).singleElement().satisfies(event -> {
+            assertThat(event.path("eventId").asLong()).isEqualTo(1L);
+            assertThat(event.path("eventType").asText()).isEqualTo("SEND_WELCOME_MESSAGE");
+            assertThat(event.path("tenantCode").asText()).isEqualTo("MP");
+            assertThat(event.path("pumpOperatorPhones").get(0).asText()).isEqualTo("9000000001");
+        });
+    }
+
+    private UserEventRelay newRelay(KafkaTemplate<String, String> kafkaTemplate) {
+        return new UserEventRelay(outboxRepository, kafkaTemplate, transactionTemplate, new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private KafkaTemplate<String, String> brokerUp() {
+        KafkaTemplate<String, String> kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), anyString())).thenAnswer(invocation -> {
+            delivered.add(objectMapper.readTree(invocation.<String>getArgument(2)));
+            return CompletableFuture.<SendResult<String, String>>completedFuture(null);
+        });
+        return kafkaTemplate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private KafkaTemplate<String, String> brokerDown() {
+        KafkaTemplate<String, String> kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        return kafkaTemplate;
+    }
+
+    private long pending() {
+        return outboxRepository.backlog().pending();
+    }
+
+    private static List<String> phones(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> String.valueOf(9_000_000_000L + i)).toList();
+    }
+}
@@ -0,0 +1,157 @@
+package org.arghyam.jalsoochak.user.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.arghyam.jalsoochak.user.event.UserEventPublisher;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository.Backlog;
+import org.arghyam.jalsoochak.user.repository.UserEventOutboxRepository.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventRelayTest {
+
+    private static final String TOPIC = UserEventPublisher.NOTIFICATION_PRIORITY_TOPIC;
+
+    @Mock
+    UserEventOutboxRepository outboxRepository;
+
+    @Mock
+    KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    SimpleMeterRegistry meterRegistry;
+    UserEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new UserEventRelay(outboxRepository, kafkaTemplate, transactionTemplate, meterRegistry);
+    }
+
+    @Test
+    void relayBatch_sendsKeyedEventsInOrder_andDeletesAcknowledgedOnes() {
+        when(outboxRepository.tryLockRelay()).thenReturn(true);
+        when(outboxRepository.lockOldest(anyInt())).thenReturn(List.of(
+                new OutboxEvent(1, "MP", "{\"eventId\": 1}"),
+                new OutboxEvent(2, "MP", "{\"eventId\": 2}")));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), anyString())).thenReturn(acked());
+
+        UserEventRelay.BatchResult result = relay.relayBatch();
+
+        assertThat(result).isEqualTo(new UserEventRelay.BatchResult(2, 0));
+        InOrder order = inOrder(kafkaTemplate, outboxRepository);
+        order.verify(kafkaTemplate).send(TOPIC, "MP", "{\"eventId\": 1}");
+        order.verify(kafkaTemplate).flush();
+        order.verify(kafkaTemplate).send(TOPIC, "MP", "{\"eventId\": 2}");
+        order.verify(kafkaTemplate).flush();
+        order.verify(outboxRepository).delete(List.of(1L, 2L));
+        order.verify(outboxRepository).recordFailure(eq(List.of()), isNull(), any(), any());
+        assertThat(meterRegistry.counter("user.events.relay.published").count()).isEqualTo(2);
+    }
+
+    @Test
+    void relayBatch_sendsEachTenantsNextEventOnlyOnceThePreviousIsAcknowledged() {
+        when(outboxRepository.tryLockRelay()).thenReturn(true);
+        when(outboxRepository.lockOldest(anyInt())).thenReturn(List.of(
+                new OutboxEvent(1, "MP", "language"),
+                new OutboxEvent(2, "KA", "other tenant"),
+                new OutboxEvent(3, "MP", "welcome")));
+        CompletableFuture<SendResult<String, String>> language = new CompletableFuture<>();
+        when(kafkaTemplate.send(TOPIC, "MP", "language")).thenReturn(language);
+        when(kafkaTemplate.send(TOPIC, "KA", "other tenant")).thenReturn(acked());
+        when(kafkaTemplate.send(TOPIC, "MP", "welcome")).thenAnswer(invocation -> {
+            assertThat(language).isDone();
+            return acked();
+        });
+        doAnswer(invocation -> language.complete(null)).when(kafkaTemplate).flush();
+
+        assertThat(relay.relayBatch()).isEqualTo(new UserEventRelay.BatchResult(3, 0));
+
+        InOrder order = inOrder(kafkaTemplate);
+        order.verify(kafkaTemplate).send(TOPIC, "MP", "language");
+        order.verify(kafkaTemplate).send(TOPIC, "KA", "other tenant");
+        order.verify(kafkaTemplate).flush();
+        order.verify(kafkaTemplate).send(TOPIC, "MP", "welcome");
+        verify(outboxRepository).delete(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void relayBatch_stopsATenantAtItsFirstFailure_andDefersIt() {
+        when(outboxRepository.tryLockRelay()).thenReturn(true);
+        when(outboxRepository.lockOldest(anyInt())).thenReturn(List.of(
+                new OutboxEvent(1, "MP", "language"),
+                new OutboxEvent(2, "KA", "other tenant"),
+                new OutboxEvent(3, "MP", "welcome")));
+        when(kafkaTemplate.send(TOPIC, "MP", "language"))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("Expiring 1 record(s)")));
+        when(kafkaTemplate.send(TOPIC, "KA", "other tenant")).thenReturn(acked());
+
+        UserEventRelay.BatchResult result = relay.relayBatch();
+
+        assertThat(result).isEqualTo(new UserEventRelay.BatchResult(1, 2));
+        verify(kafkaTemplate, never()).send(TOPIC, "MP", "welcome");
+        verify(outboxRepository).delete(List.of(2L));
+        verify(outboxRepository).recordFailure(eq(List.of(1L)), startsWith("TimeoutException: Expiring"),
+                eq(Duration.ofSeconds(1)), eq(Duration.ofMinutes(5)));
+        assertThat(meterRegistry.counter("user.events.relay.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relayBatch_sendsNothing_whileAnotherInstanceHoldsTheLock() {
+        when(outboxRepository.tryLockRelay()).thenReturn(false);
+
+        assertThat(relay.relayBatch()).isEqualTo(new UserEventRelay.BatchResult(0, 0));
+        verify(outboxRepository, never()).lockOldest(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void relay_publishesBacklogGauges_evenWhenTheRunFails() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+        when(outboxRepository.backlog())
+                .thenReturn(new Backlog(42, Instant.now().minus(Duration.ofMinutes(3))));
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("user.events.outbox.pending").gauge().value()).isEqualTo(42);
+        assertThat(meterRegistry.get("user.events.outbox.oldest.age").timeGauge().value(TimeUnit.SECONDS))
+                .isBetween(179.0, 190.0);
+    }
+
+    private static CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,225 @@
+package org.arghyam.jalsoochak.user.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.arghyam.jalsoochak.user.enums.OtpType;
+import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
+import org.arghyam.jalsoochak.user.service.OtpStore;
+import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@DisplayName("RedisOtpStore / RedisSlidingWindowLimiter Integration Tests")
+class RedisOtpStoreIntegrationTest {
+
+    private static final OtpStore.Key KEY = new OtpStore.Key(1L, 1, OtpType.LOGIN);
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration NO_COOLDOWN = Duration.ZERO;
+
+    @SuppressWarnings("resource")
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    static LettuceConnectionFactory connectionFactory;
+    static StringRedisTemplate redisTemplate;
+
+    private final PiiEncryptionService pii = new PiiEncryptionService(
+            "dGVzdC1lbmNyeXB0aW9uLWtleS10ZXN0aW5nLTEyMzQ=",
+            "dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+
+    private RedisOtpStore store;
+    private RedisSlidingWindowLimiter limiter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        RedisBackoff backoff = new RedisBackoff(Duration.ofSeconds(30));
+        store = new RedisOtpStore(redisTemplate, pii, backoff, "user-service");
+        limiter = new RedisSlidingWindowLimiter(redisTemplate, backoff, "user-service");
+    }
+
+    @Nested
+    @DisplayName("OTP store")
+    class Store {
+
+        @Test
+        @DisplayName("a matching OTP is consumed once and cannot be replayed")
+        void consumesOnce() {
+            store.issue(KEY, pii.encrypt("123456"), TTL, NO_COOLDOWN);
+
+            OtpStore.Consumed consumed = store.verifyAndConsume(KEY, "123456", 3);
+
+            assertThat(consumed).isNotNull();
+            assertThat(consumed.store()).isSameAs(store);
+            assertThat(store.verifyAndConsume(KEY, "123456", 3)).isNull();
+        }
+
+        @Test
+        @DisplayName("the stored value is encrypted and expires with the OTP")
+        void storesEncryptedWithTtl() {
+            store.issue(KEY, pii.encrypt("123456"), TTL, NO_COOLDOWN);
+
+            String hashKey = "user-service:otp:{1:1:LOGIN}";
+            assertThat((String) redisTemplate.opsForHash().get(hashKey, "otp")).isNotEqualTo("123456");
+            assertThat(redisTemplate.getExpire(hashKey)).isBetween(TTL.toSeconds() - 5, TTL.toSeconds());
+        }
+
+        @Test
+        @DisplayName("an expired OTP is gone")
+        void expires() throws InterruptedException {
+            store.issue(KEY, pii.encrypt("123456"), Duration.ofMillis(200), NO_COOLDOWN);
+
+            Thread.sleep(400);
+
+            assertThat(store.verifyAndConsume(KEY, "123456", 3)).isNull();
+        }
+
+        @Test
+        @DisplayName("issuing within the cooldown is rejected and keeps the active OTP")
+        void enforcesCooldown() {
+            store.issue(KEY, pii.encrypt("123456"), TTL, Duration.ofSeconds(60));
+
+            assertThatThrownBy(() -> store.issue(KEY, pii.encrypt("654321"), TTL, Duration.ofSeconds(60)))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Please wait 60");
+            assertThat(store.verifyAndConsume(KEY, "123456", 3)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("a new OTP replaces the active one")
+        void replaces() {
+            store.issue(KEY, pii.encrypt("123456"), TTL, NO_COOLDOWN);
+            store.issue(KEY, pii.encrypt("654321"), TTL, NO_COOLDOWN);
+
+            assertThatThrownBy(() -> store.verifyAndConsume(KEY, "123456", 3))
+                    .isInstanceOf(BadRequestException.class);
+            assertThat(store.verifyAndConsume(KEY, "654321", 3)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("the OTP is locked after max attempts, even for the right value")
+        void locksAfterMaxAttempts() {
+            store.issue(KEY, pii.encrypt("123456"), TTL, NO_COOLDOWN);
+            for (int i = 0; i < 3; i++) {
+                assertThatThrownBy(() -> store.verifyAndConsume(KEY, "000000", 3))
+                        .hasMessageContaining("Invalid or expired OTP");
+            }
+
+            assertThatThrownBy(() -> store.verifyAndConsume(KEY, "123456", 3))
+                    .hasMessageContaining("Maximum OTP attempts exceeded");
+        }
+
+        @Test
+        @DisplayName("a reverted OTP can be verified again, unless it was replaced")
+        void reverts() {
+            store.issue(KEY, pii.encrypt("123456"), TTL, NO_COOLDOWN);
+            OtpStore.Consumed consumed = store.verifyAndConsume(KEY, "123456", 3);
+
+            assertThat(store.revert(consumed)).isTrue();
+            OtpStore.Consumed again = store.verifyAndConsume(KEY, "123456", 3);
+            assertThat(again).isNotNull();
+
+            store.issue(KEY, pii.encrypt("654321"), TTL, NO_COOLDOWN);
+            assertThat(store.revert(again)).isFalse();
+        }
+
+        @Test
+        @DisplayName("concurrent verifications consume the OTP exactly once")
+        void concurrentVerification() throws Exception {
+            store.issue(KEY, pii.encrypt("123456"), TTL, NO_COOLDOWN);
+            int threads = 16;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<OtpStore.Consumed>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return store.verifyAndConsume(KEY, "123456", threads);
+                    } catch (BadRequestException e) {
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int consumed = 0;
+            for (Future<OtpStore.Consumed> result : results) {
+                if (result.get() != null) {
+                    consumed++;
+                }
+            }
+            executor.shutdown();
+
+            assertThat(consumed).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("sliding-window limiter")
+    class Limiter {
+
+        @Test
+        @DisplayName("rejects once a counter holds its limit, without counting the rejection")
+        void limits() {
+            List<String> counters = List.of("otp-phone:a", "otp-ip:1");
+            Duration window = Duration.ofMinutes(1);
+
+            assertThat(limiter.tryAcquire(counters, List.of(2, 3), window)).isZero();
+            assertThat(limiter.tryAcquire(counters, List.of(2, 3), window)).isZero();
+            assertThat(limiter.tryAcquire(counters, List.of(2, 3), window)).isBetween(1L, window.toMillis());
+
+            // The IP counter holds 2 of 3: the rejected request was not counted
+            assertThat(limiter.tryAcquire(List.of("otp-phone:b", "otp-ip:1"), List.of(2, 3), window)).isZero();
+            assertThat(limiter.tryAcquire(List.of("otp-phone:c", "otp-ip:1"), List.of(2, 3), window)).isPositive();
+        }
+
+        @Test
+        @DisplayName("allows requests again once the window has passed")
+        void slides() throws InterruptedException {
+            Duration window = Duration.ofMillis(300);
+            assertThat(limiter.tryAcquire(List.of("otp-phone:a"), List.of(1), window)).isZero();
+            assertThat(limiter.tryAcquire(List.of("otp-phone:a"), List.of(1), window)).isPositive();
+
+            Thread.sleep(400);
+
+            assertThat(limiter.tryAcquire(List.of("otp-phone:a"), List.of(1), window)).isZero();
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package org.arghyam.jalsoochak.user.repository;
+
+import org.arghyam.jalsoochak.user.dto.response.PumpOperatorReadingComplianceDTO;
+import org.arghyam.jalsoochak.user.dto.response.PumpOperatorReadingComplianceRowDTO;
+import org.arghyam.jalsoochak.user.dto.response.PumpOperatorSchemeComplianceRowDTO;
+import org.arghyam.jalsoochak.user.service.NameBlindIndex;
+import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.arghyam.jalsoochak.user.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the operator activity summary (tenant migration T5): the trigger
+ * that maintains it under inserts, back-dated inserts, updates and deletes, and the
+ * reading-compliance listings built on it.
+ */
+@SpringJUnitConfig(OperatorActivityIntegrationTest.Config.class)
+@Testcontainers
+class OperatorActivityIntegrationTest {
+
+    private static final String SCHEMA = "tenant_mp";
+    private static final int PUMP_OPERATOR = 3;
+    private static final Path MIGRATION = Path.of("../database/tenant/T5__add_operator_activity_summary.sql");
+    private static final String ACTIVITY_SNAPSHOT = """
+            SELECT user_id, last_reading_id, last_reading_at, last_confirmed_reading, first_reading_date,
+                   last_reading_date, submitted_days, current_streak, longest_streak, recent_days
+            FROM tenant_mp.operator_activity_table
+            ORDER BY user_id
+            """;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/test-schema.sql");
+
+    @Configuration
+    @Import({UserNameIndexRepository.class, PublicPumpOperatorRepository.class})
+    static class Config {
+
+        /** One reused connection, so the latency figures do not include connecting. */
+        @Bean
+        DataSource dataSource() {
+            return new SingleConnectionDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), true);
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PiiEncryptionService piiEncryptionService() {
+            return new PiiEncryptionService(
+                    "dGVzdC1lbmNyeXB0aW9uLWtleS10ZXN0aW5nLTEyMzQ=",
+                    "dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+        }
+
+        @Bean
+        NameBlindIndex nameBlindIndex() {
+            return new NameBlindIndex("dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+        }
+    }
+
+    @Autowired
+    private PublicPumpOperatorRepository publicPumpOperatorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(MIGRATION).replace("${schema}", SCHEMA));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+                TRUNCATE tenant_mp.flow_reading_table, tenant_mp.user_scheme_mapping_table,
+                         tenant_mp.user_table, tenant_mp.scheme_master_table
+                RESTART IDENTITY CASCADE
+                """);
+        jdbcTemplate.update("INSERT INTO tenant_mp.scheme_master_table (state_scheme_id, scheme_name) VALUES ('SS-1', 'Scheme 1')");
+    }
+
+    @Test
+    void summary_tracksReadingsStreaksAndWindow() {
+        long op = createOperator(1);
+        LocalDate today = today();
+        insertReading(op, today.minusDays(5), 10);
+        insertReading(op, today.minusDays(4), 11);
+        insertReading(op, today.minusDays(3), 12);
+        insertReading(op, today.minusDays(3), 13);
+        insertReading(op, today.minusDays(1), 14);
+        long latest = insertReading(op, today, 15);
+
+        PumpOperatorReadingComplianceDTO compliance = publicPumpOperatorRepository.getReadingCompliance(SCHEMA, op);
+
+        assertThat(compliance.confirmedReading()).isEqualByComparingTo("15");
+        assertThat(compliance.submittedDays()).isEqualTo(5);
+        assertThat(compliance.submittedDaysInWindow()).isEqualTo(5);
+        assertThat(compliance.currentStreakDays()).isEqualTo(2);
+        assertThat(compliance.longestStreakDays()).isEqualTo(3);
+
+        jdbcTemplate.update("UPDATE tenant_mp.flow_reading_table SET deleted_at = NOW() WHERE id = ?", latest);
+
+        compliance = publicPumpOperatorRepository.getReadingCompliance(SCHEMA, op);
+        assertThat(compliance.confirmedReading()).isEqualByComparingTo("14");
+        assertThat(compliance.submittedDays()).isEqualTo(4);
+        assertThat(compliance.currentStreakDays()).isEqualTo(1);
+
+        // Nothing since the day before yesterday: the streak is broken.
+        jdbcTemplate.update("DELETE FROM tenant_mp.flow_reading_table WHERE reading_date = ?", today.minusDays(1));
+        compliance = publicPumpOperatorRepository.getReadingCompliance(SCHEMA, op);
+        assertThat(compliance.currentStreakDays()).isZero();
+        assertThat(compliance.submittedDaysInWindow()).isEqualTo(3);
+    }
+
+    @Test
+    void trigger_agreesWithRecomputeUnderMixedWrites() {
+        Random random = new Random(42);
+        List<Long> operators = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            operators.add(createOperator(i));
+        }
+        List<Long> readings = new ArrayList<>();
+        LocalDate start = today().minusDays(120);
+        for (int step = 0; step < 1500; step++) {
+            long op = operators.get(random.nextInt(operators.size()));
+            int action = random.nextInt(100);
+            if (action < 70 || readings.isEmpty()) {
+                // Mostly moving forward, sometimes back-dated or far ahead.
+                LocalDate date = start.plusDays(step / 12 + (random.nextInt(10) == 0 ? -random.nextInt(90) : random.nextInt(3)));
+                readings.add(insertReading(op, date, random.nextInt(1000)));
+                continue;
+            }
+            long reading = readings.get(random.nextInt(readings.size()));
+            if (action < 80) {
+                jdbcTemplate.update("UPDATE tenant_mp.flow_reading_table SET deleted_at = NOW() WHERE id = ?", reading);
+            } else if (action < 87) {
+                jdbcTemplate.update("UPDATE tenant_mp.flow_reading_table SET reading_date = reading_date - ? WHERE id = ?",
+                        random.nextInt(5) - 2, reading);
+            } else if (action < 92) {
+                jdbcTemplate.update("UPDATE tenant_mp.flow_reading_table SET created_by = ? WHERE id = ?", op, reading);
+            } else if (action < 96) {
+                jdbcTemplate.update("UPDATE tenant_mp.flow_reading_table SET confirmed_reading = ?, updated_at = NOW() WHERE id = ?",
+                        random.nextInt(1000), reading);
+            } else {
+                jdbcTemplate.update("DELETE FROM tenant_mp.flow_reading_table WHERE id = ?", reading);
+                readings.remove(reading);
+            }
+        }
+
+        List<Map<String, Object>> maintained = jdbcTemplate.queryForList(ACTIVITY_SNAPSHOT);
+        jdbcTemplate.execute("TRUNCATE tenant_mp.operator_activity_table");
+        jdbcTemplate.queryForList("SELECT tenant_mp.recompute_operator_activity(id) FROM tenant_mp.user_table");
+        List<Map<String, Object>> recomputed = jdbcTemplate.queryForList(ACTIVITY_SNAPSHOT);
+
+        assertThat(maintained).isNotEmpty().isEqualTo(recomputed);
+    }
+
+    @Test
+    void listReadingCompliance_cursorPagesMatchOffsetPages() {
+        for (int i = 0; i < 25; i++) {
+            long op = createOperator(i);
+            if (i % 3 != 0) {
+                insertReading(op, today().minusDays(i % 4), i);
+            }
+        }
+
+        List<Long> byOffset = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            publicPumpOperatorRepository.listReadingCompliance(SCHEMA, null, page * 10, 10).content()
+                    .forEach(row -> byOffset.add(row.id()));
+        }
+        List<Long> byCursor = new ArrayList<>();
+        List<PumpOperatorReadingComplianceRowDTO> withoutReadings = new ArrayList<>();
+        KeysetCursor cursor = null;
+        int pages = 0;
+        do {
+            PublicPumpOperatorRepository.PageSlice<PumpOperatorReadingComplianceRowDTO> slice =
+                    publicPumpOperatorRepository.listReadingCompliance(SCHEMA, cursor, 0, 10);
+            slice.content().forEach(row -> {
+                byCursor.add(row.id());
+                if (row.lastSubmissionAt() == null) {
+                    withoutReadings.add(row);
+                }
+            });
+            cursor = slice.next() == null ? null : KeysetCursor.decode(slice.next().encode());
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(byCursor).hasSize(25).isEqualTo(byOffset).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(withoutReadings).hasSize(9).allSatisfy(row -> {
+            assertThat(row.submittedDays()).isZero();
+            assertThat(row.currentStreakDays()).isZero();
+        });
+    }
+
+    @Test
+    void listPumpOperatorsBySchemeWithCompliance_cursorWalksReadingsNewestFirst() {
+        long op1 = createOperator(1);
+        long op2 = createOperator(2);
+        for (long op : List.of(op1, op2)) {
+            // Readings before onboarding are not listed.
+            jdbcTemplate.update("UPDATE tenant_mp.user_table SET created_at = CURRENT_DATE - 10 WHERE id = ?", op);
+            jdbcTemplate.update("INSERT INTO tenant_mp.user_scheme_mapping_table (user_id, scheme_id, status) VALUES (?, 1, 1)", op);
+        }
+        for (int day = 0; day < 7; day++) {
+            insertReading(op1, today().minusDays(day), day);
+            insertReading(op2, today().minusDays(day), day);
+        }
+
+        List<PumpOperatorSchemeComplianceRowDTO> rows = new ArrayList<>();
+        KeysetCursor cursor = null;
+        do {
+            PublicPumpOperatorRepository.PageSlice<PumpOperatorSchemeComplianceRowDTO> slice =
+                    publicPumpOperatorRepository.listPumpOperatorsBySchemeWithCompliance(SCHEMA, 1, cursor, 0, 5);
+            rows.addAll(slice.content());
+            cursor = slice.next();
+        } while (cursor != null);
+
+        assertThat(rows).hasSize(14);
+        assertThat(rows).extracting(PumpOperatorSchemeComplianceRowDTO::readingDate)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(rows).allSatisfy(row -> assertThat(row.submittedDays()).isEqualTo(7));
+    }
+
+    /**
+     * Compares a reading-compliance page built from the summary with the per-operator
+     * aggregation it replaced, on 3,000 operators with 40 readings each.
+     */
+    @Test
+    void benchmark_summaryVersusPerOperatorAggregation() {
+        int operators = 3_000;
+        jdbcTemplate.update("""
+                INSERT INTO tenant_mp.user_table (tenant_id, user_type, title, phone_number, status)
+                SELECT 1, ?, 'Operator ' || g, '9' || lpad(g::text, 9, '0'), 1
+                FROM generate_series(1, ?) g
+                """, PUMP_OPERATOR, operators);
+        jdbcTemplate.update("""
+                INSERT INTO tenant_mp.flow_reading_table (scheme_id, reading_at, reading_date, confirmed_reading, created_by)
+                SELECT 1, (CURRENT_DATE - d) + time '08:00' + (u || ' seconds')::interval, CURRENT_DATE - d, d, u
+                FROM generate_series(1, ?) u, generate_series(0, 39) d
+                """, operators);
+        jdbcTemplate.execute("VACUUM ANALYZE tenant_mp.flow_reading_table");
+        jdbcTemplate.execute("VACUUM ANALYZE tenant_mp.operator_activity_table");
+        jdbcTemplate.execute("VACUUM ANALYZE tenant_mp.user_table");
+
+        String aggregation = """
+                SELECT u.id, u.title AS name, fr.last_submission_at, fr.confirmed_reading, st.submitted_days
+                FROM tenant_mp.user_table u
+                LEFT JOIN common_schema.user_type_master_table ut ON ut.id = u.user_type
+                LEFT JOIN LATERAL (
+                    SELECT reading_at AS last_submission_at, confirmed_reading
+                    FROM tenant_mp.flow_reading_table
+                    WHERE deleted_at IS NULL AND created_by = u.id
+                    ORDER BY reading_at DESC, id DESC
+                    LIMIT 1
+                ) fr ON true
+                LEFT JOIN LATERAL (
+                    SELECT COUNT(DISTINCT reading_date) AS submitted_days
+                    FROM tenant_mp.flow_reading_table
+                    WHERE deleted_at IS NULL AND created_by = u.id
+                ) st ON true
+                WHERE u.deleted_at IS NULL AND upper(COALESCE(ut.c_name, '')) = 'PUMP_OPERATOR'
+                ORDER BY u.id DESC
+                LIMIT 100 OFFSET ?
+                """;
+        int deepOffset = operators - 100;
+
+        List<PumpOperatorReadingComplianceRowDTO> page =
+                publicPumpOperatorRepository.listReadingCompliance(SCHEMA, null, deepOffset, 100).content();
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(aggregation, deepOffset);
+        assertThat(page).hasSize(100);
+        for (int i = 0; i < page.size(); i++) {
+            PumpOperatorReadingComplianceRowDTO row = page.get(i);
+            Map<String, Object> old = expected.get(i);
+            assertThat(row.id()).isEqualTo(((Number) old.get("id")).longValue());
+            assertThat(row.lastSubmissionAt()).isEqualTo(((java.sql.Timestamp) old.get("last_submission_at")).toLocalDateTime());
+            assertThat(row.confirmedReading()).isEqualByComparingTo((BigDecimal) old.get("confirmed_reading"));
+            assertThat(row.submittedDays()).isEqualTo(((Number) old.get("submitted_days")).intValue());
+            assertThat(row.submittedDaysInWindow()).isEqualTo(30);
+            assertThat(row.currentStreakDays()).isEqualTo(40);
+        }
+
+        long summaryNanos = median(() -> publicPumpOperatorRepository.listReadingCompliance(SCHEMA, null, 0, 100));
+        long aggregationNanos = median(() -> jdbcTemplate.queryForList(aggregation, 0));
+        KeysetCursor deepCursor = new KeysetCursor("id", false, "", 101, 0);
+        long cursorNanos = median(() -> publicPumpOperatorRepository.listReadingCompliance(SCHEMA, deepCursor, 0, 100));
+        long offsetNanos = median(() -> publicPumpOperatorRepository.listReadingCompliance(SCHEMA, null, deepOffset, 100));
+
+        System.out.printf("reading-compliance page of 100: summary %.1f ms, per-operator aggregation %.1f ms%n",
+                summaryNanos / 1e6, aggregationNanos / 1e6);
+        System.out.printf("last page of %d operators: cursor %.1f ms, offset %.1f ms%n",
+                operators, cursorNanos / 1e6, offsetNanos / 1e6);
+    }
+
+    private static long median(Runnable query) {
+        for (int i = 0; i < 3; i++) {
+            query.run();
+        }
+        long[] samples = new long[9];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        java.util.Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private LocalDate today() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_DATE", LocalDate.class);
+    }
+
+    private long createOperator(int n) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO tenant_mp.user_table (tenant_id, user_type, title, phone_number, status)
+                VALUES (1, ?, ?, ?, 1)
+                RETURNING id
+                """, Long.class, PUMP_OPERATOR, "Operator " + n, "90000" + n);
+    }
+
+    private long insertReading(long operatorId, LocalDate date, int value) {
+        LocalDateTime at = date.atTime(8, 0).plusSeconds(value);
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO tenant_mp.flow_reading_table (scheme_id, reading_at, reading_date, confirmed_reading, created_by)
+                VALUES (1, ?, ?, ?, ?)
+                RETURNING id
+                """, Long.class, at, date, value, operatorId);
+    }
+}
@@ -0,0 +1,282 @@
+package org.arghyam.jalsoochak.user.repository;
+
+import org.arghyam.jalsoochak.user.dto.response.SchemePumpOperatorsDTO;
+import org.arghyam.jalsoochak.user.dto.response.TenantStaffResponseDTO;
+import org.arghyam.jalsoochak.user.service.NameBlindIndex;
+import org.arghyam.jalsoochak.user.service.PiiEncryptionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for name search through the blind index (tenant migration T4):
+ * index maintenance on create, bulk create and rename, the backfill of unindexed users,
+ * and the name filters of the staff and pump operator listings.
+ */
+@SpringJUnitConfig(UserNameSearchIntegrationTest.Config.class)
+@Testcontainers
+class UserNameSearchIntegrationTest {
+
+    private static final String SCHEMA = "tenant_mp";
+    private static final int PUMP_OPERATOR = 3;
+    private static final int SECTION_OFFICER = 4;
+    private static final Path MIGRATION = Path.of("../database/tenant/T4__add_user_name_blind_index.sql");
+    private static final String[] FIRST_NAMES = {
+            "Ravi", "Meena", "Suresh", "Anita", "Rajesh", "Sunita", "Amit", "Pooja", "Vijay", "Kavita",
+            "Sanjay", "Rekha", "Manoj", "Geeta", "Ramesh", "Lakshmi", "Arun", "Priya", "Deepak", "Asha"};
+    private static final String[] LAST_NAMES = {
+            "Kumar", "Devi", "Sharma", "Singh", "Patel", "Yadav", "Verma", "Gupta", "Reddy", "Nair"};
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/test-schema.sql");
+
+    @Configuration
+    @Import({UserTenantRepository.class, UserNameIndexRepository.class, TenantStaffRepository.class,
+            PublicPumpOperatorRepository.class})
+    static class Config {
+
+        /** One reused connection, so the latency figures do not include connecting. */
+        @Bean
+        DataSource dataSource() {
+            return new SingleConnectionDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), true);
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PiiEncryptionService piiEncryptionService() {
+            return new PiiEncryptionService(
+                    "dGVzdC1lbmNyeXB0aW9uLWtleS10ZXN0aW5nLTEyMzQ=",
+                    "dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+        }
+
+        @Bean
+        NameBlindIndex nameBlindIndex() {
+            return new NameBlindIndex("dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+        }
+    }
+
+    @Autowired
+    private UserTenantRepository userTenantRepository;
+
+    @Autowired
+    private UserNameIndexRepository userNameIndexRepository;
+
+    @Autowired
+    private TenantStaffRepository tenantStaffRepository;
+
+    @Autowired
+    private PublicPumpOperatorRepository publicPumpOperatorRepository;
+
+    @Autowired
+    private PiiEncryptionService pii;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(MIGRATION).replace("${schema}", SCHEMA));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+                TRUNCATE tenant_mp.user_scheme_mapping_table, tenant_mp.user_table, tenant_mp.scheme_master_table
+                RESTART IDENTITY CASCADE
+                """);
+    }
+
+    @Test
+    void createAndRename_keepTheIndexCurrent() {
+        Long ravi = createUser("Ravi Kumar", SECTION_OFFICER, "9000000001");
+        createUser("Meena Devi", SECTION_OFFICER, "9000000002");
+        userTenantRepository.createUsers(SCHEMA, 1, List.of(
+                new UserCreateRow(UUID.randomUUID().toString(), "Ravindra Sharma", "rs@example.org",
+                        PUMP_OPERATOR, "9000000003")), null, null, 1L);
+
+        assertThat(staffNames("ravi")).containsExactly("Ravindra Sharma", "Ravi Kumar");
+        assertThat(staffNames("RA")).containsExactly("Ravindra Sharma", "Ravi Kumar");
+        assertThat(staffNames("avi ku")).containsExactly("Ravi Kumar");
+        assertThat(staffNames("dev")).containsExactly("Meena Devi");
+        assertThat(staffNames("kumari")).isEmpty();
+
+        userTenantRepository.updateUserProfile(SCHEMA, ravi, "Ravi Shankar", "9000000001");
+
+        assertThat(staffNames("kumar")).isEmpty();
+        assertThat(staffNames("shan")).containsExactly("Ravi Shankar");
+        assertThat(tenantStaffRepository.countStaff(SCHEMA, List.of("section_officer"), null, "ravi"))
+                .isEqualTo(1);
+        assertThat(tenantStaffRepository.countByRole(SCHEMA, null, "sharma"))
+                .singleElement()
+                .satisfies(count -> assertThat(count.role()).isEqualTo("PUMP_OPERATOR"));
+    }
+
+    @Test
+    void indexMissing_indexesUsersWrittenWithoutTokens() {
+        for (int i = 1; i <= 5; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO tenant_mp.user_table (tenant_id, user_type, title, phone_number, status)
+                    VALUES (1, ?, ?, ?, 1)
+                    """, SECTION_OFFICER, pii.encrypt("Legacy User " + i), pii.encrypt("90000000" + i));
+        }
+        jdbcTemplate.update("""
+                INSERT INTO tenant_mp.user_table (tenant_id, user_type, title, phone_number, status)
+                VALUES (1, ?, 'Plain Title', '9000000009', 1)
+                """, SECTION_OFFICER);
+        assertThat(staffNames("legacy")).isEmpty();
+
+        long lastId = 0;
+        int batches = 0;
+        while ((lastId = userNameIndexRepository.indexMissing(SCHEMA, lastId, 2)) >= 0) {
+            batches++;
+        }
+
+        assertThat(batches).isEqualTo(3);
+        assertThat(staffNames("legacy")).hasSize(5);
+        assertThat(staffNames("user 7")).isEmpty();
+        assertThat(staffNames("plain")).containsExactly("Plain Title");
+    }
+
+    @Test
+    void listPumpOperatorsByScheme_filtersByName() {
+        jdbcTemplate.update("INSERT INTO tenant_mp.scheme_master_table (state_scheme_id, scheme_name) VALUES ('SS-1', 'Scheme 1')");
+        Long asha = createUser("Asha Rani", PUMP_OPERATOR, "9000000001");
+        Long ravi = createUser("Ravi Kumar", PUMP_OPERATOR, "9000000002");
+        for (Long userId : List.of(asha, ravi)) {
+            jdbcTemplate.update("""
+                    INSERT INTO tenant_mp.user_scheme_mapping_table (user_id, scheme_id, status) VALUES (?, 1, 1)
+                    """, userId);
+        }
+
+        List<SchemePumpOperatorsDTO> all = publicPumpOperatorRepository.listPumpOperatorsByScheme(
+                SCHEMA, null, null, null, null, null);
+        List<SchemePumpOperatorsDTO> filtered = publicPumpOperatorRepository.listPumpOperatorsByScheme(
+                SCHEMA, null, null, "ran", 0, 10);
+
+        assertThat(all.get(0).pumpOperators()).hasSize(2);
+        assertThat(filtered).singleElement().satisfies(scheme -> {
+            assertThat(scheme.totalPumpOperators()).isEqualTo(1);
+            assertThat(scheme.pumpOperators()).singleElement()
+                    .satisfies(op -> assertThat(op.name()).isEqualTo("Asha Rani"));
+        });
+    }
+
+    @Test
+    void match_rejectsTermsWithoutLettersOrDigits() {
+        assertThatThrownBy(() -> staffNames("--"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("letter or digit");
+    }
+
+    /**
+     * Search latency over {@code users} names, against the decrypt-and-filter scan that
+     * admins had to fall back on before.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {100_000})
+    void searchLatency(int users) {
+        long loadStart = System.nanoTime();
+        for (int from = 0; from < users; from += 1000) {
+            List<UserCreateRow> chunk = new ArrayList<>(1000);
+            for (int i = from; i < Math.min(users, from + 1000); i++) {
+                String name = FIRST_NAMES[i % FIRST_NAMES.length] + " "
+                        + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + Integer.toString(i, 36);
+                chunk.add(new UserCreateRow(UUID.randomUUID().toString(), name, null,
+                        i % 2 == 0 ? PUMP_OPERATOR : SECTION_OFFICER, String.valueOf(9_000_000_000L + i)));
+            }
+            userTenantRepository.createUsers(SCHEMA, 1, chunk, null, null, 1L);
+        }
+        // Steady state: autovacuum has set the visibility map, so the token index is read index-only.
+        jdbcTemplate.execute("VACUUM ANALYZE tenant_mp.user_table");
+        jdbcTemplate.execute("VACUUM ANALYZE tenant_mp.user_name_index_table");
+        System.out.printf("[NameSearch] %d users indexed in %d ms, %d index rows%n", users,
+                (System.nanoTime() - loadStart) / 1_000_000,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tenant_mp.user_name_index_table", Long.class));
+
+        for (String term : List.of("ra", "kumar", "sures", "meena sharma", "zz9")) {
+            long expected = scan(term).size();
+            long start = System.nanoTime();
+            int runs = 20;
+            TenantStaffRepository.StaffPage page = null;
+            for (int run = 0; run < runs; run++) {
+                page = tenantStaffRepository.listStaffPage(SCHEMA, List.of(), null, term, "id", "desc", 0, 20);
+            }
+            long indexed = (System.nanoTime() - start) / runs;
+
+            start = System.nanoTime();
+            scan(term);
+            long scanned = System.nanoTime() - start;
+
+            System.out.printf("[NameSearch] '%s': %d matches, index %.1f ms/page, decrypt-and-scan %.1f ms%n",
+                    term, page.total(), indexed / 1e6, scanned / 1e6);
+            assertThat(page.total()).isGreaterThanOrEqualTo(expected);
+        }
+    }
+
+    private Long createUser(String title, int userType, String phone) {
+        return userTenantRepository.createUser(SCHEMA, UUID.randomUUID().toString(), 1, title, null, userType,
+                phone, null, 1L);
+    }
+
+    private List<String> staffNames(String name) {
+        return tenantStaffRepository.listStaffPage(SCHEMA, List.of(), null, name, "id", "desc", 0, 50)
+                .items().stream().map(TenantStaffResponseDTO::title).toList();
+    }
+
+    /** The index's match rule (prefix for short words, substring otherwise) over all decrypted names. */
+    private List<String> scan(String term) {
+        List<String> titles = jdbcTemplate.queryForList(
+                "SELECT title FROM tenant_mp.user_table WHERE deleted_at IS NULL", String.class);
+        String[] words = term.toLowerCase(Locale.ROOT).split(" ");
+        return pii.safeDecryptAll(titles).stream()
+                .filter(title -> {
+                    String lower = title.toLowerCase(Locale.ROOT);
+                    for (String word : words) {
+                        boolean found = word.length() < 3
+                                ? lower.startsWith(word) || lower.contains(" " + word)
+                                : lower.contains(word);
+                        if (!found) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,180 @@
+package org.arghyam.jalsoochak.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import org.arghyam.jalsoochak.user.enums.OtpType;
+import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
+import org.arghyam.jalsoochak.user.repository.OtpRepository;
+import org.arghyam.jalsoochak.user.repository.records.OtpRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DatabaseOtpStore")
+class DatabaseOtpStoreTest {
+
+    private static final OtpStore.Key KEY = new OtpStore.Key(1L, 1, OtpType.LOGIN);
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration COOLDOWN = Duration.ofSeconds(60);
+
+    @Mock OtpRepository otpRepository;
+    @Mock PiiEncryptionService piiEncryptionService;
+
+    DatabaseOtpStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new DatabaseOtpStore(otpRepository, piiEncryptionService);
+    }
+
+    @Nested
+    @DisplayName("issue")
+    class Issue {
+
+        @Test
+        @DisplayName("inserts OTP when no active OTP exists")
+        void insertsWhenNoActiveOtp() {
+            when(otpRepository.findActiveOtp(1L, 1, OtpType.LOGIN)).thenReturn(Optional.empty());
+
+            store.issue(KEY, "encrypted", TTL, COOLDOWN);
+
+            verify(otpRepository).revokeActiveOtp(1L, 1, OtpType.LOGIN);
+            verify(otpRepository).insertOtp(eq(1L), eq(1), eq(OtpType.LOGIN), eq("encrypted"), any(Instant.class));
+        }
+
+        @Test
+        @DisplayName("replaces an existing OTP that is past cooldown")
+        void replacesAfterCooldown() {
+            Instant createdAtOld = Instant.now().minus(90, ChronoUnit.SECONDS);
+            OtpRow existing = new OtpRow(1L, "enc", 1, 1L, OtpType.LOGIN, 0, createdAtOld,
+                    Instant.now().plus(8, ChronoUnit.MINUTES), null);
+            when(otpRepository.findActiveOtp(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(existing));
+
+            store.issue(KEY, "encrypted", TTL, COOLDOWN);
+
+            verify(otpRepository).revokeActiveOtp(1L, 1, OtpType.LOGIN);
+            verify(otpRepository).insertOtp(eq(1L), eq(1), eq(OtpType.LOGIN), eq("encrypted"), any(Instant.class));
+        }
+
+        @Test
+        @DisplayName("throws BadRequestException during cooldown period")
+        void throwsDuringCooldown() {
+            Instant recentCreatedAt = Instant.now().minus(10, ChronoUnit.SECONDS);
+            OtpRow recent = new OtpRow(1L, "enc", 1, 1L, OtpType.LOGIN, 0, recentCreatedAt,
+                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
+            when(otpRepository.findActiveOtp(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(recent));
+
+            assertThatThrownBy(() -> store.issue(KEY, "encrypted", TTL, COOLDOWN))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Please wait");
+
+            verify(otpRepository, never()).insertOtp(any(), any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("verifyAndConsume")
+    class VerifyAndConsume {
+
+        @Test
+        @DisplayName("marks OTP used on correct input and returns it")
+        void marksUsedOnCorrectOtp() {
+            OtpRow row = new OtpRow(10L, "encrypted-123456", 1, 1L, OtpType.LOGIN, 0,
+                    Instant.now().minus(1, ChronoUnit.MINUTES),
+                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
+            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
+            when(piiEncryptionService.decrypt("encrypted-123456")).thenReturn("123456");
+            when(otpRepository.markUsed(10L)).thenReturn(true);
+
+            OtpStore.Consumed consumed = store.verifyAndConsume(KEY, "123456", 5);
+
+            assertThat(consumed.ref()).isEqualTo("10");
+            assertThat(consumed.store()).isSameAs(store);
+            verify(otpRepository).markUsed(10L);
+            verify(otpRepository, never()).incrementAttemptCount(any());
+        }
+
+        @Test
+        @DisplayName("throws and increments attempt count on mismatch")
+        void incrementsAttemptOnMismatch() {
+            OtpRow row = new OtpRow(10L, "encrypted-123456", 1, 1L, OtpType.LOGIN, 0,
+                    Instant.now().minus(1, ChronoUnit.MINUTES),
+                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
+            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
+            when(piiEncryptionService.decrypt("encrypted-123456")).thenReturn("123456");
+
+            assertThatThrownBy(() -> store.verifyAndConsume(KEY, "999999", 5))
+                    .isInstanceOf(BadRequestException.class);
+
+            verify(otpRepository).incrementAttemptCount(10L);
+            verify(otpRepository, never()).markUsed(any());
+        }
+
+        @Test
+        @DisplayName("returns null when no active OTP exists")
+        void returnsNullWhenNoActiveOtp() {
+            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.empty());
+
+            assertThat(store.verifyAndConsume(KEY, "123456", 5)).isNull();
+        }
+
+        @Test
+        @DisplayName("throws when markUsed returns false (concurrent consumption race)")
+        void throwsWhenMarkUsedReturnsFalse() {
+            OtpRow row = new OtpRow(10L, "encrypted-123456", 1, 1L, OtpType.LOGIN, 0,
+                    Instant.now().minus(1, ChronoUnit.MINUTES),
+                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
+            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
+            when(piiEncryptionService.decrypt("encrypted-123456")).thenReturn("123456");
+            when(otpRepository.markUsed(10L)).thenReturn(false);
+
+            assertThatThrownBy(() -> store.verifyAndConsume(KEY, "123456", 5))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Invalid or expired OTP");
+
+            verify(otpRepository).markUsed(10L);
+            verify(otpRepository, never()).incrementAttemptCount(any());
+        }
+
+        @Test
+        @DisplayName("throws when max attempts exceeded")
+        void throwsWhenMaxAttemptsExceeded() {
+            OtpRow row = new OtpRow(10L, "enc", 1, 1L, OtpType.LOGIN, 5,
+                    Instant.now().minus(1, ChronoUnit.MINUTES),
+                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
+            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
+
+            assertThatThrownBy(() -> store.verifyAndConsume(KEY, "123456", 5))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Maximum OTP attempts exceeded");
+
+            verify(otpRepository, never()).incrementAttemptCount(any());
+        }
+    }
+
+    @Test
+    @DisplayName("revert clears used_at of the consumed row")
+    void revertsConsumption() {
+        when(otpRepository.revertConsumption(10L)).thenReturn(true);
+
+        assertThat(store.revert(new OtpStore.Consumed(store, KEY, "10"))).isTrue();
+
+        verify(otpRepository).revertConsumption(10L);
+    }
+}
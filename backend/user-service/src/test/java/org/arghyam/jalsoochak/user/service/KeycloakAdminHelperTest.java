@@ -8,6 +8,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 
@@ -50,7 +51,8 @@ class KeycloakAdminHelperTest {
         // Lenient because not all tests exercise the decrypt path.
         lenient().when(pii.safeDecrypt(anyString())).thenAnswer(inv -> inv.getArgument(0));
         MetadataDecryptionHelper metadataDecryptionHelper = new MetadataDecryptionHelper(new ObjectMapper(), pii);
-        helper = new KeycloakAdminHelper(keycloakProvider, userCommonRepository, metadataDecryptionHelper);
+        KeycloakIdentityCache identityCache = new KeycloakIdentityCache(keycloakProvider, Duration.ofMinutes(5), 100, 100);
+        helper = new KeycloakAdminHelper(keycloakProvider, userCommonRepository, metadataDecryptionHelper, identityCache);
     }
 
     private AdminUserRow row(Long id, String uuid, String email, AdminUserStatus status) {
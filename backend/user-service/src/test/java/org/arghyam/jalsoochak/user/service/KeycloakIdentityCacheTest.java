@@ -0,0 +1,198 @@
+package org.arghyam.jalsoochak.user.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.arghyam.jalsoochak.user.config.KeycloakProvider;
+import org.arghyam.jalsoochak.user.dto.response.AdminUserResponseDTO;
+import org.arghyam.jalsoochak.user.enums.AdminUserStatus;
+import org.arghyam.jalsoochak.user.repository.UserCommonRepository;
+import org.arghyam.jalsoochak.user.repository.records.AdminUserRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+/**
+ * Runs {@link KeycloakAdminHelper} and {@link KeycloakIdentityCache} against a WireMock stub
+ * of the Keycloak admin API and counts the requests each listing makes.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeycloakIdentityCache - stub Keycloak admin API")
+class KeycloakIdentityCacheTest {
+
+    private static final String REALM = "jalsoochak-realm";
+    private static final String ADMIN = "/admin/realms/" + REALM;
+    private static final int STATE_ADMIN_LEVEL = 2;
+
+    @Mock
+    private UserCommonRepository userCommonRepository;
+
+    @Mock
+    private PiiEncryptionService pii;
+
+    private WireMockServer keycloak;
+    private KeycloakIdentityCache cache;
+    private KeycloakAdminHelper helper;
+
+    @BeforeEach
+    void setUp() {
+        keycloak = new WireMockServer(wireMockConfig().dynamicPort());
+        keycloak.start();
+        keycloak.stubFor(post(urlEqualTo("/realms/" + REALM + "/protocol/openid-connect/token"))
+                .willReturn(okJson("""
+                        {"access_token":"admin-token","expires_in":300,"token_type":"Bearer"}
+                        """)));
+
+        KeycloakProvider keycloakProvider = new KeycloakProvider(
+                keycloak.baseUrl(), REALM, "login-client", "login-secret", "admin-client", "admin-secret");
+        cache = new KeycloakIdentityCache(keycloakProvider, Duration.ofMinutes(5), 1000, 1000);
+        helper = new KeycloakAdminHelper(keycloakProvider, userCommonRepository,
+                new MetadataDecryptionHelper(new ObjectMapper(), pii), cache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keycloak.stop();
+    }
+
+    @Test
+    @DisplayName("a 50-row page costs one role-member request, and a repeat costs none")
+    void listing_usesOneRequestPerPage() {
+        List<AdminUserRow> page = stateAdmins(50);
+        stubRoleMembers("STATE_ADMIN", 60);
+        when(userCommonRepository.findUserTypeNameById(STATE_ADMIN_LEVEL)).thenReturn(Optional.of("STATE_ADMIN"));
+        when(userCommonRepository.findTenantStateCodeById(1)).thenReturn(Optional.of("MP"));
+
+        List<AdminUserResponseDTO> first = helper.buildAdminUserResponses(page);
+
+        assertThat(first).hasSize(50);
+        assertThat(first.get(7).getFirstName()).isEqualTo("First7");
+        assertThat(first.get(7).getLastName()).isEqualTo("Last7");
+        assertThat(first).allMatch(dto -> "STATE_ADMIN".equals(dto.getRole()) && "MP".equals(dto.getTenantCode()));
+        assertThat(adminRequests()).isEqualTo(1);
+        keycloak.verify(0, getRequestedFor(urlPathMatching(ADMIN + "/users/.*")));
+        verify(userCommonRepository, times(1)).findUserTypeNameById(STATE_ADMIN_LEVEL);
+        verify(userCommonRepository, times(1)).findTenantStateCodeById(1);
+
+        helper.buildAdminUserResponses(page);
+
+        assertThat(adminRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("users missing from the role listing are fetched individually")
+    void listing_fallsBackToSingleLookups() {
+        List<AdminUserRow> page = stateAdmins(3);
+        stubRoleMembers("STATE_ADMIN", 2);
+        stubUser("kc-2", "Late", "Joiner");
+        when(userCommonRepository.findUserTypeNameById(STATE_ADMIN_LEVEL)).thenReturn(Optional.of("STATE_ADMIN"));
+        when(userCommonRepository.findTenantStateCodeById(1)).thenReturn(Optional.of("MP"));
+
+        List<AdminUserResponseDTO> result = helper.buildAdminUserResponses(page);
+
+        assertThat(result).extracting(AdminUserResponseDTO::getFirstName)
+                .containsExactly("First0", "First1", "Late");
+        keycloak.verify(1, getRequestedFor(urlPathEqualTo(ADMIN + "/roles/STATE_ADMIN/users")));
+        keycloak.verify(1, getRequestedFor(urlPathEqualTo(ADMIN + "/users/kc-2")));
+    }
+
+    @Test
+    @DisplayName("a failed role listing degrades to single lookups")
+    void listing_survivesRoleListingFailure() {
+        keycloak.stubFor(get(urlPathEqualTo(ADMIN + "/roles/STATE_ADMIN/users"))
+                .willReturn(aResponse().withStatus(500)));
+        stubUser("kc-0", "Solo", "User");
+
+        var identities = cache.getAll(Map.of("kc-0", "STATE_ADMIN"));
+
+        assertThat(identities.get("kc-0").firstName()).isEqualTo("Solo");
+        keycloak.verify(1, getRequestedFor(urlPathEqualTo(ADMIN + "/users/kc-0")));
+    }
+
+    @Test
+    @DisplayName("the role listing fills enabled, email-verified and roles")
+    void roleListing_fillsIdentity() {
+        stubRoleMembers("STATE_ADMIN", 1);
+
+        var identity = cache.getAll(Map.of("kc-0", "STATE_ADMIN")).get("kc-0");
+
+        assertThat(identity.enabled()).isTrue();
+        assertThat(identity.emailVerified()).isTrue();
+        assertThat(identity.realmRoles()).containsExactly("STATE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("an invalidated user is fetched again")
+    void invalidate_forcesRefetch() {
+        stubUser("kc-9", "Old", "Name");
+        assertThat(cache.get("kc-9")).map(KeycloakIdentityCache.KeycloakIdentity::firstName).contains("Old");
+        assertThat(cache.get("kc-9")).isPresent();
+        keycloak.verify(1, getRequestedFor(urlPathEqualTo(ADMIN + "/users/kc-9")));
+
+        stubUser("kc-9", "New", "Name");
+        helper.evictIdentity("kc-9");
+
+        assertThat(cache.get("kc-9")).map(KeycloakIdentityCache.KeycloakIdentity::firstName).contains("New");
+        keycloak.verify(2, getRequestedFor(urlPathEqualTo(ADMIN + "/users/kc-9")));
+    }
+
+    private List<AdminUserRow> stateAdmins(int count) {
+        List<AdminUserRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new AdminUserRow((long) i, "kc-" + i, "admin" + i + "@example.com", "91XXXXXXXXXX",
+                    1, STATE_ADMIN_LEVEL, AdminUserStatus.ACTIVE, 0, null));
+        }
+        return rows;
+    }
+
+    private void stubRoleMembers(String role, int count) {
+        String members = IntStream.range(0, count)
+                .mapToObj(KeycloakIdentityCacheTest::userJson)
+                .collect(Collectors.joining(",", "[", "]"));
+        keycloak.stubFor(get(urlPathEqualTo(ADMIN + "/roles/" + role + "/users")).willReturn(okJson(members)));
+    }
+
+    private void stubUser(String id, String firstName, String lastName) {
+        keycloak.stubFor(get(urlPathEqualTo(ADMIN + "/users/" + id)).willReturn(okJson("""
+                {"id":"%s","firstName":"%s","lastName":"%s","enabled":true,"emailVerified":false}
+                """.formatted(id, firstName, lastName))));
+    }
+
+    private static String userJson(int i) {
+        return """
+                {"id":"kc-%d","username":"admin%d","firstName":"First%d","lastName":"Last%d","enabled":true,"emailVerified":true}
+                """.formatted(i, i, i, i);
+    }
+
+    private int adminRequests() {
+        return keycloak.findAll(anyRequestedFor(urlMatching("/admin/.*"))).size();
+    }
+}
@@ -0,0 +1,73 @@
+package org.arghyam.jalsoochak.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("NameBlindIndex - Unit Tests")
+class NameBlindIndexTest {
+
+    private static final String TEST_HMAC_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    private static final String OTHER_HMAC_KEY = "dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=";
+
+    private final NameBlindIndex index = new NameBlindIndex(TEST_HMAC_KEY);
+
+    @Test
+    @DisplayName("tokens ignore case, character width and punctuation")
+    void tokens_areNormalised() {
+        assertThat(index.tokens("  RAVI   Kumar ")).containsExactly(index.tokens("ravi-kumar"));
+        assertThat(index.tokens("Ａｓｈａ")).containsExactly(index.tokens("asha"));
+        assertThat(index.tokens(null)).isEmpty();
+        assertThat(index.tokens(" - ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("tokens are two prefixes and the trigrams of every word")
+    void tokens_countPerWord() {
+        // "ravi": r, ra, rav, avi; "om": o, om
+        assertThat(index.tokens("Ravi Om")).hasSize(6);
+    }
+
+    @Test
+    @DisplayName("prefix and substring terms match, other terms do not")
+    void queryTokens_matchPrefixesAndSubstrings() {
+        String name = "Meena Devi Sharma";
+
+        assertThat(matches(name, "me")).isTrue();
+        assertThat(matches(name, "d")).isTrue();
+        assertThat(matches(name, "arm")).isTrue();
+        assertThat(matches(name, "SHARMA meena")).isTrue();
+        assertThat(matches(name, "evi sha")).isTrue();
+
+        assertThat(matches(name, "ee")).isFalse();
+        assertThat(matches(name, "kumar")).isFalse();
+        assertThat(matches(name, "meena kumari")).isFalse();
+    }
+
+    @Test
+    @DisplayName("tokens depend on the key")
+    void tokens_dependOnKey() {
+        NameBlindIndex other = new NameBlindIndex(OTHER_HMAC_KEY);
+        assertThat(other.tokens("Ravi")).doesNotContain(index.tokens("Ravi"));
+    }
+
+    @Test
+    @DisplayName("blank terms produce no tokens and long terms are rejected")
+    void queryTokens_blankAndLongTerms() {
+        assertThat(index.queryTokens(null)).isEmpty();
+        assertThat(index.queryTokens("  ")).isEmpty();
+        assertThatThrownBy(() -> index.queryTokens("a".repeat(NameBlindIndex.MAX_TERM_LENGTH + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private boolean matches(String name, String term) {
+        long[] tokens = index.tokens(name);
+        long[] query = index.queryTokens(term);
+        return query.length > 0 && Arrays.stream(query)
+                .allMatch(token -> Arrays.stream(tokens).anyMatch(t -> t == token));
+    }
+}
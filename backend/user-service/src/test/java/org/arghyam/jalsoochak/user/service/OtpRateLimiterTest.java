@@ -0,0 +1,163 @@
+package org.arghyam.jalsoochak.user.service;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.arghyam.jalsoochak.user.config.properties.OtpProperties;
+import org.arghyam.jalsoochak.user.exceptions.TooManyRequestsException;
+import org.arghyam.jalsoochak.user.redis.RedisSlidingWindowLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OtpRateLimiter")
+class OtpRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+
+    @Mock PiiEncryptionService piiEncryptionService;
+    @Mock RedisSlidingWindowLimiter redisLimiter;
+
+    private final MutableClock clock = new MutableClock();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(piiEncryptionService.hmac(anyString())).thenAnswer(inv -> "hmac-" + inv.getArgument(0));
+    }
+
+    private OtpRateLimiter limiter(int perPhone, int perIp, RedisSlidingWindowLimiter redis) {
+        OtpProperties properties = new OtpProperties(10, 3, 60, 6, "WHATSAPP", OtpProperties.Store.DATABASE,
+                new OtpProperties.RateLimit(WINDOW, perPhone, perIp));
+        return new OtpRateLimiter(properties, piiEncryptionService, redis, clock);
+    }
+
+    @Test
+    @DisplayName("limits requests per phone within the sliding window")
+    void limitsPerPhone() {
+        OtpRateLimiter limiter = limiter(3, 0, null);
+        for (int i = 0; i < 3; i++) {
+            limiter.checkRequest("919876543210", "10.0.0.1");
+            clock.advance(Duration.ofMinutes(10));
+        }
+
+        assertThatThrownBy(() -> limiter.checkRequest("919876543210", "10.0.0.2"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting(e -> ((TooManyRequestsException) e).getRetryAfterSeconds())
+                .isEqualTo(Duration.ofMinutes(30).toSeconds());
+        assertThatCode(() -> limiter.checkRequest("919999999999", "10.0.0.1")).doesNotThrowAnyException();
+
+        // The first request leaves the window
+        clock.advance(Duration.ofMinutes(30));
+        assertThatCode(() -> limiter.checkRequest("919876543210", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("limits requests per IP across phone numbers")
+    void limitsPerIp() {
+        OtpRateLimiter limiter = limiter(0, 2, null);
+        limiter.checkRequest("919000000001", "10.0.0.1");
+        limiter.checkRequest("919000000002", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.checkRequest("919000000003", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> limiter.checkRequest("919000000003", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("a rejected request is not counted")
+    void rejectedRequestIsNotCounted() {
+        OtpRateLimiter limiter = limiter(1, 2, null);
+        limiter.checkRequest("919000000001", "10.0.0.1");
+        assertThatThrownBy(() -> limiter.checkRequest("919000000001", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        assertThatCode(() -> limiter.checkRequest("919000000002", "10.0.0.1")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limiter.checkRequest("919000000003", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("counts in Redis by phone HMAC and IP when Redis is available")
+    void countsInRedis() {
+        when(redisLimiter.isAvailable()).thenReturn(true);
+        when(redisLimiter.tryAcquire(any(), any(), eq(WINDOW))).thenReturn(0L, 4_500L);
+        OtpRateLimiter limiter = limiter(5, 30, redisLimiter);
+
+        limiter.checkRequest("919876543210", "10.0.0.1");
+
+        verify(redisLimiter).tryAcquire(
+                List.of("otp-phone:hmac-919876543210", "otp-ip:10.0.0.1"), List.of(5, 30), WINDOW);
+        assertThatThrownBy(() -> limiter.checkRequest("919876543210", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting(e -> ((TooManyRequestsException) e).getRetryAfterSeconds())
+                .isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("counts in memory when Redis fails")
+    void fallsBackToMemory() {
+        when(redisLimiter.isAvailable()).thenReturn(true);
+        when(redisLimiter.tryAcquire(any(), any(), any())).thenThrow(new RedisConnectionFailureException("down"));
+        OtpRateLimiter limiter = limiter(1, 0, redisLimiter);
+
+        limiter.checkRequest("919876543210", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.checkRequest("919876543210", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("does nothing when both limits are disabled")
+    void disabledLimits() {
+        OtpRateLimiter limiter = limiter(0, 0, redisLimiter);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.checkRequest("919876543210", "10.0.0.1");
+        }
+
+        verifyNoInteractions(redisLimiter);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
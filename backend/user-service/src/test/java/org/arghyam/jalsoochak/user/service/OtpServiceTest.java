@@ -3,21 +3,21 @@ package org.arghyam.jalsoochak.user.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.time.Duration;
 import java.util.Optional;
 
 import org.arghyam.jalsoochak.user.config.properties.OtpProperties;
 import org.arghyam.jalsoochak.user.enums.OtpType;
 import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
-import org.arghyam.jalsoochak.user.repository.OtpRepository;
-import org.arghyam.jalsoochak.user.repository.records.OtpRow;
+import org.arghyam.jalsoochak.user.redis.RedisOtpStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -25,21 +25,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("OtpService")
 class OtpServiceTest {
 
-    @Mock OtpRepository otpRepository;
+    private static final OtpStore.Key KEY = new OtpStore.Key(1L, 1, OtpType.LOGIN);
+
+    @Mock DatabaseOtpStore databaseOtpStore;
+    @Mock RedisOtpStore redisOtpStore;
     @Mock PiiEncryptionService piiEncryptionService;
 
     OtpProperties otpProperties;
-    OtpService otpService;
 
     @BeforeEach
     void setUp() {
-        otpProperties = new OtpProperties(10, 5, 60, 6, "WHATSAPP");
-        otpService = new OtpService(otpRepository, piiEncryptionService, otpProperties);
+        otpProperties = new OtpProperties(10, 5, 60, 6, "WHATSAPP", null, null);
+    }
+
+    private OtpService databaseOnly() {
+        return new OtpService(databaseOtpStore, Optional.empty(), piiEncryptionService, otpProperties);
+    }
+
+    private OtpService withRedis() {
+        return new OtpService(databaseOtpStore, Optional.of(redisOtpStore), piiEncryptionService, otpProperties);
     }
 
     @Nested
@@ -47,46 +57,65 @@ class OtpServiceTest {
     class RequestOtp {
 
         @Test
-        @DisplayName("generates OTP when no active OTP exists")
-        void generatesOtpWhenNoActiveOtp() {
-            when(otpRepository.findActiveOtp(1L, 1, OtpType.LOGIN)).thenReturn(Optional.empty());
+        @DisplayName("stores the encrypted OTP in the database without Redis")
+        void storesInDatabase() {
             when(piiEncryptionService.encrypt(anyString())).thenReturn("encrypted");
 
-            String otp = otpService.requestOtp(1L, 1, OtpType.LOGIN);
+            String otp = databaseOnly().requestOtp(1L, 1, OtpType.LOGIN);
 
             assertThat(otp).hasSize(6).matches("\\d{6}");
-            verify(otpRepository).revokeActiveOtp(1L, 1, OtpType.LOGIN);
-            verify(otpRepository).insertOtp(eq(1L), eq(1), eq(OtpType.LOGIN), eq("encrypted"), any(Instant.class));
+            verify(databaseOtpStore).issue(KEY, "encrypted", Duration.ofMinutes(10), Duration.ofSeconds(60));
+        }
+
+        @Test
+        @DisplayName("stores the OTP in Redis when it is available")
+        void storesInRedis() {
+            when(piiEncryptionService.encrypt(anyString())).thenReturn("encrypted");
+            when(redisOtpStore.isAvailable()).thenReturn(true);
+
+            withRedis().requestOtp(1L, 1, OtpType.LOGIN);
+
+            verify(redisOtpStore).issue(KEY, "encrypted", Duration.ofMinutes(10), Duration.ofSeconds(60));
+            verify(databaseOtpStore, never()).issue(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("falls back to the database when Redis fails")
+        void fallsBackWhenRedisFails() {
+            when(piiEncryptionService.encrypt(anyString())).thenReturn("encrypted");
+            when(redisOtpStore.isAvailable()).thenReturn(true);
+            doThrow(new RedisConnectionFailureException("down"))
+                    .when(redisOtpStore).issue(any(), any(), any(), any());
+
+            withRedis().requestOtp(1L, 1, OtpType.LOGIN);
+
+            verify(databaseOtpStore).issue(eq(KEY), eq("encrypted"), any(), any());
         }
 
         @Test
-        @DisplayName("allows new OTP when existing OTP is past cooldown")
-        void allowsNewOtpAfterCooldown() {
-            Instant createdAtOld = Instant.now().minus(90, ChronoUnit.SECONDS);
-            OtpRow existing = new OtpRow(1L, "enc", 1, 1L, OtpType.LOGIN, 0, createdAtOld,
-                    Instant.now().plus(8, ChronoUnit.MINUTES), null);
-            when(otpRepository.findActiveOtp(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(existing));
+        @DisplayName("skips Redis while it is backing off")
+        void skipsRedisDuringBackoff() {
             when(piiEncryptionService.encrypt(anyString())).thenReturn("encrypted");
+            when(redisOtpStore.isAvailable()).thenReturn(false);
 
-            String otp = otpService.requestOtp(1L, 1, OtpType.LOGIN);
+            withRedis().requestOtp(1L, 1, OtpType.LOGIN);
 
-            assertThat(otp).hasSize(6);
-            verify(otpRepository).revokeActiveOtp(1L, 1, OtpType.LOGIN);
+            verify(redisOtpStore, never()).issue(any(), any(), any(), any());
+            verify(databaseOtpStore).issue(eq(KEY), eq("encrypted"), any(), any());
         }
 
         @Test
-        @DisplayName("throws BadRequestException during cooldown period")
-        void throwsDuringCooldown() {
-            Instant recentCreatedAt = Instant.now().minus(10, ChronoUnit.SECONDS);
-            OtpRow recent = new OtpRow(1L, "enc", 1, 1L, OtpType.LOGIN, 0, recentCreatedAt,
-                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
-            when(otpRepository.findActiveOtp(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(recent));
-
-            assertThatThrownBy(() -> otpService.requestOtp(1L, 1, OtpType.LOGIN))
+        @DisplayName("propagates the cooldown error without falling back")
+        void propagatesCooldown() {
+            when(piiEncryptionService.encrypt(anyString())).thenReturn("encrypted");
+            when(redisOtpStore.isAvailable()).thenReturn(true);
+            doThrow(OtpStore.cooldownActive(30)).when(redisOtpStore).issue(any(), any(), any(), any());
+
+            assertThatThrownBy(() -> withRedis().requestOtp(1L, 1, OtpType.LOGIN))
                     .isInstanceOf(BadRequestException.class)
-                    .hasMessageContaining("Please wait");
+                    .hasMessageContaining("Please wait 30");
 
-            verify(otpRepository, never()).insertOtp(any(), any(), any(), any(), any());
+            verify(databaseOtpStore, never()).issue(any(), any(), any(), any());
         }
     }
 
@@ -95,109 +124,99 @@ class OtpServiceTest {
     class VerifyOtp {
 
         @Test
-        @DisplayName("marks OTP used on correct input and returns OTP ID")
-        void marksUsedOnCorrectOtp() {
-            OtpRow row = new OtpRow(10L, "encrypted-123456", 1, 1L, OtpType.LOGIN, 0,
-                    Instant.now().minus(1, ChronoUnit.MINUTES),
-                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
-            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
-            when(piiEncryptionService.decrypt("encrypted-123456")).thenReturn("123456");
-            when(otpRepository.markUsed(10L)).thenReturn(true);
-
-            Long consumedId = otpService.verifyOtp(1L, 1, OtpType.LOGIN, "123456");
-
-            assertThat(consumedId).isEqualTo(10L);
-            verify(otpRepository).markUsed(10L);
-            verify(otpRepository, never()).incrementAttemptCount(any());
-        }
+        @DisplayName("returns the OTP consumed in Redis")
+        void consumesInRedis() {
+            OtpStore.Consumed consumed = new OtpStore.Consumed(redisOtpStore, KEY, "nonce");
+            when(redisOtpStore.isAvailable()).thenReturn(true);
+            when(redisOtpStore.verifyAndConsume(KEY, "123456", 5)).thenReturn(consumed);
 
-        @Test
-        @DisplayName("throws and increments attempt count on mismatch")
-        void incrementsAttemptOnMismatch() {
-            OtpRow row = new OtpRow(10L, "encrypted-123456", 1, 1L, OtpType.LOGIN, 0,
-                    Instant.now().minus(1, ChronoUnit.MINUTES),
-                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
-            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
-            when(piiEncryptionService.decrypt("encrypted-123456")).thenReturn("123456");
-
-            assertThatThrownBy(() -> otpService.verifyOtp(1L, 1, OtpType.LOGIN, "999999"))
-                    .isInstanceOf(BadRequestException.class);
+            assertThat(withRedis().verifyOtp(1L, 1, OtpType.LOGIN, "123456")).isSameAs(consumed);
 
-            verify(otpRepository).incrementAttemptCount(10L);
-            verify(otpRepository, never()).markUsed(any());
+            verify(databaseOtpStore, never()).verifyAndConsume(any(), any(), anyInt());
         }
 
         @Test
-        @DisplayName("throws when no active OTP exists")
-        void throwsWhenNoActiveOtp() {
-            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.empty());
+        @DisplayName("checks the database for OTPs issued while Redis was down")
+        void checksDatabaseWhenNotInRedis() {
+            OtpStore.Consumed consumed = new OtpStore.Consumed(databaseOtpStore, KEY, "10");
+            when(redisOtpStore.isAvailable()).thenReturn(true);
+            when(redisOtpStore.verifyAndConsume(KEY, "123456", 5)).thenReturn(null);
+            when(databaseOtpStore.verifyAndConsume(KEY, "123456", 5)).thenReturn(consumed);
+
+            assertThat(withRedis().verifyOtp(1L, 1, OtpType.LOGIN, "123456")).isSameAs(consumed);
+        }
 
-            assertThatThrownBy(() -> otpService.verifyOtp(1L, 1, OtpType.LOGIN, "123456"))
-                    .isInstanceOf(BadRequestException.class)
-                    .hasMessageContaining("Invalid or expired OTP");
+        @Test
+        @DisplayName("falls back to the database when Redis fails")
+        void fallsBackWhenRedisFails() {
+            OtpStore.Consumed consumed = new OtpStore.Consumed(databaseOtpStore, KEY, "10");
+            when(redisOtpStore.isAvailable()).thenReturn(true);
+            when(redisOtpStore.verifyAndConsume(KEY, "123456", 5))
+                    .thenThrow(new RedisConnectionFailureException("down"));
+            when(databaseOtpStore.verifyAndConsume(KEY, "123456", 5)).thenReturn(consumed);
+
+            assertThat(withRedis().verifyOtp(1L, 1, OtpType.LOGIN, "123456")).isSameAs(consumed);
         }
 
         @Test
-        @DisplayName("throws when markUsed returns false (concurrent consumption race)")
-        void throwsWhenMarkUsedReturnsFalse() {
-            OtpRow row = new OtpRow(10L, "encrypted-123456", 1, 1L, OtpType.LOGIN, 0,
-                    Instant.now().minus(1, ChronoUnit.MINUTES),
-                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
-            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
-            when(piiEncryptionService.decrypt("encrypted-123456")).thenReturn("123456");
-            when(otpRepository.markUsed(10L)).thenReturn(false);
-
-            assertThatThrownBy(() -> otpService.verifyOtp(1L, 1, OtpType.LOGIN, "123456"))
-                    .isInstanceOf(BadRequestException.class)
-                    .hasMessageContaining("Invalid or expired OTP");
+        @DisplayName("a mismatch in Redis is not retried against the database")
+        void mismatchIsFinal() {
+            when(redisOtpStore.isAvailable()).thenReturn(true);
+            when(redisOtpStore.verifyAndConsume(KEY, "999999", 5)).thenThrow(OtpStore.invalidOtp());
+
+            assertThatThrownBy(() -> withRedis().verifyOtp(1L, 1, OtpType.LOGIN, "999999"))
+                    .isInstanceOf(BadRequestException.class);
 
-            verify(otpRepository).markUsed(10L);
-            verify(otpRepository, never()).incrementAttemptCount(any());
+            verify(databaseOtpStore, never()).verifyAndConsume(any(), any(), anyInt());
         }
 
         @Test
-        @DisplayName("reverts OTP consumption when revertOtpConsumption is called and OTP not expired")
-        void revertsOtpConsumption() {
-            when(otpRepository.revertConsumption(10L)).thenReturn(true);
-
-            otpService.revertOtpConsumption(10L);
+        @DisplayName("throws when no store has an active OTP")
+        void throwsWhenNoActiveOtp() {
+            when(databaseOtpStore.verifyAndConsume(KEY, "123456", 5)).thenReturn(null);
 
-            verify(otpRepository).revertConsumption(10L);
+            assertThatThrownBy(() -> databaseOnly().verifyOtp(1L, 1, OtpType.LOGIN, "123456"))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Invalid or expired OTP");
         }
+    }
+
+    @Nested
+    @DisplayName("revertOtpConsumption")
+    class RevertOtpConsumption {
 
         @Test
-        @DisplayName("logs warning when revertOtpConsumption finds OTP expired")
-        void logsWarningWhenRevertFindsExpiredOtp() {
-            when(otpRepository.revertConsumption(10L)).thenReturn(false);
+        @DisplayName("reverts through the store that consumed the OTP")
+        void revertsThroughConsumingStore() {
+            OtpStore.Consumed consumed = new OtpStore.Consumed(redisOtpStore, KEY, "nonce");
+            when(redisOtpStore.revert(consumed)).thenReturn(true);
 
-            otpService.revertOtpConsumption(10L); // must not throw
+            databaseOnly().revertOtpConsumption(consumed);
 
-            verify(otpRepository).revertConsumption(10L);
+            verify(redisOtpStore).revert(consumed);
+            verify(databaseOtpStore, never()).revert(any());
         }
 
         @Test
-        @DisplayName("does not rethrow when revertConsumption throws a repository exception")
-        void doesNotRethrowOnRepositoryException() {
-            when(otpRepository.revertConsumption(10L)).thenThrow(new RuntimeException("DB unavailable"));
+        @DisplayName("logs warning when the OTP has expired")
+        void logsWarningWhenExpired() {
+            OtpStore.Consumed consumed = new OtpStore.Consumed(databaseOtpStore, KEY, "10");
+            when(databaseOtpStore.revert(consumed)).thenReturn(false);
 
-            otpService.revertOtpConsumption(10L); // must not throw
+            databaseOnly().revertOtpConsumption(consumed); // must not throw
 
-            verify(otpRepository).revertConsumption(10L);
+            verify(databaseOtpStore).revert(consumed);
         }
 
         @Test
-        @DisplayName("throws when max attempts exceeded")
-        void throwsWhenMaxAttemptsExceeded() {
-            OtpRow row = new OtpRow(10L, "enc", 1, 1L, OtpType.LOGIN, 5,
-                    Instant.now().minus(1, ChronoUnit.MINUTES),
-                    Instant.now().plus(9, ChronoUnit.MINUTES), null);
-            when(otpRepository.findActiveOtpForUpdate(1L, 1, OtpType.LOGIN)).thenReturn(Optional.of(row));
-
-            assertThatThrownBy(() -> otpService.verifyOtp(1L, 1, OtpType.LOGIN, "123456"))
-                    .isInstanceOf(BadRequestException.class)
-                    .hasMessageContaining("Maximum OTP attempts exceeded");
+        @DisplayName("does not rethrow when the store throws")
+        void doesNotRethrow() {
+            OtpStore.Consumed consumed = new OtpStore.Consumed(databaseOtpStore, KEY, "10");
+            when(databaseOtpStore.revert(consumed)).thenThrow(new RuntimeException("DB unavailable"));
+
+            databaseOnly().revertOtpConsumption(consumed); // must not throw
 
-            verify(otpRepository, never()).incrementAttemptCount(any());
+            verify(databaseOtpStore).revert(consumed);
         }
     }
 }
@@ -0,0 +1,180 @@
+package org.arghyam.jalsoochak.user.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * JMH throughput of {@link PiiEncryptionService} on 1,000 phone numbers, in values per second:
+ * <ul>
+ *   <li>{@code legacy*} — a new {@code Cipher} / {@code Mac} per value, as before the
+ *       per-thread instances were introduced;</li>
+ *   <li>{@code perCall*} — one service call per value;</li>
+ *   <li>{@code batch*} — one {@code *All} call for the whole list;</li>
+ *   <li>{@code hmacHot} — per-call HMACs of phones already in the HMAC cache.</li>
+ * </ul>
+ *
+ * <p>Not part of the test run. Run with:</p>
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.arghyam.jalsoochak.user.service.PiiEncryptionBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PiiEncryptionBenchmark {
+
+    private static final int VALUES = 1_000;
+    private static final String AES_KEY = "dGVzdC1lbmNyeXB0aW9uLWtleS10ZXN0aW5nLTEyMzQ=";
+    private static final String HMAC_KEY = "dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=";
+
+    private PiiEncryptionService pii;
+    private PiiEncryptionService cachedPii;
+    private SecretKeySpec aesKey;
+    private byte[] hmacKey;
+    private final SecureRandom rng = new SecureRandom();
+    private List<String> phones;
+    private List<String> ciphertexts;
+
+    @Setup
+    public void setUp() {
+        pii = new PiiEncryptionService(AES_KEY, HMAC_KEY, 0, 0);
+        cachedPii = new PiiEncryptionService(AES_KEY, HMAC_KEY, 10_000, 0);
+        aesKey = new SecretKeySpec(Base64.getDecoder().decode(AES_KEY), "AES");
+        hmacKey = Base64.getDecoder().decode(HMAC_KEY);
+        phones = new ArrayList<>(VALUES);
+        for (int i = 0; i < VALUES; i++) {
+            phones.add(String.valueOf(9_000_000_000L + i * 7919L));
+        }
+        ciphertexts = pii.encryptAll(phones);
+        cachedPii.hmacAll(phones);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pii.shutdown();
+        cachedPii.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void legacyHmac(Blackhole bh) throws GeneralSecurityException {
+        for (String phone : phones) {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(hmacKey, "HmacSHA256"));
+            bh.consume(HexFormat.of().formatHex(mac.doFinal(phone.getBytes(UTF_8))));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void perCallHmac(Blackhole bh) {
+        for (String phone : phones) {
+            bh.consume(pii.hmac(phone));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public List<String> batchHmac() {
+        return pii.hmacAll(phones);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void hmacHot(Blackhole bh) {
+        for (String phone : phones) {
+            bh.consume(cachedPii.hmac(phone));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void legacyEncrypt(Blackhole bh) throws GeneralSecurityException {
+        for (String phone : phones) {
+            byte[] iv = new byte[12];
+            rng.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(128, iv));
+            bh.consume(cipher.doFinal(phone.getBytes(UTF_8)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void perCallEncrypt(Blackhole bh) {
+        for (String phone : phones) {
+            bh.consume(pii.encrypt(phone));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public List<String> batchEncrypt() {
+        return pii.encryptAll(phones);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void legacyDecrypt(Blackhole bh) throws GeneralSecurityException {
+        for (String encoded : ciphertexts) {
+            byte[] decoded = Base64.getDecoder().decode(encoded);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, aesKey,
+                    new GCMParameterSpec(128, Arrays.copyOfRange(decoded, 0, 12)));
+            bh.consume(new String(cipher.doFinal(decoded, 12, decoded.length - 12), UTF_8));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void perCallDecrypt(Blackhole bh) {
+        for (String encoded : ciphertexts) {
+            bh.consume(pii.decrypt(encoded));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public List<String> batchDecrypt() {
+        return pii.decryptAll(ciphertexts);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PiiEncryptionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
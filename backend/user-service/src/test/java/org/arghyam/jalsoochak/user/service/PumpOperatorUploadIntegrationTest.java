@@ -0,0 +1,244 @@
+package org.arghyam.jalsoochak.user.service;
+
+import org.arghyam.jalsoochak.user.event.UserEventPublisher;
+import org.arghyam.jalsoochak.user.repository.TenantUserRecord;
+import org.arghyam.jalsoochak.user.repository.UserNameIndexRepository;
+import org.arghyam.jalsoochak.user.repository.UserTenantRepository;
+import org.arghyam.jalsoochak.user.repository.UserUploadRepository;
+import org.arghyam.jalsoochak.user.service.PumpOperatorUploadChunkProcessor.ChunkResult;
+import org.arghyam.jalsoochak.user.service.PumpOperatorUploadChunkProcessor.UploadRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration tests for {@link PumpOperatorUploadChunkProcessor} against a real PostgreSQL
+ * instance: bulk lookup of existing users by phone hash, the multi-row user insert, the
+ * batched language update and the mapping insert that leaves existing mappings alone.
+ */
+@SpringJUnitConfig(PumpOperatorUploadIntegrationTest.Config.class)
+@Testcontainers
+class PumpOperatorUploadIntegrationTest {
+
+    private static final String SCHEMA = "tenant_mp";
+    private static final int LANGUAGE_ID = 7;
+    private static final int CHUNK_SIZE = 1000;
+    private static final TenantUserRecord ACTOR =
+            new TenantUserRecord(1L, 1, null, null, 2L, "STATE_ADMIN", null, null, 1, null);
+    private static final Map<String, Integer> USER_TYPE_IDS = Map.of(
+            "pump_operator", 3,
+            "section_officer", 4,
+            "sub_divisional_officer", 5);
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withInitScript("sql/test-schema.sql");
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({UserTenantRepository.class, UserUploadRepository.class, UserNameIndexRepository.class,
+            PumpOperatorUploadChunkProcessor.class})
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        PiiEncryptionService piiEncryptionService() {
+            return new PiiEncryptionService(
+                    "dGVzdC1lbmNyeXB0aW9uLWtleS10ZXN0aW5nLTEyMzQ=",
+                    "dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+        }
+
+        @Bean
+        NameBlindIndex nameBlindIndex() {
+            return new NameBlindIndex("dGVzdC1obWFjLWtleS1mb3ItdGVzdGluZy1vbmx5MTI=");
+        }
+
+        @Bean
+        UserEventPublisher userEventPublisher() {
+            return Mockito.mock(UserEventPublisher.class);
+        }
+    }
+
+    @Autowired
+    private PumpOperatorUploadChunkProcessor chunkProcessor;
+
+    @Autowired
+    private UserTenantRepository userTenantRepository;
+
+    @Autowired
+    private UserEventPublisher userEventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(userEventPublisher);
+        jdbcTemplate.execute("""
+                TRUNCATE tenant_mp.user_scheme_mapping_table, tenant_mp.user_table, tenant_mp.scheme_master_table
+                RESTART IDENTITY CASCADE
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO tenant_mp.scheme_master_table (state_scheme_id, scheme_name)
+                SELECT 'SS-' || i, 'Scheme ' || i FROM generate_series(1, 1000) AS i
+                """);
+    }
+
+    @Test
+    void processChunk_createsUsersAndMappings_andNotifiesPumpOperators() {
+        ChunkResult result = process(List.of(
+                row(1, "Ravi Kumar", "9000000001", "pump_operator", "SS-1"),
+                row(2, "Meena Devi", "9000000002", "section_officer", "SS-2"),
+                row(3, "", "9000000003", "pump_operator", "SS-3")));
+
+        assertThat(result).isEqualTo(new ChunkResult(3, 0));
+        TenantUserRecord ravi = userTenantRepository.findUserByPhone(SCHEMA, "9000000001").orElseThrow();
+        assertThat(ravi.title()).isEqualTo("Ravi Kumar");
+        assertThat(ravi.cName()).isEqualTo("PUMP_OPERATOR");
+        assertThat(ravi.email()).isEqualTo("po_9000000001@pump-operator.local");
+        assertThat(userTenantRepository.findUserByPhone(SCHEMA, "9000000003").orElseThrow().title())
+                .isEqualTo("Pump Operator 9000000003");
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT language_id FROM tenant_mp.user_table", Integer.class))
+                .containsExactly(LANGUAGE_ID);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT s.state_scheme_id
+                FROM tenant_mp.user_scheme_mapping_table m
+                JOIN tenant_mp.scheme_master_table s ON s.id = m.scheme_id
+                WHERE m.user_id = ?
+                """, String.class, ravi.id())).isEqualTo("SS-1");
+        assertThat(notifiedPhones()).containsExactly("9000000001", "9000000003");
+    }
+
+    @Test
+    void processChunk_reusesExistingUsersOfTheSameType_andSkipsOtherTypes() {
+        process(List.of(
+                row(1, "Ravi Kumar", "9000000001", "pump_operator", "SS-1"),
+                row(2, "Meena Devi", "9000000002", "section_officer", "SS-2")));
+        jdbcTemplate.update("UPDATE tenant_mp.user_table SET language_id = NULL");
+        Mockito.reset(userEventPublisher);
+
+        ChunkResult result = process(List.of(
+                row(1, "Ravi Kumar", "9000000001", "pump_operator", "SS-5"),
+                row(2, "Meena Devi", "9000000002", "pump_operator", "SS-6"),
+                row(3, "Unknown Scheme", "9000000004", "pump_operator", "SS-missing"),
+                row(4, "Unknown Type", "9000000005", "plumber", "SS-1")));
+
+        assertThat(result).isEqualTo(new ChunkResult(1, 3));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tenant_mp.user_table", Integer.class))
+                .isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tenant_mp.user_scheme_mapping_table", Integer.class)).isEqualTo(3);
+        assertThat(userTenantRepository.findUserByPhone(SCHEMA, "9000000001").orElseThrow().id())
+                .isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT language_id FROM tenant_mp.user_table WHERE id = 1", Integer.class)).isEqualTo(LANGUAGE_ID);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT language_id FROM tenant_mp.user_table WHERE id = 2", Integer.class)).isNull();
+        assertThat(notifiedPhones()).containsExactly("9000000001");
+    }
+
+    @Test
+    void processChunk_reupload_addsNoMappingsAndSendsNoNotifications() {
+        List<UploadRow> rows = List.of(
+                row(1, "Ravi Kumar", "9000000001", "pump_operator", "SS-1"),
+                row(2, "Asha Rani", "9000000002", "pump_operator", "SS-2"));
+        process(rows);
+        Mockito.reset(userEventPublisher);
+
+        ChunkResult result = process(rows);
+
+        assertThat(result).isEqualTo(new ChunkResult(2, 0));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tenant_mp.user_scheme_mapping_table", Integer.class)).isEqualTo(2);
+        verify(userEventPublisher, never()).publishPumpOperatorOnboardedAfterCommit(
+                anyString(), anyInt(), anyString(), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 50_000})
+    void processChunks_onboardLargeUploads(int rows) {
+        List<UploadRow> all = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            all.add(row(i, "Operator " + i, String.valueOf(9_000_000_000L + i), "pump_operator",
+                    "SS-" + (1 + i % 1000)));
+        }
+
+        Map<String, Integer> schemeIdCache = new HashMap<>();
+        long start = System.nanoTime();
+        int uploaded = 0;
+        for (int from = 0; from < rows; from += CHUNK_SIZE) {
+            uploaded += chunkProcessor.processChunk(SCHEMA, "MP", ACTOR, USER_TYPE_IDS, LANGUAGE_ID, 1,
+                    all.subList(from, Math.min(rows, from + CHUNK_SIZE)), schemeIdCache).uploadedRows();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("[PumpOperatorUpload] %d rows: %d ms (%d rows/s)%n",
+                rows, elapsed / 1_000_000, rows * 1_000_000_000L / elapsed);
+        assertThat(uploaded).isEqualTo(rows);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tenant_mp.user_table", Integer.class))
+                .isEqualTo(rows);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tenant_mp.user_scheme_mapping_table", Integer.class)).isEqualTo(rows);
+    }
+
+    private ChunkResult process(List<UploadRow> rows) {
+        return chunkProcessor.processChunk(SCHEMA, "MP", ACTOR, USER_TYPE_IDS, LANGUAGE_ID, 1, rows, new HashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> notifiedPhones() {
+        ArgumentCaptor<List<String>> phones = ArgumentCaptor.forClass(List.class);
+        verify(userEventPublisher).publishPumpOperatorOnboardedAfterCommit(
+                eq("MP"), eq(1), eq(String.valueOf(LANGUAGE_ID)), phones.capture());
+        return phones.getValue();
+    }
+
+    private static UploadRow row(int rowNumber, String fullName, String phone, String personType, String stateSchemeId) {
+        return new UploadRow(rowNumber, "", "", fullName, phone, personType, stateSchemeId);
+    }
+}
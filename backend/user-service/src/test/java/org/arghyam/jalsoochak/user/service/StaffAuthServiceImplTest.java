@@ -24,6 +24,7 @@ import org.arghyam.jalsoochak.user.event.SendLoginOtpEvent;
 import org.arghyam.jalsoochak.user.event.UserNotificationEventPublisher;
 import org.arghyam.jalsoochak.user.exceptions.AccountDeactivatedException;
 import org.arghyam.jalsoochak.user.exceptions.BadRequestException;
+import org.arghyam.jalsoochak.user.exceptions.TooManyRequestsException;
 import org.arghyam.jalsoochak.user.repository.TenantUserRecord;
 import org.arghyam.jalsoochak.user.repository.UserCommonRepository;
 import org.arghyam.jalsoochak.user.repository.UserTenantRepository;
@@ -43,6 +44,8 @@ class StaffAuthServiceImplTest {
     @Mock UserCommonRepository userCommonRepository;
     @Mock UserTenantRepository userTenantRepository;
     @Mock OtpService otpService;
+    @Mock OtpRateLimiter otpRateLimiter;
+    @Mock OtpStore otpStore;
     @Mock StaffKeycloakService staffKeycloakService;
     @Mock KeycloakClient keycloakClient;
     @Mock UserNotificationEventPublisher eventPublisher;
@@ -58,14 +61,18 @@ class StaffAuthServiceImplTest {
             10L, 1, "919876543210", "test@test.com", 3L, "SECTION_OFFICER",
             "Test Officer", "kc-uuid", TenantUserStatus.INACTIVE.code, null);
 
+    private OtpStore.Consumed consumedOtp;
+
     private static final KeycloakTokenResponse TOKEN_RESPONSE =
             new KeycloakTokenResponse("at", "rt", 300, 1800, "Bearer", null, null, "openid");
 
     @BeforeEach
     void setUp() {
-        OtpProperties otpProps = new OtpProperties(10, 5, 60, 6, "WHATSAPP");
+        OtpProperties otpProps = new OtpProperties(10, 5, 60, 6, "WHATSAPP", null, null);
         service = new StaffAuthServiceImpl(userCommonRepository, userTenantRepository,
-                otpProps, otpService, staffKeycloakService, keycloakClient, eventPublisher, transactionTemplate);
+                otpProps, otpService, otpRateLimiter, staffKeycloakService, keycloakClient, eventPublisher,
+                transactionTemplate);
+        consumedOtp = new OtpStore.Consumed(otpStore, new OtpStore.Key(10L, 1, OtpType.LOGIN), "99");
     }
 
     @Nested
@@ -89,7 +96,7 @@ class StaffAuthServiceImplTest {
                     .thenReturn(Optional.of(ACTIVE_USER));
             when(otpService.requestOtp(10L, 1, OtpType.LOGIN)).thenReturn("123456");
 
-            service.requestOtp(request);
+            service.requestOtp(request, "10.0.0.1");
 
             verify(otpService).requestOtp(10L, 1, OtpType.LOGIN);
             verify(eventPublisher).publishLoginOtpAfterCommit(any(SendLoginOtpEvent.class));
@@ -100,7 +107,7 @@ class StaffAuthServiceImplTest {
         void silentWhenTenantNotFound() {
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.empty());
 
-            service.requestOtp(request); // must not throw
+            service.requestOtp(request, "10.0.0.1"); // must not throw
 
             verify(otpService, never()).requestOtp(any(), any(), any());
             verify(eventPublisher, never()).publishLoginOtpAfterCommit(any());
@@ -113,7 +120,7 @@ class StaffAuthServiceImplTest {
             when(userTenantRepository.findUserByPhone("tenant_mp", "919876543210"))
                     .thenReturn(Optional.empty());
 
-            service.requestOtp(request);
+            service.requestOtp(request, "10.0.0.1");
 
             verify(otpService, never()).requestOtp(any(), any(), any());
         }
@@ -125,7 +132,7 @@ class StaffAuthServiceImplTest {
             when(userTenantRepository.findUserByPhone("tenant_mp", "919876543210"))
                     .thenReturn(Optional.of(INACTIVE_USER));
 
-            service.requestOtp(request);
+            service.requestOtp(request, "10.0.0.1");
 
             verify(otpService, never()).requestOtp(any(), any(), any());
         }
@@ -139,7 +146,7 @@ class StaffAuthServiceImplTest {
             doThrow(new BadRequestException("Please wait 50 second(s)"))
                     .when(otpService).requestOtp(10L, 1, OtpType.LOGIN);
 
-            service.requestOtp(request); // must not throw
+            service.requestOtp(request, "10.0.0.1"); // must not throw
 
             verify(eventPublisher, never()).publishLoginOtpAfterCommit(any());
         }
@@ -150,10 +157,23 @@ class StaffAuthServiceImplTest {
             request.setTenantCode("mp");
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.empty());
 
-            service.requestOtp(request);
+            service.requestOtp(request, "10.0.0.1");
 
             verify(userCommonRepository).findTenantIdByStateCode("MP");
         }
+
+        @Test
+        @DisplayName("rejects a rate-limited request before any lookup")
+        void rejectsRateLimitedRequest() {
+            doThrow(new TooManyRequestsException("Too many OTP requests. Please try again later", 60))
+                    .when(otpRateLimiter).checkRequest("919876543210", "10.0.0.1");
+
+            assertThatThrownBy(() -> service.requestOtp(request, "10.0.0.1"))
+                    .isInstanceOf(TooManyRequestsException.class);
+
+            verify(userCommonRepository, never()).findTenantIdByStateCode(any());
+            verify(otpService, never()).requestOtp(any(), any(), any());
+        }
     }
 
     @Nested
@@ -179,7 +199,7 @@ class StaffAuthServiceImplTest {
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.of(1));
             when(userTenantRepository.findUserByPhone("tenant_mp", "919876543210"))
                     .thenReturn(Optional.of(ACTIVE_USER));
-            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(99L);
+            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(consumedOtp);
             when(staffKeycloakService.ensureKeycloakAccount(ACTIVE_USER, "MP", "tenant_mp"))
                     .thenReturn("managed-pw");
             when(keycloakClient.obtainToken("919876543210", "managed-pw"))
@@ -221,7 +241,7 @@ class StaffAuthServiceImplTest {
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.of(1));
             when(userTenantRepository.findUserByPhone("tenant_mp", "919876543210"))
                     .thenReturn(Optional.of(INACTIVE_USER));
-            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(99L);
+            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(consumedOtp);
 
             assertThatThrownBy(() -> service.verifyOtp(request))
                     .isInstanceOf(AccountDeactivatedException.class);
@@ -233,7 +253,7 @@ class StaffAuthServiceImplTest {
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.of(1));
             when(userTenantRepository.findUserByPhone("tenant_mp", "919876543210"))
                     .thenReturn(Optional.of(ACTIVE_USER));
-            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(99L);
+            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(consumedOtp);
             doThrow(new RuntimeException("Keycloak unreachable"))
                     .when(staffKeycloakService).ensureKeycloakAccount(ACTIVE_USER, "MP", "tenant_mp");
 
@@ -241,7 +261,7 @@ class StaffAuthServiceImplTest {
                     .isInstanceOf(RuntimeException.class)
                     .hasMessageContaining("Keycloak unreachable");
 
-            verify(otpService).revertOtpConsumption(99L);
+            verify(otpService).revertOtpConsumption(consumedOtp);
         }
 
         @Test
@@ -265,7 +285,7 @@ class StaffAuthServiceImplTest {
             when(userTenantRepository.findUserByPhone("tenant_mp", "919876543210"))
                     .thenReturn(Optional.of(ACTIVE_USER))   // first call — inside transaction
                     .thenReturn(Optional.of(INACTIVE_USER)); // second call — re-fetch after OTP verify
-            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(99L);
+            when(otpService.verifyOtp(10L, 1, OtpType.LOGIN, "123456")).thenReturn(consumedOtp);
 
             assertThatThrownBy(() -> service.verifyOtp(request))
                     .isInstanceOf(AccountDeactivatedException.class);
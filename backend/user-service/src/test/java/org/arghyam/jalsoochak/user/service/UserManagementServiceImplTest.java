@@ -227,7 +227,7 @@ class UserManagementServiceImplTest {
 
             when(userCommonRepository.listSuperUsers(null, 0, 20)).thenReturn(List.of(row));
             when(userCommonRepository.countSuperUsers(null)).thenReturn(1L);
-            when(keycloakAdminHelper.buildAdminUserResponse(row)).thenReturn(dto);
+            when(keycloakAdminHelper.buildAdminUserResponses(List.of(row))).thenReturn(List.of(dto));
 
             PageResponseDTO<AdminUserResponseDTO> result = userManagementService.listSuperUsers(null, 0, 20);
 
@@ -244,7 +244,7 @@ class UserManagementServiceImplTest {
 
             when(userCommonRepository.listSuperUsers(AdminUserStatus.ACTIVE, 0, 20)).thenReturn(List.of(row));
             when(userCommonRepository.countSuperUsers(AdminUserStatus.ACTIVE)).thenReturn(1L);
-            when(keycloakAdminHelper.buildAdminUserResponse(row)).thenReturn(dto);
+            when(keycloakAdminHelper.buildAdminUserResponses(List.of(row))).thenReturn(List.of(dto));
 
             PageResponseDTO<AdminUserResponseDTO> result = userManagementService.listSuperUsers(AdminUserStatus.ACTIVE, 0, 20);
 
@@ -270,7 +270,7 @@ class UserManagementServiceImplTest {
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.of(1));
             when(userCommonRepository.listStateAdminsByTenant(1, null, 0, 20)).thenReturn(List.of(row));
             when(userCommonRepository.countStateAdminsByTenant(1, null)).thenReturn(1L);
-            when(keycloakAdminHelper.buildAdminUserResponse(row)).thenReturn(dto);
+            when(keycloakAdminHelper.buildAdminUserResponses(List.of(row))).thenReturn(List.of(dto));
 
             PageResponseDTO<AdminUserResponseDTO> result = userManagementService.listStateAdmins("MP", null, auth, 0, 20);
 
@@ -287,7 +287,7 @@ class UserManagementServiceImplTest {
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.of(1));
             when(userCommonRepository.listStateAdminsByTenant(1, null, 0, 20)).thenReturn(List.of(row));
             when(userCommonRepository.countStateAdminsByTenant(1, null)).thenReturn(1L);
-            when(keycloakAdminHelper.buildAdminUserResponse(row)).thenReturn(dto);
+            when(keycloakAdminHelper.buildAdminUserResponses(List.of(row))).thenReturn(List.of(dto));
 
             PageResponseDTO<AdminUserResponseDTO> result = userManagementService.listStateAdmins(null, null, auth, 0, 20);
 
@@ -306,7 +306,7 @@ class UserManagementServiceImplTest {
             when(userCommonRepository.findTenantIdByStateCode("MP")).thenReturn(Optional.of(1));
             when(userCommonRepository.listStateAdminsByTenant(1, AdminUserStatus.PENDING, 0, 20)).thenReturn(List.of(row));
             when(userCommonRepository.countStateAdminsByTenant(1, AdminUserStatus.PENDING)).thenReturn(1L);
-            when(keycloakAdminHelper.buildAdminUserResponse(row)).thenReturn(dto);
+            when(keycloakAdminHelper.buildAdminUserResponses(List.of(row))).thenReturn(List.of(dto));
 
             PageResponseDTO<AdminUserResponseDTO> result = userManagementService.listStateAdmins("MP", AdminUserStatus.PENDING, auth, 0, 20);
 
@@ -0,0 +1,56 @@
+package org.arghyam.jalsoochak.user.util;
+
+import org.arghyam.jalsoochak.user.exceptions.ForbiddenAccessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SecurityUtils")
+class SecurityUtilsTest {
+
+    @Test
+    @DisplayName("name search is allowed without a login only when no name is given")
+    void nameSearch_withoutLogin_isRejected() {
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertThatCode(() -> SecurityUtils.requireNameSearchAccess(null, "MP", null)).doesNotThrowAnyException();
+        assertThatCode(() -> SecurityUtils.requireNameSearchAccess(anonymous, "MP", " ")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> SecurityUtils.requireNameSearchAccess(null, "MP", "ravi"))
+                .isInstanceOf(ForbiddenAccessException.class);
+        assertThatThrownBy(() -> SecurityUtils.requireNameSearchAccess(anonymous, "MP", "ravi"))
+                .isInstanceOf(ForbiddenAccessException.class);
+    }
+
+    @Test
+    @DisplayName("name search is rejected for staff who are not admins")
+    void nameSearch_byNonAdmin_isRejected() {
+        Authentication operator = login("ROLE_PUMP_OPERATOR", "TENANT_MP");
+
+        assertThatThrownBy(() -> SecurityUtils.requireNameSearchAccess(operator, "MP", "ravi"))
+                .isInstanceOf(ForbiddenAccessException.class);
+    }
+
+    @Test
+    @DisplayName("state admins may search names in their own state only; super users anywhere")
+    void nameSearch_byAdmin_isScopedToTheirState() {
+        Authentication stateAdmin = login("ROLE_STATE_ADMIN", "TENANT_MP");
+        Authentication superUser = login("ROLE_SUPER_USER");
+
+        assertThatCode(() -> SecurityUtils.requireNameSearchAccess(stateAdmin, "mp", "ravi")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> SecurityUtils.requireNameSearchAccess(stateAdmin, "TR", "ravi"))
+                .isInstanceOf(ForbiddenAccessException.class);
+        assertThatCode(() -> SecurityUtils.requireNameSearchAccess(superUser, "TR", "ravi")).doesNotThrowAnyException();
+    }
+
+    private static Authentication login(String... authorities) {
+        return UsernamePasswordAuthenticationToken.authenticated("user", null,
+                AuthorityUtils.createAuthorityList(authorities));
+    }
+}
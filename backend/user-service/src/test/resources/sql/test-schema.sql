@@ -12,7 +12,8 @@ CREATE TABLE common_schema.user_type_master_table (
 );
 
 INSERT INTO common_schema.user_type_master_table (id, c_name)
-VALUES (1, 'SUPER_USER'), (2, 'STATE_ADMIN');
+VALUES (1, 'SUPER_USER'), (2, 'STATE_ADMIN'), (3, 'PUMP_OPERATOR'), (4, 'SECTION_OFFICER'),
+       (5, 'SUB_DIVISIONAL_OFFICER');
 
 -- ── Tenant master ──────────────────────────────────────────────────────────
 
@@ -123,6 +124,56 @@ CREATE TABLE tenant_mp.user_table (
     deleted_by                INTEGER
 );
 
+CREATE INDEX idx_tenant_mp_user_phone_hash ON tenant_mp.user_table(phone_number_hash);
+
+-- ── Schemes and user-scheme mappings (pump operator uploads) ──────────────
+
+CREATE TABLE tenant_mp.scheme_master_table (
+    id               SERIAL       PRIMARY KEY,
+    state_scheme_id  VARCHAR(100) NOT NULL,
+    scheme_name      VARCHAR(255) NOT NULL,
+    work_status      INTEGER,
+    operating_status INTEGER,
+    deleted_at       TIMESTAMP
+);
+
+CREATE INDEX idx_tenant_mp_scheme_state_id ON tenant_mp.scheme_master_table(state_scheme_id);
+
+CREATE TABLE tenant_mp.user_scheme_mapping_table (
+    id         SERIAL      PRIMARY KEY,
+    uuid       VARCHAR(36) NOT NULL UNIQUE DEFAULT gen_random_uuid()::TEXT,
+    user_id    INTEGER     NOT NULL REFERENCES tenant_mp.user_table(id),
+    scheme_id  INTEGER     NOT NULL REFERENCES tenant_mp.scheme_master_table(id),
+    status     INTEGER     NOT NULL,
+    created_at TIMESTAMP   NOT NULL DEFAULT NOW(),
+    created_by INTEGER,
+    updated_at TIMESTAMP   NOT NULL DEFAULT NOW(),
+    updated_by INTEGER,
+    deleted_at TIMESTAMP,
+    deleted_by INTEGER
+);
+
+CREATE INDEX idx_tenant_mp_usm_user   ON tenant_mp.user_scheme_mapping_table(user_id);
+CREATE INDEX idx_tenant_mp_usm_scheme ON tenant_mp.user_scheme_mapping_table(scheme_id);
+
+-- ── Flow readings (telemetry-service writes them; pump operator compliance reads) ──
+
+CREATE TABLE tenant_mp.flow_reading_table (
+    id                SERIAL       PRIMARY KEY,
+    scheme_id         INTEGER      NOT NULL REFERENCES tenant_mp.scheme_master_table(id),
+    reading_at        TIMESTAMP    NOT NULL,
+    reading_date      DATE         NOT NULL,
+    extracted_reading NUMERIC      NOT NULL DEFAULT 0,
+    confirmed_reading NUMERIC      NOT NULL DEFAULT 0,
+    correlation_id    VARCHAR(255) NOT NULL DEFAULT 'test-corr-id',
+    created_by        INTEGER      NOT NULL REFERENCES tenant_mp.user_table(id),
+    created_at        TIMESTAMP    NOT NULL DEFAULT NOW(),
+    updated_by        INTEGER      NOT NULL DEFAULT 0,
+    updated_at        TIMESTAMP    NOT NULL DEFAULT NOW(),
+    deleted_at        TIMESTAMP,
+    deleted_by        INTEGER
+);
+
 -- ── OTP table (V24) ────────────────────────────────────────────────────────
 
 CREATE TABLE common_schema.otp_table (
@@ -146,4 +197,16 @@ CREATE INDEX idx_otp_expires ON common_schema.otp_table(expires_at);
 CREATE INDEX idx_otp_tenant  ON common_schema.otp_table(tenant_id);
 CREATE INDEX idx_otp_user_tenant_type_active
     ON common_schema.otp_table(user_id, tenant_id, otp_type, expires_at)
-    WHERE used_at IS NULL;
\ No newline at end of file
+    WHERE used_at IS NULL;
+-- ── User event outbox (V31, V32) ───────────────────────────────────────────
+
+CREATE TABLE common_schema.user_event_outbox_table (
+    id           BIGSERIAL    PRIMARY KEY,
+    event_key    TEXT         NOT NULL,
+    event_type   VARCHAR(50)  NOT NULL,
+    payload      TEXT         NOT NULL,
+    attempts     INTEGER      NOT NULL DEFAULT 0,
+    last_error   TEXT,
+    created_at   TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    retry_at     TIMESTAMPTZ
+);